@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.benchmarks;
+
+import java.util.List;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks over every test trace, with GC allocation profiling.
+ *
+ * Takes the usual JMH command line arguments, for example
+ * <code>CtfReadBenchmark.eventRead -p ctfTrace=KERNEL_VM,ROS2</code> to run a
+ * single benchmark on some traces. Unless given on the command line, the
+ * <code>ctfTrace</code> and <code>ftraceTrace</code> parameters are set to
+ * all the test traces.
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Run the benchmarks.
+     *
+     * @param args
+     *            JMH command line arguments
+     * @throws CommandLineOptionException
+     *             if the arguments are invalid
+     * @throws RunnerException
+     *             if a benchmark fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class);
+        setDefault(options, commandLine, "ctfTrace", TraceCorpus.getCtfTraceNames());
+        setDefault(options, commandLine, "ftraceTrace", TraceCorpus.getFtraceTraceNames());
+        new Runner(options.build()).run();
+    }
+
+    private static void setDefault(ChainedOptionsBuilder options, CommandLineOptions commandLine, String name, List<String> values) {
+        if (!commandLine.getParameter(name).hasValue() && !values.isEmpty()) {
+            options.param(name, values.toArray(new String[values.size()]));
+        }
+    }
+}
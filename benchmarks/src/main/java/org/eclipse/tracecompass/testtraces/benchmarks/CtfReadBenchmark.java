@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.testtraces.benchmarks.TraceCorpus.CtfStreams;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.testtraces.ctf.scanner.PacketScanner;
+import org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint.CheckpointVerifier;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.stats.TraceStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Raw read throughput over the CTF test traces: sequential read bandwidth of
+ * the stream files, packet header walk rate with the packet reader and with
+ * the allocation-free {@link PacketScanner}, and event decoding rate. The
+ * rates are reported by the {@link ReadCounters} (bytes, packets and events
+ * per second) next to the rate of whole-trace passes.
+ *
+ * The <code>ctfTrace</code> parameter takes {@link CtfTestTrace} names.
+ * {@link BenchmarkMain} sets it to every trace unless told otherwise.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class CtfReadBenchmark {
+
+    /** The name of the {@link CtfTestTrace} to read */
+    @Param("ROS2")
+    public String ctfTrace;
+
+    private List<CtfStreams> fTraces;
+    private final ByteBuffer fBuffer = ByteBuffer.allocateDirect(TraceCorpus.READ_BUFFER_SIZE);
+
+    /**
+     * Find the stream files, and check once that decoding them gives the
+     * number of events of the trace statistics and matches the checkpoints
+     * of the streams.
+     *
+     * @throws IOException
+     *             if the trace cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CtfTestTrace testTrace = CtfTestTrace.valueOf(ctfTrace);
+        fTraces = TraceCorpus.getCtfStreams(testTrace.getTracePath());
+        ReadCounters counters = new ReadCounters();
+        readEvents(counters);
+        TraceStatistics statistics = testTrace.getStatistics();
+        long expected = statistics.getEvents() + statistics.getDiscardedEvents();
+        if (counters.events != expected || counters.packets != statistics.getPackets()) {
+            throw new IllegalStateException(ctfTrace + " has " + counters.events + " events in " + counters.packets
+                    + " packets, expected " + expected + " in " + statistics.getPackets());
+        }
+        verifyCheckpoints(testTrace);
+    }
+
+    /**
+     * Read the stream files sequentially, without decoding.
+     *
+     * @param counters
+     *            the counters
+     * @return the number of bytes read
+     * @throws IOException
+     *             if a file cannot be read
+     */
+    @Benchmark
+    public long sequentialRead(ReadCounters counters) throws IOException {
+        long bytes = 0;
+        for (CtfStreams ctfTrace : fTraces) {
+            for (Path stream : ctfTrace.getStreams()) {
+                bytes += TraceCorpus.readFully(stream, fBuffer);
+            }
+        }
+        counters.bytes += bytes;
+        return bytes;
+    }
+
+    /**
+     * Decode the packet headers and contexts, skipping the events.
+     *
+     * @param counters
+     *            the counters
+     * @return the number of packets
+     * @throws IOException
+     *             if a stream cannot be decoded
+     */
+    @Benchmark
+    public long packetWalk(ReadCounters counters) throws IOException {
+        long packets = 0;
+        for (CtfStreams ctfTrace : fTraces) {
+            for (Path stream : ctfTrace.getStreams()) {
+                try (PacketReader reader = new PacketReader(ctfTrace.getMetadata(), stream)) {
+                    while (reader.nextPacket()) {
+                        packets++;
+                    }
+                }
+            }
+        }
+        counters.packets += packets;
+        return packets;
+    }
+
+    /**
+     * Walk the packets with the packet scanner, which reads the packet header
+     * and context fields at offsets compiled from their layout. The bytes
+     * counter is the size of the packets walked.
+     *
+     * @param counters
+     *            the counters
+     * @return the number of packets
+     * @throws IOException
+     *             if a stream cannot be scanned
+     */
+    @Benchmark
+    public long packetScan(ReadCounters counters) throws IOException {
+        long packets = 0;
+        long bits = 0;
+        for (CtfStreams ctfTrace : fTraces) {
+            for (Path stream : ctfTrace.getStreams()) {
+                try (PacketScanner scanner = new PacketScanner(ctfTrace.getMetadata(), stream)) {
+                    while (scanner.next()) {
+                        packets++;
+                        bits += scanner.getPacketSize();
+                    }
+                }
+            }
+        }
+        counters.packets += packets;
+        counters.bytes += bits / Byte.SIZE;
+        return packets;
+    }
+
+    /**
+     * Decode every event. Discarded events are counted too, as they are in
+     * {@link CtfTestTrace#getNbEvents()}.
+     *
+     * @param counters
+     *            the counters
+     * @return the number of events
+     * @throws IOException
+     *             if a stream cannot be decoded
+     */
+    @Benchmark
+    public long eventRead(ReadCounters counters) throws IOException {
+        long before = counters.events;
+        readEvents(counters);
+        return counters.events - before;
+    }
+
+    private void readEvents(ReadCounters counters) throws IOException {
+        for (CtfStreams ctfTrace : fTraces) {
+            for (Path stream : ctfTrace.getStreams()) {
+                long discarded = 0;
+                try (PacketReader reader = new PacketReader(ctfTrace.getMetadata(), stream)) {
+                    while (reader.nextPacket()) {
+                        counters.packets++;
+                        discarded = reader.getEventsDiscarded();
+                        while (reader.nextEvent()) {
+                            counters.events++;
+                        }
+                    }
+                }
+                counters.events += discarded;
+            }
+        }
+    }
+
+    private void verifyCheckpoints(CtfTestTrace testTrace) throws IOException {
+        Path tracePath = testTrace.getTracePath();
+        for (CtfStreams ctfTrace : fTraces) {
+            for (Path stream : ctfTrace.getStreams()) {
+                String relative = tracePath.relativize(stream).toString().replace('\\', '/');
+                try (CheckpointVerifier verifier = testTrace.getCheckpointVerifier(relative);
+                        PacketReader reader = new PacketReader(ctfTrace.getMetadata(), stream)) {
+                    while (reader.nextPacket()) {
+                        ClockClass clock = reader.getClock();
+                        while (reader.nextEvent()) {
+                            long timestamp = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+                            verifier.event(reader.getEventClass().getName(), timestamp, reader.getStreamId(), reader.getEventOffset(),
+                                    reader.getEventPayload());
+                        }
+                    }
+                    verifier.finish();
+                }
+            }
+        }
+    }
+}
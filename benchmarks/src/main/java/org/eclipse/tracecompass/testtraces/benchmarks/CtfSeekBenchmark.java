@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.seek.EventSeeker;
+import org.eclipse.tracecompass.testtraces.ctf.tools.seek.SeekIndex;
+import org.eclipse.tracecompass.testtraces.ctf.tools.stats.TraceStatistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Random time seek latency over the CTF test traces: each operation finds the
+ * first event at or after a random timestamp of the trace with its
+ * {@link SeekIndex}. JMH reports the latency percentiles.
+ *
+ * The seeks are checked once against the events found by decoding the whole
+ * trace. If <code>seekBudgetMicros</code> is set, the 99th percentile of the
+ * latency of these checked seeks must be within it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class CtfSeekBenchmark {
+
+    private static final int SEEKS = 1024;
+    private static final long SEED = 0x5EEC;
+
+    /** The name of the {@link CtfTestTrace} to seek in */
+    @Param({ "KERNEL_VM", "UNEVEN_STREAMS", "CONTEXT_SWITCHES_KERNEL" })
+    public String seekTrace;
+
+    /** The 99th percentile latency budget of the checked seeks, 0 for none */
+    @Param("0")
+    public long seekBudgetMicros;
+
+    private EventSeeker fSeeker;
+    private final long[] fTimestamps = new long[SEEKS];
+    private int fNext;
+
+    /**
+     * Map the seek index, pick the random timestamps, and check the seeks to
+     * them against a full decoding of the trace.
+     *
+     * @throws IOException
+     *             if the trace cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CtfTestTrace testTrace = CtfTestTrace.valueOf(seekTrace);
+        SeekIndex index = testTrace.getSeekIndex();
+        if (index == null || index.size() == 0) {
+            throw new IllegalStateException(seekTrace + " has no seek index or no events");
+        }
+        CtfMetadata metadata = testTrace.getMetadataDescriptor();
+        Path tracePath = testTrace.getTracePath();
+        fSeeker = new EventSeeker(index, metadata, tracePath);
+
+        TraceStatistics statistics = testTrace.getStatistics();
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int i = 0; i < SEEKS; i++) {
+            fTimestamps[i] = random.nextLong(statistics.getBegin(), statistics.getEnd() + 1);
+        }
+        List<String> streams = index.getStreams();
+        long[][] events = new long[streams.size()][];
+        for (int stream = 0; stream < events.length; stream++) {
+            events[stream] = readTimestamps(metadata, tracePath.resolve(streams.get(stream)));
+        }
+        long[] latencies = new long[SEEKS];
+        for (int i = 0; i < SEEKS; i++) {
+            long start = System.nanoTime();
+            boolean found = fSeeker.seek(fTimestamps[i]);
+            latencies[i] = System.nanoTime() - start;
+            check(events, fTimestamps[i], found);
+        }
+        Arrays.sort(latencies);
+        long p50 = latencies[SEEKS / 2] / 1000;
+        long p99 = latencies[SEEKS * 99 / 100] / 1000;
+        System.out.println(seekTrace + ": " + SEEKS + " seeks checked, p50 " + p50 + " us, p99 " + p99 + " us");
+        if (seekBudgetMicros > 0 && p99 > seekBudgetMicros) {
+            throw new IllegalStateException(seekTrace + " seek p99 is " + p99 + " us, over the budget of " + seekBudgetMicros + " us");
+        }
+    }
+
+    /**
+     * Close the stream files.
+     *
+     * @throws IOException
+     *             if a stream file cannot be closed
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fSeeker.close();
+    }
+
+    /**
+     * Seek to the next random timestamp.
+     *
+     * @return the timestamp of the event found
+     * @throws IOException
+     *             if a stream cannot be decoded
+     */
+    @Benchmark
+    public long randomSeek() throws IOException {
+        long timestamp = fTimestamps[fNext];
+        fNext = (fNext + 1) % SEEKS;
+        fSeeker.seek(timestamp);
+        return fSeeker.getTimestamp();
+    }
+
+    /**
+     * Check a seek against the first event at or after the timestamp among
+     * the events of all the streams.
+     */
+    private void check(long[][] events, long timestamp, boolean found) {
+        int expectedStream = -1;
+        int expectedOrdinal = -1;
+        for (int stream = 0; stream < events.length; stream++) {
+            int ordinal = lowerBound(events[stream], timestamp);
+            if (ordinal < events[stream].length
+                    && (expectedStream < 0 || events[stream][ordinal] < events[expectedStream][expectedOrdinal])) {
+                expectedStream = stream;
+                expectedOrdinal = ordinal;
+            }
+        }
+        if (found != expectedStream >= 0 || (found && (fSeeker.getStream() != expectedStream || fSeeker.getOrdinal() != expectedOrdinal))) {
+            throw new IllegalStateException(seekTrace + ": seek to " + timestamp + " found event " + fSeeker.getOrdinal() + " of stream "
+                    + fSeeker.getStream() + ", expected event " + expectedOrdinal + " of stream " + expectedStream);
+        }
+    }
+
+    private static long[] readTimestamps(CtfMetadata metadata, Path stream) throws IOException {
+        long[] timestamps = new long[1024];
+        int count = 0;
+        try (PacketReader reader = new PacketReader(metadata, stream)) {
+            while (reader.nextPacket()) {
+                ClockClass clock = reader.getClock();
+                while (reader.nextEvent()) {
+                    if (count == timestamps.length) {
+                        timestamps = Arrays.copyOf(timestamps, count * 2);
+                    }
+                    timestamps[count++] = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+                }
+            }
+        }
+        return Arrays.copyOf(timestamps, count);
+    }
+
+    private static int lowerBound(long[] timestamps, long timestamp) {
+        int low = 0;
+        int high = timestamps.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
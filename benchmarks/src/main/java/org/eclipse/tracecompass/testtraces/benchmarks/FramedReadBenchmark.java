@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.testtraces.benchmarks.TraceCorpus.CtfStreams;
+import org.eclipse.tracecompass.testtraces.common.FramedFile;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.StreamInput;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Read throughput of the CTF test traces stored as plain files against the
+ * same traces stored as {@link FramedFile}s and decompressed on read (see
+ * {@link CtfTestTrace#framed(int)}): sequential reads, random reads of
+ * {@value #RANDOM_READ_SIZE} bytes and event decoding. The rates are reported
+ * by the {@link ReadCounters}, in uncompressed bytes and events per second.
+ *
+ * The framed copy is checked once to read back exactly as the plain files,
+ * and its compression ratio is printed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class FramedReadBenchmark {
+
+    private static final int RANDOM_READ_SIZE = 4096;
+    private static final int RANDOM_READS = 256;
+    private static final long SEED = 0xF4A3E;
+
+    /** The name of the {@link CtfTestTrace} to read */
+    @Param({ "TRACE_EXPERIMENT", "MEMORY_ANALYSIS", "MANY_THREADS" })
+    public String framedTrace;
+
+    /** How the stream files are stored: "plain" or "framed" */
+    @Param({ "plain", "framed" })
+    public String storage;
+
+    /** The uncompressed size of the frames */
+    @Param("262144")
+    public int frameSize;
+
+    private List<CtfStreams> fTraces;
+    private final List<Path> fFiles = new ArrayList<>();
+    private boolean fFramed;
+    private SplittableRandom fRandom;
+    private final ByteBuffer fBuffer = ByteBuffer.allocateDirect(TraceCorpus.READ_BUFFER_SIZE);
+    private final ByteBuffer fRandomBuffer = ByteBuffer.allocate(RANDOM_READ_SIZE);
+
+    /**
+     * Find the stream files, plain or framed, and check that the framed
+     * files hold the content of the plain ones.
+     *
+     * @throws IOException
+     *             if the trace cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CtfTestTrace testTrace = CtfTestTrace.valueOf(framedTrace);
+        Path tracePath = testTrace.getTracePath();
+        Path framedPath = testTrace.framed(frameSize);
+        fFramed = "framed".equals(storage);
+        fTraces = TraceCorpus.getCtfStreams(tracePath);
+        long plainSize = 0;
+        long framedSize = 0;
+        for (CtfStreams ctfTrace : fTraces) {
+            for (Path stream : ctfTrace.getStreams()) {
+                Path framed = framedPath.resolve(tracePath.relativize(stream).toString() + FramedFile.EXTENSION);
+                plainSize += Files.size(stream);
+                framedSize += Files.size(framed);
+                if (fFramed) {
+                    checkContent(stream, framed);
+                }
+                fFiles.add(fFramed ? framed : stream);
+            }
+        }
+        fRandom = new SplittableRandom(SEED);
+        System.out.println(framedTrace + ": " + plainSize + " bytes, " + framedSize + " framed ("
+                + (plainSize == 0 ? 0 : framedSize * 100 / plainSize) + "%)");
+    }
+
+    private SeekableByteChannel open(Path file) throws IOException {
+        return fFramed ? FramedFile.open(file) : FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    private static void checkContent(Path plain, Path framed) throws IOException {
+        ByteBuffer expected = ByteBuffer.wrap(Files.readAllBytes(plain));
+        ByteBuffer actual = ByteBuffer.allocate(expected.capacity());
+        try (SeekableByteChannel channel = FramedFile.open(framed)) {
+            while (actual.hasRemaining() && channel.read(actual) >= 0) {
+                // Read the whole file
+            }
+            if (channel.size() != expected.capacity()) {
+                throw new IllegalStateException(framed + " holds " + channel.size() + " bytes, expected " + expected.capacity());
+            }
+        }
+        actual.flip();
+        if (!actual.equals(expected)) {
+            throw new IllegalStateException(framed + " does not hold the content of " + plain);
+        }
+    }
+
+    /**
+     * Read the stream files sequentially, without decoding.
+     *
+     * @param counters
+     *            the counters
+     * @return the number of bytes read
+     * @throws IOException
+     *             if a file cannot be read
+     */
+    @Benchmark
+    public long sequentialRead(ReadCounters counters) throws IOException {
+        long bytes = 0;
+        for (Path file : fFiles) {
+            try (SeekableByteChannel channel = open(file)) {
+                int read;
+                do {
+                    fBuffer.clear();
+                    read = channel.read(fBuffer);
+                    if (read > 0) {
+                        bytes += read;
+                    }
+                } while (read >= 0);
+            }
+        }
+        counters.bytes += bytes;
+        return bytes;
+    }
+
+    /**
+     * Read blocks at random positions of a random stream file.
+     *
+     * @param counters
+     *            the counters
+     * @return the number of bytes read
+     * @throws IOException
+     *             if a file cannot be read
+     */
+    @Benchmark
+    public long randomRead(ReadCounters counters) throws IOException {
+        long bytes = 0;
+        try (SeekableByteChannel channel = open(fFiles.get(fRandom.nextInt(fFiles.size())))) {
+            long size = channel.size();
+            for (int i = 0; i < RANDOM_READS && size > 0; i++) {
+                fRandomBuffer.clear();
+                channel.position(fRandom.nextLong(size));
+                bytes += Math.max(0, channel.read(fRandomBuffer));
+            }
+        }
+        counters.bytes += bytes;
+        return bytes;
+    }
+
+    /**
+     * Decode every event of every stream. Plain files are memory-mapped,
+     * framed files are decompressed in memory first.
+     *
+     * @param counters
+     *            the counters
+     * @return the number of events
+     * @throws IOException
+     *             if a stream cannot be decoded
+     */
+    @Benchmark
+    public long eventRead(ReadCounters counters) throws IOException {
+        long events = 0;
+        int file = 0;
+        for (CtfStreams ctfTrace : fTraces) {
+            CtfMetadata metadata = ctfTrace.getMetadata();
+            for (Path stream : ctfTrace.getStreams()) {
+                Path path = fFiles.get(file++);
+                try (SeekableByteChannel channel = fFramed ? FramedFile.open(path) : null;
+                        PacketReader reader = fFramed ? new PacketReader(metadata, new StreamInput(channel, stream))
+                                : new PacketReader(metadata, stream)) {
+                    while (reader.nextPacket()) {
+                        counters.packets++;
+                        while (reader.nextEvent()) {
+                            events++;
+                        }
+                    }
+                }
+            }
+        }
+        counters.events += events;
+        return events;
+    }
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.testtraces.ftrace.FtraceTestTrace;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Raw read throughput over the Ftrace test traces. There is no Ftrace decoder
+ * in this repository, so only the sequential read bandwidth of the
+ * <code>trace.dat</code> files is measured.
+ *
+ * The <code>ftraceTrace</code> parameter takes {@link FtraceTestTrace} names.
+ * {@link BenchmarkMain} sets it to every packaged trace unless told otherwise.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class FtraceReadBenchmark {
+
+    /** The name of the {@link FtraceTestTrace} to read */
+    @Param("TEST_2_6_MULTIPLE_CPUS")
+    public String ftraceTrace;
+
+    private Path fPath;
+    private final ByteBuffer fBuffer = ByteBuffer.allocateDirect(TraceCorpus.READ_BUFFER_SIZE);
+
+    /**
+     * Find the trace file.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        fPath = FtraceTestTrace.valueOf(ftraceTrace).getTracePath();
+    }
+
+    /**
+     * Read the trace file sequentially.
+     *
+     * @param counters
+     *            the counters
+     * @return the number of bytes read
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    @Benchmark
+    public long sequentialRead(ReadCounters counters) throws IOException {
+        long bytes = TraceCorpus.readFully(fPath, fBuffer);
+        counters.bytes += bytes;
+        return bytes;
+    }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.testtraces.benchmarks.TraceCorpus.CtfStreams;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint.CheckpointVerifier;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.layout.TraceLayout;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Event decoding rate of the CTF test traces re-encoded with every
+ * combination of packet size, byte order and field alignment (see
+ * {@link CtfTestTrace#reencoded(TraceLayout)}), to see how the decoder
+ * responds to each dimension of the layout. The rates are reported by the
+ * {@link ReadCounters}, in bytes, packets and events per second.
+ *
+ * The re-encoded trace is checked once against the checkpoints of the
+ * source trace, and its size is printed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class LayoutReadBenchmark {
+
+    /** The name of the {@link CtfTestTrace} to re-encode */
+    @Param({ "MANY_THREADS", "ROS2" })
+    public String layoutTrace;
+
+    /** The size of the packets, in bytes */
+    @Param({ "4096", "65536", "1048576", "16777216" })
+    public int packetSize;
+
+    /** The byte order: "le" or "be" */
+    @Param({ "le", "be" })
+    public String byteOrder;
+
+    /** The alignment of the fields: "packed" or "natural" */
+    @Param({ "packed", "natural" })
+    public String alignment;
+
+    private List<CtfStreams> fTraces;
+
+    /**
+     * Re-encode the trace if needed, and check that it decodes to the events
+     * of the source trace.
+     *
+     * @throws IOException
+     *             if the trace cannot be re-encoded or read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CtfTestTrace testTrace = CtfTestTrace.valueOf(layoutTrace);
+        TraceLayout layout = new TraceLayout(packetSize, "be".equals(byteOrder) ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN,
+                TraceLayout.Alignment.valueOf(alignment.toUpperCase(Locale.ROOT)));
+        Path tracePath = testTrace.reencoded(layout);
+        fTraces = TraceCorpus.getCtfStreams(tracePath);
+        long bytes = 0;
+        for (CtfStreams ctfTrace : fTraces) {
+            for (Path stream : ctfTrace.getStreams()) {
+                String relative = tracePath.relativize(stream).toString().replace('\\', '/');
+                try (CheckpointVerifier verifier = testTrace.getCheckpointVerifier(relative);
+                        PacketReader reader = new PacketReader(ctfTrace.getMetadata(), stream)) {
+                    while (reader.nextPacket()) {
+                        ClockClass clock = reader.getClock();
+                        while (reader.nextEvent()) {
+                            long timestamp = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+                            verifier.event(reader.getEventClass().getName(), timestamp, reader.getStreamId(), -1, reader.getEventPayload());
+                        }
+                    }
+                    verifier.finish();
+                    bytes += reader.getFileSize();
+                }
+            }
+        }
+        System.out.println(layoutTrace + " " + layout + ": " + bytes + " bytes");
+    }
+
+    /**
+     * Decode every event. Discarded events are counted too, as they are in
+     * {@link CtfTestTrace#getNbEvents()}.
+     *
+     * @param counters
+     *            the counters
+     * @return the number of events
+     * @throws IOException
+     *             if a stream cannot be decoded
+     */
+    @Benchmark
+    public long eventRead(ReadCounters counters) throws IOException {
+        long events = 0;
+        for (CtfStreams ctfTrace : fTraces) {
+            for (Path stream : ctfTrace.getStreams()) {
+                long discarded = 0;
+                try (PacketReader reader = new PacketReader(ctfTrace.getMetadata(), stream)) {
+                    while (reader.nextPacket()) {
+                        counters.packets++;
+                        counters.bytes += reader.getPacketSize() / Byte.SIZE;
+                        discarded = reader.getEventsDiscarded();
+                        while (reader.nextEvent()) {
+                            events++;
+                        }
+                    }
+                }
+                events += discarded;
+            }
+        }
+        counters.events += events;
+        return events;
+    }
+}
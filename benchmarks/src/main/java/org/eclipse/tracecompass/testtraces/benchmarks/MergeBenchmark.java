@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.testtraces.ctf.tools.merge.HeapMerger;
+import org.eclipse.tracecompass.testtraces.ctf.tools.merge.KWayMerger;
+import org.eclipse.tracecompass.testtraces.ctf.tools.merge.MergeOrder;
+import org.eclipse.tracecompass.testtraces.ctf.tools.merge.SyntheticStreams;
+import org.eclipse.tracecompass.testtraces.ctf.tools.merge.TraceMerger;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * K-way merge of the streams of the CTF test traces, on decoded timestamps so
+ * that only the merge is measured: each operation merges all the events of
+ * the trace. The <code>events</code> counter gives the merged events per
+ * second.
+ *
+ * The streams are those of the trace, or its events split over
+ * <code>mergeStreams</code> synthetic streams. The merger output is checked
+ * once against the merge order generated at build time, or against the
+ * {@link HeapMerger} for synthetic streams.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class MergeBenchmark {
+
+    private static final long SEED = 0x3E26E;
+
+    /** The name of the {@link CtfTestTrace} to merge */
+    @Param({ "UNEVEN_STREAMS" })
+    public String mergeTrace;
+
+    /** The number of synthetic streams, 0 for the streams of the trace */
+    @Param({ "0", "1000" })
+    public int mergeStreams;
+
+    /** The merger, see {@link KWayMerger#forName(String)} */
+    @Param({ "heap", "tournament", "batched" })
+    public String merger;
+
+    private KWayMerger fMerger;
+    private long[][] fStreams;
+
+    /**
+     * Decode the timestamps of the events, and check the merger against the
+     * expected merge order.
+     *
+     * @throws IOException
+     *             if the trace cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        CtfTestTrace testTrace = CtfTestTrace.valueOf(mergeTrace);
+        MergeOrder order = testTrace.getMergeOrder();
+        if (order == null || order.getEventCount() == 0) {
+            throw new IllegalStateException(mergeTrace + " has no merge order or no events");
+        }
+        CtfMetadata metadata = testTrace.getMetadataDescriptor();
+        Path tracePath = testTrace.getTracePath();
+        List<String> streams = order.getStreams();
+        long[][] timestamps = new long[streams.size()][];
+        for (int stream = 0; stream < timestamps.length; stream++) {
+            timestamps[stream] = TraceMerger.readTimestamps(metadata, tracePath.resolve(streams.get(stream)));
+        }
+        fMerger = KWayMerger.forName(merger);
+        if (mergeStreams > 0) {
+            long[] all = Arrays.stream(timestamps).flatMapToLong(Arrays::stream).sorted().toArray();
+            timestamps = SyntheticStreams.split(all, mergeStreams, SEED);
+            List<String> names = new ArrayList<>();
+            for (int stream = 0; stream < mergeStreams; stream++) {
+                names.add("synthetic" + stream);
+            }
+            order = merge(new HeapMerger(), names, timestamps);
+            streams = names;
+        }
+        long mismatch = order.mismatch(merge(fMerger, streams, timestamps));
+        if (mismatch >= 0) {
+            throw new IllegalStateException(mergeTrace + ": " + merger + " merge differs from the expected order at event " + mismatch);
+        }
+        fStreams = timestamps;
+        System.out.println(mergeTrace + ": " + order.getEventCount() + " events of " + streams.size() + " streams in " + order.getRunCount() + " runs, merge checked");
+    }
+
+    private static MergeOrder merge(KWayMerger kWayMerger, List<String> streams, long[][] timestamps) {
+        MergeOrder.Builder builder = new MergeOrder.Builder(streams);
+        kWayMerger.merge(timestamps, builder);
+        return builder.build();
+    }
+
+    /**
+     * Merge all the events.
+     *
+     * @param counters
+     *            the events merged
+     * @return a digest of the merge order
+     */
+    @Benchmark
+    public long merge(ReadCounters counters) {
+        long[] digest = new long[2];
+        fMerger.merge(fStreams, stream -> {
+            digest[0] = digest[0] * 31 + stream;
+            digest[1]++;
+        });
+        counters.events += digest[1];
+        return digest[0];
+    }
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Work done by a read benchmark. JMH reports each counter as a rate, for
+ * example bytes per second.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class ReadCounters {
+
+    /** Bytes read */
+    public long bytes;
+
+    /** Packets walked */
+    public long packets;
+
+    /** Events decoded, plus events reported as discarded */
+    public long events;
+
+    /**
+     * Reset the counters before each iteration
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        bytes = 0;
+        packets = 0;
+        events = 0;
+    }
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.testtraces.ctf.relayd.LiveViewerClient;
+import org.eclipse.tracecompass.testtraces.ctf.relayd.RelayOptions;
+import org.eclipse.tracecompass.testtraces.ctf.relayd.RelayServer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.live.ReplayPacing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Network ingest of the CTF test traces served by a {@link RelayServer} on
+ * the loopback interface: each operation is a round of {@code viewers}
+ * viewers following the same session, over the LTTng live viewer protocol,
+ * from its first packet to its last. The {@link ReadCounters} give the
+ * bytes and packets received per second by all the viewers together, so the
+ * matrix shows how the relay scales with the number of viewers and the
+ * number of packets published together.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(1)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+public class RelayFanOutBenchmark {
+
+    /** The name of the {@link CtfTestTrace} to serve */
+    @Param({ "MANY_THREADS", "ROS2" })
+    public String relayTrace;
+
+    /** The number of viewers following the session */
+    @Param({ "1", "2", "4", "8" })
+    public int viewers;
+
+    /** The number of packets published together */
+    @Param({ "1", "64" })
+    public int batchSize;
+
+    /**
+     * When the packets are published, see {@link ReplayPacing#parse}. The
+     * default rate publishes every packet as soon as the session starts.
+     */
+    @Param("9223372036854775807B/s")
+    public String pacing;
+
+    private RelayServer fServer;
+    private ExecutorService fExecutor;
+
+    /**
+     * Index the trace and start the relay.
+     *
+     * @throws IOException
+     *             if the trace cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fServer = new RelayServer(0, new RelayOptions(ReplayPacing.parse(pacing), batchSize, viewers),
+                Collections.singletonMap(relayTrace, CtfTestTrace.valueOf(relayTrace).getTracePath()));
+        fExecutor = Executors.newFixedThreadPool(viewers);
+    }
+
+    /**
+     * Stop the relay.
+     *
+     * @throws IOException
+     *             if the relay cannot be closed
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        fExecutor.shutdownNow();
+        fServer.close();
+    }
+
+    /**
+     * Follow the session with all the viewers at once.
+     *
+     * @param counters
+     *            the counters
+     * @return the bytes of packets received
+     * @throws InterruptedException
+     *             if interrupted
+     * @throws ExecutionException
+     *             if a viewer fails
+     */
+    @Benchmark
+    public long fanOut(ReadCounters counters) throws InterruptedException, ExecutionException {
+        List<Future<long[]>> rounds = new ArrayList<>();
+        for (int i = 0; i < viewers; i++) {
+            rounds.add(fExecutor.submit(() -> {
+                try (LiveViewerClient client = new LiveViewerClient(fServer.getPort())) {
+                    client.follow(client.listSessions().get(0).getId(), null);
+                    return new long[] { client.getBytesReceived(), client.getPacketsReceived() };
+                }
+            }));
+        }
+        long bytes = 0;
+        for (Future<long[]> round : rounds) {
+            long[] received = round.get();
+            bytes += received[0];
+            counters.packets += received[1];
+        }
+        counters.bytes += bytes;
+        return bytes;
+    }
+}
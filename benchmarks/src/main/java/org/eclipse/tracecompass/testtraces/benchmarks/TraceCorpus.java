@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+import org.eclipse.tracecompass.testtraces.ftrace.FtraceTestTrace;
+
+/**
+ * The traces the benchmarks run on, and what they share.
+ */
+public final class TraceCorpus {
+
+    /** Size of the buffer used for sequential reads */
+    public static final int READ_BUFFER_SIZE = 1 << 20;
+
+    private TraceCorpus() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * A CTF trace (one directory with a metadata file) and its stream files
+     */
+    public static final class CtfStreams {
+        private final CtfMetadata fMetadata;
+        private final List<Path> fStreams;
+
+        private CtfStreams(CtfMetadata metadata, List<Path> streams) {
+            fMetadata = metadata;
+            fStreams = streams;
+        }
+
+        /**
+         * @return the metadata
+         */
+        public CtfMetadata getMetadata() {
+            return fMetadata;
+        }
+
+        /**
+         * @return the stream files
+         */
+        public List<Path> getStreams() {
+            return fStreams;
+        }
+    }
+
+    /**
+     * @return the names of the CTF test traces
+     */
+    public static List<String> getCtfTraceNames() {
+        List<String> names = new ArrayList<>();
+        for (CtfTestTrace trace : CtfTestTrace.values()) {
+            names.add(trace.name());
+        }
+        return names;
+    }
+
+    /**
+     * @return the names of the Ftrace test traces that are packaged, some of
+     *         them may be missing from a source checkout
+     */
+    public static List<String> getFtraceTraceNames() {
+        List<String> names = new ArrayList<>();
+        for (FtraceTestTrace trace : FtraceTestTrace.values()) {
+            try {
+                trace.getTraceURL();
+                names.add(trace.name());
+            } catch (IllegalStateException e) {
+                System.err.println("Skipping missing Ftrace trace " + trace.name());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Find the CTF traces under a directory: a CTF test trace can be an
+     * experiment made of several traces.
+     *
+     * @param root
+     *            the trace directory
+     * @return the traces, sorted by directory
+     * @throws IOException
+     *             if a metadata file cannot be read
+     */
+    public static List<CtfStreams> getCtfStreams(Path root) throws IOException {
+        List<Path> metadataFiles;
+        try (Stream<Path> walk = Files.walk(root)) {
+            metadataFiles = walk.filter(MetadataReader::isMetadata).sorted().collect(Collectors.toList());
+        }
+        List<CtfStreams> traces = new ArrayList<>();
+        for (Path metadataFile : metadataFiles) {
+            Path directory = metadataFile.getParent();
+            traces.add(new CtfStreams(MetadataReader.read(directory), CtfIndexer.getStreamFiles(directory)));
+        }
+        return traces;
+    }
+
+    /**
+     * Read a file from start to end.
+     *
+     * @param file
+     *            the file
+     * @param buffer
+     *            the buffer to read into
+     * @return the number of bytes read
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public static long readFully(Path file, ByteBuffer buffer) throws IOException {
+        long total = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int read;
+            do {
+                buffer.clear();
+                read = channel.read(buffer);
+                if (read > 0) {
+                    total += read;
+                }
+            } while (read >= 0);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The result of a {@link CorpusValidator} run: the problems found in every
+ * trace, and the time taken to materialize and check it.
+ */
+public final class CorpusReport {
+
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double BYTES_PER_MEGABYTE = 1 << 20;
+
+    /**
+     * The validation of one trace. Checks add their problems and notes to it
+     * from the thread validating the trace.
+     */
+    public static final class TraceReport {
+
+        private final String fName;
+        private final List<String> fProblems = new ArrayList<>();
+        private final List<String> fNotes = new ArrayList<>();
+        private long fBytes;
+        private long fMaterializeNanos;
+        private long fCheckNanos;
+
+        /**
+         * Constructor
+         *
+         * @param name
+         *            the name of the trace
+         */
+        public TraceReport(String name) {
+            fName = name;
+        }
+
+        /**
+         * Report a problem: the trace is not valid.
+         *
+         * @param problem
+         *            the description of the problem
+         */
+        public void addProblem(String problem) {
+            fProblems.add(problem);
+        }
+
+        /**
+         * Report something about the trace that is not a problem, for
+         * example a check that was skipped.
+         *
+         * @param note
+         *            the note
+         */
+        public void addNote(String note) {
+            fNotes.add(note);
+        }
+
+        void setBytes(long bytes) {
+            fBytes = bytes;
+        }
+
+        void setMaterializeNanos(long nanos) {
+            fMaterializeNanos = nanos;
+        }
+
+        void setCheckNanos(long nanos) {
+            fCheckNanos = nanos;
+        }
+
+        /**
+         * @return the name of the trace
+         */
+        public String getName() {
+            return fName;
+        }
+
+        /**
+         * @return the problems found, empty if the trace is valid
+         */
+        public List<String> getProblems() {
+            return Collections.unmodifiableList(fProblems);
+        }
+
+        /**
+         * @return the notes
+         */
+        public List<String> getNotes() {
+            return Collections.unmodifiableList(fNotes);
+        }
+
+        /**
+         * @return the size of the files of the trace, in bytes
+         */
+        public long getBytes() {
+            return fBytes;
+        }
+
+        /**
+         * @return the time taken to get the trace on the file system and
+         *         verify it, in nanoseconds
+         */
+        public long getMaterializeNanos() {
+            return fMaterializeNanos;
+        }
+
+        /**
+         * @return the time taken by the checks, in nanoseconds
+         */
+        public long getCheckNanos() {
+            return fCheckNanos;
+        }
+
+        /**
+         * @return the size of the trace over the total time taken, in bytes
+         *         per second
+         */
+        public double getBytesPerSecond() {
+            long nanos = fMaterializeNanos + fCheckNanos;
+            return nanos == 0 ? 0 : fBytes * NANOS_PER_SECOND / nanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-40s %12d %10.1f %10.1f %10.1f  %s", fName, fBytes,
+                    fMaterializeNanos / NANOS_PER_MILLI, fCheckNanos / NANOS_PER_MILLI, getBytesPerSecond() / BYTES_PER_MEGABYTE,
+                    fProblems.isEmpty() ? String.join("; ", fNotes) : "FAILED: " + String.join("; ", fProblems));
+        }
+    }
+
+    private final List<TraceReport> fTraces;
+    private final long fElapsedNanos;
+
+    /**
+     * Constructor
+     *
+     * @param traces
+     *            the report of every trace
+     * @param elapsedNanos
+     *            the wall clock time of the validation, in nanoseconds
+     */
+    public CorpusReport(List<TraceReport> traces, long elapsedNanos) {
+        fTraces = Collections.unmodifiableList(new ArrayList<>(traces));
+        fElapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return the report of every trace, in validation order
+     */
+    public List<TraceReport> getTraces() {
+        return fTraces;
+    }
+
+    /**
+     * @return the wall clock time of the validation, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return fElapsedNanos;
+    }
+
+    /**
+     * @return the total size of the traces, in bytes
+     */
+    public long getBytes() {
+        return fTraces.stream().mapToLong(TraceReport::getBytes).sum();
+    }
+
+    /**
+     * Get the problems of all the traces.
+     *
+     * @return one line per problem, prefixed with the name of the trace
+     */
+    public List<String> getProblems() {
+        List<String> problems = new ArrayList<>();
+        for (TraceReport trace : fTraces) {
+            for (String problem : trace.getProblems()) {
+                problems.add(trace.getName() + ": " + problem);
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Format the report as a table, slowest traces first, followed by the
+     * totals.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-40s %12s %10s %10s %10s  %s%n", "Trace", "Bytes", "Get (ms)", "Check (ms)", "MB/s", "Notes"));
+        List<TraceReport> sorted = new ArrayList<>(fTraces);
+        sorted.sort(Comparator.comparingLong((TraceReport trace) -> trace.getMaterializeNanos() + trace.getCheckNanos()).reversed());
+        for (TraceReport trace : sorted) {
+            sb.append(trace).append(System.lineSeparator());
+        }
+        double seconds = fElapsedNanos / NANOS_PER_SECOND;
+        sb.append(String.format(Locale.ROOT, "%d traces, %d bytes in %.1f s (%.1f MB/s), %d problems", fTraces.size(), getBytes(), seconds,
+                seconds == 0 ? 0 : getBytes() / BYTES_PER_MEGABYTE / seconds, getProblems().size()));
+        return sb.toString();
+    }
+}
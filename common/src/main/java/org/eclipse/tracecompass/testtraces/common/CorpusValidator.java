@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.common.CorpusReport.TraceReport;
+
+/**
+ * Validates a whole corpus of test traces, several traces in parallel: every
+ * trace is materialized on the file system, which checks that its files are
+ * intact, then checked by a format-specific {@link Check}. The time taken by
+ * each step and the size of each trace are reported, see
+ * {@link CorpusReport}.
+ *
+ * The parallelism is the one of the {@link TraceExtractor}.
+ */
+public final class CorpusValidator {
+
+    /**
+     * Format-specific checks of a trace
+     *
+     * @param <T>
+     *            the type of the traces
+     */
+    @FunctionalInterface
+    public interface Check<T> {
+
+        /**
+         * Check a trace.
+         *
+         * @param trace
+         *            the trace
+         * @param path
+         *            the path of the trace on the file system
+         * @param report
+         *            receives the problems found
+         * @throws IOException
+         *             if the trace cannot be read, reported as a problem
+         */
+        void check(T trace, Path path, TraceReport report) throws IOException;
+    }
+
+    private CorpusValidator() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Validate traces. Exceptions thrown while materializing or checking a
+     * trace are reported as problems of that trace, and do not stop the
+     * validation of the others.
+     *
+     * @param traces
+     *            the traces, named by {@link Enum#name()}
+     * @param materializer
+     *            gets a trace on the file system and verifies its files, for
+     *            example <code>CtfTestTrace::getTracePath</code>
+     * @param check
+     *            the checks of a materialized trace
+     * @param <T>
+     *            the type of the traces
+     * @return the report, with the traces in the given order
+     */
+    public static <T extends Enum<T>> CorpusReport validate(List<T> traces, Function<T, Path> materializer, Check<T> check) {
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(TraceExtractor.getParallelism());
+        List<TraceReport> reports = new ArrayList<>();
+        try {
+            List<Future<TraceReport>> futures = new ArrayList<>();
+            for (T trace : traces) {
+                futures.add(executor.submit(() -> validate(trace, materializer, check)));
+            }
+            for (int i = 0; i < traces.size(); i++) {
+                reports.add(get(futures.get(i), traces.get(i).name()));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return new CorpusReport(reports, System.nanoTime() - start);
+    }
+
+    private static <T extends Enum<T>> TraceReport validate(T trace, Function<T, Path> materializer, Check<T> check) {
+        TraceReport report = new TraceReport(trace.name());
+        long start = System.nanoTime();
+        Path path;
+        try {
+            path = materializer.apply(trace);
+        } catch (RuntimeException e) {
+            report.setMaterializeNanos(System.nanoTime() - start);
+            report.addProblem(describe(e));
+            return report;
+        }
+        long materialized = System.nanoTime();
+        report.setMaterializeNanos(materialized - start);
+        try {
+            report.setBytes(size(path));
+            check.check(trace, path, report);
+        } catch (IOException | RuntimeException e) {
+            report.addProblem(describe(e));
+        }
+        report.setCheckNanos(System.nanoTime() - materialized);
+        return report;
+    }
+
+    private static TraceReport get(Future<TraceReport> future, String name) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            TraceReport report = new TraceReport(name);
+            report.addProblem("Interrupted");
+            return report;
+        } catch (ExecutionException e) {
+            TraceReport report = new TraceReport(name);
+            report.addProblem(describe(e.getCause()));
+            return report;
+        }
+    }
+
+    private static String describe(Throwable e) {
+        String message = e.getMessage();
+        if (e.getCause() != null && e.getCause().getMessage() != null) {
+            message += ": " + e.getCause().getMessage();
+        }
+        return e.getClass().getSimpleName() + (message == null ? "" : ": " + message);
+    }
+
+    /** The total size of the regular files of a file or directory tree */
+    private static long size(Path path) throws IOException {
+        try (Stream<Path> walk = Files.walk(path)) {
+            long size = 0;
+            for (Path file : (Iterable<Path>) walk::iterator) {
+                if (Files.isRegularFile(file)) {
+                    size += Files.size(file);
+                }
+            }
+            return size;
+        }
+    }
+}
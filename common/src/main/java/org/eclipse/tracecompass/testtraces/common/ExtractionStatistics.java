@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput figures of one trace extraction.
+ */
+public final class ExtractionStatistics {
+
+    /** Statistics of an extraction that did not happen (cache hit) */
+    public static final ExtractionStatistics NONE = new ExtractionStatistics(0, 0, 0, 0);
+
+    private final long fFiles;
+    private final long fBytes;
+    private final long fNanos;
+    private final int fParallelism;
+
+    /**
+     * Constructor
+     *
+     * @param files
+     *            the number of files written
+     * @param bytes
+     *            the number of bytes written
+     * @param nanos
+     *            the wall-clock duration of the extraction, in nanoseconds
+     * @param parallelism
+     *            the number of worker threads that were used
+     */
+    public ExtractionStatistics(long files, long bytes, long nanos, int parallelism) {
+        fFiles = files;
+        fBytes = bytes;
+        fNanos = nanos;
+        fParallelism = parallelism;
+    }
+
+    /**
+     * @return the number of files written
+     */
+    public long getFiles() {
+        return fFiles;
+    }
+
+    /**
+     * @return the number of bytes written
+     */
+    public long getBytes() {
+        return fBytes;
+    }
+
+    /**
+     * @return the wall-clock duration, in nanoseconds
+     */
+    public long getDurationNanos() {
+        return fNanos;
+    }
+
+    /**
+     * @return the number of worker threads that were used
+     */
+    public int getParallelism() {
+        return fParallelism;
+    }
+
+    /**
+     * @return the achieved throughput in bytes per second, 0 if nothing was
+     *         extracted
+     */
+    public double getBytesPerSecond() {
+        return perSecond(fBytes);
+    }
+
+    /**
+     * @return the achieved throughput in files per second, 0 if nothing was
+     *         extracted
+     */
+    public double getFilesPerSecond() {
+        return perSecond(fFiles);
+    }
+
+    private double perSecond(long count) {
+        if (fNanos <= 0) {
+            return 0;
+        }
+        return count * (double) TimeUnit.SECONDS.toNanos(1) / fNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d files, %d bytes in %.1f ms on %d threads (%.1f MB/s, %.0f files/s)", //
+                fFiles, fBytes, fNanos / 1e6, fParallelism, getBytesPerSecond() / (1 << 20), getFilesPerSecond());
+    }
+}
@@ -0,0 +1,89 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The bytes of a trace file, where they are on disk: a plain file, or an
+ * entry stored uncompressed in a jar (see {@link JarAligner}), which can be
+ * read or memory-mapped in place without extracting it. See
+ * {@link TraceCache#getRegion(java.net.URL)}.
+ */
+public final class FileRegion {
+
+    private final Path fFile;
+    private final long fOffset;
+    private final long fLength;
+
+    /**
+     * Constructor
+     *
+     * @param file
+     *            the file holding the bytes, the trace file itself or a jar
+     * @param offset
+     *            the offset of the bytes in the file
+     * @param length
+     *            the number of bytes
+     */
+    public FileRegion(Path file, long offset, long length) {
+        fFile = file;
+        fOffset = offset;
+        fLength = length;
+    }
+
+    /**
+     * @return the file holding the bytes, the trace file itself or a jar
+     */
+    public Path getFile() {
+        return fFile;
+    }
+
+    /**
+     * @return the offset of the bytes in the file, a multiple of the page
+     *         size for the entries of the jars of the test traces
+     */
+    public long getOffset() {
+        return fOffset;
+    }
+
+    /**
+     * @return the number of bytes
+     */
+    public long getLength() {
+        return fLength;
+    }
+
+    /**
+     * Memory-map the bytes, read only. The mapping stays valid after the
+     * file is closed.
+     *
+     * @return the mapped bytes
+     * @throws IOException
+     *             if the file cannot be mapped
+     */
+    public MappedByteBuffer map() throws IOException {
+        try (FileChannel channel = FileChannel.open(fFile, StandardOpenOption.READ)) {
+            return channel.map(MapMode.READ_ONLY, fOffset, fLength);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return fFile + " [" + fOffset + ", " + (fOffset + fLength) + ")";
+    }
+}
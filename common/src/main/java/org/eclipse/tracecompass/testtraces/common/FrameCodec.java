@@ -0,0 +1,212 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.util.Arrays;
+
+/**
+ * The pure-Java codec of the frames of a {@link FramedFile}: a byte-oriented
+ * LZ77, and the CRC-32 of the uncompressed frames.
+ *
+ * A compressed frame is a series of sequences. A sequence is a token byte,
+ * whose high nibble is the number of literals and low nibble the length of
+ * the match minus {@value #MIN_MATCH}, each nibble at 15 being followed by
+ * bytes of 255 and a last byte below 255 adding to it. Then come the
+ * literals, and the little endian 16-bit distance of the match back from the
+ * end of the literals, copied byte per byte so that it may overlap. The last
+ * sequence has only literals.
+ */
+final class FrameCodec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int NIBBLE_MAX = 15;
+    private static final int HASH_BITS = 14;
+    private static final int HASH_MULTIPLIER = 0x9E3779B1;
+    private static final int[] CRC_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < CRC_TABLE.length; i++) {
+            int crc = i;
+            for (int bit = 0; bit < Byte.SIZE; bit++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0xEDB88320 : crc >>> 1;
+            }
+            CRC_TABLE[i] = crc;
+        }
+    }
+
+    /* Position + 1 of the last 4 bytes with each hash, 0 if none */
+    private final int[] fTable = new int[1 << HASH_BITS];
+
+    /**
+     * Get the size of the buffer that holds any compressed frame.
+     *
+     * @param length
+     *            the uncompressed size of the frame
+     * @return the maximum compressed size
+     */
+    static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compress a frame.
+     *
+     * @param src
+     *            the uncompressed frame
+     * @param length
+     *            the uncompressed size of the frame
+     * @param dst
+     *            the compressed frame, of at least
+     *            {@link #maxCompressedLength(int)} bytes
+     * @return the compressed size of the frame
+     */
+    int compress(byte[] src, int length, byte[] dst) {
+        Arrays.fill(fTable, 0);
+        int anchor = 0;
+        int pos = 0;
+        int out = 0;
+        while (pos <= length - MIN_MATCH) {
+            int sequence = readInt(src, pos);
+            int hash = (sequence * HASH_MULTIPLIER) >>> (Integer.SIZE - HASH_BITS);
+            int candidate = fTable[hash] - 1;
+            fTable[hash] = pos + 1;
+            if (candidate < 0 || pos - candidate > MAX_OFFSET || readInt(src, candidate) != sequence) {
+                pos++;
+                continue;
+            }
+            int matchLength = MIN_MATCH;
+            while (pos + matchLength < length && src[candidate + matchLength] == src[pos + matchLength]) {
+                matchLength++;
+            }
+            out = writeToken(dst, out, pos - anchor, matchLength - MIN_MATCH);
+            System.arraycopy(src, anchor, dst, out, pos - anchor);
+            out += pos - anchor;
+            dst[out++] = (byte) (pos - candidate);
+            dst[out++] = (byte) ((pos - candidate) >>> Byte.SIZE);
+            out = writeLength(dst, out, matchLength - MIN_MATCH);
+            pos += matchLength;
+            anchor = pos;
+        }
+        out = writeToken(dst, out, length - anchor, 0);
+        System.arraycopy(src, anchor, dst, out, length - anchor);
+        return out + length - anchor;
+    }
+
+    private static int writeToken(byte[] dst, int out, int literals, int match) {
+        dst[out] = (byte) (Math.min(literals, NIBBLE_MAX) << 4 | Math.min(match, NIBBLE_MAX));
+        return writeLength(dst, out + 1, literals);
+    }
+
+    private static int writeLength(byte[] dst, int out, int length) {
+        if (length < NIBBLE_MAX) {
+            return out;
+        }
+        int pos = out;
+        int rest = length - NIBBLE_MAX;
+        while (rest >= 255) {
+            dst[pos++] = (byte) 255;
+            rest -= 255;
+        }
+        dst[pos++] = (byte) rest;
+        return pos;
+    }
+
+    /**
+     * Decompress a frame.
+     *
+     * @param src
+     *            the compressed frame
+     * @param srcLength
+     *            the compressed size of the frame
+     * @param dst
+     *            the uncompressed frame
+     * @param length
+     *            the uncompressed size of the frame
+     * @return whether the frame was valid and had exactly that size
+     */
+    static boolean decompress(byte[] src, int srcLength, byte[] dst, int length) {
+        int in = 0;
+        int out = 0;
+        while (in < srcLength) {
+            int token = src[in++] & 0xFF;
+            int literals = token >>> 4;
+            if (literals == NIBBLE_MAX) {
+                int extra;
+                do {
+                    if (in >= srcLength) {
+                        return false;
+                    }
+                    extra = src[in++] & 0xFF;
+                    literals += extra;
+                } while (extra == 255);
+            }
+            if (literals > srcLength - in || literals > length - out) {
+                return false;
+            }
+            System.arraycopy(src, in, dst, out, literals);
+            in += literals;
+            out += literals;
+            if (in == srcLength) {
+                break;
+            }
+            if (in + 2 > srcLength) {
+                return false;
+            }
+            int offset = (src[in] & 0xFF) | (src[in + 1] & 0xFF) << Byte.SIZE;
+            in += 2;
+            int matchLength = token & NIBBLE_MAX;
+            if (matchLength == NIBBLE_MAX) {
+                int extra;
+                do {
+                    if (in >= srcLength) {
+                        return false;
+                    }
+                    extra = src[in++] & 0xFF;
+                    matchLength += extra;
+                } while (extra == 255);
+            }
+            matchLength += MIN_MATCH;
+            if (offset == 0 || offset > out || matchLength > length - out) {
+                return false;
+            }
+            for (int i = 0; i < matchLength; i++) {
+                dst[out] = dst[out - offset];
+                out++;
+            }
+        }
+        return out == length;
+    }
+
+    /**
+     * Compute the CRC-32 of bytes, as {@link java.util.zip.CRC32} does.
+     *
+     * @param bytes
+     *            the bytes
+     * @param offset
+     *            the offset of the first byte
+     * @param length
+     *            the number of bytes
+     * @return the CRC-32
+     */
+    static int crc32(byte[] bytes, int offset, int length) {
+        int crc = 0xFFFFFFFF;
+        for (int i = offset; i < offset + length; i++) {
+            crc = (crc >>> Byte.SIZE) ^ CRC_TABLE[(crc ^ bytes[i]) & 0xFF];
+        }
+        return ~crc;
+    }
+
+    private static int readInt(byte[] bytes, int pos) {
+        return (bytes[pos] & 0xFF) | (bytes[pos + 1] & 0xFF) << 8 | (bytes[pos + 2] & 0xFF) << 16 | (bytes[pos + 3] & 0xFF) << 24;
+    }
+}
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * A read-only channel over the uncompressed content of a {@link FramedFile}.
+ * Reads decompress only the frames they touch, and the last frame read is
+ * kept, so sequential and nearby reads decompress every frame once. Frames
+ * whose CRC-32 does not match are reported as errors.
+ */
+public final class FramedChannel implements SeekableByteChannel {
+
+    private final SeekableByteChannel fChannel;
+    private final String fName;
+    private final int fFrameSize;
+    private final long fSize;
+    private final long[] fOffsets;
+    private final int[] fChecksums;
+
+    private final byte[] fFrame;
+    private byte[] fCompressed = new byte[0];
+    private int fFrameIndex = -1;
+    private int fFrameLength;
+    private long fFramesDecompressed;
+    private long fPosition;
+    private boolean fOpen = true;
+
+    /**
+     * Constructor
+     *
+     * @param channel
+     *            the framed file, closed with this channel
+     * @param name
+     *            the name of the framed file, for error messages
+     * @throws IOException
+     *             if the channel cannot be read or is not a framed file
+     */
+    public FramedChannel(SeekableByteChannel channel, String name) throws IOException {
+        fChannel = channel;
+        fName = name;
+        try {
+            ByteBuffer header = readFully(0, FramedFile.HEADER_SIZE);
+            if (header.getInt() != FramedFile.MAGIC) {
+                throw new IOException("Not a framed file: " + name);
+            }
+            int major = header.getInt();
+            int minor = header.getInt();
+            if (major != FramedFile.MAJOR) {
+                throw new IOException("Unsupported framed file version " + major + '.' + minor + " in " + name);
+            }
+            fFrameSize = header.getInt();
+            fSize = header.getLong();
+            int frameCount = header.getInt();
+            if (fFrameSize < 1 || fSize < 0 || frameCount < 0 || frameCount >= Integer.MAX_VALUE / Long.BYTES
+                    || frameCount != (fSize + fFrameSize - 1) / fFrameSize) {
+                throw new IOException("Invalid framed file header in " + name);
+            }
+            ByteBuffer offsets = readFully(FramedFile.HEADER_SIZE, (frameCount + 1) * Long.BYTES);
+            fOffsets = new long[frameCount + 1];
+            offsets.asLongBuffer().get(fOffsets);
+            ByteBuffer checksums = readFully(FramedFile.HEADER_SIZE + (frameCount + 1) * Long.BYTES, frameCount * Integer.BYTES);
+            fChecksums = new int[frameCount];
+            checksums.asIntBuffer().get(fChecksums);
+            if (fOffsets[frameCount] != channel.size()) {
+                throw new IOException("Truncated framed file: " + name);
+            }
+            fFrame = new byte[(int) Math.min(fFrameSize, fSize)];
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the uncompressed size of the frames
+     */
+    public int getFrameSize() {
+        return fFrameSize;
+    }
+
+    /**
+     * @return the number of frames decompressed since the channel was opened
+     */
+    public long getFramesDecompressed() {
+        return fFramesDecompressed;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        checkOpen();
+        if (fPosition >= fSize) {
+            return -1;
+        }
+        int total = 0;
+        while (dst.hasRemaining() && fPosition < fSize) {
+            int frame = (int) (fPosition / fFrameSize);
+            loadFrame(frame);
+            int start = (int) (fPosition - (long) frame * fFrameSize);
+            int length = Math.min(dst.remaining(), fFrameLength - start);
+            dst.put(fFrame, start, length);
+            fPosition += length;
+            total += length;
+        }
+        return total;
+    }
+
+    private void loadFrame(int frame) throws IOException {
+        if (frame == fFrameIndex) {
+            return;
+        }
+        fFrameIndex = -1;
+        long offset = fOffsets[frame];
+        long stored = fOffsets[frame + 1] - offset;
+        int length = (int) Math.min(fFrameSize, fSize - (long) frame * fFrameSize);
+        if (stored <= 0 || stored > length) {
+            throw new IOException("Invalid frame " + frame + " in " + fName);
+        }
+        if (stored == length) {
+            readFully(offset, ByteBuffer.wrap(fFrame, 0, length));
+        } else {
+            if (fCompressed.length < stored) {
+                fCompressed = new byte[fFrameSize];
+            }
+            readFully(offset, ByteBuffer.wrap(fCompressed, 0, (int) stored));
+            if (!FrameCodec.decompress(fCompressed, (int) stored, fFrame, length)) {
+                throw new IOException("Corrupted frame " + frame + " in " + fName);
+            }
+        }
+        if (FrameCodec.crc32(fFrame, 0, length) != fChecksums[frame]) {
+            throw new IOException("Checksum mismatch in frame " + frame + " of " + fName);
+        }
+        fFramesDecompressed++;
+        fFrameIndex = frame;
+        fFrameLength = length;
+    }
+
+    private ByteBuffer readFully(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.BIG_ENDIAN);
+        readFully(offset, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    private void readFully(long offset, ByteBuffer buffer) throws IOException {
+        fChannel.position(offset);
+        while (buffer.hasRemaining()) {
+            if (fChannel.read(buffer) < 0) {
+                throw new IOException("Truncated framed file: " + fName);
+            }
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        checkOpen();
+        return fPosition;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Negative position " + newPosition);
+        }
+        fPosition = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkOpen();
+        return fSize;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return fOpen;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fOpen) {
+            fOpen = false;
+            fChannel.close();
+        }
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!fOpen) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A seekable compressed file: the content of a file cut in frames of a fixed
+ * size, each compressed on its own with a pure-Java LZ77 codec, so that any
+ * byte range can be read by decompressing only the frames that hold it, see
+ * {@link FramedChannel}. Frames that the codec does not shrink are stored as
+ * is. The CRC-32 of every uncompressed frame is checked as it is read.
+ *
+ * The file is big endian. A 32-byte header (magic, major and minor version,
+ * frame size, uncompressed size, number of frames <code>n</code>, zero) is
+ * followed by the <code>n + 1</code> offsets of the frames in the file, the
+ * last one being the end of the file, the <code>n</code> CRC-32 of the
+ * frames, then by the frames. A frame is stored as is when its length is its
+ * uncompressed size.
+ *
+ * <pre>
+ * java FramedFile &lt;source&gt; &lt;target&gt; [frame size]
+ * </pre>
+ */
+public final class FramedFile {
+
+    /** Magic number of the framed files */
+    public static final int MAGIC = 0x5346524D;
+
+    /** Major version written */
+    public static final int MAJOR = 2;
+
+    /** Minor version written */
+    public static final int MINOR = 0;
+
+    /** Extension added to the name of a framed file */
+    public static final String EXTENSION = ".frames";
+
+    /** Default uncompressed size of a frame */
+    public static final int DEFAULT_FRAME_SIZE = 1 << 18;
+
+    /** Size of the header, before the frame offsets */
+    static final int HEADER_SIZE = 32;
+
+    private FramedFile() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Compress a file, or every file of a directory tree.
+     *
+     * @param args
+     *            the source, the target and optionally the frame size
+     * @throws IOException
+     *             if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Usage: FramedFile <source> <target> [frame size]");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        Path source = Paths.get(args[0]);
+        int frameSize = args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_FRAME_SIZE;
+        if (Files.isDirectory(source)) {
+            compressTree(source, Paths.get(args[1]), frameSize, file -> true);
+        } else {
+            compress(source, Paths.get(args[1]), frameSize);
+        }
+        System.out.println("Compressed " + args[0] + " in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Compress the files of a directory tree. The selected files are written
+     * as framed files, named after the file with {@link #EXTENSION} added,
+     * the others are copied as is.
+     *
+     * @param source
+     *            the source directory
+     * @param target
+     *            the target directory, which must not exist
+     * @param frameSize
+     *            the uncompressed size of the frames
+     * @param selector
+     *            selects the files to compress
+     * @throws IOException
+     *             if a file cannot be read or written
+     */
+    public static void compressTree(Path source, Path target, int frameSize, Predicate<Path> selector) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        Files.createDirectories(target);
+        for (Path file : files) {
+            Path copy = target.resolve(source.relativize(file).toString());
+            Files.createDirectories(copy.getParent());
+            if (selector.test(file)) {
+                compress(file, copy.resolveSibling(copy.getFileName() + EXTENSION), frameSize);
+            } else {
+                Files.copy(file, copy);
+            }
+        }
+    }
+
+    /**
+     * Compress a file.
+     *
+     * @param source
+     *            the file to compress
+     * @param target
+     *            the framed file, replaced if it exists
+     * @param frameSize
+     *            the uncompressed size of the frames
+     * @throws IOException
+     *             if a file cannot be read or written
+     */
+    public static void compress(Path source, Path target, int frameSize) throws IOException {
+        if (frameSize < 1) {
+            throw new IllegalArgumentException("Frame size must be at least 1: " + frameSize);
+        }
+        FrameCodec codec = new FrameCodec();
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long frameCount = (size + frameSize - 1) / frameSize;
+            if (frameCount >= Integer.MAX_VALUE / Long.BYTES) {
+                throw new IOException("Too many frames for " + source + ": " + frameCount);
+            }
+            ByteBuffer offsets = ByteBuffer.allocate((int) (frameCount + 1) * Long.BYTES).order(ByteOrder.BIG_ENDIAN);
+            ByteBuffer checksums = ByteBuffer.allocate((int) frameCount * Integer.BYTES).order(ByteOrder.BIG_ENDIAN);
+            long offset = HEADER_SIZE + offsets.capacity() + checksums.capacity();
+            byte[] raw = new byte[frameSize];
+            byte[] compressed = new byte[FrameCodec.maxCompressedLength(frameSize)];
+            for (long frame = 0; frame < frameCount; frame++) {
+                ByteBuffer rawBuffer = ByteBuffer.wrap(raw, 0, (int) Math.min(frameSize, size - frame * frameSize));
+                while (rawBuffer.hasRemaining() && in.read(rawBuffer) >= 0) {
+                    // Read the whole frame
+                }
+                int length = rawBuffer.position();
+                checksums.putInt(FrameCodec.crc32(raw, 0, length));
+                int compressedLength = codec.compress(raw, length, compressed);
+                /* Stored as is unless the codec makes it smaller */
+                ByteBuffer frameBuffer = compressedLength < length
+                        ? ByteBuffer.wrap(compressed, 0, compressedLength)
+                        : ByteBuffer.wrap(raw, 0, length);
+                offsets.putLong(offset);
+                offset += frameBuffer.remaining();
+                out.position(offset - frameBuffer.remaining());
+                while (frameBuffer.hasRemaining()) {
+                    out.write(frameBuffer);
+                }
+            }
+            offsets.putLong(offset);
+            offsets.flip();
+            checksums.flip();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+            header.putInt(MAGIC).putInt(MAJOR).putInt(MINOR).putInt(frameSize).putLong(size).putInt((int) frameCount).putInt(0);
+            header.flip();
+            out.position(0);
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            while (offsets.hasRemaining()) {
+                out.write(offsets);
+            }
+            while (checksums.hasRemaining()) {
+                out.write(checksums);
+            }
+        }
+    }
+
+    /**
+     * Open a framed file for reading.
+     *
+     * @param file
+     *            the framed file
+     * @return a channel over the uncompressed content
+     * @throws IOException
+     *             if the file cannot be opened or is not a framed file
+     */
+    public static FramedChannel open(Path file) throws IOException {
+        return new FramedChannel(FileChannel.open(file, StandardOpenOption.READ), file.toString());
+    }
+}
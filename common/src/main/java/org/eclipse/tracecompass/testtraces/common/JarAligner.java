@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Enumeration;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+
+/**
+ * Rewrites a jar so that its trace files are stored uncompressed, their
+ * bytes starting at a multiple of the page size, as Android's zipalign does.
+ * The bytes of a trace file can then be memory-mapped straight from the jar
+ * (see {@link TraceCache#getRegion(java.net.URL)}), with no extraction and
+ * no second copy on disk.
+ *
+ * The trace files are the entries found in the resources directory of the
+ * module; the other entries, such as classes and the files generated at
+ * build time, are compressed. The entries keep their order and times, but
+ * not their extra fields and comments. Entries are aligned with padding in
+ * an extra field of the local header, so that the central directory stays
+ * compact.
+ *
+ * <pre>
+ * java JarAligner &lt;jar&gt; &lt;resources directory&gt; [alignment]
+ * </pre>
+ */
+public final class JarAligner {
+
+    /** Default alignment of the trace files, the usual page size */
+    public static final int DEFAULT_ALIGNMENT = 4096;
+
+    /* Extra field of the padding: the header id of zipalign, its alignment */
+    private static final int PADDING_ID = 0xD935;
+    private static final int PADDING_HEADER_SIZE = 6;
+
+    private static final int VERSION_STORED = 10;
+    private static final int VERSION_DEFLATED = 20;
+    /* Names and comments are UTF-8 */
+    private static final int FLAG_UTF8 = 0x800;
+    private static final int DIRECTORY_ATTRIBUTE = 0x10;
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private JarAligner() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Align the trace files of a jar.
+     *
+     * @param args
+     *            the jar, the resources directory and optionally the
+     *            alignment
+     * @throws IOException
+     *             if the jar cannot be rewritten
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 3 || args.length == 3 && !args[2].matches("[0-9]+")) {
+            System.err.println("Usage: JarAligner <jar> <resources directory> [alignment]");
+            System.exit(2);
+        }
+        int alignment = args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_ALIGNMENT;
+        long start = System.nanoTime();
+        int aligned = align(Paths.get(args[0]), Paths.get(args[1]), alignment);
+        System.out.println("Stored " + aligned + " trace files of " + args[0] + " aligned to " + alignment + " bytes in "
+                + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Rewrite a jar in place, with the entries that are files of a resources
+     * directory stored uncompressed and aligned, and the others compressed.
+     *
+     * @param jar
+     *            the jar
+     * @param resources
+     *            the resources directory, which may not exist
+     * @param alignment
+     *            the alignment of the bytes of the stored entries, a power
+     *            of two
+     * @return the number of entries stored and aligned
+     * @throws IOException
+     *             if the jar cannot be read or written, or needs Zip64
+     */
+    public static int align(Path jar, Path resources, int alignment) throws IOException {
+        if (alignment <= 0 || Integer.bitCount(alignment) != 1 || alignment > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid alignment " + alignment);
+        }
+        Path target = Files.createTempFile(jar.toAbsolutePath().getParent(), ".align-", ".jar");
+        int aligned = 0;
+        try {
+            try (ZipFile zip = new ZipFile(jar.toFile());
+                    FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                JarWriter writer = new JarWriter(channel);
+                Enumeration<? extends ZipEntry> entries = zip.entries();
+                while (entries.hasMoreElements()) {
+                    ZipEntry entry = entries.nextElement();
+                    if (entry.isDirectory()) {
+                        writer.putDirectory(entry);
+                    } else if (Files.isRegularFile(resources.resolve(entry.getName()))) {
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            writer.putStored(entry, in, alignment);
+                        }
+                        aligned++;
+                    } else {
+                        try (InputStream in = zip.getInputStream(entry)) {
+                            writer.putDeflated(entry, in);
+                        }
+                    }
+                }
+                writer.finish();
+            }
+            try {
+                /* The temporary file is only readable by its owner */
+                Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(jar));
+            } catch (UnsupportedOperationException e) {
+                // Not a POSIX file system, keep the default permissions
+            }
+            try {
+                Files.move(target, jar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(target, jar, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(target);
+        }
+        return aligned;
+    }
+
+    /**
+     * Writes the local headers and data of the entries, then the central
+     * directory.
+     */
+    private static final class JarWriter {
+        private final FileChannel fChannel;
+        private final ByteArrayOutputStream fDirectory = new ByteArrayOutputStream();
+        private int fCount;
+
+        public JarWriter(FileChannel channel) {
+            fChannel = channel;
+        }
+
+        public void putDirectory(ZipEntry entry) throws IOException {
+            putHeader(entry, ZipEntry.STORED, 0, 0, 0, 0, 0);
+        }
+
+        public void putStored(ZipEntry entry, InputStream in, int alignment) throws IOException {
+            byte[] name = entry.getName().getBytes(StandardCharsets.UTF_8);
+            long dataOffset = fChannel.position() + JarDirectory.LOCAL_HEADER_SIZE + name.length;
+            int padding = (int) (-dataOffset & (alignment - 1));
+            if (padding > 0 && padding < PADDING_HEADER_SIZE) {
+                padding += alignment;
+            }
+            putHeader(entry, ZipEntry.STORED, entry.getCrc(), entry.getSize(), entry.getSize(), padding, alignment);
+            copy(in, entry);
+        }
+
+        public void putDeflated(ZipEntry entry, InputStream in) throws IOException {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            CRC32 crc = new CRC32();
+            long size = 0;
+            Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            try (OutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+                byte[] buffer = new byte[COPY_BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                    crc.update(buffer, 0, read);
+                    size += read;
+                }
+            } finally {
+                deflater.end();
+            }
+            putHeader(entry, ZipEntry.DEFLATED, crc.getValue(), compressed.size(), size, 0, 0);
+            write(ByteBuffer.wrap(compressed.toByteArray()));
+        }
+
+        private void copy(InputStream in, ZipEntry entry) throws IOException {
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            long copied = 0;
+            int read;
+            while ((read = in.read(buffer)) >= 0) {
+                write(ByteBuffer.wrap(buffer, 0, read));
+                copied += read;
+            }
+            if (copied != entry.getSize()) {
+                throw new ZipException("Entry " + entry.getName() + " holds " + copied + " bytes, expected " + entry.getSize());
+            }
+        }
+
+        private void putHeader(ZipEntry entry, int method, long crc, long compressedSize, long size, int padding, int alignment)
+                throws IOException {
+            long offset = fChannel.position();
+            if (offset > 0xFFFFFFFFL || compressedSize >= 0xFFFFFFFFL || size >= 0xFFFFFFFFL || fCount == 0xFFFF) {
+                throw new ZipException("Jar too large without Zip64 at " + entry.getName());
+            }
+            byte[] name = entry.getName().getBytes(StandardCharsets.UTF_8);
+            int version = method == ZipEntry.STORED ? VERSION_STORED : VERSION_DEFLATED;
+            long dosTime = toDosTime(entry.getTime());
+
+            ByteBuffer local = ByteBuffer.allocate(JarDirectory.LOCAL_HEADER_SIZE + name.length + padding).order(ByteOrder.LITTLE_ENDIAN);
+            local.putInt(JarDirectory.LOCAL_HEADER_SIGNATURE).putShort((short) version).putShort((short) FLAG_UTF8)
+                    .putShort((short) method).putInt((int) dosTime).putInt((int) crc).putInt((int) compressedSize).putInt((int) size)
+                    .putShort((short) name.length).putShort((short) padding).put(name);
+            if (padding > 0) {
+                local.putShort((short) PADDING_ID).putShort((short) (padding - Integer.BYTES)).putShort((short) alignment);
+            }
+            local.clear();
+            write(local);
+
+            ByteBuffer header = ByteBuffer.allocate(JarDirectory.CENTRAL_HEADER_SIZE + name.length).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(JarDirectory.CENTRAL_HEADER_SIGNATURE).putShort((short) VERSION_DEFLATED).putShort((short) version)
+                    .putShort((short) FLAG_UTF8).putShort((short) method).putInt((int) dosTime).putInt((int) crc)
+                    .putInt((int) compressedSize).putInt((int) size).putShort((short) name.length).putShort((short) 0)
+                    .putShort((short) 0).putShort((short) 0).putShort((short) 0)
+                    .putInt(entry.isDirectory() ? DIRECTORY_ATTRIBUTE : 0).putInt((int) offset).put(name);
+            fDirectory.write(header.array());
+            fCount++;
+        }
+
+        public void finish() throws IOException {
+            long offset = fChannel.position();
+            if (offset > 0xFFFFFFFFL) {
+                throw new ZipException("Jar too large without Zip64");
+            }
+            write(ByteBuffer.wrap(fDirectory.toByteArray()));
+            ByteBuffer end = ByteBuffer.allocate(JarDirectory.END_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            end.putInt(JarDirectory.END_SIGNATURE).putShort((short) 0).putShort((short) 0).putShort((short) fCount)
+                    .putShort((short) fCount).putInt(fDirectory.size()).putInt((int) offset).putShort((short) 0);
+            end.flip();
+            write(end);
+        }
+
+        private void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                fChannel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Convert a time to the MS-DOS date and time of zip headers, in the
+     * local time zone as {@link ZipEntry#getTime()} reads them.
+     */
+    private static long toDosTime(long time) {
+        LocalDateTime date = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+        if (date.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return (long) (date.getYear() - 1980) << 25 | date.getMonthValue() << 21 | date.getDayOfMonth() << 16 | date.getHour() << 11
+                | date.getMinute() << 5 | date.getSecond() >> 1;
+    }
+}
@@ -0,0 +1,192 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * The central directory of a jar, read without the help of
+ * {@link java.util.zip.ZipFile}, which does not tell where the data of an
+ * entry is: the method, sizes and local header offset of every entry. Zip64
+ * jars are not supported.
+ */
+final class JarDirectory {
+
+    /** Signature of a local file header */
+    static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    /** Signature of a central directory header */
+    static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    /** Signature of the end of central directory record */
+    static final int END_SIGNATURE = 0x06054b50;
+    /** Size of a local file header, without its name and extra field */
+    static final int LOCAL_HEADER_SIZE = 30;
+    /** Size of a central directory header, without its variable fields */
+    static final int CENTRAL_HEADER_SIZE = 46;
+    /** Size of the end of central directory record, without its comment */
+    static final int END_SIZE = 22;
+
+    /**
+     * An entry of the central directory
+     */
+    static final class Entry {
+        private final int fMethod;
+        private final long fCompressedSize;
+        private final long fSize;
+        private final long fLocalHeaderOffset;
+
+        private Entry(int method, long compressedSize, long size, long localHeaderOffset) {
+            fMethod = method;
+            fCompressedSize = compressedSize;
+            fSize = size;
+            fLocalHeaderOffset = localHeaderOffset;
+        }
+
+        public int getMethod() {
+            return fMethod;
+        }
+
+        public long getCompressedSize() {
+            return fCompressedSize;
+        }
+
+        public long getSize() {
+            return fSize;
+        }
+
+        public long getLocalHeaderOffset() {
+            return fLocalHeaderOffset;
+        }
+    }
+
+    private final Path fJar;
+    private final Map<String, Entry> fEntries;
+
+    private JarDirectory(Path jar, Map<String, Entry> entries) {
+        fJar = jar;
+        fEntries = entries;
+    }
+
+    /**
+     * Read the central directory of a jar.
+     *
+     * @param jar
+     *            the jar
+     * @return the directory
+     * @throws IOException
+     *             if the jar cannot be read or is not a valid jar
+     */
+    public static JarDirectory read(Path jar) throws IOException {
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            long size = channel.size();
+            /* The end record is followed by a comment of up to 64 KB */
+            int tailSize = (int) Math.min(size, END_SIZE + 0xFFFF);
+            ByteBuffer tail = read(channel, size - tailSize, tailSize);
+            int end = -1;
+            for (int i = tailSize - END_SIZE; i >= 0; i--) {
+                if (tail.getInt(i) == END_SIGNATURE) {
+                    end = i;
+                    break;
+                }
+            }
+            if (end < 0) {
+                throw new ZipException("No end of central directory in " + jar);
+            }
+            int count = Short.toUnsignedInt(tail.getShort(end + 10));
+            long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+            long directoryOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+            if (count == 0xFFFF || directoryOffset == 0xFFFFFFFFL || directoryOffset + directorySize > size) {
+                throw new ZipException("Unsupported or invalid central directory in " + jar);
+            }
+            ByteBuffer directory = read(channel, directoryOffset, (int) directorySize);
+            Map<String, Entry> entries = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                if (directory.remaining() < CENTRAL_HEADER_SIZE || directory.getInt() != CENTRAL_HEADER_SIGNATURE) {
+                    throw new ZipException("Invalid central directory header " + i + " in " + jar);
+                }
+                int start = directory.position() - Integer.BYTES;
+                int method = Short.toUnsignedInt(directory.getShort(start + 10));
+                long compressedSize = Integer.toUnsignedLong(directory.getInt(start + 20));
+                long entrySize = Integer.toUnsignedLong(directory.getInt(start + 24));
+                int nameLength = Short.toUnsignedInt(directory.getShort(start + 28));
+                int extraLength = Short.toUnsignedInt(directory.getShort(start + 30));
+                int commentLength = Short.toUnsignedInt(directory.getShort(start + 32));
+                long localHeaderOffset = Integer.toUnsignedLong(directory.getInt(start + 42));
+                byte[] name = new byte[nameLength];
+                directory.position(start + CENTRAL_HEADER_SIZE);
+                directory.get(name);
+                directory.position(directory.position() + extraLength + commentLength);
+                entries.put(new String(name, StandardCharsets.UTF_8), new Entry(method, compressedSize, entrySize, localHeaderOffset));
+            }
+            return new JarDirectory(jar, entries);
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new ZipException("Truncated jar");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Get an entry.
+     *
+     * @param name
+     *            the entry name
+     * @return the entry, null if there is none of that name
+     */
+    public Entry getEntry(String name) {
+        return fEntries.get(name);
+    }
+
+    /**
+     * Get where the bytes of an entry stored uncompressed are.
+     *
+     * @param name
+     *            the entry name
+     * @return the region of the jar holding the bytes of the entry
+     * @throws IOException
+     *             if the entry does not exist or is compressed
+     */
+    public FileRegion getRegion(String name) throws IOException {
+        Entry entry = fEntries.get(name);
+        if (entry == null) {
+            throw new ZipException("No entry " + name + " in " + fJar);
+        }
+        if (entry.getMethod() != ZipEntry.STORED || entry.getCompressedSize() != entry.getSize()) {
+            throw new ZipException("Entry " + name + " of " + fJar + " is compressed, it cannot be read in place");
+        }
+        try (FileChannel channel = FileChannel.open(fJar, StandardOpenOption.READ)) {
+            ByteBuffer header = read(channel, entry.getLocalHeaderOffset(), LOCAL_HEADER_SIZE);
+            if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid local header of " + name + " in " + fJar);
+            }
+            int nameLength = Short.toUnsignedInt(header.getShort(26));
+            int extraLength = Short.toUnsignedInt(header.getShort(28));
+            return new FileRegion(fJar, entry.getLocalHeaderOffset() + LOCAL_HEADER_SIZE + nameLength + extraLength, entry.getSize());
+        }
+    }
+}
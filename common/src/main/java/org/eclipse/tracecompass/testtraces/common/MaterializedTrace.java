@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.nio.file.Path;
+
+/**
+ * A trace available on the file system, with the cost of getting it there.
+ */
+public final class MaterializedTrace {
+
+    private final Path fPath;
+    private final boolean fCacheHit;
+    private final ExtractionStatistics fStatistics;
+
+    /**
+     * Constructor
+     *
+     * @param path
+     *            the path of the trace
+     * @param cacheHit
+     *            true if the trace was already on disk
+     * @param statistics
+     *            the extraction statistics, {@link ExtractionStatistics#NONE}
+     *            if nothing was extracted
+     */
+    public MaterializedTrace(Path path, boolean cacheHit, ExtractionStatistics statistics) {
+        fPath = path;
+        fCacheHit = cacheHit;
+        fStatistics = statistics;
+    }
+
+    /**
+     * @return the path of the trace, a directory or a single file
+     */
+    public Path getPath() {
+        return fPath;
+    }
+
+    /**
+     * @return true if no extraction was needed
+     */
+    public boolean isCacheHit() {
+        return fCacheHit;
+    }
+
+    /**
+     * @return the extraction statistics
+     */
+    public ExtractionStatistics getStatistics() {
+        return fStatistics;
+    }
+
+    @Override
+    public String toString() {
+        return fPath + (fCacheHit ? " (cached)" : " (" + fStatistics + ')');
+    }
+}
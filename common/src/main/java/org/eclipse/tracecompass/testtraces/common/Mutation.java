@@ -0,0 +1,196 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A corrupted variant of a file, described by the bytes that differ from the
+ * original rather than by a copy: a list of patches (offset and replacement
+ * bytes, later patches winning over earlier ones) and an optional new size.
+ * The variant is read through an {@link OverlayChannel} over the original
+ * file, which is never modified.
+ *
+ * Mutations are immutable, {@link #withPatch(long, byte[])} and
+ * {@link #withSize(long)} return new instances.
+ */
+public final class Mutation {
+
+    private final MutationKind fKind;
+    private final String fDescription;
+    private final long fSize;
+    private final long[] fOffsets;
+    private final byte[][] fPatches;
+
+    /**
+     * Constructor, for a mutation that changes nothing yet
+     *
+     * @param kind
+     *            the kind of corruption
+     * @param description
+     *            what is corrupted, for error messages
+     */
+    public Mutation(MutationKind kind, String description) {
+        this(kind, description, -1, new long[0], new byte[0][]);
+    }
+
+    private Mutation(MutationKind kind, String description, long size, long[] offsets, byte[][] patches) {
+        fKind = kind;
+        fDescription = description;
+        fSize = size;
+        fOffsets = offsets;
+        fPatches = patches;
+    }
+
+    /**
+     * Get a mutation that also replaces bytes of the file.
+     *
+     * @param offset
+     *            the offset of the bytes, which may be past the end of the
+     *            file
+     * @param bytes
+     *            the replacement bytes
+     * @return the new mutation
+     */
+    public Mutation withPatch(long offset, byte[] bytes) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Negative offset " + offset);
+        }
+        long[] offsets = Arrays.copyOf(fOffsets, fOffsets.length + 1);
+        byte[][] patches = Arrays.copyOf(fPatches, fPatches.length + 1);
+        offsets[fOffsets.length] = offset;
+        patches[fPatches.length] = bytes.clone();
+        return new Mutation(fKind, fDescription, fSize, offsets, patches);
+    }
+
+    /**
+     * Get a mutation that also changes the size of the file. Bytes past the
+     * end of the original file read as zeros, unless patched.
+     *
+     * @param size
+     *            the new size, in bytes
+     * @return the new mutation
+     */
+    public Mutation withSize(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative size " + size);
+        }
+        return new Mutation(fKind, fDescription, size, fOffsets, fPatches);
+    }
+
+    /**
+     * @return the kind of corruption
+     */
+    public MutationKind getKind() {
+        return fKind;
+    }
+
+    /**
+     * @return what is corrupted
+     */
+    public String getDescription() {
+        return fDescription;
+    }
+
+    /**
+     * @return the size of the mutated file, -1 if it is the size of the
+     *         original
+     */
+    public long getSize() {
+        return fSize;
+    }
+
+    /**
+     * @return the number of patches
+     */
+    public int getPatchCount() {
+        return fOffsets.length;
+    }
+
+    /**
+     * @param patch
+     *            the patch index, from 0
+     * @return the offset of the patch in the file
+     */
+    public long getPatchOffset(int patch) {
+        return fOffsets[patch];
+    }
+
+    /**
+     * @param patch
+     *            the patch index, from 0
+     * @return the replacement bytes of the patch
+     */
+    public byte[] getPatch(int patch) {
+        return fPatches[patch].clone();
+    }
+
+    /**
+     * Apply the patches to a region of the file.
+     *
+     * @param buffer
+     *            the bytes of the region
+     * @param start
+     *            the index of the region in the buffer
+     * @param length
+     *            the length of the region
+     * @param offset
+     *            the offset of the region in the file
+     */
+    void apply(byte[] buffer, int start, int length, long offset) {
+        for (int i = 0; i < fOffsets.length; i++) {
+            byte[] patch = fPatches[i];
+            long from = Math.max(offset, fOffsets[i]);
+            long to = Math.min(offset + length, fOffsets[i] + patch.length);
+            if (from < to) {
+                System.arraycopy(patch, (int) (from - fOffsets[i]), buffer, start + (int) (from - offset), (int) (to - from));
+            }
+        }
+    }
+
+    /**
+     * Open the mutated variant of a file.
+     *
+     * @param file
+     *            the original file
+     * @return a read-only channel over the variant
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public SeekableByteChannel open(Path file) throws IOException {
+        return open(FileChannel.open(file, StandardOpenOption.READ));
+    }
+
+    /**
+     * Open the mutated variant of the content of a channel.
+     *
+     * @param channel
+     *            the original content, closed with the returned channel
+     * @return a read-only channel over the variant
+     * @throws IOException
+     *             if the size of the channel cannot be read
+     */
+    public SeekableByteChannel open(SeekableByteChannel channel) throws IOException {
+        return new OverlayChannel(channel, this);
+    }
+
+    @Override
+    public String toString() {
+        return "Mutation [kind=" + fKind + ", description=" + fDescription + ", patches=" + fOffsets.length
+                + (fSize < 0 ? "" : ", size=" + fSize) + "]";
+    }
+}
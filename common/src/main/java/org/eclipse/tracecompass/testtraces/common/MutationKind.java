@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+/**
+ * The kinds of corruption a {@link Mutator} can apply to a trace file.
+ */
+public enum MutationKind {
+
+    /** A section or packet size field set to an invalid value */
+    SECTION_SIZE,
+
+    /** The file cut in the middle of a page or packet */
+    TRUNCATED_PAGE,
+
+    /** One bit of a magic number flipped */
+    FLIPPED_MAGIC,
+
+    /** A timestamp set before the one preceding it */
+    TIMESTAMP_ORDER
+}
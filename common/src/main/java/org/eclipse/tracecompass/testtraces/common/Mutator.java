@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates corrupted variants of one trace file, knowing its format.
+ *
+ * The variants form a reproducible stream: variant <code>i</code> of seed
+ * <code>s</code> is always the same, whatever the order in which variants are
+ * generated, so a failure of a sweep can be replayed from its seed and index
+ * alone, and sweeps can run in parallel.
+ */
+public interface Mutator {
+
+    /**
+     * @return the kinds of corruption that apply to the file, empty if the
+     *         file cannot be corrupted
+     */
+    Set<MutationKind> getKinds();
+
+    /**
+     * Generate a variant.
+     *
+     * @param kind
+     *            the kind of corruption, one of {@link #getKinds()}
+     * @param random
+     *            the source of randomness
+     * @return the variant
+     */
+    Mutation mutate(MutationKind kind, SplittableRandom random);
+
+    /**
+     * Generate variant <code>index</code> of a seeded stream, its kind being
+     * picked uniformly among {@link #getKinds()}.
+     *
+     * @param seed
+     *            the seed of the stream
+     * @param index
+     *            the index of the variant in the stream
+     * @return the variant
+     */
+    default Mutation mutate(long seed, long index) {
+        List<MutationKind> kinds = new ArrayList<>(getKinds());
+        if (kinds.isEmpty()) {
+            throw new IllegalStateException("The file cannot be corrupted");
+        }
+        SplittableRandom random = new SplittableRandom(seed + index * 0x9E3779B97F4A7C15L);
+        return mutate(kinds.get(random.nextInt(kinds.size())), random);
+    }
+
+    /**
+     * Generate the first variants of a seeded stream.
+     *
+     * @param seed
+     *            the seed of the stream
+     * @param count
+     *            the number of variants
+     * @return the variants, see {@link #mutate(long, long)}
+     */
+    default Stream<Mutation> mutations(long seed, long count) {
+        return LongStream.range(0, count).mapToObj(index -> mutate(seed, index));
+    }
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Arrays;
+
+/**
+ * A read-only channel over the content of another channel with a
+ * {@link Mutation} applied on the fly: the bytes are read from the original
+ * and patched as they are copied to the caller's buffer, so no copy of the
+ * file is ever made.
+ */
+public final class OverlayChannel implements SeekableByteChannel {
+
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    private final SeekableByteChannel fChannel;
+    private final Mutation fMutation;
+    private final long fOriginalSize;
+    private final long fSize;
+    private final byte[] fChunk;
+    private long fPosition;
+    private boolean fOpen = true;
+
+    /**
+     * Constructor
+     *
+     * @param channel
+     *            the original content, closed with this channel
+     * @param mutation
+     *            the mutation to apply
+     * @throws IOException
+     *             if the size of the channel cannot be read
+     */
+    public OverlayChannel(SeekableByteChannel channel, Mutation mutation) throws IOException {
+        fChannel = channel;
+        fMutation = mutation;
+        fOriginalSize = channel.size();
+        fSize = mutation.getSize() < 0 ? fOriginalSize : mutation.getSize();
+        fChunk = new byte[CHUNK_SIZE];
+    }
+
+    /**
+     * @return the mutation applied
+     */
+    public Mutation getMutation() {
+        return fMutation;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        checkOpen();
+        if (fPosition >= fSize) {
+            return -1;
+        }
+        int total = 0;
+        while (dst.hasRemaining() && fPosition < fSize) {
+            int length = (int) Math.min(Math.min(dst.remaining(), CHUNK_SIZE), fSize - fPosition);
+            int read = 0;
+            if (fPosition < fOriginalSize) {
+                ByteBuffer chunk = ByteBuffer.wrap(fChunk, 0, (int) Math.min(length, fOriginalSize - fPosition));
+                fChannel.position(fPosition);
+                while (chunk.hasRemaining() && fChannel.read(chunk) >= 0) {
+                    // Read the whole chunk
+                }
+                read = chunk.position();
+            }
+            /* Past the end of the original, the file is extended with zeros */
+            Arrays.fill(fChunk, read, length, (byte) 0);
+            fMutation.apply(fChunk, 0, length, fPosition);
+            dst.put(fChunk, 0, length);
+            fPosition += length;
+            total += length;
+        }
+        return total;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        checkOpen();
+        return fPosition;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Negative position " + newPosition);
+        }
+        fPosition = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkOpen();
+        return fSize;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) throws IOException {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return fOpen;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fOpen = false;
+        fChannel.close();
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!fOpen) {
+            throw new ClosedChannelException();
+        }
+    }
+}
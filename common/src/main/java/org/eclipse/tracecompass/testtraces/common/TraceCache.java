@@ -0,0 +1,448 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Shared on-disk cache of test traces.
+ *
+ * Traces packaged in a jar are extracted once into a directory whose name is
+ * the hash of the trace content, so that every JVM (surefire forks, other
+ * Maven modules, later runs) asking for the same trace reuses the same copy.
+ * Extraction is done in parallel by {@link TraceExtractor}, in a private
+ * temporary directory which is then renamed atomically into place, while a
+ * file lock serializes concurrent extractions of the same trace across
+ * processes.
+ *
+ * Traces that are already plain files on disk (for example when running from
+ * the build output directory) are used in place and never copied.
+ */
+public final class TraceCache {
+
+    /**
+     * System property that can be used to override the cache location
+     */
+    public static final String CACHE_DIR_PROPERTY = "tracecompass.testtraces.cache.dir";
+
+    /**
+     * Version of the cache layout, part of every key. Bump it whenever the
+     * layout of a cache entry changes.
+     */
+    private static final String LAYOUT_VERSION = "1";
+
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String TMP_PREFIX = ".tmp-";
+
+    private static final Map<String, Path> RESOLVED = new ConcurrentHashMap<>();
+    private static final Map<String, Object> KEY_LOCKS = new ConcurrentHashMap<>();
+    private static final Map<String, JarDirectory> DIRECTORIES = new ConcurrentHashMap<>();
+
+    /**
+     * Writes a derived trace, see
+     * {@link TraceCache#getDerivedPath(Path, String, Generator)}.
+     */
+    @FunctionalInterface
+    public interface Generator {
+        /**
+         * Generate the trace.
+         *
+         * @param target
+         *            the path to write the trace to, which does not exist yet
+         * @throws IOException
+         *             if the trace could not be generated
+         */
+        void generate(Path target) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface EntryWriter {
+        ExtractionStatistics write(Path target) throws IOException;
+    }
+
+    private TraceCache() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Get the directory where materialized traces are stored.
+     *
+     * @return the cache root directory
+     */
+    public static Path getCacheRoot() {
+        String dir = System.getProperty(CACHE_DIR_PROPERTY);
+        if (dir != null && !dir.isEmpty()) {
+            return Paths.get(dir);
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "tracecompass-test-traces");
+    }
+
+    /**
+     * Get a file system path for a trace resource, extracting it to the cache
+     * if needed. The returned path has the same file name as the resource, and
+     * is either a directory (CTF traces) or a regular file (single-file
+     * traces).
+     *
+     * @param url
+     *            the URL of the trace resource, as returned by
+     *            {@link Class#getResource(String)}
+     * @return the path of the trace on disk
+     * @throws IOException
+     *             if the trace could not be extracted
+     */
+    public static Path getPath(URL url) throws IOException {
+        return materialize(url).getPath();
+    }
+
+    /**
+     * Same as {@link #getPath(URL)}, but also tells whether the trace had to be
+     * extracted, and how fast that went.
+     *
+     * @param url
+     *            the URL of the trace resource, as returned by
+     *            {@link Class#getResource(String)}
+     * @return the materialized trace
+     * @throws IOException
+     *             if the trace could not be extracted
+     */
+    public static MaterializedTrace materialize(URL url) throws IOException {
+        String urlKey = url.toExternalForm();
+        String name = stripSlashes(url.getPath());
+        TraceEvents.Materialization event = TraceEvents.beginMaterialization(name.substring(name.lastIndexOf('/') + 1), urlKey);
+        MaterializedTrace trace = doMaterialize(url, urlKey);
+        event.commit(trace);
+        return trace;
+    }
+
+    private static MaterializedTrace doMaterialize(URL url, String urlKey) throws IOException {
+        String protocol = url.getProtocol();
+        if ("file".equals(protocol)) {
+            try {
+                return new MaterializedTrace(Paths.get(url.toURI()), true, ExtractionStatistics.NONE);
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid trace URL " + url, e);
+            }
+        }
+        if (!"jar".equals(protocol)) {
+            throw new IOException("Unsupported trace URL " + url);
+        }
+
+        Path path = RESOLVED.get(urlKey);
+        if (path != null && Files.exists(path)) {
+            return new MaterializedTrace(path, true, ExtractionStatistics.NONE);
+        }
+        MaterializedTrace trace = extract(url);
+        RESOLVED.put(urlKey, trace.getPath());
+        return trace;
+    }
+
+    private static MaterializedTrace extract(URL url) throws IOException {
+        JarURLConnection connection = (JarURLConnection) url.openConnection();
+        String entryName = stripSlashes(connection.getEntryName());
+        Path jarPath;
+        try {
+            jarPath = Paths.get(connection.getJarFileURL().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid jar URL " + url, e);
+        }
+
+        try (ZipFile zip = new ZipFile(jarPath.toFile())) {
+            List<ZipEntry> entries = listEntries(zip, entryName);
+            if (entries.isEmpty()) {
+                throw new IOException("No entry " + entryName + " in " + jarPath);
+            }
+            String key = computeKey(entryName, entries);
+            String baseName = entryName.substring(entryName.lastIndexOf('/') + 1);
+            return populate(key, baseName, target -> TraceExtractor.extract(zip, entryName, entries, target));
+        }
+    }
+
+    /**
+     * Get where the bytes of a trace file are on disk, without extracting it:
+     * the file itself, or the region of the jar holding it when it is stored
+     * uncompressed, as {@link JarAligner} stores the trace files of the test
+     * trace jars. The region can then be read or memory-mapped in place.
+     *
+     * @param url
+     *            the URL of the trace file, as returned by
+     *            {@link Class#getResource(String)}
+     * @return the region holding the bytes of the file
+     * @throws IOException
+     *             if the file does not exist or is compressed in its jar
+     */
+    public static FileRegion getRegion(URL url) throws IOException {
+        String protocol = url.getProtocol();
+        if ("file".equals(protocol)) {
+            try {
+                Path path = Paths.get(url.toURI());
+                return new FileRegion(path, 0, Files.size(path));
+            } catch (URISyntaxException e) {
+                throw new IOException("Invalid trace URL " + url, e);
+            }
+        }
+        if (!"jar".equals(protocol)) {
+            throw new IOException("Unsupported trace URL " + url);
+        }
+
+        JarURLConnection connection = (JarURLConnection) url.openConnection();
+        Path jarPath;
+        try {
+            jarPath = Paths.get(connection.getJarFileURL().toURI());
+        } catch (URISyntaxException e) {
+            throw new IOException("Invalid jar URL " + url, e);
+        }
+        /* A rebuilt jar gets a new directory */
+        String jarKey = jarPath + ":" + Files.size(jarPath) + ":" + Files.getLastModifiedTime(jarPath).toMillis();
+        JarDirectory directory = DIRECTORIES.get(jarKey);
+        if (directory == null) {
+            directory = JarDirectory.read(jarPath);
+            DIRECTORIES.put(jarKey, directory);
+        }
+        return directory.getRegion(stripSlashes(connection.getEntryName()));
+    }
+
+    /**
+     * Get a trace derived from another one (for example a scaled-up copy),
+     * generating it in the cache if needed. The cache key covers the
+     * derivation and the name, size and modification time of every file of
+     * the source trace, so a derived trace is regenerated when its source
+     * changes.
+     *
+     * @param source
+     *            the path of the source trace, file or directory
+     * @param derivation
+     *            a description of the derivation, including all its
+     *            parameters and a version of the generator
+     * @param generator
+     *            the generator, called at most once per cache entry
+     * @return the path of the derived trace, which has the same file name as
+     *         the source
+     * @throws IOException
+     *             if the trace could not be generated
+     */
+    public static Path getDerivedPath(Path source, String derivation, Generator generator) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update(LAYOUT_VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update(derivation.getBytes(StandardCharsets.UTF_8));
+        digestFiles(digest, source, "");
+        return derive(toKey(digest), String.valueOf(source.getFileName()), derivation, generator);
+    }
+
+    /**
+     * Get a trace derived from several others (for example an experiment
+     * built from the events of a few traces), generating it in the cache if
+     * needed. The cache key covers the derivation and the name, size and
+     * modification time of every file of every source, in order.
+     *
+     * @param sources
+     *            the paths of the source traces, files or directories
+     * @param baseName
+     *            the file name of the derived trace
+     * @param derivation
+     *            a description of the derivation, including all its
+     *            parameters and a version of the generator
+     * @param generator
+     *            the generator, called at most once per cache entry
+     * @return the path of the derived trace
+     * @throws IOException
+     *             if the trace could not be generated
+     */
+    public static Path getDerivedPath(List<Path> sources, String baseName, String derivation, Generator generator) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update(LAYOUT_VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update(derivation.getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < sources.size(); i++) {
+            digestFiles(digest, sources.get(i), String.valueOf(i) + '/');
+        }
+        return derive(toKey(digest), baseName, derivation, generator);
+    }
+
+    private static void digestFiles(MessageDigest digest, Path source, String prefix) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            String line = '\n' + prefix + source.relativize(file).toString() + ':' + Files.size(file) + ':' + Files.getLastModifiedTime(file).toMillis();
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Path derive(String key, String baseName, String derivation, Generator generator) throws IOException {
+        TraceEvents.Materialization event = TraceEvents.beginMaterialization(baseName, derivation);
+        MaterializedTrace trace = populate(key, baseName, target -> {
+            long start = System.nanoTime();
+            generator.generate(target);
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(target)) {
+                files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            long bytes = 0;
+            for (Path file : files) {
+                bytes += Files.size(file);
+            }
+            return new ExtractionStatistics(files.size(), bytes, System.nanoTime() - start, 1);
+        });
+        event.commit(trace);
+        return trace.getPath();
+    }
+
+    /**
+     * Fill a cache entry, unless it is already there. The entry is written in
+     * a private temporary directory then renamed into place, while a file lock
+     * serializes concurrent writers of the same entry across processes.
+     */
+    private static MaterializedTrace populate(String key, String baseName, EntryWriter writer) throws IOException {
+        Path root = getCacheRoot();
+        Path entryDir = root.resolve(key);
+        Path target = entryDir.resolve(baseName);
+        if (Files.exists(target)) {
+            return new MaterializedTrace(target, true, ExtractionStatistics.NONE);
+        }
+
+        Files.createDirectories(root);
+        Object keyLock = KEY_LOCKS.computeIfAbsent(key, k -> new Object());
+        synchronized (keyLock) {
+            try (FileChannel lockChannel = FileChannel.open(root.resolve(key + LOCK_SUFFIX),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                /* Released when the channel is closed */
+                lockChannel.lock();
+                /* Another process may have finished while we waited */
+                if (Files.exists(target)) {
+                    return new MaterializedTrace(target, true, ExtractionStatistics.NONE);
+                }
+                Path tmpDir = Files.createTempDirectory(root, TMP_PREFIX + key + '-');
+                try {
+                    ExtractionStatistics statistics = writer.write(tmpDir.resolve(baseName));
+                    publish(tmpDir, entryDir);
+                    return new MaterializedTrace(target, false, statistics);
+                } finally {
+                    deleteRecursively(tmpDir);
+                }
+            }
+        }
+    }
+
+    private static List<ZipEntry> listEntries(ZipFile zip, String entryName) {
+        String dirPrefix = entryName + '/';
+        List<ZipEntry> entries = new ArrayList<>();
+        Enumeration<? extends ZipEntry> enumeration = zip.entries();
+        while (enumeration.hasMoreElements()) {
+            ZipEntry entry = enumeration.nextElement();
+            String name = entry.getName();
+            if (!entry.isDirectory() && (name.equals(entryName) || name.startsWith(dirPrefix))) {
+                entries.add(entry);
+            }
+        }
+        Collections.sort(entries, (a, b) -> a.getName().compareTo(b.getName()));
+        return entries;
+    }
+
+    /**
+     * Compute the content key of a trace from the jar's central directory:
+     * every entry name, size and CRC. This does not require inflating
+     * anything.
+     */
+    private static String computeKey(String entryName, List<ZipEntry> entries) throws IOException {
+        MessageDigest digest = newDigest();
+        digest.update(LAYOUT_VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update(entryName.getBytes(StandardCharsets.UTF_8));
+        for (ZipEntry entry : entries) {
+            String line = '\n' + entry.getName() + ':' + entry.getSize() + ':' + Long.toHexString(entry.getCrc());
+            digest.update(line.getBytes(StandardCharsets.UTF_8));
+        }
+        return toKey(digest);
+    }
+
+    private static MessageDigest newDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static String toKey(MessageDigest digest) {
+        StringBuilder sb = new StringBuilder();
+        byte[] hash = digest.digest();
+        /* 128 bits are plenty to tell traces apart */
+        for (int i = 0; i < 16; i++) {
+            sb.append(String.format("%02x", hash[i]));
+        }
+        return sb.toString();
+    }
+
+    private static void publish(Path tmpDir, Path entryDir) throws IOException {
+        try {
+            Files.move(tmpDir, entryDir, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            /* Lost a race against a process not honoring the lock, keep theirs */
+        } catch (AtomicMoveNotSupportedException e) {
+            throw new IOException("Cache directory must support atomic renames: " + entryDir.getParent(), e);
+        } catch (IOException e) {
+            /* Some platforms report a non-empty target as a generic error */
+            if (!Files.isDirectory(entryDir)) {
+                throw e;
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> children = Files.list(path)) {
+                for (Path child : (Iterable<Path>) children::iterator) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        Files.delete(path);
+    }
+
+    private static String stripSlashes(String name) {
+        int begin = 0;
+        int end = name.length();
+        while (begin < end && name.charAt(begin) == '/') {
+            begin++;
+        }
+        while (end > begin && name.charAt(end - 1) == '/') {
+            end--;
+        }
+        return name.substring(begin, end);
+    }
+}
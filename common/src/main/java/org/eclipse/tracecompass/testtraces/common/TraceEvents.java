@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.net.URL;
+
+/**
+ * Java Flight Recorder events of the test traces: the resolution of a trace
+ * resource on the class path, and its materialization on disk, extracted
+ * from a jar or derived from other traces. They tell how much of the time of
+ * a test run goes to getting the traces rather than to reading them.
+ *
+ * The events are implemented in the Java 11 section of this multi-release
+ * jar, on top of {@code jdk.jfr}. On Java 8, or when the classes come from a
+ * directory without that section, nothing is recorded and the spans cost
+ * nothing. Record them with the bundled {@value #CONFIGURATION} settings and
+ * summarize the recording with {@code TraceEventSummary}.
+ */
+public final class TraceEvents {
+
+    /** Name of the JFR settings resource enabling the events */
+    public static final String CONFIGURATION = "/test-traces.jfc";
+
+    /** Name of the event of a trace resolution */
+    public static final String RESOLUTION_EVENT = "org.eclipse.tracecompass.testtraces.TraceResolution";
+
+    /** Name of the event of a trace materialization */
+    public static final String MATERIALIZATION_EVENT = "org.eclipse.tracecompass.testtraces.TraceMaterialization";
+
+    private static final String RECORDER_CLASS = TraceEvents.class.getPackage().getName() + ".JfrTraceEvents";
+
+    /**
+     * A trace resolution being timed
+     */
+    @FunctionalInterface
+    public interface Resolution {
+        /**
+         * End the resolution and record it.
+         *
+         * @param url
+         *            the URL of the trace resource, null if it was not found
+         */
+        void commit(URL url);
+    }
+
+    /**
+     * A trace materialization being timed
+     */
+    @FunctionalInterface
+    public interface Materialization {
+        /**
+         * End the materialization and record it.
+         *
+         * @param trace
+         *            the materialized trace
+         */
+        void commit(MaterializedTrace trace);
+    }
+
+    /**
+     * Starts the spans, see the Java 11 section of the jar
+     */
+    interface Recorder {
+        Resolution beginResolution(String trace);
+
+        Materialization beginMaterialization(String trace, String source);
+    }
+
+    private static final Recorder RECORDER = loadRecorder();
+
+    private TraceEvents() {
+        // Do nothing, private constructor
+    }
+
+    private static Recorder loadRecorder() {
+        try {
+            return (Recorder) Class.forName(RECORDER_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            /* Java 8, or no Java 11 section on the class path */
+            return new Recorder() {
+                @Override
+                public Resolution beginResolution(String trace) {
+                    return url -> {
+                        // Not recorded
+                    };
+                }
+
+                @Override
+                public Materialization beginMaterialization(String trace, String source) {
+                    return materialized -> {
+                        // Not recorded
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * @return whether the events can be recorded in this JVM
+     */
+    public static boolean isAvailable() {
+        return RECORDER.getClass().getName().equals(RECORDER_CLASS);
+    }
+
+    /**
+     * Start timing the resolution of a trace resource.
+     *
+     * @param trace
+     *            the name of the trace
+     * @return the resolution, to commit once the resource is found
+     */
+    public static Resolution beginResolution(String trace) {
+        return RECORDER.beginResolution(trace);
+    }
+
+    /**
+     * Start timing the materialization of a trace on disk.
+     *
+     * @param trace
+     *            the file name of the trace
+     * @param source
+     *            where the trace comes from: the URL of its resource, or the
+     *            derivation generating it
+     * @return the materialization, to commit once the trace is on disk
+     */
+    public static Materialization beginMaterialization(String trace, String source) {
+        return RECORDER.beginMaterialization(trace, source);
+    }
+}
@@ -0,0 +1,263 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Parallel copy engine used to materialize traces.
+ *
+ * The resource tree is walked with a fork-join pool: every directory forks one
+ * task per sub-directory and one per file, so traces made of many small
+ * directories (like the experiment traces) are unpacked concurrently. Stream
+ * content goes through large, per-thread direct buffers, or through
+ * {@link FileChannel#transferTo} when the source is already a file.
+ *
+ * The parallelism is bounded by the number of processors, and can be lowered
+ * with the {@value #PARALLELISM_PROPERTY} system property.
+ */
+public final class TraceExtractor {
+
+    /**
+     * System property that can be used to set the number of extraction threads
+     */
+    public static final String PARALLELISM_PROPERTY = "tracecompass.testtraces.extract.parallelism";
+
+    private static final int MAX_DEFAULT_PARALLELISM = 8;
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
+
+    private static ForkJoinPool sfPool;
+
+    private TraceExtractor() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Source of one file to extract
+     */
+    @FunctionalInterface
+    private interface Opener {
+        ReadableByteChannel open() throws IOException;
+    }
+
+    /**
+     * Get the number of threads used for extraction. The value is read once,
+     * when the first extraction starts.
+     *
+     * @return the extraction parallelism
+     */
+    public static int getParallelism() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        int parallelism = Integer.getInteger(PARALLELISM_PROPERTY, Math.min(processors, MAX_DEFAULT_PARALLELISM));
+        return Math.max(1, Math.min(parallelism, processors));
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (sfPool == null) {
+            sfPool = new ForkJoinPool(getParallelism());
+        }
+        return sfPool;
+    }
+
+    /**
+     * Extract entries of a zip file to a directory.
+     *
+     * @param zip
+     *            the zip (or jar) file
+     * @param prefix
+     *            the entry name of the trace in the zip, without trailing slash.
+     *            It is stripped from every entry name.
+     * @param entries
+     *            the entries to extract, all named after <code>prefix</code>
+     * @param target
+     *            the path corresponding to <code>prefix</code>
+     * @return the extraction statistics
+     * @throws IOException
+     *             if an entry cannot be read or written
+     */
+    public static ExtractionStatistics extract(ZipFile zip, String prefix, List<ZipEntry> entries, Path target) throws IOException {
+        Node root = new Node();
+        for (ZipEntry entry : entries) {
+            String relative = entry.getName().substring(prefix.length());
+            root.add(relative, () -> Channels.newChannel(zip.getInputStream(entry)));
+        }
+        return run(root, target);
+    }
+
+    /**
+     * Copy a file or a directory tree.
+     *
+     * @param source
+     *            the file or directory to copy
+     * @param target
+     *            the destination, which must not exist
+     * @return the copy statistics
+     * @throws IOException
+     *             if the source cannot be read or the target written
+     */
+    public static ExtractionStatistics copy(Path source, Path target) throws IOException {
+        Node root = new Node();
+        if (Files.isDirectory(source)) {
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(source)) {
+                files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                root.add(source.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"), //
+                        () -> FileChannel.open(file, StandardOpenOption.READ));
+            }
+        } else {
+            root.add("", () -> FileChannel.open(source, StandardOpenOption.READ));
+        }
+        return run(root, target);
+    }
+
+    private static ExtractionStatistics run(Node root, Path target) throws IOException {
+        ForkJoinPool pool = getPool();
+        long start = System.nanoTime();
+        long[] totals;
+        try {
+            totals = pool.invoke(new DirectoryTask(root, target));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return new ExtractionStatistics(totals[0], totals[1], System.nanoTime() - start, pool.getParallelism());
+    }
+
+    /**
+     * A directory of the resource tree. The root node of a single-file trace
+     * holds one file with an empty name.
+     */
+    private static final class Node {
+        private final Map<String, Node> fChildren = new TreeMap<>();
+        private final Map<String, Opener> fFiles = new TreeMap<>();
+
+        void add(String relativePath, Opener opener) {
+            int begin = 0;
+            while (begin < relativePath.length() && relativePath.charAt(begin) == '/') {
+                begin++;
+            }
+            String path = relativePath.substring(begin);
+            int slash = path.indexOf('/');
+            if (slash < 0) {
+                fFiles.put(path, opener);
+            } else {
+                fChildren.computeIfAbsent(path.substring(0, slash), k -> new Node()).add(path.substring(slash + 1), opener);
+            }
+        }
+    }
+
+    /** Copies a directory: returns {files, bytes} */
+    private static final class DirectoryTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+        private final transient Node fNode;
+        private final transient Path fTarget;
+
+        DirectoryTask(Node node, Path target) {
+            fNode = node;
+            fTarget = target;
+        }
+
+        @Override
+        protected long[] compute() {
+            List<RecursiveTask<long[]>> tasks = new ArrayList<>();
+            try {
+                if (fNode.fFiles.size() != 1 || !fNode.fFiles.containsKey("")) {
+                    Files.createDirectories(fTarget);
+                } else if (fTarget.getParent() != null) {
+                    Files.createDirectories(fTarget.getParent());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            for (Map.Entry<String, Node> child : fNode.fChildren.entrySet()) {
+                tasks.add(new DirectoryTask(child.getValue(), fTarget.resolve(child.getKey())));
+            }
+            for (Map.Entry<String, Opener> file : fNode.fFiles.entrySet()) {
+                String name = file.getKey();
+                tasks.add(new FileTask(file.getValue(), name.isEmpty() ? fTarget : fTarget.resolve(name)));
+            }
+            invokeAll(tasks);
+            long[] totals = new long[2];
+            for (RecursiveTask<long[]> task : tasks) {
+                long[] result = task.join();
+                totals[0] += result[0];
+                totals[1] += result[1];
+            }
+            return totals;
+        }
+    }
+
+    /** Copies one file: returns {1, bytes} */
+    private static final class FileTask extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+        private final transient Opener fOpener;
+        private final transient Path fTarget;
+
+        FileTask(Opener opener, Path target) {
+            fOpener = opener;
+            fTarget = target;
+        }
+
+        @Override
+        protected long[] compute() {
+            try (ReadableByteChannel in = fOpener.open();
+                    FileChannel out = FileChannel.open(fTarget, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                return new long[] { 1, copy(in, out) };
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static long copy(ReadableByteChannel in, FileChannel out) throws IOException {
+            if (in instanceof FileChannel) {
+                FileChannel source = (FileChannel) in;
+                long size = source.size();
+                long position = 0;
+                while (position < size) {
+                    position += source.transferTo(position, size - position, out);
+                }
+                return size;
+            }
+            ByteBuffer buffer = BUFFERS.get();
+            long total = 0;
+            buffer.clear();
+            while (in.read(buffer) >= 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    total += out.write(buffer);
+                }
+                buffer.clear();
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * SHA-256 manifests of the test trace resources, and their verification.
+ *
+ * At build time, {@link #main(String[])} writes one manifest per top-level
+ * resource (file or directory) of a module, in the format of
+ * <code>sha256sum</code>, with paths relative to the resources root:
+ *
+ * <pre>
+ * java TraceManifest &lt;resources root&gt; &lt;output directory&gt;
+ * </pre>
+ *
+ * The manifest of <code>&lt;root&gt;/kernel</code> is written to
+ * <code>&lt;output&gt;/kernel.sha256</code>, and is found on the class path
+ * under {@link #ROOT}.
+ *
+ * Files are hashed through memory-mapped chunks, several files in parallel.
+ * Once a trace is verified, the size, modification time and hash of its files
+ * are kept in memory and in the trace cache (see {@link TraceCache}), so
+ * verifying it again only costs a file status per file, until a file changes.
+ */
+public final class TraceManifest {
+
+    /** Resource directory of the manifests */
+    public static final String ROOT = "/trace-manifest";
+
+    /** Extension of the manifest files */
+    public static final String EXTENSION = ".sha256";
+
+    private static final String VERIFIED_DIRECTORY = "verified";
+    private static final long CHUNK_SIZE = 64L << 20;
+    private static final Map<Path, Map<String, String>> STAMPS = new ConcurrentHashMap<>();
+
+    private static ForkJoinPool sfPool;
+
+    private TraceManifest() {
+        // Do nothing, private constructor
+    }
+
+    private static synchronized ForkJoinPool getPool() {
+        if (sfPool == null) {
+            sfPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+        return sfPool;
+    }
+
+    private static synchronized void shutdownPool() {
+        if (sfPool != null) {
+            sfPool.shutdown();
+            sfPool = null;
+        }
+    }
+
+    /**
+     * Write the manifests of all the resources of a directory.
+     *
+     * @param args
+     *            the resources root directory, and the output directory
+     * @throws IOException
+     *             if a file cannot be read or a manifest cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: TraceManifest <resources root> <output directory>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int files;
+        try {
+            files = writeTree(Paths.get(args[0]), Paths.get(args[1]));
+        } finally {
+            /* Let the build-time run end without waiting for idle workers */
+            shutdownPool();
+        }
+        System.out.println("Hashed " + files + " trace files in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Write the manifests of all the resources of a directory, one per
+     * top-level file or directory.
+     *
+     * @param root
+     *            the resources root directory, may not exist
+     * @param output
+     *            the output directory
+     * @return the number of hashed files
+     * @throws IOException
+     *             if a file cannot be read or a manifest cannot be written
+     */
+    public static int writeTree(Path root, Path output) throws IOException {
+        if (!Files.isDirectory(root)) {
+            System.err.println("No trace resources in " + root);
+            return 0;
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+        Map<Path, String> hashes = hash(files);
+        Map<String, Map<String, String>> manifests = new TreeMap<>();
+        for (Map.Entry<Path, String> hash : hashes.entrySet()) {
+            String name = toName(root.relativize(hash.getKey()));
+            int slash = name.indexOf('/');
+            String top = slash < 0 ? name : name.substring(0, slash);
+            manifests.computeIfAbsent(top, key -> new TreeMap<>()).put(name, hash.getValue());
+        }
+        Files.createDirectories(output);
+        for (Map.Entry<String, Map<String, String>> manifest : manifests.entrySet()) {
+            try (Writer writer = Files.newBufferedWriter(output.resolve(manifest.getKey() + EXTENSION), StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, String> entry : manifest.getValue().entrySet()) {
+                    writer.write(entry.getValue() + "  " + entry.getKey() + '\n');
+                }
+            }
+        }
+        return files.size();
+    }
+
+    /**
+     * Get the manifest of a trace resource.
+     *
+     * @param anchor
+     *            a class of the module that holds the trace
+     * @param traceName
+     *            the absolute resource name of the trace, for example
+     *            <code>/kernel</code>
+     * @return the SHA-256 of each file, by path relative to the trace, "" if
+     *         the trace is a single file. Empty if the module has no manifest
+     *         for the trace.
+     * @throws IOException
+     *             if the manifest cannot be read
+     */
+    public static Map<String, String> getEntries(Class<?> anchor, String traceName) throws IOException {
+        String name = traceName.startsWith("/") ? traceName.substring(1) : traceName;
+        int slash = name.indexOf('/');
+        URL url = anchor.getResource(ROOT + '/' + (slash < 0 ? name : name.substring(0, slash)) + EXTENSION);
+        if (url == null) {
+            return Collections.emptyMap();
+        }
+        return readEntries(url, name);
+    }
+
+    /**
+     * Read the entries of a manifest under a resource name, relative to it.
+     */
+    static Map<String, String> readEntries(URL url, String name) throws IOException {
+        Map<String, String> entries = new TreeMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int separator = line.indexOf("  ");
+                if (separator < 0) {
+                    throw new IOException("Invalid manifest line in " + url + ": " + line);
+                }
+                String file = line.substring(separator + 2);
+                if (file.equals(name)) {
+                    entries.put("", line.substring(0, separator));
+                } else if (file.startsWith(name + '/')) {
+                    entries.put(file.substring(name.length() + 1), line.substring(0, separator));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Check the files of a trace against their manifest. Files that were
+     * verified before, and that have the same size and modification time
+     * since, are not hashed again. Files not in the manifest are ignored.
+     *
+     * @param tracePath
+     *            the trace directory, or the trace file
+     * @param entries
+     *            the manifest of the trace, see
+     *            {@link #getEntries(Class, String)}
+     * @return a description of each missing or modified file, empty if the
+     *         trace is intact
+     * @throws IOException
+     *             if a file cannot be read
+     */
+    public static List<String> verify(Path tracePath, Map<String, String> entries) throws IOException {
+        Path root = tracePath.toAbsolutePath().normalize();
+        Map<String, String> previous = STAMPS.get(root);
+        if (previous == null) {
+            previous = readStamps(root);
+        }
+        Map<String, String> stamps = new TreeMap<>();
+        Map<String, String> unverified = new TreeMap<>();
+        List<Path> toHash = new ArrayList<>();
+        List<String> problems = new ArrayList<>();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            Path file = entry.getKey().isEmpty() ? root : root.resolve(entry.getKey());
+            if (!Files.isRegularFile(file)) {
+                problems.add(entry.getKey() + ": missing");
+                continue;
+            }
+            String stamp = toStamp(file, entry.getValue());
+            if (stamp.equals(previous.get(entry.getKey()))) {
+                stamps.put(entry.getKey(), stamp);
+            } else {
+                unverified.put(entry.getKey(), stamp);
+                toHash.add(file);
+            }
+        }
+        Map<Path, String> hashes = hash(toHash);
+        for (Map.Entry<String, String> entry : unverified.entrySet()) {
+            Path file = entry.getKey().isEmpty() ? root : root.resolve(entry.getKey());
+            String expected = entries.get(entry.getKey());
+            String actual = hashes.get(file);
+            if (expected.equals(actual)) {
+                stamps.put(entry.getKey(), entry.getValue());
+            } else {
+                problems.add(entry.getKey() + ": SHA-256 " + actual + ", expected " + expected + " (" + Files.size(file) + " bytes)");
+            }
+        }
+        if (!stamps.equals(previous)) {
+            STAMPS.put(root, stamps);
+            writeStamps(root, stamps);
+        }
+        return problems;
+    }
+
+    /**
+     * Hash files in parallel, largest first.
+     *
+     * @param files
+     *            the files
+     * @return the SHA-256 of each file, in hexadecimal
+     * @throws IOException
+     *             if a file cannot be read
+     */
+    public static Map<Path, String> hash(List<Path> files) throws IOException {
+        List<Path> sorted = new ArrayList<>(files);
+        Map<Path, Long> sizes = new HashMap<>();
+        for (Path file : sorted) {
+            sizes.put(file, Files.size(file));
+        }
+        sorted.sort(Comparator.comparing(sizes::get, Comparator.reverseOrder()));
+        List<Callable<String>> tasks = new ArrayList<>();
+        for (Path file : sorted) {
+            tasks.add(() -> hash(file));
+        }
+        Map<Path, String> hashes = new TreeMap<>();
+        List<Future<String>> results = getPool().invokeAll(tasks);
+        try {
+            for (int i = 0; i < sorted.size(); i++) {
+                hashes.put(sorted.get(i), results.get(i).get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while hashing trace files", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Could not hash trace files", cause);
+        }
+        return hashes;
+    }
+
+    /**
+     * Hash a file, one memory-mapped chunk at a time.
+     *
+     * @param file
+     *            the file
+     * @return the SHA-256 of the file, in hexadecimal
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            for (long position = 0; position < size; position += CHUNK_SIZE) {
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK_SIZE, size - position));
+                digest.update(chunk);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    // ------------------------------------------------------------------------
+    // Verified state
+    // ------------------------------------------------------------------------
+
+    private static String toStamp(Path file, String hash) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return hash + ' ' + attributes.size() + ' ' + attributes.lastModifiedTime().toMillis();
+    }
+
+    private static Path getStampFile(Path root) {
+        byte[] key = newDigest().digest(root.toString().getBytes(StandardCharsets.UTF_8));
+        return TraceCache.getCacheRoot().resolve(VERIFIED_DIRECTORY).resolve(toHex(key));
+    }
+
+    /**
+     * Read the verified state of a trace: one line per file, the stamp (hash,
+     * size and modification time) then the path. An unreadable state is an
+     * empty one.
+     */
+    private static Map<String, String> readStamps(Path root) {
+        Map<String, String> stamps = new TreeMap<>();
+        Path file = getStampFile(root);
+        if (!Files.isRegularFile(file)) {
+            return stamps;
+        }
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.forEach(line -> {
+                String[] fields = line.split(" ", 4);
+                if (fields.length == 4) {
+                    stamps.put(fields[3], fields[0] + ' ' + fields[1] + ' ' + fields[2]);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            stamps.clear();
+        }
+        return stamps;
+    }
+
+    /**
+     * Save the verified state of a trace. It is only an optimization, so
+     * failures are ignored.
+     */
+    private static void writeStamps(Path root, Map<String, String> stamps) {
+        Path file = getStampFile(root);
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), ".tmp-", "");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, String> stamp : stamps.entrySet()) {
+                    writer.write(stamp.getValue() + ' ' + stamp.getKey() + '\n');
+                }
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            // Verified again next time
+            if (tmp != null) {
+                tmp.toFile().delete();
+            }
+        }
+    }
+
+    private static String toName(Path relative) {
+        return relative.toString().replace(relative.getFileSystem().getSeparator(), "/");
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
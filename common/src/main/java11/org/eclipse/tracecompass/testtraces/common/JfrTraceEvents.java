@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+/**
+ * Records the {@link TraceEvents} as JFR events. Loaded by name by
+ * {@link TraceEvents}, from the Java 11 section of the jar.
+ */
+final class JfrTraceEvents implements TraceEvents.Recorder {
+
+    @Override
+    public TraceEvents.Resolution beginResolution(String trace) {
+        TraceResolutionEvent event = new TraceResolutionEvent();
+        event.begin();
+        return url -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.trace = trace;
+                event.url = url == null ? null : url.toExternalForm();
+                event.found = url != null;
+                event.commit();
+            }
+        };
+    }
+
+    @Override
+    public TraceEvents.Materialization beginMaterialization(String trace, String source) {
+        TraceMaterializationEvent event = new TraceMaterializationEvent();
+        event.begin();
+        return materialized -> {
+            event.end();
+            if (event.shouldCommit()) {
+                event.trace = trace;
+                event.source = source;
+                event.path = materialized.getPath().toString();
+                event.cacheHit = materialized.isCacheHit();
+                event.files = materialized.getStatistics().getFiles();
+                event.bytes = materialized.getStatistics().getBytes();
+                event.commit();
+            }
+        };
+    }
+}
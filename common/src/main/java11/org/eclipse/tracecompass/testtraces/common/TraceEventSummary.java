@@ -0,0 +1,239 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summary of the {@link TraceEvents} of a test run, recorded with the
+ * {@value TraceEvents#CONFIGURATION} settings: the materializations of every
+ * trace, with the cache misses, the files and bytes written and the time
+ * spent, and the share of the run they took, in wall time and in execution
+ * samples.
+ *
+ * <pre>
+ * java TraceEventSummary &lt;recording.jfr&gt;...
+ * </pre>
+ */
+public final class TraceEventSummary {
+
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final String JVM_INFORMATION_EVENT = "jdk.JVMInformation";
+    private static final String EXECUTION_SAMPLE_EVENT = "jdk.ExecutionSample";
+    private static final List<String> MATERIALIZATION_CLASSES = List.of(TraceCache.class.getName(), TraceExtractor.class.getName());
+
+    /**
+     * The materializations of one trace
+     */
+    private static final class TraceTotals {
+        private final String fTrace;
+        private long fCount;
+        private long fMisses;
+        private long fFiles;
+        private long fBytes;
+        private long fNanos;
+        private long fMaxNanos;
+
+        public TraceTotals(String trace) {
+            fTrace = trace;
+        }
+
+        public void add(RecordedEvent event) {
+            long nanos = event.getDuration().toNanos();
+            fCount++;
+            if (!event.getBoolean("cacheHit")) {
+                fMisses++;
+            }
+            fFiles += event.getLong("files");
+            fBytes += event.getLong("bytes");
+            fNanos += nanos;
+            fMaxNanos = Math.max(fMaxNanos, nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%-40s %8d %8d %10d %14d %12.1f %10.1f", fTrace, fCount, fMisses, fFiles, fBytes,
+                    fNanos / NANOS_PER_MILLI, fMaxNanos / NANOS_PER_MILLI);
+        }
+    }
+
+    private final Path fRecording;
+    private final Map<String, TraceTotals> fTraces = new HashMap<>();
+    private long fResolutions;
+    private long fResolutionNanos;
+    private long fMissing;
+    private long fSamples;
+    private long fMaterializationSamples;
+    private Instant fStart;
+    private Instant fEnd;
+
+    private TraceEventSummary(Path recording) {
+        fRecording = recording;
+    }
+
+    /**
+     * Print the summary of recordings.
+     *
+     * @param args
+     *            the recordings
+     * @throws IOException
+     *             if a recording cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: TraceEventSummary <recording.jfr>...");
+            System.exit(2);
+        }
+        for (String arg : args) {
+            System.out.println(read(Paths.get(arg)));
+            System.out.println();
+        }
+    }
+
+    /**
+     * Summarize a recording.
+     *
+     * @param recording
+     *            the JFR recording of a test run
+     * @return the summary
+     * @throws IOException
+     *             if the recording cannot be read
+     */
+    public static TraceEventSummary read(Path recording) throws IOException {
+        TraceEventSummary summary = new TraceEventSummary(recording);
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                summary.add(file.readEvent());
+            }
+        }
+        return summary;
+    }
+
+    private void add(RecordedEvent event) {
+        if (fEnd == null || event.getEndTime().isAfter(fEnd)) {
+            fEnd = event.getEndTime();
+        }
+        if (fStart == null || event.getStartTime().isBefore(fStart)) {
+            fStart = event.getStartTime();
+        }
+        switch (event.getEventType().getName()) {
+        case TraceEvents.MATERIALIZATION_EVENT:
+            fTraces.computeIfAbsent(event.getString("trace"), TraceTotals::new).add(event);
+            break;
+        case TraceEvents.RESOLUTION_EVENT:
+            fResolutions++;
+            fResolutionNanos += event.getDuration().toNanos();
+            if (!event.getBoolean("found")) {
+                fMissing++;
+            }
+            break;
+        case JVM_INFORMATION_EVENT:
+            /* The run started with the JVM, before the recording */
+            Instant jvmStart = event.getInstant("jvmStartTime");
+            if (jvmStart.isBefore(fStart)) {
+                fStart = jvmStart;
+            }
+            break;
+        case EXECUTION_SAMPLE_EVENT:
+            fSamples++;
+            if (isMaterializing(event.getStackTrace())) {
+                fMaterializationSamples++;
+            }
+            break;
+        default:
+            break;
+        }
+    }
+
+    private static boolean isMaterializing(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return false;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.getMethod() != null && MATERIALIZATION_CLASSES.contains(frame.getMethod().getType().getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of materializations
+     */
+    public long getMaterializations() {
+        return fTraces.values().stream().mapToLong(totals -> totals.fCount).sum();
+    }
+
+    /**
+     * @return the number of materializations that wrote the trace to the
+     *         cache
+     */
+    public long getMisses() {
+        return fTraces.values().stream().mapToLong(totals -> totals.fMisses).sum();
+    }
+
+    /**
+     * @return the number of resolutions
+     */
+    public long getResolutions() {
+        return fResolutions;
+    }
+
+    /**
+     * Format the summary as a table, slowest traces first, after the totals.
+     */
+    @Override
+    public String toString() {
+        long runNanos = fStart == null ? 0 : Duration.between(fStart, fEnd).toNanos();
+        long materializationNanos = fTraces.values().stream().mapToLong(totals -> totals.fNanos).sum();
+        long files = fTraces.values().stream().mapToLong(totals -> totals.fFiles).sum();
+        long bytes = fTraces.values().stream().mapToLong(totals -> totals.fBytes).sum();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%s: run of %.1f s%n", fRecording, runNanos / NANOS_PER_SECOND));
+        sb.append(String.format(Locale.ROOT, "%d resolutions in %.1f ms, %d not found%n", fResolutions, fResolutionNanos / NANOS_PER_MILLI,
+                fMissing));
+        sb.append(String.format(Locale.ROOT, "%d materializations, %d cache misses, %d files and %d bytes written in %.1f ms (%.1f%% of the run)%n",
+                getMaterializations(), getMisses(), files, bytes, materializationNanos / NANOS_PER_MILLI, percent(materializationNanos, runNanos)));
+        if (fSamples > 0) {
+            sb.append(String.format(Locale.ROOT, "%d of %d execution samples materializing traces (%.1f%%)%n", fMaterializationSamples, fSamples,
+                    percent(fMaterializationSamples, fSamples)));
+        }
+        sb.append(String.format(Locale.ROOT, "%-40s %8s %8s %10s %14s %12s %10s", "Trace", "Count", "Misses", "Files", "Bytes", "Total (ms)",
+                "Max (ms)"));
+        List<TraceTotals> sorted = new ArrayList<>(fTraces.values());
+        sorted.sort(Comparator.comparingLong((TraceTotals totals) -> totals.fNanos).reversed());
+        for (TraceTotals totals : sorted) {
+            sb.append(System.lineSeparator()).append(totals);
+        }
+        return sb.toString();
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : 100.0 * part / whole;
+    }
+}
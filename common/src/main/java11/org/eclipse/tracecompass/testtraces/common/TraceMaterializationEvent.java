@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The materialization of a test trace on disk: used in place, found in the
+ * shared cache, or written to it.
+ */
+@Name(TraceEvents.MATERIALIZATION_EVENT)
+@Label("Trace Materialization")
+@Category({ "Trace Compass", "Test Traces" })
+@Description("Extraction or derivation of a test trace into the shared cache, or reuse of a copy")
+final class TraceMaterializationEvent extends Event {
+
+    @Label("Trace")
+    String trace;
+
+    @Label("Source")
+    @Description("URL of the trace resource, or derivation generating the trace")
+    String source;
+
+    @Label("Path")
+    String path;
+
+    @Label("Cache Hit")
+    @Description("Whether the trace was already on disk")
+    boolean cacheHit;
+
+    @Label("Files")
+    @Description("Number of files written")
+    long files;
+
+    @Label("Bytes")
+    @Description("Number of bytes written")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,37 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The lookup of a test trace resource on the class path.
+ */
+@Name(TraceEvents.RESOLUTION_EVENT)
+@Label("Trace Resolution")
+@Category({ "Trace Compass", "Test Traces" })
+@Description("Lookup of a test trace resource on the class path")
+final class TraceResolutionEvent extends Event {
+
+    @Label("Trace")
+    String trace;
+
+    @Label("URL")
+    String url;
+
+    @Label("Found")
+    boolean found;
+}
@@ -0,0 +1,100 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.common.CorpusReport.TraceReport;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link CorpusValidator}
+ */
+public class CorpusValidatorTest {
+
+    /** Temporary directory for the traces */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    private enum Trace {
+        VALID, INVALID, MISSING, UNREADABLE
+    }
+
+    private Path materialize(Trace trace) {
+        if (trace == Trace.MISSING) {
+            throw new IllegalStateException("Test trace not found");
+        }
+        try {
+            Path directory = fTemporaryFolder.getRoot().toPath().resolve(trace.name());
+            Files.createDirectories(directory.resolve("sub"));
+            Files.write(directory.resolve("metadata"), new byte[100]);
+            Files.write(directory.resolve("sub").resolve("stream"), new byte[1000]);
+            return directory;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void check(Trace trace, Path path, TraceReport report) throws IOException {
+        switch (trace) {
+        case INVALID:
+            report.addProblem("Bad magic number");
+            break;
+        case UNREADABLE:
+            throw new IOException("Cannot read " + path.getFileName());
+        default:
+            report.addNote("Checked");
+            break;
+        }
+    }
+
+    /**
+     * Test that every trace is validated and that failures of one trace are
+     * reported without stopping the others.
+     */
+    @Test
+    public void testValidate() {
+        List<Trace> traces = Arrays.asList(Trace.values());
+        CorpusReport report = CorpusValidator.validate(traces, this::materialize, CorpusValidatorTest::check);
+        List<TraceReport> reports = report.getTraces();
+        assertEquals(4, reports.size());
+        for (int i = 0; i < traces.size(); i++) {
+            assertEquals(traces.get(i).name(), reports.get(i).getName());
+        }
+        assertEquals(Collections.emptyList(), reports.get(0).getProblems());
+        assertEquals(Collections.singletonList("Checked"), reports.get(0).getNotes());
+        assertEquals(1100, reports.get(0).getBytes());
+        assertEquals(Arrays.asList(
+                "INVALID: Bad magic number",
+                "MISSING: IllegalStateException: Test trace not found",
+                "UNREADABLE: IOException: Cannot read UNREADABLE"), report.getProblems());
+        assertEquals(0, reports.get(2).getBytes());
+        assertEquals(3300, report.getBytes());
+        assertTrue(report.getElapsedNanos() > 0);
+        String table = report.toString();
+        for (Trace trace : traces) {
+            assertTrue(table, table.contains(trace.name()));
+        }
+        assertTrue(table, table.contains("4 traces, 3300 bytes in "));
+        assertTrue(table, table.endsWith("3 problems"));
+    }
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link FramedFile} and {@link FramedChannel}
+ */
+public class FramedFileTest {
+
+    private static final int FRAME_SIZE = 1000;
+
+    /** Temporary directory for the files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    /*
+     * Compressible bytes, with a random stretch that the codec cannot shrink
+     * so that some frames are stored as is.
+     */
+    private static byte[] createContent(int size) {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (i / 16);
+        }
+        byte[] random = new byte[Math.min(size / 3, 2500)];
+        new SplittableRandom(14).nextBytes(random);
+        System.arraycopy(random, 0, bytes, size / 3, random.length);
+        return bytes;
+    }
+
+    private Path compress(byte[] content) throws IOException {
+        Path source = fTemporaryFolder.newFile().toPath();
+        Files.write(source, content);
+        Path target = fTemporaryFolder.getRoot().toPath().resolve(source.getFileName() + FramedFile.EXTENSION);
+        FramedFile.compress(source, target, FRAME_SIZE);
+        return target;
+    }
+
+    /**
+     * Test that the whole content reads back, whatever the buffer size, and
+     * that empty and single-frame files are supported.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testSequentialRead() throws IOException {
+        for (int size : new int[] { 0, 1, FRAME_SIZE, 10 * FRAME_SIZE + 7 }) {
+            byte[] content = createContent(size);
+            Path framed = compress(content);
+            for (int bufferSize : new int[] { 1, 333, 4096 }) {
+                try (FramedChannel channel = FramedFile.open(framed)) {
+                    assertEquals(size, channel.size());
+                    ByteBuffer all = ByteBuffer.allocate(size);
+                    ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+                    while (channel.read(buffer) >= 0) {
+                        buffer.flip();
+                        all.put(buffer);
+                        buffer.clear();
+                    }
+                    assertArrayEquals(content, all.array());
+                    assertEquals((size + FRAME_SIZE - 1) / FRAME_SIZE, channel.getFramesDecompressed());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that random reads return the right bytes and decompress only the
+     * frames they touch.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testRandomRead() throws IOException {
+        byte[] content = createContent(20 * FRAME_SIZE + 123);
+        Path framed = compress(content);
+        assertTrue(Files.size(framed) < content.length);
+        SplittableRandom random = new SplittableRandom(4);
+        try (FramedChannel channel = FramedFile.open(framed)) {
+            for (int i = 0; i < 200; i++) {
+                int position = random.nextInt(content.length);
+                int length = random.nextInt(1, 2 * FRAME_SIZE);
+                long before = channel.getFramesDecompressed();
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                channel.position(position);
+                int read = channel.read(buffer);
+                assertEquals(Math.min(length, content.length - position), read);
+                assertEquals(position + read, channel.position());
+                assertArrayEquals(Arrays.copyOfRange(content, position, position + read), Arrays.copyOf(buffer.array(), read));
+                long touched = (position + read - 1) / FRAME_SIZE - position / FRAME_SIZE + 1;
+                assertTrue(channel.getFramesDecompressed() - before <= touched);
+            }
+            channel.position(content.length);
+            assertEquals(-1, channel.read(ByteBuffer.allocate(1)));
+        }
+    }
+
+    /**
+     * Test that the codec round-trips long runs, long literal stretches and
+     * overlapping matches, and that its CRC-32 is the standard one.
+     */
+    @Test
+    public void testCodec() {
+        byte[] content = new byte[3 * FRAME_SIZE];
+        new SplittableRandom(2).nextBytes(content);
+        Arrays.fill(content, FRAME_SIZE, 2 * FRAME_SIZE, (byte) 7);
+        FrameCodec codec = new FrameCodec();
+        byte[] compressed = new byte[FrameCodec.maxCompressedLength(content.length)];
+        for (int length : new int[] { 0, 3, FRAME_SIZE, 2 * FRAME_SIZE, content.length }) {
+            int compressedLength = codec.compress(content, length, compressed);
+            byte[] actual = new byte[length];
+            assertTrue(FrameCodec.decompress(compressed, compressedLength, actual, length));
+            assertArrayEquals(Arrays.copyOf(content, length), actual);
+            assertFalse(FrameCodec.decompress(compressed, compressedLength, new byte[length + 1], length + 1));
+            CRC32 crc = new CRC32();
+            crc.update(content, 0, length);
+            assertEquals((int) crc.getValue(), FrameCodec.crc32(content, 0, length));
+        }
+    }
+
+    /**
+     * Test that truncated and corrupted framed files are rejected.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testInvalid() throws IOException {
+        Path framed = compress(createContent(5 * FRAME_SIZE));
+        byte[] bytes = Files.readAllBytes(framed);
+        byte[] corrupted = bytes.clone();
+        /* A byte of the first frame, after the header, offsets and checksums */
+        corrupted[FramedFile.HEADER_SIZE + 6 * Long.BYTES + 5 * Integer.BYTES + 10] ^= (byte) 0x10;
+        for (byte[] variant : new byte[][] { Arrays.copyOf(bytes, 20), Arrays.copyOf(bytes, bytes.length - 1), corrupted }) {
+            Files.write(framed, variant);
+            try (FramedChannel channel = FramedFile.open(framed)) {
+                channel.read(ByteBuffer.allocate(5 * FRAME_SIZE));
+                fail();
+            } catch (IOException e) {
+                // Expected
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link JarAligner}
+ */
+public class JarAlignerTest {
+
+    /** Temporary folder holding the jar and the resources */
+    @Rule
+    public TemporaryFolder fTemp = new TemporaryFolder();
+
+    /**
+     * Test that the trace files of an aligned jar are stored at page-aligned
+     * offsets and can be mapped in place, while the other entries stay
+     * compressed and the jar stays readable.
+     *
+     * @throws IOException
+     *             if the jar cannot be written or read
+     */
+    @Test
+    public void testAlign() throws IOException {
+        Path resources = fTemp.newFolder("resources").toPath();
+        Path jar = fTemp.getRoot().toPath().resolve("traces.jar");
+        Random random = new Random(42);
+        Map<String, byte[]> contents = new LinkedHashMap<>();
+        /* Names of every length modulo the smallest padding */
+        for (int i = 0; i < 8; i++) {
+            byte[] content = new byte[random.nextInt(10000)];
+            random.nextBytes(content);
+            contents.put("trace/" + "stream".substring(0, i % 6 + 1) + i, content);
+        }
+        contents.put("trace/empty", new byte[0]);
+        contents.put("trace/metadata", "/* CTF 1.8 */".getBytes(StandardCharsets.UTF_8));
+        contents.put("manifest/trace.sha256", new byte[100]);
+        contents.put("org/Trace.class", new byte[200]);
+        Files.createDirectories(resources.resolve("trace"));
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("trace/"));
+            out.closeEntry();
+            for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+                out.putNextEntry(new ZipEntry(entry.getKey()));
+                out.write(entry.getValue());
+                out.closeEntry();
+                if (entry.getKey().startsWith("trace/")) {
+                    Files.write(resources.resolve(entry.getKey()), entry.getValue());
+                }
+            }
+        }
+
+        assertEquals(10, JarAligner.align(jar, resources, JarAligner.DEFAULT_ALIGNMENT));
+
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            assertEquals("trace/", zip.entries().nextElement().getName());
+            assertEquals(contents.size() + 1, zip.size());
+            for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+                ZipEntry zipEntry = zip.getEntry(entry.getKey());
+                int method = entry.getKey().startsWith("trace/") ? ZipEntry.STORED : ZipEntry.DEFLATED;
+                assertEquals(entry.getKey(), method, zipEntry.getMethod());
+                try (InputStream in = zip.getInputStream(zipEntry)) {
+                    assertArrayEquals(entry.getKey(), entry.getValue(), readAll(in));
+                }
+            }
+        }
+
+        for (Map.Entry<String, byte[]> entry : contents.entrySet()) {
+            if (!entry.getKey().startsWith("trace/")) {
+                continue;
+            }
+            FileRegion region = TraceCache.getRegion(new URL("jar:" + jar.toUri() + "!/" + entry.getKey()));
+            assertEquals(jar, region.getFile());
+            assertEquals(region.toString(), 0, region.getOffset() % JarAligner.DEFAULT_ALIGNMENT);
+            assertEquals(entry.getValue().length, region.getLength());
+            ByteBuffer mapped = region.map();
+            byte[] bytes = new byte[mapped.remaining()];
+            mapped.get(bytes);
+            assertArrayEquals(entry.getKey(), entry.getValue(), bytes);
+        }
+    }
+
+    /**
+     * Test that a compressed entry has no region, and that a plain file is
+     * its own region.
+     *
+     * @throws IOException
+     *             if the jar cannot be written
+     */
+    @Test
+    public void testRegion() throws IOException {
+        Path jar = fTemp.getRoot().toPath().resolve("classes.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("org/Trace.class"));
+            out.write(new byte[200]);
+            out.closeEntry();
+        }
+        try {
+            TraceCache.getRegion(new URL("jar:" + jar.toUri() + "!/org/Trace.class"));
+            fail("Compressed entry mapped");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("compressed"));
+        }
+
+        FileRegion region = TraceCache.getRegion(jar.toUri().toURL());
+        assertEquals(jar, region.getFile());
+        assertEquals(0, region.getOffset());
+        assertEquals(Files.size(jar), region.getLength());
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        int read;
+        while ((read = in.read(buffer.array(), buffer.position(), buffer.remaining())) > 0) {
+            buffer.position(buffer.position() + read);
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link OverlayChannel}, {@link Mutation} and {@link Mutator}
+ */
+public class OverlayChannelTest {
+
+    /** Temporary directory for the original files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    private Path createFile(int size) throws IOException {
+        byte[] bytes = new byte[size];
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) i;
+        }
+        Path file = fTemporaryFolder.newFile().toPath();
+        Files.write(file, bytes);
+        return file;
+    }
+
+    private static byte[] readAll(SeekableByteChannel channel, int bufferSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        while (channel.read(buffer) >= 0) {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Test patches, including overlapping ones and ones across reads.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testPatches() throws IOException {
+        Path file = createFile(200000);
+        Mutation mutation = new Mutation(MutationKind.SECTION_SIZE, "test")
+                .withPatch(10, new byte[] { -1, -1, -1 })
+                .withPatch(11, new byte[] { 5 })
+                .withPatch(65535, new byte[] { 7, 7 });
+        byte[] expected = Files.readAllBytes(file);
+        expected[10] = -1;
+        expected[11] = 5;
+        expected[12] = -1;
+        expected[65535] = 7;
+        expected[65536] = 7;
+        try (SeekableByteChannel channel = mutation.open(file)) {
+            assertEquals(expected.length, channel.size());
+            assertArrayEquals(expected, readAll(channel, 1000));
+            channel.position(11);
+            ByteBuffer buffer = ByteBuffer.allocate(2);
+            assertEquals(2, channel.read(buffer));
+            assertArrayEquals(new byte[] { 5, -1 }, buffer.array());
+        }
+        assertEquals(10, Files.readAllBytes(file)[10]);
+    }
+
+    /**
+     * Test changing the size of the file.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testSize() throws IOException {
+        Path file = createFile(100);
+        try (SeekableByteChannel channel = new Mutation(MutationKind.TRUNCATED_PAGE, "test").withSize(40).open(file)) {
+            assertArrayEquals(Arrays.copyOf(Files.readAllBytes(file), 40), readAll(channel, 64));
+        }
+        Mutation extended = new Mutation(MutationKind.SECTION_SIZE, "test").withSize(120).withPatch(110, new byte[] { 1 });
+        try (SeekableByteChannel channel = extended.open(file)) {
+            byte[] bytes = readAll(channel, 64);
+            assertEquals(120, bytes.length);
+            assertEquals(99, bytes[99]);
+            assertEquals(0, bytes[100]);
+            assertEquals(1, bytes[110]);
+            try {
+                channel.write(ByteBuffer.allocate(1));
+                fail();
+            } catch (NonWritableChannelException e) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * Test that a mutator stream is reproducible, variant by variant.
+     */
+    @Test
+    public void testMutatorStream() {
+        Mutator mutator = new Mutator() {
+            @Override
+            public Set<MutationKind> getKinds() {
+                return EnumSet.of(MutationKind.FLIPPED_MAGIC, MutationKind.TRUNCATED_PAGE);
+            }
+
+            @Override
+            public Mutation mutate(MutationKind kind, SplittableRandom random) {
+                return new Mutation(kind, "test").withSize(random.nextInt(1000));
+            }
+        };
+        List<String> first = mutator.mutations(42, 100).map(Mutation::toString).collect(Collectors.toList());
+        assertEquals(first, mutator.mutations(42, 100).parallel().map(Mutation::toString).collect(Collectors.toList()));
+        assertEquals(first.get(57), mutator.mutate(42, 57).toString());
+        assertEquals(2, mutator.mutations(42, 100).map(Mutation::getKind).distinct().count());
+    }
+}
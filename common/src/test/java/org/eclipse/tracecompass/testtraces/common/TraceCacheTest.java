@@ -0,0 +1,223 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link TraceCache}
+ */
+public class TraceCacheTest {
+
+    /** Temporary folder holding the jar and the cache */
+    @Rule
+    public TemporaryFolder fTemp = new TemporaryFolder();
+
+    private String fPreviousCacheDir;
+
+    /**
+     * Point the cache to a temporary folder
+     *
+     * @throws IOException
+     *             if the folder cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fPreviousCacheDir = System.getProperty(TraceCache.CACHE_DIR_PROPERTY);
+        System.setProperty(TraceCache.CACHE_DIR_PROPERTY, fTemp.newFolder("cache").toString());
+    }
+
+    /**
+     * Restore the cache location
+     */
+    @After
+    public void tearDown() {
+        if (fPreviousCacheDir == null) {
+            System.clearProperty(TraceCache.CACHE_DIR_PROPERTY);
+        } else {
+            System.setProperty(TraceCache.CACHE_DIR_PROPERTY, fPreviousCacheDir);
+        }
+    }
+
+    /**
+     * Test that a directory in a jar is extracted once, with its content, and
+     * that concurrent requests all get the same copy.
+     *
+     * @throws Exception
+     *             if the test fails
+     */
+    @Test
+    public void testConcurrentExtraction() throws Exception {
+        Path jar = fTemp.getRoot().toPath().resolve("traces.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            putEntry(out, "sub/mytrace/metadata", "metadata");
+            putEntry(out, "sub/mytrace/channel0_0", "stream");
+            putEntry(out, "sub/mytrace/index/channel0_0.idx", "index");
+            putEntry(out, "sub/other/metadata", "other");
+        }
+        URL url = new URL("jar:" + jar.toUri().toURL() + "!/sub/mytrace");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Path>> futures = new ArrayList<>();
+        Callable<Path> task = () -> TraceCache.getPath(url);
+        for (int i = 0; i < 16; i++) {
+            futures.add(executor.submit(task));
+        }
+        Set<Path> paths = new HashSet<>();
+        for (Future<Path> future : futures) {
+            paths.add(future.get());
+        }
+        executor.shutdown();
+
+        assertEquals(1, paths.size());
+        Path path = paths.iterator().next();
+        assertEquals("mytrace", path.getFileName().toString());
+        assertTrue(path.startsWith(TraceCache.getCacheRoot()));
+        assertArrayEquals("metadata".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(path.resolve("metadata")));
+        assertArrayEquals("index".getBytes(StandardCharsets.UTF_8), Files.readAllBytes(path.resolve("index/channel0_0.idx")));
+        assertTrue(Files.notExists(path.resolveSibling("other")));
+        assertEquals(path, TraceCache.getPath(url));
+    }
+
+    /**
+     * Test that the extraction statistics are reported on a miss only
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testMaterializeStatistics() throws IOException {
+        Path jar = fTemp.getRoot().toPath().resolve("stats.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            putEntry(out, "single.dat", "0123456789");
+        }
+        URL url = new URL("jar:" + jar.toUri().toURL() + "!/single.dat");
+
+        MaterializedTrace first = TraceCache.materialize(url);
+        assertFalse(first.isCacheHit());
+        assertEquals(1, first.getStatistics().getFiles());
+        assertEquals(10, first.getStatistics().getBytes());
+        assertTrue(Files.isRegularFile(first.getPath()));
+
+        MaterializedTrace second = TraceCache.materialize(url);
+        assertTrue(second.isCacheHit());
+        assertEquals(first.getPath(), second.getPath());
+        assertEquals(0, second.getStatistics().getFiles());
+    }
+
+    /**
+     * Test that plain files are used in place
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testFileUrl() throws IOException {
+        Path dir = fTemp.newFolder("plain").toPath();
+        assertEquals(dir, TraceCache.getPath(dir.toUri().toURL()));
+    }
+
+    /**
+     * Test that a derived trace is generated once per derivation and source
+     * content
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testDerivedPath() throws IOException {
+        Path source = fTemp.newFolder("source").toPath();
+        Files.write(source.resolve("metadata"), "metadata".getBytes(StandardCharsets.UTF_8));
+        int[] generated = new int[1];
+        TraceCache.Generator generator = target -> {
+            generated[0]++;
+            Files.createDirectories(target);
+            Files.copy(source.resolve("metadata"), target.resolve("metadata"));
+        };
+
+        Path derived = TraceCache.getDerivedPath(source, "copy", generator);
+        assertEquals("source", derived.getFileName().toString());
+        assertTrue(derived.startsWith(TraceCache.getCacheRoot()));
+        assertTrue(Files.isRegularFile(derived.resolve("metadata")));
+        assertEquals(derived, TraceCache.getDerivedPath(source, "copy", generator));
+        assertEquals(1, generated[0]);
+
+        assertFalse(derived.equals(TraceCache.getDerivedPath(source, "other", generator)));
+        assertEquals(2, generated[0]);
+        Files.write(source.resolve("channel0_0"), "stream".getBytes(StandardCharsets.UTF_8));
+        assertFalse(derived.equals(TraceCache.getDerivedPath(source, "copy", generator)));
+        assertEquals(3, generated[0]);
+    }
+
+    /**
+     * Test that a trace derived from several sources depends on all of them,
+     * in order
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testMultiSourceDerivedPath() throws IOException {
+        Path first = fTemp.newFolder("first").toPath();
+        Path second = fTemp.newFolder("second").toPath();
+        Files.write(first.resolve("metadata"), "first".getBytes(StandardCharsets.UTF_8));
+        Files.write(second.resolve("metadata"), "second".getBytes(StandardCharsets.UTF_8));
+        int[] generated = new int[1];
+        TraceCache.Generator generator = target -> {
+            generated[0]++;
+            Files.createDirectories(target);
+        };
+
+        Path derived = TraceCache.getDerivedPath(Arrays.asList(first, second), "merged", "merge", generator);
+        assertEquals("merged", derived.getFileName().toString());
+        assertEquals(derived, TraceCache.getDerivedPath(Arrays.asList(first, second), "merged", "merge", generator));
+        assertEquals(1, generated[0]);
+
+        assertFalse(derived.equals(TraceCache.getDerivedPath(Arrays.asList(second, first), "merged", "merge", generator)));
+        assertEquals(2, generated[0]);
+        Files.write(second.resolve("channel0_0"), "stream".getBytes(StandardCharsets.UTF_8));
+        assertFalse(derived.equals(TraceCache.getDerivedPath(Arrays.asList(first, second), "merged", "merge", generator)));
+        assertEquals(3, generated[0]);
+    }
+
+    private static void putEntry(JarOutputStream out, String name, String content) throws IOException {
+        out.putNextEntry(new ZipEntry(name));
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+        out.closeEntry();
+    }
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.zip.ZipEntry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests for {@link TraceEvents}, which need the Java 11 section of the jar,
+ * skipped before Java 11
+ */
+public class TraceEventsTest {
+
+    /** Temporary folder holding the jar, the cache and the recording */
+    @Rule
+    public TemporaryFolder fTemp = new TemporaryFolder();
+
+    private String fPreviousCacheDir;
+
+    /**
+     * Skip the tests before Java 11, then point the cache to a temporary
+     * folder
+     *
+     * @throws IOException
+     *             if the folder cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        String version = System.getProperty("java.specification.version");
+        assumeTrue("Java " + version, !version.startsWith("1.") && Integer.parseInt(version) >= 11);
+        fPreviousCacheDir = System.getProperty(TraceCache.CACHE_DIR_PROPERTY);
+        System.setProperty(TraceCache.CACHE_DIR_PROPERTY, fTemp.newFolder("cache").toString());
+    }
+
+    /**
+     * Restore the cache location
+     */
+    @After
+    public void tearDown() {
+        if (fPreviousCacheDir == null) {
+            System.clearProperty(TraceCache.CACHE_DIR_PROPERTY);
+        } else {
+            System.setProperty(TraceCache.CACHE_DIR_PROPERTY, fPreviousCacheDir);
+        }
+    }
+
+    /**
+     * Test that the bundled settings record the resolutions, extractions
+     * and derivations of traces, with their cache hits and misses.
+     *
+     * @throws IOException
+     *             if the traces or the recording cannot be written
+     * @throws ParseException
+     *             if the bundled settings are invalid
+     */
+    @Test
+    public void testRecording() throws IOException, ParseException {
+        assertTrue(TraceEvents.isAvailable());
+        Path jar = fTemp.getRoot().toPath().resolve("traces.jar");
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            out.putNextEntry(new ZipEntry("kernel/metadata"));
+            out.write(new byte[100]);
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("kernel/channel0_0"));
+            out.write(new byte[4096]);
+            out.closeEntry();
+        }
+        URL url = new URL("jar:" + jar.toUri() + "!/kernel");
+
+        Configuration configuration;
+        try (Reader reader = new InputStreamReader(TraceEvents.class.getResourceAsStream(TraceEvents.CONFIGURATION), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+        Path file = fTemp.getRoot().toPath().resolve("test-traces.jfr");
+        try (Recording recording = new Recording(configuration)) {
+            recording.start();
+            TraceEvents.beginResolution("KERNEL").commit(url);
+            TraceEvents.beginResolution("MISSING").commit(null);
+            Path path = TraceCache.getPath(url);
+            TraceCache.getPath(url);
+            TraceCache.getDerivedPath(path, "copy-1", target -> Files.write(Files.createDirectories(target).resolve("metadata"), new byte[10]));
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> resolutions = readEvents(file, TraceEvents.RESOLUTION_EVENT);
+        assertEquals(2, resolutions.size());
+        assertEquals("KERNEL", resolutions.get(0).getString("trace"));
+        assertEquals(url.toExternalForm(), resolutions.get(0).getString("url"));
+        assertTrue(resolutions.get(0).getBoolean("found"));
+        assertFalse(resolutions.get(1).getBoolean("found"));
+
+        List<RecordedEvent> materializations = readEvents(file, TraceEvents.MATERIALIZATION_EVENT);
+        assertEquals(3, materializations.size());
+        RecordedEvent miss = materializations.get(0);
+        assertEquals("kernel", miss.getString("trace"));
+        assertEquals(url.toExternalForm(), miss.getString("source"));
+        assertFalse(miss.getBoolean("cacheHit"));
+        assertEquals(2, miss.getLong("files"));
+        assertEquals(4196, miss.getLong("bytes"));
+        RecordedEvent hit = materializations.get(1);
+        assertTrue(hit.getBoolean("cacheHit"));
+        assertEquals(0, hit.getLong("files"));
+        RecordedEvent derivation = materializations.get(2);
+        assertEquals("kernel", derivation.getString("trace"));
+        assertEquals("copy-1", derivation.getString("source"));
+        assertFalse(derivation.getBoolean("cacheHit"));
+        assertEquals(1, derivation.getLong("files"));
+    }
+
+    private static List<RecordedEvent> readEvents(Path file, String name) throws IOException {
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link TraceExtractor}
+ */
+public class TraceExtractorTest {
+
+    /** Temporary folder holding the source and target trees */
+    @Rule
+    public TemporaryFolder fTemp = new TemporaryFolder();
+
+    /**
+     * Test copying a tree shaped like an experiment: many trace directories,
+     * each with streams and an index folder.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testCopyExperimentTree() throws IOException {
+        Path source = fTemp.newFolder("exp").toPath();
+        Random random = new Random(42);
+        long bytes = 0;
+        int files = 0;
+        for (int i = 0; i < 20; i++) {
+            Path index = Files.createDirectories(source.resolve("testTrace-" + i + "/index"));
+            for (int stream = 0; stream < 4; stream++) {
+                byte[] content = new byte[random.nextInt(1 << 18)];
+                random.nextBytes(content);
+                Files.write(index.resolveSibling("channel_" + stream), content);
+                Files.write(index.resolve("channel_" + stream + ".idx"), new byte[] { (byte) stream });
+                bytes += content.length + 1;
+                files += 2;
+            }
+        }
+
+        Path target = fTemp.getRoot().toPath().resolve("copy");
+        ExtractionStatistics statistics = TraceExtractor.copy(source, target);
+        assertEquals(files, statistics.getFiles());
+        assertEquals(bytes, statistics.getBytes());
+        assertTrue(statistics.getBytesPerSecond() > 0);
+        assertArrayEquals(Files.readAllBytes(source.resolve("testTrace-7/channel_2")),
+                Files.readAllBytes(target.resolve("testTrace-7/channel_2")));
+        assertArrayEquals(new byte[] { 3 }, Files.readAllBytes(target.resolve("testTrace-19/index/channel_3.idx")));
+    }
+}
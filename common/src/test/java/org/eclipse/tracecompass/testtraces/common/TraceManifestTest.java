@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link TraceManifest}
+ */
+public class TraceManifestTest {
+
+    /** Temporary folder holding the traces, manifests and cache */
+    @Rule
+    public TemporaryFolder fTemp = new TemporaryFolder();
+
+    private String fPreviousCacheDir;
+    private Path fResources;
+    private Path fManifests;
+
+    /**
+     * Create a resource tree with a directory trace and a single-file trace,
+     * and write its manifests
+     *
+     * @throws IOException
+     *             if the tree cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        fPreviousCacheDir = System.getProperty(TraceCache.CACHE_DIR_PROPERTY);
+        System.setProperty(TraceCache.CACHE_DIR_PROPERTY, fTemp.newFolder("cache").toString());
+        fResources = fTemp.newFolder("resources").toPath();
+        Files.createDirectories(fResources.resolve("group/trace/index"));
+        Files.write(fResources.resolve("group/trace/metadata"), "metadata".getBytes(StandardCharsets.UTF_8));
+        Files.write(fResources.resolve("group/trace/channel0_0"), new byte[100000]);
+        Files.write(fResources.resolve("group/trace/index/channel0_0.idx"), new byte[0]);
+        Files.write(fResources.resolve("group/other"), "other".getBytes(StandardCharsets.UTF_8));
+        Files.write(fResources.resolve("single.dat"), "single".getBytes(StandardCharsets.UTF_8));
+        fManifests = fTemp.getRoot().toPath().resolve("manifests");
+        assertEquals(5, TraceManifest.writeTree(fResources, fManifests));
+    }
+
+    /**
+     * Restore the cache location
+     */
+    @After
+    public void tearDown() {
+        if (fPreviousCacheDir == null) {
+            System.clearProperty(TraceCache.CACHE_DIR_PROPERTY);
+        } else {
+            System.setProperty(TraceCache.CACHE_DIR_PROPERTY, fPreviousCacheDir);
+        }
+    }
+
+    private Map<String, String> getEntries(String manifest, String traceName) throws IOException {
+        return TraceManifest.readEntries(fManifests.resolve(manifest + TraceManifest.EXTENSION).toUri().toURL(), traceName);
+    }
+
+    /**
+     * Test the manifests: one per top-level resource, in the format of
+     * sha256sum, read back relative to each trace.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testManifest() throws IOException {
+        List<String> lines = Files.readAllLines(fManifests.resolve("single.dat" + TraceManifest.EXTENSION));
+        assertEquals(Collections.singletonList("947f187506f7629c81c81879a2cb2256455038e4ac770091d897fa0a8b945e3b  single.dat"), lines);
+        assertEquals(Collections.singleton(""), getEntries("single.dat", "single.dat").keySet());
+
+        Map<String, String> entries = getEntries("group", "group/trace");
+        assertEquals(3, entries.size());
+        assertEquals(TraceManifest.hash(fResources.resolve("group/trace/index/channel0_0.idx")), entries.get("index/channel0_0.idx"));
+        assertEquals("9192c25b734fcbadbe32dadc28089c60db0e39f90cc20ce2e5733f57261acc0c", entries.get("channel0_0"));
+        assertEquals(4, getEntries("group", "group").size());
+    }
+
+    /**
+     * Test that missing and modified files are reported, and that verified
+     * files are not hashed again.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testVerify() throws IOException {
+        Path trace = fResources.resolve("group/trace");
+        Map<String, String> entries = getEntries("group", "group/trace");
+        assertEquals(Collections.emptyList(), TraceManifest.verify(trace, entries));
+        assertEquals(Collections.emptyList(), TraceManifest.verify(fResources.resolve("single.dat"), getEntries("single.dat", "single.dat")));
+        try (Stream<Path> verified = Files.list(TraceCache.getCacheRoot().resolve("verified"))) {
+            assertEquals(2, verified.count());
+        }
+
+        /* Same size and modification time: trusted without hashing */
+        Path stream = trace.resolve("channel0_0");
+        FileTime time = Files.getLastModifiedTime(stream);
+        byte[] corrupted = new byte[100000];
+        corrupted[5000] = 1;
+        Files.write(stream, corrupted);
+        Files.setLastModifiedTime(stream, time);
+        assertEquals(Collections.emptyList(), TraceManifest.verify(trace, entries));
+
+        /* Truncated: hashed again and reported */
+        Files.write(stream, new byte[10]);
+        List<String> problems = TraceManifest.verify(trace, entries);
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0), problems.get(0).startsWith("channel0_0: SHA-256 "));
+        assertTrue(problems.get(0), problems.get(0).endsWith("(10 bytes)"));
+
+        Files.delete(trace.resolve("metadata"));
+        problems = TraceManifest.verify(trace, entries);
+        assertEquals(2, problems.size());
+        assertEquals("metadata: missing", problems.get(0));
+    }
+}
@@ -0,0 +1,625 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.relayd;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A minimal live viewer: the commands of the LTTng live viewer protocol
+ * (see {@link LiveViewerProtocol}) over one command connection, and a
+ * {@link #follow(long, Path)} loop that receives a whole session, as a
+ * trace viewer would, to test and benchmark a {@link RelayServer}.
+ */
+public final class LiveViewerClient implements Closeable {
+
+    /** Time to wait when no stream has a packet ready */
+    private static final long RETRY_DELAY = TimeUnit.MICROSECONDS.toNanos(100);
+
+    /**
+     * A session of the session list
+     */
+    public static final class ViewerSession {
+        private final long fId;
+        private final int fClients;
+        private final int fStreams;
+        private final String fHostName;
+        private final String fName;
+
+        private ViewerSession(ByteBuffer buffer) {
+            fId = buffer.getLong();
+            buffer.getInt();
+            fClients = buffer.getInt();
+            fStreams = buffer.getInt();
+            fHostName = LiveViewerProtocol.getString(buffer, LiveViewerProtocol.HOST_NAME_MAX);
+            fName = LiveViewerProtocol.getString(buffer, LiveViewerProtocol.NAME_MAX);
+        }
+
+        /**
+         * @return the session id
+         */
+        public long getId() {
+            return fId;
+        }
+
+        /**
+         * @return the number of viewers attached
+         */
+        public int getClients() {
+            return fClients;
+        }
+
+        /**
+         * @return the number of streams, metadata streams included
+         */
+        public int getStreams() {
+            return fStreams;
+        }
+
+        /**
+         * @return the host name of the session
+         */
+        public String getHostName() {
+            return fHostName;
+        }
+
+        /**
+         * @return the session name
+         */
+        public String getName() {
+            return fName;
+        }
+
+        @Override
+        public String toString() {
+            return fName + " (" + fId + ")";
+        }
+    }
+
+    /**
+     * A stream of an attached session
+     */
+    public static final class ViewerStream {
+        private final long fId;
+        private final long fTraceId;
+        private final boolean fMetadata;
+        private final String fPathName;
+        private final String fChannelName;
+
+        private ViewerStream(ByteBuffer buffer) {
+            fId = buffer.getLong();
+            fTraceId = buffer.getLong();
+            fMetadata = buffer.getInt() != 0;
+            fPathName = LiveViewerProtocol.getString(buffer, LiveViewerProtocol.PATH_MAX);
+            fChannelName = LiveViewerProtocol.getString(buffer, LiveViewerProtocol.NAME_MAX);
+        }
+
+        /**
+         * @return the stream id
+         */
+        public long getId() {
+            return fId;
+        }
+
+        /**
+         * @return the id of the trace of the stream, shared by its data
+         *         streams and its metadata stream
+         */
+        public long getTraceId() {
+            return fTraceId;
+        }
+
+        /**
+         * @return true for the metadata stream of a trace
+         */
+        public boolean isMetadata() {
+            return fMetadata;
+        }
+
+        /**
+         * @return the path of the trace directory, relative to the output of
+         *         the session, with '/' separators
+         */
+        public String getPathName() {
+            return fPathName;
+        }
+
+        /**
+         * @return the name of the stream file
+         */
+        public String getChannelName() {
+            return fChannelName;
+        }
+
+        @Override
+        public String toString() {
+            return fPathName + '/' + fChannelName + " (" + fId + ")";
+        }
+    }
+
+    /**
+     * The answer to a next index query: a status, and the index entry of the
+     * next packet if the status is {@link LiveViewerProtocol#INDEX_OK}
+     */
+    public static final class ViewerIndex {
+        private final long fOffset;
+        private final long fPacketSize;
+        private final long fContentSize;
+        private final long fTimestampBegin;
+        private final long fTimestampEnd;
+        private final long fEventsDiscarded;
+        private final long fStreamId;
+        private final int fStatus;
+        private final int fFlags;
+
+        private ViewerIndex(ByteBuffer buffer) {
+            fOffset = buffer.getLong();
+            fPacketSize = buffer.getLong();
+            fContentSize = buffer.getLong();
+            fTimestampBegin = buffer.getLong();
+            fTimestampEnd = buffer.getLong();
+            fEventsDiscarded = buffer.getLong();
+            fStreamId = buffer.getLong();
+            fStatus = buffer.getInt();
+            fFlags = buffer.getInt();
+        }
+
+        /**
+         * @return the offset of the packet in the stream file, in bytes
+         */
+        public long getOffset() {
+            return fOffset;
+        }
+
+        /**
+         * @return the packet size, in bits
+         */
+        public long getPacketSize() {
+            return fPacketSize;
+        }
+
+        /**
+         * @return the content size, in bits
+         */
+        public long getContentSize() {
+            return fContentSize;
+        }
+
+        /**
+         * @return the timestamp of the beginning of the packet, in clock
+         *         cycles
+         */
+        public long getTimestampBegin() {
+            return fTimestampBegin;
+        }
+
+        /**
+         * @return the timestamp of the end of the packet, in clock cycles
+         */
+        public long getTimestampEnd() {
+            return fTimestampEnd;
+        }
+
+        /**
+         * @return the snapshot of the discarded events counter
+         */
+        public long getEventsDiscarded() {
+            return fEventsDiscarded;
+        }
+
+        /**
+         * @return the stream class id
+         */
+        public long getStreamId() {
+            return fStreamId;
+        }
+
+        /**
+         * @return the status, one of the <code>INDEX_</code> constants of
+         *         {@link LiveViewerProtocol}
+         */
+        public int getStatus() {
+            return fStatus;
+        }
+
+        /**
+         * @return the flags, {@link LiveViewerProtocol#FLAG_NEW_METADATA} if
+         *         the metadata must be fetched before reading the packet
+         */
+        public int getFlags() {
+            return fFlags;
+        }
+    }
+
+    private final SocketChannel fChannel;
+    private final long fViewerSessionId;
+    private final ByteBuffer fHeader = ByteBuffer.allocate(LiveViewerProtocol.HEADER_SIZE);
+    private final ByteBuffer fRequest = ByteBuffer.allocate(LiveViewerProtocol.CONNECT_SIZE);
+    private final ByteBuffer fResponse = ByteBuffer.allocate(LiveViewerProtocol.INDEX_SIZE);
+    private ByteBuffer fPacket = ByteBuffer.allocateDirect(1 << 16);
+    private long fPackets;
+    private long fBytes;
+
+    /**
+     * Connect to a relay on the loopback interface, and create the viewer
+     * session.
+     *
+     * @param port
+     *            the port of the relay
+     * @throws IOException
+     *             if the connection fails or the relay refuses it
+     */
+    public LiveViewerClient(int port) throws IOException {
+        fChannel = SocketChannel.open();
+        try {
+            fChannel.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+            fChannel.socket().setTcpNoDelay(true);
+            request(LiveViewerProtocol.CMD_CONNECT).putLong(0).putInt(LiveViewerProtocol.MAJOR).putInt(LiveViewerProtocol.MINOR)
+                    .putInt(LiveViewerProtocol.CLIENT_COMMAND);
+            send();
+            ByteBuffer response = receive(LiveViewerProtocol.CONNECT_SIZE);
+            fViewerSessionId = response.getLong();
+            int major = response.getInt();
+            if (major != LiveViewerProtocol.MAJOR) {
+                throw new ProtocolException("Unsupported relay version " + major);
+            }
+            request(LiveViewerProtocol.CMD_CREATE_SESSION);
+            send();
+            int status = receive(Integer.BYTES).getInt();
+            if (status != LiveViewerProtocol.CREATE_SESSION_OK) {
+                throw new ProtocolException("Viewer session not created: status " + status);
+            }
+        } catch (IOException e) {
+            fChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the viewer session id the relay assigned to this connection
+     */
+    public long getViewerSessionId() {
+        return fViewerSessionId;
+    }
+
+    /**
+     * @return the number of packets received by {@link #getPacket}
+     */
+    public long getPacketsReceived() {
+        return fPackets;
+    }
+
+    /**
+     * @return the bytes of packets received by {@link #getPacket}
+     */
+    public long getBytesReceived() {
+        return fBytes;
+    }
+
+    /**
+     * List the sessions of the relay.
+     *
+     * @return the sessions
+     * @throws IOException
+     *             if the connection fails
+     */
+    public List<ViewerSession> listSessions() throws IOException {
+        request(LiveViewerProtocol.CMD_LIST_SESSIONS);
+        send();
+        int count = receive(Integer.BYTES).getInt();
+        ByteBuffer response = receive((long) count * LiveViewerProtocol.SESSION_SIZE);
+        List<ViewerSession> sessions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            sessions.add(new ViewerSession(response));
+        }
+        return sessions;
+    }
+
+    /**
+     * Attach to a session.
+     *
+     * @param sessionId
+     *            the session id
+     * @param seek
+     *            {@link LiveViewerProtocol#SEEK_BEGINNING} or
+     *            {@link LiveViewerProtocol#SEEK_LAST}
+     * @return the streams of the session, metadata streams first
+     * @throws IOException
+     *             if the connection fails or the relay refuses to attach
+     */
+    public List<ViewerStream> attach(long sessionId, int seek) throws IOException {
+        request(LiveViewerProtocol.CMD_ATTACH_SESSION).putLong(sessionId).putLong(0).putInt(seek);
+        send();
+        ByteBuffer header = receive(2 * Integer.BYTES);
+        int status = header.getInt();
+        int count = header.getInt();
+        List<ViewerStream> streams = readStreams(count);
+        if (status != LiveViewerProtocol.ATTACH_OK) {
+            throw new ProtocolException("Session " + sessionId + " not attached: status " + status);
+        }
+        return streams;
+    }
+
+    /**
+     * Get the streams added to a session since it was attached.
+     *
+     * @param sessionId
+     *            the session id
+     * @param streams
+     *            the list to add the new streams to
+     * @return the status, one of the <code>NEW_STREAMS_</code> constants of
+     *         {@link LiveViewerProtocol}
+     * @throws IOException
+     *             if the connection fails
+     */
+    public int getNewStreams(long sessionId, List<ViewerStream> streams) throws IOException {
+        request(LiveViewerProtocol.CMD_GET_NEW_STREAMS).putLong(sessionId);
+        send();
+        ByteBuffer header = receive(2 * Integer.BYTES);
+        int status = header.getInt();
+        streams.addAll(readStreams(header.getInt()));
+        return status;
+    }
+
+    private List<ViewerStream> readStreams(int count) throws IOException {
+        List<ViewerStream> streams = new ArrayList<>();
+        ByteBuffer response = receive((long) count * LiveViewerProtocol.STREAM_SIZE);
+        for (int i = 0; i < count; i++) {
+            streams.add(new ViewerStream(response));
+        }
+        return streams;
+    }
+
+    /**
+     * Get the metadata of a trace not received yet.
+     *
+     * @param streamId
+     *            the id of the metadata stream
+     * @return the metadata, empty if all of it was received
+     * @throws IOException
+     *             if the connection fails or the stream is unknown
+     */
+    public byte[] getMetadata(long streamId) throws IOException {
+        request(LiveViewerProtocol.CMD_GET_METADATA).putLong(streamId);
+        send();
+        ByteBuffer header = receive(Long.BYTES + Integer.BYTES);
+        long length = header.getLong();
+        int status = header.getInt();
+        byte[] metadata = new byte[(int) length];
+        LiveViewerProtocol.readFully(fChannel, ByteBuffer.wrap(metadata));
+        if (status != LiveViewerProtocol.METADATA_OK && status != LiveViewerProtocol.NO_NEW_METADATA) {
+            throw new ProtocolException("Metadata of stream " + streamId + " not received: status " + status);
+        }
+        return metadata;
+    }
+
+    /**
+     * Get the index entry of the next packet of a stream.
+     *
+     * @param streamId
+     *            the stream id
+     * @return the status and the entry
+     * @throws IOException
+     *             if the connection fails
+     */
+    public ViewerIndex getNextIndex(long streamId) throws IOException {
+        request(LiveViewerProtocol.CMD_GET_NEXT_INDEX).putLong(streamId);
+        send();
+        return new ViewerIndex(receive(LiveViewerProtocol.INDEX_SIZE));
+    }
+
+    /**
+     * Get the bytes of a packet.
+     *
+     * @param streamId
+     *            the stream id
+     * @param offset
+     *            the offset of the packet in the stream file, in bytes
+     * @param length
+     *            the number of bytes
+     * @param buffer
+     *            the buffer to put the bytes in, with enough room for them
+     * @return the status, one of the <code>GET_PACKET_</code> constants of
+     *         {@link LiveViewerProtocol}
+     * @throws IOException
+     *             if the connection fails
+     */
+    public int getPacket(long streamId, long offset, int length, ByteBuffer buffer) throws IOException {
+        request(LiveViewerProtocol.CMD_GET_PACKET).putLong(streamId).putLong(offset).putInt(length);
+        send();
+        ByteBuffer header = receive(3 * Integer.BYTES);
+        int status = header.getInt();
+        int received = header.getInt();
+        if (received > buffer.remaining()) {
+            throw new ProtocolException("Packet of " + received + " bytes received for " + length + " bytes requested");
+        }
+        int limit = buffer.limit();
+        buffer.limit(buffer.position() + received);
+        LiveViewerProtocol.readFully(fChannel, buffer);
+        buffer.limit(limit);
+        if (status == LiveViewerProtocol.GET_PACKET_OK) {
+            fPackets++;
+            fBytes += received;
+        }
+        return status;
+    }
+
+    /**
+     * Detach from a session.
+     *
+     * @param sessionId
+     *            the session id
+     * @return the status, {@link LiveViewerProtocol#DETACH_OK} or
+     *         {@link LiveViewerProtocol#DETACH_UNK}
+     * @throws IOException
+     *             if the connection fails
+     */
+    public int detach(long sessionId) throws IOException {
+        request(LiveViewerProtocol.CMD_DETACH_SESSION).putLong(sessionId);
+        send();
+        return receive(Integer.BYTES).getInt();
+    }
+
+    /**
+     * Attach to a session from its beginning and receive all its packets,
+     * polling the streams in turn as a viewer does, until every stream hangs
+     * up, then detach.
+     *
+     * @param sessionId
+     *            the session id
+     * @param target
+     *            the directory to write the traces of the session to, laid
+     *            out by the path and channel names of the streams, or null to
+     *            only receive them
+     * @return the bytes of packets received
+     * @throws IOException
+     *             if the connection fails, the relay answers an error, or
+     *             the files cannot be written
+     */
+    public long follow(long sessionId, Path target) throws IOException {
+        List<ViewerStream> streams = attach(sessionId, LiveViewerProtocol.SEEK_BEGINNING);
+        Map<Long, ViewerStream> metadataStreams = new HashMap<>();
+        Map<Long, FileChannel> files = new HashMap<>();
+        List<ViewerStream> active = new ArrayList<>();
+        long bytes = 0;
+        try {
+            for (ViewerStream stream : streams) {
+                if (stream.isMetadata()) {
+                    metadataStreams.put(stream.getTraceId(), stream);
+                } else {
+                    active.add(stream);
+                }
+                if (target != null) {
+                    Path file = target.resolve(stream.getPathName()).resolve(stream.getChannelName());
+                    Files.createDirectories(file.getParent());
+                    files.put(stream.getId(), FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING));
+                }
+            }
+            for (ViewerStream stream : metadataStreams.values()) {
+                receiveMetadata(stream, files.get(stream.getId()));
+            }
+            while (!active.isEmpty()) {
+                boolean progress = false;
+                for (Iterator<ViewerStream> iterator = active.iterator(); iterator.hasNext();) {
+                    ViewerStream stream = iterator.next();
+                    ViewerIndex index = getNextIndex(stream.getId());
+                    if ((index.getFlags() & LiveViewerProtocol.FLAG_NEW_METADATA) != 0) {
+                        ViewerStream metadataStream = metadataStreams.get(stream.getTraceId());
+                        receiveMetadata(metadataStream, files.get(metadataStream.getId()));
+                    }
+                    switch (index.getStatus()) {
+                    case LiveViewerProtocol.INDEX_OK:
+                        bytes += receivePacket(stream, index, files.get(stream.getId()));
+                        progress = true;
+                        break;
+                    case LiveViewerProtocol.INDEX_RETRY:
+                        break;
+                    case LiveViewerProtocol.INDEX_HUP:
+                        iterator.remove();
+                        break;
+                    default:
+                        throw new ProtocolException("Index of stream " + stream + " not received: status " + index.getStatus());
+                    }
+                }
+                if (!progress) {
+                    LockSupport.parkNanos(RETRY_DELAY);
+                    if (Thread.interrupted()) {
+                        throw new InterruptedIOException("Follow interrupted");
+                    }
+                }
+            }
+        } finally {
+            for (FileChannel file : files.values()) {
+                file.close();
+            }
+        }
+        detach(sessionId);
+        return bytes;
+    }
+
+    private void receiveMetadata(ViewerStream stream, FileChannel file) throws IOException {
+        byte[] metadata;
+        while ((metadata = getMetadata(stream.getId())).length > 0) {
+            if (file != null) {
+                LiveViewerProtocol.writeFully(file, ByteBuffer.wrap(metadata));
+            }
+        }
+    }
+
+    private long receivePacket(ViewerStream stream, ViewerIndex index, FileChannel file) throws IOException {
+        int length = (int) (index.getPacketSize() / Byte.SIZE);
+        if (fPacket.capacity() < length) {
+            fPacket = ByteBuffer.allocateDirect(Integer.highestOneBit(length - 1) << 1);
+        }
+        fPacket.clear();
+        int status = getPacket(stream.getId(), index.getOffset(), length, fPacket);
+        if (status != LiveViewerProtocol.GET_PACKET_OK) {
+            throw new ProtocolException("Packet at " + index.getOffset() + " of stream " + stream + " not received: status " + status);
+        }
+        if (file != null) {
+            fPacket.flip();
+            file.position(index.getOffset());
+            LiveViewerProtocol.writeFully(file, fPacket);
+        }
+        return length;
+    }
+
+    private ByteBuffer request(int command) {
+        fHeader.clear();
+        fHeader.putInt(Long.BYTES, command).putInt(Long.BYTES + Integer.BYTES, 0);
+        fRequest.clear();
+        return fRequest;
+    }
+
+    private void send() throws IOException {
+        fRequest.flip();
+        fHeader.putLong(0, fRequest.remaining());
+        fHeader.clear();
+        ByteBuffer[] buffers = { fHeader, fRequest };
+        while (fHeader.hasRemaining() || fRequest.hasRemaining()) {
+            fChannel.write(buffers);
+        }
+    }
+
+    private ByteBuffer receive(long size) throws IOException {
+        ByteBuffer buffer = size <= fResponse.capacity() ? (ByteBuffer) fResponse.clear().limit((int) size) : ByteBuffer.allocate((int) size);
+        LiveViewerProtocol.readFully(fChannel, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Close the connection, detaching from the sessions.
+     */
+    @Override
+    public void close() throws IOException {
+        fChannel.close();
+    }
+}
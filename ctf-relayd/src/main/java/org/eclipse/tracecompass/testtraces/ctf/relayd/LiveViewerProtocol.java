@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.relayd;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The constants of the LTTng live viewer protocol, version 2.4, as defined
+ * by <code>lttng-viewer-abi.h</code>, and the helpers to read and write its
+ * messages. Every message is a packed structure of big-endian integers and
+ * fixed-size, null-padded strings; a command is a {@value #HEADER_SIZE} byte
+ * header followed by its request, and is answered by a single response.
+ */
+public final class LiveViewerProtocol {
+
+    /** Default port of the relay daemon for viewers */
+    public static final int DEFAULT_PORT = 5344;
+
+    /** Major version of the protocol */
+    public static final int MAJOR = 2;
+
+    /** Minor version of the protocol */
+    public static final int MINOR = 4;
+
+    /** Size of the command header: data size, command and command version */
+    public static final int HEADER_SIZE = 16;
+
+    /** Size of the path name of a stream */
+    public static final int PATH_MAX = 4096;
+
+    /** Size of the session and channel names */
+    public static final int NAME_MAX = 255;
+
+    /** Size of the host name of a session */
+    public static final int HOST_NAME_MAX = 64;
+
+    /** Size of a connect request and response */
+    public static final int CONNECT_SIZE = 20;
+
+    /** Size of an attach request: session id, offset and seek */
+    public static final int ATTACH_SIZE = 20;
+
+    /** Size of a packet request: stream id, offset and length */
+    public static final int GET_PACKET_SIZE = 20;
+
+    /** Size of a session in the session list */
+    public static final int SESSION_SIZE = 8 + 4 + 4 + 4 + HOST_NAME_MAX + NAME_MAX;
+
+    /** Size of a stream in the attach and new streams responses */
+    public static final int STREAM_SIZE = 8 + 8 + 4 + PATH_MAX + NAME_MAX;
+
+    /** Size of an index response */
+    public static final int INDEX_SIZE = 7 * 8 + 4 + 4;
+
+    /** Command: handshake, the first command of a connection */
+    public static final int CMD_CONNECT = 1;
+    /** Command: list the sessions */
+    public static final int CMD_LIST_SESSIONS = 2;
+    /** Command: attach to a session, getting its streams */
+    public static final int CMD_ATTACH_SESSION = 3;
+    /** Command: get the index entry of the next packet of a stream */
+    public static final int CMD_GET_NEXT_INDEX = 4;
+    /** Command: get the bytes of a packet */
+    public static final int CMD_GET_PACKET = 5;
+    /** Command: get the metadata not sent yet */
+    public static final int CMD_GET_METADATA = 6;
+    /** Command: get the streams added since the last attach */
+    public static final int CMD_GET_NEW_STREAMS = 7;
+    /** Command: create the viewer session, before attaching */
+    public static final int CMD_CREATE_SESSION = 8;
+    /** Command: detach from a session */
+    public static final int CMD_DETACH_SESSION = 9;
+
+    /** Connection type of the connect command: a command connection */
+    public static final int CLIENT_COMMAND = 1;
+
+    /** Attach from the first packet of every stream */
+    public static final int SEEK_BEGINNING = 1;
+    /** Attach from the packets not published yet */
+    public static final int SEEK_LAST = 2;
+
+    /** Attach status: attached */
+    public static final int ATTACH_OK = 1;
+    /** Attach status: already attached to the session */
+    public static final int ATTACH_ALREADY = 2;
+    /** Attach status: unknown session */
+    public static final int ATTACH_UNK = 3;
+    /** Attach status: invalid seek */
+    public static final int ATTACH_SEEK_ERR = 5;
+    /** Attach status: no viewer session, see {@link #CMD_CREATE_SESSION} */
+    public static final int ATTACH_NO_SESSION = 6;
+
+    /** Index status: the entry of the next packet */
+    public static final int INDEX_OK = 1;
+    /** Index status: the next packet is not published yet */
+    public static final int INDEX_RETRY = 2;
+    /** Index status: every packet of the stream was sent */
+    public static final int INDEX_HUP = 3;
+    /** Index status: unknown stream */
+    public static final int INDEX_ERR = 4;
+
+    /** Index flag: the metadata changed since it was last sent */
+    public static final int FLAG_NEW_METADATA = 1;
+
+    /** Packet status: the bytes follow */
+    public static final int GET_PACKET_OK = 1;
+    /** Packet status: the bytes are not published yet */
+    public static final int GET_PACKET_RETRY = 2;
+    /** Packet status: unknown stream or range */
+    public static final int GET_PACKET_ERR = 3;
+
+    /** Metadata status: the metadata follows */
+    public static final int METADATA_OK = 1;
+    /** Metadata status: all the metadata was sent */
+    public static final int NO_NEW_METADATA = 2;
+    /** Metadata status: unknown metadata stream */
+    public static final int METADATA_ERR = 3;
+
+    /** New streams status: the streams follow */
+    public static final int NEW_STREAMS_OK = 1;
+    /** New streams status: no stream was added */
+    public static final int NEW_STREAMS_NO_NEW = 2;
+    /** New streams status: unknown session */
+    public static final int NEW_STREAMS_ERR = 3;
+    /** New streams status: the session ended */
+    public static final int NEW_STREAMS_HUP = 4;
+
+    /** Create session status: created */
+    public static final int CREATE_SESSION_OK = 1;
+
+    /** Detach status: detached */
+    public static final int DETACH_OK = 1;
+    /** Detach status: unknown session */
+    public static final int DETACH_UNK = 2;
+
+    private LiveViewerProtocol() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Read exactly the remaining bytes of a buffer from a channel.
+     *
+     * @param channel
+     *            the channel
+     * @param buffer
+     *            the buffer, filled to its limit
+     * @throws IOException
+     *             if the channel cannot be read, or ends before the buffer
+     *             is full
+     */
+    public static void readFully(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("Connection closed with " + buffer.remaining() + " bytes missing");
+            }
+        }
+    }
+
+    /**
+     * Write exactly the remaining bytes of a buffer to a channel.
+     *
+     * @param channel
+     *            the channel
+     * @param buffer
+     *            the buffer, written to its limit
+     * @throws IOException
+     *             if the channel cannot be written
+     */
+    public static void writeFully(WritableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Put a fixed-size string: its UTF-8 bytes, truncated to leave room for
+     * the null terminator, padded with nulls.
+     *
+     * @param buffer
+     *            the buffer
+     * @param value
+     *            the string
+     * @param size
+     *            the size of the field, in bytes
+     */
+    public static void putString(ByteBuffer buffer, String value, int size) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, size - 1);
+        buffer.put(bytes, 0, length);
+        for (int i = length; i < size; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Get a fixed-size string, up to its first null.
+     *
+     * @param buffer
+     *            the buffer
+     * @param size
+     *            the size of the field, in bytes
+     * @return the string
+     */
+    public static String getString(ByteBuffer buffer, int size) {
+        byte[] bytes = new byte[size];
+        buffer.get(bytes);
+        int length = 0;
+        while (length < size && bytes[length] != 0) {
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
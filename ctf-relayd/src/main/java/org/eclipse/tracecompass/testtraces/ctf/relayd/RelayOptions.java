@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.relayd;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.live.ReplayPacing;
+
+/**
+ * How a {@link RelayServer} serves its sessions: when the packets are
+ * published, how many are published together, and how many viewers are
+ * served at once.
+ */
+public final class RelayOptions {
+
+    private final ReplayPacing fPacing;
+    private final int fBatchSize;
+    private final int fMaxViewers;
+
+    /**
+     * Constructor
+     *
+     * @param pacing
+     *            when the packets of a session are due, from the time a
+     *            viewer attaches to it
+     * @param batchSize
+     *            the number of packets published together, as a tracer
+     *            flushing its sub-buffers on a live timer: a packet is
+     *            published when the last packet of its batch is due
+     * @param maxViewers
+     *            the number of viewer connections served at once. Further
+     *            connections are accepted, and served when one closes.
+     */
+    public RelayOptions(ReplayPacing pacing, int batchSize, int maxViewers) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalid batch size " + batchSize);
+        }
+        if (maxViewers < 1) {
+            throw new IllegalArgumentException("Invalid number of viewers " + maxViewers);
+        }
+        fPacing = pacing;
+        fBatchSize = batchSize;
+        fMaxViewers = maxViewers;
+    }
+
+    /**
+     * @return when the packets of a session are due
+     */
+    public ReplayPacing getPacing() {
+        return fPacing;
+    }
+
+    /**
+     * @return the number of packets published together
+     */
+    public int getBatchSize() {
+        return fBatchSize;
+    }
+
+    /**
+     * @return the number of viewer connections served at once
+     */
+    public int getMaxViewers() {
+        return fMaxViewers;
+    }
+
+    @Override
+    public String toString() {
+        return fPacing + ", " + fBatchSize + " packets per batch, " + fMaxViewers + " viewers";
+    }
+}
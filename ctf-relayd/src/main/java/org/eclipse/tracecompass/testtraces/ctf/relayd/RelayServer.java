@@ -0,0 +1,246 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.relayd;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.live.ReplayPacing;
+
+/**
+ * A stand-in for the LTTng relay daemon, serving CTF traces to live viewers
+ * over the LTTng live viewer protocol (see {@link LiveViewerProtocol}), to
+ * test and benchmark live trace consumers without a tracer.
+ *
+ * Every trace is a session. When a viewer attaches to a session that has no
+ * other viewer, the session starts: its packets are published over time as
+ * the {@link RelayOptions} say, and the viewers get the index entry of a
+ * packet, then the packet, once it is published. The viewers attached
+ * together share the same timeline, as the viewers of a real session do.
+ * The server only listens on the loopback interface.
+ *
+ * The viewer commands of the protocol are supported, except the
+ * notification connections: a session has all its streams from the start,
+ * the metadata is sent whole, and there is no inactive stream beacon. The
+ * packets are sent from the stream files with
+ * {@link java.nio.channels.FileChannel#transferTo}.
+ *
+ * <pre>
+ * java RelayServer &lt;port&gt; &lt;speed&gt;x|&lt;rate&gt;B/s &lt;batch size&gt; &lt;viewers&gt; &lt;trace&gt;...
+ * </pre>
+ */
+public final class RelayServer implements Closeable {
+
+    /** Host name of the sessions */
+    static final String HOST_NAME = "localhost";
+
+    private final RelayOptions fOptions;
+    private final Map<Long, RelaySession> fSessions;
+    private final Map<Long, RelaySession.DataStream> fStreams = new HashMap<>();
+    private final Map<Long, RelaySession.Trace> fMetadataStreams = new HashMap<>();
+    private final ServerSocketChannel fServer;
+    private final ExecutorService fExecutor;
+    private final Thread fAcceptor;
+    private final Set<SocketChannel> fConnections = ConcurrentHashMap.newKeySet();
+    private final AtomicLong fViewerSessionIds = new AtomicLong();
+    private final AtomicLong fBytesSent = new AtomicLong();
+
+    /**
+     * Serve traces on the loopback interface.
+     *
+     * @param port
+     *            the port, 0 for any free port (see {@link #getPort()})
+     * @param options
+     *            how the sessions are served
+     * @param traces
+     *            the trace directories, by session name
+     * @throws IOException
+     *             if a trace cannot be read, or the port cannot be bound
+     */
+    public RelayServer(int port, RelayOptions options, Map<String, Path> traces) throws IOException {
+        fOptions = options;
+        Map<Long, RelaySession> sessions = new LinkedHashMap<>();
+        AtomicLong streamIds = new AtomicLong();
+        for (Map.Entry<String, Path> trace : traces.entrySet()) {
+            RelaySession session = new RelaySession(sessions.size() + 1, trace.getKey(), trace.getValue(), options, streamIds);
+            sessions.put(session.getId(), session);
+            for (RelaySession.Trace ctfTrace : session.getTraces()) {
+                fMetadataStreams.put(ctfTrace.getMetadataStreamId(), ctfTrace);
+            }
+            for (RelaySession.DataStream stream : session.getStreams()) {
+                fStreams.put(stream.getId(), stream);
+            }
+        }
+        fSessions = Collections.unmodifiableMap(sessions);
+        fServer = ServerSocketChannel.open();
+        try {
+            fServer.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        } catch (IOException e) {
+            fServer.close();
+            throw e;
+        }
+        fExecutor = Executors.newFixedThreadPool(options.getMaxViewers(), runnable -> {
+            Thread thread = new Thread(runnable, "Relay viewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fAcceptor = new Thread(this::accept, "Relay acceptor");
+        fAcceptor.setDaemon(true);
+        fAcceptor.start();
+    }
+
+    /**
+     * Serve traces until the process is killed.
+     *
+     * @param args
+     *            the port, the pacing, the batch size, the number of viewers
+     *            served at once and the trace directories
+     * @throws IOException
+     *             if a trace cannot be read, or the port cannot be bound
+     * @throws InterruptedException
+     *             if interrupted
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 5 || !args[0].matches("[0-9]+") || !args[1].matches("[0-9.]+x|[0-9]+B/s") || !args[2].matches("[0-9]+")
+                || !args[3].matches("[0-9]+")) {
+            System.err.println("Usage: RelayServer <port> <speed>x|<rate>B/s <batch size> <viewers> <trace>...");
+            System.exit(2);
+        }
+        RelayOptions options = new RelayOptions(ReplayPacing.parse(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+        Map<String, Path> traces = new LinkedHashMap<>();
+        for (int i = 4; i < args.length; i++) {
+            Path trace = Paths.get(args[i]);
+            traces.put(String.valueOf(trace.toAbsolutePath().normalize().getFileName()), trace);
+        }
+        long start = System.nanoTime();
+        try (RelayServer server = new RelayServer(Integer.parseInt(args[0]), options, traces)) {
+            System.out.println("Serving " + server.getSessionCount() + " sessions on port " + server.getPort() + " at " + options + ", indexed in "
+                    + (System.nanoTime() - start) / 1000000 + " ms");
+            server.fAcceptor.join();
+        }
+    }
+
+    private void accept() {
+        try {
+            while (true) {
+                SocketChannel channel = fServer.accept();
+                channel.socket().setTcpNoDelay(true);
+                fConnections.add(channel);
+                fExecutor.execute(() -> {
+                    try (SocketChannel connection = channel) {
+                        new ViewerConnection(this, connection).serve();
+                    } catch (IOException e) {
+                        // The viewer closed the connection or broke the protocol
+                    } finally {
+                        fConnections.remove(channel);
+                    }
+                });
+            }
+        } catch (ClosedChannelException e) {
+            // Closed by close()
+        } catch (IOException e) {
+            throw new IllegalStateException("Relay server stopped accepting viewers", e);
+        }
+    }
+
+    /**
+     * @return the port the server listens on, on the loopback interface
+     */
+    public int getPort() {
+        return fServer.socket().getLocalPort();
+    }
+
+    /**
+     * @return how the sessions are served
+     */
+    public RelayOptions getOptions() {
+        return fOptions;
+    }
+
+    /**
+     * @return the number of sessions
+     */
+    public int getSessionCount() {
+        return fSessions.size();
+    }
+
+    /**
+     * @return the bytes of packets sent to all the viewers since the server
+     *         started
+     */
+    public long getBytesSent() {
+        return fBytesSent.get();
+    }
+
+    List<RelaySession> getSessions() {
+        return new ArrayList<>(fSessions.values());
+    }
+
+    RelaySession getSession(long id) {
+        return fSessions.get(id);
+    }
+
+    RelaySession.DataStream getStream(long id) {
+        return fStreams.get(id);
+    }
+
+    RelaySession.Trace getMetadataStream(long id) {
+        return fMetadataStreams.get(id);
+    }
+
+    long nextViewerSessionId() {
+        return fViewerSessionIds.incrementAndGet();
+    }
+
+    void addBytesSent(long bytes) {
+        fBytesSent.addAndGet(bytes);
+    }
+
+    /**
+     * Stop listening and close the connections of the viewers.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            fServer.close();
+            for (SocketChannel connection : fConnections) {
+                connection.close();
+            }
+        } finally {
+            fExecutor.shutdownNow();
+            try {
+                fExecutor.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
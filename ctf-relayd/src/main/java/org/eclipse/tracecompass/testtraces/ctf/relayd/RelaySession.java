@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.relayd;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.PacketIndexEntry;
+import org.eclipse.tracecompass.testtraces.ctf.tools.live.ReplayPacing;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * A trace, or a directory tree of traces, served as a live session by a
+ * {@link RelayServer}.
+ *
+ * The packets of all the streams are published in the order a tracer would
+ * have flushed them, as by the <code>LiveReplayer</code>: by the time of
+ * their end, the packets of each stream staying in file order. The session
+ * starts when a viewer attaches to it while no other viewer is attached, so
+ * that every new round of viewers follows the whole trace from its
+ * beginning.
+ */
+final class RelaySession {
+
+    /**
+     * A CTF trace of the session: its metadata stream
+     */
+    static final class Trace {
+        private final long fMetadataStreamId;
+        private final String fPathName;
+        private final byte[] fMetadata;
+
+        private Trace(long metadataStreamId, String pathName, byte[] metadata) {
+            fMetadataStreamId = metadataStreamId;
+            fPathName = pathName;
+            fMetadata = metadata;
+        }
+
+        public long getMetadataStreamId() {
+            return fMetadataStreamId;
+        }
+
+        public String getPathName() {
+            return fPathName;
+        }
+
+        public byte[] getMetadata() {
+            return fMetadata;
+        }
+    }
+
+    /**
+     * A data stream of the session: a stream file and its packets
+     */
+    static final class DataStream {
+        private final long fId;
+        private final RelaySession fSession;
+        private final Trace fTrace;
+        private final String fChannelName;
+        private final Path fFile;
+        private final List<PacketIndexEntry> fEntries;
+        /* The position of each packet in the publication order */
+        private final int[] fOrder;
+        /* The end of each packet in the stream file, in bytes */
+        private final long[] fEnds;
+
+        private DataStream(long id, RelaySession session, Trace trace, Path file, List<PacketIndexEntry> entries) {
+            fId = id;
+            fSession = session;
+            fTrace = trace;
+            fChannelName = String.valueOf(file.getFileName());
+            fFile = file;
+            fEntries = entries;
+            fOrder = new int[entries.size()];
+            fEnds = new long[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                PacketIndexEntry entry = entries.get(i);
+                fEnds[i] = entry.getOffset() + entry.getPacketSize() / Byte.SIZE;
+            }
+        }
+
+        public long getId() {
+            return fId;
+        }
+
+        public RelaySession getSession() {
+            return fSession;
+        }
+
+        public Trace getTrace() {
+            return fTrace;
+        }
+
+        public String getChannelName() {
+            return fChannelName;
+        }
+
+        public Path getFile() {
+            return fFile;
+        }
+
+        public List<PacketIndexEntry> getEntries() {
+            return fEntries;
+        }
+
+        /**
+         * Get the number of packets of the stream published.
+         *
+         * @param published
+         *            the number of packets of the session published
+         * @return the number of packets of this stream among them
+         */
+        public int getAvailable(int published) {
+            int position = Arrays.binarySearch(fOrder, published);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        /**
+         * Get the bytes of the stream file published.
+         *
+         * @param published
+         *            the number of packets of the session published
+         * @return the end of the last packet of this stream published, in
+         *         bytes
+         */
+        public long getAvailableBytes(int published) {
+            int available = getAvailable(published);
+            return available == 0 ? 0 : fEnds[available - 1];
+        }
+    }
+
+    private final long fId;
+    private final String fName;
+    private final List<Trace> fTraces;
+    private final List<DataStream> fStreams;
+    /* When each packet is published, in publication order, non-decreasing */
+    private final long[] fPublished;
+
+    private int fClients;
+    private volatile long fStart;
+    private volatile boolean fStarted;
+
+    /**
+     * Plan a session: index the stream files of every trace under a
+     * directory, and compute when each packet is published.
+     *
+     * @param id
+     *            the session id
+     * @param name
+     *            the session name
+     * @param path
+     *            the trace directory
+     * @param options
+     *            the pacing and batch size
+     * @param streamIds
+     *            the generator of stream ids, shared by the sessions of a
+     *            server
+     * @throws IOException
+     *             if a trace cannot be read
+     */
+    RelaySession(long id, String name, Path path, RelayOptions options, AtomicLong streamIds) throws IOException {
+        fId = id;
+        fName = name;
+        List<Path> directories;
+        try (Stream<Path> walk = Files.walk(path)) {
+            directories = walk.filter(MetadataReader::isMetadata).map(Path::getParent).sorted().collect(Collectors.toList());
+        }
+        List<Trace> traces = new ArrayList<>();
+        List<DataStream> streams = new ArrayList<>();
+        List<long[]> ends = new ArrayList<>();
+        long origin = Long.MAX_VALUE;
+        for (Path directory : directories) {
+            CtfMetadata metadata = MetadataReader.read(directory);
+            String relative = path.relativize(directory).toString().replace(directory.getFileSystem().getSeparator(), "/");
+            Trace trace = new Trace(streamIds.incrementAndGet(), relative.isEmpty() ? name : name + '/' + relative,
+                    Files.readAllBytes(directory.resolve(MetadataReader.METADATA_FILE_NAME)));
+            traces.add(trace);
+            for (Path file : CtfIndexer.getStreamFiles(directory)) {
+                DataStream stream = new DataStream(streamIds.incrementAndGet(), this, trace, file, CtfIndexer.indexStream(metadata, file));
+                long[] streamEnds = new long[stream.fEntries.size()];
+                for (int i = 0; i < streamEnds.length; i++) {
+                    PacketIndexEntry entry = stream.fEntries.get(i);
+                    ClockClass clock = metadata.getClock(metadata.getStream(entry.getStreamId()));
+                    long begin = clock == null ? entry.getTimestampBegin() : clock.toNanos(entry.getTimestampBegin());
+                    streamEnds[i] = clock == null ? entry.getTimestampEnd() : clock.toNanos(entry.getTimestampEnd());
+                    origin = Math.min(origin, begin);
+                }
+                streams.add(stream);
+                ends.add(streamEnds);
+            }
+        }
+        fTraces = Collections.unmodifiableList(traces);
+        fStreams = Collections.unmodifiableList(streams);
+
+        /* Merge the streams by packet end, as the tracer flushes them */
+        int count = 0;
+        for (long[] streamEnds : ends) {
+            count += streamEnds.length;
+        }
+        long[] due = new long[count];
+        int[] next = new int[streams.size()];
+        PriorityQueue<Integer> queue = new PriorityQueue<>(Math.max(1, streams.size()),
+                Comparator.<Integer> comparingLong(stream -> ends.get(stream)[next[stream]]).thenComparingInt(stream -> stream));
+        for (int stream = 0; stream < streams.size(); stream++) {
+            if (ends.get(stream).length > 0) {
+                queue.add(stream);
+            }
+        }
+        ReplayPacing pacing = options.getPacing();
+        long bytes = 0;
+        int position = 0;
+        while (!queue.isEmpty()) {
+            int stream = queue.poll();
+            DataStream dataStream = streams.get(stream);
+            int packet = next[stream]++;
+            bytes += dataStream.fEntries.get(packet).getPacketSize() / Byte.SIZE;
+            due[position] = pacing.getDue(ends.get(stream)[packet] - origin, bytes);
+            dataStream.fOrder[packet] = position++;
+            if (next[stream] < ends.get(stream).length) {
+                queue.add(stream);
+            }
+        }
+
+        /* A packet is published with the last packet of its batch */
+        fPublished = new long[count];
+        int batchSize = options.getBatchSize();
+        long last = 0;
+        for (int batch = 0; batch < count; batch += batchSize) {
+            int end = Math.min(count, batch + batchSize);
+            for (int i = batch; i < end; i++) {
+                last = Math.max(last, due[i]);
+            }
+            Arrays.fill(fPublished, batch, end, last);
+        }
+    }
+
+    public long getId() {
+        return fId;
+    }
+
+    public String getName() {
+        return fName;
+    }
+
+    public List<Trace> getTraces() {
+        return fTraces;
+    }
+
+    public List<DataStream> getStreams() {
+        return fStreams;
+    }
+
+    /**
+     * A viewer attaches to the session. The session starts if no viewer was
+     * attached.
+     */
+    public synchronized void attach() {
+        if (fClients++ == 0) {
+            fStart = System.nanoTime();
+            fStarted = true;
+        }
+    }
+
+    /**
+     * A viewer detaches from the session.
+     */
+    public synchronized void detach() {
+        fClients--;
+    }
+
+    /**
+     * @return the number of viewers attached
+     */
+    public synchronized int getClients() {
+        return fClients;
+    }
+
+    /**
+     * @return the number of packets published since the session started
+     */
+    public int getPublished() {
+        if (!fStarted) {
+            return 0;
+        }
+        long elapsed = System.nanoTime() - fStart;
+        int low = 0;
+        int high = fPublished.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (fPublished[middle] <= elapsed) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param published
+     *            the number of packets published
+     * @return true if every packet of the session is published
+     */
+    public boolean isComplete(int published) {
+        return published == fPublished.length;
+    }
+}
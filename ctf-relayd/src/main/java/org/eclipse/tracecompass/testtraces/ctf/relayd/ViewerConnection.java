@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.relayd;
+
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.PacketIndexEntry;
+
+/**
+ * The command connection of a viewer to a {@link RelayServer}: reads the
+ * commands of the viewer and answers them, until the viewer closes the
+ * connection.
+ */
+final class ViewerConnection {
+
+    /* Largest request, to reject garbage before allocating */
+    private static final int MAX_REQUEST_SIZE = 1 << 12;
+
+    /* The fields of an index response without an entry */
+    private static final byte[] NO_ENTRY = new byte[7 * Long.BYTES];
+
+    private final RelayServer fServer;
+    private final SocketChannel fChannel;
+    private final ByteBuffer fHeader = ByteBuffer.allocate(LiveViewerProtocol.HEADER_SIZE);
+    private final ByteBuffer fRequest = ByteBuffer.allocate(MAX_REQUEST_SIZE);
+    private final ByteBuffer fIndex = ByteBuffer.allocate(LiveViewerProtocol.INDEX_SIZE);
+
+    private boolean fConnected;
+    private boolean fViewerSession;
+    private final Set<RelaySession> fAttached = new HashSet<>();
+    /* The next packet of each stream of the attached sessions */
+    private final Map<RelaySession.DataStream, Integer> fNext = new HashMap<>();
+    /* The bytes of metadata sent of each trace of the attached sessions */
+    private final Map<RelaySession.Trace, Integer> fMetadataSent = new HashMap<>();
+    private final Map<Path, FileChannel> fFiles = new HashMap<>();
+
+    ViewerConnection(RelayServer server, SocketChannel channel) {
+        fServer = server;
+        fChannel = channel;
+    }
+
+    /**
+     * Answer the commands of the viewer until it closes the connection.
+     *
+     * @throws IOException
+     *             if the connection fails or the viewer breaks the protocol
+     */
+    public void serve() throws IOException {
+        try {
+            while (readCommand()) {
+                int command = fHeader.getInt(8);
+                if (!fConnected && command != LiveViewerProtocol.CMD_CONNECT) {
+                    throw new ProtocolException("Command " + command + " before connect");
+                }
+                switch (command) {
+                case LiveViewerProtocol.CMD_CONNECT:
+                    connect();
+                    break;
+                case LiveViewerProtocol.CMD_LIST_SESSIONS:
+                    listSessions();
+                    break;
+                case LiveViewerProtocol.CMD_CREATE_SESSION:
+                    fViewerSession = true;
+                    send(status(LiveViewerProtocol.CREATE_SESSION_OK));
+                    break;
+                case LiveViewerProtocol.CMD_ATTACH_SESSION:
+                    attach();
+                    break;
+                case LiveViewerProtocol.CMD_GET_NEW_STREAMS:
+                    getNewStreams();
+                    break;
+                case LiveViewerProtocol.CMD_GET_METADATA:
+                    getMetadata();
+                    break;
+                case LiveViewerProtocol.CMD_GET_NEXT_INDEX:
+                    getNextIndex();
+                    break;
+                case LiveViewerProtocol.CMD_GET_PACKET:
+                    getPacket();
+                    break;
+                case LiveViewerProtocol.CMD_DETACH_SESSION:
+                    detach();
+                    break;
+                default:
+                    throw new ProtocolException("Unknown command " + command);
+                }
+            }
+        } finally {
+            for (RelaySession session : fAttached) {
+                session.detach();
+            }
+            for (FileChannel file : fFiles.values()) {
+                file.close();
+            }
+        }
+    }
+
+    /**
+     * Read the header of the next command and its request.
+     *
+     * @return false if the viewer closed the connection
+     */
+    private boolean readCommand() throws IOException {
+        fHeader.clear();
+        while (fHeader.hasRemaining()) {
+            if (fChannel.read(fHeader) < 0) {
+                if (fHeader.position() == 0) {
+                    return false;
+                }
+                throw new ProtocolException("Truncated command header");
+            }
+        }
+        long size = fHeader.getLong(0);
+        if (size < 0 || size > MAX_REQUEST_SIZE) {
+            throw new ProtocolException("Invalid request size " + size);
+        }
+        fRequest.clear().limit((int) size);
+        LiveViewerProtocol.readFully(fChannel, fRequest);
+        fRequest.flip();
+        return true;
+    }
+
+    private void require(int size) throws ProtocolException {
+        if (fRequest.remaining() < size) {
+            throw new ProtocolException("Request of command " + fHeader.getInt(8) + " too short: " + fRequest.remaining() + " bytes");
+        }
+    }
+
+    private void connect() throws IOException {
+        require(LiveViewerProtocol.CONNECT_SIZE);
+        fRequest.getLong();
+        int major = fRequest.getInt();
+        fRequest.getInt();
+        int type = fRequest.getInt();
+        if (major != LiveViewerProtocol.MAJOR || type != LiveViewerProtocol.CLIENT_COMMAND) {
+            throw new ProtocolException("Unsupported viewer version " + major + " or connection type " + type);
+        }
+        fConnected = true;
+        ByteBuffer response = ByteBuffer.allocate(LiveViewerProtocol.CONNECT_SIZE);
+        response.putLong(fServer.nextViewerSessionId()).putInt(LiveViewerProtocol.MAJOR).putInt(LiveViewerProtocol.MINOR)
+                .putInt(LiveViewerProtocol.CLIENT_COMMAND).flip();
+        send(response);
+    }
+
+    private void listSessions() throws IOException {
+        List<RelaySession> sessions = fServer.getSessions();
+        ByteBuffer response = ByteBuffer.allocate(4 + sessions.size() * LiveViewerProtocol.SESSION_SIZE);
+        response.putInt(sessions.size());
+        for (RelaySession session : sessions) {
+            response.putLong(session.getId());
+            /* The default live timer of lttng create --live, in microseconds */
+            response.putInt(1000000);
+            response.putInt(session.getClients());
+            response.putInt(session.getTraces().size() + session.getStreams().size());
+            LiveViewerProtocol.putString(response, RelayServer.HOST_NAME, LiveViewerProtocol.HOST_NAME_MAX);
+            LiveViewerProtocol.putString(response, session.getName(), LiveViewerProtocol.NAME_MAX);
+        }
+        response.flip();
+        send(response);
+    }
+
+    private void attach() throws IOException {
+        require(LiveViewerProtocol.ATTACH_SIZE);
+        RelaySession session = fServer.getSession(fRequest.getLong());
+        fRequest.getLong();
+        int seek = fRequest.getInt();
+        int status;
+        if (!fViewerSession) {
+            status = LiveViewerProtocol.ATTACH_NO_SESSION;
+        } else if (session == null) {
+            status = LiveViewerProtocol.ATTACH_UNK;
+        } else if (fAttached.contains(session)) {
+            status = LiveViewerProtocol.ATTACH_ALREADY;
+        } else if (seek != LiveViewerProtocol.SEEK_BEGINNING && seek != LiveViewerProtocol.SEEK_LAST) {
+            status = LiveViewerProtocol.ATTACH_SEEK_ERR;
+        } else {
+            status = LiveViewerProtocol.ATTACH_OK;
+        }
+        if (session == null || status != LiveViewerProtocol.ATTACH_OK) {
+            ByteBuffer response = ByteBuffer.allocate(8);
+            response.putInt(status).putInt(0).flip();
+            send(response);
+            return;
+        }
+        session.attach();
+        fAttached.add(session);
+        int published = seek == LiveViewerProtocol.SEEK_LAST ? session.getPublished() : 0;
+        for (RelaySession.Trace trace : session.getTraces()) {
+            fMetadataSent.put(trace, 0);
+        }
+        for (RelaySession.DataStream stream : session.getStreams()) {
+            fNext.put(stream, stream.getAvailable(published));
+        }
+        int count = session.getTraces().size() + session.getStreams().size();
+        ByteBuffer response = ByteBuffer.allocate(8 + count * LiveViewerProtocol.STREAM_SIZE);
+        response.putInt(status).putInt(count);
+        putStreams(response, session);
+        response.flip();
+        send(response);
+    }
+
+    private static void putStreams(ByteBuffer response, RelaySession session) {
+        for (RelaySession.Trace trace : session.getTraces()) {
+            response.putLong(trace.getMetadataStreamId()).putLong(trace.getMetadataStreamId()).putInt(1);
+            LiveViewerProtocol.putString(response, trace.getPathName(), LiveViewerProtocol.PATH_MAX);
+            LiveViewerProtocol.putString(response, "metadata", LiveViewerProtocol.NAME_MAX);
+        }
+        for (RelaySession.DataStream stream : session.getStreams()) {
+            response.putLong(stream.getId()).putLong(stream.getTrace().getMetadataStreamId()).putInt(0);
+            LiveViewerProtocol.putString(response, stream.getTrace().getPathName(), LiveViewerProtocol.PATH_MAX);
+            LiveViewerProtocol.putString(response, stream.getChannelName(), LiveViewerProtocol.NAME_MAX);
+        }
+    }
+
+    private void getNewStreams() throws IOException {
+        require(Long.BYTES);
+        RelaySession session = fServer.getSession(fRequest.getLong());
+        int status;
+        if (session == null || !fAttached.contains(session)) {
+            status = LiveViewerProtocol.NEW_STREAMS_ERR;
+        } else if (session.isComplete(session.getPublished())) {
+            status = LiveViewerProtocol.NEW_STREAMS_HUP;
+        } else {
+            /* All the streams are sent on attach */
+            status = LiveViewerProtocol.NEW_STREAMS_NO_NEW;
+        }
+        ByteBuffer response = ByteBuffer.allocate(8);
+        response.putInt(status).putInt(0).flip();
+        send(response);
+    }
+
+    private void getMetadata() throws IOException {
+        require(Long.BYTES);
+        RelaySession.Trace trace = fServer.getMetadataStream(fRequest.getLong());
+        Integer sent = trace == null ? null : fMetadataSent.get(trace);
+        byte[] metadata = trace == null ? new byte[0] : trace.getMetadata();
+        int status;
+        int length = 0;
+        if (sent == null) {
+            status = LiveViewerProtocol.METADATA_ERR;
+        } else if (sent == metadata.length) {
+            status = LiveViewerProtocol.NO_NEW_METADATA;
+        } else {
+            status = LiveViewerProtocol.METADATA_OK;
+            length = metadata.length - sent;
+            fMetadataSent.put(trace, metadata.length);
+        }
+        ByteBuffer response = ByteBuffer.allocate(12);
+        response.putLong(length).putInt(status).flip();
+        send(response);
+        if (length > 0) {
+            send(ByteBuffer.wrap(metadata, sent, length));
+        }
+    }
+
+    private void getNextIndex() throws IOException {
+        require(Long.BYTES);
+        RelaySession.DataStream stream = fServer.getStream(fRequest.getLong());
+        Integer next = stream == null ? null : fNext.get(stream);
+        fIndex.clear();
+        if (next == null) {
+            fIndex.put(NO_ENTRY).putInt(LiveViewerProtocol.INDEX_ERR).putInt(0);
+        } else {
+            RelaySession session = stream.getSession();
+            int published = session.getPublished();
+            List<PacketIndexEntry> entries = stream.getEntries();
+            if (next < stream.getAvailable(published)) {
+                PacketIndexEntry entry = entries.get(next);
+                fNext.put(stream, next + 1);
+                Integer sent = fMetadataSent.get(stream.getTrace());
+                int flags = sent != null && sent < stream.getTrace().getMetadata().length ? LiveViewerProtocol.FLAG_NEW_METADATA : 0;
+                fIndex.putLong(entry.getOffset()).putLong(entry.getPacketSize()).putLong(entry.getContentSize())
+                        .putLong(entry.getTimestampBegin()).putLong(entry.getTimestampEnd()).putLong(entry.getEventsDiscarded())
+                        .putLong(entry.getStreamId()).putInt(LiveViewerProtocol.INDEX_OK).putInt(flags);
+            } else {
+                int status = next == entries.size() && session.isComplete(published) ? LiveViewerProtocol.INDEX_HUP : LiveViewerProtocol.INDEX_RETRY;
+                fIndex.put(NO_ENTRY).putInt(status).putInt(0);
+            }
+        }
+        fIndex.flip();
+        send(fIndex);
+    }
+
+    private void getPacket() throws IOException {
+        require(LiveViewerProtocol.GET_PACKET_SIZE);
+        RelaySession.DataStream stream = fServer.getStream(fRequest.getLong());
+        long offset = fRequest.getLong();
+        long length = fRequest.getInt() & 0xFFFFFFFFL;
+        int status;
+        if (stream == null || !fNext.containsKey(stream) || offset < 0 || offset + length > stream.getAvailableBytes(Integer.MAX_VALUE)) {
+            status = LiveViewerProtocol.GET_PACKET_ERR;
+        } else if (offset + length > stream.getAvailableBytes(stream.getSession().getPublished())) {
+            status = LiveViewerProtocol.GET_PACKET_RETRY;
+        } else {
+            status = LiveViewerProtocol.GET_PACKET_OK;
+        }
+        ByteBuffer response = ByteBuffer.allocate(12);
+        response.putInt(status).putInt(status == LiveViewerProtocol.GET_PACKET_OK ? (int) length : 0).putInt(0).flip();
+        send(response);
+        if (stream != null && status == LiveViewerProtocol.GET_PACKET_OK) {
+            FileChannel file = fFiles.get(stream.getFile());
+            if (file == null) {
+                file = FileChannel.open(stream.getFile(), StandardOpenOption.READ);
+                fFiles.put(stream.getFile(), file);
+            }
+            long done = 0;
+            while (done < length) {
+                done += file.transferTo(offset + done, length - done, fChannel);
+            }
+            fServer.addBytesSent(length);
+        }
+    }
+
+    private void detach() throws IOException {
+        require(Long.BYTES);
+        RelaySession session = fServer.getSession(fRequest.getLong());
+        int status = LiveViewerProtocol.DETACH_UNK;
+        if (session != null && fAttached.remove(session)) {
+            session.detach();
+            for (RelaySession.Trace trace : session.getTraces()) {
+                fMetadataSent.remove(trace);
+            }
+            for (RelaySession.DataStream stream : session.getStreams()) {
+                fNext.remove(stream);
+            }
+            status = LiveViewerProtocol.DETACH_OK;
+        }
+        send(status(status));
+    }
+
+    private static ByteBuffer status(int status) {
+        ByteBuffer response = ByteBuffer.allocate(4);
+        response.putInt(status).flip();
+        return response;
+    }
+
+    private void send(ByteBuffer response) throws IOException {
+        LiveViewerProtocol.writeFully(fChannel, response);
+    }
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.relayd;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.testtraces.ctf.relayd.LiveViewerClient.ViewerIndex;
+import org.eclipse.tracecompass.testtraces.ctf.relayd.LiveViewerClient.ViewerSession;
+import org.eclipse.tracecompass.testtraces.ctf.relayd.LiveViewerClient.ViewerStream;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.PacketIndexEntry;
+import org.eclipse.tracecompass.testtraces.ctf.tools.live.ReplayPacing;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link RelayServer}
+ */
+public class RelayServerTest {
+
+    /** Number of viewers following the same session */
+    private static final int VIEWERS = 3;
+
+    /** Temporary directory for the received traces */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test that concurrent viewers following a session each receive the
+     * metadata and every packet of the trace, and that the index entries are
+     * the ones of the trace.
+     *
+     * @throws Exception
+     *             if the trace cannot be served or received
+     */
+    @Test
+    public void testFollow() throws Exception {
+        Map<String, Path> traces = new LinkedHashMap<>();
+        traces.put("ros2", CtfTestTrace.ROS2.getTracePath());
+        traces.put("hello-lost", CtfTestTrace.HELLO_LOST.getTracePath());
+        RelayOptions options = new RelayOptions(ReplayPacing.bytesPerSecond(1 << 28), 4, VIEWERS);
+        ExecutorService executor = Executors.newFixedThreadPool(VIEWERS);
+        try (RelayServer server = new RelayServer(0, options, traces);
+                LiveViewerClient client = new LiveViewerClient(server.getPort())) {
+            List<ViewerSession> sessions = client.listSessions();
+            assertEquals(2, sessions.size());
+            assertEquals("ros2", sessions.get(0).getName());
+            assertEquals("hello-lost", sessions.get(1).getName());
+            assertEquals(RelayServer.HOST_NAME, sessions.get(0).getHostName());
+            long sessionId = sessions.get(0).getId();
+
+            List<Future<Long>> viewers = new ArrayList<>();
+            for (int i = 0; i < VIEWERS; i++) {
+                Path target = fTemporaryFolder.getRoot().toPath().resolve("viewer" + i);
+                viewers.add(executor.submit(() -> {
+                    try (LiveViewerClient viewer = new LiveViewerClient(server.getPort())) {
+                        return viewer.follow(sessionId, target);
+                    }
+                }));
+            }
+            long bytes = 0;
+            for (int i = 0; i < VIEWERS; i++) {
+                bytes += viewers.get(i).get();
+                checkTrace(traces.get("ros2"), fTemporaryFolder.getRoot().toPath().resolve("viewer" + i).resolve("ros2"));
+            }
+            assertEquals(bytes, server.getBytesSent());
+
+            /* The index entries of a new round are the ones of the trace */
+            List<ViewerStream> streams = client.attach(sessionId, LiveViewerProtocol.SEEK_BEGINNING);
+            ViewerStream stream = streams.stream().filter(s -> s.getChannelName().equals("ros2_0")).findFirst().get();
+            for (PacketIndexEntry entry : CtfTestTrace.ROS2.getPacketIndex().get("ros2_0")) {
+                ViewerIndex index = client.getNextIndex(stream.getId());
+                while (index.getStatus() == LiveViewerProtocol.INDEX_RETRY) {
+                    index = client.getNextIndex(stream.getId());
+                }
+                assertEquals(LiveViewerProtocol.INDEX_OK, index.getStatus());
+                assertEquals(entry.getOffset(), index.getOffset());
+                assertEquals(entry.getPacketSize(), index.getPacketSize());
+                assertEquals(entry.getContentSize(), index.getContentSize());
+                assertEquals(entry.getTimestampBegin(), index.getTimestampBegin());
+                assertEquals(entry.getTimestampEnd(), index.getTimestampEnd());
+                assertEquals(entry.getEventsDiscarded(), index.getEventsDiscarded());
+                assertEquals(entry.getStreamId(), index.getStreamId());
+            }
+            assertEquals(LiveViewerProtocol.DETACH_OK, client.detach(sessionId));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void checkTrace(Path expected, Path actual) throws IOException {
+        assertArrayEquals(Files.readAllBytes(expected.resolve(MetadataReader.METADATA_FILE_NAME)),
+                Files.readAllBytes(actual.resolve(MetadataReader.METADATA_FILE_NAME)));
+        for (String stream : CtfTestTrace.ROS2.getPacketIndex().keySet()) {
+            assertArrayEquals(stream, Files.readAllBytes(expected.resolve(stream)), Files.readAllBytes(actual.resolve(stream)));
+        }
+    }
+
+    /**
+     * Test that the packets are not served before they are published, and
+     * the answers of the relay to unknown streams and sessions.
+     *
+     * @throws IOException
+     *             if the trace cannot be served
+     */
+    @Test
+    public void testUnpublished() throws IOException {
+        Map<String, Path> traces = new LinkedHashMap<>();
+        traces.put("ros2", CtfTestTrace.ROS2.getTracePath());
+        /* A byte per second: the first packet is due in hours */
+        RelayOptions options = new RelayOptions(ReplayPacing.bytesPerSecond(1), 1, 1);
+        try (RelayServer server = new RelayServer(0, options, traces);
+                LiveViewerClient client = new LiveViewerClient(server.getPort())) {
+            long sessionId = client.listSessions().get(0).getId();
+            List<ViewerStream> streams = client.attach(sessionId, LiveViewerProtocol.SEEK_BEGINNING);
+            assertEquals(1, client.listSessions().get(0).getClients());
+            ViewerStream metadata = streams.get(0);
+            ViewerStream stream = streams.get(1);
+            assertTrue(metadata.isMetadata());
+            assertEquals(metadata.getTraceId(), stream.getTraceId());
+
+            assertArrayEquals(Files.readAllBytes(traces.get("ros2").resolve(MetadataReader.METADATA_FILE_NAME)), client.getMetadata(metadata.getId()));
+            assertEquals(0, client.getMetadata(metadata.getId()).length);
+            assertEquals(LiveViewerProtocol.INDEX_RETRY, client.getNextIndex(stream.getId()).getStatus());
+            assertEquals(LiveViewerProtocol.GET_PACKET_RETRY, client.getPacket(stream.getId(), 0, 1, ByteBuffer.allocate(1)));
+            assertEquals(LiveViewerProtocol.NEW_STREAMS_NO_NEW, client.getNewStreams(sessionId, new ArrayList<>()));
+
+            assertEquals(LiveViewerProtocol.INDEX_ERR, client.getNextIndex(-1).getStatus());
+            assertEquals(LiveViewerProtocol.GET_PACKET_ERR, client.getPacket(stream.getId(), Long.MAX_VALUE / 2, 1, ByteBuffer.allocate(1)));
+            assertEquals(LiveViewerProtocol.NEW_STREAMS_ERR, client.getNewStreams(-1, new ArrayList<>()));
+
+            assertEquals(LiveViewerProtocol.DETACH_OK, client.detach(sessionId));
+            assertEquals(LiveViewerProtocol.DETACH_UNK, client.detach(sessionId));
+            assertEquals(LiveViewerProtocol.INDEX_ERR, client.getNextIndex(stream.getId()).getStatus());
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.scanner;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ArrayType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.BlobType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldRole;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FloatType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.IntegerType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StructType;
+
+/**
+ * Where the fields with a {@link FieldRole} are in a packet header and
+ * context, compiled from their TSDL or CTF 2 layout.
+ *
+ * Alignments are relative to the start of the file, so a layout is compiled
+ * for a given position of the packet modulo the largest alignment. Only
+ * fixed-size fields are supported. As with the field decoder, the last field
+ * with a role wins.
+ */
+final class PacketLayout {
+
+    private static final int ROLE_COUNT = FieldRole.values().length;
+
+    private final int[] fOffsets = new int[ROLE_COUNT];
+    private final int[] fSizes = new int[ROLE_COUNT];
+    private final boolean[] fSigned = new boolean[ROLE_COUNT];
+    private final boolean[] fBigEndian = new boolean[ROLE_COUNT];
+    private final long fStart;
+    private long fPosition;
+
+    private PacketLayout(long start) {
+        Arrays.fill(fOffsets, -1);
+        fStart = start;
+        fPosition = start;
+    }
+
+    /**
+     * Compile the layout of a packet header and context.
+     *
+     * @param header
+     *            the packet header, may be null
+     * @param context
+     *            the packet context, may be null
+     * @param start
+     *            the position of the packet in bits, modulo the largest
+     *            alignment of the fields
+     * @return the layout
+     * @throws CtfFormatException
+     *             if a field does not have a fixed size
+     */
+    static PacketLayout compile(StructType header, StructType context, long start) throws CtfFormatException {
+        PacketLayout layout = new PacketLayout(start);
+        if (header != null) {
+            layout.add(header, null, "packet.header");
+        }
+        if (context != null) {
+            layout.add(context, null, "packet.context");
+        }
+        return layout;
+    }
+
+    /**
+     * Get the largest alignment of a field of some structures.
+     *
+     * @param types
+     *            the structures, may contain null
+     * @return the alignment in bits, at least 8
+     */
+    static int getMaxAlignment(StructType... types) {
+        int alignment = Byte.SIZE;
+        for (StructType type : types) {
+            if (type != null) {
+                alignment = Math.max(alignment, getMaxAlignment(type));
+            }
+        }
+        return alignment;
+    }
+
+    private static int getMaxAlignment(FieldType type) {
+        int alignment = type.getAlignment();
+        if (type instanceof StructType) {
+            for (StructType.Member member : ((StructType) type).getMembers()) {
+                alignment = Math.max(alignment, getMaxAlignment(member.getType()));
+            }
+        } else if (type instanceof ArrayType) {
+            alignment = Math.max(alignment, getMaxAlignment(((ArrayType) type).getElementType()));
+        }
+        return alignment;
+    }
+
+    private void add(FieldType type, FieldRole role, String name) throws CtfFormatException {
+        long mask = type.getAlignment() - 1L;
+        fPosition = (fPosition + mask) & ~mask;
+        if (type instanceof IntegerType) {
+            IntegerType integer = (IntegerType) type;
+            if (role != null) {
+                int index = role.ordinal();
+                fOffsets[index] = (int) (fPosition - fStart);
+                fSizes[index] = integer.getSize();
+                fSigned[index] = integer.isSigned();
+                fBigEndian[index] = integer.getByteOrder() == ByteOrder.BIG_ENDIAN;
+            }
+            fPosition += integer.getSize();
+        } else if (type instanceof FloatType) {
+            fPosition += ((FloatType) type).getSize();
+        } else if (type instanceof StructType) {
+            for (StructType.Member member : ((StructType) type).getMembers()) {
+                add(member.getType(), member.getRole(), name + '.' + member.getName());
+            }
+        } else if (type instanceof ArrayType && ((ArrayType) type).getLength() >= 0) {
+            ArrayType array = (ArrayType) type;
+            if (array.isByteArray()) {
+                fPosition += (long) array.getLength() * Byte.SIZE;
+            } else {
+                for (int i = 0; i < array.getLength(); i++) {
+                    add(array.getElementType(), null, name);
+                }
+            }
+        } else if (type instanceof BlobType && ((BlobType) type).getLength() >= 0) {
+            fPosition += (long) ((BlobType) type).getLength() * Byte.SIZE;
+        } else {
+            throw new CtfFormatException("Unsupported field " + name + " (" + type.getClass().getSimpleName() + "), not of a fixed size");
+        }
+    }
+
+    /**
+     * @param role
+     *            a role
+     * @return true if a fixed-size integer field has that role
+     */
+    boolean has(FieldRole role) {
+        return fOffsets[role.ordinal()] >= 0;
+    }
+
+    /**
+     * @param role
+     *            a role
+     * @return the offset of the field from the start of the packet, in bits,
+     *         -1 if none
+     */
+    int getOffset(FieldRole role) {
+        return fOffsets[role.ordinal()];
+    }
+
+    /**
+     * @param role
+     *            a role
+     * @return the size of the field, in bits
+     */
+    int getSize(FieldRole role) {
+        return fSizes[role.ordinal()];
+    }
+
+    /**
+     * @param role
+     *            a role
+     * @return true if the field is signed
+     */
+    boolean isSigned(FieldRole role) {
+        return fSigned[role.ordinal()];
+    }
+
+    /**
+     * @param role
+     *            a role
+     * @return true if the field is big endian
+     */
+    boolean isBigEndian(FieldRole role) {
+        return fBigEndian[role.ordinal()];
+    }
+
+    /**
+     * @return the size of the packet header and context, in bits
+     */
+    long getSize() {
+        return fPosition - fStart;
+    }
+}
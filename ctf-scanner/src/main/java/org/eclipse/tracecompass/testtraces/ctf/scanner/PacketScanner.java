@@ -0,0 +1,421 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.scanner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.FieldDecoder;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldRole;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StreamClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StructType;
+
+/**
+ * Walks the packets of a stream file, reading only the fields of the packet
+ * header and context that have a {@link FieldRole}.
+ *
+ * Unlike the <code>PacketReader</code>, the scanner does not decode the
+ * header and context: their layout is compiled once per stream class (see
+ * {@link PacketLayout}) and the fields are read at fixed offsets from memory
+ * mapped windows of the file, in the byte order of each field. Once the
+ * layouts are compiled and the file is mapped, moving to the next packet
+ * allocates nothing. Packet headers and contexts with fields that do not
+ * have a fixed size, such as strings or sequences, are not supported.
+ *
+ * Typical use:
+ *
+ * <pre>
+ * try (PacketScanner scanner = new PacketScanner(metadata, file)) {
+ *     while (scanner.next()) {
+ *         ...
+ *     }
+ * }
+ * </pre>
+ *
+ * The values are the ones the <code>PacketReader</code> gives: timestamps are
+ * in clock cycles, and the beginning timestamp is extended with the previous
+ * one if its field holds only the low bits of the clock.
+ */
+public final class PacketScanner implements Closeable {
+
+    /** Default size of the mapped window, in bytes */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+    private static final long PACKET_MAGIC = 0xC1FC1FC1L;
+
+    private final CtfMetadata fMetadata;
+    private final Path fPath;
+    private final FileChannel fChannel;
+    private final long fSize;
+    private final int fWindowSize;
+
+    /* Layouts by position of the packet modulo the largest alignment */
+    private final int fPhases;
+    private final PacketLayout[] fHeaderLayouts;
+    private final Map<StreamClass, PacketLayout[]> fLayouts = new IdentityHashMap<>();
+    private long fLayoutsStreamId = -1;
+    private StreamClass fLayoutsStreamClass;
+    private PacketLayout[] fStreamLayouts;
+
+    private ByteBuffer fLittleEndian;
+    private ByteBuffer fBigEndian;
+    private long fWindowStart;
+    private long fWindowEnd;
+
+    private long fNextPacketOffset;
+    private long fPacketCount;
+    private long fClock;
+
+    private long fPacketOffset = -1;
+    private PacketLayout fLayout;
+    private long fPacketSize;
+    private long fContentSize;
+    private long fTimestampBegin;
+    private long fStreamId;
+
+    /**
+     * Constructor
+     *
+     * @param metadata
+     *            the metadata of the trace
+     * @param streamFile
+     *            the stream file
+     * @throws IOException
+     *             if the file cannot be opened, or if the packet header or
+     *             contexts do not have a fixed size
+     */
+    public PacketScanner(CtfMetadata metadata, Path streamFile) throws IOException {
+        this(metadata, streamFile, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param metadata
+     *            the metadata of the trace
+     * @param streamFile
+     *            the stream file
+     * @param windowSize
+     *            the minimum size of the mapped window, in bytes
+     * @throws IOException
+     *             if the file cannot be opened, or if the packet header or
+     *             contexts do not have a fixed size
+     */
+    public PacketScanner(CtfMetadata metadata, Path streamFile, int windowSize) throws IOException {
+        fMetadata = metadata;
+        StructType[] types = new StructType[metadata.getStreams().size() + 1];
+        types[0] = metadata.getPacketHeader();
+        int i = 1;
+        for (StreamClass stream : metadata.getStreams().values()) {
+            types[i++] = stream.getPacketContext();
+        }
+        fPhases = PacketLayout.getMaxAlignment(types) / Byte.SIZE;
+        fHeaderLayouts = new PacketLayout[fPhases];
+        for (int phase = 0; phase < fPhases; phase++) {
+            fHeaderLayouts[phase] = PacketLayout.compile(metadata.getPacketHeader(), null, (long) phase * Byte.SIZE);
+        }
+        fPath = streamFile;
+        fChannel = FileChannel.open(streamFile, StandardOpenOption.READ);
+        fSize = fChannel.size();
+        fWindowSize = windowSize;
+    }
+
+    /**
+     * Move to the next packet and read its header and context.
+     *
+     * @return false if there are no more packets
+     * @throws IOException
+     *             if the packet cannot be read, or if its magic number, stream
+     *             class or sizes are invalid
+     */
+    public boolean next() throws IOException {
+        long offset = fNextPacketOffset;
+        long fileSize = fSize;
+        if (offset >= fileSize) {
+            return false;
+        }
+        int phase = (int) (offset % fPhases);
+        PacketLayout header = fHeaderLayouts[phase];
+        map(offset, header.getSize());
+        if (header.has(FieldRole.PACKET_MAGIC_NUMBER) && read(header, FieldRole.PACKET_MAGIC_NUMBER, offset) != PACKET_MAGIC) {
+            throw new CtfFormatException("Bad packet magic number at offset " + offset + " of " + fPath);
+        }
+        long streamId = header.has(FieldRole.DATA_STREAM_CLASS_ID) ? read(header, FieldRole.DATA_STREAM_CLASS_ID, offset) : 0;
+        PacketLayout layout = getLayouts(streamId, offset)[phase];
+        if (layout == null) {
+            layout = PacketLayout.compile(fMetadata.getPacketHeader(), fLayoutsStreamClass.getPacketContext(), (long) phase * Byte.SIZE);
+            fStreamLayouts[phase] = layout;
+        }
+        map(offset, layout.getSize());
+
+        long packetSize = layout.has(FieldRole.PACKET_TOTAL_LENGTH) ? read(layout, FieldRole.PACKET_TOTAL_LENGTH, offset) : (fileSize - offset) * Byte.SIZE;
+        long contentSize = layout.has(FieldRole.PACKET_CONTENT_LENGTH) ? read(layout, FieldRole.PACKET_CONTENT_LENGTH, offset) : packetSize;
+        if (packetSize % Byte.SIZE != 0 || packetSize <= 0 || contentSize > packetSize || offset + packetSize / Byte.SIZE > fileSize) {
+            throw new CtfFormatException("Bad packet size " + packetSize + " (content " + contentSize + ") at offset " + offset + " of " + fPath);
+        }
+        if (layout.has(FieldRole.DEFAULT_CLOCK_TIMESTAMP)) {
+            fClock = FieldDecoder.updateClock(fClock, read(layout, FieldRole.DEFAULT_CLOCK_TIMESTAMP, offset), layout.getSize(FieldRole.DEFAULT_CLOCK_TIMESTAMP));
+            fTimestampBegin = fClock;
+        } else {
+            fTimestampBegin = 0;
+        }
+        fLayout = layout;
+        fStreamId = streamId;
+        fPacketSize = packetSize;
+        fContentSize = contentSize;
+        fPacketOffset = offset;
+        fNextPacketOffset = offset + packetSize / Byte.SIZE;
+        fPacketCount++;
+        return true;
+    }
+
+    /**
+     * Get the layouts of the packets of a stream class, compiled as packets
+     * at each position modulo the largest alignment are met. The stream
+     * class of the previous packet is kept, as all the packets of a stream
+     * file usually have the same one.
+     */
+    private PacketLayout[] getLayouts(long streamId, long offset) throws CtfFormatException {
+        if (streamId != fLayoutsStreamId || fStreamLayouts == null) {
+            StreamClass stream = fMetadata.getStream(streamId);
+            if (stream == null) {
+                throw new CtfFormatException("Unknown stream class " + streamId + " at offset " + offset + " of " + fPath);
+            }
+            fStreamLayouts = fLayouts.computeIfAbsent(stream, s -> new PacketLayout[fPhases]);
+            fLayoutsStreamClass = stream;
+            fLayoutsStreamId = streamId;
+        }
+        return fStreamLayouts;
+    }
+
+    /**
+     * Make the start of a packet readable, mapping a new window of the file
+     * if it is not in the current one.
+     */
+    private void map(long offset, long bits) throws IOException {
+        long end = offset + (bits + Byte.SIZE - 1) / Byte.SIZE;
+        if (end > fSize) {
+            throw new CtfFormatException("Packet header of " + bits + " bits at offset " + offset + " goes past the end of " + fPath);
+        }
+        if (offset < fWindowStart || end > fWindowEnd || fLittleEndian == null) {
+            long windowEnd = Math.min(fSize, offset + Math.max(end - offset, fWindowSize));
+            if (windowEnd - offset > Integer.MAX_VALUE) {
+                throw new CtfFormatException("Region of " + (windowEnd - offset) + " bytes is too large to be mapped");
+            }
+            MappedByteBuffer buffer = fChannel.map(MapMode.READ_ONLY, offset, windowEnd - offset);
+            fLittleEndian = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            fBigEndian = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+            fWindowStart = offset;
+            fWindowEnd = windowEnd;
+        }
+    }
+
+    /**
+     * Read the field with a role in the packet at an offset, as the field
+     * decoder does: sign-extended if signed, and byte-aligned fields of 8, 16,
+     * 32 or 64 bits read at once.
+     */
+    private long read(PacketLayout layout, FieldRole role, long offset) {
+        long position = (offset - fWindowStart) * Byte.SIZE + layout.getOffset(role);
+        int size = layout.getSize(role);
+        boolean bigEndian = layout.isBigEndian(role);
+        boolean signed = layout.isSigned(role);
+        ByteBuffer buffer = bigEndian ? fBigEndian : fLittleEndian;
+        long value;
+        if ((position & 7) == 0) {
+            int index = (int) (position >>> 3);
+            switch (size) {
+            case 8:
+                value = buffer.get(index);
+                return signed ? value : value & 0xffL;
+            case 16:
+                value = buffer.getShort(index);
+                return signed ? value : value & 0xffffL;
+            case 32:
+                value = buffer.getInt(index);
+                return signed ? value : value & 0xffffffffL;
+            case 64:
+                return buffer.getLong(index);
+            default:
+                break;
+            }
+        }
+        value = getBits(buffer, position, size, bigEndian);
+        if (signed && size < Long.SIZE) {
+            int shift = Long.SIZE - size;
+            value = (value << shift) >> shift;
+        }
+        return value;
+    }
+
+    /**
+     * Read unaligned bits, as the bit buffer does. A value of up to 64 bits
+     * can span 9 bytes, so large values are read in two halves.
+     */
+    private static long getBits(ByteBuffer buffer, long position, int size, boolean bigEndian) {
+        if (size > Integer.SIZE) {
+            int high = size - Integer.SIZE;
+            if (bigEndian) {
+                return (getBits(buffer, position, high, true) << Integer.SIZE) | getBits(buffer, position + high, Integer.SIZE, true);
+            }
+            return getBits(buffer, position, Integer.SIZE, false) | (getBits(buffer, position + Integer.SIZE, high, false) << Integer.SIZE);
+        }
+        int offset = (int) (position & 7);
+        int bytes = (offset + size + 7) >>> 3;
+        int index = (int) (position >>> 3);
+        long raw = 0;
+        if (bigEndian) {
+            for (int i = 0; i < bytes; i++) {
+                raw = (raw << 8) | (buffer.get(index + i) & 0xffL);
+            }
+            raw >>>= bytes * Byte.SIZE - offset - size;
+        } else {
+            for (int i = bytes - 1; i >= 0; i--) {
+                raw = (raw << 8) | (buffer.get(index + i) & 0xffL);
+            }
+            raw >>>= offset;
+        }
+        return size == Long.SIZE ? raw : raw & ((1L << size) - 1);
+    }
+
+    private long getRole(FieldRole role, long defaultValue) {
+        return fLayout.has(role) ? read(fLayout, role, fPacketOffset) : defaultValue;
+    }
+
+    // ------------------------------------------------------------------------
+    // Packet
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return the size of the stream file, in bytes
+     */
+    public long getFileSize() {
+        return fSize;
+    }
+
+    /**
+     * @return the offset of the current packet in the file, in bytes
+     */
+    public long getPacketOffset() {
+        return fPacketOffset;
+    }
+
+    /**
+     * @return the size of the current packet, in bits
+     */
+    public long getPacketSize() {
+        return fPacketSize;
+    }
+
+    /**
+     * @return the size of the content of the current packet, in bits
+     */
+    public long getContentSize() {
+        return fContentSize;
+    }
+
+    /**
+     * @return the offset of the first event of the current packet, in bits
+     *         from the start of the file
+     */
+    public long getEventsStart() {
+        return fPacketOffset * Byte.SIZE + fLayout.getSize();
+    }
+
+    /**
+     * @return true if the packet context has a beginning timestamp
+     */
+    public boolean hasTimestampBegin() {
+        return fLayout.has(FieldRole.DEFAULT_CLOCK_TIMESTAMP);
+    }
+
+    /**
+     * @return the beginning timestamp of the packet, 0 if none
+     */
+    public long getTimestampBegin() {
+        return fTimestampBegin;
+    }
+
+    /**
+     * @return true if the packet context has an end timestamp
+     */
+    public boolean hasTimestampEnd() {
+        return fLayout.has(FieldRole.PACKET_END_DEFAULT_CLOCK_TIMESTAMP);
+    }
+
+    /**
+     * @return the end timestamp of the packet, 0 if none
+     */
+    public long getTimestampEnd() {
+        return getRole(FieldRole.PACKET_END_DEFAULT_CLOCK_TIMESTAMP, 0);
+    }
+
+    /**
+     * @return the snapshot of the discarded events counter, 0 if none
+     */
+    public long getEventsDiscarded() {
+        return getRole(FieldRole.DISCARDED_EVENT_RECORD_COUNTER_SNAPSHOT, 0);
+    }
+
+    /**
+     * @return the stream class id, 0 if not in the packet header
+     */
+    public long getStreamId() {
+        return fStreamId;
+    }
+
+    /**
+     * @return the stream instance id, 0 if not in the packet header
+     */
+    public long getStreamInstanceId() {
+        return getRole(FieldRole.DATA_STREAM_ID, 0);
+    }
+
+    /**
+     * @return the packet sequence number, or the index of the packet in the
+     *         file if the packet context does not have one
+     */
+    public long getPacketSequenceNumber() {
+        return getRole(FieldRole.PACKET_SEQUENCE_NUMBER, fPacketCount - 1);
+    }
+
+    /**
+     * @return the stream class of the current packet
+     */
+    public StreamClass getStreamClass() {
+        return fLayoutsStreamClass;
+    }
+
+    /**
+     * @return the default clock of the current packet, null if none
+     */
+    public ClockClass getClock() {
+        return fMetadata.getClock(fLayoutsStreamClass);
+    }
+
+    @Override
+    public void close() throws IOException {
+        fChannel.close();
+    }
+}
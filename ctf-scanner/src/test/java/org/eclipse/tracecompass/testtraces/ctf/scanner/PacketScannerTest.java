@@ -0,0 +1,200 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.scanner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.common.CorpusReport;
+import org.eclipse.tracecompass.testtraces.common.CorpusReport.TraceReport;
+import org.eclipse.tracecompass.testtraces.common.CorpusValidator;
+import org.eclipse.tracecompass.testtraces.ctf.CtfTestTrace;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.TsdlParser;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link PacketScanner}
+ */
+public class PacketScannerTest {
+
+    /** Number of scans of the trace in the allocation test */
+    private static final int PASSES = 5;
+
+    /** Temporary directory for the generated traces */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test that scanning every stream of every trace gives the packets and
+     * the values of the packet reader, and as many packets as the packet
+     * index generated at build time.
+     */
+    @Test
+    public void testCorpus() {
+        CorpusReport report = CorpusValidator.validate(Arrays.asList(CtfTestTrace.values()), CtfTestTrace::getTracePath,
+                PacketScannerTest::check);
+        assertEquals(report.toString(), Collections.emptyList(), report.getProblems());
+    }
+
+    private static void check(CtfTestTrace trace, Path path, TraceReport report) throws IOException {
+        List<Path> metadataFiles;
+        try (Stream<Path> walk = Files.walk(path)) {
+            metadataFiles = walk.filter(MetadataReader::isMetadata).sorted().collect(Collectors.toList());
+        }
+        long packets = 0;
+        for (Path metadataFile : metadataFiles) {
+            CtfMetadata metadata = MetadataReader.read(metadataFile.getParent());
+            for (Path stream : CtfIndexer.getStreamFiles(metadataFile.getParent())) {
+                packets += compare(metadata, stream, report);
+            }
+        }
+        long indexed = trace.getPacketIndex().values().stream().mapToLong(List::size).sum();
+        if (packets != indexed) {
+            report.addProblem("Scanned " + packets + " packets, the packet index has " + indexed);
+        }
+        report.addNote(packets + " packets");
+    }
+
+    private static long compare(CtfMetadata metadata, Path stream, TraceReport report) throws IOException {
+        long packets = 0;
+        try (PacketScanner scanner = new PacketScanner(metadata, stream, 1 << 16);
+                PacketReader reader = new PacketReader(metadata, stream)) {
+            while (reader.nextPacket()) {
+                if (!scanner.next()) {
+                    report.addProblem(stream.getFileName() + ": scanner stopped after " + packets + " packets");
+                    return packets;
+                }
+                String where = stream.getFileName() + " packet " + packets + ": ";
+                long[] expected = { reader.getPacketOffset(), reader.getPacketSize(), reader.getContentSize(), reader.getEventsStart(),
+                        reader.hasTimestampBegin() ? 1 : 0, reader.getTimestampBegin(), reader.hasTimestampEnd() ? 1 : 0,
+                        reader.getTimestampEnd(), reader.getEventsDiscarded(), reader.getStreamId(), reader.getStreamInstanceId(),
+                        reader.getPacketSequenceNumber() };
+                long[] actual = { scanner.getPacketOffset(), scanner.getPacketSize(), scanner.getContentSize(), scanner.getEventsStart(),
+                        scanner.hasTimestampBegin() ? 1 : 0, scanner.getTimestampBegin(), scanner.hasTimestampEnd() ? 1 : 0,
+                        scanner.getTimestampEnd(), scanner.getEventsDiscarded(), scanner.getStreamId(), scanner.getStreamInstanceId(),
+                        scanner.getPacketSequenceNumber() };
+                if (!Arrays.equals(expected, actual)) {
+                    report.addProblem(where + "expected " + Arrays.toString(expected) + " but was " + Arrays.toString(actual));
+                    return packets;
+                }
+                if (scanner.getStreamClass() != reader.getStreamClass()) {
+                    report.addProblem(where + "stream class differs");
+                }
+                packets++;
+            }
+            if (scanner.next()) {
+                report.addProblem(stream.getFileName() + ": scanner found more than " + packets + " packets");
+            }
+        }
+        return packets;
+    }
+
+    /**
+     * Test that moving to the next packet does not allocate, once the stream
+     * file is mapped: less than a byte per packet once warmed up.
+     *
+     * @throws IOException
+     *             if the trace cannot be read
+     */
+    @Test
+    public void testNoAllocation() throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        Path path = CtfTestTrace.HELLO_LOST.getTracePath();
+        CtfMetadata metadata = MetadataReader.read(path);
+        List<Path> streams = CtfIndexer.getStreamFiles(path);
+        for (int pass = 0; pass < PASSES; pass++) {
+            long packets = 0;
+            long checksum = 0;
+            long allocated = 0;
+            for (Path stream : streams) {
+                try (PacketScanner scanner = new PacketScanner(metadata, stream)) {
+                    /* The first packet maps the file and compiles the layout */
+                    if (!scanner.next()) {
+                        continue;
+                    }
+                    long before = threads.getThreadAllocatedBytes(thread);
+                    while (scanner.next()) {
+                        checksum += scanner.getTimestampEnd() + scanner.getEventsDiscarded() + scanner.getContentSize();
+                        packets++;
+                    }
+                    allocated += threads.getThreadAllocatedBytes(thread) - before;
+                }
+            }
+            assertTrue(packets > 100);
+            assertTrue(checksum != 0);
+            /* The first passes allocate while the code is loaded and compiled */
+            if (pass == PASSES - 1) {
+                assertTrue(allocated + " bytes allocated for " + packets + " packets", allocated < packets);
+            }
+        }
+    }
+
+    /**
+     * Test that packet headers with a variable-size field are rejected, and
+     * that a bad magic number is reported.
+     *
+     * @throws IOException
+     *             if the trace cannot be written
+     */
+    @Test
+    public void testInvalid() throws IOException {
+        Path directory = fTemporaryFolder.getRoot().toPath();
+        String tsdl = "/* CTF 1.8 */\n"
+                + "typealias integer { size = 32; align = 8; signed = false; byte_order = be; } := uint32_t;\n"
+                + "trace { major = 1; minor = 8; byte_order = le; packet.header := struct { uint32_t magic; %s }; };\n"
+                + "stream { packet.context := struct { uint32_t packet_size; uint32_t content_size; }; };\n"
+                + "event { name = e; fields := struct { uint32_t x; }; };\n";
+        CtfMetadata variable = TsdlParser.parse(String.format(tsdl, "string name;"));
+        Path file = directory.resolve("stream");
+        Files.write(file, new byte[] { 0, 0, 0, 0, 0, 0, 0, 96, 0, 0, 0, 96 });
+        try {
+            new PacketScanner(variable, file).close();
+            fail("Variable-size header accepted");
+        } catch (CtfFormatException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("packet.header.name"));
+        }
+        CtfMetadata fixed = TsdlParser.parse(String.format(tsdl, ""));
+        try (PacketScanner scanner = new PacketScanner(fixed, file)) {
+            scanner.next();
+            fail("Bad magic number accepted");
+        } catch (CtfFormatException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("magic"));
+        }
+        Files.write(file, new byte[] { (byte) 0xC1, (byte) 0xFC, 0x1F, (byte) 0xC1, 0, 0, 0, 96, 0, 0, 0, 96 });
+        try (PacketScanner scanner = new PacketScanner(fixed, file)) {
+            assertTrue(scanner.next());
+            assertEquals(96, scanner.getPacketSize());
+            assertEquals(96, scanner.getEventsStart());
+            assertFalse(scanner.next());
+        }
+    }
+}
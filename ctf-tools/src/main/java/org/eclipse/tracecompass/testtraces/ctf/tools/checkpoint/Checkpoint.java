@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint;
+
+/**
+ * The state of the decoding of a stream after a given number of events.
+ */
+public final class Checkpoint {
+
+    private final long fEvents;
+    private final long fTimestamp;
+    private final long fStreamId;
+    private final long fOffset;
+    private final long fDigest;
+
+    /**
+     * Constructor
+     *
+     * @param events
+     *            the number of events decoded, from the start of the stream
+     * @param timestamp
+     *            the timestamp of the last event, in nanoseconds
+     * @param streamId
+     *            the data stream class id of the last event
+     * @param offset
+     *            the offset of the last event, in bits from the start of the
+     *            file
+     * @param digest
+     *            the value of the {@link RollingDigest} of the events
+     */
+    public Checkpoint(long events, long timestamp, long streamId, long offset, long digest) {
+        fEvents = events;
+        fTimestamp = timestamp;
+        fStreamId = streamId;
+        fOffset = offset;
+        fDigest = digest;
+    }
+
+    /**
+     * @return the number of events decoded, from the start of the stream
+     */
+    public long getEvents() {
+        return fEvents;
+    }
+
+    /**
+     * @return the timestamp of the last event, in nanoseconds
+     */
+    public long getTimestamp() {
+        return fTimestamp;
+    }
+
+    /**
+     * @return the data stream class id of the last event
+     */
+    public long getStreamId() {
+        return fStreamId;
+    }
+
+    /**
+     * @return the offset of the last event, in bits from the start of the
+     *         file
+     */
+    public long getOffset() {
+        return fOffset;
+    }
+
+    /**
+     * @return the value of the digest of the events
+     */
+    public long getDigest() {
+        return fDigest;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fDigest) * 31 + Long.hashCode(fEvents);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Checkpoint)) {
+            return false;
+        }
+        Checkpoint other = (Checkpoint) obj;
+        return fEvents == other.fEvents && fTimestamp == other.fTimestamp && fStreamId == other.fStreamId
+                && fOffset == other.fOffset && fDigest == other.fDigest;
+    }
+
+    @Override
+    public String toString() {
+        return "Checkpoint [events=" + fEvents + ", timestamp=" + fTimestamp + ", streamId=" + fStreamId + ", offset="
+                + fOffset + ", digest=" + Long.toHexString(fDigest) + "]";
+    }
+}
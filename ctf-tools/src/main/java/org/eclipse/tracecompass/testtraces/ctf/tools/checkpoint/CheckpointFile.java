@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+
+/**
+ * Reads and writes checkpoint files (<code>*.ckpt</code>), the
+ * {@link Checkpoint}s of one stream file.
+ *
+ * The file is big endian. A 24-byte header (magic, major and minor version,
+ * checkpoint interval, number of events of the stream) is followed by one
+ * 40-byte record per checkpoint: number of events, timestamp, stream id,
+ * offset and digest. There is a checkpoint after every
+ * <code>interval</code> events, and one after the last event of the stream.
+ */
+public final class CheckpointFile implements Closeable {
+
+    /** Magic number of the checkpoint files */
+    public static final int MAGIC = 0x434B5054;
+
+    /** Major version written */
+    public static final int MAJOR = 1;
+
+    /** Minor version written */
+    public static final int MINOR = 0;
+
+    /** Extension of the checkpoint files */
+    public static final String EXTENSION = ".ckpt";
+
+    private static final int HEADER_SIZE = 24;
+    private static final int RECORD_SIZE = 5 * Long.BYTES;
+
+    private final DataInputStream fInput;
+    private final Path fFile;
+    private final int fInterval;
+    private final long fEvents;
+    private long fRemaining;
+
+    /**
+     * Open a checkpoint file, to read its checkpoints one by one.
+     *
+     * @param file
+     *            the checkpoint file
+     * @throws IOException
+     *             if the file cannot be read or is not a checkpoint file
+     */
+    public CheckpointFile(Path file) throws IOException {
+        fFile = file;
+        long size = Files.size(file);
+        fInput = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        try {
+            if (size < HEADER_SIZE || fInput.readInt() != MAGIC) {
+                throw new CtfFormatException("Not a checkpoint file: " + file);
+            }
+            int major = fInput.readInt();
+            int minor = fInput.readInt();
+            if (major != MAJOR) {
+                throw new CtfFormatException("Unsupported checkpoint file version " + major + '.' + minor + " in " + file);
+            }
+            fInterval = fInput.readInt();
+            fEvents = fInput.readLong();
+            if ((size - HEADER_SIZE) % RECORD_SIZE != 0) {
+                throw new CtfFormatException("Truncated checkpoint file: " + file);
+            }
+        } catch (IOException e) {
+            fInput.close();
+            throw e;
+        }
+        fRemaining = (size - HEADER_SIZE) / RECORD_SIZE;
+    }
+
+    /**
+     * @return the number of events between two checkpoints
+     */
+    public int getInterval() {
+        return fInterval;
+    }
+
+    /**
+     * @return the number of events of the stream
+     */
+    public long getEvents() {
+        return fEvents;
+    }
+
+    /**
+     * Read the next checkpoint.
+     *
+     * @return the checkpoint, null if there are no more checkpoints
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public Checkpoint next() throws IOException {
+        if (fRemaining == 0) {
+            return null;
+        }
+        try {
+            Checkpoint checkpoint = new Checkpoint(fInput.readLong(), fInput.readLong(), fInput.readLong(), fInput.readLong(), fInput.readLong());
+            fRemaining--;
+            return checkpoint;
+        } catch (EOFException e) {
+            throw new CtfFormatException("Truncated checkpoint file: " + fFile, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        fInput.close();
+    }
+
+    /**
+     * Read all the checkpoints of a file.
+     *
+     * @param file
+     *            the checkpoint file
+     * @return the checkpoints
+     * @throws IOException
+     *             if the file cannot be read or is not a checkpoint file
+     */
+    public static List<Checkpoint> read(Path file) throws IOException {
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        try (CheckpointFile checkpointFile = new CheckpointFile(file)) {
+            for (Checkpoint checkpoint = checkpointFile.next(); checkpoint != null; checkpoint = checkpointFile.next()) {
+                checkpoints.add(checkpoint);
+            }
+        }
+        return checkpoints;
+    }
+
+    /**
+     * Write a checkpoint file.
+     *
+     * @param file
+     *            the checkpoint file, replaced if it exists
+     * @param interval
+     *            the number of events between two checkpoints
+     * @param events
+     *            the number of events of the stream
+     * @param checkpoints
+     *            the checkpoints
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(Path file, int interval, long events, List<Checkpoint> checkpoints) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + checkpoints.size() * RECORD_SIZE).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putInt(MAJOR).putInt(MINOR).putInt(interval).putLong(events);
+        for (Checkpoint checkpoint : checkpoints) {
+            buffer.putLong(checkpoint.getEvents());
+            buffer.putLong(checkpoint.getTimestamp());
+            buffer.putLong(checkpoint.getStreamId());
+            buffer.putLong(checkpoint.getOffset());
+            buffer.putLong(checkpoint.getDigest());
+        }
+        buffer.flip();
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * Generates the checkpoints of CTF traces by decoding all their events.
+ *
+ * Used at build time to generate the checkpoints of every test trace:
+ *
+ * <pre>
+ * java CheckpointGenerator &lt;traces root&gt; &lt;output directory&gt; [interval]
+ * </pre>
+ *
+ * The checkpoints of the stream file <code>&lt;root&gt;/a/b/stream</code> are
+ * written to <code>&lt;output&gt;/a/b/stream.ckpt</code>, one every
+ * <code>interval</code> events ({@value #DEFAULT_INTERVAL} by default).
+ * A trace whose metadata cannot be parsed, or a stream that cannot be decoded
+ * to the end, fails the generation.
+ */
+public final class CheckpointGenerator {
+
+    /** Default number of events between two checkpoints */
+    public static final int DEFAULT_INTERVAL = 1000;
+
+    private CheckpointGenerator() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Generate the checkpoints of all the traces of a directory tree.
+     *
+     * @param args
+     *            the root directory of the traces, the output directory and
+     *            optionally the interval
+     * @throws IOException
+     *             if the tree cannot be walked, a trace cannot be decoded or a
+     *             checkpoint file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 3) {
+            System.err.println("Usage: CheckpointGenerator <traces root> <output directory> [interval]");
+            System.exit(2);
+        }
+        int interval = args.length == 3 ? Integer.parseInt(args[2]) : DEFAULT_INTERVAL;
+        long start = System.nanoTime();
+        int streams = generateTree(Paths.get(args[0]), Paths.get(args[1]), interval);
+        System.out.println("Checkpointed " + streams + " streams in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Generate the checkpoints of all the traces of a directory tree.
+     *
+     * @param root
+     *            the root directory
+     * @param output
+     *            the output directory
+     * @param interval
+     *            the number of events between two checkpoints
+     * @return the number of checkpointed streams
+     * @throws IOException
+     *             if the tree cannot be walked, a trace cannot be decoded or a
+     *             checkpoint file cannot be written
+     */
+    public static int generateTree(Path root, Path output, int interval) throws IOException {
+        List<Path> metadataFiles;
+        try (Stream<Path> walk = Files.walk(root)) {
+            metadataFiles = walk.filter(MetadataReader::isMetadata).sorted().collect(Collectors.toList());
+        }
+        int count = 0;
+        for (Path metadataFile : metadataFiles) {
+            Path traceDirectory = metadataFile.getParent();
+            CtfMetadata metadata = MetadataReader.read(traceDirectory);
+            Path target = output.resolve(root.relativize(traceDirectory).toString());
+            for (Path stream : CtfIndexer.getStreamFiles(traceDirectory)) {
+                List<Checkpoint> checkpoints = checkpointStream(metadata, stream, interval);
+                long events = checkpoints.isEmpty() ? 0 : checkpoints.get(checkpoints.size() - 1).getEvents();
+                CheckpointFile.write(target.resolve(stream.getFileName() + CheckpointFile.EXTENSION), interval, events, checkpoints);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Generate the checkpoints of a stream file: one after every
+     * <code>interval</code> events, and one after the last event.
+     *
+     * @param metadata
+     *            the metadata of the trace
+     * @param stream
+     *            the stream file
+     * @param interval
+     *            the number of events between two checkpoints
+     * @return the checkpoints
+     * @throws IOException
+     *             if the stream cannot be decoded to the end
+     */
+    public static List<Checkpoint> checkpointStream(CtfMetadata metadata, Path stream, int interval) throws IOException {
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        RollingDigest digest = new RollingDigest();
+        long events = 0;
+        long timestamp = 0;
+        long streamId = 0;
+        long offset = 0;
+        try (PacketReader reader = new PacketReader(metadata, stream)) {
+            while (reader.nextPacket()) {
+                ClockClass clock = reader.getClock();
+                while (reader.nextEvent()) {
+                    events++;
+                    timestamp = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+                    streamId = reader.getStreamId();
+                    offset = reader.getEventOffset();
+                    digest.putEvent(reader.getEventClass().getName(), timestamp, reader.getEventPayload());
+                    if (events % interval == 0) {
+                        checkpoints.add(new Checkpoint(events, timestamp, streamId, offset, digest.getValue()));
+                    }
+                }
+            }
+        }
+        if (events % interval != 0) {
+            checkpoints.add(new Checkpoint(events, timestamp, streamId, offset, digest.getValue()));
+        }
+        return checkpoints;
+    }
+}
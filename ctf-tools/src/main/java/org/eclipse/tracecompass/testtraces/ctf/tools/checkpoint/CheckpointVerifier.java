@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Checks the events decoded from a stream file, as they are decoded, against
+ * the {@link Checkpoint}s of the stream. Only the next checkpoint is kept in
+ * memory.
+ *
+ * For each event, in stream order, either call
+ * {@link #event(String, long, long, long, Object[])} or
+ * {@link #beginEvent(String, long)}, add the payload to the returned digest as
+ * a structure (see {@link RollingDigest}), then call
+ * {@link #endEvent(long, long)}. Call {@link #finish()} after the last event.
+ * A mismatch is reported as an {@link IllegalStateException} at the first
+ * checkpoint after it.
+ */
+public final class CheckpointVerifier implements Closeable {
+
+    private final CheckpointFile fFile;
+    private final String fName;
+    private final RollingDigest fDigest = new RollingDigest();
+    private Checkpoint fNext;
+    private long fEvents;
+    private long fTimestamp;
+
+    /**
+     * Constructor
+     *
+     * @param file
+     *            the checkpoint file of the stream
+     * @param name
+     *            the name of the stream, for error messages
+     * @throws IOException
+     *             if the checkpoint file cannot be read
+     */
+    public CheckpointVerifier(Path file, String name) throws IOException {
+        fFile = new CheckpointFile(file);
+        fName = name;
+        try {
+            fNext = fFile.next();
+        } catch (IOException e) {
+            fFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return the number of events checked so far
+     */
+    public long getEvents() {
+        return fEvents;
+    }
+
+    /**
+     * Start an event.
+     *
+     * @param name
+     *            the name of the event
+     * @param timestamp
+     *            the timestamp of the event, in nanoseconds
+     * @return the digest to add the payload to
+     */
+    public RollingDigest beginEvent(String name, long timestamp) {
+        fDigest.putString(name);
+        fDigest.putLong(timestamp);
+        fTimestamp = timestamp;
+        return fDigest;
+    }
+
+    /**
+     * End an event, and check it if it is at a checkpoint.
+     *
+     * @param streamId
+     *            the data stream class id of the event, -1 if unknown
+     * @param offset
+     *            the offset of the event, in bits from the start of the file,
+     *            -1 if unknown
+     * @throws IOException
+     *             if the next checkpoint cannot be read
+     * @throws IllegalStateException
+     *             if the events do not match the checkpoint
+     */
+    public void endEvent(long streamId, long offset) throws IOException {
+        fEvents++;
+        Checkpoint expected = fNext;
+        if (expected == null || expected.getEvents() != fEvents) {
+            return;
+        }
+        check("timestamp", expected.getTimestamp(), fTimestamp, true);
+        check("stream id", expected.getStreamId(), streamId, streamId >= 0);
+        check("offset", expected.getOffset(), offset, offset >= 0);
+        check("digest", expected.getDigest(), fDigest.getValue(), true);
+        fNext = fFile.next();
+    }
+
+    /**
+     * Check an event, decoded by
+     * {@link org.eclipse.tracecompass.testtraces.ctf.tools.io.FieldDecoder}
+     * or in the same form.
+     *
+     * @param name
+     *            the name of the event
+     * @param timestamp
+     *            the timestamp of the event, in nanoseconds
+     * @param streamId
+     *            the data stream class id of the event, -1 if unknown
+     * @param offset
+     *            the offset of the event, in bits from the start of the file,
+     *            -1 if unknown
+     * @param payload
+     *            the values of the payload fields
+     * @throws IOException
+     *             if the next checkpoint cannot be read
+     * @throws IllegalStateException
+     *             if the events do not match the checkpoint
+     */
+    public void event(String name, long timestamp, long streamId, long offset, Object[] payload) throws IOException {
+        beginEvent(name, timestamp).putValue(payload == null ? new Object[0] : payload);
+        endEvent(streamId, offset);
+    }
+
+    /**
+     * Check that all the events of the stream were seen.
+     *
+     * @throws IllegalStateException
+     *             if there are fewer or more events than expected
+     */
+    public void finish() {
+        if (fEvents != fFile.getEvents()) {
+            throw new IllegalStateException(fName + " has " + fEvents + " events, expected " + fFile.getEvents());
+        }
+    }
+
+    private void check(String what, long expected, long actual, boolean known) {
+        if (known && expected != actual) {
+            throw new IllegalStateException(fName + ": " + what + " of event " + fEvents + " is " + actual + ", expected " + expected
+                    + " (checkpoint every " + fFile.getInterval() + " events)");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        fFile.close();
+    }
+}
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A 64-bit digest of a sequence of decoded events, updated one value at a
+ * time so that it can be computed while streaming.
+ *
+ * The digest is defined on 64-bit words: each word <code>w</code> updates the
+ * digest <code>h</code> to <code>rotl(h ^ fmix64(w), 31) * 0x9E3779B97F4A7C15</code>,
+ * <code>fmix64</code> being the MurmurHash3 finalizer, from
+ * <code>h = 0</code>. Values are encoded as words with a leading type tag:
+ * <ul>
+ * <li>integer and enumeration: {@link #TAG_LONG}, the value;</li>
+ * <li>floating point number: {@link #TAG_DOUBLE}, the bits of the value as a
+ * double;</li>
+ * <li>string: {@link #TAG_STRING}, the length of its UTF-8 encoding, then the
+ * bytes of the encoding, 8 by 8, little endian, zero padded;</li>
+ * <li>BLOB and array of bytes: {@link #TAG_BYTES}, then as a string;</li>
+ * <li>structure and other array: {@link #TAG_ARRAY}, the number of elements,
+ * then the elements;</li>
+ * <li>disabled optional field: {@link #TAG_NULL}.</li>
+ * </ul>
+ * Variants are encoded as the value of their selected option. An event is
+ * encoded as its name (a string), its timestamp in nanoseconds (an integer)
+ * and its payload (a structure), see
+ * {@link #putEvent(String, long, Object[])}.
+ */
+public final class RollingDigest {
+
+    /** Tag of integers */
+    public static final long TAG_LONG = 1;
+
+    /** Tag of floating point numbers */
+    public static final long TAG_DOUBLE = 2;
+
+    /** Tag of strings */
+    public static final long TAG_STRING = 3;
+
+    /** Tag of BLOBs */
+    public static final long TAG_BYTES = 4;
+
+    /** Tag of structures and arrays */
+    public static final long TAG_ARRAY = 5;
+
+    /** Tag of disabled optional fields */
+    public static final long TAG_NULL = 6;
+
+    private long fValue;
+
+    /**
+     * @return the current value of the digest
+     */
+    public long getValue() {
+        return fValue;
+    }
+
+    /**
+     * Add a word.
+     *
+     * @param word
+     *            the word
+     */
+    public void putWord(long word) {
+        long z = word;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z ^= z >>> 33;
+        fValue = Long.rotateLeft(fValue ^ z, 31) * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Add an integer.
+     *
+     * @param value
+     *            the value
+     */
+    public void putLong(long value) {
+        putWord(TAG_LONG);
+        putWord(value);
+    }
+
+    /**
+     * Add a floating point number.
+     *
+     * @param value
+     *            the value
+     */
+    public void putDouble(double value) {
+        putWord(TAG_DOUBLE);
+        putWord(Double.doubleToLongBits(value));
+    }
+
+    /**
+     * Add a string.
+     *
+     * @param value
+     *            the value
+     */
+    public void putString(String value) {
+        putWord(TAG_STRING);
+        putBytesContent(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Add a BLOB.
+     *
+     * @param value
+     *            the value
+     */
+    public void putBytes(byte[] value) {
+        putWord(TAG_BYTES);
+        putBytesContent(value);
+    }
+
+    /**
+     * Start a structure or an array; its elements are to be added next.
+     *
+     * @param count
+     *            the number of elements
+     */
+    public void putArray(int count) {
+        putWord(TAG_ARRAY);
+        putWord(count);
+    }
+
+    /**
+     * Add a disabled optional field.
+     */
+    public void putNull() {
+        putWord(TAG_NULL);
+    }
+
+    /**
+     * Add a value decoded by
+     * {@link org.eclipse.tracecompass.testtraces.ctf.tools.io.FieldDecoder}.
+     *
+     * @param value
+     *            a <code>Long</code>, <code>Double</code>, <code>String</code>,
+     *            <code>byte[]</code>, <code>Object[]</code> or null
+     */
+    public void putValue(Object value) {
+        if (value instanceof Long) {
+            putLong((Long) value);
+        } else if (value instanceof Double) {
+            putDouble((Double) value);
+        } else if (value instanceof String) {
+            putString((String) value);
+        } else if (value instanceof byte[]) {
+            putBytes((byte[]) value);
+        } else if (value instanceof Object[]) {
+            Object[] values = (Object[]) value;
+            putArray(values.length);
+            for (Object element : values) {
+                putValue(element);
+            }
+        } else if (value == null) {
+            putNull();
+        } else {
+            throw new IllegalArgumentException("Unsupported value " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * Add an event.
+     *
+     * @param name
+     *            the name of the event
+     * @param timestamp
+     *            the timestamp of the event, in nanoseconds
+     * @param payload
+     *            the values of the payload fields, null if the event has no
+     *            payload
+     */
+    public void putEvent(String name, long timestamp, Object[] payload) {
+        putString(name);
+        putLong(timestamp);
+        putValue(payload == null ? new Object[0] : payload);
+    }
+
+    private void putBytesContent(byte[] bytes) {
+        putWord(bytes.length);
+        for (int i = 0; i < bytes.length; i += Long.BYTES) {
+            long word = 0;
+            for (int j = Math.min(bytes.length - i, Long.BYTES) - 1; j >= 0; j--) {
+                word = word << Byte.SIZE | (bytes[i + j] & 0xff);
+            }
+            putWord(word);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.convert;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.Ctf2Writer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * Converts CTF 1.8 traces to CTF 2.
+ *
+ * The TSDL metadata of every trace is rewritten as plain CTF 2 JSON metadata
+ * (see {@link Ctf2Writer}), with field classes of the same layout as the
+ * TSDL types, so the stream files and LTTng packet indexes stay valid and
+ * are copied as is: the converted trace has the same packets and decodes to
+ * the same events. Traces that already have CTF 2 metadata are copied as is.
+ *
+ * <pre>
+ * java Ctf2Converter &lt;source trace&gt; &lt;target&gt;
+ * </pre>
+ */
+public final class Ctf2Converter {
+
+    /**
+     * Version of the conversion. Bump it whenever the output for a given input
+     * changes, to invalidate cached converted traces.
+     */
+    public static final String VERSION = "1";
+
+    private Ctf2Converter() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Convert a trace to CTF 2.
+     *
+     * @param args
+     *            the source trace and the target
+     * @throws IOException
+     *             if the trace cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: Ctf2Converter <source trace> <target>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int traces = convert(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Converted " + traces + " traces of " + args[0] + " in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Convert a trace, or a directory tree of traces, to CTF 2. Files that
+     * are not metadata files are copied as is.
+     *
+     * @param source
+     *            the source directory
+     * @param target
+     *            the target directory, which must not exist
+     * @return the number of metadata files converted
+     * @throws IOException
+     *             if a file cannot be read or written, or some metadata
+     *             cannot be expressed in CTF 2
+     */
+    public static int convert(Path source, Path target) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        Files.createDirectories(target);
+        int converted = 0;
+        for (Path file : files) {
+            Path copy = target.resolve(source.relativize(file).toString());
+            Files.createDirectories(copy.getParent());
+            CtfMetadata metadata = MetadataReader.isMetadata(file) ? MetadataReader.read(file.getParent()) : null;
+            if (metadata != null && metadata.getMajor() < 2) {
+                Files.write(copy, Ctf2Writer.write(metadata).getBytes(StandardCharsets.UTF_8));
+                converted++;
+            } else {
+                Files.copy(file, copy);
+            }
+        }
+        return converted;
+    }
+}
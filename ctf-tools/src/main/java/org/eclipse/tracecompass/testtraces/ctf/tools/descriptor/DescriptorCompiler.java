@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.descriptor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * Compiles the metadata of CTF traces to metadata descriptors.
+ *
+ * Used at build time to generate the descriptor of every test trace:
+ *
+ * <pre>
+ * java DescriptorCompiler &lt;traces root&gt; &lt;output directory&gt;
+ * </pre>
+ *
+ * The descriptor of the trace <code>&lt;root&gt;/a/b</code> is written to
+ * <code>&lt;output&gt;/a/b/metadata.ctfd</code>. A metadata file that cannot
+ * be parsed fails the compilation.
+ */
+public final class DescriptorCompiler {
+
+    private DescriptorCompiler() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Compile the metadata of all the traces of a directory tree.
+     *
+     * @param args
+     *            the root directory of the traces, and the output directory
+     * @throws IOException
+     *             if the tree cannot be walked, a metadata file cannot be
+     *             parsed or a descriptor cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DescriptorCompiler <traces root> <output directory>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int traces = compileTree(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Compiled " + traces + " metadata descriptors in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Compile the metadata of all the traces of a directory tree.
+     *
+     * @param root
+     *            the root directory
+     * @param output
+     *            the output directory
+     * @return the number of compiled traces
+     * @throws IOException
+     *             if the tree cannot be walked, a metadata file cannot be
+     *             parsed or a descriptor cannot be written
+     */
+    public static int compileTree(Path root, Path output) throws IOException {
+        List<Path> metadataFiles;
+        try (Stream<Path> walk = Files.walk(root)) {
+            metadataFiles = walk.filter(MetadataReader::isMetadata).sorted().collect(Collectors.toList());
+        }
+        int count = 0;
+        for (Path metadataFile : metadataFiles) {
+            Path traceDirectory = metadataFile.getParent();
+            CtfMetadata metadata = MetadataReader.read(traceDirectory);
+            Path target = output.resolve(root.relativize(traceDirectory).toString());
+            MetadataDescriptor.write(metadata, target.resolve(MetadataDescriptor.FILE_NAME));
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,695 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.descriptor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ArrayType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.BlobType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EnumType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EventClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldLocation;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldRole;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FloatType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.IntegerType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.OptionalType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.Scope;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StreamClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StringType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StructType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.VarIntType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.VariantType;
+
+/**
+ * Reads and writes metadata descriptors: the parsed metadata of a trace
+ * (TSDL or CTF 2) in a compact binary form, quick to load.
+ *
+ * The file starts with a 12-byte big-endian header: magic number, major and
+ * minor version, and the size of the body. The body has three sections:
+ *
+ * <ul>
+ * <li>the string table, every name and text value once;</li>
+ * <li>the type table, every field type once, a type only referring to types
+ * before it, so shared types stay shared;</li>
+ * <li>the trace: packet header, environment, clocks, then the stream classes
+ * and their event classes.</li>
+ * </ul>
+ *
+ * Numbers in the body are LEB128 variable-length integers, zigzag-encoded when
+ * they can be negative. References to strings and types are indexes plus one,
+ * 0 meaning null.
+ */
+public final class MetadataDescriptor {
+
+    /** Magic number of the descriptor files ("CTFD") */
+    public static final int MAGIC = 0x43544644;
+
+    /** Major version, incompatible layout changes */
+    public static final int MAJOR = 1;
+
+    /** Minor version, compatible additions */
+    public static final int MINOR = 0;
+
+    /** Name of the descriptor file of a trace */
+    public static final String FILE_NAME = "metadata.ctfd";
+
+    private static final int HEADER_SIZE = 12;
+
+    private static final int TYPE_INTEGER = 1;
+    private static final int TYPE_ENUM = 2;
+    private static final int TYPE_VARINT = 3;
+    private static final int TYPE_FLOAT = 4;
+    private static final int TYPE_STRING = 5;
+    private static final int TYPE_BLOB = 6;
+    private static final int TYPE_ARRAY = 7;
+    private static final int TYPE_STRUCT = 8;
+    private static final int TYPE_VARIANT = 9;
+    private static final int TYPE_OPTIONAL = 10;
+
+    private static final int VALUE_NULL = 0;
+    private static final int VALUE_STRING = 1;
+    private static final int VALUE_LONG = 2;
+    private static final int VALUE_DOUBLE = 3;
+    private static final int VALUE_BOOLEAN = 4;
+    private static final int VALUE_LIST = 5;
+    private static final int VALUE_MAP = 6;
+
+    private MetadataDescriptor() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Read a descriptor file, mapping it in memory.
+     *
+     * @param file
+     *            the descriptor file
+     * @return the metadata
+     * @throws IOException
+     *             if the file cannot be read or is not a descriptor
+     */
+    public static CtfMetadata read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            try {
+                return read(buffer);
+            } catch (CtfFormatException e) {
+                throw new CtfFormatException(e.getMessage() + " in " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Read a descriptor from memory.
+     *
+     * @param buffer
+     *            the descriptor, from its current position
+     * @return the metadata
+     * @throws CtfFormatException
+     *             if the buffer does not hold a supported descriptor
+     */
+    public static CtfMetadata read(ByteBuffer buffer) throws CtfFormatException {
+        ByteBuffer input = buffer.slice().order(ByteOrder.BIG_ENDIAN);
+        if (input.remaining() < HEADER_SIZE || input.getInt() != MAGIC) {
+            throw new CtfFormatException("Not a metadata descriptor");
+        }
+        int major = input.getShort() & 0xffff;
+        int minor = input.getShort() & 0xffff;
+        int size = input.getInt();
+        if (major != MAJOR) {
+            throw new CtfFormatException("Unsupported metadata descriptor version " + major + '.' + minor);
+        }
+        if (size < 0 || size > input.remaining()) {
+            throw new CtfFormatException("Truncated metadata descriptor");
+        }
+        input.limit(HEADER_SIZE + size);
+        try {
+            return new Reader(input).readMetadata();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new CtfFormatException("Corrupted metadata descriptor", e);
+        }
+    }
+
+    /**
+     * Write a descriptor file.
+     *
+     * @param metadata
+     *            the metadata
+     * @param file
+     *            the descriptor file, replaced if it exists
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(CtfMetadata metadata, Path file) throws IOException {
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, toBytes(metadata));
+    }
+
+    /**
+     * Encode metadata as a descriptor.
+     *
+     * @param metadata
+     *            the metadata
+     * @return the descriptor
+     */
+    public static byte[] toBytes(CtfMetadata metadata) {
+        Writer writer = new Writer();
+        byte[] body = writer.writeMetadata(metadata);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + body.length).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putShort((short) MAJOR).putShort((short) MINOR).putInt(body.length).put(body);
+        return buffer.array();
+    }
+
+    // ------------------------------------------------------------------------
+    // Writing
+    // ------------------------------------------------------------------------
+
+    private static final class Writer {
+
+        private final Map<String, Integer> fStrings = new LinkedHashMap<>();
+        private final Map<FieldType, Integer> fTypes = new IdentityHashMap<>();
+        private final Output fTypeTable = new Output();
+
+        public byte[] writeMetadata(CtfMetadata metadata) {
+            Output trace = new Output();
+            trace.putVarLong(metadata.getMajor());
+            trace.putVarLong(metadata.getMinor());
+            putString(trace, metadata.getUuid());
+            trace.putVarLong(metadata.getByteOrder() == ByteOrder.BIG_ENDIAN ? 1 : 0);
+            putType(trace, metadata.getPacketHeader());
+            putValues(trace, metadata.getEnvironment());
+
+            trace.putVarLong(metadata.getClocks().size());
+            for (ClockClass clock : metadata.getClocks().values()) {
+                putString(trace, clock.getName());
+                putString(trace, clock.getDescription());
+                trace.putZigzag(clock.getFrequency());
+                trace.putZigzag(clock.getOffsetSeconds());
+                trace.putZigzag(clock.getOffsetCycles());
+                trace.putZigzag(clock.getPrecision());
+                trace.putVarLong(clock.isAbsolute() ? 1 : 0);
+                putString(trace, clock.getUuid());
+            }
+
+            trace.putVarLong(metadata.getStreams().size());
+            for (StreamClass stream : metadata.getStreams().values()) {
+                trace.putZigzag(stream.getId());
+                putType(trace, stream.getPacketContext());
+                putType(trace, stream.getEventHeader());
+                putType(trace, stream.getEventContext());
+                putString(trace, stream.getClockName());
+                trace.putVarLong(stream.getEvents().size());
+                for (EventClass event : stream.getEvents().values()) {
+                    trace.putZigzag(event.getId());
+                    putString(trace, event.getName());
+                    trace.putZigzag(event.getStreamId());
+                    putType(trace, event.getContext());
+                    putType(trace, event.getPayload());
+                    putValues(trace, event.getAttributes());
+                }
+            }
+
+            /* The string table is complete once everything else is written */
+            Output body = new Output();
+            body.putVarLong(fStrings.size());
+            for (String string : fStrings.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                body.putVarLong(bytes.length);
+                body.write(bytes, 0, bytes.length);
+            }
+            body.putVarLong(fTypes.size());
+            fTypeTable.writeTo(body);
+            trace.writeTo(body);
+            return body.toByteArray();
+        }
+
+        private void putString(Output out, String string) {
+            if (string == null) {
+                out.putVarLong(0);
+                return;
+            }
+            Integer index = fStrings.get(string);
+            if (index == null) {
+                index = fStrings.size();
+                fStrings.put(string, index);
+            }
+            out.putVarLong(index + 1L);
+        }
+
+        private void putType(Output out, FieldType type) {
+            out.putVarLong(type == null ? 0 : register(type) + 1L);
+        }
+
+        /**
+         * Add a type to the type table after the types it refers to, unless
+         * it is already there.
+         */
+        private int register(FieldType type) {
+            Integer index = fTypes.get(type);
+            if (index != null) {
+                return index;
+            }
+            Output out = new Output();
+            if (type instanceof IntegerType) {
+                IntegerType integer = (IntegerType) type;
+                out.putVarLong(integer instanceof EnumType ? TYPE_ENUM : TYPE_INTEGER);
+                out.putVarLong(integer.getSize());
+                out.putVarLong((integer.isSigned() ? 1 : 0) | (integer.getByteOrder() == ByteOrder.BIG_ENDIAN ? 2 : 0));
+                out.putVarLong(integer.getAlignment());
+                out.putVarLong(integer.getBase());
+                out.putVarLong(integer.getEncoding());
+                putString(out, integer.getClockName());
+                if (integer instanceof EnumType) {
+                    List<EnumType.Mapping> mappings = ((EnumType) integer).getMappings();
+                    out.putVarLong(mappings.size());
+                    for (EnumType.Mapping mapping : mappings) {
+                        putString(out, mapping.getLabel());
+                        out.putZigzag(mapping.getLow());
+                        out.putZigzag(mapping.getHigh());
+                    }
+                }
+            } else if (type instanceof VarIntType) {
+                out.putVarLong(TYPE_VARINT);
+                out.putVarLong(((VarIntType) type).isSigned() ? 1 : 0);
+            } else if (type instanceof FloatType) {
+                FloatType floatType = (FloatType) type;
+                out.putVarLong(TYPE_FLOAT);
+                out.putVarLong(floatType.getExponentDigits());
+                out.putVarLong(floatType.getMantissaDigits());
+                out.putVarLong(floatType.getByteOrder() == ByteOrder.BIG_ENDIAN ? 1 : 0);
+                out.putVarLong(floatType.getAlignment());
+            } else if (type instanceof StringType) {
+                out.putVarLong(TYPE_STRING);
+                out.putVarLong(((StringType) type).getEncoding());
+            } else if (type instanceof BlobType) {
+                BlobType blob = (BlobType) type;
+                out.putVarLong(TYPE_BLOB);
+                out.putZigzag(blob.getLength());
+                putLocation(out, blob.getLengthLocation());
+                out.putVarLong(blob.isText() ? 1 : 0);
+            } else if (type instanceof ArrayType) {
+                ArrayType array = (ArrayType) type;
+                int element = register(array.getElementType());
+                out.putVarLong(TYPE_ARRAY);
+                out.putVarLong(element + 1L);
+                out.putZigzag(array.getLength());
+                putLocation(out, array.getLengthLocation());
+            } else if (type instanceof StructType) {
+                StructType struct = (StructType) type;
+                int[] members = new int[struct.getMemberCount()];
+                for (int i = 0; i < members.length; i++) {
+                    members[i] = register(struct.getMember(i).getType());
+                }
+                out.putVarLong(TYPE_STRUCT);
+                out.putVarLong(struct.getMinimumAlignment());
+                out.putVarLong(members.length);
+                for (int i = 0; i < members.length; i++) {
+                    StructType.Member member = struct.getMember(i);
+                    putString(out, member.getName());
+                    out.putVarLong(members[i] + 1L);
+                    out.putVarLong(member.getRole() == null ? 0 : member.getRole().ordinal() + 1L);
+                }
+            } else if (type instanceof VariantType) {
+                VariantType variant = (VariantType) type;
+                List<VariantType.Option> options = variant.getOptions();
+                int[] optionTypes = new int[options.size()];
+                for (int i = 0; i < optionTypes.length; i++) {
+                    optionTypes[i] = register(options.get(i).getType());
+                }
+                out.putVarLong(TYPE_VARIANT);
+                putLocation(out, variant.getSelector());
+                out.putVarLong(optionTypes.length);
+                for (int i = 0; i < optionTypes.length; i++) {
+                    putString(out, options.get(i).getName());
+                    out.putVarLong(optionTypes[i] + 1L);
+                    putRanges(out, options.get(i).getRanges());
+                }
+            } else if (type instanceof OptionalType) {
+                OptionalType optional = (OptionalType) type;
+                int optionalType = register(optional.getType());
+                out.putVarLong(TYPE_OPTIONAL);
+                putLocation(out, optional.getSelector());
+                out.putVarLong(optionalType + 1L);
+                putRanges(out, optional.getRanges());
+            } else {
+                throw new IllegalArgumentException("Unsupported field type " + type.getClass().getSimpleName());
+            }
+            index = fTypes.size();
+            fTypes.put(type, index);
+            out.writeTo(fTypeTable);
+            return index;
+        }
+
+        private void putLocation(Output out, FieldLocation location) {
+            if (location == null) {
+                out.putVarLong(0);
+                return;
+            }
+            out.putVarLong(location.getPathLength());
+            out.putVarLong(location.getOrigin() == null ? 0 : location.getOrigin().ordinal() + 1L);
+            for (String element : location.getPath()) {
+                putString(out, element);
+            }
+        }
+
+        private static void putRanges(Output out, long[] ranges) {
+            if (ranges == null) {
+                out.putVarLong(0);
+                return;
+            }
+            out.putVarLong(ranges.length + 1L);
+            for (long value : ranges) {
+                out.putZigzag(value);
+            }
+        }
+
+        private void putValues(Output out, Map<String, Object> values) {
+            out.putVarLong(values.size());
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                putString(out, entry.getKey());
+                putValue(out, entry.getValue());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void putValue(Output out, Object value) {
+            if (value == null) {
+                out.putVarLong(VALUE_NULL);
+            } else if (value instanceof Long || value instanceof Integer) {
+                out.putVarLong(VALUE_LONG);
+                out.putZigzag(((Number) value).longValue());
+            } else if (value instanceof Double) {
+                out.putVarLong(VALUE_DOUBLE);
+                out.putVarLong(Double.doubleToRawLongBits((Double) value));
+            } else if (value instanceof Boolean) {
+                out.putVarLong(VALUE_BOOLEAN);
+                out.putVarLong((Boolean) value ? 1 : 0);
+            } else if (value instanceof List) {
+                List<Object> list = (List<Object>) value;
+                out.putVarLong(VALUE_LIST);
+                out.putVarLong(list.size());
+                for (Object element : list) {
+                    putValue(out, element);
+                }
+            } else if (value instanceof Map) {
+                out.putVarLong(VALUE_MAP);
+                putValues(out, (Map<String, Object>) value);
+            } else {
+                out.putVarLong(VALUE_STRING);
+                putString(out, value.toString());
+            }
+        }
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        public void putVarLong(long value) {
+            long remaining = value;
+            while ((remaining & ~0x7fL) != 0) {
+                write((int) (remaining & 0x7f) | 0x80);
+                remaining >>>= 7;
+            }
+            write((int) remaining);
+        }
+
+        public void putZigzag(long value) {
+            putVarLong((value << 1) ^ (value >> 63));
+        }
+
+        public void writeTo(Output out) {
+            out.write(buf, 0, count);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Reading
+    // ------------------------------------------------------------------------
+
+    private static final class Reader {
+
+        private static final Scope[] SCOPES = Scope.values();
+        private static final FieldRole[] ROLES = FieldRole.values();
+
+        private final ByteBuffer fInput;
+        private String[] fStrings;
+        private FieldType[] fTypes;
+
+        public Reader(ByteBuffer input) {
+            fInput = input;
+        }
+
+        public CtfMetadata readMetadata() throws CtfFormatException {
+            fStrings = new String[count()];
+            for (int i = 0; i < fStrings.length; i++) {
+                int length = count();
+                byte[] bytes = new byte[length];
+                fInput.get(bytes);
+                fStrings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+            fTypes = new FieldType[count()];
+            for (int i = 0; i < fTypes.length; i++) {
+                fTypes[i] = readType(i);
+            }
+
+            int major = count();
+            int minor = count();
+            String uuid = getString();
+            ByteOrder byteOrder = getVarLong() != 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            StructType packetHeader = getStruct();
+            Map<String, Object> environment = getValues();
+
+            Map<String, ClockClass> clocks = new LinkedHashMap<>();
+            for (int i = count(); i > 0; i--) {
+                String name = getString();
+                clocks.put(name, new ClockClass(name, getString(), getZigzag(), getZigzag(), getZigzag(), getZigzag(),
+                        getVarLong() != 0, getString()));
+            }
+
+            Map<Long, StreamClass> streams = new LinkedHashMap<>();
+            for (int i = count(); i > 0; i--) {
+                long id = getZigzag();
+                StructType packetContext = getStruct();
+                StructType eventHeader = getStruct();
+                StructType eventContext = getStruct();
+                String clockName = getString();
+                Map<Long, EventClass> events = new LinkedHashMap<>();
+                for (int j = count(); j > 0; j--) {
+                    long eventId = getZigzag();
+                    String name = getString();
+                    long streamId = getZigzag();
+                    StructType context = getStruct();
+                    StructType payload = getStruct();
+                    events.put(eventId, new EventClass(eventId, name, streamId, context, payload, getValues()));
+                }
+                streams.put(id, new StreamClass(id, packetContext, eventHeader, eventContext, clockName, events));
+            }
+            if (fInput.hasRemaining()) {
+                throw new CtfFormatException("Trailing data in metadata descriptor");
+            }
+            return new CtfMetadata(major, minor, uuid, byteOrder, packetHeader, environment, clocks, streams);
+        }
+
+        private FieldType readType(int index) throws CtfFormatException {
+            int kind = count();
+            switch (kind) {
+            case TYPE_INTEGER:
+            case TYPE_ENUM: {
+                int size = count();
+                int flags = count();
+                ByteOrder order = (flags & 2) != 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+                IntegerType integer = new IntegerType(size, (flags & 1) != 0, order, count(), count(), count(), getString());
+                if (kind == TYPE_INTEGER) {
+                    return integer;
+                }
+                List<EnumType.Mapping> mappings = new ArrayList<>();
+                for (int i = count(); i > 0; i--) {
+                    mappings.add(new EnumType.Mapping(getString(), getZigzag(), getZigzag()));
+                }
+                return new EnumType(integer, mappings);
+            }
+            case TYPE_VARINT:
+                return new VarIntType(getVarLong() != 0);
+            case TYPE_FLOAT: {
+                int exponent = count();
+                int mantissa = count();
+                ByteOrder order = getVarLong() != 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+                return new FloatType(exponent, mantissa, order, count());
+            }
+            case TYPE_STRING:
+                return new StringType(count());
+            case TYPE_BLOB:
+                return new BlobType((int) getZigzag(), getLocation(), getVarLong() != 0);
+            case TYPE_ARRAY:
+                return new ArrayType(getType(index), (int) getZigzag(), getLocation());
+            case TYPE_STRUCT: {
+                int minimumAlignment = count();
+                List<StructType.Member> members = new ArrayList<>();
+                for (int i = count(); i > 0; i--) {
+                    String name = getString();
+                    FieldType type = getType(index);
+                    int role = count();
+                    members.add(new StructType.Member(name, type, role == 0 ? null : ROLES[role - 1]));
+                }
+                return new StructType(members, minimumAlignment);
+            }
+            case TYPE_VARIANT: {
+                FieldLocation selector = getLocation();
+                List<VariantType.Option> options = new ArrayList<>();
+                for (int i = count(); i > 0; i--) {
+                    options.add(new VariantType.Option(getString(), getType(index), getRanges()));
+                }
+                return new VariantType(selector, options);
+            }
+            case TYPE_OPTIONAL:
+                return new OptionalType(getLocation(), getType(index), getRanges());
+            default:
+                throw new CtfFormatException("Unknown field type kind " + kind + " in metadata descriptor");
+            }
+        }
+
+        /** Get a reference to a type before the one being read */
+        private FieldType getType(int before) throws CtfFormatException {
+            int reference = count();
+            if (reference == 0 || reference > before) {
+                throw new CtfFormatException("Invalid type reference " + reference + " in metadata descriptor");
+            }
+            return fTypes[reference - 1];
+        }
+
+        private StructType getStruct() throws CtfFormatException {
+            int reference = count();
+            if (reference == 0) {
+                return null;
+            }
+            if (reference > fTypes.length || !(fTypes[reference - 1] instanceof StructType)) {
+                throw new CtfFormatException("Invalid structure reference " + reference + " in metadata descriptor");
+            }
+            return (StructType) fTypes[reference - 1];
+        }
+
+        private FieldLocation getLocation() throws CtfFormatException {
+            int length = count();
+            if (length == 0) {
+                return null;
+            }
+            int origin = count();
+            String[] path = new String[length];
+            for (int i = 0; i < length; i++) {
+                path[i] = getString();
+            }
+            return new FieldLocation(origin == 0 ? null : SCOPES[origin - 1], path);
+        }
+
+        private long[] getRanges() throws CtfFormatException {
+            int length = count();
+            if (length == 0) {
+                return null;
+            }
+            long[] ranges = new long[length - 1];
+            for (int i = 0; i < ranges.length; i++) {
+                ranges[i] = getZigzag();
+            }
+            return ranges;
+        }
+
+        private Map<String, Object> getValues() throws CtfFormatException {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (int i = count(); i > 0; i--) {
+                String key = getString();
+                values.put(key, getValue());
+            }
+            return values;
+        }
+
+        private Object getValue() throws CtfFormatException {
+            int kind = count();
+            switch (kind) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_STRING:
+                return getString();
+            case VALUE_LONG:
+                return getZigzag();
+            case VALUE_DOUBLE:
+                return Double.longBitsToDouble(getVarLong());
+            case VALUE_BOOLEAN:
+                return getVarLong() != 0;
+            case VALUE_LIST: {
+                List<Object> list = new ArrayList<>();
+                for (int i = count(); i > 0; i--) {
+                    list.add(getValue());
+                }
+                return list;
+            }
+            case VALUE_MAP:
+                return getValues();
+            default:
+                throw new CtfFormatException("Unknown value kind " + kind + " in metadata descriptor");
+            }
+        }
+
+        private String getString() throws CtfFormatException {
+            int reference = count();
+            if (reference > fStrings.length) {
+                throw new CtfFormatException("Invalid string reference " + reference + " in metadata descriptor");
+            }
+            return reference == 0 ? null : fStrings[reference - 1];
+        }
+
+        private int count() throws CtfFormatException {
+            long value = getVarLong();
+            if (value < 0 || value > fInput.limit()) {
+                throw new CtfFormatException("Invalid count " + value + " in metadata descriptor");
+            }
+            return (int) value;
+        }
+
+        private long getZigzag() throws CtfFormatException {
+            long value = getVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        private long getVarLong() throws CtfFormatException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = fInput.get();
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new CtfFormatException("Variable-length integer too large in metadata descriptor");
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.index;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * Builds LTTng packet indexes for CTF traces.
+ *
+ * Used at build time to generate the index of every test trace:
+ *
+ * <pre>
+ * java CtfIndexer &lt;traces root&gt; &lt;output directory&gt;
+ * </pre>
+ *
+ * The index of the stream file <code>&lt;root&gt;/a/b/stream</code> is written
+ * to <code>&lt;output&gt;/a/b/stream.idx</code>. A trace or stream that
+ * cannot be decoded fails the indexing, so that no partial index is shipped.
+ */
+public final class CtfIndexer {
+
+    private CtfIndexer() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Index all the traces of a directory tree.
+     *
+     * @param args
+     *            the root directory of the traces, and the output directory
+     * @throws IOException
+     *             if the tree cannot be walked or an index cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CtfIndexer <traces root> <output directory>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int streams = indexTree(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Indexed " + streams + " streams in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Index all the traces of a directory tree.
+     *
+     * @param root
+     *            the root directory
+     * @param output
+     *            the output directory
+     * @return the number of indexed streams
+     * @throws IOException
+     *             if the tree cannot be walked, a trace cannot be decoded or
+     *             an index cannot be written
+     */
+    public static int indexTree(Path root, Path output) throws IOException {
+        List<Path> metadataFiles;
+        try (Stream<Path> walk = Files.walk(root)) {
+            metadataFiles = walk.filter(MetadataReader::isMetadata).sorted().collect(Collectors.toList());
+        }
+        int count = 0;
+        for (Path metadataFile : metadataFiles) {
+            Path traceDirectory = metadataFile.getParent();
+            Map<Path, List<PacketIndexEntry>> indexes = indexTrace(traceDirectory);
+            Path target = output.resolve(root.relativize(traceDirectory).toString());
+            for (Map.Entry<Path, List<PacketIndexEntry>> index : indexes.entrySet()) {
+                LttngIndex.write(target.resolve(index.getKey().getFileName() + LttngIndex.EXTENSION), index.getValue());
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Index the streams of a trace.
+     *
+     * @param traceDirectory
+     *            the trace directory
+     * @return the index of each stream file, by path
+     * @throws IOException
+     *             if the metadata cannot be read or a stream cannot be
+     *             decoded
+     */
+    public static Map<Path, List<PacketIndexEntry>> indexTrace(Path traceDirectory) throws IOException {
+        CtfMetadata metadata = MetadataReader.read(traceDirectory);
+        Map<Path, List<PacketIndexEntry>> indexes = new LinkedHashMap<>();
+        for (Path stream : getStreamFiles(traceDirectory)) {
+            indexes.put(stream, indexStream(metadata, stream));
+        }
+        return indexes;
+    }
+
+    /**
+     * Get the stream files of a trace: the regular, non-hidden files of its
+     * directory, except the metadata.
+     *
+     * @param traceDirectory
+     *            the trace directory
+     * @return the stream files, sorted by name
+     * @throws IOException
+     *             if the directory cannot be listed
+     */
+    public static List<Path> getStreamFiles(Path traceDirectory) throws IOException {
+        try (Stream<Path> list = Files.list(traceDirectory)) {
+            return list.filter(Files::isRegularFile)
+                    .filter(path -> {
+                        String name = String.valueOf(path.getFileName());
+                        return !name.startsWith(".") && !name.equals(MetadataReader.METADATA_FILE_NAME);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Index one stream file. When the packet context has no timestamps, the
+     * events are decoded to find them.
+     *
+     * @param metadata
+     *            the metadata of the trace
+     * @param stream
+     *            the stream file
+     * @return the index entries, one per packet
+     * @throws IOException
+     *             if the stream cannot be read or decoded
+     */
+    public static List<PacketIndexEntry> indexStream(CtfMetadata metadata, Path stream) throws IOException {
+        List<PacketIndexEntry> entries = new ArrayList<>();
+        try (PacketReader reader = new PacketReader(metadata, stream)) {
+            while (reader.nextPacket()) {
+                long begin = reader.getTimestampBegin();
+                long end = reader.getTimestampEnd();
+                if (!reader.hasTimestampBegin() || !reader.hasTimestampEnd()) {
+                    boolean first = true;
+                    while (reader.nextEvent()) {
+                        if (first && !reader.hasTimestampBegin()) {
+                            begin = reader.getEventTimestamp();
+                        }
+                        if (!reader.hasTimestampEnd()) {
+                            end = reader.getEventTimestamp();
+                        }
+                        first = false;
+                    }
+                }
+                entries.add(new PacketIndexEntry(reader.getPacketOffset(), reader.getPacketSize(), reader.getContentSize(),
+                        begin, end, reader.getEventsDiscarded(), reader.getStreamId(), reader.getStreamInstanceId(),
+                        reader.getPacketSequenceNumber()));
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.index;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+
+/**
+ * Reads and writes LTTng packet index files (<code>index/*.idx</code>).
+ *
+ * The file is big endian. A 16-byte header (magic, major and minor version,
+ * entry length) is followed by one fixed-length entry per packet. Version 1.0
+ * entries have 7 fields; version 1.1 adds the stream instance id and the
+ * packet sequence number.
+ */
+public final class LttngIndex {
+
+    /** Magic number of the index files */
+    public static final int MAGIC = 0xC1F1DCC1;
+
+    /** Major version written */
+    public static final int MAJOR = 1;
+
+    /** Minor version written */
+    public static final int MINOR = 1;
+
+    /** Name of the index directory in a trace directory */
+    public static final String DIRECTORY_NAME = "index";
+
+    /** Extension of the index files */
+    public static final String EXTENSION = ".idx";
+
+    private static final int HEADER_SIZE = 16;
+    private static final int ENTRY_SIZE_1_0 = 7 * Long.BYTES;
+    private static final int ENTRY_SIZE_1_1 = 9 * Long.BYTES;
+
+    private LttngIndex() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Read an index file.
+     *
+     * @param file
+     *            the index file
+     * @return the entries
+     * @throws IOException
+     *             if the file cannot be read or is not an index
+     */
+    public static List<PacketIndexEntry> read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.BIG_ENDIAN);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new CtfFormatException("Not an LTTng index file: " + file);
+        }
+        int major = buffer.getInt();
+        int minor = buffer.getInt();
+        int entrySize = buffer.getInt();
+        if (major != MAJOR || entrySize < (minor == 0 ? ENTRY_SIZE_1_0 : ENTRY_SIZE_1_1)) {
+            throw new CtfFormatException("Unsupported LTTng index version " + major + '.' + minor + " in " + file);
+        }
+        boolean hasSequence = entrySize >= ENTRY_SIZE_1_1;
+        List<PacketIndexEntry> entries = new ArrayList<>();
+        for (int position = HEADER_SIZE; position + entrySize <= buffer.limit(); position += entrySize) {
+            buffer.position(position);
+            long offset = buffer.getLong();
+            long packetSize = buffer.getLong();
+            long contentSize = buffer.getLong();
+            long timestampBegin = buffer.getLong();
+            long timestampEnd = buffer.getLong();
+            long eventsDiscarded = buffer.getLong();
+            long streamId = buffer.getLong();
+            long streamInstanceId = hasSequence ? buffer.getLong() : 0;
+            long sequenceNumber = hasSequence ? buffer.getLong() : entries.size();
+            entries.add(new PacketIndexEntry(offset, packetSize, contentSize, timestampBegin, timestampEnd,
+                    eventsDiscarded, streamId, streamInstanceId, sequenceNumber));
+        }
+        return entries;
+    }
+
+    /**
+     * Write an index file, version 1.1.
+     *
+     * @param file
+     *            the index file, replaced if it exists
+     * @param entries
+     *            the entries
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(Path file, List<PacketIndexEntry> entries) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + entries.size() * ENTRY_SIZE_1_1).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putInt(MAJOR).putInt(MINOR).putInt(ENTRY_SIZE_1_1);
+        for (PacketIndexEntry entry : entries) {
+            putEntry(buffer, entry);
+        }
+        buffer.flip();
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Append an entry to an index file, version 1.1, as LTTng does after
+     * writing each packet of a live session. The file and its header are
+     * created if needed.
+     *
+     * @param file
+     *            the index file
+     * @param entry
+     *            the entry
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void append(Path file, PacketIndexEntry entry) throws IOException {
+        if (!Files.exists(file)) {
+            write(file, Collections.emptyList());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(ENTRY_SIZE_1_1).order(ByteOrder.BIG_ENDIAN);
+        putEntry(buffer, entry);
+        buffer.flip();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static void putEntry(ByteBuffer buffer, PacketIndexEntry entry) {
+        buffer.putLong(entry.getOffset());
+        buffer.putLong(entry.getPacketSize());
+        buffer.putLong(entry.getContentSize());
+        buffer.putLong(entry.getTimestampBegin());
+        buffer.putLong(entry.getTimestampEnd());
+        buffer.putLong(entry.getEventsDiscarded());
+        buffer.putLong(entry.getStreamId());
+        buffer.putLong(entry.getStreamInstanceId());
+        buffer.putLong(entry.getPacketSequenceNumber());
+    }
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.index;
+
+/**
+ * One entry of a packet index: where a packet is in its stream file, and what
+ * its context says. Sizes are in bits and timestamps in clock cycles, as in
+ * the LTTng index files.
+ */
+public final class PacketIndexEntry {
+
+    private final long fOffset;
+    private final long fPacketSize;
+    private final long fContentSize;
+    private final long fTimestampBegin;
+    private final long fTimestampEnd;
+    private final long fEventsDiscarded;
+    private final long fStreamId;
+    private final long fStreamInstanceId;
+    private final long fPacketSequenceNumber;
+
+    /**
+     * Constructor
+     *
+     * @param offset
+     *            the offset of the packet in the stream file, in bytes
+     * @param packetSize
+     *            the packet size, in bits
+     * @param contentSize
+     *            the content size, in bits
+     * @param timestampBegin
+     *            the timestamp of the beginning of the packet
+     * @param timestampEnd
+     *            the timestamp of the end of the packet
+     * @param eventsDiscarded
+     *            the snapshot of the discarded events counter
+     * @param streamId
+     *            the stream class id
+     * @param streamInstanceId
+     *            the stream instance id
+     * @param packetSequenceNumber
+     *            the packet sequence number
+     */
+    public PacketIndexEntry(long offset, long packetSize, long contentSize, long timestampBegin, long timestampEnd,
+            long eventsDiscarded, long streamId, long streamInstanceId, long packetSequenceNumber) {
+        fOffset = offset;
+        fPacketSize = packetSize;
+        fContentSize = contentSize;
+        fTimestampBegin = timestampBegin;
+        fTimestampEnd = timestampEnd;
+        fEventsDiscarded = eventsDiscarded;
+        fStreamId = streamId;
+        fStreamInstanceId = streamInstanceId;
+        fPacketSequenceNumber = packetSequenceNumber;
+    }
+
+    /**
+     * @return the offset of the packet in the stream file, in bytes
+     */
+    public long getOffset() {
+        return fOffset;
+    }
+
+    /**
+     * @return the packet size, in bits
+     */
+    public long getPacketSize() {
+        return fPacketSize;
+    }
+
+    /**
+     * @return the content size, in bits
+     */
+    public long getContentSize() {
+        return fContentSize;
+    }
+
+    /**
+     * @return the timestamp of the beginning of the packet, in clock cycles
+     */
+    public long getTimestampBegin() {
+        return fTimestampBegin;
+    }
+
+    /**
+     * @return the timestamp of the end of the packet, in clock cycles
+     */
+    public long getTimestampEnd() {
+        return fTimestampEnd;
+    }
+
+    /**
+     * @return the snapshot of the discarded events counter
+     */
+    public long getEventsDiscarded() {
+        return fEventsDiscarded;
+    }
+
+    /**
+     * @return the stream class id
+     */
+    public long getStreamId() {
+        return fStreamId;
+    }
+
+    /**
+     * @return the stream instance id
+     */
+    public long getStreamInstanceId() {
+        return fStreamInstanceId;
+    }
+
+    /**
+     * @return the packet sequence number
+     */
+    public long getPacketSequenceNumber() {
+        return fPacketSequenceNumber;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fOffset) * 31 + Long.hashCode(fTimestampBegin);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PacketIndexEntry)) {
+            return false;
+        }
+        PacketIndexEntry other = (PacketIndexEntry) obj;
+        return fOffset == other.fOffset && fPacketSize == other.fPacketSize && fContentSize == other.fContentSize
+                && fTimestampBegin == other.fTimestampBegin && fTimestampEnd == other.fTimestampEnd
+                && fEventsDiscarded == other.fEventsDiscarded && fStreamId == other.fStreamId
+                && fStreamInstanceId == other.fStreamInstanceId && fPacketSequenceNumber == other.fPacketSequenceNumber;
+    }
+
+    @Override
+    public String toString() {
+        return "PacketIndexEntry [offset=" + fOffset + ", packetSize=" + fPacketSize + ", contentSize=" + fContentSize
+                + ", timestampBegin=" + fTimestampBegin + ", timestampEnd=" + fTimestampEnd + ", eventsDiscarded="
+                + fEventsDiscarded + ", streamId=" + fStreamId + ", streamInstanceId=" + fStreamInstanceId
+                + ", packetSequenceNumber=" + fPacketSequenceNumber + "]";
+    }
+}
@@ -0,0 +1,346 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.io;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+
+/**
+ * Bit-addressed reader over a window of a stream file.
+ *
+ * Positions are absolute bit offsets in the file. The window is a byte
+ * buffer holding the file content starting at a given byte offset, and reads
+ * are bounded by a limit, usually the end of the content of the current
+ * packet. Integers and bytes can also be written, to patch a writable window
+ * in place or to encode fields.
+ */
+public final class BitBuffer {
+
+    private ByteBuffer fBuffer;
+    private long fBase;
+    private long fPosition;
+    private long fLimit;
+
+    /**
+     * Constructor
+     *
+     * @param buffer
+     *            the window
+     * @param base
+     *            the offset in the file of the first byte of the window, in
+     *            bytes
+     */
+    public BitBuffer(ByteBuffer buffer, long base) {
+        setWindow(buffer, base);
+    }
+
+    /**
+     * Change the window. The position is left unchanged and the limit is set
+     * to the end of the window.
+     *
+     * @param buffer
+     *            the window
+     * @param base
+     *            the offset in the file of the first byte of the window, in
+     *            bytes
+     */
+    public void setWindow(ByteBuffer buffer, long base) {
+        fBuffer = buffer;
+        fBase = base;
+        fLimit = (base + buffer.limit()) * Byte.SIZE;
+    }
+
+    /**
+     * @return the current position, in bits from the start of the file
+     */
+    public long position() {
+        return fPosition;
+    }
+
+    /**
+     * @param position
+     *            the new position, in bits from the start of the file
+     */
+    public void position(long position) {
+        fPosition = position;
+    }
+
+    /**
+     * @return the read limit, in bits from the start of the file
+     */
+    public long limit() {
+        return fLimit;
+    }
+
+    /**
+     * Set the read limit. It cannot go past the end of the window.
+     *
+     * @param limit
+     *            the limit, in bits from the start of the file
+     */
+    public void limit(long limit) {
+        fLimit = Math.min(limit, (fBase + fBuffer.limit()) * Byte.SIZE);
+    }
+
+    /**
+     * @return the number of bits left before the limit
+     */
+    public long remaining() {
+        return fLimit - fPosition;
+    }
+
+    /**
+     * Align the position.
+     *
+     * @param alignment
+     *            the alignment in bits, a power of 2
+     */
+    public void align(int alignment) {
+        long mask = alignment - 1L;
+        fPosition = (fPosition + mask) & ~mask;
+    }
+
+    /**
+     * Read an integer at the current position, which is moved past it.
+     *
+     * @param size
+     *            the size in bits, 1 to 64
+     * @param signed
+     *            true to sign-extend the value
+     * @param order
+     *            the byte order
+     * @return the value
+     * @throws CtfFormatException
+     *             if the integer goes past the limit
+     */
+    public long getLong(int size, boolean signed, ByteOrder order) throws CtfFormatException {
+        checkAvailable(size);
+        long position = fPosition;
+        fPosition = position + size;
+        long value;
+        if ((position & 7) == 0) {
+            int index = (int) ((position >>> 3) - fBase);
+            switch (size) {
+            case 8:
+                value = fBuffer.get(index);
+                return signed ? value : value & 0xffL;
+            case 16:
+                value = fBuffer.order(order).getShort(index);
+                return signed ? value : value & 0xffffL;
+            case 32:
+                value = fBuffer.order(order).getInt(index);
+                return signed ? value : value & 0xffffffffL;
+            case 64:
+                return fBuffer.order(order).getLong(index);
+            default:
+                break;
+            }
+        }
+        value = getBits(position, size, order == ByteOrder.BIG_ENDIAN);
+        if (signed && size < Long.SIZE) {
+            int shift = Long.SIZE - size;
+            value = (value << shift) >> shift;
+        }
+        return value;
+    }
+
+    /**
+     * Write an integer at the current position, which is moved past it. The
+     * other bits of the bytes it spans are kept. The underlying buffer must be
+     * writable.
+     *
+     * @param size
+     *            the size in bits, 1 to 64
+     * @param order
+     *            the byte order
+     * @param value
+     *            the value, truncated to its low <code>size</code> bits
+     * @throws CtfFormatException
+     *             if the integer goes past the limit
+     */
+    public void putLong(int size, ByteOrder order, long value) throws CtfFormatException {
+        checkAvailable(size);
+        long position = fPosition;
+        fPosition = position + size;
+        if ((position & 7) == 0) {
+            int index = (int) ((position >>> 3) - fBase);
+            switch (size) {
+            case 8:
+                fBuffer.put(index, (byte) value);
+                return;
+            case 16:
+                fBuffer.order(order).putShort(index, (short) value);
+                return;
+            case 32:
+                fBuffer.order(order).putInt(index, (int) value);
+                return;
+            case 64:
+                fBuffer.order(order).putLong(index, value);
+                return;
+            default:
+                break;
+            }
+        }
+        boolean bigEndian = order == ByteOrder.BIG_ENDIAN;
+        for (int i = 0; i < size; i++) {
+            long bitPosition = position + i;
+            int index = (int) ((bitPosition >>> 3) - fBase);
+            int bit = (int) (bitPosition & 7);
+            int mask = bigEndian ? 0x80 >>> bit : 1 << bit;
+            long set = bigEndian ? (value >>> (size - 1 - i)) & 1 : (value >>> i) & 1;
+            int b = fBuffer.get(index);
+            fBuffer.put(index, (byte) (set != 0 ? b | mask : b & ~mask));
+        }
+    }
+
+    /**
+     * Read unaligned bits. A value of up to 64 bits can span 9 bytes, so large
+     * values are read in two halves.
+     */
+    private long getBits(long position, int size, boolean bigEndian) {
+        if (size > Integer.SIZE) {
+            int high = size - Integer.SIZE;
+            if (bigEndian) {
+                return (getBits(position, high, true) << Integer.SIZE) | getBits(position + high, Integer.SIZE, true);
+            }
+            return getBits(position, Integer.SIZE, false) | (getBits(position + Integer.SIZE, high, false) << Integer.SIZE);
+        }
+        int offset = (int) (position & 7);
+        int bytes = (offset + size + 7) >>> 3;
+        int index = (int) ((position >>> 3) - fBase);
+        long raw = 0;
+        if (bigEndian) {
+            for (int i = 0; i < bytes; i++) {
+                raw = (raw << 8) | (fBuffer.get(index + i) & 0xffL);
+            }
+            raw >>>= bytes * Byte.SIZE - offset - size;
+        } else {
+            for (int i = bytes - 1; i >= 0; i--) {
+                raw = (raw << 8) | (fBuffer.get(index + i) & 0xffL);
+            }
+            raw >>>= offset;
+        }
+        return size == Long.SIZE ? raw : raw & ((1L << size) - 1);
+    }
+
+    /**
+     * Read bytes at the current position, which must be byte aligned.
+     *
+     * @param dst
+     *            the destination, filled entirely
+     * @throws CtfFormatException
+     *             if the bytes go past the limit
+     */
+    public void get(byte[] dst) throws CtfFormatException {
+        checkAvailable((long) dst.length * Byte.SIZE);
+        int index = (int) ((fPosition >>> 3) - fBase);
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] = fBuffer.get(index + i);
+        }
+        fPosition += (long) dst.length * Byte.SIZE;
+    }
+
+    /**
+     * Write bytes at the current position, which must be byte aligned. The
+     * underlying buffer must be writable.
+     *
+     * @param src
+     *            the bytes to write
+     * @throws CtfFormatException
+     *             if the bytes go past the limit
+     */
+    public void put(byte[] src) throws CtfFormatException {
+        checkAvailable((long) src.length * Byte.SIZE);
+        int index = (int) ((fPosition >>> 3) - fBase);
+        for (int i = 0; i < src.length; i++) {
+            fBuffer.put(index + i, src[i]);
+        }
+        fPosition += (long) src.length * Byte.SIZE;
+    }
+
+    /**
+     * Get the number of bytes before the next null byte, starting at the
+     * current byte-aligned position.
+     *
+     * @return the number of bytes, not including the null byte
+     * @throws CtfFormatException
+     *             if no null byte is found before the limit
+     */
+    public int getStringLength() throws CtfFormatException {
+        int start = (int) ((fPosition >>> 3) - fBase);
+        int end = (int) ((fLimit >>> 3) - fBase);
+        for (int i = start; i < end; i++) {
+            if (fBuffer.get(i) == 0) {
+                return i - start;
+            }
+        }
+        throw new CtfFormatException("Unterminated string at bit " + fPosition);
+    }
+
+    /**
+     * Read an unsigned or signed LEB128 integer at the current byte-aligned
+     * position.
+     *
+     * @param signed
+     *            true for signed LEB128
+     * @return the value
+     * @throws CtfFormatException
+     *             if the integer goes past the limit or is too large
+     */
+    public long getLeb128(boolean signed) throws CtfFormatException {
+        long value = 0;
+        int shift = 0;
+        int b;
+        do {
+            if (shift >= Long.SIZE) {
+                throw new CtfFormatException("Variable-length integer too large at bit " + fPosition);
+            }
+            b = (int) getLong(8, false, ByteOrder.BIG_ENDIAN);
+            value |= (long) (b & 0x7f) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        if (signed && shift < Long.SIZE && (b & 0x40) != 0) {
+            value |= -1L << shift;
+        }
+        return value;
+    }
+
+    /**
+     * Write an unsigned or signed LEB128 integer at the current byte-aligned
+     * position, in as few bytes as possible.
+     *
+     * @param signed
+     *            true for signed LEB128
+     * @param value
+     *            the value
+     * @throws CtfFormatException
+     *             if the integer goes past the limit
+     */
+    public void putLeb128(boolean signed, long value) throws CtfFormatException {
+        long rest = value;
+        boolean more;
+        do {
+            int b = (int) (rest & 0x7f);
+            rest = signed ? rest >> 7 : rest >>> 7;
+            more = signed ? !(rest == 0 && (b & 0x40) == 0 || rest == -1 && (b & 0x40) != 0) : rest != 0;
+            putLong(8, ByteOrder.BIG_ENDIAN, more ? b | 0x80 : b);
+        } while (more);
+    }
+
+    private void checkAvailable(long bits) throws CtfFormatException {
+        if (fPosition + bits > fLimit) {
+            throw new CtfFormatException("Read of " + bits + " bits at bit " + fPosition + " goes past the limit " + fLimit);
+        }
+    }
+}
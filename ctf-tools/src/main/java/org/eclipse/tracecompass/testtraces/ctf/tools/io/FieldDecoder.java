@@ -0,0 +1,417 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.io;
+
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ArrayType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.BlobType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EnumType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldLocation;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldRole;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FloatType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.IntegerType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.OptionalType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.Scope;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StringType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StructType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.VarIntType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.VariantType;
+
+/**
+ * Decodes fields from a {@link BitBuffer}.
+ *
+ * Values are decoded to <code>Long</code> (integers and enumerations),
+ * <code>Double</code> (floating point numbers), <code>String</code>,
+ * <code>byte[]</code> (BLOBs and arrays of bytes), <code>Object[]</code>
+ * (structures and other arrays), the value of the selected option for
+ * variants, or null for disabled optional fields.
+ *
+ * The decoder keeps the decoded scopes and the structures being decoded, to
+ * resolve the length and selector locations, and tracks the values of the
+ * fields that have a {@link FieldRole}, including the default clock.
+ */
+public final class FieldDecoder {
+
+    private static final int SCOPE_COUNT = Scope.values().length;
+    private static final int MAX_DEPTH = 64;
+
+    private final BitBuffer fBuffer;
+
+    private final StructType[] fScopeTypes = new StructType[SCOPE_COUNT];
+    private final Object[][] fScopeValues = new Object[SCOPE_COUNT][];
+
+    private final StructType[] fStackTypes = new StructType[MAX_DEPTH];
+    private final Object[][] fStackValues = new Object[MAX_DEPTH][];
+    private int fDepth;
+
+    private final long[] fRoles = new long[FieldRole.values().length];
+    private final long[] fRolePositions = new long[FieldRole.values().length];
+    private final IntegerType[] fRoleTypes = new IntegerType[FieldRole.values().length];
+    private int fRoleMask;
+    private long fClock;
+
+    /* Type of the field found by the last lookup */
+    private FieldType fLookupType;
+
+    /**
+     * Constructor
+     *
+     * @param buffer
+     *            the bit buffer to decode from
+     */
+    public FieldDecoder(BitBuffer buffer) {
+        fBuffer = buffer;
+    }
+
+    /**
+     * @return the bit buffer
+     */
+    public BitBuffer getBuffer() {
+        return fBuffer;
+    }
+
+    // ------------------------------------------------------------------------
+    // Scopes and roles
+    // ------------------------------------------------------------------------
+
+    /**
+     * Decode the root structure of a scope at the current position. Decoding
+     * a scope forgets the scopes that follow it.
+     *
+     * @param scope
+     *            the scope
+     * @param type
+     *            the structure of the scope, may be null
+     * @return the values of the members, null if the type is null
+     * @throws CtfFormatException
+     *             if the field cannot be decoded
+     */
+    public Object[] decodeScope(Scope scope, StructType type) throws CtfFormatException {
+        for (int i = scope.ordinal(); i < SCOPE_COUNT; i++) {
+            fScopeTypes[i] = null;
+            fScopeValues[i] = null;
+        }
+        if (type == null) {
+            return null;
+        }
+        fScopeTypes[scope.ordinal()] = type;
+        fDepth = 0;
+        return decodeStruct(type, scope);
+    }
+
+    /**
+     * Forget the values of some roles, typically the event roles before
+     * decoding a new event.
+     *
+     * @param roles
+     *            the roles to clear
+     */
+    public void clearRoles(FieldRole... roles) {
+        for (FieldRole role : roles) {
+            fRoleMask &= ~(1 << role.ordinal());
+        }
+    }
+
+    /**
+     * @param role
+     *            a role
+     * @return true if a field with that role was decoded since the role was
+     *         last cleared
+     */
+    public boolean hasRole(FieldRole role) {
+        return (fRoleMask & (1 << role.ordinal())) != 0;
+    }
+
+    /**
+     * @param role
+     *            a role
+     * @param defaultValue
+     *            the value to return if no field has that role
+     * @return the value of the last decoded field with that role
+     */
+    public long getRole(FieldRole role, long defaultValue) {
+        return hasRole(role) ? fRoles[role.ordinal()] : defaultValue;
+    }
+
+    /**
+     * Get where the last decoded field with a role is, for example to patch
+     * it in a copy of the stream.
+     *
+     * @param role
+     *            a role
+     * @return the position of the field in bits, as in the bit buffer, or -1
+     *         if no field has that role or if it is not a fixed-size integer
+     */
+    public long getRolePosition(FieldRole role) {
+        return hasRole(role) && fRoleTypes[role.ordinal()] != null ? fRolePositions[role.ordinal()] : -1;
+    }
+
+    /**
+     * @param role
+     *            a role
+     * @return the type of the last decoded field with that role, null if none
+     *         or if it is not a fixed-size integer
+     */
+    public IntegerType getRoleType(FieldRole role) {
+        return hasRole(role) ? fRoleTypes[role.ordinal()] : null;
+    }
+
+    /**
+     * @return the value of the default clock, in cycles
+     */
+    public long getClock() {
+        return fClock;
+    }
+
+    /**
+     * @param clock
+     *            the new value of the default clock, in cycles
+     */
+    public void setClock(long clock) {
+        fClock = clock;
+    }
+
+    private void setRole(FieldRole role, long value, FieldType type) {
+        if (role == FieldRole.DEFAULT_CLOCK_TIMESTAMP) {
+            int size = type instanceof IntegerType ? ((IntegerType) type).getSize() : Long.SIZE;
+            fClock = updateClock(fClock, value, size);
+            value = fClock;
+        }
+        fRoles[role.ordinal()] = value;
+        if (type instanceof IntegerType) {
+            fRoleTypes[role.ordinal()] = (IntegerType) type;
+            fRolePositions[role.ordinal()] = fBuffer.position() - ((IntegerType) type).getSize();
+        } else {
+            fRoleTypes[role.ordinal()] = null;
+        }
+        fRoleMask |= 1 << role.ordinal();
+    }
+
+    /**
+     * Update a clock value from a timestamp field that holds only its low
+     * bits. If the low bits went backwards, the clock wrapped around.
+     *
+     * @param clock
+     *            the current clock value
+     * @param value
+     *            the value of the field
+     * @param size
+     *            the size of the field in bits
+     * @return the new clock value
+     */
+    public static long updateClock(long clock, long value, int size) {
+        if (size >= Long.SIZE) {
+            return value;
+        }
+        long mask = (1L << size) - 1;
+        long updated = (clock & ~mask) | (value & mask);
+        if ((value & mask) < (clock & mask)) {
+            updated += 1L << size;
+        }
+        return updated;
+    }
+
+    // ------------------------------------------------------------------------
+    // Decoding
+    // ------------------------------------------------------------------------
+
+    /**
+     * Decode a field at the current position.
+     *
+     * @param type
+     *            the type of the field
+     * @return the value
+     * @throws CtfFormatException
+     *             if the field cannot be decoded
+     */
+    public Object decode(FieldType type) throws CtfFormatException {
+        BitBuffer buffer = fBuffer;
+        buffer.align(type.getAlignment());
+        if (type instanceof IntegerType) {
+            IntegerType integer = (IntegerType) type;
+            return buffer.getLong(integer.getSize(), integer.isSigned(), integer.getByteOrder());
+        }
+        if (type instanceof StructType) {
+            return decodeStruct((StructType) type, null);
+        }
+        if (type instanceof VariantType) {
+            VariantType variant = (VariantType) type;
+            long selector = lookupLong(variant.getSelector());
+            String label = fLookupType instanceof EnumType ? ((EnumType) fLookupType).getLabel(selector) : null;
+            int option = variant.select(selector, label);
+            if (option < 0) {
+                throw new CtfFormatException("No option of variant selected by " + variant.getSelector() + " = "
+                        + (label == null ? Long.toString(selector) : label) + " at bit " + buffer.position());
+            }
+            return decode(variant.getOptions().get(option).getType());
+        }
+        if (type instanceof ArrayType) {
+            return decodeArray((ArrayType) type);
+        }
+        if (type instanceof StringType) {
+            byte[] bytes = new byte[buffer.getStringLength()];
+            buffer.get(bytes);
+            buffer.position(buffer.position() + Byte.SIZE);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        if (type instanceof VarIntType) {
+            return buffer.getLeb128(((VarIntType) type).isSigned());
+        }
+        if (type instanceof BlobType) {
+            BlobType blob = (BlobType) type;
+            long length = blob.getLength() >= 0 ? blob.getLength() : lookupLong(blob.getLengthLocation());
+            byte[] bytes = new byte[checkLength(length)];
+            buffer.get(bytes);
+            if (!blob.isText()) {
+                return bytes;
+            }
+            int end = 0;
+            while (end < bytes.length && bytes[end] != 0) {
+                end++;
+            }
+            return new String(bytes, 0, end, StandardCharsets.UTF_8);
+        }
+        if (type instanceof FloatType) {
+            FloatType floatType = (FloatType) type;
+            long bits = buffer.getLong(floatType.getSize(), false, floatType.getByteOrder());
+            return floatType.getSize() == Integer.SIZE ? (double) Float.intBitsToFloat((int) bits) : Double.longBitsToDouble(bits);
+        }
+        if (type instanceof OptionalType) {
+            OptionalType optional = (OptionalType) type;
+            return optional.isEnabled(lookupLong(optional.getSelector())) ? decode(optional.getType()) : null;
+        }
+        throw new CtfFormatException("Unsupported field type " + type.getClass().getSimpleName());
+    }
+
+    private Object[] decodeStruct(StructType type, Scope scope) throws CtfFormatException {
+        if (fDepth == MAX_DEPTH) {
+            throw new CtfFormatException("Structures nested too deeply");
+        }
+        fBuffer.align(type.getAlignment());
+        int count = type.getMemberCount();
+        Object[] values = new Object[count];
+        if (scope != null) {
+            fScopeValues[scope.ordinal()] = values;
+        }
+        fStackTypes[fDepth] = type;
+        fStackValues[fDepth] = values;
+        fDepth++;
+        try {
+            for (int i = 0; i < count; i++) {
+                StructType.Member member = type.getMember(i);
+                Object value = decode(member.getType());
+                values[i] = value;
+                FieldRole role = member.getRole();
+                if (role != null && value instanceof Long) {
+                    setRole(role, (Long) value, member.getType());
+                }
+            }
+        } finally {
+            fDepth--;
+            fStackValues[fDepth] = null;
+        }
+        return values;
+    }
+
+    private Object decodeArray(ArrayType type) throws CtfFormatException {
+        long length = type.getLength() >= 0 ? type.getLength() : lookupLong(type.getLengthLocation());
+        int count = checkLength(length);
+        if (type.isByteArray()) {
+            byte[] bytes = new byte[count];
+            fBuffer.get(bytes);
+            return bytes;
+        }
+        Object[] values = new Object[count];
+        FieldType element = type.getElementType();
+        for (int i = 0; i < count; i++) {
+            values[i] = decode(element);
+        }
+        return values;
+    }
+
+    private int checkLength(long length) throws CtfFormatException {
+        if (length < 0 || length > fBuffer.remaining()) {
+            throw new CtfFormatException("Invalid length " + length + " at bit " + fBuffer.position());
+        }
+        return (int) length;
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookup
+    // ------------------------------------------------------------------------
+
+    private long lookupLong(FieldLocation location) throws CtfFormatException {
+        Object value = lookup(location);
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        throw new CtfFormatException("Field " + location + " is not an integer");
+    }
+
+    /**
+     * Find the value of an already decoded field. Absolute locations start at
+     * the root of their scope. Relative locations start at the innermost
+     * structure being decoded that has a member with the first name, then at
+     * the roots of the decoded scopes, innermost first.
+     */
+    private Object lookup(FieldLocation location) throws CtfFormatException {
+        String first = location.getPathElement(0);
+        Scope origin = location.getOrigin();
+        if (origin != null) {
+            StructType type = fScopeTypes[origin.ordinal()];
+            Object[] values = fScopeValues[origin.ordinal()];
+            if (type != null && values != null) {
+                return follow(location, type, values);
+            }
+        } else {
+            for (int i = fDepth - 1; i >= 0; i--) {
+                if (fStackTypes[i].indexOf(first) >= 0) {
+                    return follow(location, fStackTypes[i], fStackValues[i]);
+                }
+            }
+            for (int i = SCOPE_COUNT - 1; i >= 0; i--) {
+                StructType type = fScopeTypes[i];
+                if (type != null && fScopeValues[i] != null && type.indexOf(first) >= 0) {
+                    return follow(location, type, fScopeValues[i]);
+                }
+            }
+        }
+        throw new CtfFormatException("Field " + location + " not found");
+    }
+
+    private Object follow(FieldLocation location, StructType root, Object[] rootValues) throws CtfFormatException {
+        StructType type = root;
+        Object[] values = rootValues;
+        int length = location.getPathLength();
+        for (int i = 0; i < length; i++) {
+            int index = type.indexOf(location.getPathElement(i));
+            if (index < 0 || values[index] == null && i < length - 1) {
+                break;
+            }
+            FieldType memberType = type.getMember(index).getType();
+            Object value = values[index];
+            if (i == length - 1) {
+                fLookupType = memberType;
+                return value;
+            }
+            if (!(memberType instanceof StructType) || !(value instanceof Object[])) {
+                break;
+            }
+            type = (StructType) memberType;
+            values = (Object[]) value;
+        }
+        throw new CtfFormatException("Field " + location + " not found");
+    }
+}
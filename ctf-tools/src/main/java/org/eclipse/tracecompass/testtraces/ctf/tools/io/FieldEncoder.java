@@ -0,0 +1,300 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.io;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ArrayType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.BlobType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EnumType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldLocation;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FloatType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.IntegerType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.OptionalType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.Scope;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StringType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StructType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.VarIntType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.VariantType;
+
+/**
+ * Encodes fields to a writable {@link BitBuffer}, the reverse of
+ * {@link FieldDecoder}: the values are in the form the decoder returns them,
+ * and the decoder reads them back from the buffer.
+ *
+ * Padding bits are left as they are in the buffer. Like the decoder, the
+ * encoder keeps the encoded scopes and the structures being encoded, to
+ * select the options of variants and find the length of dynamic text BLOBs.
+ * The lengths of the other arrays and BLOBs are those of their values, their
+ * length fields are not checked.
+ */
+public final class FieldEncoder {
+
+    private static final int SCOPE_COUNT = Scope.values().length;
+    private static final int MAX_DEPTH = 64;
+
+    private final BitBuffer fBuffer;
+
+    private final StructType[] fScopeTypes = new StructType[SCOPE_COUNT];
+    private final Object[][] fScopeValues = new Object[SCOPE_COUNT][];
+
+    private final StructType[] fStackTypes = new StructType[MAX_DEPTH];
+    private final Object[][] fStackValues = new Object[MAX_DEPTH][];
+    private int fDepth;
+
+    /* Type of the field found by the last lookup */
+    private FieldType fLookupType;
+
+    /**
+     * Constructor
+     *
+     * @param buffer
+     *            the bit buffer to encode to, over a writable window
+     */
+    public FieldEncoder(BitBuffer buffer) {
+        fBuffer = buffer;
+    }
+
+    /**
+     * @return the bit buffer
+     */
+    public BitBuffer getBuffer() {
+        return fBuffer;
+    }
+
+    /**
+     * Encode the root structure of a scope at the current position. Encoding
+     * a scope forgets the scopes that follow it.
+     *
+     * @param scope
+     *            the scope
+     * @param type
+     *            the structure of the scope, may be null
+     * @param values
+     *            the values of the members, ignored if the type is null
+     * @throws CtfFormatException
+     *             if a value does not match its type, or goes past the limit
+     */
+    public void encodeScope(Scope scope, StructType type, Object[] values) throws CtfFormatException {
+        for (int i = scope.ordinal(); i < SCOPE_COUNT; i++) {
+            fScopeTypes[i] = null;
+            fScopeValues[i] = null;
+        }
+        if (type == null) {
+            return;
+        }
+        fScopeTypes[scope.ordinal()] = type;
+        fScopeValues[scope.ordinal()] = values;
+        fDepth = 0;
+        encodeStruct(type, values);
+    }
+
+    /**
+     * Encode a field at the current position.
+     *
+     * @param type
+     *            the type of the field
+     * @param value
+     *            the value
+     * @throws CtfFormatException
+     *             if the value does not match the type, or goes past the limit
+     */
+    public void encode(FieldType type, Object value) throws CtfFormatException {
+        BitBuffer buffer = fBuffer;
+        buffer.align(type.getAlignment());
+        if (type instanceof IntegerType) {
+            IntegerType integer = (IntegerType) type;
+            buffer.putLong(integer.getSize(), integer.getByteOrder(), toLong(value, type));
+        } else if (type instanceof StructType) {
+            encodeStruct((StructType) type, toArray(value, type));
+        } else if (type instanceof VariantType) {
+            VariantType variant = (VariantType) type;
+            long selector = lookupLong(variant.getSelector());
+            String label = fLookupType instanceof EnumType ? ((EnumType) fLookupType).getLabel(selector) : null;
+            int option = variant.select(selector, label);
+            if (option < 0) {
+                throw new CtfFormatException("No option of variant selected by " + variant.getSelector() + " = "
+                        + (label == null ? Long.toString(selector) : label) + " at bit " + buffer.position());
+            }
+            encode(variant.getOptions().get(option).getType(), value);
+        } else if (type instanceof ArrayType) {
+            encodeArray((ArrayType) type, value);
+        } else if (type instanceof StringType) {
+            if (!(value instanceof String)) {
+                throw mismatch(value, type);
+            }
+            buffer.put(((String) value).getBytes(StandardCharsets.UTF_8));
+            buffer.putLong(Byte.SIZE, ByteOrder.BIG_ENDIAN, 0);
+        } else if (type instanceof VarIntType) {
+            buffer.putLeb128(((VarIntType) type).isSigned(), toLong(value, type));
+        } else if (type instanceof BlobType) {
+            encodeBlob((BlobType) type, value);
+        } else if (type instanceof FloatType) {
+            FloatType floatType = (FloatType) type;
+            if (!(value instanceof Double)) {
+                throw mismatch(value, type);
+            }
+            double number = (Double) value;
+            long bits = floatType.getSize() == Integer.SIZE ? Float.floatToRawIntBits((float) number) : Double.doubleToRawLongBits(number);
+            buffer.putLong(floatType.getSize(), floatType.getByteOrder(), bits);
+        } else if (type instanceof OptionalType) {
+            OptionalType optional = (OptionalType) type;
+            if (optional.isEnabled(lookupLong(optional.getSelector()))) {
+                encode(optional.getType(), value);
+            }
+        } else {
+            throw new CtfFormatException("Unsupported field type " + type.getClass().getSimpleName());
+        }
+    }
+
+    private void encodeStruct(StructType type, Object[] values) throws CtfFormatException {
+        if (fDepth == MAX_DEPTH) {
+            throw new CtfFormatException("Structures nested too deeply");
+        }
+        int count = type.getMemberCount();
+        if (values.length != count) {
+            throw new CtfFormatException("Structure of " + count + " members given " + values.length + " values");
+        }
+        fBuffer.align(type.getAlignment());
+        fStackTypes[fDepth] = type;
+        fStackValues[fDepth] = values;
+        fDepth++;
+        try {
+            for (int i = 0; i < count; i++) {
+                encode(type.getMember(i).getType(), values[i]);
+            }
+        } finally {
+            fDepth--;
+            fStackValues[fDepth] = null;
+        }
+    }
+
+    private void encodeArray(ArrayType type, Object value) throws CtfFormatException {
+        int length = value instanceof byte[] ? ((byte[]) value).length : toArray(value, type).length;
+        if (type.getLength() >= 0 && length != type.getLength()) {
+            throw new CtfFormatException("Array of " + type.getLength() + " elements given " + length + " values");
+        }
+        if (value instanceof byte[] && type.isByteArray()) {
+            fBuffer.put((byte[]) value);
+            return;
+        }
+        FieldType element = type.getElementType();
+        for (int i = 0; i < length; i++) {
+            encode(element, value instanceof byte[] ? (long) (((byte[]) value)[i] & 0xff) : ((Object[]) value)[i]);
+        }
+    }
+
+    private void encodeBlob(BlobType type, Object value) throws CtfFormatException {
+        if (value instanceof byte[]) {
+            fBuffer.put((byte[]) value);
+            return;
+        }
+        if (!(value instanceof String) || !type.isText()) {
+            throw mismatch(value, type);
+        }
+        /* Decoded text stops at the first null byte, pad it back */
+        long length = type.getLength() >= 0 ? type.getLength() : lookupLong(type.getLengthLocation());
+        byte[] text = ((String) value).getBytes(StandardCharsets.UTF_8);
+        if (text.length > length) {
+            throw new CtfFormatException("Text of " + text.length + " bytes does not fit in " + length + " bytes");
+        }
+        fBuffer.put(Arrays.copyOf(text, (int) length));
+    }
+
+    private static long toLong(Object value, FieldType type) throws CtfFormatException {
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        throw mismatch(value, type);
+    }
+
+    private static Object[] toArray(Object value, FieldType type) throws CtfFormatException {
+        if (value instanceof Object[]) {
+            return (Object[]) value;
+        }
+        throw mismatch(value, type);
+    }
+
+    private static CtfFormatException mismatch(Object value, FieldType type) {
+        String actual = value == null ? "null" : value.getClass().getSimpleName();
+        return new CtfFormatException("Cannot encode " + actual + " as " + type.getClass().getSimpleName());
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookup
+    // ------------------------------------------------------------------------
+
+    private long lookupLong(FieldLocation location) throws CtfFormatException {
+        Object value = lookup(location);
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        throw new CtfFormatException("Field " + location + " is not an integer");
+    }
+
+    /**
+     * Find the value of an already encoded field, as
+     * {@link FieldDecoder} does.
+     */
+    private Object lookup(FieldLocation location) throws CtfFormatException {
+        String first = location.getPathElement(0);
+        Scope origin = location.getOrigin();
+        if (origin != null) {
+            StructType type = fScopeTypes[origin.ordinal()];
+            Object[] values = fScopeValues[origin.ordinal()];
+            if (type != null && values != null) {
+                return follow(location, type, values);
+            }
+        } else {
+            for (int i = fDepth - 1; i >= 0; i--) {
+                if (fStackTypes[i].indexOf(first) >= 0) {
+                    return follow(location, fStackTypes[i], fStackValues[i]);
+                }
+            }
+            for (int i = SCOPE_COUNT - 1; i >= 0; i--) {
+                StructType type = fScopeTypes[i];
+                if (type != null && fScopeValues[i] != null && type.indexOf(first) >= 0) {
+                    return follow(location, type, fScopeValues[i]);
+                }
+            }
+        }
+        throw new CtfFormatException("Field " + location + " not found");
+    }
+
+    private Object follow(FieldLocation location, StructType root, Object[] rootValues) throws CtfFormatException {
+        StructType type = root;
+        Object[] values = rootValues;
+        int length = location.getPathLength();
+        for (int i = 0; i < length; i++) {
+            int index = type.indexOf(location.getPathElement(i));
+            if (index < 0 || values[index] == null && i < length - 1) {
+                break;
+            }
+            FieldType memberType = type.getMember(index).getType();
+            Object value = values[index];
+            if (i == length - 1) {
+                fLookupType = memberType;
+                return value;
+            }
+            if (!(memberType instanceof StructType) || !(value instanceof Object[])) {
+                break;
+            }
+            type = (StructType) memberType;
+            values = (Object[]) value;
+        }
+        throw new CtfFormatException("Field " + location + " not found");
+    }
+}
@@ -0,0 +1,451 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EventClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldRole;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.IntegerType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.Scope;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StreamClass;
+
+/**
+ * Reads the packets of a stream file, and optionally their events.
+ *
+ * Typical use:
+ *
+ * <pre>
+ * try (PacketReader reader = new PacketReader(metadata, file)) {
+ *     while (reader.nextPacket()) {
+ *         while (reader.nextEvent()) {
+ *             ...
+ *         }
+ *     }
+ * }
+ * </pre>
+ *
+ * Timestamps are in clock cycles, as they are in the stream.
+ */
+public final class PacketReader implements Closeable {
+
+    private static final long PACKET_MAGIC = 0xC1FC1FC1L;
+
+    private final CtfMetadata fMetadata;
+    private final StreamInput fInput;
+    private final FieldDecoder fDecoder;
+
+    private long fNextPacketOffset;
+    private long fPacketCount;
+
+    private long fPacketOffset = -1;
+    private long fPacketSize;
+    private long fContentSize;
+    private boolean fHasTimestampBegin;
+    private long fTimestampBegin;
+    private boolean fHasTimestampEnd;
+    private long fTimestampEnd;
+    private long fEventsDiscarded;
+    private long fStreamId;
+    private long fStreamInstanceId;
+    private long fPacketSequenceNumber;
+    private StreamClass fStreamClass;
+    private Object[] fPacketHeader;
+    private Object[] fPacketContext;
+    private long fEventsStart;
+
+    private long fEventOffset;
+    private long fEventTimestamp;
+    private EventClass fEventClass;
+    private Object[] fEventHeader;
+    private Object[] fEventContext;
+    private Object[] fEventSpecificContext;
+    private Object[] fEventPayload;
+
+    /**
+     * Constructor
+     *
+     * @param metadata
+     *            the metadata of the trace
+     * @param streamFile
+     *            the stream file
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public PacketReader(CtfMetadata metadata, Path streamFile) throws IOException {
+        this(metadata, new StreamInput(streamFile));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param metadata
+     *            the metadata of the trace
+     * @param input
+     *            the stream, closed with this reader
+     * @throws IOException
+     *             if the stream cannot be read
+     */
+    public PacketReader(CtfMetadata metadata, StreamInput input) throws IOException {
+        fMetadata = metadata;
+        fInput = input;
+        fDecoder = new FieldDecoder(fInput.map(0, 0));
+    }
+
+    /**
+     * Decode the header and the context of the next packet.
+     *
+     * @return false if there are no more packets
+     * @throws IOException
+     *             if the packet cannot be read or decoded
+     */
+    public boolean nextPacket() throws IOException {
+        long offset = fNextPacketOffset;
+        long fileSize = fInput.size();
+        if (offset >= fileSize) {
+            return false;
+        }
+        BitBuffer buffer = fInput.map(offset, Math.min(fileSize - offset, StreamInput.DEFAULT_WINDOW_SIZE));
+        FieldDecoder decoder = fDecoder;
+        decoder.clearRoles(FieldRole.values());
+        fPacketHeader = decoder.decodeScope(Scope.PACKET_HEADER, fMetadata.getPacketHeader());
+        if (decoder.hasRole(FieldRole.PACKET_MAGIC_NUMBER) && decoder.getRole(FieldRole.PACKET_MAGIC_NUMBER, 0) != PACKET_MAGIC) {
+            throw new CtfFormatException("Bad packet magic number at offset " + offset + " of " + fInput.getPath());
+        }
+        fStreamId = decoder.getRole(FieldRole.DATA_STREAM_CLASS_ID, 0);
+        fStreamClass = fMetadata.getStream(fStreamId);
+        if (fStreamClass == null) {
+            throw new CtfFormatException("Unknown stream class " + fStreamId + " at offset " + offset + " of " + fInput.getPath());
+        }
+        fPacketContext = decoder.decodeScope(Scope.PACKET_CONTEXT, fStreamClass.getPacketContext());
+
+        fPacketSize = decoder.getRole(FieldRole.PACKET_TOTAL_LENGTH, (fileSize - offset) * Byte.SIZE);
+        fContentSize = decoder.getRole(FieldRole.PACKET_CONTENT_LENGTH, fPacketSize);
+        if (fPacketSize % Byte.SIZE != 0 || fPacketSize <= 0 || fContentSize > fPacketSize || offset + fPacketSize / Byte.SIZE > fileSize) {
+            throw new CtfFormatException("Bad packet size " + fPacketSize + " (content " + fContentSize + ") at offset " + offset + " of " + fInput.getPath());
+        }
+        fHasTimestampBegin = decoder.hasRole(FieldRole.DEFAULT_CLOCK_TIMESTAMP);
+        fTimestampBegin = decoder.getRole(FieldRole.DEFAULT_CLOCK_TIMESTAMP, 0);
+        fHasTimestampEnd = decoder.hasRole(FieldRole.PACKET_END_DEFAULT_CLOCK_TIMESTAMP);
+        fTimestampEnd = decoder.getRole(FieldRole.PACKET_END_DEFAULT_CLOCK_TIMESTAMP, 0);
+        fEventsDiscarded = decoder.getRole(FieldRole.DISCARDED_EVENT_RECORD_COUNTER_SNAPSHOT, 0);
+        fStreamInstanceId = decoder.getRole(FieldRole.DATA_STREAM_ID, 0);
+        fPacketSequenceNumber = decoder.getRole(FieldRole.PACKET_SEQUENCE_NUMBER, fPacketCount);
+
+        fEventsStart = buffer.position();
+        fPacketOffset = offset;
+        fNextPacketOffset = offset + fPacketSize / Byte.SIZE;
+        fPacketCount++;
+        fEventClass = null;
+        return true;
+    }
+
+    /**
+     * Move to a packet of the stream: the next call to {@link #nextPacket()}
+     * decodes the packet at the given offset.
+     *
+     * @param offset
+     *            the offset of the packet in the file, in bytes
+     * @param clock
+     *            the value of the default clock before the packet, in cycles,
+     *            as returned by {@link #getClockValue()} before decoding it.
+     *            Only the bits that the packet and event timestamp fields do
+     *            not hold matter.
+     */
+    public void seekPacket(long offset, long clock) {
+        fNextPacketOffset = offset;
+        fPacketOffset = -1;
+        fEventClass = null;
+        fDecoder.setClock(clock);
+    }
+
+    /**
+     * Decode the next event of the current packet.
+     *
+     * @return false if there are no more events in the packet
+     * @throws IOException
+     *             if the event cannot be decoded
+     */
+    public boolean nextEvent() throws IOException {
+        if (fPacketOffset < 0) {
+            return false;
+        }
+        BitBuffer buffer;
+        if (fEventClass == null) {
+            /* First event of the packet: make the whole packet readable */
+            buffer = fInput.map(fPacketOffset, fPacketSize / Byte.SIZE);
+            buffer.position(fEventsStart);
+        } else {
+            buffer = fDecoder.getBuffer();
+        }
+        long contentEnd = fPacketOffset * Byte.SIZE + fContentSize;
+        buffer.limit(contentEnd);
+        if (buffer.position() >= contentEnd) {
+            return false;
+        }
+        FieldDecoder decoder = fDecoder;
+        StreamClass stream = fStreamClass;
+        fEventOffset = buffer.position();
+        decoder.clearRoles(FieldRole.EVENT_RECORD_CLASS_ID, FieldRole.DEFAULT_CLOCK_TIMESTAMP);
+        fEventHeader = decoder.decodeScope(Scope.EVENT_HEADER, stream.getEventHeader());
+        fEventContext = decoder.decodeScope(Scope.EVENT_COMMON_CONTEXT, stream.getEventContext());
+        long id = decoder.getRole(FieldRole.EVENT_RECORD_CLASS_ID, 0);
+        EventClass event = stream.getEvent(id);
+        if (event == null) {
+            throw new CtfFormatException("Unknown event class " + id + " at bit " + fEventOffset + " of " + fInput.getPath());
+        }
+        fEventSpecificContext = decoder.decodeScope(Scope.EVENT_SPECIFIC_CONTEXT, event.getContext());
+        fEventPayload = decoder.decodeScope(Scope.EVENT_PAYLOAD, event.getPayload());
+        if (buffer.position() == fEventOffset) {
+            throw new CtfFormatException("Empty event at bit " + fEventOffset + " of " + fInput.getPath());
+        }
+        fEventClass = event;
+        fEventTimestamp = decoder.getClock();
+        return true;
+    }
+
+    // ------------------------------------------------------------------------
+    // Packet
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return the metadata
+     */
+    public CtfMetadata getMetadata() {
+        return fMetadata;
+    }
+
+    /**
+     * @return the current value of the default clock, in cycles: the last
+     *         decoded event or packet beginning timestamp
+     */
+    public long getClockValue() {
+        return fDecoder.getClock();
+    }
+
+    /**
+     * @return the size of the stream file, in bytes
+     */
+    public long getFileSize() {
+        return fInput.size();
+    }
+
+    /**
+     * @return the offset of the current packet in the file, in bytes
+     */
+    public long getPacketOffset() {
+        return fPacketOffset;
+    }
+
+    /**
+     * @return the size of the current packet, in bits
+     */
+    public long getPacketSize() {
+        return fPacketSize;
+    }
+
+    /**
+     * @return the size of the content of the current packet, in bits
+     */
+    public long getContentSize() {
+        return fContentSize;
+    }
+
+    /**
+     * @return the offset of the first event of the current packet, in bits
+     *         from the start of the file
+     */
+    public long getEventsStart() {
+        return fEventsStart;
+    }
+
+    /**
+     * @return true if the packet context has a beginning timestamp
+     */
+    public boolean hasTimestampBegin() {
+        return fHasTimestampBegin;
+    }
+
+    /**
+     * @return the beginning timestamp of the packet, 0 if none
+     */
+    public long getTimestampBegin() {
+        return fTimestampBegin;
+    }
+
+    /**
+     * @return true if the packet context has an end timestamp
+     */
+    public boolean hasTimestampEnd() {
+        return fHasTimestampEnd;
+    }
+
+    /**
+     * @return the end timestamp of the packet, 0 if none
+     */
+    public long getTimestampEnd() {
+        return fTimestampEnd;
+    }
+
+    /**
+     * @return the snapshot of the discarded events counter, 0 if none
+     */
+    public long getEventsDiscarded() {
+        return fEventsDiscarded;
+    }
+
+    /**
+     * @return the stream class id, 0 if not in the packet header
+     */
+    public long getStreamId() {
+        return fStreamId;
+    }
+
+    /**
+     * @return the stream instance id, 0 if not in the packet header
+     */
+    public long getStreamInstanceId() {
+        return fStreamInstanceId;
+    }
+
+    /**
+     * @return the packet sequence number, or the index of the packet in the
+     *         file if the packet context does not have one
+     */
+    public long getPacketSequenceNumber() {
+        return fPacketSequenceNumber;
+    }
+
+    /**
+     * @return the stream class of the current packet
+     */
+    public StreamClass getStreamClass() {
+        return fStreamClass;
+    }
+
+    /**
+     * @return the default clock of the current packet, null if none
+     */
+    public ClockClass getClock() {
+        return fMetadata.getClock(fStreamClass);
+    }
+
+    /**
+     * @return the decoded packet header, null if none
+     */
+    public Object[] getPacketHeader() {
+        return fPacketHeader;
+    }
+
+    /**
+     * @return the decoded packet context, null if none
+     */
+    public Object[] getPacketContext() {
+        return fPacketContext;
+    }
+
+    /**
+     * Get where the field with a role is in the current packet header and
+     * context, or in the current event once {@link #nextEvent()} was called.
+     *
+     * @param role
+     *            a role
+     * @return the position of the field in bits from the start of the file,
+     *         -1 if there is no such fixed-size integer field
+     */
+    public long getFieldPosition(FieldRole role) {
+        return fDecoder.getRolePosition(role);
+    }
+
+    /**
+     * @param role
+     *            a role
+     * @return the type of the field with that role, null if there is no such
+     *         fixed-size integer field
+     * @see #getFieldPosition(FieldRole)
+     */
+    public IntegerType getFieldType(FieldRole role) {
+        return fDecoder.getRoleType(role);
+    }
+
+    // ------------------------------------------------------------------------
+    // Event
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return the offset of the current event, in bits from the start of the
+     *         file
+     */
+    public long getEventOffset() {
+        return fEventOffset;
+    }
+
+    /**
+     * @return the offset of the end of the current event, in bits from the
+     *         start of the file
+     */
+    public long getEventEnd() {
+        return fDecoder.getBuffer().position();
+    }
+
+    /**
+     * @return the timestamp of the current event, in clock cycles
+     */
+    public long getEventTimestamp() {
+        return fEventTimestamp;
+    }
+
+    /**
+     * @return the class of the current event
+     */
+    public EventClass getEventClass() {
+        return fEventClass;
+    }
+
+    /**
+     * @return the decoded header of the current event, null if none
+     */
+    public Object[] getEventHeader() {
+        return fEventHeader;
+    }
+
+    /**
+     * @return the decoded common context of the current event, null if none
+     */
+    public Object[] getEventContext() {
+        return fEventContext;
+    }
+
+    /**
+     * @return the decoded specific context of the current event, null if none
+     */
+    public Object[] getEventSpecificContext() {
+        return fEventSpecificContext;
+    }
+
+    /**
+     * @return the decoded payload of the current event, null if none
+     */
+    public Object[] getEventPayload() {
+        return fEventPayload;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fInput.close();
+    }
+}
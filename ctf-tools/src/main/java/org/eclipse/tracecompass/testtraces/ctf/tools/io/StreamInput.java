@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+
+/**
+ * A stream file, memory mapped through a sliding window so that files larger
+ * than what a single buffer can address are supported. Streams that are not
+ * files, such as corrupted variants of a file, are read in memory at once.
+ */
+public final class StreamInput implements Closeable {
+
+    /** Default size of the mapped window, in bytes */
+    public static final int DEFAULT_WINDOW_SIZE = 1 << 26;
+
+    private final Path fPath;
+    private final FileChannel fChannel;
+    private final long fSize;
+    private final int fWindowSize;
+    private final BitBuffer fBitBuffer;
+    private long fWindowStart;
+    private long fWindowEnd;
+
+    /**
+     * Constructor
+     *
+     * @param path
+     *            the stream file
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public StreamInput(Path path) throws IOException {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param path
+     *            the stream file
+     * @param windowSize
+     *            the minimum size of the mapped window, in bytes
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public StreamInput(Path path, int windowSize) throws IOException {
+        fPath = path;
+        fChannel = FileChannel.open(path, StandardOpenOption.READ);
+        fSize = fChannel.size();
+        fWindowSize = windowSize;
+        fBitBuffer = new BitBuffer(fChannel.map(MapMode.READ_ONLY, 0, Math.min(fSize, windowSize)), 0);
+        fWindowEnd = Math.min(fSize, windowSize);
+    }
+
+    /**
+     * Constructor, for a stream that is not a file. The whole content of the
+     * channel is read in memory.
+     *
+     * @param channel
+     *            the content of the stream, read from its current position,
+     *            left open
+     * @param path
+     *            the path the stream is named after, for error messages
+     * @throws IOException
+     *             if the channel cannot be read, or is larger than 2 GB
+     */
+    public StreamInput(SeekableByteChannel channel, Path path) throws IOException {
+        long size = channel.size() - channel.position();
+        if (size > Integer.MAX_VALUE) {
+            throw new CtfFormatException("Stream of " + size + " bytes is too large to be read in memory");
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // Read the whole stream
+        }
+        buffer.flip();
+        fPath = path;
+        fChannel = null;
+        fSize = buffer.limit();
+        fWindowSize = 0;
+        fBitBuffer = new BitBuffer(buffer, 0);
+        fWindowEnd = fSize;
+    }
+
+    /**
+     * @return the path of the file
+     */
+    public Path getPath() {
+        return fPath;
+    }
+
+    /**
+     * @return the size of the file, in bytes
+     */
+    public long size() {
+        return fSize;
+    }
+
+    /**
+     * Make a region of the file readable, and position the bit buffer at its
+     * start with its limit at its end.
+     *
+     * @param offset
+     *            the offset of the region, in bytes
+     * @param length
+     *            the length of the region, in bytes
+     * @return the bit buffer
+     * @throws IOException
+     *             if the region is not in the file or cannot be mapped
+     */
+    public BitBuffer map(long offset, long length) throws IOException {
+        long end = offset + length;
+        if (offset < 0 || length < 0 || end > fSize) {
+            throw new CtfFormatException("Region [" + offset + ", " + end + ") is outside of " + fPath + " (" + fSize + " bytes)");
+        }
+        if (offset < fWindowStart || end > fWindowEnd) {
+            long windowEnd = Math.min(fSize, offset + Math.max(length, fWindowSize));
+            if (windowEnd - offset > Integer.MAX_VALUE) {
+                throw new CtfFormatException("Region of " + length + " bytes is too large to be mapped");
+            }
+            MappedByteBuffer buffer = fChannel.map(MapMode.READ_ONLY, offset, windowEnd - offset);
+            fBitBuffer.setWindow(buffer, offset);
+            fWindowStart = offset;
+            fWindowEnd = windowEnd;
+        }
+        fBitBuffer.limit(end * Byte.SIZE);
+        fBitBuffer.position(offset * Byte.SIZE);
+        return fBitBuffer;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (fChannel != null) {
+            fChannel.close();
+        }
+    }
+}
@@ -0,0 +1,533 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.layout;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.LttngIndex;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.BitBuffer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.FieldDecoder;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.FieldEncoder;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.layout.TraceLayout.Alignment;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ArrayType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.Ctf2Writer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EnumType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EventClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldRole;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FloatType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.IntegerType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.OptionalType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.Scope;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StreamClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StructType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.VariantType;
+
+/**
+ * Re-encodes CTF traces with another {@link TraceLayout}: packet size, byte
+ * order and field alignment, keeping their events.
+ *
+ * The metadata of each trace is written as CTF 2 metadata (see
+ * {@link Ctf2Writer}), with the types of the source trace in the new byte
+ * order and alignment. Every stream is decoded, and its events encoded again
+ * in packets of the new size holding as many events as fit, so the
+ * re-encoded trace decodes to the same events, timestamps and field values.
+ * The packet context fields with a role are rewritten:
+ * <ul>
+ * <li>the packet and content sizes, in fields widened to 64 bits if
+ * needed;</li>
+ * <li>the sequence numbers, counting from the first one of the stream;</li>
+ * <li>the beginning timestamp, to the clock value before the first event,
+ * so that the narrow timestamps of the event headers decode the same;</li>
+ * <li>the end timestamp, to the beginning of the next packet, or to the end
+ * of the last source packet for the last packet;</li>
+ * <li>the discarded event counter, to the one of the source packet of the
+ * last event, or of the last source packet for the last packet.</li>
+ * </ul>
+ * A packet also ends before an event whose narrow timestamp only decodes
+ * right after the beginning timestamp of its source packet. Streams whose
+ * packets have no size field keep a single packet.
+ *
+ * The output is deterministic. The packets are encoded in memory one at a
+ * time. The packet indexes of the source are not copied, they would not
+ * match.
+ *
+ * <pre>
+ * java LayoutEncoder &lt;source trace&gt; &lt;target&gt; &lt;packet size&gt; &lt;le|be&gt; &lt;packed|natural&gt;
+ * </pre>
+ */
+public final class LayoutEncoder {
+
+    /**
+     * Version of the encoding. Bump it whenever the output for a given input
+     * changes, to invalidate cached re-encoded traces.
+     */
+    public static final String VERSION = "1";
+
+    /*
+     * Room to make for an event before encoding it, relative to its source
+     * size: a field of 8 bits or more gains less than 64 bits of padding.
+     */
+    private static final int EXPANSION = 9;
+    private static final long SLACK = 1 << 16;
+
+    private final TraceLayout fLayout;
+    private final Map<FieldType, FieldType> fTypes = new IdentityHashMap<>();
+
+    private LayoutEncoder(TraceLayout layout) {
+        fLayout = layout;
+    }
+
+    /**
+     * Re-encode a trace.
+     *
+     * @param args
+     *            the source trace, the target, the packet size, the byte
+     *            order and the alignment
+     * @throws IOException
+     *             if the trace cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5 || !args[3].matches("le|be") || !args[4].matches("packed|natural")) {
+            System.err.println("Usage: LayoutEncoder <source trace> <target> <packet size> <le|be> <packed|natural>");
+            System.exit(2);
+        }
+        TraceLayout layout = new TraceLayout(Integer.parseInt(args[2]), args[3].equals("be") ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN,
+                Alignment.valueOf(args[4].toUpperCase(Locale.ROOT)));
+        long start = System.nanoTime();
+        encode(Paths.get(args[0]), Paths.get(args[1]), layout);
+        System.out.println("Re-encoded " + args[0] + " as " + layout + " in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Re-encode a trace, or a directory tree of traces. Files that are not
+     * part of a CTF trace are copied as is.
+     *
+     * @param source
+     *            the source directory
+     * @param target
+     *            the target directory, which must not exist
+     * @param layout
+     *            the layout of the re-encoded traces
+     * @throws IOException
+     *             if a trace cannot be read or written, or its metadata
+     *             cannot be expressed in CTF 2
+     */
+    public static void encode(Path source, Path target, TraceLayout layout) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        Set<Path> traceDirectories = new HashSet<>();
+        for (Path file : files) {
+            if (MetadataReader.isMetadata(file)) {
+                traceDirectories.add(file.getParent());
+            }
+        }
+        Files.createDirectories(target);
+        for (Path file : files) {
+            Path directory = file.getParent();
+            if (!traceDirectories.contains(directory) && !isIndex(directory, traceDirectories)) {
+                Path copy = target.resolve(source.relativize(file).toString());
+                Files.createDirectories(copy.getParent());
+                Files.copy(file, copy);
+            }
+        }
+        for (Path directory : traceDirectories.stream().sorted().collect(Collectors.toList())) {
+            new LayoutEncoder(layout).encodeTrace(directory, target.resolve(source.relativize(directory).toString()));
+        }
+    }
+
+    private static boolean isIndex(Path directory, Set<Path> traceDirectories) {
+        return LttngIndex.DIRECTORY_NAME.equals(String.valueOf(directory.getFileName()))
+                && traceDirectories.contains(directory.getParent());
+    }
+
+    private void encodeTrace(Path traceDirectory, Path target) throws IOException {
+        CtfMetadata metadata = MetadataReader.read(traceDirectory);
+        CtfMetadata encoded = convert(metadata);
+        Files.createDirectories(target);
+        Files.write(target.resolve(MetadataReader.METADATA_FILE_NAME), Ctf2Writer.write(encoded).getBytes(StandardCharsets.UTF_8));
+        for (Path stream : CtfIndexer.getStreamFiles(traceDirectory)) {
+            try (PacketReader reader = new PacketReader(metadata, stream);
+                    StreamEncoder encoder = new StreamEncoder(encoded, target.resolve(String.valueOf(stream.getFileName())))) {
+                encoder.encode(reader);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Metadata
+    // ------------------------------------------------------------------------
+
+    private CtfMetadata convert(CtfMetadata metadata) {
+        Map<Long, StreamClass> streams = new LinkedHashMap<>();
+        for (StreamClass stream : metadata.getStreams().values()) {
+            Map<Long, EventClass> events = new LinkedHashMap<>();
+            for (EventClass event : stream.getEvents().values()) {
+                events.put(event.getId(), new EventClass(event.getId(), event.getName(), event.getStreamId(),
+                        convertStruct(event.getContext()), convertStruct(event.getPayload()), event.getAttributes()));
+            }
+            streams.put(stream.getId(), new StreamClass(stream.getId(), convertStruct(stream.getPacketContext()),
+                    convertStruct(stream.getEventHeader()), convertStruct(stream.getEventContext()), stream.getClockName(), events));
+        }
+        return new CtfMetadata(2, 0, metadata.getUuid(), fLayout.getByteOrder(), convertStruct(metadata.getPacketHeader()),
+                metadata.getEnvironment(), metadata.getClocks(), streams);
+    }
+
+    private StructType convertStruct(StructType type) {
+        return (StructType) convert(type);
+    }
+
+    /**
+     * Convert a type to the layout. Types shared by several fields stay
+     * shared.
+     */
+    private FieldType convert(FieldType type) {
+        if (type == null) {
+            return null;
+        }
+        FieldType converted = fTypes.get(type);
+        if (converted == null) {
+            converted = convertType(type);
+            fTypes.put(type, converted);
+        }
+        return converted;
+    }
+
+    private FieldType convertType(FieldType type) {
+        if (type instanceof EnumType) {
+            EnumType enumType = (EnumType) type;
+            return new EnumType(convertInteger(enumType), enumType.getMappings());
+        }
+        if (type instanceof IntegerType) {
+            return convertInteger((IntegerType) type);
+        }
+        if (type instanceof FloatType) {
+            FloatType floatType = (FloatType) type;
+            return new FloatType(floatType.getExponentDigits(), floatType.getMantissaDigits(), fLayout.getByteOrder(),
+                    align(floatType.getSize(), floatType.getAlignment()));
+        }
+        if (type instanceof StructType) {
+            StructType struct = (StructType) type;
+            List<StructType.Member> members = new ArrayList<>();
+            for (StructType.Member member : struct.getMembers()) {
+                FieldType memberType = member.getType();
+                FieldRole role = member.getRole();
+                if ((role == FieldRole.PACKET_TOTAL_LENGTH || role == FieldRole.PACKET_CONTENT_LENGTH) && !(memberType instanceof EnumType)
+                        && memberType instanceof IntegerType && ((IntegerType) memberType).getSize() < Long.SIZE) {
+                    /* Make room for the new packet size */
+                    memberType = new IntegerType(Long.SIZE, false, fLayout.getByteOrder(), align(Long.SIZE, Byte.SIZE), 10, IntegerType.ENCODING_NONE, null);
+                } else {
+                    memberType = convert(memberType);
+                }
+                members.add(new StructType.Member(member.getName(), memberType, role));
+            }
+            return new StructType(members, fLayout.getAlignment() == Alignment.PACKED ? 1 : struct.getMinimumAlignment());
+        }
+        if (type instanceof VariantType) {
+            VariantType variant = (VariantType) type;
+            List<VariantType.Option> options = new ArrayList<>();
+            for (VariantType.Option option : variant.getOptions()) {
+                options.add(new VariantType.Option(option.getName(), convert(option.getType()), option.getRanges()));
+            }
+            return new VariantType(variant.getSelector(), options);
+        }
+        if (type instanceof OptionalType) {
+            OptionalType optional = (OptionalType) type;
+            return new OptionalType(optional.getSelector(), convert(optional.getType()), optional.getRanges());
+        }
+        if (type instanceof ArrayType) {
+            ArrayType array = (ArrayType) type;
+            return new ArrayType(convert(array.getElementType()), array.getLength(), array.getLengthLocation());
+        }
+        /* Strings, BLOBs and variable-length integers are byte aligned bytes */
+        return type;
+    }
+
+    private IntegerType convertInteger(IntegerType integer) {
+        return new IntegerType(integer.getSize(), integer.isSigned(), fLayout.getByteOrder(), align(integer.getSize(), integer.getAlignment()),
+                integer.getBase(), integer.getEncoding(), integer.getClockName());
+    }
+
+    private int align(int size, int alignment) {
+        if (size % Byte.SIZE != 0 || alignment < Byte.SIZE) {
+            /* Bit field */
+            return alignment;
+        }
+        if (fLayout.getAlignment() == Alignment.PACKED) {
+            return Byte.SIZE;
+        }
+        return Math.min(Long.SIZE, Integer.highestOneBit(size * 2 - 1));
+    }
+
+    private static boolean hasRole(StructType type, FieldRole role) {
+        if (type != null) {
+            for (StructType.Member member : type.getMembers()) {
+                if (member.getRole() == role) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------------------
+    // Streams
+    // ------------------------------------------------------------------------
+
+    /**
+     * Encodes the events of a stream in packets of the layout, one packet at
+     * a time in a buffer holding the packet, at its offset in the file.
+     */
+    private final class StreamEncoder implements AutoCloseable {
+
+        private final CtfMetadata fMetadata;
+        private final FileChannel fOut;
+        private final long fPacketBits;
+        private ByteBuffer fWindow;
+        private final BitBuffer fBits;
+        private final FieldEncoder fEncoder;
+
+        /* The current packet, its offset in bytes and its start in bits */
+        private boolean fOpen;
+        private long fOffset;
+        private long fStart;
+        private boolean fSized;
+        private boolean fPadded;
+        private StreamClass fStreamClass;
+        private Object[] fContext;
+        private long fContextPosition;
+        private long fHighWater;
+        private int fEvents;
+        private long fBegin;
+        private long fClock;
+        private long fDiscarded;
+        private long fSequence;
+
+        public StreamEncoder(CtfMetadata metadata, Path target) throws IOException {
+            fMetadata = metadata;
+            fOut = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            fPacketBits = (long) fLayout.getPacketSize() * Byte.SIZE;
+            fWindow = ByteBuffer.allocate(fLayout.getPacketSize());
+            fBits = new BitBuffer(fWindow, 0);
+            fEncoder = new FieldEncoder(fBits);
+        }
+
+        public void encode(PacketReader reader) throws IOException {
+            boolean first = true;
+            Object[] firstHeader = null;
+            Object[] firstContext = null;
+            long firstStream = 0;
+            long firstClock = 0;
+            long end = 0;
+            while (reader.nextPacket()) {
+                if (first) {
+                    fSequence = reader.getPacketSequenceNumber();
+                    firstHeader = reader.getPacketHeader();
+                    firstContext = reader.getPacketContext();
+                    firstStream = reader.getStreamId();
+                    firstClock = reader.getClockValue();
+                    first = false;
+                }
+                long clockBefore = reader.getClockValue();
+                while (reader.nextEvent()) {
+                    add(reader, clockBefore);
+                    clockBefore = reader.getClockValue();
+                }
+                end = reader.hasTimestampEnd() ? reader.getTimestampEnd() : reader.getClockValue();
+                fDiscarded = reader.getEventsDiscarded();
+            }
+            if (first) {
+                /* Empty stream file */
+                return;
+            }
+            if (!fOpen) {
+                open(firstStream, firstHeader, firstContext, firstClock);
+            }
+            closePacket(Math.max(fClock, end));
+        }
+
+        private void add(PacketReader reader, long clockBefore) throws IOException {
+            if (!fOpen) {
+                open(reader.getStreamId(), reader.getPacketHeader(), reader.getPacketContext(), clockBefore);
+            } else if (fSized && !continues(reader, clockBefore)) {
+                closePacket(clockBefore);
+                open(reader.getStreamId(), reader.getPacketHeader(), reader.getPacketContext(), clockBefore);
+            }
+            long mark = fBits.position();
+            encodeEvent(reader);
+            if (fSized && fEvents > 0 && fBits.position() - fStart > fPacketBits) {
+                /* Does not fit, move it to a new packet */
+                fHighWater = Math.max(fHighWater, fBits.position());
+                fBits.position(mark);
+                closePacket(clockBefore);
+                open(reader.getStreamId(), reader.getPacketHeader(), reader.getPacketContext(), clockBefore);
+                encodeEvent(reader);
+            }
+            fEvents++;
+            fClock = reader.getEventTimestamp();
+            fDiscarded = reader.getEventsDiscarded();
+        }
+
+        /**
+         * Check if an event decodes to its timestamp right after the previous
+         * event of the packet.
+         */
+        private boolean continues(PacketReader reader, long clockBefore) {
+            if (clockBefore == fClock) {
+                return true;
+            }
+            IntegerType type = reader.getFieldType(FieldRole.DEFAULT_CLOCK_TIMESTAMP);
+            if (type == null) {
+                return false;
+            }
+            long timestamp = reader.getEventTimestamp();
+            return type.getSize() >= Long.SIZE || FieldDecoder.updateClock(fClock, timestamp, type.getSize()) == timestamp;
+        }
+
+        private void encodeEvent(PacketReader reader) throws IOException {
+            ensure(fBits.position() + EXPANSION * (reader.getEventEnd() - reader.getEventOffset()) + SLACK);
+            StreamClass stream = fStreamClass;
+            EventClass event = stream.getEvent(reader.getEventClass().getId());
+            fEncoder.encodeScope(Scope.EVENT_HEADER, stream.getEventHeader(), reader.getEventHeader());
+            fEncoder.encodeScope(Scope.EVENT_COMMON_CONTEXT, stream.getEventContext(), reader.getEventContext());
+            fEncoder.encodeScope(Scope.EVENT_SPECIFIC_CONTEXT, event.getContext(), reader.getEventSpecificContext());
+            fEncoder.encodeScope(Scope.EVENT_PAYLOAD, event.getPayload(), reader.getEventPayload());
+        }
+
+        private void open(long streamId, Object[] header, Object[] context, long begin) throws IOException {
+            fStreamClass = fMetadata.getStream(streamId);
+            StructType contextType = fStreamClass.getPacketContext();
+            fSized = hasRole(contextType, FieldRole.PACKET_TOTAL_LENGTH);
+            fPadded = hasRole(contextType, FieldRole.PACKET_CONTENT_LENGTH);
+            fContext = context;
+            fStart = fOffset * Byte.SIZE;
+            fBits.setWindow(fWindow, fOffset);
+            fBits.position(fStart);
+            ensure(fStart + SLACK);
+            fEncoder.encodeScope(Scope.PACKET_HEADER, fMetadata.getPacketHeader(), header);
+            fContextPosition = fBits.position();
+            fEncoder.encodeScope(Scope.PACKET_CONTEXT, contextType, context);
+            fBegin = begin;
+            fClock = begin;
+            fEvents = 0;
+            fOpen = true;
+        }
+
+        /**
+         * Write the final packet context, with the sizes, timestamps, counter
+         * and sequence number, then the packet. Packets without a content size
+         * end with their last event, the others are padded with zeros to a
+         * multiple of the packet size of the layout.
+         */
+        private void closePacket(long end) throws IOException {
+            long content = fBits.position() - fStart;
+            long size = fSized && fPadded ? (content + fPacketBits - 1) / fPacketBits * fPacketBits : (content + Byte.SIZE - 1) & -Byte.SIZE;
+            long highWater = Math.max(size, fHighWater - fStart);
+            ensure(fStart + highWater);
+            /* Clear what an event that did not fit left after the content */
+            int tail = (int) (-content & (Byte.SIZE - 1));
+            if (tail > 0) {
+                fBits.putLong(tail, fLayout.getByteOrder(), 0);
+            }
+            Arrays.fill(fWindow.array(), (int) ((content + tail) / Byte.SIZE), (int) ((highWater + Byte.SIZE - 1) / Byte.SIZE), (byte) 0);
+            StructType type = fStreamClass.getPacketContext();
+            if (type != null) {
+                Object[] context = fContext.clone();
+                for (int i = 0; i < context.length; i++) {
+                    FieldRole role = type.getMember(i).getRole();
+                    if (role != null && context[i] instanceof Long) {
+                        context[i] = getRoleValue(role, (Long) context[i], content, size, end);
+                    }
+                }
+                fBits.position(fContextPosition);
+                fEncoder.encodeScope(Scope.PACKET_CONTEXT, type, context);
+            }
+            fSequence++;
+            ByteBuffer packet = ByteBuffer.wrap(fWindow.array(), 0, (int) (size / Byte.SIZE));
+            while (packet.hasRemaining()) {
+                fOut.write(packet);
+            }
+            Arrays.fill(fWindow.array(), 0, packet.limit(), (byte) 0);
+            fOffset += size / Byte.SIZE;
+            fHighWater = 0;
+            fOpen = false;
+        }
+
+        private long getRoleValue(FieldRole role, long value, long content, long size, long end) {
+            switch (role) {
+            case PACKET_TOTAL_LENGTH:
+                return size;
+            case PACKET_CONTENT_LENGTH:
+                return content;
+            case DEFAULT_CLOCK_TIMESTAMP:
+                return fBegin;
+            case PACKET_END_DEFAULT_CLOCK_TIMESTAMP:
+                return end;
+            case DISCARDED_EVENT_RECORD_COUNTER_SNAPSHOT:
+                return fDiscarded;
+            case PACKET_SEQUENCE_NUMBER:
+                return fSequence;
+            default:
+                return value;
+            }
+        }
+
+        /**
+         * Make the buffer of the packet reach at least a position, keeping its
+         * content.
+         */
+        private void ensure(long position) throws CtfFormatException {
+            long bytes = (position - fStart + Byte.SIZE - 1) / Byte.SIZE;
+            if (bytes <= fWindow.capacity()) {
+                return;
+            }
+            if (bytes > Integer.MAX_VALUE / 2) {
+                throw new CtfFormatException("Packet of " + bytes + " bytes too large");
+            }
+            ByteBuffer window = ByteBuffer.allocate((int) Math.max(bytes, fWindow.capacity() * 2L));
+            window.put(fWindow.array());
+            fWindow = window;
+            fBits.setWindow(window, fOffset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            fOut.close();
+        }
+    }
+}
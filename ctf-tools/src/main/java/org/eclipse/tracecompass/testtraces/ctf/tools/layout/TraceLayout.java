@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.layout;
+
+import java.nio.ByteOrder;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * The layout of the stream files of a trace re-encoded by
+ * {@link LayoutEncoder}: the size of the packets, the byte order of the
+ * fields and how they are aligned.
+ */
+public final class TraceLayout {
+
+    /** The smallest packet size, in bytes */
+    public static final int MIN_PACKET_SIZE = 1 << 12;
+
+    /** The largest packet size, in bytes */
+    public static final int MAX_PACKET_SIZE = 1 << 24;
+
+    /**
+     * How the fields are aligned. Bit fields, integers whose size or
+     * alignment is not a multiple of 8 bits, keep the alignment they have in
+     * the source trace either way.
+     */
+    public enum Alignment {
+        /**
+         * Every field is byte aligned, without padding, and structures have
+         * no minimum alignment
+         */
+        PACKED,
+        /**
+         * Every integer and floating point number is aligned on its size,
+         * rounded up to a power of 2, and structures keep their minimum
+         * alignment
+         */
+        NATURAL
+    }
+
+    private final int fPacketSize;
+    private final ByteOrder fByteOrder;
+    private final Alignment fAlignment;
+
+    /**
+     * Constructor
+     *
+     * @param packetSize
+     *            the size of the packets in bytes, a power of 2 from
+     *            {@value #MIN_PACKET_SIZE} to {@value #MAX_PACKET_SIZE}
+     * @param byteOrder
+     *            the byte order of the fields
+     * @param alignment
+     *            the alignment of the fields
+     */
+    public TraceLayout(int packetSize, ByteOrder byteOrder, Alignment alignment) {
+        if (packetSize < MIN_PACKET_SIZE || packetSize > MAX_PACKET_SIZE || Integer.bitCount(packetSize) != 1) {
+            throw new IllegalArgumentException("Invalid packet size " + packetSize);
+        }
+        fPacketSize = packetSize;
+        fByteOrder = Objects.requireNonNull(byteOrder);
+        fAlignment = Objects.requireNonNull(alignment);
+    }
+
+    /**
+     * @return the size of the packets, in bytes. A packet holding a single
+     *         larger event is as many times that size as needed.
+     */
+    public int getPacketSize() {
+        return fPacketSize;
+    }
+
+    /**
+     * @return the byte order of the fields
+     */
+    public ByteOrder getByteOrder() {
+        return fByteOrder;
+    }
+
+    /**
+     * @return the alignment of the fields
+     */
+    public Alignment getAlignment() {
+        return fAlignment;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fPacketSize, fByteOrder, fAlignment);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TraceLayout)) {
+            return false;
+        }
+        TraceLayout other = (TraceLayout) obj;
+        return fPacketSize == other.fPacketSize && fByteOrder.equals(other.fByteOrder) && fAlignment == other.fAlignment;
+    }
+
+    /**
+     * @return the layout as its packet size, byte order and alignment, for
+     *         example <code>4096-be-packed</code>
+     */
+    @Override
+    public String toString() {
+        return fPacketSize + (fByteOrder == ByteOrder.BIG_ENDIAN ? "-be-" : "-le-") + fAlignment.name().toLowerCase(Locale.ROOT);
+    }
+}
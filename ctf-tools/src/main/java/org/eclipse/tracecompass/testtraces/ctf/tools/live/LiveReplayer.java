@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.live;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.LttngIndex;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.PacketIndexEntry;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * Replays CTF traces as a live tracing session would write them: the
+ * metadata first, then the packets of all the streams appended to their
+ * stream files one at a time, paced by a {@link ReplayPacing}.
+ *
+ * The files that are not part of a trace and the metadata files are written
+ * first, then all the stream files are created empty, as a tracer does when
+ * a session starts. The packets are then written in the order the tracer
+ * would have flushed them: by the time of their end, converted to
+ * nanoseconds with the clock of their stream, the packets of each stream
+ * staying in file order. For traces shipped with an LTTng packet index, the
+ * index files are created with the stream files and an entry is appended
+ * after each packet, as LTTng does. Every packet is copied with
+ * {@link FileChannel#transferTo}, and the time it was completely written is
+ * recorded in a {@link ReplayTimeline}, against which the lag of a reader
+ * following the trace can be measured.
+ *
+ * <pre>
+ * java LiveReplayer &lt;source trace&gt; &lt;target&gt; &lt;speed&gt;x|&lt;rate&gt;B/s [timeline file]
+ * </pre>
+ */
+public final class LiveReplayer {
+
+    private LiveReplayer() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Replay a trace.
+     *
+     * @param args
+     *            the source trace, the target, the pacing and optionally the
+     *            file to write the timeline to
+     * @throws IOException
+     *             if the trace cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 && args.length != 4 || !args[2].matches("[0-9.]+x|[0-9]+B/s")) {
+            System.err.println("Usage: LiveReplayer <source trace> <target> <speed>x|<rate>B/s [timeline file]");
+            System.exit(2);
+        }
+        ReplayPacing pacing = ReplayPacing.parse(args[2]);
+        ReplayTimeline timeline = replay(Paths.get(args[0]), Paths.get(args[1]), pacing);
+        if (args.length == 4) {
+            timeline.write(Paths.get(args[3]));
+        }
+        System.out.println("Replayed " + args[0] + " at " + pacing + ": " + timeline.getPackets().size() + " packets, " + timeline.getBytes()
+                + " bytes in " + timeline.getDuration() / 1000000 + " ms");
+    }
+
+    /**
+     * Replay a trace, or a directory tree of traces, blocking until the last
+     * packet is written. Interrupting the thread stops the replay.
+     *
+     * @param source
+     *            the source directory
+     * @param target
+     *            the target directory, created if needed, without the files
+     *            of the source
+     * @param pacing
+     *            when the packets are due
+     * @return the timeline of the replay
+     * @throws IOException
+     *             if the trace cannot be read or written, or the replay is
+     *             interrupted
+     */
+    public static ReplayTimeline replay(Path source, Path target, ReplayPacing pacing) throws IOException {
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        Set<Path> traceDirectories = new HashSet<>();
+        for (Path file : files) {
+            if (MetadataReader.isMetadata(file)) {
+                traceDirectories.add(file.getParent());
+            }
+        }
+        List<Path> sortedDirectories = traceDirectories.stream().sorted().collect(Collectors.toList());
+
+        /* Plan the replay before starting the clock */
+        List<StreamReplay> streams = new ArrayList<>();
+        long origin = Long.MAX_VALUE;
+        for (Path directory : sortedDirectories) {
+            CtfMetadata metadata = MetadataReader.read(directory);
+            Path targetDirectory = target.resolve(source.relativize(directory).toString());
+            boolean indexed = Files.isDirectory(directory.resolve(LttngIndex.DIRECTORY_NAME));
+            for (Path stream : CtfIndexer.getStreamFiles(directory)) {
+                String name = String.valueOf(stream.getFileName());
+                Path index = indexed ? targetDirectory.resolve(LttngIndex.DIRECTORY_NAME).resolve(name + LttngIndex.EXTENSION) : null;
+                StreamReplay replay = new StreamReplay(streams.size(), stream, targetDirectory.resolve(name),
+                        target.relativize(targetDirectory.resolve(name)).toString().replace('\\', '/'), index,
+                        CtfIndexer.indexStream(metadata, stream), metadata);
+                for (int i = 0; i < replay.fEntries.size(); i++) {
+                    origin = Math.min(origin, replay.fBegins[i]);
+                }
+                streams.add(replay);
+            }
+        }
+
+        long start = System.nanoTime();
+        long startMillis = System.currentTimeMillis();
+        Files.createDirectories(target);
+        for (Path file : files) {
+            Path directory = file.getParent();
+            if (!traceDirectories.contains(directory) && !isIndex(directory, traceDirectories)) {
+                Path copy = target.resolve(source.relativize(file).toString());
+                Files.createDirectories(copy.getParent());
+                Files.copy(file, copy);
+            }
+        }
+        for (Path directory : sortedDirectories) {
+            Path targetDirectory = target.resolve(source.relativize(directory).toString());
+            Files.createDirectories(targetDirectory);
+            Files.copy(directory.resolve(MetadataReader.METADATA_FILE_NAME), targetDirectory.resolve(MetadataReader.METADATA_FILE_NAME));
+        }
+        long metadataVisible = System.nanoTime() - start;
+
+        List<ReplayTimeline.Packet> packets = new ArrayList<>();
+        try {
+            PriorityQueue<StreamReplay> queue = new PriorityQueue<>(Math.max(1, streams.size()),
+                    Comparator.comparingLong(StreamReplay::getEnd).thenComparingInt(replay -> replay.fOrder));
+            for (StreamReplay replay : streams) {
+                replay.open();
+                if (!replay.fEntries.isEmpty()) {
+                    queue.add(replay);
+                }
+            }
+            long bytes = 0;
+            while (!queue.isEmpty()) {
+                StreamReplay replay = queue.poll();
+                PacketIndexEntry entry = replay.fEntries.get(replay.fNext);
+                long size = entry.getPacketSize() / Byte.SIZE;
+                long traceTime = replay.getEnd() - origin;
+                bytes += size;
+                long due = pacing.getDue(traceTime, bytes);
+                waitUntil(start + due);
+                replay.write(entry);
+                packets.add(new ReplayTimeline.Packet(replay.fName, entry.getOffset(), size, traceTime, due, System.nanoTime() - start));
+                replay.fNext++;
+                if (replay.fNext < replay.fEntries.size()) {
+                    queue.add(replay);
+                }
+            }
+        } finally {
+            for (StreamReplay replay : streams) {
+                replay.close();
+            }
+        }
+        return new ReplayTimeline(start, startMillis, metadataVisible, packets);
+    }
+
+    private static boolean isIndex(Path directory, Set<Path> traceDirectories) {
+        return LttngIndex.DIRECTORY_NAME.equals(String.valueOf(directory.getFileName()))
+                && traceDirectories.contains(directory.getParent());
+    }
+
+    private static void waitUntil(long deadline) throws InterruptedIOException {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedIOException("Replay interrupted");
+            }
+        }
+    }
+
+    /**
+     * The packets of a stream file, and where they go.
+     */
+    private static final class StreamReplay {
+        private final int fOrder;
+        private final Path fSource;
+        private final Path fTarget;
+        private final String fName;
+        private final Path fIndex;
+        private final List<PacketIndexEntry> fEntries;
+        /* The beginning and end of the packets, in nanoseconds */
+        private final long[] fBegins;
+        private final long[] fEnds;
+        private int fNext;
+        private FileChannel fIn;
+        private FileChannel fOut;
+
+        public StreamReplay(int order, Path source, Path target, String name, Path index, List<PacketIndexEntry> entries, CtfMetadata metadata) {
+            fOrder = order;
+            fSource = source;
+            fTarget = target;
+            fName = name;
+            fIndex = index;
+            fEntries = entries;
+            fBegins = new long[entries.size()];
+            fEnds = new long[entries.size()];
+            for (int i = 0; i < entries.size(); i++) {
+                PacketIndexEntry entry = entries.get(i);
+                ClockClass clock = metadata.getClock(metadata.getStream(entry.getStreamId()));
+                fBegins[i] = clock == null ? entry.getTimestampBegin() : clock.toNanos(entry.getTimestampBegin());
+                fEnds[i] = clock == null ? entry.getTimestampEnd() : clock.toNanos(entry.getTimestampEnd());
+            }
+        }
+
+        public long getEnd() {
+            return fEnds[fNext];
+        }
+
+        /**
+         * Create the stream file, and the index file if any.
+         */
+        public void open() throws IOException {
+            fIn = FileChannel.open(fSource, StandardOpenOption.READ);
+            fOut = FileChannel.open(fTarget, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            if (fIndex != null) {
+                LttngIndex.write(fIndex, Collections.emptyList());
+            }
+        }
+
+        /**
+         * Append a packet to the stream file, then its entry to the index.
+         */
+        public void write(PacketIndexEntry entry) throws IOException {
+            long size = entry.getPacketSize() / Byte.SIZE;
+            long done = 0;
+            while (done < size) {
+                done += fIn.transferTo(entry.getOffset() + done, size - done, fOut);
+            }
+            if (fIndex != null) {
+                LttngIndex.append(fIndex, entry);
+            }
+        }
+
+        public void close() throws IOException {
+            try {
+                if (fIn != null) {
+                    fIn.close();
+                }
+            } finally {
+                if (fOut != null) {
+                    fOut.close();
+                }
+            }
+        }
+    }
+}
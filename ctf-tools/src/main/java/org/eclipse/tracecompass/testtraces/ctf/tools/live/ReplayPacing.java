@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.live;
+
+/**
+ * When the packets of a live replay (see {@link LiveReplayer}) are due: at a
+ * multiple of the real time of the trace, or at a fixed rate in bytes per
+ * second.
+ */
+public final class ReplayPacing {
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final double fSpeed;
+    private final long fBytesPerSecond;
+
+    private ReplayPacing(double speed, long bytesPerSecond) {
+        fSpeed = speed;
+        fBytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Replay at a multiple of the real time of the trace: a packet is due
+     * when the time elapsed since the start of the replay, times the speed,
+     * reaches the time elapsed from the beginning of the trace to the end of
+     * the packet, when the tracer would have flushed it.
+     *
+     * @param speed
+     *            the speed, 1 for real time, 2 for twice as fast
+     * @return the pacing
+     */
+    public static ReplayPacing realTime(double speed) {
+        if (!(speed > 0) || Double.isInfinite(speed)) {
+            throw new IllegalArgumentException("Invalid speed " + speed);
+        }
+        return new ReplayPacing(speed, 0);
+    }
+
+    /**
+     * Replay at a fixed rate: a packet is due when the bytes of the packets
+     * up to it, at that rate, take the time elapsed since the start of the
+     * replay.
+     *
+     * @param bytesPerSecond
+     *            the rate, in bytes per second
+     * @return the pacing
+     */
+    public static ReplayPacing bytesPerSecond(long bytesPerSecond) {
+        if (bytesPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid rate " + bytesPerSecond);
+        }
+        return new ReplayPacing(0, bytesPerSecond);
+    }
+
+    /**
+     * Parse a pacing: <code>&lt;speed&gt;x</code> for a multiple of real
+     * time, for example <code>2x</code>, or <code>&lt;rate&gt;B/s</code> for
+     * a rate in bytes per second, for example <code>1048576B/s</code>.
+     *
+     * @param pacing
+     *            the pacing
+     * @return the pacing
+     * @throws IllegalArgumentException
+     *             if the pacing is invalid
+     */
+    public static ReplayPacing parse(String pacing) {
+        try {
+            if (pacing.endsWith("x")) {
+                return realTime(Double.parseDouble(pacing.substring(0, pacing.length() - 1)));
+            }
+            if (pacing.endsWith("B/s")) {
+                return bytesPerSecond(Long.parseLong(pacing.substring(0, pacing.length() - 3)));
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid pacing " + pacing, e);
+        }
+        throw new IllegalArgumentException("Invalid pacing " + pacing);
+    }
+
+    /**
+     * Get when a packet is due.
+     *
+     * @param traceTime
+     *            the time from the beginning of the trace to the end of the
+     *            packet, in nanoseconds
+     * @param bytes
+     *            the bytes of the packets up to and including this one
+     * @return the time from the start of the replay, in nanoseconds
+     */
+    public long getDue(long traceTime, long bytes) {
+        if (fBytesPerSecond > 0) {
+            return (long) (bytes * NANOS_PER_SECOND / fBytesPerSecond);
+        }
+        return (long) (Math.max(0, traceTime) / fSpeed);
+    }
+
+    /**
+     * @return the pacing, in the form {@link #parse(String)} reads
+     */
+    @Override
+    public String toString() {
+        if (fBytesPerSecond > 0) {
+            return fBytesPerSecond + "B/s";
+        }
+        return (fSpeed == Math.rint(fSpeed) ? Long.toString((long) fSpeed) : Double.toString(fSpeed)) + 'x';
+    }
+}
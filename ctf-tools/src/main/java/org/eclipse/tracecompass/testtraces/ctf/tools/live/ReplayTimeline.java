@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.live;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * When every packet of a live replay (see {@link LiveReplayer}) became
+ * visible in the target directory. Times are in nanoseconds from the start
+ * of the replay, which is given both as a {@link System#nanoTime()} value,
+ * to compare with the times a reader in the same process sees the packets,
+ * and as a wall clock time, for readers in other processes.
+ */
+public final class ReplayTimeline {
+
+    /**
+     * A packet written to the target directory
+     */
+    public static final class Packet {
+        private final String fStream;
+        private final long fOffset;
+        private final long fSize;
+        private final long fTraceTime;
+        private final long fDue;
+        private final long fVisible;
+
+        /**
+         * Constructor
+         *
+         * @param stream
+         *            the path of the stream file relative to the target, with
+         *            '/' separators
+         * @param offset
+         *            the offset of the packet in the stream file, in bytes
+         * @param size
+         *            the size of the packet, in bytes
+         * @param traceTime
+         *            the time from the beginning of the trace to the end of
+         *            the packet, in nanoseconds
+         * @param due
+         *            when the packet was due, from the start of the replay
+         * @param visible
+         *            when the packet was completely written, from the start
+         *            of the replay
+         */
+        public Packet(String stream, long offset, long size, long traceTime, long due, long visible) {
+            fStream = stream;
+            fOffset = offset;
+            fSize = size;
+            fTraceTime = traceTime;
+            fDue = due;
+            fVisible = visible;
+        }
+
+        /**
+         * @return the path of the stream file relative to the target, with
+         *         '/' separators
+         */
+        public String getStream() {
+            return fStream;
+        }
+
+        /**
+         * @return the offset of the packet in the stream file, in bytes
+         */
+        public long getOffset() {
+            return fOffset;
+        }
+
+        /**
+         * @return the size of the packet, in bytes
+         */
+        public long getSize() {
+            return fSize;
+        }
+
+        /**
+         * @return the time from the beginning of the trace to the end of the
+         *         packet, in nanoseconds
+         */
+        public long getTraceTime() {
+            return fTraceTime;
+        }
+
+        /**
+         * @return when the packet was due, in nanoseconds from the start of
+         *         the replay
+         */
+        public long getDue() {
+            return fDue;
+        }
+
+        /**
+         * @return when the packet and its index entry, if any, were
+         *         completely written, in nanoseconds from the start of the
+         *         replay
+         */
+        public long getVisible() {
+            return fVisible;
+        }
+    }
+
+    private final long fStartNanos;
+    private final long fStartMillis;
+    private final long fMetadataVisible;
+    private final List<Packet> fPackets;
+
+    /**
+     * Constructor
+     *
+     * @param startNanos
+     *            the start of the replay, as a {@link System#nanoTime()} value
+     * @param startMillis
+     *            the start of the replay, in milliseconds since the epoch
+     * @param metadataVisible
+     *            when the metadata files were completely written, from the
+     *            start of the replay
+     * @param packets
+     *            the packets, in the order they were written
+     */
+    public ReplayTimeline(long startNanos, long startMillis, long metadataVisible, List<Packet> packets) {
+        fStartNanos = startNanos;
+        fStartMillis = startMillis;
+        fMetadataVisible = metadataVisible;
+        fPackets = Collections.unmodifiableList(new ArrayList<>(packets));
+    }
+
+    /**
+     * @return the start of the replay, as a {@link System#nanoTime()} value
+     */
+    public long getStartNanos() {
+        return fStartNanos;
+    }
+
+    /**
+     * @return the start of the replay, in milliseconds since the epoch
+     */
+    public long getStartMillis() {
+        return fStartMillis;
+    }
+
+    /**
+     * @return when the metadata files were completely written, in
+     *         nanoseconds from the start of the replay. No packet is written
+     *         before.
+     */
+    public long getMetadataVisible() {
+        return fMetadataVisible;
+    }
+
+    /**
+     * @return the packets, in the order they were written
+     */
+    public List<Packet> getPackets() {
+        return fPackets;
+    }
+
+    /**
+     * @return the number of bytes of packets written
+     */
+    public long getBytes() {
+        long bytes = 0;
+        for (Packet packet : fPackets) {
+            bytes += packet.getSize();
+        }
+        return bytes;
+    }
+
+    /**
+     * @return when the last packet was completely written, in nanoseconds
+     *         from the start of the replay
+     */
+    public long getDuration() {
+        return fPackets.isEmpty() ? fMetadataVisible : fPackets.get(fPackets.size() - 1).getVisible();
+    }
+
+    /**
+     * Write the timeline as comma-separated values: one line per packet,
+     * after a header giving the start of the replay and when the metadata
+     * became visible.
+     *
+     * @param file
+     *            the file, replaced if it exists
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# start_ms=" + fStartMillis + '\n');
+            writer.write("# metadata_visible_ns=" + fMetadataVisible + '\n');
+            writer.write("stream,offset,size,trace_time_ns,due_ns,visible_ns\n");
+            for (Packet packet : fPackets) {
+                writer.write(packet.getStream() + ',' + packet.getOffset() + ',' + packet.getSize() + ',' + packet.getTraceTime() + ','
+                        + packet.getDue() + ',' + packet.getVisible() + '\n');
+            }
+        }
+    }
+}
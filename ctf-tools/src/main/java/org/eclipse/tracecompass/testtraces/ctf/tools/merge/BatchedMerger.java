@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.merge;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A batched merger: instead of picking events one at a time, it takes from
+ * every stream all its events up to a horizon, the smallest timestamp that
+ * ends the next batch of one of the streams, and merges these runs pairwise,
+ * in tight loops over arrays. Every batch holds at least
+ * <code>batchSize</code> events, unless no stream has that many events left.
+ */
+public final class BatchedMerger implements KWayMerger {
+
+    /** Default number of events of a stream that bound a batch */
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    private final int fBatchSize;
+
+    private long[] fKeys = new long[0];
+    private int[] fStreams = new int[0];
+    private long[] fMergedKeys = new long[0];
+    private int[] fMergedStreams = new int[0];
+
+    /**
+     * Constructor
+     *
+     * @param batchSize
+     *            the number of events of a stream that bound a batch, at
+     *            least 1
+     */
+    public BatchedMerger(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        fBatchSize = batchSize;
+    }
+
+    @Override
+    public void merge(long[][] streams, IntConsumer output) {
+        int k = streams.length;
+        int[] positions = new int[k];
+        /* Runs of the batch, as [start, end) in the batch arrays */
+        int[] runStarts = new int[k + 1];
+        while (true) {
+            /*
+             * Any horizon gives a correct merge, it only bounds the batch:
+             * streams with less than a batch left do not lower it, they
+             * would make many small batches over all the streams.
+             */
+            long horizon = Long.MAX_VALUE;
+            boolean empty = true;
+            for (int stream = 0; stream < k; stream++) {
+                int remaining = streams[stream].length - positions[stream];
+                if (remaining > 0) {
+                    empty = false;
+                }
+                if (remaining >= fBatchSize) {
+                    horizon = Math.min(horizon, streams[stream][positions[stream] + fBatchSize - 1]);
+                }
+            }
+            if (empty) {
+                return;
+            }
+            /* Collect the events up to the horizon, one run per stream */
+            int size = 0;
+            int runs = 0;
+            for (int stream = 0; stream < k; stream++) {
+                long[] timestamps = streams[stream];
+                int start = positions[stream];
+                int end = upperBound(timestamps, start, horizon);
+                if (end > start) {
+                    ensureCapacity(size + end - start);
+                    runStarts[runs++] = size;
+                    for (int i = start; i < end; i++) {
+                        fKeys[size] = timestamps[i];
+                        fStreams[size++] = stream;
+                    }
+                    positions[stream] = end;
+                }
+            }
+            runStarts[runs] = size;
+            emit(mergeRuns(runStarts, runs, size), size, output);
+        }
+    }
+
+    /**
+     * Merge adjacent runs pairwise until one is left, and return the array
+     * holding the result: the runs are in stream order, so taking the left
+     * run on equal keys keeps the streams in order.
+     */
+    private int[] mergeRuns(int[] runStarts, int runCount, int size) {
+        long[] keys = fKeys;
+        int[] streams = fStreams;
+        long[] mergedKeys = fMergedKeys;
+        int[] mergedStreams = fMergedStreams;
+        int runs = runCount;
+        while (runs > 1) {
+            int merged = 0;
+            for (int run = 0; run < runs; run += 2) {
+                int start = runStarts[run];
+                if (run + 1 == runs) {
+                    int end = runStarts[run + 1];
+                    System.arraycopy(keys, start, mergedKeys, start, end - start);
+                    System.arraycopy(streams, start, mergedStreams, start, end - start);
+                } else {
+                    int middle = runStarts[run + 1];
+                    int end = runStarts[run + 2];
+                    int i = start;
+                    int j = middle;
+                    int out = start;
+                    while (i < middle && j < end) {
+                        if (keys[j] < keys[i]) {
+                            mergedKeys[out] = keys[j];
+                            mergedStreams[out++] = streams[j++];
+                        } else {
+                            mergedKeys[out] = keys[i];
+                            mergedStreams[out++] = streams[i++];
+                        }
+                    }
+                    System.arraycopy(keys, i, mergedKeys, out, middle - i);
+                    System.arraycopy(streams, i, mergedStreams, out, middle - i);
+                    out += middle - i;
+                    System.arraycopy(keys, j, mergedKeys, out, end - j);
+                    System.arraycopy(streams, j, mergedStreams, out, end - j);
+                }
+                runStarts[merged++] = start;
+            }
+            runStarts[merged] = size;
+            runs = merged;
+            long[] swapKeys = keys;
+            keys = mergedKeys;
+            mergedKeys = swapKeys;
+            int[] swapStreams = streams;
+            streams = mergedStreams;
+            mergedStreams = swapStreams;
+        }
+        return streams;
+    }
+
+    private static void emit(int[] streams, int size, IntConsumer output) {
+        for (int i = 0; i < size; i++) {
+            output.accept(streams[i]);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (fKeys.length < capacity) {
+            int length = Math.max(capacity, fKeys.length * 2);
+            long[] keys = new long[length];
+            int[] streams = new int[length];
+            System.arraycopy(fKeys, 0, keys, 0, fKeys.length);
+            System.arraycopy(fStreams, 0, streams, 0, fStreams.length);
+            fKeys = keys;
+            fStreams = streams;
+            fMergedKeys = new long[length];
+            fMergedStreams = new int[length];
+        }
+    }
+
+    /** The first position after the events at or before a timestamp */
+    private static int upperBound(long[] timestamps, int from, long timestamp) {
+        int low = from;
+        int high = timestamps.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] <= timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
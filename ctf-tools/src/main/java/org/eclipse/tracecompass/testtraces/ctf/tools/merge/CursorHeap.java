@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.merge;
+
+/**
+ * A binary min-heap of cursors, numbered from 0, ordered by key then by
+ * number.
+ */
+final class CursorHeap {
+
+    private final long[] fKeys;
+    private final int[] fHeap;
+    private int fSize;
+
+    CursorHeap(int cursors) {
+        fKeys = new long[cursors];
+        fHeap = new int[cursors];
+    }
+
+    boolean isEmpty() {
+        return fSize == 0;
+    }
+
+    /** The cursor with the smallest key */
+    int peek() {
+        return fHeap[0];
+    }
+
+    long peekKey() {
+        return fKeys[fHeap[0]];
+    }
+
+    void add(int cursor, long key) {
+        fKeys[cursor] = key;
+        fHeap[fSize] = cursor;
+        siftUp(fSize++);
+    }
+
+    /** Change the key of the cursor with the smallest key */
+    void replaceTop(long key) {
+        fKeys[fHeap[0]] = key;
+        siftDown(0);
+    }
+
+    /** Remove the cursor with the smallest key */
+    int poll() {
+        int top = fHeap[0];
+        fHeap[0] = fHeap[--fSize];
+        if (fSize > 0) {
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private boolean less(int a, int b) {
+        return fKeys[a] < fKeys[b] || (fKeys[a] == fKeys[b] && a < b);
+    }
+
+    private void siftUp(int index) {
+        int i = index;
+        int cursor = fHeap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(cursor, fHeap[parent])) {
+                break;
+            }
+            fHeap[i] = fHeap[parent];
+            i = parent;
+        }
+        fHeap[i] = cursor;
+    }
+
+    private void siftDown(int index) {
+        int i = index;
+        int cursor = fHeap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= fSize) {
+                break;
+            }
+            if (child + 1 < fSize && less(fHeap[child + 1], fHeap[child])) {
+                child++;
+            }
+            if (!less(fHeap[child], cursor)) {
+                break;
+            }
+            fHeap[i] = fHeap[child];
+            i = child;
+        }
+        fHeap[i] = cursor;
+    }
+}
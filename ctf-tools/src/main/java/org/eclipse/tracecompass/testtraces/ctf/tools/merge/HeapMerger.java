@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.merge;
+
+import java.util.function.IntConsumer;
+
+/**
+ * The reference merger: a binary heap of the streams keyed by their next
+ * timestamp, <code>O(log k)</code> per event for <code>k</code> streams.
+ */
+public final class HeapMerger implements KWayMerger {
+
+    @Override
+    public void merge(long[][] streams, IntConsumer output) {
+        CursorHeap heap = new CursorHeap(streams.length);
+        int[] positions = new int[streams.length];
+        for (int stream = 0; stream < streams.length; stream++) {
+            if (streams[stream].length > 0) {
+                heap.add(stream, streams[stream][0]);
+            }
+        }
+        while (!heap.isEmpty()) {
+            int stream = heap.peek();
+            output.accept(stream);
+            int position = ++positions[stream];
+            if (position < streams[stream].length) {
+                heap.replaceTop(streams[stream][position]);
+            } else {
+                heap.poll();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.merge;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Merges sorted streams of timestamps into a single order: by timestamp, then
+ * by stream, then by position in the stream, the order of
+ * {@link MergeOrder}.
+ */
+public interface KWayMerger {
+
+    /**
+     * Merge streams.
+     *
+     * @param streams
+     *            the timestamps of the events of every stream, each sorted
+     * @param output
+     *            receives the stream of every event, in merged order
+     */
+    void merge(long[][] streams, IntConsumer output);
+
+    /**
+     * Get a merger by name.
+     *
+     * @param name
+     *            "heap", "tournament" or "batched"
+     * @return the merger
+     * @throws IllegalArgumentException
+     *             if there is no merger of that name
+     */
+    static KWayMerger forName(String name) {
+        switch (name) {
+        case "heap":
+            return new HeapMerger();
+        case "tournament":
+            return new TournamentMerger();
+        case "batched":
+            return new BatchedMerger(BatchedMerger.DEFAULT_BATCH_SIZE);
+        default:
+            throw new IllegalArgumentException("No merger named " + name);
+        }
+    }
+}
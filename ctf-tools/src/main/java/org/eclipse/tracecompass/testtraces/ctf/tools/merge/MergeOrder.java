@@ -0,0 +1,339 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.merge;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+
+/**
+ * The expected global order of the events of a trace: the sequence of the
+ * streams of its events, sorted by timestamp, then by stream, then by
+ * position in the stream, run-length encoded. A stream is an index in
+ * {@link #getStreams()}.
+ *
+ * The file is big endian. A 32-byte header (magic, major and minor version,
+ * number of streams, number of events, number of runs) is followed by the
+ * stream file paths relative to the trace directory (length and UTF-8 bytes),
+ * then by the runs, each an unsigned LEB128 stream followed by an unsigned
+ * LEB128 length.
+ */
+public final class MergeOrder {
+
+    /** Magic number of the merge order files */
+    public static final int MAGIC = 0x4D52474F;
+
+    /** Major version written */
+    public static final int MAJOR = 1;
+
+    /** Minor version written */
+    public static final int MINOR = 0;
+
+    /** Name of the merge order file of a trace */
+    public static final String FILE_NAME = "merge.order";
+
+    private static final int HEADER_SIZE = 32;
+
+    private final List<String> fStreams;
+    private final int[] fRunStreams;
+    private final int[] fRunLengths;
+    private final long fEvents;
+
+    /**
+     * Builds a merge order one event at a time.
+     */
+    public static final class Builder implements IntConsumer {
+
+        private final List<String> fStreams;
+        private int[] fRunStreams = new int[64];
+        private int[] fRunLengths = new int[64];
+        private int fRuns;
+        private long fEvents;
+
+        /**
+         * Constructor
+         *
+         * @param streams
+         *            the stream file paths, relative to the trace directory
+         */
+        public Builder(List<String> streams) {
+            fStreams = Collections.unmodifiableList(new ArrayList<>(streams));
+        }
+
+        /**
+         * Add the next event.
+         *
+         * @param stream
+         *            the index of the stream of the event
+         */
+        @Override
+        public void accept(int stream) {
+            if (stream < 0 || stream >= fStreams.size()) {
+                throw new IllegalArgumentException("No stream " + stream);
+            }
+            fEvents++;
+            if (fRuns > 0 && fRunStreams[fRuns - 1] == stream && fRunLengths[fRuns - 1] < Integer.MAX_VALUE) {
+                fRunLengths[fRuns - 1]++;
+                return;
+            }
+            if (fRuns == fRunStreams.length) {
+                fRunStreams = Arrays.copyOf(fRunStreams, fRuns * 2);
+                fRunLengths = Arrays.copyOf(fRunLengths, fRuns * 2);
+            }
+            fRunStreams[fRuns] = stream;
+            fRunLengths[fRuns] = 1;
+            fRuns++;
+        }
+
+        /**
+         * @return the merge order of the events added so far
+         */
+        public MergeOrder build() {
+            return new MergeOrder(fStreams, Arrays.copyOf(fRunStreams, fRuns), Arrays.copyOf(fRunLengths, fRuns), fEvents);
+        }
+    }
+
+    private MergeOrder(List<String> streams, int[] runStreams, int[] runLengths, long events) {
+        fStreams = streams;
+        fRunStreams = runStreams;
+        fRunLengths = runLengths;
+        fEvents = events;
+    }
+
+    /**
+     * Read a merge order file.
+     *
+     * @param file
+     *            the merge order file
+     * @return the merge order
+     * @throws IOException
+     *             if the file cannot be read or is not a merge order file
+     */
+    public static MergeOrder read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.BIG_ENDIAN);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new CtfFormatException("Not a merge order file: " + file);
+        }
+        int major = buffer.getInt();
+        int minor = buffer.getInt();
+        if (major != MAJOR) {
+            throw new CtfFormatException("Unsupported merge order version " + major + '.' + minor + " in " + file);
+        }
+        int streamCount = buffer.getInt();
+        long events = buffer.getLong();
+        long runs = buffer.getLong();
+        try {
+            List<String> streams = new ArrayList<>(streamCount);
+            for (int i = 0; i < streamCount; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                streams.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            /* A run takes at least two bytes */
+            if (runs < 0 || runs > buffer.remaining() / 2) {
+                throw new CtfFormatException("Truncated merge order file: " + file);
+            }
+            int[] runStreams = new int[(int) runs];
+            int[] runLengths = new int[(int) runs];
+            long total = 0;
+            for (int i = 0; i < runs; i++) {
+                runStreams[i] = readVarInt(buffer);
+                runLengths[i] = readVarInt(buffer);
+                if (runStreams[i] >= streamCount || runLengths[i] <= 0) {
+                    throw new CtfFormatException("Invalid run " + i + " in merge order file: " + file);
+                }
+                total += runLengths[i];
+            }
+            if (total != events || buffer.hasRemaining()) {
+                throw new CtfFormatException("Inconsistent merge order file: " + file);
+            }
+            return new MergeOrder(Collections.unmodifiableList(streams), runStreams, runLengths, events);
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new CtfFormatException("Truncated merge order file: " + file, e);
+        }
+    }
+
+    /**
+     * Write the merge order to a file.
+     *
+     * @param file
+     *            the merge order file, replaced if it exists
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.BIG_ENDIAN);
+        header.putInt(MAGIC).putInt(MAJOR).putInt(MINOR).putInt(fStreams.size()).putLong(fEvents).putLong(fRunStreams.length);
+        out.write(header.array());
+        for (String stream : fStreams) {
+            byte[] bytes = stream.getBytes(StandardCharsets.UTF_8);
+            out.write(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+            out.write(bytes);
+        }
+        for (int i = 0; i < fRunStreams.length; i++) {
+            writeVarInt(out, fRunStreams[i]);
+            writeVarInt(out, fRunLengths[i]);
+        }
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, out.toByteArray());
+    }
+
+    private static int readVarInt(ByteBuffer buffer) throws CtfFormatException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new CtfFormatException("Invalid variable-length integer in merge order file");
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.write((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.write(remaining);
+    }
+
+    /**
+     * @return the stream file paths, relative to the trace directory
+     */
+    public List<String> getStreams() {
+        return fStreams;
+    }
+
+    /**
+     * @return the number of events
+     */
+    public long getEventCount() {
+        return fEvents;
+    }
+
+    /**
+     * @return the number of runs of events of the same stream
+     */
+    public int getRunCount() {
+        return fRunStreams.length;
+    }
+
+    /**
+     * @param run
+     *            the index of the run
+     * @return the stream of the events of the run
+     */
+    public int getRunStream(int run) {
+        return fRunStreams[run];
+    }
+
+    /**
+     * @param run
+     *            the index of the run
+     * @return the number of events of the run
+     */
+    public int getRunLength(int run) {
+        return fRunLengths[run];
+    }
+
+    /**
+     * Send the stream of every event, in order.
+     *
+     * @param consumer
+     *            receives the stream of every event
+     */
+    public void forEach(IntConsumer consumer) {
+        for (int run = 0; run < fRunStreams.length; run++) {
+            for (int i = 0; i < fRunLengths[run]; i++) {
+                consumer.accept(fRunStreams[run]);
+            }
+        }
+    }
+
+    /**
+     * Find the first event whose stream differs from another merge order, to
+     * report where a merge goes wrong.
+     *
+     * @param other
+     *            the other merge order
+     * @return the index of the first differing event, -1 if the orders are
+     *         the same
+     */
+    public long mismatch(MergeOrder other) {
+        long event = 0;
+        int run = 0;
+        int otherRun = 0;
+        int used = 0;
+        int otherUsed = 0;
+        while (run < fRunStreams.length && otherRun < other.fRunStreams.length) {
+            if (fRunStreams[run] != other.fRunStreams[otherRun]) {
+                return event;
+            }
+            int length = Math.min(fRunLengths[run] - used, other.fRunLengths[otherRun] - otherUsed);
+            event += length;
+            used += length;
+            otherUsed += length;
+            if (used == fRunLengths[run]) {
+                run++;
+                used = 0;
+            }
+            if (otherUsed == other.fRunLengths[otherRun]) {
+                otherRun++;
+                otherUsed = 0;
+            }
+        }
+        return fEvents == other.fEvents ? -1 : event;
+    }
+
+    @Override
+    public int hashCode() {
+        return fStreams.hashCode() * 31 + Arrays.hashCode(fRunStreams) * 17 + Arrays.hashCode(fRunLengths);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MergeOrder)) {
+            return false;
+        }
+        MergeOrder other = (MergeOrder) obj;
+        return fStreams.equals(other.fStreams) && mismatch(other) < 0;
+    }
+
+    @Override
+    public String toString() {
+        return "MergeOrder [streams=" + fStreams.size() + ", events=" + fEvents + ", runs=" + fRunStreams.length + "]";
+    }
+}
@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.merge;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * Generates the {@link MergeOrder} of CTF traces with the
+ * {@link TraceMerger}.
+ *
+ * Used at build time to generate the expected merge order of every test
+ * trace:
+ *
+ * <pre>
+ * java MergeOrderGenerator &lt;traces root&gt; &lt;output directory&gt;
+ * </pre>
+ *
+ * The merge order of the trace <code>&lt;root&gt;/a/b</code> is written to
+ * <code>&lt;output&gt;/a/b/merge.order</code>. A trace whose metadata cannot
+ * be parsed, or a stream that cannot be decoded to the end, fails the
+ * generation.
+ */
+public final class MergeOrderGenerator {
+
+    private MergeOrderGenerator() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Generate the merge order of all the traces of a directory tree.
+     *
+     * @param args
+     *            the root directory of the traces and the output directory
+     * @throws IOException
+     *             if the tree cannot be walked, a trace cannot be decoded or a
+     *             merge order cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: MergeOrderGenerator <traces root> <output directory>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int traces = generateTree(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Generated the merge order of " + traces + " traces in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Generate the merge order of all the traces of a directory tree.
+     *
+     * @param root
+     *            the root directory
+     * @param output
+     *            the output directory
+     * @return the number of merged traces
+     * @throws IOException
+     *             if the tree cannot be walked, a trace cannot be decoded or a
+     *             merge order cannot be written
+     */
+    public static int generateTree(Path root, Path output) throws IOException {
+        List<Path> metadataFiles;
+        try (Stream<Path> walk = Files.walk(root)) {
+            metadataFiles = walk.filter(MetadataReader::isMetadata).sorted().collect(Collectors.toList());
+        }
+        int count = 0;
+        for (Path metadataFile : metadataFiles) {
+            Path traceDirectory = metadataFile.getParent();
+            CtfMetadata metadata = MetadataReader.read(traceDirectory);
+            MergeOrder order = TraceMerger.merge(metadata, traceDirectory);
+            order.write(output.resolve(root.relativize(traceDirectory).toString()).resolve(MergeOrder.FILE_NAME));
+            count++;
+        }
+        return count;
+    }
+}
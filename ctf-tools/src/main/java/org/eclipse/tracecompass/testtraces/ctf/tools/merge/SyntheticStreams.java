@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.merge;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Splits the events of a trace over many synthetic streams, to merge more
+ * streams than the test traces have. Like the per-CPU or per-thread streams
+ * of a real trace, the streams are uneven: the share of stream
+ * <code>s</code> is proportional to <code>1 / (s + 1)</code>, and every
+ * stream but the first is only active during a random window of the trace.
+ */
+public final class SyntheticStreams {
+
+    private SyntheticStreams() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Split sorted timestamps over streams.
+     *
+     * @param timestamps
+     *            the timestamps of the events, sorted
+     * @param streams
+     *            the number of streams, at least 1
+     * @param seed
+     *            the seed of the split: the same seed gives the same streams
+     * @return the timestamps of the events of every stream, each sorted
+     */
+    public static long[][] split(long[] timestamps, int streams, long seed) {
+        if (streams < 1) {
+            throw new IllegalArgumentException("At least one stream is needed: " + streams);
+        }
+        Random random = new Random(seed);
+        double[] cumulative = new double[streams];
+        double total = 0;
+        for (int stream = 0; stream < streams; stream++) {
+            total += 1.0 / (stream + 1);
+            cumulative[stream] = total;
+        }
+        /* The window of every stream, as event positions */
+        int[] windowStarts = new int[streams];
+        int[] windowEnds = new int[streams];
+        windowEnds[0] = timestamps.length;
+        for (int stream = 1; stream < streams; stream++) {
+            int a = random.nextInt(timestamps.length + 1);
+            int b = random.nextInt(timestamps.length + 1);
+            windowStarts[stream] = Math.min(a, b);
+            windowEnds[stream] = Math.max(a, b);
+        }
+        int[] assignment = new int[timestamps.length];
+        int[] counts = new int[streams];
+        for (int i = 0; i < timestamps.length; i++) {
+            int stream = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            stream = Math.min(stream < 0 ? -stream - 1 : stream, streams - 1);
+            if (i < windowStarts[stream] || i >= windowEnds[stream]) {
+                stream = 0;
+            }
+            assignment[i] = stream;
+            counts[stream]++;
+        }
+        long[][] result = new long[streams][];
+        for (int stream = 0; stream < streams; stream++) {
+            result[stream] = new long[counts[stream]];
+        }
+        int[] positions = new int[streams];
+        for (int i = 0; i < timestamps.length; i++) {
+            int stream = assignment[i];
+            result[stream][positions[stream]++] = timestamps[i];
+        }
+        return result;
+    }
+}
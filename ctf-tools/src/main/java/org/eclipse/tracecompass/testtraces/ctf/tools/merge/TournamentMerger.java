@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.merge;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A tournament tree merger: a tree of losers over the streams, where taking
+ * an event replays only the matches on the path of its stream,
+ * <code>log k</code> comparisons per event for <code>k</code> streams, about
+ * half as many as a heap.
+ */
+public final class TournamentMerger implements KWayMerger {
+
+    private long[][] fStreams;
+    private int[] fPositions;
+
+    @Override
+    public void merge(long[][] streams, IntConsumer output) {
+        int k = streams.length;
+        if (k == 0) {
+            return;
+        }
+        fStreams = streams;
+        fPositions = new int[k];
+        /* Node i > 0 holds the loser of its match, node 0 the winner */
+        int[] tree = new int[k];
+        int winner = build(tree, 1, k);
+        tree[0] = winner;
+        while (!isExhausted(tree[0])) {
+            int stream = tree[0];
+            output.accept(stream);
+            fPositions[stream]++;
+            /* Replay the matches from the leaf of the stream to the root */
+            int candidate = stream;
+            for (int node = (stream + k) >>> 1; node > 0; node >>>= 1) {
+                if (beats(tree[node], candidate)) {
+                    int loser = candidate;
+                    candidate = tree[node];
+                    tree[node] = loser;
+                }
+            }
+            tree[0] = candidate;
+        }
+        fStreams = null;
+        fPositions = null;
+    }
+
+    /**
+     * Play the matches of the subtree of a node, leaves being the nodes
+     * <code>k</code> to <code>2k - 1</code>, and return its winner.
+     */
+    private int build(int[] tree, int node, int k) {
+        if (node >= k) {
+            return node - k;
+        }
+        int left = build(tree, 2 * node, k);
+        int right = 2 * node + 1 < 2 * k ? build(tree, 2 * node + 1, k) : left;
+        if (beats(right, left)) {
+            tree[node] = left;
+            return right;
+        }
+        tree[node] = right;
+        return left;
+    }
+
+    private boolean isExhausted(int stream) {
+        return fPositions[stream] >= fStreams[stream].length;
+    }
+
+    /** Whether the next event of a stream comes before the one of another */
+    private boolean beats(int a, int b) {
+        if (isExhausted(a)) {
+            return false;
+        }
+        if (isExhausted(b)) {
+            return true;
+        }
+        long keyA = fStreams[a][fPositions[a]];
+        long keyB = fStreams[b][fPositions[b]];
+        return keyA < keyB || (keyA == keyB && a < b);
+    }
+}
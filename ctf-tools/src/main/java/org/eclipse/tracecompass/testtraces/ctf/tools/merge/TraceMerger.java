@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.merge;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+
+/**
+ * The reference merge of the streams of a CTF trace: a heap of packet readers,
+ * one per stream file, keyed by the timestamp of their next event, in
+ * nanoseconds. It decodes the streams as it merges them and never holds more
+ * than one event per stream.
+ */
+public final class TraceMerger {
+
+    private TraceMerger() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Merge the streams of a trace.
+     *
+     * @param metadata
+     *            the metadata of the trace
+     * @param traceDirectory
+     *            the trace directory
+     * @return the merge order of the events of the trace
+     * @throws IOException
+     *             if the trace directory cannot be listed or a stream cannot
+     *             be decoded
+     */
+    public static MergeOrder merge(CtfMetadata metadata, Path traceDirectory) throws IOException {
+        List<Path> files = CtfIndexer.getStreamFiles(traceDirectory);
+        List<String> streams = new ArrayList<>();
+        for (Path file : files) {
+            streams.add(traceDirectory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/"));
+        }
+        MergeOrder.Builder builder = new MergeOrder.Builder(streams);
+        PacketReader[] readers = new PacketReader[files.size()];
+        CursorHeap heap = new CursorHeap(files.size());
+        try {
+            for (int stream = 0; stream < readers.length; stream++) {
+                readers[stream] = new PacketReader(metadata, files.get(stream));
+                if (next(readers[stream])) {
+                    heap.add(stream, timestamp(readers[stream]));
+                }
+            }
+            while (!heap.isEmpty()) {
+                int stream = heap.peek();
+                builder.accept(stream);
+                if (next(readers[stream])) {
+                    heap.replaceTop(timestamp(readers[stream]));
+                } else {
+                    heap.poll();
+                }
+            }
+        } finally {
+            for (PacketReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Decode the timestamps of the events of a stream file, the input of a
+     * {@link KWayMerger}.
+     *
+     * @param metadata
+     *            the metadata of the trace
+     * @param streamFile
+     *            the stream file
+     * @return the timestamps of the events of the stream, in nanoseconds
+     * @throws IOException
+     *             if the stream cannot be decoded
+     */
+    public static long[] readTimestamps(CtfMetadata metadata, Path streamFile) throws IOException {
+        long[] timestamps = new long[1024];
+        int count = 0;
+        try (PacketReader reader = new PacketReader(metadata, streamFile)) {
+            while (next(reader)) {
+                if (count == timestamps.length) {
+                    timestamps = Arrays.copyOf(timestamps, count * 2);
+                }
+                timestamps[count++] = timestamp(reader);
+            }
+        }
+        return Arrays.copyOf(timestamps, count);
+    }
+
+    /** Move to the next event, in this packet or the next non-empty one */
+    private static boolean next(PacketReader reader) throws IOException {
+        while (!reader.nextEvent()) {
+            if (!reader.nextPacket()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long timestamp(PacketReader reader) {
+        ClockClass clock = reader.getClock();
+        return clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+    }
+}
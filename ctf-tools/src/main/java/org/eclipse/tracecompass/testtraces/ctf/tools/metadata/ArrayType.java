@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+/**
+ * Array (static length) or sequence (dynamic length). Arrays of byte-aligned
+ * 8-bit integers decode to <code>byte[]</code>, other arrays to
+ * <code>Object[]</code>.
+ */
+public class ArrayType extends FieldType {
+
+    private final FieldType fElementType;
+    private final int fLength;
+    private final FieldLocation fLengthLocation;
+
+    /**
+     * Constructor
+     *
+     * @param elementType
+     *            the element type
+     * @param length
+     *            the number of elements, or -1 if dynamic
+     * @param lengthLocation
+     *            the location of the length field if dynamic, null otherwise
+     */
+    public ArrayType(FieldType elementType, int length, FieldLocation lengthLocation) {
+        super(elementType.getAlignment());
+        if ((length < 0) == (lengthLocation == null)) {
+            throw new IllegalArgumentException("Array needs either a length or a length location");
+        }
+        fElementType = elementType;
+        fLength = length;
+        fLengthLocation = lengthLocation;
+    }
+
+    /**
+     * @return the element type
+     */
+    public FieldType getElementType() {
+        return fElementType;
+    }
+
+    /**
+     * @return the number of elements, -1 if dynamic
+     */
+    public int getLength() {
+        return fLength;
+    }
+
+    /**
+     * @return the location of the length field, null if the length is static
+     */
+    public FieldLocation getLengthLocation() {
+        return fLengthLocation;
+    }
+
+    /**
+     * @return true if the elements are 8-bit, byte aligned integers
+     */
+    public boolean isByteArray() {
+        if (!(fElementType instanceof IntegerType)) {
+            return false;
+        }
+        IntegerType element = (IntegerType) fElementType;
+        return element.getSize() == 8 && element.getAlignment() % 8 == 0;
+    }
+}
@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+/**
+ * CTF 2 sequence of bytes, with a static or dynamic length: BLOBs and
+ * static/dynamic-length strings.
+ */
+public class BlobType extends FieldType {
+
+    private final int fLength;
+    private final FieldLocation fLengthLocation;
+    private final boolean fText;
+
+    /**
+     * Constructor
+     *
+     * @param length
+     *            the length in bytes, or -1 if dynamic
+     * @param lengthLocation
+     *            the location of the length field if dynamic, null otherwise
+     * @param text
+     *            true for strings, which are decoded as UTF-8 up to the first
+     *            null byte
+     */
+    public BlobType(int length, FieldLocation lengthLocation, boolean text) {
+        super(8);
+        if ((length < 0) == (lengthLocation == null)) {
+            throw new IllegalArgumentException("Blob needs either a length or a length location");
+        }
+        fLength = length;
+        fLengthLocation = lengthLocation;
+        fText = text;
+    }
+
+    /**
+     * @return the length in bytes, -1 if dynamic
+     */
+    public int getLength() {
+        return fLength;
+    }
+
+    /**
+     * @return the location of the length field, null if the length is static
+     */
+    public FieldLocation getLengthLocation() {
+        return fLengthLocation;
+    }
+
+    /**
+     * @return true if this is a string
+     */
+    public boolean isText() {
+        return fText;
+    }
+}
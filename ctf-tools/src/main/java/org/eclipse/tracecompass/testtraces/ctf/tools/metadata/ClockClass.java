@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+/**
+ * A clock of the trace.
+ */
+public final class ClockClass {
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    private final String fName;
+    private final String fDescription;
+    private final long fFrequency;
+    private final long fOffsetSeconds;
+    private final long fOffsetCycles;
+    private final long fPrecision;
+    private final boolean fAbsolute;
+    private final String fUuid;
+
+    /**
+     * Constructor
+     *
+     * @param name
+     *            the clock name
+     * @param description
+     *            the description, may be null
+     * @param frequency
+     *            the frequency in Hz
+     * @param offsetSeconds
+     *            the offset from the origin, seconds part
+     * @param offsetCycles
+     *            the offset from the origin, cycles part
+     * @param precision
+     *            the precision, in cycles
+     * @param absolute
+     *            true if the origin is the Unix epoch
+     * @param uuid
+     *            the clock UUID, may be null
+     */
+    public ClockClass(String name, String description, long frequency, long offsetSeconds, long offsetCycles,
+            long precision, boolean absolute, String uuid) {
+        fName = name;
+        fDescription = description;
+        fFrequency = frequency;
+        fOffsetSeconds = offsetSeconds;
+        fOffsetCycles = offsetCycles;
+        fPrecision = precision;
+        fAbsolute = absolute;
+        fUuid = uuid;
+    }
+
+    /**
+     * @return the name
+     */
+    public String getName() {
+        return fName;
+    }
+
+    /**
+     * @return the description, may be null
+     */
+    public String getDescription() {
+        return fDescription;
+    }
+
+    /**
+     * @return the frequency in Hz
+     */
+    public long getFrequency() {
+        return fFrequency;
+    }
+
+    /**
+     * @return the offset from the origin, seconds part
+     */
+    public long getOffsetSeconds() {
+        return fOffsetSeconds;
+    }
+
+    /**
+     * @return the offset from the origin, cycles part
+     */
+    public long getOffsetCycles() {
+        return fOffsetCycles;
+    }
+
+    /**
+     * @return the precision, in cycles
+     */
+    public long getPrecision() {
+        return fPrecision;
+    }
+
+    /**
+     * @return true if the origin is the Unix epoch
+     */
+    public boolean isAbsolute() {
+        return fAbsolute;
+    }
+
+    /**
+     * @return the UUID, may be null
+     */
+    public String getUuid() {
+        return fUuid;
+    }
+
+    /**
+     * Convert a clock value to nanoseconds from the origin, including the
+     * clock offset.
+     *
+     * @param cycles
+     *            the clock value
+     * @return the time in nanoseconds
+     */
+    public long toNanos(long cycles) {
+        long total = fOffsetCycles + cycles;
+        if (fFrequency == NANOS_PER_SECOND) {
+            return fOffsetSeconds * NANOS_PER_SECOND + total;
+        }
+        long seconds = total / fFrequency;
+        long remainder = total % fFrequency;
+        return (fOffsetSeconds + seconds) * NANOS_PER_SECOND + remainder * NANOS_PER_SECOND / fFrequency;
+    }
+}
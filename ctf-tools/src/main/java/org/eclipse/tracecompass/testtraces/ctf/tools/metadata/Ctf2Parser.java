@@ -0,0 +1,413 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parser of CTF 2 metadata: a JSON text sequence of fragments, each one
+ * preceded by a record separator (0x1E).
+ */
+public final class Ctf2Parser {
+
+    /** Separator of the JSON text sequence */
+    public static final char RECORD_SEPARATOR = '\u001e';
+
+    private final Map<String, FieldType> fAliases = new HashMap<>();
+    private final Map<String, ClockClass> fClocks = new LinkedHashMap<>();
+    private final Map<Long, Map<String, Object>> fStreamFragments = new LinkedHashMap<>();
+    private final Map<Long, Map<Long, EventClass>> fEvents = new LinkedHashMap<>();
+    private Map<String, Object> fTraceFragment = Collections.emptyMap();
+    private String fUuid;
+    private ByteOrder fByteOrder;
+
+    private Ctf2Parser() {
+        // Use parse()
+    }
+
+    /**
+     * Parse CTF 2 metadata.
+     *
+     * @param text
+     *            the metadata text
+     * @return the metadata
+     * @throws CtfFormatException
+     *             if the metadata is invalid or unsupported
+     */
+    public static CtfMetadata parse(String text) throws CtfFormatException {
+        Ctf2Parser parser = new Ctf2Parser();
+        try {
+            for (String fragment : text.split(String.valueOf(RECORD_SEPARATOR))) {
+                if (!fragment.trim().isEmpty()) {
+                    parser.addFragment(asObject(Json.parse(fragment)));
+                }
+            }
+            return parser.build();
+        } catch (IllegalArgumentException | ClassCastException e) {
+            throw new CtfFormatException("Invalid CTF 2 metadata: " + e.getMessage(), e);
+        }
+    }
+
+    private void addFragment(Map<String, Object> fragment) throws CtfFormatException {
+        String type = getString(fragment, "type");
+        switch (type) {
+        case "preamble":
+            fUuid = toUuid(fragment.get("uuid"));
+            break;
+        case "field-class-alias":
+            fAliases.put(getString(fragment, "name"), parseType(fragment.get("field-class")));
+            break;
+        case "trace-class":
+            fTraceFragment = fragment;
+            break;
+        case "clock-class":
+            addClock(fragment);
+            break;
+        case "data-stream-class":
+            long streamId = getLong(fragment, "id", 0);
+            fStreamFragments.put(streamId, fragment);
+            fEvents.putIfAbsent(streamId, new LinkedHashMap<>());
+            break;
+        case "event-record-class":
+            addEvent(fragment);
+            break;
+        default:
+            /* Unknown fragments are ignored, as the specification requires */
+            break;
+        }
+    }
+
+    private void addClock(Map<String, Object> fragment) throws CtfFormatException {
+        long seconds = 0;
+        long cycles = 0;
+        Object offset = fragment.get("offset-from-origin");
+        if (offset != null) {
+            seconds = getLong(asObject(offset), "seconds", 0);
+            cycles = getLong(asObject(offset), "cycles", 0);
+        }
+        String name = fragment.containsKey("name") ? getString(fragment, "name") : getString(fragment, "id");
+        Object description = fragment.get("description");
+        fClocks.put(name, new ClockClass(name, description == null ? null : description.toString(),
+                getLong(fragment, "frequency", 1000000000L), seconds, cycles, getLong(fragment, "precision", 0),
+                fragment.get("origin") != null, toUuid(fragment.get("uuid"))));
+    }
+
+    private void addEvent(Map<String, Object> fragment) throws CtfFormatException {
+        long streamId = getLong(fragment, "data-stream-class-id", 0);
+        long id = getLong(fragment, "id", 0);
+        Map<Long, EventClass> events = fEvents.get(streamId);
+        if (events == null) {
+            throw new CtfFormatException("Event record class " + id + " refers to unknown data stream class " + streamId);
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : fragment.entrySet()) {
+            if (!entry.getKey().endsWith("-field-class")) {
+                attributes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        Object name = fragment.get("name");
+        events.put(id, new EventClass(id, name == null ? "" : name.toString(), streamId,
+                parseStruct(fragment.get("specific-context-field-class")),
+                parseStruct(fragment.get("payload-field-class")), attributes));
+    }
+
+    private CtfMetadata build() throws CtfFormatException {
+        StructType packetHeader = parseStruct(fTraceFragment.get("packet-header-field-class"));
+        Map<Long, StreamClass> streams = new LinkedHashMap<>();
+        for (Map.Entry<Long, Map<String, Object>> entry : fStreamFragments.entrySet()) {
+            Map<String, Object> fragment = entry.getValue();
+            Object clock = fragment.get("default-clock-class-name");
+            if (clock == null) {
+                clock = fragment.get("default-clock-class-id");
+            }
+            streams.put(entry.getKey(), new StreamClass(entry.getKey(),
+                    parseStruct(fragment.get("packet-context-field-class")),
+                    parseStruct(fragment.get("event-record-header-field-class")),
+                    parseStruct(fragment.get("event-record-common-context-field-class")),
+                    clock == null ? null : clock.toString(), fEvents.get(entry.getKey())));
+        }
+        Map<String, Object> environment = new LinkedHashMap<>();
+        Object env = fTraceFragment.get("environment");
+        if (env != null) {
+            environment.putAll(asObject(env));
+        }
+        String uuid = fTraceFragment.containsKey("uuid") ? toUuid(fTraceFragment.get("uuid")) : fUuid;
+        return new CtfMetadata(2, 0, uuid, fByteOrder == null ? ByteOrder.LITTLE_ENDIAN : fByteOrder,
+                packetHeader, environment, fClocks, streams);
+    }
+
+    // ------------------------------------------------------------------------
+    // Field classes
+    // ------------------------------------------------------------------------
+
+    private StructType parseStruct(Object json) throws CtfFormatException {
+        if (json == null) {
+            return null;
+        }
+        FieldType type = parseType(json);
+        if (!(type instanceof StructType)) {
+            throw new CtfFormatException("Expected a structure field class");
+        }
+        return (StructType) type;
+    }
+
+    private FieldType parseType(Object json) throws CtfFormatException {
+        if (json instanceof String) {
+            FieldType alias = fAliases.get(json);
+            if (alias == null) {
+                throw new CtfFormatException("Unknown field class alias " + json);
+            }
+            return alias;
+        }
+        Map<String, Object> object = asObject(json);
+        String type = getString(object, "type");
+        switch (type) {
+        case "fixed-length-bit-array":
+        case "fixed-length-boolean":
+        case "fixed-length-unsigned-integer":
+        case "fixed-length-signed-integer":
+            return parseInteger(object, type.endsWith("-signed-integer"));
+        case "fixed-length-unsigned-enumeration":
+        case "fixed-length-signed-enumeration":
+            return new EnumType(parseInteger(object, type.endsWith("-signed-enumeration")), parseMappings(object));
+        case "fixed-length-floating-point-number":
+            return parseFloat(object);
+        case "variable-length-unsigned-integer":
+        case "variable-length-unsigned-enumeration":
+            return new VarIntType(false);
+        case "variable-length-signed-integer":
+        case "variable-length-signed-enumeration":
+            return new VarIntType(true);
+        case "null-terminated-string":
+            return StringType.UTF8;
+        case "static-length-string":
+            return new BlobType((int) getLong(object, "length", -1), null, true);
+        case "dynamic-length-string":
+            return new BlobType(-1, parseLocation(object.get("length-field-location")), true);
+        case "static-length-blob":
+            return new BlobType((int) getLong(object, "length", -1), null, false);
+        case "dynamic-length-blob":
+            return new BlobType(-1, parseLocation(object.get("length-field-location")), false);
+        case "static-length-array":
+            return new ArrayType(parseType(object.get("element-field-class")), (int) getLong(object, "length", -1), null);
+        case "dynamic-length-array":
+            return new ArrayType(parseType(object.get("element-field-class")), -1,
+                    parseLocation(object.get("length-field-location")));
+        case "structure":
+            return parseStructure(object);
+        case "optional":
+            return new OptionalType(parseLocation(object.get("selector-field-location")),
+                    parseType(object.get("field-class")), parseRanges(object.get("selector-field-ranges")));
+        case "variant":
+            return parseVariant(object);
+        default:
+            throw new CtfFormatException("Unsupported field class type " + type);
+        }
+    }
+
+    private IntegerType parseInteger(Map<String, Object> object, boolean signed) throws CtfFormatException {
+        int size = (int) getLong(object, "length", -1);
+        ByteOrder byteOrder = parseByteOrder(object);
+        if (fByteOrder == null) {
+            fByteOrder = byteOrder;
+        }
+        int base = (int) getLong(object, "preferred-display-base", 10);
+        return new IntegerType(size, signed, byteOrder, (int) getLong(object, "alignment", 1), base,
+                IntegerType.ENCODING_NONE, null);
+    }
+
+    private FloatType parseFloat(Map<String, Object> object) throws CtfFormatException {
+        int size = (int) getLong(object, "length", -1);
+        ByteOrder byteOrder = parseByteOrder(object);
+        int alignment = (int) getLong(object, "alignment", 1);
+        if (size == 32) {
+            return new FloatType(8, 24, byteOrder, alignment);
+        }
+        if (size == 64) {
+            return new FloatType(11, 53, byteOrder, alignment);
+        }
+        throw new CtfFormatException("Unsupported floating point number length " + size);
+    }
+
+    private static ByteOrder parseByteOrder(Map<String, Object> object) throws CtfFormatException {
+        String byteOrder = getString(object, "byte-order");
+        switch (byteOrder) {
+        case "little-endian":
+            return ByteOrder.LITTLE_ENDIAN;
+        case "big-endian":
+            return ByteOrder.BIG_ENDIAN;
+        default:
+            throw new CtfFormatException("Invalid byte order " + byteOrder);
+        }
+    }
+
+    private static List<EnumType.Mapping> parseMappings(Map<String, Object> object) throws CtfFormatException {
+        List<EnumType.Mapping> mappings = new ArrayList<>();
+        for (Map.Entry<String, Object> mapping : asObject(object.get("mappings")).entrySet()) {
+            long[] ranges = parseRanges(mapping.getValue());
+            for (int i = 0; i < ranges.length; i += 2) {
+                mappings.add(new EnumType.Mapping(mapping.getKey(), ranges[i], ranges[i + 1]));
+            }
+        }
+        return mappings;
+    }
+
+    private StructType parseStructure(Map<String, Object> object) throws CtfFormatException {
+        List<StructType.Member> members = new ArrayList<>();
+        Object memberClasses = object.get("member-classes");
+        if (memberClasses != null) {
+            for (Object member : asArray(memberClasses)) {
+                Map<String, Object> memberObject = asObject(member);
+                Object fieldClass = memberObject.get("field-class");
+                members.add(new StructType.Member(getString(memberObject, "name"), parseType(fieldClass), parseRole(fieldClass)));
+            }
+        }
+        return new StructType(members, (int) getLong(object, "minimum-alignment", 1));
+    }
+
+    private FieldType parseVariant(Map<String, Object> object) throws CtfFormatException {
+        List<VariantType.Option> options = new ArrayList<>();
+        for (Object option : asArray(object.get("options"))) {
+            Map<String, Object> optionObject = asObject(option);
+            Object name = optionObject.get("name");
+            options.add(new VariantType.Option(name == null ? "" : name.toString(),
+                    parseType(optionObject.get("field-class")), parseRanges(optionObject.get("selector-field-ranges"))));
+        }
+        return new VariantType(parseLocation(object.get("selector-field-location")), options);
+    }
+
+    /**
+     * Only integer field classes have roles that matter for decoding; the
+     * first known role wins.
+     */
+    private static FieldRole parseRole(Object fieldClass) {
+        if (!(fieldClass instanceof Map)) {
+            return null;
+        }
+        Object roles = ((Map<?, ?>) fieldClass).get("roles");
+        if (roles instanceof List) {
+            for (Object role : (List<?>) roles) {
+                FieldRole fieldRole = FieldRole.fromCtf2Name(String.valueOf(role));
+                if (fieldRole != null) {
+                    return fieldRole;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Field locations are either an array whose first element is the origin
+     * (as written by LTTng and barectf), or an object with "origin" and
+     * "path" members.
+     */
+    private static FieldLocation parseLocation(Object json) throws CtfFormatException {
+        Scope origin;
+        List<Object> path;
+        if (json instanceof List) {
+            List<Object> array = asArray(json);
+            if (array.size() < 2) {
+                throw new CtfFormatException("Invalid field location " + json);
+            }
+            origin = Scope.fromCtf2Name(String.valueOf(array.get(0)));
+            path = array.subList(origin == null ? 0 : 1, array.size());
+        } else {
+            Map<String, Object> object = asObject(json);
+            Object originName = object.get("origin");
+            origin = originName == null ? null : Scope.fromCtf2Name(originName.toString());
+            path = asArray(object.get("path"));
+        }
+        String[] names = new String[path.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = String.valueOf(path.get(i));
+        }
+        return new FieldLocation(origin, names);
+    }
+
+    private static long[] parseRanges(Object json) throws CtfFormatException {
+        if (json == null) {
+            return null;
+        }
+        List<Object> array = asArray(json);
+        long[] ranges = new long[array.size() * 2];
+        for (int i = 0; i < array.size(); i++) {
+            List<Object> range = asArray(array.get(i));
+            if (range.size() != 2) {
+                throw new CtfFormatException("Invalid integer range " + range);
+            }
+            ranges[2 * i] = toLong(range.get(0));
+            ranges[2 * i + 1] = toLong(range.get(1));
+        }
+        return ranges;
+    }
+
+    // ------------------------------------------------------------------------
+    // JSON helpers
+    // ------------------------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asObject(Object json) throws CtfFormatException {
+        if (!(json instanceof Map)) {
+            throw new CtfFormatException("Expected a JSON object but got " + json);
+        }
+        return (Map<String, Object>) json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Object> asArray(Object json) throws CtfFormatException {
+        if (!(json instanceof List)) {
+            throw new CtfFormatException("Expected a JSON array but got " + json);
+        }
+        return (List<Object>) json;
+    }
+
+    private static String getString(Map<String, Object> object, String key) throws CtfFormatException {
+        Object value = object.get(key);
+        if (!(value instanceof String)) {
+            throw new CtfFormatException("Missing string property " + key);
+        }
+        return (String) value;
+    }
+
+    private static long getLong(Map<String, Object> object, String key, long defaultValue) throws CtfFormatException {
+        Object value = object.get(key);
+        return value == null ? defaultValue : toLong(value);
+    }
+
+    private static long toLong(Object value) throws CtfFormatException {
+        if (!(value instanceof Long)) {
+            throw new CtfFormatException("Expected an integer but got " + value);
+        }
+        return (Long) value;
+    }
+
+    private static String toUuid(Object json) throws CtfFormatException {
+        if (json == null) {
+            return null;
+        }
+        List<Object> bytes = asArray(json);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < bytes.size(); i++) {
+            if (i == 4 || i == 6 || i == 8 || i == 10) {
+                sb.append('-');
+            }
+            sb.append(String.format("%02x", toLong(bytes.get(i)) & 0xff));
+        }
+        return sb.toString();
+    }
+}
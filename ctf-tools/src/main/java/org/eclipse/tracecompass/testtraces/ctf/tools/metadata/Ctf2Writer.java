@@ -0,0 +1,465 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes metadata as CTF 2 metadata, in the dialect of the LTTng CTF 2
+ * traces read by {@link Ctf2Parser}: field locations as arrays starting with
+ * their scope, clock classes referred to by name, and log levels as
+ * babeltrace user attributes.
+ *
+ * The field classes have the same layout as the types of the metadata, so
+ * the stream files of a TSDL trace decode to the same values with its CTF 2
+ * metadata:
+ * <ul>
+ * <li>TSDL roles, implied by the names of the well-known fields, become
+ * explicit roles, and the 16-byte <code>uuid</code> array of the packet
+ * header a BLOB with the metadata stream UUID role;</li>
+ * <li>arrays and sequences of bytes become static and dynamic-length BLOBs,
+ * which also decode to bytes;</li>
+ * <li>variants selected by enumeration labels get the integer ranges of
+ * these labels, and options that no label selects are dropped;</li>
+ * <li>relative field locations that point to a member of the root
+ * structure of a scope are made absolute, the others stay relative to the
+ * structures being decoded.</li>
+ * </ul>
+ */
+public final class Ctf2Writer {
+
+    private static final String BABELTRACE_NAMESPACE = "babeltrace.org,2020";
+
+    /* Names of the TSDL log levels, by value */
+    private static final String[] LOG_LEVELS = { "emergency", "alert", "critical", "error", "warning", "notice", "info",
+            "debug:system", "debug:program", "debug:process", "debug:module", "debug:unit", "debug:function",
+            "debug:line", "debug" };
+
+    private static final int UUID_SIZE = 16;
+
+    private final StructType[] fRoots = new StructType[Scope.values().length];
+    /* The structures being written, the root of the scope first */
+    private final List<StructType> fStack = new ArrayList<>();
+    private Scope fScope;
+
+    private Ctf2Writer() {
+        // Use write()
+    }
+
+    /**
+     * Write metadata as CTF 2 metadata.
+     *
+     * @param metadata
+     *            the metadata, TSDL or CTF 2
+     * @return the CTF 2 metadata text: a JSON text sequence, one fragment per
+     *         line
+     * @throws CtfFormatException
+     *             if the metadata has a field location that cannot be
+     *             resolved, or a variant whose selector is not an integer
+     */
+    public static String write(CtfMetadata metadata) throws CtfFormatException {
+        Ctf2Writer writer = new Ctf2Writer();
+        StringBuilder sb = new StringBuilder();
+
+        Map<String, Object> preamble = new LinkedHashMap<>();
+        preamble.put("type", "preamble");
+        preamble.put("version", 2L);
+        putUuid(preamble, metadata.getUuid());
+        append(sb, preamble);
+
+        Map<String, Object> trace = new LinkedHashMap<>();
+        trace.put("type", "trace-class");
+        putUuid(trace, metadata.getUuid());
+        if (!metadata.getEnvironment().isEmpty()) {
+            trace.put("environment", new LinkedHashMap<>(metadata.getEnvironment()));
+        }
+        writer.putScope(trace, "packet-header-field-class", Scope.PACKET_HEADER, metadata.getPacketHeader());
+        append(sb, trace);
+
+        for (ClockClass clock : metadata.getClocks().values()) {
+            append(sb, writeClock(clock));
+        }
+
+        for (StreamClass stream : metadata.getStreams().values()) {
+            Map<String, Object> streamFragment = new LinkedHashMap<>();
+            streamFragment.put("type", "data-stream-class");
+            streamFragment.put("id", stream.getId());
+            if (stream.getClockName() != null) {
+                streamFragment.put("default-clock-class-name", stream.getClockName());
+            }
+            writer.putScope(streamFragment, "packet-context-field-class", Scope.PACKET_CONTEXT, stream.getPacketContext());
+            writer.putScope(streamFragment, "event-record-header-field-class", Scope.EVENT_HEADER, stream.getEventHeader());
+            writer.putScope(streamFragment, "event-record-common-context-field-class", Scope.EVENT_COMMON_CONTEXT, stream.getEventContext());
+            append(sb, streamFragment);
+
+            for (EventClass event : stream.getEvents().values()) {
+                Map<String, Object> eventFragment = new LinkedHashMap<>();
+                eventFragment.put("type", "event-record-class");
+                eventFragment.put("id", event.getId());
+                eventFragment.put("name", event.getName());
+                eventFragment.put("data-stream-class-id", stream.getId());
+                writer.putScope(eventFragment, "specific-context-field-class", Scope.EVENT_SPECIFIC_CONTEXT, event.getContext());
+                writer.putScope(eventFragment, "payload-field-class", Scope.EVENT_PAYLOAD, event.getPayload());
+                putUserAttributes(eventFragment, event.getAttributes());
+                append(sb, eventFragment);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void append(StringBuilder sb, Map<String, Object> fragment) {
+        sb.append(Ctf2Parser.RECORD_SEPARATOR);
+        Json.write(sb, fragment);
+        sb.append('\n');
+    }
+
+    private static Map<String, Object> writeClock(ClockClass clock) {
+        Map<String, Object> fragment = new LinkedHashMap<>();
+        fragment.put("type", "clock-class");
+        fragment.put("name", clock.getName());
+        if (clock.getDescription() != null) {
+            fragment.put("description", clock.getDescription());
+        }
+        fragment.put("frequency", clock.getFrequency());
+        Map<String, Object> offset = new LinkedHashMap<>();
+        offset.put("seconds", clock.getOffsetSeconds());
+        offset.put("cycles", clock.getOffsetCycles());
+        fragment.put("offset-from-origin", offset);
+        if (clock.getPrecision() != 0) {
+            fragment.put("precision", clock.getPrecision());
+        }
+        if (clock.isAbsolute()) {
+            fragment.put("origin", "unix-epoch");
+        }
+        putUuid(fragment, clock.getUuid());
+        return fragment;
+    }
+
+    private static void putUuid(Map<String, Object> fragment, String uuid) {
+        if (uuid == null) {
+            return;
+        }
+        String hex = uuid.replace("-", "");
+        if (hex.length() != 2 * UUID_SIZE) {
+            return;
+        }
+        List<Object> bytes = new ArrayList<>();
+        for (int i = 0; i < UUID_SIZE; i++) {
+            bytes.add(Long.parseLong(hex.substring(2 * i, 2 * i + 2), 16));
+        }
+        fragment.put("uuid", bytes);
+    }
+
+    /**
+     * The TSDL log level and EMF URI of an event become user attributes, as
+     * babeltrace writes them.
+     */
+    private static void putUserAttributes(Map<String, Object> fragment, Map<String, Object> attributes) {
+        Map<String, Object> babeltrace = new LinkedHashMap<>();
+        Object logLevel = attributes.get("loglevel");
+        if (logLevel instanceof Long) {
+            long level = (Long) logLevel;
+            babeltrace.put("log-level", level >= 0 && level < LOG_LEVELS.length ? LOG_LEVELS[(int) level] : logLevel);
+        }
+        Object emfUri = attributes.get("model.emf.uri");
+        if (emfUri != null) {
+            babeltrace.put("emf-uri", emfUri.toString());
+        }
+        Object userAttributes = attributes.get("user-attributes");
+        if (userAttributes != null) {
+            fragment.put("user-attributes", userAttributes);
+        } else if (!babeltrace.isEmpty()) {
+            Map<String, Object> namespaces = new LinkedHashMap<>();
+            namespaces.put(BABELTRACE_NAMESPACE, babeltrace);
+            fragment.put("user-attributes", namespaces);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Field classes
+    // ------------------------------------------------------------------------
+
+    /**
+     * Write the root structure of a scope. Writing a scope forgets the scopes
+     * that follow it, as decoding does.
+     */
+    private void putScope(Map<String, Object> fragment, String key, Scope scope, StructType type) throws CtfFormatException {
+        for (int i = scope.ordinal(); i < fRoots.length; i++) {
+            fRoots[i] = null;
+        }
+        if (type == null) {
+            return;
+        }
+        fRoots[scope.ordinal()] = type;
+        fScope = scope;
+        fragment.put(key, writeStruct(type));
+    }
+
+    private Map<String, Object> writeStruct(StructType type) throws CtfFormatException {
+        fStack.add(type);
+        try {
+            List<Object> members = new ArrayList<>();
+            for (StructType.Member member : type.getMembers()) {
+                Map<String, Object> fieldClass = writeType(member.getType());
+                FieldRole role = member.getRole();
+                if (role == null && fScope == Scope.PACKET_HEADER && fStack.size() == 1 && member.getName().equals("uuid")
+                        && fieldClass.get("type").equals("static-length-blob")) {
+                    role = FieldRole.METADATA_STREAM_UUID;
+                }
+                if (role != null) {
+                    fieldClass.put("roles", Arrays.asList(role.getCtf2Name()));
+                }
+                Map<String, Object> memberClass = new LinkedHashMap<>();
+                memberClass.put("name", member.getName());
+                memberClass.put("field-class", fieldClass);
+                members.add(memberClass);
+            }
+            Map<String, Object> fieldClass = new LinkedHashMap<>();
+            fieldClass.put("type", "structure");
+            if (type.getMinimumAlignment() > 1) {
+                fieldClass.put("minimum-alignment", (long) type.getMinimumAlignment());
+            }
+            fieldClass.put("member-classes", members);
+            return fieldClass;
+        } finally {
+            fStack.remove(fStack.size() - 1);
+        }
+    }
+
+    private Map<String, Object> writeType(FieldType type) throws CtfFormatException {
+        Map<String, Object> fieldClass = new LinkedHashMap<>();
+        if (type instanceof EnumType) {
+            EnumType enumType = (EnumType) type;
+            fieldClass.put("type", enumType.isSigned() ? "fixed-length-signed-enumeration" : "fixed-length-unsigned-enumeration");
+            putInteger(fieldClass, enumType);
+            Map<String, Object> mappings = new LinkedHashMap<>();
+            for (EnumType.Mapping mapping : enumType.getMappings()) {
+                @SuppressWarnings("unchecked")
+                List<Object> ranges = (List<Object>) mappings.computeIfAbsent(mapping.getLabel(), label -> new ArrayList<>());
+                ranges.add(toRange(mapping.getLow(), mapping.getHigh(), enumType.isSigned()));
+            }
+            fieldClass.put("mappings", mappings);
+        } else if (type instanceof IntegerType) {
+            IntegerType integer = (IntegerType) type;
+            fieldClass.put("type", integer.isSigned() ? "fixed-length-signed-integer" : "fixed-length-unsigned-integer");
+            putInteger(fieldClass, integer);
+        } else if (type instanceof FloatType) {
+            FloatType floatType = (FloatType) type;
+            fieldClass.put("type", "fixed-length-floating-point-number");
+            fieldClass.put("length", (long) floatType.getSize());
+            fieldClass.put("byte-order", toByteOrder(floatType.getByteOrder()));
+            putAlignment(fieldClass, floatType);
+        } else if (type instanceof StringType) {
+            fieldClass.put("type", "null-terminated-string");
+        } else if (type instanceof VarIntType) {
+            fieldClass.put("type", ((VarIntType) type).isSigned() ? "variable-length-signed-integer" : "variable-length-unsigned-integer");
+        } else if (type instanceof BlobType) {
+            BlobType blob = (BlobType) type;
+            String kind = blob.isText() ? "string" : "blob";
+            putLength(fieldClass, kind, blob.getLength(), blob.getLengthLocation());
+        } else if (type instanceof ArrayType) {
+            ArrayType array = (ArrayType) type;
+            if (array.isByteArray() && array.getAlignment() == Byte.SIZE) {
+                putLength(fieldClass, "blob", array.getLength(), array.getLengthLocation());
+            } else {
+                putLength(fieldClass, "array", array.getLength(), array.getLengthLocation());
+                FieldType element = array.getElementType();
+                fieldClass.put("element-field-class", element instanceof StructType ? writeStruct((StructType) element) : writeType(element));
+            }
+        } else if (type instanceof StructType) {
+            return writeStruct((StructType) type);
+        } else if (type instanceof VariantType) {
+            writeVariant(fieldClass, (VariantType) type);
+        } else if (type instanceof OptionalType) {
+            OptionalType optional = (OptionalType) type;
+            fieldClass.put("type", "optional");
+            fieldClass.put("selector-field-location", toLocation(resolve(optional.getSelector()).fLocation));
+            if (optional.getRanges() != null) {
+                fieldClass.put("selector-field-ranges", toRanges(optional.getRanges(), false));
+            }
+            FieldType inner = optional.getType();
+            fieldClass.put("field-class", inner instanceof StructType ? writeStruct((StructType) inner) : writeType(inner));
+        } else {
+            throw new CtfFormatException("Unsupported field type " + type.getClass().getSimpleName());
+        }
+        return fieldClass;
+    }
+
+    private static void putInteger(Map<String, Object> fieldClass, IntegerType integer) {
+        fieldClass.put("length", (long) integer.getSize());
+        fieldClass.put("byte-order", toByteOrder(integer.getByteOrder()));
+        putAlignment(fieldClass, integer);
+        if (integer.getBase() != 10) {
+            fieldClass.put("preferred-display-base", (long) integer.getBase());
+        }
+    }
+
+    private static void putAlignment(Map<String, Object> fieldClass, FieldType type) {
+        if (type.getAlignment() > 1) {
+            fieldClass.put("alignment", (long) type.getAlignment());
+        }
+    }
+
+    private void putLength(Map<String, Object> fieldClass, String kind, int length, FieldLocation lengthLocation) throws CtfFormatException {
+        if (lengthLocation == null) {
+            fieldClass.put("type", "static-length-" + kind);
+            fieldClass.put("length", (long) length);
+        } else {
+            fieldClass.put("type", "dynamic-length-" + kind);
+            fieldClass.put("length-field-location", toLocation(resolve(lengthLocation).fLocation));
+        }
+    }
+
+    private void writeVariant(Map<String, Object> fieldClass, VariantType variant) throws CtfFormatException {
+        Resolved selector = resolve(variant.getSelector());
+        if (!(selector.fType instanceof IntegerType)) {
+            throw new CtfFormatException("Selector " + variant.getSelector() + " of variant is not an integer");
+        }
+        boolean signed = ((IntegerType) selector.fType).isSigned();
+        List<EnumType.Mapping> mappings = selector.fType instanceof EnumType ? ((EnumType) selector.fType).getMappings() : new ArrayList<>();
+        List<Object> options = new ArrayList<>();
+        for (VariantType.Option option : variant.getOptions()) {
+            long[] ranges = option.getRanges();
+            if (ranges == null) {
+                List<Long> labelRanges = new ArrayList<>();
+                for (EnumType.Mapping mapping : mappings) {
+                    if (option.matches(mapping.getLabel())) {
+                        labelRanges.add(mapping.getLow());
+                        labelRanges.add(mapping.getHigh());
+                    }
+                }
+                ranges = labelRanges.stream().mapToLong(Long::longValue).toArray();
+            }
+            if (ranges.length == 0) {
+                /* Never selected */
+                continue;
+            }
+            FieldType type = option.getType();
+            Map<String, Object> optionClass = new LinkedHashMap<>();
+            optionClass.put("name", option.getName());
+            optionClass.put("selector-field-ranges", toRanges(ranges, signed));
+            optionClass.put("field-class", type instanceof StructType ? writeStruct((StructType) type) : writeType(type));
+            options.add(optionClass);
+        }
+        fieldClass.put("type", "variant");
+        fieldClass.put("selector-field-location", toLocation(selector.fLocation));
+        fieldClass.put("options", options);
+    }
+
+    private static List<Object> toRanges(long[] ranges, boolean signed) {
+        List<Object> list = new ArrayList<>();
+        for (int i = 0; i < ranges.length; i += 2) {
+            list.add(toRange(ranges[i], ranges[i + 1], signed));
+        }
+        return list;
+    }
+
+    private static List<Object> toRange(long low, long high, boolean signed) {
+        return Arrays.asList(toNumber(low, signed), toNumber(high, signed));
+    }
+
+    private static Object toNumber(long value, boolean signed) {
+        return signed || value >= 0 ? (Object) value : new BigInteger(Long.toUnsignedString(value));
+    }
+
+    private static String toByteOrder(ByteOrder byteOrder) {
+        return byteOrder == ByteOrder.BIG_ENDIAN ? "big-endian" : "little-endian";
+    }
+
+    /**
+     * Absolute locations are arrays starting with their scope, relative ones
+     * objects without an origin.
+     */
+    private static Object toLocation(FieldLocation location) {
+        if (location.getOrigin() == null) {
+            Map<String, Object> object = new LinkedHashMap<>();
+            object.put("path", Arrays.asList(location.getPath()));
+            return object;
+        }
+        List<Object> list = new ArrayList<>();
+        list.add(location.getOrigin().getCtf2Name());
+        list.addAll(Arrays.asList(location.getPath()));
+        return list;
+    }
+
+    // ------------------------------------------------------------------------
+    // Field locations
+    // ------------------------------------------------------------------------
+
+    /** A resolved field location, and the type of the field */
+    private static final class Resolved {
+        private final FieldLocation fLocation;
+        private final FieldType fType;
+
+        private Resolved(FieldLocation location, FieldType type) {
+            fLocation = location;
+            fType = type;
+        }
+    }
+
+    /**
+     * Resolve a field location the way the decoder does: absolute locations
+     * start at the root of their scope, relative ones at the innermost
+     * structure being written that has a member with the first name, then at
+     * the roots of the scopes, innermost first.
+     */
+    private Resolved resolve(FieldLocation location) throws CtfFormatException {
+        String[] path = location.getPath();
+        Scope origin = location.getOrigin();
+        if (origin != null) {
+            StructType root = fRoots[origin.ordinal()];
+            if (root != null) {
+                return new Resolved(location, follow(location, root));
+            }
+        } else {
+            for (int i = fStack.size() - 1; i >= 0; i--) {
+                StructType struct = fStack.get(i);
+                if (struct.indexOf(path[0]) >= 0) {
+                    /* The members of a nested structure have no value until it is decoded */
+                    return new Resolved(i == 0 ? new FieldLocation(fScope, path) : location, follow(location, struct));
+                }
+            }
+            for (int i = fRoots.length - 1; i >= 0; i--) {
+                StructType root = fRoots[i];
+                if (root != null && root.indexOf(path[0]) >= 0) {
+                    return new Resolved(new FieldLocation(Scope.values()[i], path), follow(location, root));
+                }
+            }
+        }
+        throw new CtfFormatException("Field " + location + " not found");
+    }
+
+    private static FieldType follow(FieldLocation location, StructType root) throws CtfFormatException {
+        StructType type = root;
+        for (int i = 0; i < location.getPathLength(); i++) {
+            int index = type.indexOf(location.getPathElement(i));
+            if (index < 0) {
+                break;
+            }
+            FieldType memberType = type.getMember(index).getType();
+            if (i == location.getPathLength() - 1) {
+                return memberType;
+            }
+            if (!(memberType instanceof StructType)) {
+                break;
+            }
+            type = (StructType) memberType;
+        }
+        throw new CtfFormatException("Field " + location + " not found");
+    }
+}
@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.io.IOException;
+
+/**
+ * Invalid or unsupported metadata or stream data.
+ */
+public class CtfFormatException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructor
+     *
+     * @param message
+     *            the error message
+     */
+    public CtfFormatException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param message
+     *            the error message
+     * @param cause
+     *            the cause
+     */
+    public CtfFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
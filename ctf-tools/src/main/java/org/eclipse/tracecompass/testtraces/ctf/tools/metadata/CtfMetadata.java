@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The decoded metadata of a CTF trace, TSDL (CTF 1.8) or JSON (CTF 2).
+ */
+public final class CtfMetadata {
+
+    private final int fMajor;
+    private final int fMinor;
+    private final String fUuid;
+    private final ByteOrder fByteOrder;
+    private final StructType fPacketHeader;
+    private final Map<String, Object> fEnvironment;
+    private final Map<String, ClockClass> fClocks;
+    private final Map<Long, StreamClass> fStreams;
+
+    /**
+     * Constructor
+     *
+     * @param major
+     *            the major CTF version, 1 or 2
+     * @param minor
+     *            the minor CTF version
+     * @param uuid
+     *            the trace UUID, may be null
+     * @param byteOrder
+     *            the native byte order of the trace
+     * @param packetHeader
+     *            the packet header type, null if none
+     * @param environment
+     *            the environment
+     * @param clocks
+     *            the clocks, by name
+     * @param streams
+     *            the stream classes, by id
+     */
+    public CtfMetadata(int major, int minor, String uuid, ByteOrder byteOrder, StructType packetHeader,
+            Map<String, Object> environment, Map<String, ClockClass> clocks, Map<Long, StreamClass> streams) {
+        fMajor = major;
+        fMinor = minor;
+        fUuid = uuid;
+        fByteOrder = byteOrder;
+        fPacketHeader = packetHeader;
+        fEnvironment = Collections.unmodifiableMap(new LinkedHashMap<>(environment));
+        fClocks = Collections.unmodifiableMap(new LinkedHashMap<>(clocks));
+        fStreams = Collections.unmodifiableMap(new LinkedHashMap<>(streams));
+    }
+
+    /**
+     * @return the major CTF version
+     */
+    public int getMajor() {
+        return fMajor;
+    }
+
+    /**
+     * @return the minor CTF version
+     */
+    public int getMinor() {
+        return fMinor;
+    }
+
+    /**
+     * @return the trace UUID, may be null
+     */
+    public String getUuid() {
+        return fUuid;
+    }
+
+    /**
+     * @return the native byte order of the trace
+     */
+    public ByteOrder getByteOrder() {
+        return fByteOrder;
+    }
+
+    /**
+     * @return the packet header type, null if none
+     */
+    public StructType getPacketHeader() {
+        return fPacketHeader;
+    }
+
+    /**
+     * @return the environment
+     */
+    public Map<String, Object> getEnvironment() {
+        return fEnvironment;
+    }
+
+    /**
+     * @return the clocks, by name
+     */
+    public Map<String, ClockClass> getClocks() {
+        return fClocks;
+    }
+
+    /**
+     * @return the stream classes, by id
+     */
+    public Map<Long, StreamClass> getStreams() {
+        return fStreams;
+    }
+
+    /**
+     * Get a stream class. Traces with a single stream class may omit the
+     * stream id in their packet header, in which case any id maps to that
+     * class.
+     *
+     * @param id
+     *            the stream class id
+     * @return the stream class, null if not found
+     */
+    public StreamClass getStream(long id) {
+        StreamClass stream = fStreams.get(id);
+        if (stream == null && fStreams.size() == 1) {
+            return fStreams.values().iterator().next();
+        }
+        return stream;
+    }
+
+    /**
+     * Get the default clock of a stream class.
+     *
+     * @param stream
+     *            the stream class
+     * @return the clock, null if the stream is not timestamped
+     */
+    public ClockClass getClock(StreamClass stream) {
+        String name = stream.getClockName();
+        if (name != null) {
+            return fClocks.get(name);
+        }
+        return fClocks.size() == 1 ? fClocks.values().iterator().next() : null;
+    }
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fixed-length integer whose values map to labels.
+ */
+public class EnumType extends IntegerType {
+
+    /**
+     * One label of an enumeration, for an inclusive range of values
+     */
+    public static final class Mapping {
+        private final String fLabel;
+        private final long fLow;
+        private final long fHigh;
+
+        /**
+         * Constructor
+         *
+         * @param label
+         *            the label
+         * @param low
+         *            the lowest value, inclusive
+         * @param high
+         *            the highest value, inclusive
+         */
+        public Mapping(String label, long low, long high) {
+            fLabel = label;
+            fLow = low;
+            fHigh = high;
+        }
+
+        /**
+         * @return the label
+         */
+        public String getLabel() {
+            return fLabel;
+        }
+
+        /**
+         * @return the lowest value, inclusive
+         */
+        public long getLow() {
+            return fLow;
+        }
+
+        /**
+         * @return the highest value, inclusive
+         */
+        public long getHigh() {
+            return fHigh;
+        }
+    }
+
+    private final List<Mapping> fMappings;
+
+    /**
+     * Constructor
+     *
+     * @param container
+     *            the integer type holding the values
+     * @param mappings
+     *            the labels
+     */
+    public EnumType(IntegerType container, List<Mapping> mappings) {
+        super(container.getSize(), container.isSigned(), container.getByteOrder(), container.getAlignment(),
+                container.getBase(), container.getEncoding(), container.getClockName());
+        fMappings = Collections.unmodifiableList(new ArrayList<>(mappings));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param size
+     *            the size in bits
+     * @param signed
+     *            true if signed
+     * @param byteOrder
+     *            the byte order
+     * @param alignment
+     *            the alignment in bits
+     * @param mappings
+     *            the labels
+     */
+    public EnumType(int size, boolean signed, ByteOrder byteOrder, int alignment, List<Mapping> mappings) {
+        this(new IntegerType(size, signed, byteOrder, alignment, 10, ENCODING_NONE, null), mappings);
+    }
+
+    /**
+     * @return the labels
+     */
+    public List<Mapping> getMappings() {
+        return fMappings;
+    }
+
+    /**
+     * Get the first label matching a value.
+     *
+     * @param value
+     *            the value
+     * @return the label, null if no label matches
+     */
+    public String getLabel(long value) {
+        for (Mapping mapping : fMappings) {
+            if (compare(mapping.fLow, value) <= 0 && compare(value, mapping.fHigh) <= 0) {
+                return mapping.fLabel;
+            }
+        }
+        return null;
+    }
+
+    private int compare(long a, long b) {
+        return isSigned() ? Long.compare(a, b) : Long.compareUnsigned(a, b);
+    }
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An event class (TSDL <code>event</code> block).
+ */
+public final class EventClass {
+
+    private final long fId;
+    private final String fName;
+    private final long fStreamId;
+    private final StructType fContext;
+    private final StructType fPayload;
+    private final Map<String, Object> fAttributes;
+
+    /**
+     * Constructor
+     *
+     * @param id
+     *            the event id, unique in its stream class
+     * @param name
+     *            the event name
+     * @param streamId
+     *            the id of the stream class
+     * @param context
+     *            the specific context type, null if none
+     * @param payload
+     *            the payload type, null if none
+     * @param attributes
+     *            other attributes (log level, model URI...)
+     */
+    public EventClass(long id, String name, long streamId, StructType context, StructType payload, Map<String, Object> attributes) {
+        fId = id;
+        fName = name;
+        fStreamId = streamId;
+        fContext = context;
+        fPayload = payload;
+        fAttributes = Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    /**
+     * @return the id
+     */
+    public long getId() {
+        return fId;
+    }
+
+    /**
+     * @return the name
+     */
+    public String getName() {
+        return fName;
+    }
+
+    /**
+     * @return the id of the stream class
+     */
+    public long getStreamId() {
+        return fStreamId;
+    }
+
+    /**
+     * @return the specific context type, null if none
+     */
+    public StructType getContext() {
+        return fContext;
+    }
+
+    /**
+     * @return the payload type, null if none
+     */
+    public StructType getPayload() {
+        return fPayload;
+    }
+
+    /**
+     * @return the other attributes, such as <code>loglevel</code>
+     */
+    public Map<String, Object> getAttributes() {
+        return fAttributes;
+    }
+}
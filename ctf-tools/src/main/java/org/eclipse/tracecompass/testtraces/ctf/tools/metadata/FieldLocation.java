@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.util.Arrays;
+
+/**
+ * Location of the field holding the length of a sequence or the selector of a
+ * variant.
+ *
+ * Absolute locations start from the root of a {@link Scope}. Relative
+ * locations (TSDL only) are looked up by name from the innermost structure
+ * being decoded outwards, then in the already decoded scopes.
+ */
+public final class FieldLocation {
+
+    private final Scope fOrigin;
+    private final String[] fPath;
+
+    /**
+     * Constructor
+     *
+     * @param origin
+     *            the scope of an absolute location, null for a relative one
+     * @param path
+     *            the member names to follow
+     */
+    public FieldLocation(Scope origin, String... path) {
+        if (path.length == 0) {
+            throw new IllegalArgumentException("Empty field location");
+        }
+        fOrigin = origin;
+        fPath = path.clone();
+    }
+
+    /**
+     * Parse a TSDL field reference, for example <code>_seqfield1_length</code>
+     * or <code>stream.event.header.seq_len</code>.
+     *
+     * @param reference
+     *            the dotted reference
+     * @return the location
+     */
+    public static FieldLocation parseTsdl(String reference) {
+        for (Scope scope : Scope.values()) {
+            String prefix = scope.getTsdlPrefix() + '.';
+            if (reference.startsWith(prefix)) {
+                return new FieldLocation(scope, reference.substring(prefix.length()).split("\\."));
+            }
+        }
+        return new FieldLocation(null, reference.split("\\."));
+    }
+
+    /**
+     * @return the origin scope, null if the location is relative
+     */
+    public Scope getOrigin() {
+        return fOrigin;
+    }
+
+    /**
+     * @return the path, a copy
+     */
+    public String[] getPath() {
+        return fPath.clone();
+    }
+
+    /**
+     * @return the number of path elements
+     */
+    public int getPathLength() {
+        return fPath.length;
+    }
+
+    /**
+     * @param index
+     *            the index of the path element
+     * @return the path element
+     */
+    public String getPathElement(int index) {
+        return fPath[index];
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (fOrigin == null ? 0 : fOrigin.hashCode()) + Arrays.hashCode(fPath);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof FieldLocation)) {
+            return false;
+        }
+        FieldLocation other = (FieldLocation) obj;
+        return fOrigin == other.fOrigin && Arrays.equals(fPath, other.fPath);
+    }
+
+    @Override
+    public String toString() {
+        String path = String.join(".", fPath);
+        return fOrigin == null ? path : fOrigin.getTsdlPrefix() + '.' + path;
+    }
+}
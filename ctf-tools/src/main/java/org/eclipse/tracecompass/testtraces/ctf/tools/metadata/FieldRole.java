@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+/**
+ * Special meaning of a field, named after the CTF 2 roles. TSDL traces get
+ * them from the well-known LTTng field names.
+ */
+public enum FieldRole {
+    /** Packet magic number */
+    PACKET_MAGIC_NUMBER("packet-magic-number"),
+    /** UUID of the metadata stream */
+    METADATA_STREAM_UUID("metadata-stream-uuid"),
+    /** Stream class id */
+    DATA_STREAM_CLASS_ID("data-stream-class-id"),
+    /** Stream instance id */
+    DATA_STREAM_ID("data-stream-id"),
+    /** Packet size, in bits */
+    PACKET_TOTAL_LENGTH("packet-total-length"),
+    /** Packet content size, in bits */
+    PACKET_CONTENT_LENGTH("packet-content-length"),
+    /** Default clock value: beginning of packet, or event timestamp */
+    DEFAULT_CLOCK_TIMESTAMP("default-clock-timestamp"),
+    /** Default clock value at the end of the packet */
+    PACKET_END_DEFAULT_CLOCK_TIMESTAMP("packet-end-default-clock-timestamp"),
+    /** Running count of discarded events */
+    DISCARDED_EVENT_RECORD_COUNTER_SNAPSHOT("discarded-event-record-counter-snapshot"),
+    /** Packet sequence number */
+    PACKET_SEQUENCE_NUMBER("packet-sequence-number"),
+    /** Event class id */
+    EVENT_RECORD_CLASS_ID("event-record-class-id");
+
+    private final String fCtf2Name;
+
+    FieldRole(String ctf2Name) {
+        fCtf2Name = ctf2Name;
+    }
+
+    /**
+     * @return the name of the role in CTF 2 metadata
+     */
+    public String getCtf2Name() {
+        return fCtf2Name;
+    }
+
+    /**
+     * Get a role from its CTF 2 name.
+     *
+     * @param name
+     *            the CTF 2 name
+     * @return the role, null if unknown
+     */
+    public static FieldRole fromCtf2Name(String name) {
+        for (FieldRole role : values()) {
+            if (role.fCtf2Name.equals(name)) {
+                return role;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+/**
+ * Base class of the field types (TSDL declarations, CTF 2 field classes).
+ *
+ * Types are immutable and may be shared between several fields.
+ */
+public abstract class FieldType {
+
+    private final int fAlignment;
+
+    /**
+     * Constructor
+     *
+     * @param alignment
+     *            the alignment of the field, in bits. Must be a power of 2.
+     */
+    protected FieldType(int alignment) {
+        if (alignment <= 0 || Integer.bitCount(alignment) != 1) {
+            throw new IllegalArgumentException("Invalid alignment " + alignment);
+        }
+        fAlignment = alignment;
+    }
+
+    /**
+     * @return the alignment of the field, in bits
+     */
+    public int getAlignment() {
+        return fAlignment;
+    }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.nio.ByteOrder;
+
+/**
+ * IEEE 754 binary floating point number.
+ */
+public class FloatType extends FieldType {
+
+    private final int fExponentDigits;
+    private final int fMantissaDigits;
+    private final ByteOrder fByteOrder;
+
+    /**
+     * Constructor
+     *
+     * @param exponentDigits
+     *            the number of bits of the exponent
+     * @param mantissaDigits
+     *            the number of bits of the mantissa, including the sign bit
+     * @param byteOrder
+     *            the byte order
+     * @param alignment
+     *            the alignment in bits
+     */
+    public FloatType(int exponentDigits, int mantissaDigits, ByteOrder byteOrder, int alignment) {
+        super(alignment);
+        int size = exponentDigits + mantissaDigits;
+        if (size != 32 && size != 64) {
+            throw new IllegalArgumentException("Unsupported floating point size " + size);
+        }
+        fExponentDigits = exponentDigits;
+        fMantissaDigits = mantissaDigits;
+        fByteOrder = byteOrder;
+    }
+
+    /**
+     * @return the number of bits of the exponent
+     */
+    public int getExponentDigits() {
+        return fExponentDigits;
+    }
+
+    /**
+     * @return the number of bits of the mantissa, including the sign bit
+     */
+    public int getMantissaDigits() {
+        return fMantissaDigits;
+    }
+
+    /**
+     * @return the total size in bits, 32 or 64
+     */
+    public int getSize() {
+        return fExponentDigits + fMantissaDigits;
+    }
+
+    /**
+     * @return the byte order
+     */
+    public ByteOrder getByteOrder() {
+        return fByteOrder;
+    }
+}
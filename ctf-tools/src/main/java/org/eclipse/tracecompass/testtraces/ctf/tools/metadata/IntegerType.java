@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.nio.ByteOrder;
+
+/**
+ * Fixed-length integer. Also used for CTF 2 booleans and bit arrays, which
+ * have the same binary layout.
+ */
+public class IntegerType extends FieldType {
+
+    /** No encoding: the integer is a number */
+    public static final int ENCODING_NONE = 0;
+    /** The integer is (part of) a UTF-8 string */
+    public static final int ENCODING_UTF8 = 1;
+    /** The integer is (part of) an ASCII string */
+    public static final int ENCODING_ASCII = 2;
+
+    private final int fSize;
+    private final boolean fSigned;
+    private final ByteOrder fByteOrder;
+    private final int fBase;
+    private final int fEncoding;
+    private final String fClockName;
+
+    /**
+     * Constructor
+     *
+     * @param size
+     *            the size in bits, 1 to 64
+     * @param signed
+     *            true for a two's complement signed integer
+     * @param byteOrder
+     *            the byte order
+     * @param alignment
+     *            the alignment in bits
+     * @param base
+     *            the preferred display base (2, 8, 10 or 16)
+     * @param encoding
+     *            one of the <code>ENCODING_*</code> constants
+     * @param clockName
+     *            the name of the clock this integer is mapped to, null if none
+     */
+    public IntegerType(int size, boolean signed, ByteOrder byteOrder, int alignment, int base, int encoding, String clockName) {
+        super(alignment);
+        if (size < 1 || size > 64) {
+            throw new IllegalArgumentException("Invalid integer size " + size);
+        }
+        fSize = size;
+        fSigned = signed;
+        fByteOrder = byteOrder;
+        fBase = base;
+        fEncoding = encoding;
+        fClockName = clockName;
+    }
+
+    /**
+     * @return the size, in bits
+     */
+    public int getSize() {
+        return fSize;
+    }
+
+    /**
+     * @return true if the integer is signed
+     */
+    public boolean isSigned() {
+        return fSigned;
+    }
+
+    /**
+     * @return the byte order
+     */
+    public ByteOrder getByteOrder() {
+        return fByteOrder;
+    }
+
+    /**
+     * @return the preferred display base
+     */
+    public int getBase() {
+        return fBase;
+    }
+
+    /**
+     * @return the encoding, one of the <code>ENCODING_*</code> constants
+     */
+    public int getEncoding() {
+        return fEncoding;
+    }
+
+    /**
+     * @return the name of the clock this integer maps to, null if none
+     */
+    public String getClockName() {
+        return fClockName;
+    }
+}
@@ -0,0 +1,297 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON parser and writer, enough for CTF 2 metadata fragments.
+ *
+ * Objects become {@link LinkedHashMap}s, arrays {@link ArrayList}s, integers
+ * {@link Long}s (unsigned 64-bit values wrap around) and other numbers
+ * {@link Double}s. The writer takes the same values, any {@link Map},
+ * {@link List} and {@link Number}.
+ */
+final class Json {
+
+    private final String fText;
+    private int fPos;
+
+    private Json(String text) {
+        fText = text;
+    }
+
+    /**
+     * Parse a JSON value.
+     *
+     * @param text
+     *            the JSON text
+     * @return the value
+     * @throws CtfFormatException
+     *             if the text is not valid JSON
+     */
+    static Object parse(String text) throws CtfFormatException {
+        Json json = new Json(text);
+        Object value = json.parseValue();
+        json.skipWhitespace();
+        if (json.fPos != text.length()) {
+            throw json.error("Trailing characters");
+        }
+        return value;
+    }
+
+    /**
+     * Write a JSON value on a single line.
+     *
+     * @param sb
+     *            the builder to append to
+     * @param value
+     *            the value: a map with string keys, a list, a string, a
+     *            number, a boolean or null
+     */
+    static void write(StringBuilder sb, Object value) {
+        if (value instanceof Map) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                writeString(sb, String.valueOf(entry.getKey()));
+                sb.append(": ");
+                write(sb, entry.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof List) {
+            sb.append('[');
+            boolean first = true;
+            for (Object element : (List<?>) value) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                write(sb, element);
+            }
+            sb.append(']');
+        } else if (value instanceof String) {
+            writeString(sb, (String) value);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else if (value == null) {
+            sb.append("null");
+        } else {
+            throw new IllegalArgumentException("Not a JSON value: " + value.getClass().getSimpleName());
+        }
+    }
+
+    private static void writeString(StringBuilder sb, String string) {
+        sb.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+            case '"':
+            case '\\':
+                sb.append('\\').append(c);
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                if (c < 0x20 || c > 0x7e) {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+                break;
+            }
+        }
+        sb.append('"');
+    }
+
+    private CtfFormatException error(String message) {
+        return new CtfFormatException(message + " at offset " + fPos + " of JSON text");
+    }
+
+    private void skipWhitespace() {
+        while (fPos < fText.length() && Character.isWhitespace(fText.charAt(fPos))) {
+            fPos++;
+        }
+    }
+
+    private char peek() throws CtfFormatException {
+        skipWhitespace();
+        if (fPos >= fText.length()) {
+            throw error("Unexpected end");
+        }
+        return fText.charAt(fPos);
+    }
+
+    private void expect(char c) throws CtfFormatException {
+        if (peek() != c) {
+            throw error("Expected '" + c + '\'');
+        }
+        fPos++;
+    }
+
+    private Object parseValue() throws CtfFormatException {
+        char c = peek();
+        switch (c) {
+        case '{':
+            return parseObject();
+        case '[':
+            return parseArray();
+        case '"':
+            return parseString();
+        default:
+            break;
+        }
+        if (fText.startsWith("true", fPos)) {
+            fPos += 4;
+            return Boolean.TRUE;
+        }
+        if (fText.startsWith("false", fPos)) {
+            fPos += 5;
+            return Boolean.FALSE;
+        }
+        if (fText.startsWith("null", fPos)) {
+            fPos += 4;
+            return null;
+        }
+        return parseNumber();
+    }
+
+    private Map<String, Object> parseObject() throws CtfFormatException {
+        Map<String, Object> object = new LinkedHashMap<>();
+        expect('{');
+        if (peek() == '}') {
+            fPos++;
+            return object;
+        }
+        do {
+            if (peek() != '"') {
+                throw error("Expected a member name");
+            }
+            String name = parseString();
+            expect(':');
+            object.put(name, parseValue());
+        } while (acceptComma());
+        expect('}');
+        return object;
+    }
+
+    private List<Object> parseArray() throws CtfFormatException {
+        List<Object> array = new ArrayList<>();
+        expect('[');
+        if (peek() == ']') {
+            fPos++;
+            return array;
+        }
+        do {
+            array.add(parseValue());
+        } while (acceptComma());
+        expect(']');
+        return array;
+    }
+
+    private boolean acceptComma() throws CtfFormatException {
+        if (peek() == ',') {
+            fPos++;
+            return true;
+        }
+        return false;
+    }
+
+    private String parseString() throws CtfFormatException {
+        expect('"');
+        StringBuilder sb = new StringBuilder();
+        while (fPos < fText.length()) {
+            char c = fText.charAt(fPos++);
+            if (c == '"') {
+                return sb.toString();
+            }
+            if (c != '\\') {
+                sb.append(c);
+                continue;
+            }
+            if (fPos >= fText.length()) {
+                break;
+            }
+            c = fText.charAt(fPos++);
+            switch (c) {
+            case 'b':
+                sb.append('\b');
+                break;
+            case 'f':
+                sb.append('\f');
+                break;
+            case 'n':
+                sb.append('\n');
+                break;
+            case 'r':
+                sb.append('\r');
+                break;
+            case 't':
+                sb.append('\t');
+                break;
+            case 'u':
+                if (fPos + 4 > fText.length()) {
+                    throw error("Invalid escape");
+                }
+                sb.append((char) Integer.parseInt(fText.substring(fPos, fPos + 4), 16));
+                fPos += 4;
+                break;
+            default:
+                sb.append(c);
+                break;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Number parseNumber() throws CtfFormatException {
+        int start = fPos;
+        boolean integer = true;
+        while (fPos < fText.length()) {
+            char c = fText.charAt(fPos);
+            if (c == '.' || c == 'e' || c == 'E') {
+                integer = false;
+            } else if (!(Character.isDigit(c) || c == '-' || c == '+')) {
+                break;
+            }
+            fPos++;
+        }
+        String number = fText.substring(start, fPos);
+        if (number.isEmpty()) {
+            throw error("Unexpected character");
+        }
+        try {
+            if (integer) {
+                try {
+                    return Long.parseLong(number);
+                } catch (NumberFormatException e) {
+                    /* Unsigned 64-bit values, like selector ranges */
+                    return Long.parseUnsignedLong(number);
+                }
+            }
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number " + number);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads the metadata file of a trace, whatever its flavour: plain or
+ * packetized TSDL, or CTF 2 JSON.
+ */
+public final class MetadataReader {
+
+    /** Name of the metadata file in a trace directory */
+    public static final String METADATA_FILE_NAME = "metadata";
+
+    /** Magic number of metadata packets */
+    public static final int METADATA_PACKET_MAGIC = 0x75D11D57;
+
+    /** Size of the header of a metadata packet, in bytes */
+    public static final int METADATA_PACKET_HEADER_SIZE = 37;
+
+    private static final int CONTENT_SIZE_OFFSET = 24;
+    private static final int PACKET_SIZE_OFFSET = 28;
+
+    private MetadataReader() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Check if a file is a CTF metadata file.
+     *
+     * @param file
+     *            the file
+     * @return true if the file is a metadata file
+     */
+    public static boolean isMetadata(Path file) {
+        return Files.isRegularFile(file) && METADATA_FILE_NAME.equals(String.valueOf(file.getFileName()));
+    }
+
+    /**
+     * Read and parse the metadata of a trace.
+     *
+     * @param traceDirectory
+     *            the trace directory, which contains the metadata file
+     * @return the metadata
+     * @throws IOException
+     *             if the file cannot be read, or the metadata is invalid
+     */
+    public static CtfMetadata read(Path traceDirectory) throws IOException {
+        return parse(readText(traceDirectory.resolve(METADATA_FILE_NAME)));
+    }
+
+    /**
+     * Parse metadata text, TSDL or CTF 2.
+     *
+     * @param text
+     *            the metadata text
+     * @return the metadata
+     * @throws CtfFormatException
+     *             if the metadata is invalid
+     */
+    public static CtfMetadata parse(String text) throws CtfFormatException {
+        if (!text.isEmpty() && text.charAt(0) == Ctf2Parser.RECORD_SEPARATOR) {
+            return Ctf2Parser.parse(text);
+        }
+        return TsdlParser.parse(text);
+    }
+
+    /**
+     * Read the text of a metadata file, removing the packet headers and the
+     * padding of packetized metadata.
+     *
+     * @param metadataFile
+     *            the metadata file
+     * @return the metadata text
+     * @throws IOException
+     *             if the file cannot be read, or the packets are invalid
+     */
+    public static String readText(Path metadataFile) throws IOException {
+        byte[] bytes = Files.readAllBytes(metadataFile);
+        ByteOrder order = getPacketByteOrder(bytes);
+        if (order == null) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(order);
+        StringBuilder sb = new StringBuilder();
+        int offset = 0;
+        while (offset + METADATA_PACKET_HEADER_SIZE <= bytes.length) {
+            if (buffer.getInt(offset) != METADATA_PACKET_MAGIC) {
+                throw new CtfFormatException("Bad metadata packet magic at offset " + offset + " of " + metadataFile);
+            }
+            int contentSize = buffer.getInt(offset + CONTENT_SIZE_OFFSET) / Byte.SIZE;
+            int packetSize = buffer.getInt(offset + PACKET_SIZE_OFFSET) / Byte.SIZE;
+            if (contentSize < METADATA_PACKET_HEADER_SIZE || packetSize < contentSize || offset + contentSize > bytes.length) {
+                throw new CtfFormatException("Bad metadata packet size at offset " + offset + " of " + metadataFile);
+            }
+            sb.append(new String(bytes, offset + METADATA_PACKET_HEADER_SIZE, contentSize - METADATA_PACKET_HEADER_SIZE, StandardCharsets.UTF_8));
+            offset += packetSize;
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Get the byte order of packetized metadata.
+     *
+     * @param bytes
+     *            the start of the metadata file
+     * @return the byte order, or null if the metadata is not packetized
+     */
+    public static ByteOrder getPacketByteOrder(byte[] bytes) {
+        if (bytes.length < 4) {
+            return null;
+        }
+        int magic = ByteBuffer.wrap(bytes, 0, 4).order(ByteOrder.BIG_ENDIAN).getInt();
+        if (magic == METADATA_PACKET_MAGIC) {
+            return ByteOrder.BIG_ENDIAN;
+        }
+        if (magic == Integer.reverseBytes(METADATA_PACKET_MAGIC)) {
+            return ByteOrder.LITTLE_ENDIAN;
+        }
+        return null;
+    }
+}
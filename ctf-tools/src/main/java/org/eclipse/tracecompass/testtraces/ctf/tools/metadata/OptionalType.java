@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+/**
+ * CTF 2 optional: a field which is present or not depending on a boolean or
+ * integer selector. Absent fields decode to <code>null</code>.
+ */
+public class OptionalType extends FieldType {
+
+    private final FieldLocation fSelector;
+    private final FieldType fType;
+    private final long[] fRanges;
+
+    /**
+     * Constructor
+     *
+     * @param selector
+     *            the location of the selector
+     * @param type
+     *            the type of the optional field
+     * @param ranges
+     *            the integer selector ranges as inclusive (low, high) pairs,
+     *            or null for a boolean selector
+     */
+    public OptionalType(FieldLocation selector, FieldType type, long[] ranges) {
+        super(1);
+        fSelector = selector;
+        fType = type;
+        fRanges = ranges == null ? null : ranges.clone();
+    }
+
+    /**
+     * @return the location of the selector
+     */
+    public FieldLocation getSelector() {
+        return fSelector;
+    }
+
+    /**
+     * @return the type of the optional field
+     */
+    public FieldType getType() {
+        return fType;
+    }
+
+    /**
+     * @return the selector ranges, null for a boolean selector
+     */
+    public long[] getRanges() {
+        return fRanges == null ? null : fRanges.clone();
+    }
+
+    /**
+     * @param selector
+     *            the value of the selector
+     * @return true if the field is present
+     */
+    public boolean isEnabled(long selector) {
+        return fRanges == null ? selector != 0 : RangeUtils.contains(fRanges, selector);
+    }
+}
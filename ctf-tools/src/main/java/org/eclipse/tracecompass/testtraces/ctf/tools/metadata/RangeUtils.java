@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+/**
+ * Helpers for integer range sets stored as flat (low, high) pairs.
+ */
+final class RangeUtils {
+
+    private RangeUtils() {
+        // Do nothing, private constructor
+    }
+
+    static boolean contains(long[] ranges, long value) {
+        for (int i = 0; i + 1 < ranges.length; i += 2) {
+            if (ranges[i] <= value && value <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+/**
+ * The dynamic scopes of a CTF stream, in decoding order.
+ */
+public enum Scope {
+    /** Packet header, defined by the trace */
+    PACKET_HEADER("trace.packet.header", "packet-header"),
+    /** Packet context, defined by the stream */
+    PACKET_CONTEXT("stream.packet.context", "packet-context"),
+    /** Event header, defined by the stream */
+    EVENT_HEADER("stream.event.header", "event-record-header"),
+    /** Event context common to all the events of a stream */
+    EVENT_COMMON_CONTEXT("stream.event.context", "event-record-common-context"),
+    /** Event context specific to one event class */
+    EVENT_SPECIFIC_CONTEXT("event.context", "event-record-specific-context"),
+    /** Event payload */
+    EVENT_PAYLOAD("event.fields", "event-record-payload");
+
+    private final String fTsdlPrefix;
+    private final String fCtf2Name;
+
+    Scope(String tsdlPrefix, String ctf2Name) {
+        fTsdlPrefix = tsdlPrefix;
+        fCtf2Name = ctf2Name;
+    }
+
+    /**
+     * @return the prefix of absolute TSDL paths in this scope, for example
+     *         <code>stream.event.header</code>
+     */
+    public String getTsdlPrefix() {
+        return fTsdlPrefix;
+    }
+
+    /**
+     * @return the name of the scope in CTF 2 field locations
+     */
+    public String getCtf2Name() {
+        return fCtf2Name;
+    }
+
+    /**
+     * Get a scope from its CTF 2 name.
+     *
+     * @param name
+     *            the CTF 2 name
+     * @return the scope, null if unknown
+     */
+    public static Scope fromCtf2Name(String name) {
+        for (Scope scope : values()) {
+            if (scope.fCtf2Name.equals(name)) {
+                return scope;
+            }
+        }
+        return null;
+    }
+}
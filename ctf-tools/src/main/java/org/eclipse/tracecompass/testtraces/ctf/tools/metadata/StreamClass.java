@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A stream class (TSDL <code>stream</code> block) and its event classes.
+ */
+public final class StreamClass {
+
+    private final long fId;
+    private final StructType fPacketContext;
+    private final StructType fEventHeader;
+    private final StructType fEventContext;
+    private final String fClockName;
+    private final Map<Long, EventClass> fEvents;
+
+    /**
+     * Constructor
+     *
+     * @param id
+     *            the stream class id
+     * @param packetContext
+     *            the packet context type, null if none
+     * @param eventHeader
+     *            the event header type, null if none
+     * @param eventContext
+     *            the common event context type, null if none
+     * @param clockName
+     *            the name of the default clock, null if none
+     * @param events
+     *            the event classes, by id
+     */
+    public StreamClass(long id, StructType packetContext, StructType eventHeader, StructType eventContext,
+            String clockName, Map<Long, EventClass> events) {
+        fId = id;
+        fPacketContext = packetContext;
+        fEventHeader = eventHeader;
+        fEventContext = eventContext;
+        fClockName = clockName;
+        fEvents = Collections.unmodifiableMap(new LinkedHashMap<>(events));
+    }
+
+    /**
+     * @return the id
+     */
+    public long getId() {
+        return fId;
+    }
+
+    /**
+     * @return the packet context type, null if none
+     */
+    public StructType getPacketContext() {
+        return fPacketContext;
+    }
+
+    /**
+     * @return the event header type, null if none
+     */
+    public StructType getEventHeader() {
+        return fEventHeader;
+    }
+
+    /**
+     * @return the common event context type, null if none
+     */
+    public StructType getEventContext() {
+        return fEventContext;
+    }
+
+    /**
+     * @return the name of the default clock, null if none
+     */
+    public String getClockName() {
+        return fClockName;
+    }
+
+    /**
+     * @return the event classes, by id
+     */
+    public Map<Long, EventClass> getEvents() {
+        return fEvents;
+    }
+
+    /**
+     * @param id
+     *            an event id
+     * @return the event class, null if unknown
+     */
+    public EventClass getEvent(long id) {
+        return fEvents.get(id);
+    }
+}
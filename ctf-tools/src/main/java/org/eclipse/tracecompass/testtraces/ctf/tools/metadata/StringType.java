@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+/**
+ * Null-terminated string.
+ */
+public class StringType extends FieldType {
+
+    /** Shared UTF-8 string type */
+    public static final StringType UTF8 = new StringType(IntegerType.ENCODING_UTF8);
+
+    private final int fEncoding;
+
+    /**
+     * Constructor
+     *
+     * @param encoding
+     *            one of the <code>IntegerType.ENCODING_*</code> constants
+     */
+    public StringType(int encoding) {
+        super(8);
+        fEncoding = encoding;
+    }
+
+    /**
+     * @return the encoding
+     */
+    public int getEncoding() {
+        return fEncoding;
+    }
+}
@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Structure: an ordered list of named members. Decoded structures are
+ * <code>Object[]</code> holding the member values in order.
+ */
+public class StructType extends FieldType {
+
+    /**
+     * A member of a structure
+     */
+    public static final class Member {
+        private final String fName;
+        private final FieldType fType;
+        private final FieldRole fRole;
+
+        /**
+         * Constructor
+         *
+         * @param name
+         *            the member name
+         * @param type
+         *            the member type
+         * @param role
+         *            the role of the member, null if none
+         */
+        public Member(String name, FieldType type, FieldRole role) {
+            fName = name;
+            fType = type;
+            fRole = role;
+        }
+
+        /**
+         * @return the name
+         */
+        public String getName() {
+            return fName;
+        }
+
+        /**
+         * @return the type
+         */
+        public FieldType getType() {
+            return fType;
+        }
+
+        /**
+         * @return the role, null if none
+         */
+        public FieldRole getRole() {
+            return fRole;
+        }
+    }
+
+    private final List<Member> fMembers;
+    private final Member[] fMemberArray;
+    private final int fMinimumAlignment;
+    private final Map<String, Integer> fIndexes = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param members
+     *            the members, in order
+     * @param minimumAlignment
+     *            the minimum alignment of the structure in bits, 1 if not
+     *            specified
+     */
+    public StructType(List<Member> members, int minimumAlignment) {
+        super(computeAlignment(members, minimumAlignment));
+        fMembers = Collections.unmodifiableList(new ArrayList<>(members));
+        fMemberArray = fMembers.toArray(new Member[fMembers.size()]);
+        fMinimumAlignment = minimumAlignment;
+        for (int i = 0; i < fMemberArray.length; i++) {
+            fIndexes.putIfAbsent(fMemberArray[i].getName(), i);
+        }
+    }
+
+    private static int computeAlignment(List<Member> members, int minimumAlignment) {
+        int alignment = minimumAlignment;
+        for (Member member : members) {
+            alignment = Math.max(alignment, member.getType().getAlignment());
+        }
+        return alignment;
+    }
+
+    /**
+     * @return the members, in order
+     */
+    public List<Member> getMembers() {
+        return fMembers;
+    }
+
+    /**
+     * @return the number of members
+     */
+    public int getMemberCount() {
+        return fMemberArray.length;
+    }
+
+    /**
+     * @param index
+     *            the member index
+     * @return the member
+     */
+    public Member getMember(int index) {
+        return fMemberArray[index];
+    }
+
+    /**
+     * @return the minimum alignment that was declared, in bits
+     */
+    public int getMinimumAlignment() {
+        return fMinimumAlignment;
+    }
+
+    /**
+     * Get the index of a member.
+     *
+     * @param name
+     *            the member name
+     * @return the index of the first member with that name, -1 if none
+     */
+    public int indexOf(String name) {
+        Integer index = fIndexes.get(name);
+        return index == null ? -1 : index;
+    }
+}
@@ -0,0 +1,959 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.nio.ByteOrder;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Parser of CTF 1.8 TSDL metadata.
+ *
+ * This covers the subset of the grammar that tracers actually emit: type
+ * aliases and typedefs, integer, floating point, string, enumeration,
+ * structure and variant declarations, arrays and sequences, and the trace,
+ * env, clock, stream and event blocks. Callsite blocks are ignored.
+ */
+public final class TsdlParser {
+
+    private enum Kind {
+        IDENT, NUMBER, STRING, PUNCT, EOF
+    }
+
+    private static final class Token {
+        final Kind fKind;
+        final String fText;
+        final int fLine;
+
+        Token(Kind kind, String text, int line) {
+            fKind = kind;
+            fText = text;
+            fLine = line;
+        }
+
+        @Override
+        public String toString() {
+            return fKind == Kind.EOF ? "end of metadata" : '\'' + fText + '\'';
+        }
+    }
+
+    /** TSDL type names that are not type aliases */
+    private static final String[] KEYWORDS = { "integer", "floating_point", "string", "struct", "variant", "enum",
+            "typealias", "typedef", "trace", "env", "clock", "stream", "event", "callsite", "align" };
+
+    private final List<Token> fTokens;
+    private int fPos;
+    private ByteOrder fByteOrder = ByteOrder.LITTLE_ENDIAN;
+
+    private final Map<String, FieldType> fAliases = new HashMap<>();
+    private final Map<String, StructType> fStructs = new HashMap<>();
+    private final Map<String, List<VariantType.Option>> fVariants = new HashMap<>();
+    private final Map<String, EnumType> fEnums = new HashMap<>();
+
+    private Map<String, Object> fTrace = new LinkedHashMap<>();
+    private final Map<String, Object> fEnvironment = new LinkedHashMap<>();
+    private final Map<String, ClockClass> fClocks = new LinkedHashMap<>();
+    private final List<Map<String, Object>> fStreamBlocks = new ArrayList<>();
+    private final List<Map<String, Object>> fEventBlocks = new ArrayList<>();
+
+    private TsdlParser(String text) throws CtfFormatException {
+        fTokens = tokenize(text);
+    }
+
+    /**
+     * Parse TSDL metadata.
+     *
+     * @param text
+     *            the metadata text
+     * @return the metadata
+     * @throws CtfFormatException
+     *             if the metadata is invalid or unsupported
+     */
+    public static CtfMetadata parse(String text) throws CtfFormatException {
+        TsdlParser parser = new TsdlParser(text);
+        try {
+            return parser.parseMetadata();
+        } catch (IllegalArgumentException e) {
+            throw parser.error(e.getMessage());
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Lexer
+    // ------------------------------------------------------------------------
+
+    private static List<Token> tokenize(String text) throws CtfFormatException {
+        List<Token> tokens = new ArrayList<>();
+        int line = 1;
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                line++;
+                i++;
+            } else if (Character.isWhitespace(c) || c == 0) {
+                i++;
+            } else if (text.startsWith("/*", i)) {
+                int end = text.indexOf("*/", i + 2);
+                if (end < 0) {
+                    throw new CtfFormatException("Unterminated comment at line " + line);
+                }
+                line += count(text, i, end, '\n');
+                i = end + 2;
+            } else if (text.startsWith("//", i)) {
+                while (i < length && text.charAt(i) != '\n') {
+                    i++;
+                }
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(text.charAt(i)) || text.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.IDENT, text.substring(start, i), line));
+            } else if (Character.isDigit(c)) {
+                int start = i;
+                while (i < length && (Character.isLetterOrDigit(text.charAt(i)))) {
+                    i++;
+                }
+                tokens.add(new Token(Kind.NUMBER, text.substring(start, i), line));
+            } else if (c == '"' || c == '\'') {
+                StringBuilder sb = new StringBuilder();
+                i++;
+                while (i < length && text.charAt(i) != c) {
+                    char ch = text.charAt(i++);
+                    if (ch == '\\' && i < length) {
+                        ch = text.charAt(i++);
+                        switch (ch) {
+                        case 'n':
+                            ch = '\n';
+                            break;
+                        case 't':
+                            ch = '\t';
+                            break;
+                        default:
+                            break;
+                        }
+                    } else if (ch == '\n') {
+                        line++;
+                    }
+                    sb.append(ch);
+                }
+                if (i >= length) {
+                    throw new CtfFormatException("Unterminated string at line " + line);
+                }
+                i++;
+                tokens.add(new Token(Kind.STRING, sb.toString(), line));
+            } else if (text.startsWith("...", i)) {
+                tokens.add(new Token(Kind.PUNCT, "...", line));
+                i += 3;
+            } else if (text.startsWith(":=", i)) {
+                tokens.add(new Token(Kind.PUNCT, ":=", line));
+                i += 2;
+            } else if ("{}()[];,:=<>.-+*".indexOf(c) >= 0) {
+                tokens.add(new Token(Kind.PUNCT, String.valueOf(c), line));
+                i++;
+            } else {
+                throw new CtfFormatException("Unexpected character '" + c + "' at line " + line);
+            }
+        }
+        tokens.add(new Token(Kind.EOF, "", line));
+        return tokens;
+    }
+
+    private static int count(String text, int from, int to, char c) {
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            if (text.charAt(i) == c) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    // ------------------------------------------------------------------------
+    // Token helpers
+    // ------------------------------------------------------------------------
+
+    private Token peek() {
+        return fTokens.get(fPos);
+    }
+
+    private Token peek(int offset) {
+        return fTokens.get(Math.min(fPos + offset, fTokens.size() - 1));
+    }
+
+    private Token next() {
+        Token token = fTokens.get(fPos);
+        if (token.fKind != Kind.EOF) {
+            fPos++;
+        }
+        return token;
+    }
+
+    private boolean is(String text) {
+        Token token = peek();
+        return token.fKind != Kind.STRING && token.fText.equals(text);
+    }
+
+    private boolean accept(String text) {
+        if (is(text)) {
+            fPos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String text) throws CtfFormatException {
+        if (!accept(text)) {
+            throw error("Expected '" + text + "' but got " + peek());
+        }
+    }
+
+    private String expectIdentifier() throws CtfFormatException {
+        Token token = next();
+        if (token.fKind != Kind.IDENT) {
+            throw error("Expected an identifier but got " + token);
+        }
+        return token.fText;
+    }
+
+    private CtfFormatException error(String message) {
+        return new CtfFormatException(message + " (line " + peek().fLine + ')');
+    }
+
+    private static boolean isKeyword(String text) {
+        for (String keyword : KEYWORDS) {
+            if (keyword.equals(text)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------------------
+    // Top level
+    // ------------------------------------------------------------------------
+
+    private CtfMetadata parseMetadata() throws CtfFormatException {
+        prescanByteOrder();
+        while (peek().fKind != Kind.EOF) {
+            if (accept(";")) {
+                continue;
+            }
+            if (accept("typealias")) {
+                parseTypealias();
+            } else if (accept("typedef")) {
+                parseTypedef();
+            } else if (is("trace") && peek(1).fText.equals("{")) {
+                next();
+                fTrace = parseBlock();
+            } else if (is("env") && peek(1).fText.equals("{")) {
+                next();
+                fEnvironment.putAll(parseBlock());
+            } else if (is("clock") && peek(1).fText.equals("{")) {
+                next();
+                addClock(parseBlock());
+            } else if (is("stream") && peek(1).fText.equals("{")) {
+                next();
+                fStreamBlocks.add(parseBlock());
+            } else if (is("event") && peek(1).fText.equals("{")) {
+                next();
+                fEventBlocks.add(parseBlock());
+            } else if (is("callsite") && peek(1).fText.equals("{")) {
+                next();
+                parseBlock();
+            } else {
+                /* Named struct, variant or enum declaration */
+                parseTypeSpecifier(false);
+                expect(";");
+            }
+        }
+        return build();
+    }
+
+    /**
+     * Type declarations may precede the trace block, yet "native" byte order
+     * refers to the trace byte order. Find it first.
+     */
+    private void prescanByteOrder() {
+        for (int i = 0; i + 2 < fTokens.size(); i++) {
+            if (fTokens.get(i).fText.equals("trace") && fTokens.get(i + 1).fText.equals("{")) {
+                int depth = 0;
+                for (int j = i + 1; j + 2 < fTokens.size(); j++) {
+                    String text = fTokens.get(j).fText;
+                    if (text.equals("{")) {
+                        depth++;
+                    } else if (text.equals("}")) {
+                        depth--;
+                        if (depth == 0) {
+                            break;
+                        }
+                    } else if (depth == 1 && text.equals("byte_order") && fTokens.get(j + 1).fText.equals("=")) {
+                        ByteOrder order = toByteOrder(fTokens.get(j + 2).fText);
+                        if (order != null) {
+                            fByteOrder = order;
+                        }
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static ByteOrder toByteOrder(String text) {
+        switch (text) {
+        case "le":
+        case "little_endian":
+            return ByteOrder.LITTLE_ENDIAN;
+        case "be":
+        case "network":
+        case "big_endian":
+            return ByteOrder.BIG_ENDIAN;
+        default:
+            return null;
+        }
+    }
+
+    private void parseTypealias() throws CtfFormatException {
+        FieldType type = parseTypeSpecifier(false);
+        expect(":=");
+        StringBuilder name = new StringBuilder();
+        while (peek().fKind == Kind.IDENT) {
+            if (name.length() > 0) {
+                name.append(' ');
+            }
+            name.append(next().fText);
+        }
+        while (accept("*")) {
+            name.append('*');
+        }
+        if (name.length() == 0) {
+            throw error("Missing type alias name");
+        }
+        expect(";");
+        fAliases.put(name.toString(), type);
+    }
+
+    private void parseTypedef() throws CtfFormatException {
+        FieldType type = parseTypeSpecifier(true);
+        String name = expectIdentifier();
+        type = parseArrayDeclarator(type);
+        expect(";");
+        fAliases.put(name, type);
+    }
+
+    /**
+     * Parse a block like <code>{ key = value; key := type; }</code>,
+     * including the trailing semicolon.
+     */
+    private Map<String, Object> parseBlock() throws CtfFormatException {
+        Map<String, Object> block = new LinkedHashMap<>();
+        expect("{");
+        while (!accept("}")) {
+            if (accept(";")) {
+                continue;
+            }
+            if (accept("typealias")) {
+                parseTypealias();
+                continue;
+            }
+            String key = parseDottedIdentifier();
+            if (accept(":=")) {
+                block.put(key, parseTypeSpecifier(false));
+            } else {
+                expect("=");
+                block.put(key, parseValue());
+            }
+            expect(";");
+        }
+        accept(";");
+        return block;
+    }
+
+    private String parseDottedIdentifier() throws CtfFormatException {
+        StringBuilder sb = new StringBuilder(expectIdentifier());
+        while (accept(".")) {
+            sb.append('.').append(expectIdentifier());
+        }
+        return sb.toString();
+    }
+
+    private Object parseValue() throws CtfFormatException {
+        Token token = peek();
+        if (token.fKind == Kind.STRING) {
+            return next().fText;
+        }
+        if (token.fKind == Kind.NUMBER || is("-") || is("+")) {
+            return parseNumber();
+        }
+        return parseDottedIdentifier();
+    }
+
+    private long parseNumber() throws CtfFormatException {
+        boolean negative = false;
+        if (accept("-")) {
+            negative = true;
+        } else {
+            accept("+");
+        }
+        Token token = next();
+        if (token.fKind != Kind.NUMBER) {
+            throw error("Expected a number but got " + token);
+        }
+        String text = token.fText;
+        int end = text.length();
+        while (end > 0 && "uUlL".indexOf(text.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        text = text.substring(0, end);
+        long value;
+        try {
+            if (text.startsWith("0x") || text.startsWith("0X")) {
+                value = Long.parseUnsignedLong(text.substring(2), 16);
+            } else if (text.length() > 1 && text.startsWith("0")) {
+                value = Long.parseUnsignedLong(text.substring(1), 8);
+            } else {
+                value = Long.parseUnsignedLong(text);
+            }
+        } catch (NumberFormatException e) {
+            throw error("Invalid number " + token);
+        }
+        return negative ? -value : value;
+    }
+
+    // ------------------------------------------------------------------------
+    // Types
+    // ------------------------------------------------------------------------
+
+    /**
+     * Parse a type specifier.
+     *
+     * @param declaratorFollows
+     *            true if an identifier (member or typedef name) follows the
+     *            type, so that the last identifier of a multi-word type alias
+     *            name is not consumed
+     */
+    private FieldType parseTypeSpecifier(boolean declaratorFollows) throws CtfFormatException {
+        if (accept("integer")) {
+            return parseInteger(parseAttributes());
+        }
+        if (accept("floating_point")) {
+            return parseFloat(parseAttributes());
+        }
+        if (accept("string")) {
+            if (is("{")) {
+                Map<String, Object> attributes = parseAttributes();
+                return new StringType(toEncoding(attributes.get("encoding")));
+            }
+            return StringType.UTF8;
+        }
+        if (accept("struct")) {
+            return parseStruct();
+        }
+        if (accept("variant")) {
+            return parseVariant();
+        }
+        if (accept("enum")) {
+            return parseEnum();
+        }
+        return parseAliasReference(declaratorFollows);
+    }
+
+    private FieldType parseAliasReference(boolean declaratorFollows) throws CtfFormatException {
+        int start = fPos;
+        List<String> words = new ArrayList<>();
+        while (peek().fKind == Kind.IDENT && !isKeyword(peek().fText)) {
+            words.add(next().fText);
+        }
+        int longest = words.size();
+        if (declaratorFollows && peek().fKind != Kind.IDENT) {
+            /* The last word is the declarator, unless it is a keyword */
+            longest--;
+        }
+        /* Try the longest alias name first: "unsigned long" before "unsigned" */
+        for (int n = longest; n > 0; n--) {
+            String name = String.join(" ", words.subList(0, n));
+            FieldType type = fAliases.get(name);
+            if (type != null) {
+                fPos = start + n;
+                return type;
+            }
+        }
+        fPos = start;
+        if (words.isEmpty()) {
+            throw error("Expected a type but got " + peek());
+        }
+        throw error("Unknown type " + String.join(" ", words));
+    }
+
+    private Map<String, Object> parseAttributes() throws CtfFormatException {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        expect("{");
+        while (!accept("}")) {
+            if (accept(";")) {
+                continue;
+            }
+            String key = parseDottedIdentifier();
+            expect("=");
+            attributes.put(key, parseValue());
+            accept(";");
+        }
+        return attributes;
+    }
+
+    private IntegerType parseInteger(Map<String, Object> attributes) throws CtfFormatException {
+        long size = toLong(attributes.get("size"), -1);
+        if (size <= 0 || size > 64) {
+            throw error("Invalid integer size " + attributes.get("size"));
+        }
+        int alignment = (int) toLong(attributes.get("align"), size % 8 == 0 ? 8 : 1);
+        boolean signed = toBoolean(attributes.get("signed"));
+        ByteOrder byteOrder = toByteOrder(attributes.get("byte_order"));
+        int base = toBase(attributes.get("base"));
+        int encoding = toEncoding(attributes.get("encoding"));
+        String clock = null;
+        Object map = attributes.get("map");
+        if (map instanceof String && ((String) map).startsWith("clock.")) {
+            String mapped = (String) map;
+            int end = mapped.lastIndexOf('.');
+            clock = end > 6 ? mapped.substring(6, end) : mapped.substring(6);
+        }
+        return new IntegerType((int) size, signed, byteOrder, alignment, base, encoding, clock);
+    }
+
+    private FloatType parseFloat(Map<String, Object> attributes) throws CtfFormatException {
+        int exponent = (int) toLong(attributes.get("exp_dig"), -1);
+        int mantissa = (int) toLong(attributes.get("mant_dig"), -1);
+        int alignment = (int) toLong(attributes.get("align"), (exponent + mantissa) % 8 == 0 ? 8 : 1);
+        return new FloatType(exponent, mantissa, toByteOrder(attributes.get("byte_order")), alignment);
+    }
+
+    private StructType parseStruct() throws CtfFormatException {
+        String name = null;
+        if (peek().fKind == Kind.IDENT && !is("align")) {
+            name = expectIdentifier();
+        }
+        if (!is("{")) {
+            StructType struct = fStructs.get(name);
+            if (struct == null) {
+                throw error("Unknown structure " + name);
+            }
+            return struct;
+        }
+        List<StructType.Member> members = new ArrayList<>();
+        for (Map.Entry<String, FieldType> member : parseMembers()) {
+            members.add(new StructType.Member(member.getKey(), member.getValue(), null));
+        }
+        int alignment = 1;
+        if (accept("align")) {
+            expect("(");
+            alignment = (int) parseNumber();
+            expect(")");
+        }
+        StructType struct = new StructType(members, alignment);
+        if (name != null) {
+            fStructs.put(name, struct);
+        }
+        return struct;
+    }
+
+    private FieldType parseVariant() throws CtfFormatException {
+        String name = null;
+        if (peek().fKind == Kind.IDENT) {
+            name = expectIdentifier();
+        }
+        FieldLocation tag = null;
+        if (accept("<")) {
+            tag = FieldLocation.parseTsdl(parseDottedIdentifier());
+            expect(">");
+        }
+        List<VariantType.Option> options;
+        if (is("{")) {
+            options = new ArrayList<>();
+            for (Map.Entry<String, FieldType> member : parseMembers()) {
+                options.add(new VariantType.Option(member.getKey(), member.getValue(), null));
+            }
+            if (name != null) {
+                fVariants.put(name, options);
+            }
+        } else {
+            options = fVariants.get(name);
+            if (options == null) {
+                throw error("Unknown variant " + name);
+            }
+        }
+        if (tag == null) {
+            /* Untagged declaration, only usable through its name */
+            return new VariantType(new FieldLocation(null, "<untagged>"), options);
+        }
+        return new VariantType(tag, options);
+    }
+
+    private EnumType parseEnum() throws CtfFormatException {
+        String name = null;
+        if (peek().fKind == Kind.IDENT) {
+            name = expectIdentifier();
+        }
+        IntegerType container = null;
+        if (accept(":")) {
+            FieldType type = parseTypeSpecifier(false);
+            if (!(type instanceof IntegerType)) {
+                throw error("Enumeration container must be an integer");
+            }
+            container = (IntegerType) type;
+        }
+        if (!is("{")) {
+            EnumType enumType = fEnums.get(name);
+            if (enumType == null) {
+                throw error("Unknown enumeration " + name);
+            }
+            return enumType;
+        }
+        if (container == null) {
+            FieldType type = fAliases.get("int");
+            if (!(type instanceof IntegerType)) {
+                throw error("Enumeration without container type and no 'int' alias");
+            }
+            container = (IntegerType) type;
+        }
+        List<EnumType.Mapping> mappings = new ArrayList<>();
+        expect("{");
+        long nextValue = 0;
+        while (!accept("}")) {
+            Token token = next();
+            if (token.fKind != Kind.IDENT && token.fKind != Kind.STRING) {
+                throw error("Expected an enumerator but got " + token);
+            }
+            long low = nextValue;
+            long high = nextValue;
+            if (accept("=")) {
+                low = parseNumber();
+                high = low;
+                if (accept("...")) {
+                    high = parseNumber();
+                }
+            }
+            mappings.add(new EnumType.Mapping(token.fText, low, high));
+            nextValue = high + 1;
+            if (!accept(",")) {
+                expect("}");
+                break;
+            }
+        }
+        EnumType enumType = new EnumType(container, mappings);
+        if (name != null) {
+            fEnums.put(name, enumType);
+        }
+        return enumType;
+    }
+
+    /** Parse <code>{ type name; ... }</code>, returning the members in order */
+    private List<Map.Entry<String, FieldType>> parseMembers() throws CtfFormatException {
+        List<Map.Entry<String, FieldType>> members = new ArrayList<>();
+        expect("{");
+        while (!accept("}")) {
+            if (accept(";")) {
+                continue;
+            }
+            if (accept("typealias")) {
+                parseTypealias();
+                continue;
+            }
+            if (accept("typedef")) {
+                parseTypedef();
+                continue;
+            }
+            FieldType type = parseTypeSpecifier(true);
+            do {
+                String name = expectIdentifier();
+                members.add(new SimpleImmutableEntry<>(name, parseArrayDeclarator(type)));
+            } while (accept(","));
+            expect(";");
+        }
+        return members;
+    }
+
+    private FieldType parseArrayDeclarator(FieldType elementType) throws CtfFormatException {
+        List<Object> dimensions = new ArrayList<>();
+        while (accept("[")) {
+            if (peek().fKind == Kind.NUMBER) {
+                dimensions.add((int) parseNumber());
+            } else {
+                dimensions.add(FieldLocation.parseTsdl(parseDottedIdentifier()));
+            }
+            expect("]");
+        }
+        FieldType type = elementType;
+        for (int i = dimensions.size() - 1; i >= 0; i--) {
+            Object dimension = dimensions.get(i);
+            if (dimension instanceof Integer) {
+                type = new ArrayType(type, (Integer) dimension, null);
+            } else {
+                type = new ArrayType(type, -1, (FieldLocation) dimension);
+            }
+        }
+        return type;
+    }
+
+    // ------------------------------------------------------------------------
+    // Attribute conversions
+    // ------------------------------------------------------------------------
+
+    private long toLong(Object value, long defaultValue) throws CtfFormatException {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Long) {
+            return (Long) value;
+        }
+        throw error("Expected a number but got " + value);
+    }
+
+    private static boolean toBoolean(Object value) {
+        if (value instanceof Long) {
+            return (Long) value != 0;
+        }
+        return value != null && "true".equalsIgnoreCase(value.toString());
+    }
+
+    private ByteOrder toByteOrder(Object value) {
+        if (value == null) {
+            return fByteOrder;
+        }
+        ByteOrder order = toByteOrder(value.toString());
+        return order == null ? fByteOrder : order;
+    }
+
+    private static int toBase(Object value) {
+        if (value instanceof Long) {
+            return ((Long) value).intValue();
+        }
+        if (value == null) {
+            return 10;
+        }
+        switch (value.toString()) {
+        case "hexadecimal":
+        case "hex":
+        case "x":
+        case "X":
+        case "p":
+            return 16;
+        case "octal":
+        case "oct":
+        case "o":
+            return 8;
+        case "binary":
+        case "b":
+            return 2;
+        default:
+            return 10;
+        }
+    }
+
+    private static int toEncoding(Object value) {
+        if (value == null) {
+            return IntegerType.ENCODING_NONE;
+        }
+        switch (value.toString().toUpperCase()) {
+        case "UTF8":
+            return IntegerType.ENCODING_UTF8;
+        case "ASCII":
+            return IntegerType.ENCODING_ASCII;
+        default:
+            return IntegerType.ENCODING_NONE;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Result
+    // ------------------------------------------------------------------------
+
+    private void addClock(Map<String, Object> block) throws CtfFormatException {
+        Object name = block.get("name");
+        if (name == null) {
+            throw error("Clock without name");
+        }
+        Object description = block.get("description");
+        Object uuid = block.get("uuid");
+        fClocks.put(name.toString(), new ClockClass(name.toString(),
+                description == null ? null : description.toString(),
+                toLong(block.get("freq"), 1000000000L),
+                toLong(block.get("offset_s"), 0),
+                toLong(block.get("offset"), 0),
+                toLong(block.get("precision"), 0),
+                toBoolean(block.get("absolute")),
+                uuid == null ? null : uuid.toString()));
+    }
+
+    private CtfMetadata build() throws CtfFormatException {
+        StructType packetHeader = annotate(asStruct(fTrace.get("packet.header")), Scope.PACKET_HEADER);
+
+        Map<Long, Map<Long, EventClass>> events = new TreeMap<>();
+        for (Map<String, Object> block : fStreamBlocks) {
+            events.put(toLong(block.get("id"), 0), new LinkedHashMap<>());
+        }
+        if (events.isEmpty()) {
+            events.put(0L, new LinkedHashMap<>());
+        }
+        long eventIndex = 0;
+        for (Map<String, Object> block : fEventBlocks) {
+            long streamId = toLong(block.get("stream_id"), events.size() == 1 ? events.keySet().iterator().next() : 0);
+            long id = toLong(block.get("id"), eventIndex);
+            eventIndex++;
+            Map<Long, EventClass> streamEvents = events.get(streamId);
+            if (streamEvents == null) {
+                throw error("Event " + block.get("name") + " refers to unknown stream " + streamId);
+            }
+            Map<String, Object> attributes = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> entry : block.entrySet()) {
+                if (!(entry.getValue() instanceof FieldType)) {
+                    attributes.put(entry.getKey(), entry.getValue());
+                }
+            }
+            Object name = block.get("name");
+            streamEvents.put(id, new EventClass(id, name == null ? "" : name.toString(), streamId,
+                    asStruct(block.get("context")), asStruct(block.get("fields")), attributes));
+        }
+
+        Map<Long, StreamClass> streams = new LinkedHashMap<>();
+        for (Map.Entry<Long, Map<Long, EventClass>> entry : events.entrySet()) {
+            long id = entry.getKey();
+            Map<String, Object> block = Collections.emptyMap();
+            for (Map<String, Object> candidate : fStreamBlocks) {
+                if (toLong(candidate.get("id"), 0) == id) {
+                    block = candidate;
+                }
+            }
+            StructType packetContext = annotate(asStruct(block.get("packet.context")), Scope.PACKET_CONTEXT);
+            StructType eventHeader = annotate(asStruct(block.get("event.header")), Scope.EVENT_HEADER);
+            String clock = findClock(eventHeader);
+            if (clock == null) {
+                clock = findClock(packetContext);
+            }
+            streams.put(id, new StreamClass(id, packetContext, eventHeader, asStruct(block.get("event.context")), clock, entry.getValue()));
+        }
+
+        Object uuid = fTrace.get("uuid");
+        return new CtfMetadata((int) toLong(fTrace.get("major"), 1), (int) toLong(fTrace.get("minor"), 8),
+                uuid == null ? null : uuid.toString(), fByteOrder, packetHeader, fEnvironment, fClocks, streams);
+    }
+
+    private StructType asStruct(Object type) throws CtfFormatException {
+        if (type == null) {
+            return null;
+        }
+        if (!(type instanceof StructType)) {
+            throw error("Expected a structure but got " + type.getClass().getSimpleName());
+        }
+        return (StructType) type;
+    }
+
+    /**
+     * Give roles to the well-known fields of a scope. Types can be shared, so
+     * structures are copied rather than modified.
+     */
+    private static StructType annotate(StructType struct, Scope scope) {
+        if (struct == null) {
+            return null;
+        }
+        List<StructType.Member> members = new ArrayList<>();
+        for (StructType.Member member : struct.getMembers()) {
+            FieldType type = member.getType();
+            FieldRole role = member.getRole();
+            if (scope == Scope.EVENT_HEADER) {
+                if (type instanceof IntegerType && member.getName().equals("id")) {
+                    role = FieldRole.EVENT_RECORD_CLASS_ID;
+                } else if (type instanceof IntegerType && member.getName().equals("timestamp")) {
+                    role = FieldRole.DEFAULT_CLOCK_TIMESTAMP;
+                } else if (type instanceof StructType) {
+                    type = annotate((StructType) type, scope);
+                } else if (type instanceof VariantType) {
+                    VariantType variant = (VariantType) type;
+                    List<VariantType.Option> options = new ArrayList<>();
+                    for (VariantType.Option option : variant.getOptions()) {
+                        FieldType optionType = option.getType();
+                        if (optionType instanceof StructType) {
+                            optionType = annotate((StructType) optionType, scope);
+                        }
+                        options.add(new VariantType.Option(option.getName(), optionType, option.getRanges()));
+                    }
+                    type = new VariantType(variant.getSelector(), options);
+                }
+            } else if (type instanceof IntegerType) {
+                role = topLevelRole(scope, member.getName());
+            }
+            members.add(new StructType.Member(member.getName(), type, role));
+        }
+        return new StructType(members, struct.getMinimumAlignment());
+    }
+
+    private static FieldRole topLevelRole(Scope scope, String name) {
+        if (scope == Scope.PACKET_HEADER) {
+            switch (name) {
+            case "magic":
+                return FieldRole.PACKET_MAGIC_NUMBER;
+            case "stream_id":
+                return FieldRole.DATA_STREAM_CLASS_ID;
+            case "stream_instance_id":
+                return FieldRole.DATA_STREAM_ID;
+            default:
+                return null;
+            }
+        }
+        switch (name) {
+        case "timestamp_begin":
+            return FieldRole.DEFAULT_CLOCK_TIMESTAMP;
+        case "timestamp_end":
+            return FieldRole.PACKET_END_DEFAULT_CLOCK_TIMESTAMP;
+        case "content_size":
+            return FieldRole.PACKET_CONTENT_LENGTH;
+        case "packet_size":
+            return FieldRole.PACKET_TOTAL_LENGTH;
+        case "events_discarded":
+            return FieldRole.DISCARDED_EVENT_RECORD_COUNTER_SNAPSHOT;
+        case "packet_seq_num":
+            return FieldRole.PACKET_SEQUENCE_NUMBER;
+        default:
+            return null;
+        }
+    }
+
+    private static String findClock(FieldType type) {
+        if (type instanceof IntegerType) {
+            return ((IntegerType) type).getClockName();
+        }
+        if (type instanceof StructType) {
+            for (StructType.Member member : ((StructType) type).getMembers()) {
+                String clock = findClock(member.getType());
+                if (clock != null) {
+                    return clock;
+                }
+            }
+        }
+        if (type instanceof VariantType) {
+            for (VariantType.Option option : ((VariantType) type).getOptions()) {
+                String clock = findClock(option.getType());
+                if (clock != null) {
+                    return clock;
+                }
+            }
+        }
+        return null;
+    }
+}
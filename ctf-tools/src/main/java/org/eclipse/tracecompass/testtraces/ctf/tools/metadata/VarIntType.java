@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+/**
+ * CTF 2 variable-length (LEB128) integer.
+ */
+public class VarIntType extends FieldType {
+
+    private final boolean fSigned;
+
+    /**
+     * Constructor
+     *
+     * @param signed
+     *            true for a signed LEB128 integer
+     */
+    public VarIntType(boolean signed) {
+        super(8);
+        fSigned = signed;
+    }
+
+    /**
+     * @return true if signed
+     */
+    public boolean isSigned() {
+        return fSigned;
+    }
+}
@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Variant: one of several types, selected by the value of another field.
+ * Decoded variants are the value of the selected option.
+ */
+public class VariantType extends FieldType {
+
+    /**
+     * An option of a variant
+     */
+    public static final class Option {
+        private final String fName;
+        private final FieldType fType;
+        private final long[] fRanges;
+
+        /**
+         * Constructor
+         *
+         * @param name
+         *            the option name
+         * @param type
+         *            the option type
+         * @param ranges
+         *            the selector ranges, as inclusive (low, high) pairs, or
+         *            null to select by enumeration label (TSDL)
+         */
+        public Option(String name, FieldType type, long[] ranges) {
+            fName = name;
+            fType = type;
+            fRanges = ranges == null ? null : ranges.clone();
+        }
+
+        /**
+         * @return the name
+         */
+        public String getName() {
+            return fName;
+        }
+
+        /**
+         * @return the type
+         */
+        public FieldType getType() {
+            return fType;
+        }
+
+        /**
+         * @return the selector ranges, null if the option is selected by
+         *         label
+         */
+        public long[] getRanges() {
+            return fRanges == null ? null : fRanges.clone();
+        }
+
+        /**
+         * @param value
+         *            a selector value
+         * @return true if one of the ranges of this option contains the value
+         */
+        public boolean matches(long value) {
+            return fRanges != null && RangeUtils.contains(fRanges, value);
+        }
+
+        /**
+         * @param label
+         *            an enumeration label
+         * @return true if this option is selected by that label
+         */
+        public boolean matches(String label) {
+            /* TSDL allows a leading underscore on either side */
+            return fName.equals(label) || fName.equals('_' + label) || ('_' + fName).equals(label);
+        }
+    }
+
+    private final FieldLocation fSelector;
+    private final List<Option> fOptions;
+
+    /**
+     * Constructor
+     *
+     * @param selector
+     *            the location of the selector (tag)
+     * @param options
+     *            the options
+     */
+    public VariantType(FieldLocation selector, List<Option> options) {
+        super(1);
+        fSelector = selector;
+        fOptions = Collections.unmodifiableList(new ArrayList<>(options));
+    }
+
+    /**
+     * @return the location of the selector
+     */
+    public FieldLocation getSelector() {
+        return fSelector;
+    }
+
+    /**
+     * @return the options
+     */
+    public List<Option> getOptions() {
+        return fOptions;
+    }
+
+    /**
+     * Select an option.
+     *
+     * @param value
+     *            the value of the selector
+     * @param label
+     *            the enumeration label of the selector, null if it is not an
+     *            enumeration
+     * @return the index of the selected option, -1 if none matches
+     */
+    public int select(long value, String label) {
+        for (int i = 0; i < fOptions.size(); i++) {
+            Option option = fOptions.get(i);
+            if (option.fRanges != null ? option.matches(value) : (label != null && option.matches(label))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
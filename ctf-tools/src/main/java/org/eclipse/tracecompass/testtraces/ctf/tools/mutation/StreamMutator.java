@@ -0,0 +1,249 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.mutation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.eclipse.tracecompass.testtraces.common.Mutation;
+import org.eclipse.tracecompass.testtraces.common.MutationKind;
+import org.eclipse.tracecompass.testtraces.common.Mutator;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.BitBuffer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldRole;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.IntegerType;
+
+/**
+ * Generates corrupted variants of a CTF stream file, by patching the fields of
+ * its packet headers and contexts:
+ * <ul>
+ * <li>{@link MutationKind#SECTION_SIZE}: the total or content length of a
+ * packet set past the end of the file, to zero, to all ones, or off by one
+ * byte;</li>
+ * <li>{@link MutationKind#TRUNCATED_PAGE}: the file cut in the middle of a
+ * packet;</li>
+ * <li>{@link MutationKind#FLIPPED_MAGIC}: one bit of the magic number of a
+ * packet flipped;</li>
+ * <li>{@link MutationKind#TIMESTAMP_ORDER}: the beginning timestamp of a
+ * packet set before the one of the previous packet, or its end timestamp set
+ * before its beginning.</li>
+ * </ul>
+ * The stream is decoded once, up to the packet contexts, when the mutator is
+ * created.
+ */
+public final class StreamMutator implements Mutator {
+
+    private final Path fStream;
+    private final long fFileSize;
+    private final List<Packet> fPackets = new ArrayList<>();
+    private final List<Field> fSizeFields = new ArrayList<>();
+    private final List<Field> fMagicFields = new ArrayList<>();
+    private final List<Field[]> fTimestampPairs = new ArrayList<>();
+    private final Set<MutationKind> fKinds = EnumSet.noneOf(MutationKind.class);
+
+    /**
+     * Constructor
+     *
+     * @param metadata
+     *            the metadata of the trace
+     * @param stream
+     *            the stream file
+     * @throws IOException
+     *             if the stream cannot be read or decoded
+     */
+    public StreamMutator(CtfMetadata metadata, Path stream) throws IOException {
+        fStream = stream;
+        try (PacketReader reader = new PacketReader(metadata, stream);
+                FileChannel channel = FileChannel.open(stream, StandardOpenOption.READ)) {
+            fFileSize = reader.getFileSize();
+            Field previousBegin = null;
+            while (reader.nextPacket()) {
+                Packet packet = new Packet(fPackets.size(), reader.getPacketOffset(), reader.getPacketSize() / Byte.SIZE);
+                fPackets.add(packet);
+                Field totalLength = Field.read(channel, reader, FieldRole.PACKET_TOTAL_LENGTH, packet);
+                Field contentLength = Field.read(channel, reader, FieldRole.PACKET_CONTENT_LENGTH, packet);
+                Field magic = Field.read(channel, reader, FieldRole.PACKET_MAGIC_NUMBER, packet);
+                Field begin = Field.read(channel, reader, FieldRole.DEFAULT_CLOCK_TIMESTAMP, packet);
+                Field end = Field.read(channel, reader, FieldRole.PACKET_END_DEFAULT_CLOCK_TIMESTAMP, packet);
+                addIfPresent(fSizeFields, totalLength);
+                addIfPresent(fSizeFields, contentLength);
+                addIfPresent(fMagicFields, magic);
+                if (previousBegin != null && begin != null) {
+                    fTimestampPairs.add(new Field[] { previousBegin, begin });
+                }
+                if (begin != null && end != null) {
+                    fTimestampPairs.add(new Field[] { begin, end });
+                }
+                previousBegin = begin;
+            }
+        }
+        if (!fSizeFields.isEmpty()) {
+            fKinds.add(MutationKind.SECTION_SIZE);
+        }
+        for (Packet packet : fPackets) {
+            if (packet.fSize > 1) {
+                fKinds.add(MutationKind.TRUNCATED_PAGE);
+                break;
+            }
+        }
+        if (!fMagicFields.isEmpty()) {
+            fKinds.add(MutationKind.FLIPPED_MAGIC);
+        }
+        if (!fTimestampPairs.isEmpty()) {
+            fKinds.add(MutationKind.TIMESTAMP_ORDER);
+        }
+    }
+
+    private static void addIfPresent(List<Field> fields, Field field) {
+        if (field != null) {
+            fields.add(field);
+        }
+    }
+
+    /**
+     * @return the stream file
+     */
+    public Path getStream() {
+        return fStream;
+    }
+
+    @Override
+    public Set<MutationKind> getKinds() {
+        return Collections.unmodifiableSet(fKinds);
+    }
+
+    @Override
+    public Mutation mutate(MutationKind kind, SplittableRandom random) {
+        if (!fKinds.contains(kind)) {
+            throw new IllegalArgumentException(kind + " does not apply to " + fStream);
+        }
+        switch (kind) {
+        case SECTION_SIZE: {
+            Field field = fSizeFields.get(random.nextInt(fSizeFields.size()));
+            long value;
+            switch (random.nextInt(4)) {
+            case 0:
+                /* Past the end of the file, in bits */
+                value = (fFileSize - field.fPacket.fOffset + 1 + random.nextInt(1 << 20)) * Byte.SIZE;
+                break;
+            case 1:
+                value = 0;
+                break;
+            case 2:
+                value = -1;
+                break;
+            default:
+                value = field.fValue + (random.nextBoolean() ? Byte.SIZE : -Byte.SIZE);
+                break;
+            }
+            return field.patch(kind, value);
+        }
+        case TRUNCATED_PAGE: {
+            Packet packet;
+            do {
+                packet = fPackets.get(random.nextInt(fPackets.size()));
+            } while (packet.fSize <= 1);
+            long size = packet.fOffset + 1 + random.nextLong(packet.fSize - 1);
+            return new Mutation(kind, "packet " + packet.fIndex + " cut at " + size).withSize(size);
+        }
+        case FLIPPED_MAGIC: {
+            Field field = fMagicFields.get(random.nextInt(fMagicFields.size()));
+            return field.patch(kind, field.fValue ^ 1L << random.nextInt(field.fType.getSize()));
+        }
+        case TIMESTAMP_ORDER: {
+            Field[] pair = fTimestampPairs.get(random.nextInt(fTimestampPairs.size()));
+            return pair[1].patch(kind, pair[0].fValue - 1 - random.nextInt(1000));
+        }
+        default:
+            throw new IllegalArgumentException(kind.toString());
+        }
+    }
+
+    private static final class Packet {
+
+        private final int fIndex;
+        private final long fOffset;
+        private final long fSize;
+
+        public Packet(int index, long offset, long size) {
+            fIndex = index;
+            fOffset = offset;
+            fSize = size;
+        }
+    }
+
+    /**
+     * A fixed-size integer field of a packet, with the bytes that hold it.
+     */
+    private static final class Field {
+
+        private final FieldRole fRole;
+        private final Packet fPacket;
+        private final long fPosition;
+        private final IntegerType fType;
+        private final long fFirstByte;
+        private final byte[] fBytes;
+        private final long fValue;
+
+        private Field(FieldRole role, Packet packet, long position, IntegerType type, long firstByte, byte[] bytes) throws CtfFormatException {
+            fRole = role;
+            fPacket = packet;
+            fPosition = position;
+            fType = type;
+            fFirstByte = firstByte;
+            fBytes = bytes;
+            BitBuffer bits = new BitBuffer(ByteBuffer.wrap(bytes), firstByte);
+            bits.position(position);
+            fValue = bits.getLong(type.getSize(), false, type.getByteOrder());
+        }
+
+        public static Field read(FileChannel channel, PacketReader reader, FieldRole role, Packet packet) throws IOException {
+            IntegerType type = reader.getFieldType(role);
+            long position = reader.getFieldPosition(role);
+            if (type == null || position < 0) {
+                return null;
+            }
+            long firstByte = position / Byte.SIZE;
+            ByteBuffer bytes = ByteBuffer.allocate((int) ((position + type.getSize() + Byte.SIZE - 1) / Byte.SIZE - firstByte));
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, firstByte + bytes.position()) < 0) {
+                    throw new CtfFormatException("Unexpected end of stream at offset " + firstByte);
+                }
+            }
+            return new Field(role, packet, position, type, firstByte, bytes.array());
+        }
+
+        public Mutation patch(MutationKind kind, long value) {
+            byte[] bytes = fBytes.clone();
+            BitBuffer bits = new BitBuffer(ByteBuffer.wrap(bytes), fFirstByte);
+            bits.position(fPosition);
+            try {
+                bits.putLong(fType.getSize(), fType.getByteOrder(), value);
+            } catch (CtfFormatException e) {
+                /* The bytes cover the field */
+                throw new IllegalStateException(e);
+            }
+            return new Mutation(kind, "packet " + fPacket.fIndex + ' ' + fRole + " = " + value).withPatch(fFirstByte, bytes);
+        }
+    }
+}
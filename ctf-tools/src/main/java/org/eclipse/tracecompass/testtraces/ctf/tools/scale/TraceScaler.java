@@ -0,0 +1,359 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.scale;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.LttngIndex;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.BitBuffer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldRole;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.IntegerType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * Scales CTF traces up by replaying their packets.
+ *
+ * Every stream file of the scaled trace is its original content repeated
+ * <code>factor</code> times, with the metadata left untouched. Copy
+ * <code>i</code> is shifted in time by <code>i * D</code> cycles, where
+ * <code>D</code> is longer than the trace and a multiple of
+ * <code>2^n</code>, <code>n</code> being the size of the largest timestamp
+ * field narrower than 64 bits. Such fields (compact event header timestamps)
+ * then keep their value, and only the full 64-bit timestamps (packet
+ * beginning and end, extended event headers) are patched. The packet
+ * sequence numbers and discarded event counters are patched to keep counting
+ * across the copies, so the scaled trace has <code>factor</code> times the
+ * events and discarded events of the original. Streams whose packets have no
+ * size field have a single packet spanning the whole file: their copies are
+ * written to separate stream files, <code>stream</code>,
+ * <code>stream.1</code>, <code>stream.2</code> and so on.
+ *
+ * The output is deterministic. Each stream is decoded once to find the
+ * fields to patch, then copied through a fixed-size buffer, so the memory
+ * used does not depend on the factor. The packet indexes of the original are
+ * not copied, they would not match.
+ *
+ * <pre>
+ * java TraceScaler &lt;source trace&gt; &lt;target&gt; &lt;factor&gt;
+ * </pre>
+ */
+public final class TraceScaler {
+
+    /**
+     * Version of the scaling algorithm. Bump it whenever the output for a
+     * given input changes, to invalidate cached scaled traces.
+     */
+    public static final String VERSION = "1";
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final int KIND_TIMESTAMP = 0;
+    private static final int KIND_DISCARDED = 1;
+    private static final int KIND_SEQUENCE = 2;
+
+    private TraceScaler() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Scale a trace up.
+     *
+     * @param args
+     *            the source trace, the target and the scale factor
+     * @throws IOException
+     *             if the trace cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: TraceScaler <source trace> <target> <factor>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        scale(Paths.get(args[0]), Paths.get(args[1]), Integer.parseInt(args[2]));
+        System.out.println("Scaled " + args[0] + " in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Scale up a trace, or a directory tree of traces. Files that are not
+     * part of a CTF trace are copied as is.
+     *
+     * @param source
+     *            the source directory
+     * @param target
+     *            the target directory, which must not exist
+     * @param factor
+     *            the scale factor, at least 1
+     * @throws IOException
+     *             if a trace cannot be read or written, or cannot be scaled
+     *             that much without its timestamps overflowing
+     */
+    public static void scale(Path source, Path target, int factor) throws IOException {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Scale factor must be at least 1: " + factor);
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        Set<Path> traceDirectories = new HashSet<>();
+        for (Path file : files) {
+            if (MetadataReader.isMetadata(file)) {
+                traceDirectories.add(file.getParent());
+            }
+        }
+        Files.createDirectories(target);
+        for (Path file : files) {
+            Path directory = file.getParent();
+            if (isIndex(directory, traceDirectories)) {
+                continue;
+            }
+            if (!traceDirectories.contains(directory) || MetadataReader.isMetadata(file)) {
+                Path copy = target.resolve(source.relativize(file).toString());
+                Files.createDirectories(copy.getParent());
+                Files.copy(file, copy);
+            }
+        }
+        for (Path directory : traceDirectories.stream().sorted().collect(Collectors.toList())) {
+            scaleTrace(directory, target.resolve(source.relativize(directory).toString()), factor);
+        }
+    }
+
+    private static boolean isIndex(Path directory, Set<Path> traceDirectories) {
+        return LttngIndex.DIRECTORY_NAME.equals(String.valueOf(directory.getFileName()))
+                && traceDirectories.contains(directory.getParent());
+    }
+
+    private static void scaleTrace(Path traceDirectory, Path target, int factor) throws IOException {
+        CtfMetadata metadata = MetadataReader.read(traceDirectory);
+        List<StreamPlan> plans = new ArrayList<>();
+        for (Path stream : CtfIndexer.getStreamFiles(traceDirectory)) {
+            plans.add(StreamPlan.create(metadata, stream));
+        }
+
+        /* One shift for all the streams, so that they stay in sync */
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        int compactSize = 0;
+        for (StreamPlan plan : plans) {
+            min = Math.min(min, plan.fMinTimestamp);
+            max = Math.max(max, plan.fMaxTimestamp);
+            compactSize = Math.max(compactSize, plan.fCompactSize);
+        }
+        long shift = 0;
+        if (min <= max) {
+            long granule = 1L << compactSize;
+            try {
+                shift = Math.multiplyExact((max - min) / granule + 1, granule);
+                Math.addExact(max, Math.multiplyExact(shift, factor - 1L));
+            } catch (ArithmeticException e) {
+                throw new CtfFormatException("Cannot scale " + traceDirectory + " by " + factor + ", the timestamps would overflow");
+            }
+        }
+
+        for (StreamPlan plan : plans) {
+            plan.write(target.resolve(String.valueOf(plan.fPath.getFileName())), factor, shift);
+        }
+    }
+
+    /**
+     * The fields to patch in a stream file, found by decoding it once.
+     */
+    private static final class StreamPlan {
+
+        private final Path fPath;
+
+        /* Patches, sorted by position: bit position, and kind|order|size */
+        private long[] fPositions = new long[64];
+        private int[] fFormats = new int[64];
+        private int fCount;
+
+        private long fFirstSequenceNumber = -1;
+        private long fSequenceSpan;
+        private long fLastDiscarded;
+        private long fMinTimestamp = Long.MAX_VALUE;
+        private long fMaxTimestamp = Long.MIN_VALUE;
+        private int fCompactSize;
+        private boolean fSized = true;
+
+        private StreamPlan(Path path) {
+            fPath = path;
+        }
+
+        public static StreamPlan create(CtfMetadata metadata, Path stream) throws IOException {
+            StreamPlan plan = new StreamPlan(stream);
+            try (PacketReader reader = new PacketReader(metadata, stream)) {
+                while (reader.nextPacket()) {
+                    if (plan.fFirstSequenceNumber < 0) {
+                        plan.fFirstSequenceNumber = reader.getPacketSequenceNumber();
+                    }
+                    plan.fSequenceSpan = reader.getPacketSequenceNumber() - plan.fFirstSequenceNumber + 1;
+                    plan.fSized &= reader.getFieldType(FieldRole.PACKET_TOTAL_LENGTH) != null;
+                    int first = plan.fCount;
+                    plan.addPatch(reader, FieldRole.DEFAULT_CLOCK_TIMESTAMP, KIND_TIMESTAMP);
+                    plan.addPatch(reader, FieldRole.PACKET_END_DEFAULT_CLOCK_TIMESTAMP, KIND_TIMESTAMP);
+                    plan.addPatch(reader, FieldRole.DISCARDED_EVENT_RECORD_COUNTER_SNAPSHOT, KIND_DISCARDED);
+                    plan.addPatch(reader, FieldRole.PACKET_SEQUENCE_NUMBER, KIND_SEQUENCE);
+                    plan.sortFrom(first);
+                    if (reader.hasTimestampBegin()) {
+                        plan.addTimestamp(reader.getTimestampBegin());
+                    }
+                    if (reader.hasTimestampEnd()) {
+                        plan.addTimestamp(reader.getTimestampEnd());
+                    }
+                    plan.fLastDiscarded = reader.getEventsDiscarded();
+                    while (reader.nextEvent()) {
+                        plan.addPatch(reader, FieldRole.DEFAULT_CLOCK_TIMESTAMP, KIND_TIMESTAMP);
+                        plan.addTimestamp(reader.getEventTimestamp());
+                    }
+                }
+            }
+            return plan;
+        }
+
+        private void addTimestamp(long timestamp) {
+            fMinTimestamp = Math.min(fMinTimestamp, timestamp);
+            fMaxTimestamp = Math.max(fMaxTimestamp, timestamp);
+        }
+
+        private void addPatch(PacketReader reader, FieldRole role, int kind) {
+            IntegerType type = reader.getFieldType(role);
+            long position = reader.getFieldPosition(role);
+            if (type == null || position < 0) {
+                return;
+            }
+            int size = type.getSize();
+            if (kind == KIND_TIMESTAMP && size < Long.SIZE) {
+                /* Left as is, the shift is a multiple of 2^size */
+                fCompactSize = Math.max(fCompactSize, size);
+                return;
+            }
+            if (fCount == fPositions.length) {
+                fPositions = Arrays.copyOf(fPositions, fCount * 2);
+                fFormats = Arrays.copyOf(fFormats, fCount * 2);
+            }
+            int bigEndian = type.getByteOrder() == ByteOrder.BIG_ENDIAN ? 1 : 0;
+            fPositions[fCount] = position;
+            fFormats[fCount] = kind << 16 | bigEndian << 8 | size;
+            fCount++;
+        }
+
+        /**
+         * Sort the last few patches, the fields of a packet context not being
+         * in the order of their roles.
+         */
+        private void sortFrom(int first) {
+            for (int i = first + 1; i < fCount; i++) {
+                long position = fPositions[i];
+                int format = fFormats[i];
+                int j = i;
+                while (j > first && fPositions[j - 1] > position) {
+                    fPositions[j] = fPositions[j - 1];
+                    fFormats[j] = fFormats[j - 1];
+                    j--;
+                }
+                fPositions[j] = position;
+                fFormats[j] = format;
+            }
+        }
+
+        /**
+         * Write the copies, in the target file or, if the packets do not have
+         * a size and thus span their whole file, in one file per copy.
+         */
+        public void write(Path target, int factor, long shift) throws IOException {
+            Files.createDirectories(target.getParent());
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            try (FileChannel in = FileChannel.open(fPath, StandardOpenOption.READ)) {
+                if (fSized) {
+                    try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                        for (int copy = 0; copy < factor; copy++) {
+                            writeCopy(in, out, copy, shift, buffer);
+                        }
+                    }
+                    return;
+                }
+                for (int copy = 0; copy < factor; copy++) {
+                    Path file = copy == 0 ? target : target.resolveSibling(target.getFileName() + "." + copy);
+                    try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                        writeCopy(in, out, copy, shift, buffer);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Write one copy, patching its fields in a buffer of fixed size. A
+         * chunk never ends in the middle of a field to patch.
+         */
+        private void writeCopy(FileChannel in, FileChannel out, int copy, long shift, ByteBuffer buffer) throws IOException {
+            long[] deltas = { shift * copy, fLastDiscarded * copy, fSequenceSpan * copy };
+            long size = in.size();
+            int patch = 0;
+            long offset = 0;
+            while (offset < size) {
+                long end = Math.min(size, offset + BUFFER_SIZE);
+                for (int i = patch; i < fCount && fPositions[i] / Byte.SIZE < end; i++) {
+                    long last = fPositions[i] + (fFormats[i] & 0xff) - 1;
+                    if (last / Byte.SIZE >= end) {
+                        end = fPositions[i] / Byte.SIZE;
+                        break;
+                    }
+                }
+                buffer.clear().limit((int) (end - offset));
+                while (buffer.hasRemaining()) {
+                    if (in.read(buffer, offset + buffer.position()) < 0) {
+                        throw new IOException("Unexpected end of " + fPath);
+                    }
+                }
+                BitBuffer bits = new BitBuffer(buffer, offset);
+                while (patch < fCount && fPositions[patch] / Byte.SIZE < end) {
+                    apply(bits, patch, deltas);
+                    patch++;
+                }
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                offset = end;
+            }
+        }
+
+        private void apply(BitBuffer bits, int patch, long[] deltas) throws CtfFormatException {
+            int format = fFormats[patch];
+            int size = format & 0xff;
+            ByteOrder order = (format & 0x100) != 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            long position = fPositions[patch];
+            bits.position(position);
+            long value = bits.getLong(size, false, order);
+            bits.position(position);
+            bits.putLong(size, order, value + deltas[format >>> 16]);
+        }
+    }
+}
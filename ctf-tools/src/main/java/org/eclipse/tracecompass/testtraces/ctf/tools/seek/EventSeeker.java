@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.seek;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+
+/**
+ * Finds the first event at or after a timestamp in a trace, using its
+ * {@link SeekIndex}: only the packets that may hold it are decoded. Events
+ * with the same timestamp are ordered by stream, in the order of
+ * {@link SeekIndex#getStreams()}, then by position in the stream.
+ *
+ * The stream files are opened on first use and stay open until
+ * {@link #close()}.
+ */
+public final class EventSeeker implements Closeable {
+
+    private final SeekIndex fIndex;
+    private final CtfMetadata fMetadata;
+    private final Path fTraceDirectory;
+    private final PacketReader[] fReaders;
+
+    private long fTimestamp;
+    private int fStream;
+    private long fOrdinal;
+
+    /**
+     * Constructor
+     *
+     * @param index
+     *            the seek index of the trace
+     * @param metadata
+     *            the metadata of the trace
+     * @param traceDirectory
+     *            the trace directory
+     */
+    public EventSeeker(SeekIndex index, CtfMetadata metadata, Path traceDirectory) {
+        fIndex = index;
+        fMetadata = metadata;
+        fTraceDirectory = traceDirectory;
+        fReaders = new PacketReader[index.getStreams().size()];
+    }
+
+    /**
+     * Find the first event at or after a timestamp.
+     *
+     * @param timestamp
+     *            the timestamp, in nanoseconds
+     * @return false if there is no such event
+     * @throws IOException
+     *             if a stream file cannot be read or decoded
+     */
+    public boolean seek(long timestamp) throws IOException {
+        SeekIndex index = fIndex;
+        int last = index.lowerBound(timestamp);
+        boolean found = false;
+        if (last < index.size()) {
+            /* The first event of this packet is a match, maybe not the first */
+            fTimestamp = index.get(last, SeekIndex.BEGIN);
+            fStream = (int) index.get(last, SeekIndex.STREAM);
+            fOrdinal = index.get(last, SeekIndex.ORDINAL);
+            found = true;
+        }
+        for (int entry = index.firstCandidate(timestamp); entry < last; entry++) {
+            if (index.get(entry, SeekIndex.END) >= timestamp) {
+                found |= seekPacket(entry, timestamp, found);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Decode a packet that overlaps the timestamp, and keep its first event at
+     * or after the timestamp if it comes before the current match.
+     */
+    private boolean seekPacket(int entry, long timestamp, boolean found) throws IOException {
+        SeekIndex index = fIndex;
+        int stream = (int) index.get(entry, SeekIndex.STREAM);
+        PacketReader reader = fReaders[stream];
+        if (reader == null) {
+            reader = new PacketReader(fMetadata, fTraceDirectory.resolve(index.getStreams().get(stream)));
+            fReaders[stream] = reader;
+        }
+        reader.seekPacket(index.get(entry, SeekIndex.OFFSET), index.get(entry, SeekIndex.CLOCK));
+        if (!reader.nextPacket()) {
+            return false;
+        }
+        ClockClass clock = reader.getClock();
+        long ordinal = index.get(entry, SeekIndex.ORDINAL);
+        while (reader.nextEvent()) {
+            long eventTimestamp = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+            if (eventTimestamp >= timestamp) {
+                if (found && !isBefore(eventTimestamp, stream, ordinal)) {
+                    return false;
+                }
+                fTimestamp = eventTimestamp;
+                fStream = stream;
+                fOrdinal = ordinal;
+                return true;
+            }
+            ordinal++;
+        }
+        return false;
+    }
+
+    private boolean isBefore(long timestamp, int stream, long ordinal) {
+        if (timestamp != fTimestamp) {
+            return timestamp < fTimestamp;
+        }
+        return stream != fStream ? stream < fStream : ordinal < fOrdinal;
+    }
+
+    /**
+     * @return the timestamp of the event found by the last seek, in
+     *         nanoseconds
+     */
+    public long getTimestamp() {
+        return fTimestamp;
+    }
+
+    /**
+     * @return the index of the stream file of the event found by the last
+     *         seek, in {@link SeekIndex#getStreams()}
+     */
+    public int getStream() {
+        return fStream;
+    }
+
+    /**
+     * @return the number of events before the event found by the last seek in
+     *         its stream file
+     */
+    public long getOrdinal() {
+        return fOrdinal;
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (PacketReader reader : fReaders) {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    exception = e;
+                }
+            }
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+}
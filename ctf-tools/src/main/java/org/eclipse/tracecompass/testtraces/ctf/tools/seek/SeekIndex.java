@@ -0,0 +1,267 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.seek;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+
+/**
+ * The seek index of a trace: one entry per packet holding events, from all
+ * the stream files of the trace, sorted by the timestamp of the first event
+ * of the packet, then by stream. It is memory-mapped and read in place as an
+ * array of longs, {@value #COLUMNS} per entry:
+ * <ol start="0">
+ * <li>{@link #BEGIN}: timestamp of the first event of the packet, in
+ * nanoseconds;</li>
+ * <li>{@link #END}: timestamp of the last event of the packet, in
+ * nanoseconds;</li>
+ * <li>{@link #MAX_END}: the largest {@link #END} of this entry and all the
+ * previous ones;</li>
+ * <li>{@link #STREAM}: index of the stream file in {@link #getStreams()};</li>
+ * <li>{@link #OFFSET}: offset of the packet in the stream file, in
+ * bytes;</li>
+ * <li>{@link #CLOCK}: value of the default clock before the packet, in
+ * cycles, see
+ * {@link org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader#seekPacket(long, long)};</li>
+ * <li>{@link #ORDINAL}: number of events before the packet in its stream
+ * file.</li>
+ * </ol>
+ *
+ * The first event at or after a timestamp <code>t</code> is in one of the
+ * packets from {@link #firstCandidate(long)} (the first that may hold events
+ * at or after <code>t</code>) to {@link #lowerBound(long)} (the first that
+ * holds only such events), see {@link EventSeeker}.
+ *
+ * The file is big endian. A 24-byte header (magic, major and minor version,
+ * number of streams, number of entries) is followed by the stream file paths
+ * relative to the trace directory (length and UTF-8 bytes), zero padded to
+ * a multiple of 8 bytes, then by the entries.
+ */
+public final class SeekIndex {
+
+    /** Magic number of the seek index files */
+    public static final int MAGIC = 0x534B4958;
+
+    /** Major version written */
+    public static final int MAJOR = 1;
+
+    /** Minor version written */
+    public static final int MINOR = 0;
+
+    /** Name of the seek index file of a trace */
+    public static final String FILE_NAME = "seek.index";
+
+    /** Column of the timestamp of the first event of the packet */
+    public static final int BEGIN = 0;
+
+    /** Column of the timestamp of the last event of the packet */
+    public static final int END = 1;
+
+    /** Column of the largest end timestamp up to the entry */
+    public static final int MAX_END = 2;
+
+    /** Column of the stream index */
+    public static final int STREAM = 3;
+
+    /** Column of the packet offset */
+    public static final int OFFSET = 4;
+
+    /** Column of the clock value before the packet */
+    public static final int CLOCK = 5;
+
+    /** Column of the number of events before the packet */
+    public static final int ORDINAL = 6;
+
+    /** Number of longs per entry */
+    public static final int COLUMNS = 7;
+
+    private static final int HEADER_SIZE = 24;
+
+    private final List<String> fStreams;
+    private final LongBuffer fEntries;
+    private final int fSize;
+
+    private SeekIndex(List<String> streams, LongBuffer entries) {
+        fStreams = streams;
+        fEntries = entries;
+        fSize = entries.capacity() / COLUMNS;
+    }
+
+    /**
+     * Map a seek index file.
+     *
+     * @param file
+     *            the seek index file
+     * @return the seek index
+     * @throws IOException
+     *             if the file cannot be mapped or is not a seek index
+     */
+    public static SeekIndex map(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.BIG_ENDIAN);
+        }
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new CtfFormatException("Not a seek index file: " + file);
+        }
+        int major = buffer.getInt();
+        int minor = buffer.getInt();
+        if (major != MAJOR) {
+            throw new CtfFormatException("Unsupported seek index version " + major + '.' + minor + " in " + file);
+        }
+        int streamCount = buffer.getInt();
+        long entryCount = buffer.getLong();
+        try {
+            List<String> streams = new ArrayList<>(streamCount);
+            for (int i = 0; i < streamCount; i++) {
+                byte[] bytes = new byte[buffer.getInt()];
+                buffer.get(bytes);
+                streams.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            buffer.position(align(buffer.position()));
+            if (entryCount < 0 || entryCount * COLUMNS * Long.BYTES != buffer.remaining()) {
+                throw new CtfFormatException("Truncated seek index file: " + file);
+            }
+            return new SeekIndex(Collections.unmodifiableList(streams), buffer.slice().order(ByteOrder.BIG_ENDIAN).asLongBuffer());
+        } catch (RuntimeException e) {
+            throw new CtfFormatException("Truncated seek index file: " + file, e);
+        }
+    }
+
+    /**
+     * Write a seek index file.
+     *
+     * @param file
+     *            the seek index file, replaced if it exists
+     * @param streams
+     *            the stream file paths, relative to the trace directory
+     * @param entries
+     *            the entries, {@value #COLUMNS} longs each, sorted
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(Path file, List<String> streams, long[] entries) throws IOException {
+        List<byte[]> names = new ArrayList<>();
+        int namesSize = 0;
+        for (String stream : streams) {
+            byte[] bytes = stream.getBytes(StandardCharsets.UTF_8);
+            names.add(bytes);
+            namesSize += Integer.BYTES + bytes.length;
+        }
+        int entriesStart = align(HEADER_SIZE + namesSize);
+        ByteBuffer buffer = ByteBuffer.allocate(entriesStart + entries.length * Long.BYTES).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putInt(MAJOR).putInt(MINOR).putInt(streams.size()).putLong(entries.length / COLUMNS);
+        for (byte[] bytes : names) {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+        buffer.position(entriesStart);
+        buffer.asLongBuffer().put(entries);
+        buffer.rewind();
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    private static int align(int position) {
+        return (position + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    /**
+     * @return the stream file paths, relative to the trace directory
+     */
+    public List<String> getStreams() {
+        return fStreams;
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return fSize;
+    }
+
+    /**
+     * @return the mapped entries, {@value #COLUMNS} longs each, read-only
+     */
+    public LongBuffer getEntries() {
+        return fEntries.asReadOnlyBuffer();
+    }
+
+    /**
+     * Get a value of an entry.
+     *
+     * @param entry
+     *            the index of the entry
+     * @param column
+     *            the column, for example {@link #BEGIN}
+     * @return the value
+     */
+    public long get(int entry, int column) {
+        return fEntries.get(entry * COLUMNS + column);
+    }
+
+    /**
+     * Find the first entry whose packet, or a previous one, has an event at
+     * or after a timestamp.
+     *
+     * @param timestamp
+     *            the timestamp, in nanoseconds
+     * @return the index of the entry, {@link #size()} if there is none
+     */
+    public int firstCandidate(long timestamp) {
+        return search(MAX_END, timestamp);
+    }
+
+    /**
+     * Find the first entry whose packet starts at or after a timestamp.
+     *
+     * @param timestamp
+     *            the timestamp, in nanoseconds
+     * @return the index of the entry, {@link #size()} if there is none
+     */
+    public int lowerBound(long timestamp) {
+        return search(BEGIN, timestamp);
+    }
+
+    private int search(int column, long timestamp) {
+        int low = 0;
+        int high = fSize;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (get(middle, column) < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
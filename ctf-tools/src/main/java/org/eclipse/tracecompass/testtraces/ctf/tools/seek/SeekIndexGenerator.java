@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.seek;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * Generates the {@link SeekIndex} of CTF traces by decoding all their events.
+ *
+ * Used at build time to generate the seek index of every test trace:
+ *
+ * <pre>
+ * java SeekIndexGenerator &lt;traces root&gt; &lt;output directory&gt;
+ * </pre>
+ *
+ * The seek index of the trace <code>&lt;root&gt;/a/b</code> is written to
+ * <code>&lt;output&gt;/a/b/seek.index</code>. A trace whose metadata cannot
+ * be parsed, or a stream that cannot be decoded to the end, fails the
+ * generation.
+ */
+public final class SeekIndexGenerator {
+
+    private SeekIndexGenerator() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Generate the seek index of all the traces of a directory tree.
+     *
+     * @param args
+     *            the root directory of the traces and the output directory
+     * @throws IOException
+     *             if the tree cannot be walked, a trace cannot be decoded or a
+     *             seek index cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: SeekIndexGenerator <traces root> <output directory>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int traces = generateTree(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Generated the seek index of " + traces + " traces in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Generate the seek index of all the traces of a directory tree.
+     *
+     * @param root
+     *            the root directory
+     * @param output
+     *            the output directory
+     * @return the number of indexed traces
+     * @throws IOException
+     *             if the tree cannot be walked, a trace cannot be decoded or a
+     *             seek index cannot be written
+     */
+    public static int generateTree(Path root, Path output) throws IOException {
+        List<Path> metadataFiles;
+        try (Stream<Path> walk = Files.walk(root)) {
+            metadataFiles = walk.filter(MetadataReader::isMetadata).sorted().collect(Collectors.toList());
+        }
+        int count = 0;
+        for (Path metadataFile : metadataFiles) {
+            Path traceDirectory = metadataFile.getParent();
+            CtfMetadata metadata = MetadataReader.read(traceDirectory);
+            List<String> streams = new ArrayList<>();
+            long[] entries = indexTrace(metadata, traceDirectory, streams);
+            SeekIndex.write(output.resolve(root.relativize(traceDirectory).toString()).resolve(SeekIndex.FILE_NAME), streams, entries);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Compute the seek index entries of a trace.
+     *
+     * @param metadata
+     *            the metadata of the trace
+     * @param traceDirectory
+     *            the trace directory
+     * @param streams
+     *            receives the stream file paths, relative to the trace
+     *            directory
+     * @return the entries, sorted, {@value SeekIndex#COLUMNS} longs each
+     * @throws IOException
+     *             if the trace directory cannot be listed or a stream
+     *             cannot be decoded
+     */
+    public static long[] indexTrace(CtfMetadata metadata, Path traceDirectory, List<String> streams) throws IOException {
+        List<long[]> rows = new ArrayList<>();
+        for (Path stream : CtfIndexer.getStreamFiles(traceDirectory)) {
+            int streamIndex = streams.size();
+            streams.add(traceDirectory.relativize(stream).toString().replace(stream.getFileSystem().getSeparator(), "/"));
+            indexStream(metadata, stream, streamIndex, rows);
+        }
+        rows.sort(Comparator.<long[]> comparingLong(row -> row[SeekIndex.BEGIN])
+                .thenComparingLong(row -> row[SeekIndex.STREAM])
+                .thenComparingLong(row -> row[SeekIndex.OFFSET]));
+        long[] entries = new long[rows.size() * SeekIndex.COLUMNS];
+        long maxEnd = Long.MIN_VALUE;
+        for (int i = 0; i < rows.size(); i++) {
+            long[] row = rows.get(i);
+            maxEnd = Math.max(maxEnd, row[SeekIndex.END]);
+            row[SeekIndex.MAX_END] = maxEnd;
+            System.arraycopy(row, 0, entries, i * SeekIndex.COLUMNS, SeekIndex.COLUMNS);
+        }
+        return entries;
+    }
+
+    private static void indexStream(CtfMetadata metadata, Path stream, int streamIndex, List<long[]> rows) throws IOException {
+        long ordinal = 0;
+        try (PacketReader reader = new PacketReader(metadata, stream)) {
+            long clockBefore = reader.getClockValue();
+            while (reader.nextPacket()) {
+                ClockClass clock = reader.getClock();
+                long[] row = new long[SeekIndex.COLUMNS];
+                row[SeekIndex.STREAM] = streamIndex;
+                row[SeekIndex.OFFSET] = reader.getPacketOffset();
+                row[SeekIndex.CLOCK] = clockBefore;
+                row[SeekIndex.ORDINAL] = ordinal;
+                long events = 0;
+                while (reader.nextEvent()) {
+                    long timestamp = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+                    if (events == 0) {
+                        row[SeekIndex.BEGIN] = timestamp;
+                    }
+                    row[SeekIndex.END] = timestamp;
+                    events++;
+                }
+                if (events > 0) {
+                    rows.add(row);
+                    ordinal += events;
+                }
+                clockBefore = reader.getClockValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.slice;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A time window cut from a trace by {@link TraceSlicer}: where it is, and
+ * what it holds.
+ */
+public final class TraceSlice {
+
+    private final Path fPath;
+    private final long fStart;
+    private final long fEnd;
+    private final Map<String, Long> fEventCounts;
+    private final long fCopiedPackets;
+    private final long fRewrittenPackets;
+
+    /**
+     * Constructor
+     *
+     * @param path
+     *            the path of the slice
+     * @param start
+     *            the start of the window, in nanoseconds, inclusive
+     * @param end
+     *            the end of the window, in nanoseconds, inclusive
+     * @param eventCounts
+     *            the number of events of every stream file of the slice, by
+     *            path relative to the slice
+     * @param copiedPackets
+     *            the number of packets copied as is
+     * @param rewrittenPackets
+     *            the number of packets rewritten
+     */
+    public TraceSlice(Path path, long start, long end, Map<String, Long> eventCounts, long copiedPackets, long rewrittenPackets) {
+        fPath = path;
+        fStart = start;
+        fEnd = end;
+        fEventCounts = Collections.unmodifiableMap(new TreeMap<>(eventCounts));
+        fCopiedPackets = copiedPackets;
+        fRewrittenPackets = rewrittenPackets;
+    }
+
+    /**
+     * @return the path of the slice, a directory laid out as the source trace
+     */
+    public Path getPath() {
+        return fPath;
+    }
+
+    /**
+     * @return the start of the window, in nanoseconds from the origin of the
+     *         clocks, inclusive
+     */
+    public long getStart() {
+        return fStart;
+    }
+
+    /**
+     * @return the end of the window, in nanoseconds from the origin of the
+     *         clocks, inclusive
+     */
+    public long getEnd() {
+        return fEnd;
+    }
+
+    /**
+     * @return the number of events of the slice, all in the window
+     */
+    public long getNbEvents() {
+        long events = 0;
+        for (long count : fEventCounts.values()) {
+            events += count;
+        }
+        return events;
+    }
+
+    /**
+     * @return the number of events of every stream file of the slice, by path
+     *         relative to the slice with '/' separators, sorted. Streams
+     *         without packets in the window have no stream file in the
+     *         slice.
+     */
+    public Map<String, Long> getEventCounts() {
+        return fEventCounts;
+    }
+
+    /**
+     * @return the number of packets copied as is from the source trace
+     */
+    public long getCopiedPackets() {
+        return fCopiedPackets;
+    }
+
+    /**
+     * @return the number of packets rewritten: trimmed to the window, or
+     *         moved to an offset of another alignment
+     */
+    public long getRewrittenPackets() {
+        return fRewrittenPackets;
+    }
+
+    @Override
+    public String toString() {
+        return fPath + " [" + fStart + ", " + fEnd + "]: " + getNbEvents() + " events";
+    }
+}
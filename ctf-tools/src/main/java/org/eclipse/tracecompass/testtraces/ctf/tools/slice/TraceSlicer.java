@@ -0,0 +1,533 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.slice;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.LttngIndex;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.BitBuffer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.FieldDecoder;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.FieldEncoder;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ArrayType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EventClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldRole;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.IntegerType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.OptionalType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.Scope;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StreamClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StructType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.VariantType;
+
+/**
+ * Cuts a time window out of CTF traces: a valid trace holding only the
+ * events from a start time to an end time, both inclusive, in nanoseconds
+ * from the origin of the clocks.
+ *
+ * The metadata files are copied as is. Every stream is read packet by
+ * packet, decoding the events to find those in the window: the timestamps
+ * of the packet context are not trusted, some traces have events outside of
+ * them. The packets whose events are all in the window are copied as is
+ * with {@link FileChannel#transferTo}, as are the packets without events
+ * whose time range overlaps the window. The others, at the edges of the
+ * window, are rewritten with only the events in the window, their beginning
+ * timestamp set to the clock value before their first event, so that the
+ * narrow timestamps of the event headers decode the same, and their end
+ * timestamp to their last event. Packets whose offset in the slice does not
+ * have the alignment of their offset in the source are rewritten too, and
+ * rewritten packets are padded to bring the next ones back to their
+ * alignment. The sequence numbers and discarded event counters keep their
+ * values. Streams without packets in the window have no stream file in the
+ * slice.
+ *
+ * The number of events of every stream file of the slice is written to the
+ * hidden file {@value #SLICE_FILE} of the slice, see
+ * {@link #readSlice(Path)}. The output is deterministic. The packet indexes
+ * of the source are not copied, they would not match.
+ *
+ * <pre>
+ * java TraceSlicer &lt;source trace&gt; &lt;target&gt; &lt;start ns&gt; &lt;end ns&gt;
+ * </pre>
+ */
+public final class TraceSlicer {
+
+    /**
+     * Version of the slicing. Bump it whenever the output for a given input
+     * changes, to invalidate cached slices.
+     */
+    public static final String VERSION = "1";
+
+    /** Name of the file describing the slice, at its root */
+    public static final String SLICE_FILE = ".slice.properties";
+
+    private static final String EVENTS_PREFIX = "events.";
+
+    /*
+     * Room to make for an event before encoding it, relative to its source
+     * size: at an offset of another alignment, a field of 8 bits or more
+     * gains less than 64 bits of padding.
+     */
+    private static final int EXPANSION = 9;
+    private static final long SLACK = 1 << 16;
+
+    private final long fStart;
+    private final long fEnd;
+    private final Map<String, Long> fEventCounts = new TreeMap<>();
+    private long fCopiedPackets;
+    private long fRewrittenPackets;
+
+    private TraceSlicer(long start, long end) {
+        fStart = start;
+        fEnd = end;
+    }
+
+    /**
+     * Slice a trace.
+     *
+     * @param args
+     *            the source trace, the target, and the start and end of the
+     *            window in nanoseconds
+     * @throws IOException
+     *             if the trace cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 4) {
+            System.err.println("Usage: TraceSlicer <source trace> <target> <start ns> <end ns>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        TraceSlice slice = slice(Paths.get(args[0]), Paths.get(args[1]), Long.parseLong(args[2]), Long.parseLong(args[3]));
+        System.out.println("Sliced " + args[0] + ": " + slice.getNbEvents() + " events, " + slice.getCopiedPackets() + " packets copied and "
+                + slice.getRewrittenPackets() + " rewritten in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Slice a trace, or a directory tree of traces. Files that are not part
+     * of a CTF trace are copied as is.
+     *
+     * @param source
+     *            the source directory
+     * @param target
+     *            the target directory, which must not exist
+     * @param start
+     *            the start of the window, in nanoseconds, inclusive
+     * @param end
+     *            the end of the window, in nanoseconds, inclusive
+     * @return the slice
+     * @throws IOException
+     *             if a trace cannot be read or written, or a stream without
+     *             packet timestamps cannot be cut at the start of the window
+     */
+    public static TraceSlice slice(Path source, Path target, long start, long end) throws IOException {
+        if (start > end) {
+            throw new IllegalArgumentException("Start " + start + " after end " + end);
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(source)) {
+            files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        Set<Path> traceDirectories = new HashSet<>();
+        for (Path file : files) {
+            if (MetadataReader.isMetadata(file)) {
+                traceDirectories.add(file.getParent());
+            }
+        }
+        Files.createDirectories(target);
+        for (Path file : files) {
+            Path directory = file.getParent();
+            if (!traceDirectories.contains(directory) && !isIndex(directory, traceDirectories)) {
+                Path copy = target.resolve(source.relativize(file).toString());
+                Files.createDirectories(copy.getParent());
+                Files.copy(file, copy);
+            }
+        }
+        TraceSlicer slicer = new TraceSlicer(start, end);
+        for (Path directory : traceDirectories.stream().sorted().collect(Collectors.toList())) {
+            String relative = source.relativize(directory).toString().replace('\\', '/');
+            slicer.sliceTrace(directory, target.resolve(relative), relative.isEmpty() ? "" : relative + '/');
+        }
+        TraceSlice slice = new TraceSlice(target, start, end, slicer.fEventCounts, slicer.fCopiedPackets, slicer.fRewrittenPackets);
+        writeSlice(target.resolve(SLICE_FILE), slice);
+        return slice;
+    }
+
+    /**
+     * Read the description of a slice.
+     *
+     * @param slice
+     *            the slice directory
+     * @return the slice
+     * @throws IOException
+     *             if the slice file cannot be read or is invalid
+     */
+    public static TraceSlice readSlice(Path slice) throws IOException {
+        Path file = slice.resolve(SLICE_FILE);
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            Map<String, Long> eventCounts = new TreeMap<>();
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith(EVENTS_PREFIX)) {
+                    eventCounts.put(name.substring(EVENTS_PREFIX.length()), Long.parseLong(properties.getProperty(name)));
+                }
+            }
+            return new TraceSlice(slice, Long.parseLong(properties.getProperty("start")), Long.parseLong(properties.getProperty("end")),
+                    eventCounts, Long.parseLong(properties.getProperty("copied")), Long.parseLong(properties.getProperty("rewritten")));
+        } catch (NumberFormatException e) {
+            throw new CtfFormatException("Invalid slice file: " + file, e);
+        }
+    }
+
+    private static void writeSlice(Path file, TraceSlice slice) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# Events from start to end, in nanoseconds, both inclusive\n");
+            writer.write("start=" + slice.getStart() + '\n');
+            writer.write("end=" + slice.getEnd() + '\n');
+            writer.write("copied=" + slice.getCopiedPackets() + '\n');
+            writer.write("rewritten=" + slice.getRewrittenPackets() + '\n');
+            for (Map.Entry<String, Long> entry : slice.getEventCounts().entrySet()) {
+                writer.write(EVENTS_PREFIX + entry.getKey() + '=' + entry.getValue() + '\n');
+            }
+        }
+    }
+
+    private static boolean isIndex(Path directory, Set<Path> traceDirectories) {
+        return LttngIndex.DIRECTORY_NAME.equals(String.valueOf(directory.getFileName()))
+                && traceDirectories.contains(directory.getParent());
+    }
+
+    private void sliceTrace(Path traceDirectory, Path target, String prefix) throws IOException {
+        CtfMetadata metadata = MetadataReader.read(traceDirectory);
+        Files.createDirectories(target);
+        Files.copy(traceDirectory.resolve(MetadataReader.METADATA_FILE_NAME), target.resolve(MetadataReader.METADATA_FILE_NAME));
+        int alignment = Math.max(Byte.SIZE, getAlignment(metadata)) / Byte.SIZE;
+        for (Path stream : CtfIndexer.getStreamFiles(traceDirectory)) {
+            String name = String.valueOf(stream.getFileName());
+            try (StreamSlicer slicer = new StreamSlicer(metadata, alignment, stream, target.resolve(name))) {
+                if (slicer.slice()) {
+                    fEventCounts.put(prefix + name, slicer.fEvents);
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the largest alignment of the fields of a trace, in bits.
+     */
+    private static int getAlignment(CtfMetadata metadata) {
+        int alignment = getAlignment(metadata.getPacketHeader());
+        for (StreamClass stream : metadata.getStreams().values()) {
+            alignment = Math.max(alignment, getAlignment(stream.getPacketContext()));
+            alignment = Math.max(alignment, getAlignment(stream.getEventHeader()));
+            alignment = Math.max(alignment, getAlignment(stream.getEventContext()));
+            for (EventClass event : stream.getEvents().values()) {
+                alignment = Math.max(alignment, getAlignment(event.getContext()));
+                alignment = Math.max(alignment, getAlignment(event.getPayload()));
+            }
+        }
+        return alignment;
+    }
+
+    private static int getAlignment(FieldType type) {
+        if (type == null) {
+            return 1;
+        }
+        int alignment = type.getAlignment();
+        if (type instanceof StructType) {
+            for (StructType.Member member : ((StructType) type).getMembers()) {
+                alignment = Math.max(alignment, getAlignment(member.getType()));
+            }
+        } else if (type instanceof VariantType) {
+            for (VariantType.Option option : ((VariantType) type).getOptions()) {
+                alignment = Math.max(alignment, getAlignment(option.getType()));
+            }
+        } else if (type instanceof OptionalType) {
+            alignment = Math.max(alignment, getAlignment(((OptionalType) type).getType()));
+        } else if (type instanceof ArrayType) {
+            alignment = Math.max(alignment, getAlignment(((ArrayType) type).getElementType()));
+        }
+        return alignment;
+    }
+
+    private static long toNanos(ClockClass clock, long cycles) {
+        return clock == null ? cycles : clock.toNanos(cycles);
+    }
+
+    private static boolean hasRole(StructType type, FieldRole role) {
+        if (type != null) {
+            for (StructType.Member member : type.getMembers()) {
+                if (member.getRole() == role) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------------------
+    // Streams
+    // ------------------------------------------------------------------------
+
+    /**
+     * Slices a stream file, copying or rewriting one packet at a time. The
+     * rewritten packets are encoded in a buffer holding the packet, at its
+     * offset in the slice.
+     */
+    private final class StreamSlicer implements AutoCloseable {
+
+        private final CtfMetadata fMetadata;
+        private final long fAlignment;
+        private final Path fSource;
+        private final Path fTarget;
+        private final FileChannel fIn;
+        private FileChannel fOut;
+        private ByteBuffer fWindow;
+        private final BitBuffer fBits;
+        private final FieldEncoder fEncoder;
+
+        /* The offset of the next packet in the slice, in bytes */
+        private long fOffset;
+        /* The clock value a reader of the slice has after the last packet */
+        private long fClock;
+        private long fEvents;
+
+        public StreamSlicer(CtfMetadata metadata, long alignment, Path source, Path target) throws IOException {
+            fMetadata = metadata;
+            fAlignment = alignment;
+            fSource = source;
+            fTarget = target;
+            fIn = FileChannel.open(source, StandardOpenOption.READ);
+            fWindow = ByteBuffer.allocate((int) SLACK);
+            fBits = new BitBuffer(fWindow, 0);
+            fEncoder = new FieldEncoder(fBits);
+        }
+
+        /**
+         * Copy or rewrite the packets of the window.
+         *
+         * @return false if the stream has no packets in the window
+         */
+        public boolean slice() throws IOException {
+            try (PacketReader reader = new PacketReader(fMetadata, fSource)) {
+                long clock = reader.getClockValue();
+                while (reader.nextPacket()) {
+                    /* Find the events of the window */
+                    ClockClass clockClass = reader.getClock();
+                    long offset = reader.getPacketOffset();
+                    int count = 0;
+                    int first = -1;
+                    int last = -1;
+                    long firstClock = 0;
+                    long lastClock = 0;
+                    long clockBefore = reader.getClockValue();
+                    while (reader.nextEvent()) {
+                        long time = toNanos(clockClass, reader.getEventTimestamp());
+                        if (time >= fStart && time <= fEnd) {
+                            if (first < 0) {
+                                first = count;
+                                firstClock = clockBefore;
+                                if (!reader.hasTimestampBegin()) {
+                                    checkClock(reader, clockBefore);
+                                }
+                            }
+                            last = count;
+                            lastClock = reader.getEventTimestamp();
+                        }
+                        clockBefore = reader.getClockValue();
+                        count++;
+                    }
+                    if (first >= 0 || count == 0 && overlaps(reader)) {
+                        long size = reader.getPacketSize() / Byte.SIZE;
+                        if (first <= 0 && last == count - 1 && (fOffset - offset) % fAlignment == 0) {
+                            copy(offset, size, count > 0 ? clockBefore : fClock);
+                        } else {
+                            reader.seekPacket(offset, clock);
+                            reader.nextPacket();
+                            rewrite(reader, first, last, count, firstClock, lastClock, offset + size);
+                        }
+                        fEvents += first < 0 ? 0 : last - first + 1;
+                    }
+                    clock = reader.getClockValue();
+                }
+            }
+            return fOut != null;
+        }
+
+        /**
+         * Check if the time range of a packet without events overlaps the
+         * window.
+         */
+        private boolean overlaps(PacketReader reader) {
+            if (!reader.hasTimestampBegin() || !reader.hasTimestampEnd()) {
+                return false;
+            }
+            ClockClass clock = reader.getClock();
+            return toNanos(clock, reader.getTimestampBegin()) <= fEnd && toNanos(clock, reader.getTimestampEnd()) >= fStart;
+        }
+
+        /**
+         * Check that the first event of the slice in a packet without a
+         * beginning timestamp decodes to its timestamp after the last packet
+         * of the slice.
+         */
+        private void checkClock(PacketReader reader, long clockBefore) throws CtfFormatException {
+            if (clockBefore == fClock) {
+                return;
+            }
+            IntegerType type = reader.getFieldType(FieldRole.DEFAULT_CLOCK_TIMESTAMP);
+            long timestamp = reader.getEventTimestamp();
+            if (type == null || type.getSize() < Long.SIZE && FieldDecoder.updateClock(fClock, timestamp, type.getSize()) != timestamp) {
+                throw new CtfFormatException("Packets without beginning timestamp of " + fSource + " cannot be cut at " + fStart + " ns");
+            }
+        }
+
+        private FileChannel getOut() throws IOException {
+            if (fOut == null) {
+                fOut = FileChannel.open(fTarget, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            }
+            return fOut;
+        }
+
+        private void copy(long offset, long size, long clock) throws IOException {
+            FileChannel out = getOut();
+            long done = 0;
+            while (done < size) {
+                done += fIn.transferTo(offset + done, size - done, out);
+            }
+            fOffset += size;
+            fClock = clock;
+            fCopiedPackets++;
+        }
+
+        /**
+         * Rewrite the current packet of a reader with the events from first
+         * to last, padded to bring the next packet of the source back to its
+         * alignment when the packet has a content size.
+         */
+        private void rewrite(PacketReader reader, int first, int last, int count, long firstClock, long lastClock, long next) throws IOException {
+            StreamClass stream = reader.getStreamClass();
+            StructType contextType = stream.getPacketContext();
+            long start = fOffset * Byte.SIZE;
+            fBits.setWindow(fWindow, fOffset);
+            fBits.position(start);
+            ensure(start + SLACK);
+            fEncoder.encodeScope(Scope.PACKET_HEADER, fMetadata.getPacketHeader(), reader.getPacketHeader());
+            long contextPosition = fBits.position();
+            fEncoder.encodeScope(Scope.PACKET_CONTEXT, contextType, reader.getPacketContext());
+            int index = 0;
+            while (reader.nextEvent()) {
+                if (index >= first && index <= last) {
+                    ensure(fBits.position() + EXPANSION * (reader.getEventEnd() - reader.getEventOffset()) + SLACK);
+                    EventClass event = reader.getEventClass();
+                    fEncoder.encodeScope(Scope.EVENT_HEADER, stream.getEventHeader(), reader.getEventHeader());
+                    fEncoder.encodeScope(Scope.EVENT_COMMON_CONTEXT, stream.getEventContext(), reader.getEventContext());
+                    fEncoder.encodeScope(Scope.EVENT_SPECIFIC_CONTEXT, event.getContext(), reader.getEventSpecificContext());
+                    fEncoder.encodeScope(Scope.EVENT_PAYLOAD, event.getPayload(), reader.getEventPayload());
+                }
+                index++;
+            }
+            long content = fBits.position() - start;
+            long size = (content + Byte.SIZE - 1) & -Byte.SIZE;
+            if (hasRole(contextType, FieldRole.PACKET_TOTAL_LENGTH) && hasRole(contextType, FieldRole.PACKET_CONTENT_LENGTH)) {
+                size += Math.floorMod(next - fOffset - size / Byte.SIZE, fAlignment) * Byte.SIZE;
+            }
+            ensure(start + size);
+            if (contextType != null) {
+                Object[] context = reader.getPacketContext().clone();
+                for (int i = 0; i < context.length; i++) {
+                    StructType.Member member = contextType.getMember(i);
+                    FieldRole role = member.getRole();
+                    if (role == FieldRole.PACKET_TOTAL_LENGTH || role == FieldRole.PACKET_CONTENT_LENGTH) {
+                        long length = role == FieldRole.PACKET_TOTAL_LENGTH ? size : content;
+                        FieldType type = member.getType();
+                        if (type instanceof IntegerType && ((IntegerType) type).getSize() < Long.SIZE && length >>> ((IntegerType) type).getSize() != 0) {
+                            throw new CtfFormatException("Packet size " + length + " does not fit field " + member.getName() + " of " + fSource);
+                        }
+                        context[i] = length;
+                    } else if (role == FieldRole.DEFAULT_CLOCK_TIMESTAMP && first > 0) {
+                        context[i] = firstClock;
+                    } else if (role == FieldRole.PACKET_END_DEFAULT_CLOCK_TIMESTAMP && last < count - 1) {
+                        context[i] = lastClock;
+                    }
+                }
+                fBits.position(contextPosition);
+                fEncoder.encodeScope(Scope.PACKET_CONTEXT, contextType, context);
+            }
+            FileChannel out = getOut();
+            ByteBuffer packet = ByteBuffer.wrap(fWindow.array(), 0, (int) (size / Byte.SIZE));
+            while (packet.hasRemaining()) {
+                out.write(packet);
+            }
+            Arrays.fill(fWindow.array(), 0, packet.limit(), (byte) 0);
+            fOffset += size / Byte.SIZE;
+            if (first >= 0) {
+                fClock = lastClock;
+            }
+            fRewrittenPackets++;
+        }
+
+        /**
+         * Make the buffer of the packet reach at least a position, keeping its
+         * content.
+         */
+        private void ensure(long position) throws CtfFormatException {
+            long bytes = (position + Byte.SIZE - 1) / Byte.SIZE - fOffset;
+            if (bytes <= fWindow.capacity()) {
+                return;
+            }
+            if (bytes > Integer.MAX_VALUE / 2) {
+                throw new CtfFormatException("Packet of " + bytes + " bytes too large");
+            }
+            ByteBuffer window = ByteBuffer.allocate((int) Math.max(bytes, fWindow.capacity() * 2L));
+            window.put(fWindow.array());
+            fWindow = window;
+            fBits.setWindow(window, fOffset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                fIn.close();
+            } finally {
+                if (fOut != null) {
+                    fOut.close();
+                }
+            }
+        }
+    }
+}
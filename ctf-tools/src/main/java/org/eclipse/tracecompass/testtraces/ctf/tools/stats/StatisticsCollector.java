@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.stats;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * Collects the statistics of CTF traces by decoding all their events.
+ *
+ * Used at build time to generate the statistics of every test trace:
+ *
+ * <pre>
+ * java StatisticsCollector &lt;traces root&gt; &lt;output directory&gt;
+ * </pre>
+ *
+ * The statistics of the trace <code>&lt;root&gt;/a/b</code> are written to
+ * <code>&lt;output&gt;/a/b/statistics.properties</code>. A trace whose
+ * metadata cannot be parsed, or a stream that cannot be decoded to the end,
+ * fails the collection.
+ */
+public final class StatisticsCollector {
+
+    private StatisticsCollector() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Collect the statistics of all the traces of a directory tree.
+     *
+     * @param args
+     *            the root directory of the traces, and the output directory
+     * @throws IOException
+     *             if the tree cannot be walked, a trace cannot be decoded or a
+     *             statistics file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: StatisticsCollector <traces root> <output directory>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int traces = collectTree(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Collected the statistics of " + traces + " traces in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Collect the statistics of all the traces of a directory tree.
+     *
+     * @param root
+     *            the root directory
+     * @param output
+     *            the output directory
+     * @return the number of traces
+     * @throws IOException
+     *             if the tree cannot be walked, a trace cannot be decoded or a
+     *             statistics file cannot be written
+     */
+    public static int collectTree(Path root, Path output) throws IOException {
+        List<Path> metadataFiles;
+        try (Stream<Path> walk = Files.walk(root)) {
+            metadataFiles = walk.filter(MetadataReader::isMetadata).sorted().collect(Collectors.toList());
+        }
+        int count = 0;
+        for (Path metadataFile : metadataFiles) {
+            Path traceDirectory = metadataFile.getParent();
+            TraceStatistics statistics = collectTrace(traceDirectory);
+            Path target = output.resolve(root.relativize(traceDirectory).toString());
+            statistics.write(target.resolve(TraceStatistics.FILE_NAME));
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Collect the statistics of a trace.
+     *
+     * @param traceDirectory
+     *            the trace directory
+     * @return the statistics
+     * @throws IOException
+     *             if the metadata cannot be read or a stream cannot be
+     *             decoded
+     */
+    public static TraceStatistics collectTrace(Path traceDirectory) throws IOException {
+        CtfMetadata metadata = MetadataReader.read(traceDirectory);
+        long size = Files.size(traceDirectory.resolve(MetadataReader.METADATA_FILE_NAME));
+        Map<String, StreamStatistics> streams = new TreeMap<>();
+        Map<String, Long> eventCounts = new TreeMap<>();
+        for (Path stream : CtfIndexer.getStreamFiles(traceDirectory)) {
+            StreamStatistics statistics = collectStream(metadata, stream, eventCounts);
+            streams.put(String.valueOf(stream.getFileName()), statistics);
+            size += statistics.getSize();
+        }
+        return new TraceStatistics(size, streams, eventCounts);
+    }
+
+    private static StreamStatistics collectStream(CtfMetadata metadata, Path stream, Map<String, Long> eventCounts) throws IOException {
+        long packets = 0;
+        long events = 0;
+        long discarded = 0;
+        long begin = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        try (PacketReader reader = new PacketReader(metadata, stream)) {
+            while (reader.nextPacket()) {
+                packets++;
+                /* The discarded events counter is cumulative */
+                discarded = reader.getEventsDiscarded();
+                ClockClass clock = reader.getClock();
+                while (reader.nextEvent()) {
+                    events++;
+                    long timestamp = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+                    begin = Math.min(begin, timestamp);
+                    end = Math.max(end, timestamp);
+                    eventCounts.merge(reader.getEventClass().getName(), 1L, Long::sum);
+                }
+            }
+        }
+        if (events == 0) {
+            begin = 0;
+            end = 0;
+        }
+        return new StreamStatistics(Files.size(stream), packets, events, discarded, begin, end);
+    }
+}
@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.stats;
+
+/**
+ * Statistics of one stream file of a CTF trace
+ */
+public final class StreamStatistics {
+
+    private final long fSize;
+    private final long fPackets;
+    private final long fEvents;
+    private final long fDiscardedEvents;
+    private final long fBegin;
+    private final long fEnd;
+
+    /**
+     * Constructor
+     *
+     * @param size
+     *            the size of the file, in bytes
+     * @param packets
+     *            the number of packets
+     * @param events
+     *            the number of events in the file
+     * @param discardedEvents
+     *            the number of events the tracer discarded
+     * @param begin
+     *            the timestamp of the first event, in nanoseconds
+     * @param end
+     *            the timestamp of the last event, in nanoseconds
+     */
+    public StreamStatistics(long size, long packets, long events, long discardedEvents, long begin, long end) {
+        fSize = size;
+        fPackets = packets;
+        fEvents = events;
+        fDiscardedEvents = discardedEvents;
+        fBegin = begin;
+        fEnd = end;
+    }
+
+    /**
+     * @return the size of the file, in bytes
+     */
+    public long getSize() {
+        return fSize;
+    }
+
+    /**
+     * @return the number of packets
+     */
+    public long getPackets() {
+        return fPackets;
+    }
+
+    /**
+     * @return the number of events in the file
+     */
+    public long getEvents() {
+        return fEvents;
+    }
+
+    /**
+     * @return the number of events the tracer discarded
+     */
+    public long getDiscardedEvents() {
+        return fDiscardedEvents;
+    }
+
+    /**
+     * @return the timestamp of the first event, in nanoseconds, meaningless
+     *         if there are no events
+     */
+    public long getBegin() {
+        return fBegin;
+    }
+
+    /**
+     * @return the timestamp of the last event, in nanoseconds, meaningless if
+     *         there are no events
+     */
+    public long getEnd() {
+        return fEnd;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fSize) * 31 + Long.hashCode(fEvents);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof StreamStatistics)) {
+            return false;
+        }
+        StreamStatistics other = (StreamStatistics) obj;
+        return fSize == other.fSize && fPackets == other.fPackets && fEvents == other.fEvents
+                && fDiscardedEvents == other.fDiscardedEvents && fBegin == other.fBegin && fEnd == other.fEnd;
+    }
+
+    @Override
+    public String toString() {
+        return "StreamStatistics [size=" + fSize + ", packets=" + fPackets + ", events=" + fEvents
+                + ", discardedEvents=" + fDiscardedEvents + ", begin=" + fBegin + ", end=" + fEnd + "]";
+    }
+}
@@ -0,0 +1,350 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.stats;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+
+/**
+ * Statistics of a CTF trace: size, time range, and the number of packets and
+ * events of each stream file and of each event name.
+ *
+ * Statistics are stored as a properties file, one line per value:
+ *
+ * <pre>
+ * version=1
+ * size=&lt;metadata and stream files, in bytes&gt;
+ * stream.&lt;file&gt;.size|packets|events|discarded|begin|end=&lt;value&gt;
+ * event.&lt;event name&gt;=&lt;number of events&gt;
+ * </pre>
+ *
+ * Timestamps are in nanoseconds, clock offsets included. The begin and end of
+ * a stream without events are not stored.
+ */
+public final class TraceStatistics {
+
+    /** Name of the statistics file of a trace */
+    public static final String FILE_NAME = "statistics.properties";
+
+    /** Version of the statistics file format */
+    public static final int VERSION = 1;
+
+    private static final String VERSION_KEY = "version";
+    private static final String SIZE_KEY = "size";
+    private static final String STREAM_PREFIX = "stream.";
+    private static final String EVENT_PREFIX = "event.";
+    private static final String SIZE = "size";
+    private static final String PACKETS = "packets";
+    private static final String EVENTS = "events";
+    private static final String DISCARDED = "discarded";
+    private static final String BEGIN = "begin";
+    private static final String END = "end";
+
+    private final long fSize;
+    private final Map<String, StreamStatistics> fStreams;
+    private final Map<String, Long> fEventCounts;
+    private final long fPackets;
+    private final long fEvents;
+    private final long fDiscardedEvents;
+    private final long fBegin;
+    private final long fEnd;
+
+    /**
+     * Constructor
+     *
+     * @param size
+     *            the size of the metadata and stream files, in bytes
+     * @param streams
+     *            the statistics of each stream file, by path relative to the
+     *            trace directory
+     * @param eventCounts
+     *            the number of events of each event name
+     */
+    public TraceStatistics(long size, Map<String, StreamStatistics> streams, Map<String, Long> eventCounts) {
+        fSize = size;
+        fStreams = Collections.unmodifiableMap(new TreeMap<>(streams));
+        fEventCounts = Collections.unmodifiableMap(new TreeMap<>(eventCounts));
+        long packets = 0;
+        long events = 0;
+        long discarded = 0;
+        long begin = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (StreamStatistics stream : fStreams.values()) {
+            packets += stream.getPackets();
+            events += stream.getEvents();
+            discarded += stream.getDiscardedEvents();
+            if (stream.getEvents() > 0) {
+                begin = Math.min(begin, stream.getBegin());
+                end = Math.max(end, stream.getEnd());
+            }
+        }
+        fPackets = packets;
+        fEvents = events;
+        fDiscardedEvents = discarded;
+        fBegin = begin;
+        fEnd = end;
+    }
+
+    /**
+     * Combine the statistics of several traces, for example the traces of an
+     * experiment.
+     *
+     * @param traces
+     *            the statistics of each trace, by directory relative to a
+     *            common root, "" for the root itself
+     * @return the statistics of the traces together, streams by path relative
+     *         to the common root
+     */
+    public static TraceStatistics combine(Map<String, TraceStatistics> traces) {
+        long size = 0;
+        Map<String, StreamStatistics> streams = new TreeMap<>();
+        Map<String, Long> eventCounts = new TreeMap<>();
+        for (Map.Entry<String, TraceStatistics> trace : traces.entrySet()) {
+            String prefix = trace.getKey().isEmpty() ? "" : trace.getKey() + '/';
+            TraceStatistics statistics = trace.getValue();
+            size += statistics.getSize();
+            for (Map.Entry<String, StreamStatistics> stream : statistics.getStreams().entrySet()) {
+                streams.put(prefix + stream.getKey(), stream.getValue());
+            }
+            for (Map.Entry<String, Long> count : statistics.getEventCounts().entrySet()) {
+                eventCounts.merge(count.getKey(), count.getValue(), Long::sum);
+            }
+        }
+        return new TraceStatistics(size, streams, eventCounts);
+    }
+
+    /**
+     * @return the size of the metadata and stream files, in bytes
+     */
+    public long getSize() {
+        return fSize;
+    }
+
+    /**
+     * @return the statistics of each stream file, by path relative to the
+     *         trace directory
+     */
+    public Map<String, StreamStatistics> getStreams() {
+        return fStreams;
+    }
+
+    /**
+     * @return the number of events of each event name, sorted by name
+     */
+    public Map<String, Long> getEventCounts() {
+        return fEventCounts;
+    }
+
+    /**
+     * @return the number of packets
+     */
+    public long getPackets() {
+        return fPackets;
+    }
+
+    /**
+     * @return the number of events in the stream files
+     */
+    public long getEvents() {
+        return fEvents;
+    }
+
+    /**
+     * @return the number of events the tracer discarded
+     */
+    public long getDiscardedEvents() {
+        return fDiscardedEvents;
+    }
+
+    /**
+     * @return true if the trace has events, so a time range
+     */
+    public boolean hasTimeRange() {
+        return fEvents > 0;
+    }
+
+    /**
+     * @return the timestamp of the first event, in nanoseconds
+     */
+    public long getBegin() {
+        return fBegin;
+    }
+
+    /**
+     * @return the timestamp of the last event, in nanoseconds
+     */
+    public long getEnd() {
+        return fEnd;
+    }
+
+    // ------------------------------------------------------------------------
+    // Statistics files
+    // ------------------------------------------------------------------------
+
+    /**
+     * Read a statistics file.
+     *
+     * @param file
+     *            the file
+     * @return the statistics
+     * @throws IOException
+     *             if the file cannot be read or is invalid
+     */
+    public static TraceStatistics read(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+            properties.load(reader);
+        }
+        try {
+            if (Integer.parseInt(properties.getProperty(VERSION_KEY, "0")) != VERSION) {
+                throw new CtfFormatException("Unsupported statistics version " + properties.getProperty(VERSION_KEY) + " in " + file);
+            }
+            long size = Long.parseLong(properties.getProperty(SIZE_KEY));
+            Map<String, Map<String, Long>> streamValues = new TreeMap<>();
+            Map<String, Long> eventCounts = new TreeMap<>();
+            for (String key : properties.stringPropertyNames()) {
+                long value = Long.parseLong(properties.getProperty(key));
+                if (key.startsWith(EVENT_PREFIX)) {
+                    eventCounts.put(key.substring(EVENT_PREFIX.length()), value);
+                } else if (key.startsWith(STREAM_PREFIX)) {
+                    int dot = key.lastIndexOf('.');
+                    streamValues.computeIfAbsent(key.substring(STREAM_PREFIX.length(), dot), stream -> new TreeMap<>())
+                            .put(key.substring(dot + 1), value);
+                }
+            }
+            Map<String, StreamStatistics> streams = new TreeMap<>();
+            for (Map.Entry<String, Map<String, Long>> stream : streamValues.entrySet()) {
+                Map<String, Long> values = stream.getValue();
+                streams.put(stream.getKey(), new StreamStatistics(values.get(SIZE), values.get(PACKETS), values.get(EVENTS),
+                        values.get(DISCARDED), values.getOrDefault(BEGIN, 0L), values.getOrDefault(END, 0L)));
+            }
+            return new TraceStatistics(size, streams, eventCounts);
+        } catch (NumberFormatException | NullPointerException | StringIndexOutOfBoundsException e) {
+            throw new CtfFormatException("Invalid statistics file " + file, e);
+        }
+    }
+
+    /**
+     * Write a statistics file, with sorted keys so that the same statistics
+     * always give the same file.
+     *
+     * @param file
+     *            the file, replaced if it exists
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        Map<String, Long> values = new TreeMap<>();
+        values.put(VERSION_KEY, (long) VERSION);
+        values.put(SIZE_KEY, fSize);
+        for (Map.Entry<String, StreamStatistics> entry : fStreams.entrySet()) {
+            String prefix = STREAM_PREFIX + entry.getKey() + '.';
+            StreamStatistics stream = entry.getValue();
+            values.put(prefix + SIZE, stream.getSize());
+            values.put(prefix + PACKETS, stream.getPackets());
+            values.put(prefix + EVENTS, stream.getEvents());
+            values.put(prefix + DISCARDED, stream.getDiscardedEvents());
+            if (stream.getEvents() > 0) {
+                values.put(prefix + BEGIN, stream.getBegin());
+                values.put(prefix + END, stream.getEnd());
+            }
+        }
+        for (Map.Entry<String, Long> count : fEventCounts.entrySet()) {
+            values.put(EVENT_PREFIX + count.getKey(), count.getValue());
+        }
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
+            for (Map.Entry<String, Long> value : values.entrySet()) {
+                writer.write(escapeKey(value.getKey()));
+                writer.write('=');
+                writer.write(Long.toString(value.getValue()));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Escape a key as {@link Properties#store} does, without its time stamp
+     * comment
+     */
+    private static String escapeKey(String key) {
+        StringBuilder sb = new StringBuilder(key.length());
+        for (char c : key.toCharArray()) {
+            switch (c) {
+            case '\\':
+            case '=':
+            case ':':
+            case '#':
+            case '!':
+            case ' ':
+                sb.append('\\').append(c);
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\f':
+                sb.append("\\f");
+                break;
+            default:
+                if (c < 0x20 || c > 0x7e) {
+                    sb.append(String.format("\\u%04X", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fSize) * 31 + fStreams.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TraceStatistics)) {
+            return false;
+        }
+        TraceStatistics other = (TraceStatistics) obj;
+        return fSize == other.fSize && fStreams.equals(other.fStreams) && fEventCounts.equals(other.fEventCounts);
+    }
+
+    @Override
+    public String toString() {
+        return "TraceStatistics [size=" + fSize + ", packets=" + fPackets + ", events=" + fEvents
+                + ", discardedEvents=" + fDiscardedEvents + ", begin=" + fBegin + ", end=" + fEnd
+                + ", eventCounts=" + fEventCounts + "]";
+    }
+}
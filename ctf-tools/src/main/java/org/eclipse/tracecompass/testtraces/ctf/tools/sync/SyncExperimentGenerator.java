@@ -0,0 +1,431 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.sync;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+
+/**
+ * Generates synthetic trace synchronization experiments: one kernel trace per
+ * host, the hosts exchanging the TCP packets of real traced conversations
+ * (see {@link TcpConversation}), each host with its own clock offset and
+ * drift. The expected synchronization of every host is written along with the
+ * traces, see {@link #readFormulas(Path)}.
+ *
+ * The hosts form a random tree: host <code>i</code> is linked to a random
+ * host before it. Every link replays the messages of one of the
+ * conversations, in a random direction and from a random time, over and over
+ * until it carries <code>pairsPerLink</code> messages. The sequence numbers
+ * of the messages are rewritten to be unique in the experiment, so that
+ * every sent packet matches exactly one received packet.
+ *
+ * Host 0 is the reference: its clock has no offset and no drift. The clock
+ * of every other host is ahead of it by an offset of at most
+ * {@value #MAX_OFFSET} ns and drifts by at most {@value #MAX_DRIFT} parts per
+ * billion. The experiment is a directory with one trace directory per host,
+ * <code>host0000</code>, <code>host0001</code> and so on, and the formula
+ * file {@value #FORMULAS_FILE}. The output is deterministic for a given seed.
+ *
+ * <pre>
+ * java SyncExperimentGenerator &lt;target&gt; &lt;hosts&gt; &lt;pairs per link&gt; &lt;seed&gt; &lt;source trace&gt;...
+ * </pre>
+ */
+public final class SyncExperimentGenerator {
+
+    /**
+     * Version of the generator. Bump it whenever the output for a given
+     * input changes, to invalidate cached experiments.
+     */
+    public static final String VERSION = "1";
+
+    /** Name of the file of the expected synchronization formulas */
+    public static final String FORMULAS_FILE = "sync.properties";
+
+    /** Largest clock offset of a host, in nanoseconds */
+    public static final long MAX_OFFSET = 1000000000L;
+
+    /** Largest clock drift of a host, in parts per billion */
+    public static final long MAX_DRIFT = 100000L;
+
+    /** Largest number of hosts of an experiment */
+    public static final int MAX_HOSTS = 9999;
+
+    private static final long NANOS_PER_SECOND = 1000000000L;
+
+    /* Time between two replays of a conversation on a link */
+    private static final long GAP = 1000000L;
+
+    private static final int PACKET_SIZE = 16384;
+    private static final int CTF_MAGIC = 0xC1FC1FC1;
+    private static final int IN_ID = 5;
+    private static final int OUT_ID = 6;
+
+    /* magic, uuid, stream_id, then the packet context */
+    private static final int PACKET_HEADER_SIZE = 4 + 16 + 4 + 5 * 8 + 4;
+    /* id, timestamp, then the payload */
+    private static final int EVENT_SIZE = 4 + 8 + 8 + 4 + 4 + 2 + 2 + 2;
+
+    /* Event columns: local timestamp, id, then the payload */
+    private static final int TIMESTAMP = 0;
+    private static final int ID = 1;
+    private static final int PAYLOAD = 2;
+
+    private SyncExperimentGenerator() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Generate a synchronization experiment.
+     *
+     * @param args
+     *            the target directory, the number of hosts, the number of
+     *            messages per link, the seed and the source traces
+     * @throws IOException
+     *             if a trace cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5) {
+            System.err.println("Usage: SyncExperimentGenerator <target> <hosts> <pairs per link> <seed> <source trace>...");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        List<Path> sources = new ArrayList<>();
+        for (int i = 4; i < args.length; i++) {
+            sources.add(Paths.get(args[i]));
+        }
+        int hosts = Integer.parseInt(args[1]);
+        generate(sources, Paths.get(args[0]), hosts, Integer.parseInt(args[2]), Long.parseLong(args[3]));
+        System.out.println("Generated " + hosts + " hosts in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Generate a synchronization experiment.
+     *
+     * @param sources
+     *            the source traces, whose conversations are replayed
+     * @param target
+     *            the experiment directory, which must not exist
+     * @param hosts
+     *            the number of hosts, from 2 to {@value #MAX_HOSTS}
+     * @param pairsPerLink
+     *            the number of messages exchanged by every two linked hosts,
+     *            at least 1
+     * @param seed
+     *            the seed of the topology, clocks and replay times
+     * @return the expected synchronization formulas, by host
+     * @throws IOException
+     *             if a trace cannot be read or written, or if the source
+     *             traces hold no conversation
+     */
+    public static List<SyncFormula> generate(List<Path> sources, Path target, int hosts, int pairsPerLink, long seed) throws IOException {
+        if (hosts < 2 || hosts > MAX_HOSTS) {
+            throw new IllegalArgumentException("Number of hosts must be from 2 to " + MAX_HOSTS + ": " + hosts);
+        }
+        if (pairsPerLink < 1) {
+            throw new IllegalArgumentException("Number of messages per link must be at least 1: " + pairsPerLink);
+        }
+        List<TcpConversation> conversations = TcpConversation.extract(sources);
+        if (conversations.isEmpty()) {
+            throw new CtfFormatException("No TCP packets matched between the traces " + sources);
+        }
+        long origin = conversations.get(0).getStartTime();
+        /* Whole seconds, before the earliest host clock */
+        long clockOffset = Math.floorDiv(origin - MAX_OFFSET, NANOS_PER_SECOND) * NANOS_PER_SECOND;
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long[] offsets = new long[hosts];
+        long[] drifts = new long[hosts];
+        List<List<Link>> hostLinks = new ArrayList<>();
+        hostLinks.add(new ArrayList<>());
+        for (int host = 1; host < hosts; host++) {
+            offsets[host] = random.nextLong(-MAX_OFFSET, MAX_OFFSET + 1);
+            drifts[host] = random.nextLong(-MAX_DRIFT, MAX_DRIFT + 1);
+            TcpConversation conversation = conversations.get((host - 1) % conversations.size());
+            long period = conversation.getDuration() + GAP;
+            int parent = random.nextInt(host);
+            boolean swap = random.nextBoolean();
+            Link link = new Link(conversation, swap ? host : parent, swap ? parent : host,
+                    random.nextLong(period), (long) (host - 1) * pairsPerLink);
+            hostLinks.add(new ArrayList<>());
+            hostLinks.get(parent).add(link);
+            hostLinks.get(host).add(link);
+        }
+
+        Files.createDirectories(target);
+        List<SyncFormula> formulas = new ArrayList<>();
+        for (int host = 0; host < hosts; host++) {
+            List<long[]> events = new ArrayList<>();
+            for (Link link : hostLinks.get(host)) {
+                link.addEvents(host, pairsPerLink, events);
+            }
+            for (long[] event : events) {
+                long time = event[TIMESTAMP];
+                event[TIMESTAMP] = origin + offsets[host] + time + Math.floorDiv(Math.multiplyExact(time, drifts[host]), NANOS_PER_SECOND);
+            }
+            /* Stable, so that simultaneous events keep the link order */
+            events.sort((e1, e2) -> Long.compare(e1[TIMESTAMP], e2[TIMESTAMP]));
+            String name = getHostName(host);
+            writeTrace(target.resolve(name), name, seed, clockOffset, events);
+            formulas.add(new SyncFormula(name, origin, offsets[host], drifts[host]));
+        }
+        writeFormulas(target.resolve(FORMULAS_FILE), origin, formulas);
+        return formulas;
+    }
+
+    /**
+     * Get the name of a host, and of its trace directory.
+     *
+     * @param host
+     *            the index of the host
+     * @return the name of the host
+     */
+    public static String getHostName(int host) {
+        return String.format(Locale.ROOT, "host%04d", host);
+    }
+
+    /**
+     * Read the expected synchronization formulas of an experiment.
+     *
+     * @param experiment
+     *            the experiment directory
+     * @return the formulas, by host
+     * @throws IOException
+     *             if the formula file cannot be read or is invalid
+     */
+    public static List<SyncFormula> readFormulas(Path experiment) throws IOException {
+        Path file = experiment.resolve(FORMULAS_FILE);
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            long origin = Long.parseLong(properties.getProperty("origin"));
+            int hosts = Integer.parseInt(properties.getProperty("hosts"));
+            List<SyncFormula> formulas = new ArrayList<>();
+            for (int host = 0; host < hosts; host++) {
+                String name = getHostName(host);
+                formulas.add(new SyncFormula(name, origin, Long.parseLong(properties.getProperty(name + ".offset")),
+                        Long.parseLong(properties.getProperty(name + ".drift"))));
+            }
+            return formulas;
+        } catch (NumberFormatException e) {
+            throw new CtfFormatException("Invalid synchronization formula file: " + file, e);
+        }
+    }
+
+    private static void writeFormulas(Path file, long origin, List<SyncFormula> formulas) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("# Expected synchronization: t_ref = alpha * t + beta, in nanoseconds\n");
+            writer.write("# The clock of a host is offset ns ahead of the reference at the origin, drifting by drift ppb\n");
+            writer.write("origin=" + origin + '\n');
+            writer.write("hosts=" + formulas.size() + '\n');
+            for (SyncFormula formula : formulas) {
+                String prefix = formula.getHost() + '.';
+                writer.write(prefix + "offset=" + formula.getOffset() + '\n');
+                writer.write(prefix + "drift=" + formula.getDrift() + '\n');
+                writer.write(prefix + "alpha=" + formula.getAlpha().toPlainString() + '\n');
+                writer.write(prefix + "beta=" + formula.getBeta().toPlainString() + '\n');
+            }
+        }
+    }
+
+    /**
+     * Write the trace of a host: a plain text metadata file and a single
+     * stream file of fixed-size packets.
+     */
+    private static void writeTrace(Path directory, String host, long seed, long clockOffset, List<long[]> events) throws IOException {
+        Files.createDirectories(directory);
+        UUID uuid = UUID.nameUUIDFromBytes(("sync-" + seed + '-' + host).getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("metadata"), getMetadata(host, uuid, clockOffset).getBytes(StandardCharsets.UTF_8));
+
+        int perPacket = (PACKET_SIZE - PACKET_HEADER_SIZE) / EVENT_SIZE;
+        ByteBuffer packet = ByteBuffer.allocate(PACKET_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(directory.resolve("channel0_0"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int first = 0; first < events.size(); first += perPacket) {
+                int last = Math.min(events.size(), first + perPacket) - 1;
+                packet.clear();
+                packet.putInt(CTF_MAGIC);
+                packet.order(ByteOrder.BIG_ENDIAN).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+                packet.order(ByteOrder.LITTLE_ENDIAN).putInt(0);
+                packet.putLong(events.get(first)[TIMESTAMP] - clockOffset);
+                packet.putLong(events.get(last)[TIMESTAMP] - clockOffset);
+                packet.putLong((PACKET_HEADER_SIZE + (last - first + 1) * EVENT_SIZE) * 8L);
+                packet.putLong(PACKET_SIZE * 8L);
+                packet.putLong(0);
+                packet.putInt(0);
+                for (int i = first; i <= last; i++) {
+                    long[] event = events.get(i);
+                    packet.putInt((int) event[ID]);
+                    packet.putLong(event[TIMESTAMP] - clockOffset);
+                    packet.putLong(event[PAYLOAD + TcpConversation.SENDER_SOCKET]);
+                    packet.order(ByteOrder.BIG_ENDIAN);
+                    packet.putInt((int) event[PAYLOAD + TcpConversation.SEQ]);
+                    packet.putInt((int) event[PAYLOAD + TcpConversation.ACK_SEQ]);
+                    packet.putShort((short) event[PAYLOAD + TcpConversation.CHECK]);
+                    packet.putShort((short) event[PAYLOAD + TcpConversation.WINDOW]);
+                    packet.putShort((short) event[PAYLOAD + TcpConversation.FLAGS]);
+                    packet.order(ByteOrder.LITTLE_ENDIAN);
+                }
+                /* Zero padding up to the packet size */
+                packet.position(PACKET_SIZE);
+                packet.flip();
+                while (packet.hasRemaining()) {
+                    channel.write(packet);
+                }
+                Arrays.fill(packet.array(), (byte) 0);
+            }
+        }
+    }
+
+    private static String getMetadata(String host, UUID uuid, long clockOffset) {
+        String tcpFields = "\tfields := struct {\n"
+                + "\t\tuint64_t _sk;\n"
+                + "\t\tuint32be_t _seq;\n"
+                + "\t\tuint32be_t _ack_seq;\n"
+                + "\t\tuint16be_t _check;\n"
+                + "\t\tuint16be_t _window;\n"
+                + "\t\tuint16be_t _flags;\n"
+                + "\t};\n";
+        return "/* CTF 1.8 */\n\n"
+                + "typealias integer { size = 8; align = 8; signed = false; } := uint8_t;\n"
+                + "typealias integer { size = 16; align = 8; signed = false; byte_order = be; base = 16; } := uint16be_t;\n"
+                + "typealias integer { size = 32; align = 8; signed = false; } := uint32_t;\n"
+                + "typealias integer { size = 32; align = 8; signed = false; byte_order = be; base = 16; } := uint32be_t;\n"
+                + "typealias integer { size = 64; align = 8; signed = false; } := uint64_t;\n\n"
+                + "trace {\n"
+                + "\tmajor = 1;\n"
+                + "\tminor = 8;\n"
+                + "\tuuid = \"" + uuid + "\";\n"
+                + "\tbyte_order = le;\n"
+                + "\tpacket.header := struct {\n"
+                + "\t\tuint32_t magic;\n"
+                + "\t\tuint8_t  uuid[16];\n"
+                + "\t\tuint32_t stream_id;\n"
+                + "\t};\n"
+                + "};\n\n"
+                + "env {\n"
+                + "\thostname = \"" + host + "\";\n"
+                + "\tdomain = \"kernel\";\n"
+                + "\ttracer_name = \"lttng-modules\";\n"
+                + "\ttracer_major = 2;\n"
+                + "\ttracer_minor = 1;\n"
+                + "};\n\n"
+                + "clock {\n"
+                + "\tname = monotonic;\n"
+                + "\tuuid = \"" + uuid + "\";\n"
+                + "\tdescription = \"Monotonic Clock\";\n"
+                + "\tfreq = 1000000000;\n"
+                + "\toffset_s = " + clockOffset / NANOS_PER_SECOND + ";\n"
+                + "\toffset = 0;\n"
+                + "};\n\n"
+                + "typealias integer { size = 64; align = 8; signed = false; map = clock.monotonic.value; } := uint64_clock_monotonic_t;\n\n"
+                + "struct packet_context {\n"
+                + "\tuint64_clock_monotonic_t timestamp_begin;\n"
+                + "\tuint64_clock_monotonic_t timestamp_end;\n"
+                + "\tuint64_t content_size;\n"
+                + "\tuint64_t packet_size;\n"
+                + "\tuint64_t events_discarded;\n"
+                + "\tuint32_t cpu_id;\n"
+                + "};\n\n"
+                + "struct event_header {\n"
+                + "\tuint32_t id;\n"
+                + "\tuint64_clock_monotonic_t timestamp;\n"
+                + "};\n\n"
+                + "stream {\n"
+                + "\tid = 0;\n"
+                + "\tevent.header := struct event_header;\n"
+                + "\tpacket.context := struct packet_context;\n"
+                + "};\n\n"
+                + "event {\n"
+                + "\tname = " + TcpConversation.IN_EVENT + ";\n"
+                + "\tid = " + IN_ID + ";\n"
+                + "\tstream_id = 0;\n"
+                + tcpFields
+                + "};\n\n"
+                + "event {\n"
+                + "\tname = " + TcpConversation.OUT_EVENT + ";\n"
+                + "\tid = " + OUT_ID + ";\n"
+                + "\tstream_id = 0;\n"
+                + tcpFields
+                + "};\n";
+    }
+
+    /**
+     * A conversation replayed between two hosts.
+     */
+    private static final class Link {
+
+        private final TcpConversation fConversation;
+        /* Hosts playing the first and second traces of the conversation */
+        private final int fFirst;
+        private final int fSecond;
+        private final long fPhase;
+        private final long fFirstSeq;
+
+        public Link(TcpConversation conversation, int first, int second, long phase, long firstSeq) {
+            fConversation = conversation;
+            fFirst = first;
+            fSecond = second;
+            fPhase = phase;
+            fFirstSeq = firstSeq;
+        }
+
+        /**
+         * Add the events of a host on this link, timestamped in reference
+         * time from the origin.
+         */
+        public void addEvents(int host, int pairsPerLink, List<long[]> events) {
+            int size = fConversation.size();
+            long period = fConversation.getDuration() + GAP;
+            for (int k = 0; k < pairsPerLink; k++) {
+                int message = k % size;
+                long send = fPhase + (k / size) * period + fConversation.getSendTime(message);
+                int sender = fConversation.isForward(message) ? fFirst : fSecond;
+                long[] fields = fConversation.getFields(message);
+                long[] event = new long[PAYLOAD + TcpConversation.RECEIVER_SOCKET];
+                if (host == sender) {
+                    event[TIMESTAMP] = send;
+                    event[ID] = OUT_ID;
+                    event[PAYLOAD + TcpConversation.SENDER_SOCKET] = fields[TcpConversation.SENDER_SOCKET];
+                } else {
+                    event[TIMESTAMP] = send + fConversation.getLatency(message);
+                    event[ID] = IN_ID;
+                    event[PAYLOAD + TcpConversation.SENDER_SOCKET] = fields[TcpConversation.RECEIVER_SOCKET];
+                }
+                event[PAYLOAD + TcpConversation.SEQ] = (fFirstSeq + k) & 0xFFFFFFFFL;
+                for (int field : new int[] { TcpConversation.ACK_SEQ, TcpConversation.CHECK, TcpConversation.WINDOW, TcpConversation.FLAGS }) {
+                    event[PAYLOAD + field] = fields[field];
+                }
+                events.add(event);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.sync;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+
+/**
+ * The expected synchronization of the trace of a host of a synthetic
+ * experiment: the linear formula <code>t_ref = alpha * t + beta</code> that
+ * converts a timestamp <code>t</code> of the trace to the time of the
+ * reference host, timestamps being in nanoseconds including the clock
+ * offset. It is the inverse of the clock of the host, which is
+ * <code>offset</code> nanoseconds ahead of the reference clock and drifts by
+ * <code>drift</code> parts per billion.
+ */
+public final class SyncFormula {
+
+    private static final BigDecimal BILLION = BigDecimal.valueOf(1000000000L);
+
+    private final String fHost;
+    private final long fOffset;
+    private final long fDrift;
+    private final BigDecimal fAlpha;
+    private final BigDecimal fBeta;
+
+    /**
+     * Constructor
+     *
+     * @param host
+     *            the name of the host, and of its trace directory
+     * @param origin
+     *            the timestamp of the reference clock at which the clock of
+     *            the host is exactly <code>offset</code> ahead, in
+     *            nanoseconds
+     * @param offset
+     *            the offset of the clock of the host at the origin, in
+     *            nanoseconds
+     * @param drift
+     *            the drift of the clock of the host, in parts per billion
+     */
+    public SyncFormula(String host, long origin, long offset, long drift) {
+        fHost = host;
+        fOffset = offset;
+        fDrift = drift;
+        /* t = origin + offset + (t_ref - origin) * (1 + drift / 10^9) */
+        fAlpha = BILLION.divide(BILLION.add(BigDecimal.valueOf(drift)), MathContext.DECIMAL128);
+        BigDecimal start = BigDecimal.valueOf(origin);
+        fBeta = start.subtract(fAlpha.multiply(start.add(BigDecimal.valueOf(offset)), MathContext.DECIMAL128), MathContext.DECIMAL128);
+    }
+
+    /**
+     * @return the name of the host
+     */
+    public String getHost() {
+        return fHost;
+    }
+
+    /**
+     * @return the offset of the clock of the host, in nanoseconds
+     */
+    public long getOffset() {
+        return fOffset;
+    }
+
+    /**
+     * @return the drift of the clock of the host, in parts per billion
+     */
+    public long getDrift() {
+        return fDrift;
+    }
+
+    /**
+     * @return the slope of the formula
+     */
+    public BigDecimal getAlpha() {
+        return fAlpha;
+    }
+
+    /**
+     * @return the offset of the formula, in nanoseconds
+     */
+    public BigDecimal getBeta() {
+        return fBeta;
+    }
+
+    /**
+     * Convert a timestamp of the trace of the host to the time of the
+     * reference host.
+     *
+     * @param timestamp
+     *            the timestamp, in nanoseconds
+     * @return the time of the reference host, in nanoseconds, rounded
+     */
+    public long toReference(long timestamp) {
+        return fAlpha.multiply(BigDecimal.valueOf(timestamp), MathContext.DECIMAL128).add(fBeta, MathContext.DECIMAL128)
+                .setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+    }
+
+    @Override
+    public int hashCode() {
+        return fHost.hashCode() * 31 + Long.hashCode(fOffset) * 17 + Long.hashCode(fDrift);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SyncFormula)) {
+            return false;
+        }
+        SyncFormula other = (SyncFormula) obj;
+        return fHost.equals(other.fHost) && fOffset == other.fOffset && fDrift == other.fDrift
+                && fAlpha.equals(other.fAlpha) && fBeta.equals(other.fBeta);
+    }
+
+    @Override
+    public String toString() {
+        return "SyncFormula [host=" + fHost + ", offset=" + fOffset + ", drift=" + fDrift + ", alpha=" + fAlpha + ", beta=" + fBeta + "]";
+    }
+}
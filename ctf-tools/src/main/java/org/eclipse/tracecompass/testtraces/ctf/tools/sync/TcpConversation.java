@@ -0,0 +1,324 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.sync;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EventClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+
+/**
+ * The TCP packets exchanged between two traced hosts: the
+ * <code>inet_sock_local_out</code> events of one trace matched with the
+ * <code>inet_sock_local_in</code> events of the other, by sequence number,
+ * acknowledgment number and flags, as trace synchronization does.
+ *
+ * The clocks of the two traces are aligned with an estimate of their offset,
+ * half the difference of the median one-way delays of each direction, and
+ * the messages are put on a single time line starting at 0. Messages that
+ * would then arrive less than {@value #MIN_LATENCY} ns after they are sent
+ * get that latency instead.
+ */
+public final class TcpConversation {
+
+    /** Name of the event of a packet sent */
+    public static final String OUT_EVENT = "inet_sock_local_out";
+
+    /** Name of the event of a packet received */
+    public static final String IN_EVENT = "inet_sock_local_in";
+
+    /** Smallest latency of a message, in nanoseconds */
+    public static final long MIN_LATENCY = 1000;
+
+    /** Index of the socket of the sender in the fields of a message */
+    public static final int SENDER_SOCKET = 0;
+
+    /** Index of the sequence number in the fields of a message */
+    public static final int SEQ = 1;
+
+    /** Index of the acknowledgment number in the fields of a message */
+    public static final int ACK_SEQ = 2;
+
+    /** Index of the checksum in the fields of a message */
+    public static final int CHECK = 3;
+
+    /** Index of the window in the fields of a message */
+    public static final int WINDOW = 4;
+
+    /** Index of the flags in the fields of a message */
+    public static final int FLAGS = 5;
+
+    /** Index of the socket of the receiver in the fields of a message */
+    public static final int RECEIVER_SOCKET = 6;
+
+    /* Payload fields of the events, in the order of the message fields */
+    private static final String[] FIELDS = { "sk", "seq", "ack_seq", "check", "window", "flags" };
+
+    private final String fName;
+    private final long fStartTime;
+    private final long[] fSendTimes;
+    private final long[] fLatencies;
+    private final boolean[] fForward;
+    private final long[][] fFields;
+
+    private TcpConversation(String name, long startTime, long[] sendTimes, long[] latencies, boolean[] forward, long[][] fields) {
+        fName = name;
+        fStartTime = startTime;
+        fSendTimes = sendTimes;
+        fLatencies = latencies;
+        fForward = forward;
+        fFields = fields;
+    }
+
+    /**
+     * Extract the conversations between every two of a set of traces. The
+     * messages of each conversation are sorted by send time.
+     *
+     * @param traceDirectories
+     *            the trace directories, usually of different hosts
+     * @return the conversations with at least one message
+     * @throws IOException
+     *             if a trace cannot be read or decoded
+     */
+    public static List<TcpConversation> extract(List<Path> traceDirectories) throws IOException {
+        List<List<long[]>> outs = new ArrayList<>();
+        List<List<long[]>> ins = new ArrayList<>();
+        for (Path traceDirectory : traceDirectories) {
+            List<long[]> traceOuts = new ArrayList<>();
+            List<long[]> traceIns = new ArrayList<>();
+            readEvents(traceDirectory, traceOuts, traceIns);
+            outs.add(traceOuts);
+            ins.add(traceIns);
+        }
+        List<TcpConversation> conversations = new ArrayList<>();
+        for (int a = 0; a < traceDirectories.size(); a++) {
+            for (int b = a + 1; b < traceDirectories.size(); b++) {
+                List<long[]> forward = match(outs.get(a), ins.get(b));
+                List<long[]> backward = match(outs.get(b), ins.get(a));
+                if (!forward.isEmpty() || !backward.isEmpty()) {
+                    String name = traceDirectories.get(a).getFileName() + "-" + traceDirectories.get(b).getFileName();
+                    conversations.add(create(name, forward, backward));
+                }
+            }
+        }
+        return conversations;
+    }
+
+    /**
+     * Read the TCP events of a trace: timestamp then payload fields.
+     */
+    private static void readEvents(Path traceDirectory, List<long[]> outs, List<long[]> ins) throws IOException {
+        CtfMetadata metadata = MetadataReader.read(traceDirectory);
+        for (Path stream : CtfIndexer.getStreamFiles(traceDirectory)) {
+            try (PacketReader reader = new PacketReader(metadata, stream)) {
+                while (reader.nextPacket()) {
+                    ClockClass clock = reader.getClock();
+                    while (reader.nextEvent()) {
+                        EventClass event = reader.getEventClass();
+                        boolean out = OUT_EVENT.equals(event.getName());
+                        if (!out && !IN_EVENT.equals(event.getName())) {
+                            continue;
+                        }
+                        long[] values = new long[FIELDS.length + 1];
+                        values[0] = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+                        Object[] payload = reader.getEventPayload();
+                        for (int i = 0; i < FIELDS.length; i++) {
+                            int index = event.getPayload().indexOf(FIELDS[i]);
+                            if (index < 0) {
+                                index = event.getPayload().indexOf('_' + FIELDS[i]);
+                            }
+                            if (index >= 0 && payload[index] instanceof Long) {
+                                values[i + 1] = (Long) payload[index];
+                            }
+                        }
+                        (out ? outs : ins).add(values);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Match sent and received packets: send timestamp, receive timestamp,
+     * then the fields of the sent packet with the socket of the receiver.
+     */
+    private static List<long[]> match(List<long[]> outs, List<long[]> ins) {
+        Map<List<Long>, long[]> sent = new HashMap<>();
+        for (long[] out : outs) {
+            sent.putIfAbsent(key(out), out);
+        }
+        List<long[]> pairs = new ArrayList<>();
+        for (long[] in : ins) {
+            long[] out = sent.remove(key(in));
+            if (out != null) {
+                long[] pair = new long[FIELDS.length + 3];
+                pair[0] = out[0];
+                pair[1] = in[0];
+                System.arraycopy(out, 1, pair, 2, FIELDS.length);
+                pair[FIELDS.length + 2] = in[1 + SENDER_SOCKET];
+                pairs.add(pair);
+            }
+        }
+        return pairs;
+    }
+
+    private static List<Long> key(long[] event) {
+        return Arrays.asList(event[1 + SEQ], event[1 + ACK_SEQ], event[1 + FLAGS]);
+    }
+
+    private static TcpConversation create(String name, List<long[]> forward, List<long[]> backward) {
+        /* Clock of b minus clock of a */
+        long delta;
+        if (!forward.isEmpty() && !backward.isEmpty()) {
+            delta = (medianDelay(forward) - medianDelay(backward)) / 2;
+        } else if (!forward.isEmpty()) {
+            delta = minDelay(forward) - MIN_LATENCY;
+        } else {
+            delta = -(minDelay(backward) - MIN_LATENCY);
+        }
+        List<long[]> messages = new ArrayList<>();
+        for (long[] pair : forward) {
+            messages.add(message(pair, pair[0], pair[1] - delta, 1));
+        }
+        for (long[] pair : backward) {
+            messages.add(message(pair, pair[0] - delta, pair[1], 0));
+        }
+        messages.sort((m1, m2) -> Long.compare(m1[0], m2[0]));
+        long start = messages.get(0)[0];
+        int count = messages.size();
+        long[] sendTimes = new long[count];
+        long[] latencies = new long[count];
+        boolean[] directions = new boolean[count];
+        long[][] fields = new long[count][];
+        for (int i = 0; i < count; i++) {
+            long[] message = messages.get(i);
+            sendTimes[i] = message[0] - start;
+            latencies[i] = message[1];
+            directions[i] = message[2] != 0;
+            fields[i] = Arrays.copyOfRange(message, 3, message.length);
+        }
+        return new TcpConversation(name, start, sendTimes, latencies, directions, fields);
+    }
+
+    /**
+     * A message on the time line of a: send time, latency, direction, then
+     * the fields and the socket of the receiver.
+     */
+    private static long[] message(long[] pair, long send, long receive, int forward) {
+        long[] message = new long[FIELDS.length + 4];
+        message[0] = send;
+        message[1] = Math.max(MIN_LATENCY, receive - send);
+        message[2] = forward;
+        System.arraycopy(pair, 2, message, 3, FIELDS.length + 1);
+        return message;
+    }
+
+    private static long medianDelay(List<long[]> pairs) {
+        long[] delays = new long[pairs.size()];
+        for (int i = 0; i < delays.length; i++) {
+            delays[i] = pairs.get(i)[1] - pairs.get(i)[0];
+        }
+        Arrays.sort(delays);
+        return delays[delays.length / 2];
+    }
+
+    private static long minDelay(List<long[]> pairs) {
+        long min = Long.MAX_VALUE;
+        for (long[] pair : pairs) {
+            min = Math.min(min, pair[1] - pair[0]);
+        }
+        return min;
+    }
+
+    /**
+     * @return the names of the two traces, separated by a dash
+     */
+    public String getName() {
+        return fName;
+    }
+
+    /**
+     * @return the time the first message is sent, in nanoseconds on the clock
+     *         of the first trace
+     */
+    public long getStartTime() {
+        return fStartTime;
+    }
+
+    /**
+     * @return the number of messages
+     */
+    public int size() {
+        return fSendTimes.length;
+    }
+
+    /**
+     * @return the time between the first send and the last receive, in
+     *         nanoseconds
+     */
+    public long getDuration() {
+        long end = 0;
+        for (int i = 0; i < fSendTimes.length; i++) {
+            end = Math.max(end, fSendTimes[i] + fLatencies[i]);
+        }
+        return end;
+    }
+
+    /**
+     * @param message
+     *            the index of the message
+     * @return the time the message is sent, in nanoseconds from the first
+     *         message
+     */
+    public long getSendTime(int message) {
+        return fSendTimes[message];
+    }
+
+    /**
+     * @param message
+     *            the index of the message
+     * @return the time between the send and the receive, in nanoseconds
+     */
+    public long getLatency(int message) {
+        return fLatencies[message];
+    }
+
+    /**
+     * @param message
+     *            the index of the message
+     * @return true if the message is sent by the first trace, false if by the
+     *         second
+     */
+    public boolean isForward(int message) {
+        return fForward[message];
+    }
+
+    /**
+     * @param message
+     *            the index of the message
+     * @return the fields of the message, see {@link #SENDER_SOCKET} to
+     *         {@link #RECEIVER_SOCKET}
+     */
+    public long[] getFields(int message) {
+        return fFields[message].clone();
+    }
+}
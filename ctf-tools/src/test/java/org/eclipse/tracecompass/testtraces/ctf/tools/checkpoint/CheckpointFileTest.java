@@ -0,0 +1,166 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link CheckpointFile}, {@link CheckpointVerifier} and
+ * {@link RollingDigest}
+ */
+public class CheckpointFileTest {
+
+    private static final int INTERVAL = 4;
+    private static final int EVENTS = 10;
+
+    /** Temporary directory for the checkpoint files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    private static Object[] payload(int event) {
+        return new Object[] { Long.valueOf(event), "cpu" + event, new Object[] { new byte[] { (byte) event }, null, 0.5 } };
+    }
+
+    /**
+     * Write the checkpoints of {@link #EVENTS} synthetic events, as the
+     * generator does.
+     */
+    private Path writeCheckpoints() throws IOException {
+        List<Checkpoint> checkpoints = new ArrayList<>();
+        RollingDigest digest = new RollingDigest();
+        for (int event = 1; event <= EVENTS; event++) {
+            digest.putEvent("event" + event % 3, 100L * event, payload(event));
+            if (event % INTERVAL == 0 || event == EVENTS) {
+                checkpoints.add(new Checkpoint(event, 100L * event, 1, 64L * event, digest.getValue()));
+            }
+        }
+        Path file = fTemporaryFolder.getRoot().toPath().resolve("trace").resolve("stream" + CheckpointFile.EXTENSION);
+        CheckpointFile.write(file, INTERVAL, EVENTS, checkpoints);
+        assertEquals(checkpoints, CheckpointFile.read(file));
+        return file;
+    }
+
+    /**
+     * Test that the digest depends on the structure of the values, not only on
+     * their content.
+     */
+    @Test
+    public void testDigest() {
+        List<Object> values = Arrays.asList(new Object[] { "ab" }, new Object[] { "a", "b" }, new Object[] { "ab", null },
+                new Object[] { new byte[] { 'a', 'b' } }, new Object[] { 1L }, new Object[] { 1.0 }, new Object[] { new Object[] { 1L } },
+                new Object[0], "ab\u00e9", "ab\u00e8");
+        List<Long> digests = new ArrayList<>();
+        for (Object value : values) {
+            RollingDigest digest = new RollingDigest();
+            digest.putValue(value);
+            assertFalse(value.toString(), digests.contains(digest.getValue()));
+            digests.add(digest.getValue());
+        }
+        RollingDigest digest = new RollingDigest();
+        digest.putEvent("e", 0, null);
+        RollingDigest empty = new RollingDigest();
+        empty.putEvent("e", 0, new Object[0]);
+        assertEquals(empty.getValue(), digest.getValue());
+        assertNotEquals(0, digest.getValue());
+    }
+
+    /**
+     * Test that the same events pass the verifier, through both of its entry
+     * points.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testVerify() throws IOException {
+        Path file = writeCheckpoints();
+        try (CheckpointVerifier verifier = new CheckpointVerifier(file, "stream")) {
+            for (int event = 1; event <= EVENTS; event++) {
+                if (event % 2 == 0) {
+                    verifier.event("event" + event % 3, 100L * event, 1, 64L * event, payload(event));
+                } else {
+                    verifier.beginEvent("event" + event % 3, 100L * event).putValue(payload(event));
+                    verifier.endEvent(-1, -1);
+                }
+            }
+            verifier.finish();
+            assertEquals(EVENTS, verifier.getEvents());
+        }
+    }
+
+    /**
+     * Test that a changed event is reported at the next checkpoint, and that
+     * missing events are reported at the end.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testMismatch() throws IOException {
+        Path file = writeCheckpoints();
+        try (CheckpointVerifier verifier = new CheckpointVerifier(file, "stream")) {
+            verifier.event("event1", 100, 1, 64, payload(1));
+            verifier.event("event2", 200, 1, 128, payload(1));
+            verifier.event("event0", 300, 1, 192, payload(3));
+            verifier.event("event1", 400, 1, 256, payload(4));
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith("stream: digest of event 4"));
+        }
+        try (CheckpointVerifier verifier = new CheckpointVerifier(file, "stream")) {
+            for (int event = 1; event < EVENTS; event++) {
+                verifier.event("event" + event % 3, 100L * event, 1, 64L * event, payload(event));
+            }
+            verifier.finish();
+            fail();
+        } catch (IllegalStateException e) {
+            assertEquals("stream has 9 events, expected 10", e.getMessage());
+        }
+    }
+
+    /**
+     * Test that truncated checkpoint files are rejected.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testTruncated() throws IOException {
+        Path file = writeCheckpoints();
+        byte[] bytes = Files.readAllBytes(file);
+        for (int size : new int[] { 20, bytes.length - Long.BYTES }) {
+            Files.write(file, Arrays.copyOf(bytes, size));
+            try {
+                CheckpointFile.read(file);
+                fail();
+            } catch (CtfFormatException e) {
+                // Expected
+            }
+        }
+    }
+}
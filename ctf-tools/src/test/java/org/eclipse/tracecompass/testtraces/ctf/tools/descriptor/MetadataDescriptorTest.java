@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.descriptor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.BlobType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.Ctf2Parser;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EnumType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EventClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.FieldRole;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.IntegerType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.Scope;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.StructType;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.TsdlParser;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.VariantType;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link MetadataDescriptor}
+ */
+public class MetadataDescriptorTest {
+
+    private static final String TSDL = "/* CTF 1.8 */\n"
+            + "typealias integer { size = 8; align = 8; signed = false; } := uint8_t;\n"
+            + "typealias integer { size = 32; align = 8; signed = false; } := uint32_t;\n"
+            + "typealias integer { size = 64; align = 8; signed = false; } := unsigned long;\n"
+            + "typealias integer { size = 27; align = 1; signed = false; map = clock.monotonic.value; } := uint27_clock_monotonic_t;\n"
+            + "trace {\n"
+            + "    major = 1; minor = 8;\n"
+            + "    byte_order = be;\n"
+            + "    packet.header := struct { uint32_t magic; uint32_t stream_id; };\n"
+            + "};\n"
+            + "env { hostname = \"localhost\"; tracer_major = 2; };\n"
+            + "clock { name = \"monotonic\"; freq = 1000000000; offset_s = 1434072888; };\n"
+            + "stream {\n"
+            + "    id = 0;\n"
+            + "    event.header := struct {\n"
+            + "        enum : integer { size = 5; align = 1; signed = false; } { compact = 0 ... 30, extended = 31 } id;\n"
+            + "        variant <id> {\n"
+            + "            struct { uint27_clock_monotonic_t timestamp; } compact;\n"
+            + "            struct { uint32_t id; unsigned long timestamp; } extended;\n"
+            + "        } v;\n"
+            + "    } align(8);\n"
+            + "};\n"
+            + "event {\n"
+            + "    name = \"sched_switch\"; id = 7; stream_id = 0;\n"
+            + "    fields := struct { unsigned long prev_tid; uint8_t _comm_length; uint8_t comm[_comm_length]; };\n"
+            + "};\n";
+
+    private static final String CTF2 = Ctf2Parser.RECORD_SEPARATOR + "{\"type\":\"preamble\",\"version\":2}"
+            + Ctf2Parser.RECORD_SEPARATOR + "{\"type\":\"trace-class\",\"environment\":{\"ratio\":0.5,\"nested\":{\"flag\":true,\"list\":[1,null,\"x\"]}}}"
+            + Ctf2Parser.RECORD_SEPARATOR + "{\"type\":\"data-stream-class\"}"
+            + Ctf2Parser.RECORD_SEPARATOR + "{\"type\":\"event-record-class\",\"id\":-1,\"name\":\"ev\",\"payload-field-class\":{\"type\":\"structure\",\"member-classes\":["
+            + "{\"name\":\"sel\",\"field-class\":{\"type\":\"fixed-length-signed-integer\",\"length\":8,\"byte-order\":\"little-endian\"}},"
+            + "{\"name\":\"len\",\"field-class\":{\"type\":\"variable-length-unsigned-integer\"}},"
+            + "{\"name\":\"data\",\"field-class\":{\"type\":\"dynamic-length-blob\",\"length-field-location\":{\"origin\":\"event-record-payload\",\"path\":[\"len\"]}}},"
+            + "{\"name\":\"opt\",\"field-class\":{\"type\":\"optional\",\"selector-field-location\":{\"path\":[\"sel\"]},\"selector-field-ranges\":[[-3,-1]],"
+            + "\"field-class\":{\"type\":\"null-terminated-string\"}}},"
+            + "{\"name\":\"var\",\"field-class\":{\"type\":\"variant\",\"selector-field-location\":{\"path\":[\"sel\"]},\"options\":["
+            + "{\"name\":\"f\",\"selector-field-ranges\":[[0,0]],\"field-class\":{\"type\":\"fixed-length-floating-point-number\",\"length\":64,\"byte-order\":\"big-endian\"}},"
+            + "{\"selector-field-ranges\":[[1,9]],\"field-class\":{\"type\":\"static-length-array\",\"length\":3,"
+            + "\"element-field-class\":{\"type\":\"variable-length-signed-integer\"}}}]}}]}}";
+
+    /** Temporary directory for the descriptor files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test that TSDL metadata survives a write and a read.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testTsdl() throws IOException {
+        CtfMetadata metadata = TsdlParser.parse(TSDL);
+        Path file = fTemporaryFolder.getRoot().toPath().resolve("trace").resolve(MetadataDescriptor.FILE_NAME);
+        MetadataDescriptor.write(metadata, file);
+        CtfMetadata read = MetadataDescriptor.read(file);
+        assertRoundTrip(metadata, read);
+
+        assertEquals(ByteOrder.BIG_ENDIAN, read.getByteOrder());
+        assertEquals(FieldRole.PACKET_MAGIC_NUMBER, read.getPacketHeader().getMember(0).getRole());
+        assertEquals(1434072888L, read.getClocks().get("monotonic").getOffsetSeconds());
+        assertEquals("localhost", read.getEnvironment().get("hostname"));
+        assertEquals(2L, read.getEnvironment().get("tracer_major"));
+
+        StructType header = read.getStream(0).getEventHeader();
+        assertEquals("extended", ((EnumType) header.getMember(0).getType()).getLabel(31));
+        VariantType variant = (VariantType) header.getMember(1).getType();
+        StructType compact = (StructType) variant.getOptions().get(0).getType();
+        assertEquals(FieldRole.DEFAULT_CLOCK_TIMESTAMP, compact.getMember(0).getRole());
+        IntegerType timestamp = (IntegerType) compact.getMember(0).getType();
+        assertEquals(27, timestamp.getSize());
+        assertEquals("monotonic", timestamp.getClockName());
+
+        EventClass event = read.getStream(0).getEvent(7);
+        assertEquals("sched_switch", event.getName());
+        StructType fields = event.getPayload();
+        assertEquals(64, ((IntegerType) fields.getMember(0).getType()).getSize());
+        /* Types shared in the metadata stay shared */
+        assertSame(read.getPacketHeader().getMember(0).getType(), ((StructType) variant.getOptions().get(1).getType()).getMember(0).getType());
+    }
+
+    /**
+     * Test that CTF 2 metadata survives a write and a read, including JSON
+     * values and negative numbers.
+     *
+     * @throws CtfFormatException
+     *             if the test fails
+     */
+    @Test
+    public void testCtf2() throws CtfFormatException {
+        CtfMetadata metadata = Ctf2Parser.parse(CTF2);
+        CtfMetadata read = MetadataDescriptor.read(ByteBuffer.wrap(MetadataDescriptor.toBytes(metadata)));
+        assertRoundTrip(metadata, read);
+
+        assertEquals(0.5, read.getEnvironment().get("ratio"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> nested = (Map<String, Object>) read.getEnvironment().get("nested");
+        assertEquals(Boolean.TRUE, nested.get("flag"));
+        assertEquals(Arrays.asList(1L, null, "x"), nested.get("list"));
+
+        EventClass event = read.getStream(0).getEvent(-1);
+        assertEquals("ev", event.getName());
+        assertEquals(Collections.emptyMap(), read.getClocks());
+        VariantType variant = (VariantType) event.getPayload().getMember(4).getType();
+        assertNull(variant.getSelector().getOrigin());
+        assertArrayEquals(new long[] { 1, 9 }, variant.getOptions().get(1).getRanges());
+        BlobType blob = (BlobType) event.getPayload().getMember(2).getType();
+        assertEquals(Scope.EVENT_PAYLOAD, blob.getLengthLocation().getOrigin());
+    }
+
+    /**
+     * Test that buffers that are not descriptors are rejected.
+     *
+     * @throws CtfFormatException
+     *             if the test fails
+     */
+    @Test
+    public void testInvalid() throws CtfFormatException {
+        byte[] bytes = MetadataDescriptor.toBytes(TsdlParser.parse(TSDL));
+        byte[] otherVersion = bytes.clone();
+        otherVersion[5] = (byte) (MetadataDescriptor.MAJOR + 1);
+        for (byte[] buffer : Arrays.asList(new byte[0], Arrays.copyOf(bytes, 11), Arrays.copyOf(bytes, bytes.length - 1), otherVersion)) {
+            try {
+                MetadataDescriptor.read(ByteBuffer.wrap(buffer));
+                fail("Read " + buffer.length + " invalid bytes");
+            } catch (CtfFormatException e) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * A descriptor holds everything in the metadata if writing back what was
+     * read gives the same bytes.
+     */
+    private static void assertRoundTrip(CtfMetadata expected, CtfMetadata actual) {
+        assertArrayEquals(MetadataDescriptor.toBytes(expected), MetadataDescriptor.toBytes(actual));
+    }
+}
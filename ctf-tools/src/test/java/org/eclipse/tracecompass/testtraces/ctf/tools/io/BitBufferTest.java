@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.io;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.junit.Test;
+
+/**
+ * Tests for {@link BitBuffer}
+ */
+public class BitBufferTest {
+
+    private static BitBuffer wrap(int... bytes) {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes.length);
+        for (int b : bytes) {
+            buffer.put((byte) b);
+        }
+        buffer.flip();
+        return new BitBuffer(buffer, 0);
+    }
+
+    /**
+     * Test little-endian fields that are not byte aligned: LTTng compact
+     * event headers (5-bit id, 27-bit timestamp).
+     *
+     * @throws CtfFormatException
+     *             if the test fails
+     */
+    @Test
+    public void testLittleEndianBitFields() throws CtfFormatException {
+        /* id = 3, timestamp = 0x5A5A5A5 */
+        int word = 3 | (0x5A5A5A5 << 5);
+        BitBuffer buffer = wrap(word & 0xff, (word >>> 8) & 0xff, (word >>> 16) & 0xff, (word >>> 24) & 0xff);
+        assertEquals(3, buffer.getLong(5, false, ByteOrder.LITTLE_ENDIAN));
+        assertEquals(0x5A5A5A5, buffer.getLong(27, false, ByteOrder.LITTLE_ENDIAN));
+        assertEquals(32, buffer.position());
+    }
+
+    /**
+     * Test big-endian fields that are not byte aligned.
+     *
+     * @throws CtfFormatException
+     *             if the test fails
+     */
+    @Test
+    public void testBigEndianBitFields() throws CtfFormatException {
+        BitBuffer buffer = wrap(0b10110011, 0b01011111);
+        assertEquals(0b101, buffer.getLong(3, false, ByteOrder.BIG_ENDIAN));
+        assertEquals(0b1001101011, buffer.getLong(10, false, ByteOrder.BIG_ENDIAN));
+        assertEquals(-1, buffer.getLong(3, true, ByteOrder.BIG_ENDIAN));
+    }
+
+    /**
+     * Test 64-bit values spanning 9 bytes, in both byte orders.
+     *
+     * @throws CtfFormatException
+     *             if the test fails
+     */
+    @Test
+    public void testUnalignedLong() throws CtfFormatException {
+        long value = 0x8123456789ABCDEFL;
+        ByteBuffer le = ByteBuffer.allocate(9).order(ByteOrder.LITTLE_ENDIAN);
+        le.putLong(0, value << 4);
+        le.put(8, (byte) (value >>> 60));
+        BitBuffer buffer = new BitBuffer(le, 0);
+        buffer.position(4);
+        assertEquals(value, buffer.getLong(64, false, ByteOrder.LITTLE_ENDIAN));
+
+        ByteBuffer be = ByteBuffer.allocate(9).order(ByteOrder.BIG_ENDIAN);
+        be.put(0, (byte) (value >>> 60));
+        be.putLong(1, value << 4);
+        buffer = new BitBuffer(be, 0);
+        buffer.position(4);
+        assertEquals(value, buffer.getLong(64, false, ByteOrder.BIG_ENDIAN));
+    }
+
+    /**
+     * Test writing fields in place, aligned or not, keeping the other bits.
+     *
+     * @throws CtfFormatException
+     *             if the test fails
+     */
+    @Test
+    public void testPutLong() throws CtfFormatException {
+        for (ByteOrder order : new ByteOrder[] { ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN }) {
+            BitBuffer buffer = wrap(0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff, 0xff);
+            buffer.position(3);
+            buffer.putLong(27, order, 0x5A5A5A5);
+            buffer.putLong(64, order, 0x8123456789ABCDEFL);
+            buffer.position(0);
+            assertEquals(7, buffer.getLong(3, false, order));
+            assertEquals(0x5A5A5A5, buffer.getLong(27, false, order));
+            assertEquals(0x8123456789ABCDEFL, buffer.getLong(64, false, order));
+            assertEquals(1, buffer.getLong(2, false, order) & 1);
+
+            buffer.position(32);
+            buffer.putLong(32, order, 0x12345678);
+            buffer.position(32);
+            assertEquals(0x12345678, buffer.getLong(32, false, order));
+        }
+    }
+
+    /**
+     * Test variable-length integers.
+     *
+     * @throws CtfFormatException
+     *             if the test fails
+     */
+    @Test
+    public void testLeb128() throws CtfFormatException {
+        BitBuffer buffer = wrap(0xE5, 0x8E, 0x26, 0xC0, 0xBB, 0x78);
+        assertEquals(624485, buffer.getLeb128(false));
+        assertEquals(-123456, buffer.getLeb128(true));
+    }
+
+    /**
+     * Test that reads cannot go past the limit.
+     *
+     * @throws CtfFormatException
+     *             expected
+     */
+    @Test(expected = CtfFormatException.class)
+    public void testLimit() throws CtfFormatException {
+        BitBuffer buffer = wrap(1, 2, 3, 4);
+        buffer.limit(24);
+        buffer.getLong(32, false, ByteOrder.LITTLE_ENDIAN);
+    }
+}
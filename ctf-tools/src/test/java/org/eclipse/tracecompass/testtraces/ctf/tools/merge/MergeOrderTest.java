@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.merge;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link MergeOrder} and the {@link KWayMerger}s
+ */
+public class MergeOrderTest {
+
+    /** Temporary directory for the merge order files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    private static final List<String> STREAMS = Arrays.asList("channel0_0", "channel0_1", "sub/channel\u00e9");
+
+    private static MergeOrder build(int... streams) {
+        MergeOrder.Builder builder = new MergeOrder.Builder(STREAMS);
+        for (int stream : streams) {
+            builder.accept(stream);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Test that a merge order survives a write and a read.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testReadWrite() throws IOException {
+        int[] streams = new int[1000];
+        for (int i = 0; i < streams.length; i++) {
+            streams[i] = i < 300 ? 0 : i % 3;
+        }
+        MergeOrder order = build(streams);
+        assertEquals(1000, order.getEventCount());
+        assertEquals(700, order.getRunCount());
+        assertEquals(0, order.getRunStream(0));
+        assertEquals(301, order.getRunLength(0));
+        Path file = fTemporaryFolder.getRoot().toPath().resolve("trace").resolve(MergeOrder.FILE_NAME);
+        order.write(file);
+        MergeOrder read = MergeOrder.read(file);
+        assertEquals(STREAMS, read.getStreams());
+        assertEquals(order, read);
+        int[] events = new int[1000];
+        int[] count = new int[1];
+        read.forEach(stream -> events[count[0]++] = stream);
+        assertEquals(Arrays.toString(streams), Arrays.toString(events));
+    }
+
+    /**
+     * Test the first differing event of two merge orders.
+     */
+    @Test
+    public void testMismatch() {
+        MergeOrder order = build(0, 0, 1, 2, 2, 2);
+        assertEquals(-1, order.mismatch(build(0, 0, 1, 2, 2, 2)));
+        assertEquals(3, order.mismatch(build(0, 0, 1, 1, 2, 2)));
+        assertEquals(0, order.mismatch(build(1, 0, 1, 2, 2, 2)));
+        assertEquals(5, order.mismatch(build(0, 0, 1, 2, 2)));
+        assertEquals(5, build(0, 0, 1, 2, 2).mismatch(order));
+        assertNotEquals(order, build(0, 0, 1, 2, 2));
+    }
+
+    /**
+     * Test that truncated merge order files are rejected.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testTruncated() throws IOException {
+        Path file = fTemporaryFolder.getRoot().toPath().resolve(MergeOrder.FILE_NAME);
+        build(0, 1, 2, 0, 1, 2).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        for (int size : new int[] { 20, 40, bytes.length - 1 }) {
+            Files.write(file, Arrays.copyOf(bytes, size));
+            try {
+                MergeOrder.read(file);
+                fail();
+            } catch (CtfFormatException e) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * Test every merger against a sort of all the events, on streams with
+     * equal timestamps, empty streams and uneven streams.
+     */
+    @Test
+    public void testMergers() {
+        Random random = new Random(15);
+        for (int iteration = 0; iteration < 50; iteration++) {
+            int k = 1 + random.nextInt(iteration < 25 ? 5 : 300);
+            long[][] streams = new long[k][];
+            List<long[]> events = new ArrayList<>();
+            for (int stream = 0; stream < k; stream++) {
+                int length = random.nextInt(4) == 0 ? 0 : random.nextInt(1 + random.nextInt(3000));
+                streams[stream] = new long[length];
+                long timestamp = random.nextInt(100);
+                for (int i = 0; i < length; i++) {
+                    timestamp += random.nextInt(3);
+                    streams[stream][i] = timestamp;
+                    events.add(new long[] { timestamp, stream, i });
+                }
+            }
+            events.sort(Comparator.<long[]> comparingLong(event -> event[0])
+                    .thenComparingLong(event -> event[1])
+                    .thenComparingLong(event -> event[2]));
+            List<String> names = new ArrayList<>();
+            for (int stream = 0; stream < k; stream++) {
+                names.add("stream" + stream);
+            }
+            MergeOrder.Builder expectedBuilder = new MergeOrder.Builder(names);
+            for (long[] event : events) {
+                expectedBuilder.accept((int) event[1]);
+            }
+            MergeOrder expected = expectedBuilder.build();
+            KWayMerger[] mergers = { new HeapMerger(), new TournamentMerger(), new BatchedMerger(BatchedMerger.DEFAULT_BATCH_SIZE), new BatchedMerger(1), new BatchedMerger(7) };
+            for (KWayMerger merger : mergers) {
+                MergeOrder.Builder builder = new MergeOrder.Builder(names);
+                merger.merge(streams, builder);
+                assertEquals(merger.getClass().getSimpleName() + " on " + k + " streams", -1, expected.mismatch(builder.build()));
+            }
+        }
+    }
+
+    /**
+     * Test that synthetic streams hold all the events, each sorted.
+     */
+    @Test
+    public void testSyntheticStreams() {
+        long[] timestamps = new long[10000];
+        for (int i = 1; i < timestamps.length; i++) {
+            timestamps[i] = timestamps[i - 1] + i % 3;
+        }
+        long[][] streams = SyntheticStreams.split(timestamps, 100, 3);
+        assertEquals(Arrays.deepToString(streams), Arrays.deepToString(SyntheticStreams.split(timestamps, 100, 3)));
+        long[] all = Arrays.stream(streams).flatMapToLong(Arrays::stream).sorted().toArray();
+        assertEquals(Arrays.toString(timestamps), Arrays.toString(all));
+        for (long[] stream : streams) {
+            for (int i = 1; i < stream.length; i++) {
+                if (stream[i] < stream[i - 1]) {
+                    fail("Unsorted stream");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.metadata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteOrder;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link TsdlParser}
+ */
+public class TsdlParserTest {
+
+    private static final String METADATA = "/* CTF 1.8 */\n"
+            + "typealias integer { size = 8; align = 8; signed = false; } := uint8_t;\n"
+            + "typealias integer { size = 32; align = 8; signed = false; } := uint32_t;\n"
+            + "typealias integer { size = 64; align = 8; signed = false; } := unsigned long;\n"
+            + "typealias integer { size = 27; align = 1; signed = false; map = clock.monotonic.value; } := uint27_clock_monotonic_t;\n"
+            + "trace {\n"
+            + "    major = 1; minor = 8;\n"
+            + "    byte_order = be;\n"
+            + "    packet.header := struct { uint32_t magic; uint32_t stream_id; };\n"
+            + "};\n"
+            + "clock { name = \"monotonic\"; freq = 1000000000; offset_s = 1434072888; };\n"
+            + "stream {\n"
+            + "    id = 0;\n"
+            + "    event.header := struct {\n"
+            + "        enum : integer { size = 5; align = 1; signed = false; } { compact = 0 ... 30, extended = 31 } id;\n"
+            + "        variant <id> {\n"
+            + "            struct { uint27_clock_monotonic_t timestamp; } compact;\n"
+            + "            struct { uint32_t id; unsigned long timestamp; } extended;\n"
+            + "        } v;\n"
+            + "    } align(8);\n"
+            + "};\n"
+            + "event {\n"
+            + "    name = \"sched_switch\"; id = 7; stream_id = 0;\n"
+            + "    fields := struct { unsigned long prev_tid; uint8_t _comm_length; uint8_t comm[_comm_length]; };\n"
+            + "};\n";
+
+    /**
+     * Test parsing LTTng-style metadata.
+     *
+     * @throws CtfFormatException
+     *             if the test fails
+     */
+    @Test
+    public void testParse() throws CtfFormatException {
+        CtfMetadata metadata = TsdlParser.parse(METADATA);
+        assertEquals(ByteOrder.BIG_ENDIAN, metadata.getByteOrder());
+        assertEquals(FieldRole.PACKET_MAGIC_NUMBER, metadata.getPacketHeader().getMember(0).getRole());
+        assertEquals(1434072888L, metadata.getClocks().get("monotonic").getOffsetSeconds());
+
+        StreamClass stream = metadata.getStream(0);
+        assertEquals("monotonic", stream.getClockName());
+        StructType header = stream.getEventHeader();
+        assertEquals(FieldRole.EVENT_RECORD_CLASS_ID, header.getMember(0).getRole());
+        assertEquals("extended", ((EnumType) header.getMember(0).getType()).getLabel(31));
+        VariantType variant = (VariantType) header.getMember(1).getType();
+        StructType compact = (StructType) variant.getOptions().get(0).getType();
+        assertEquals(FieldRole.DEFAULT_CLOCK_TIMESTAMP, compact.getMember(0).getRole());
+        assertEquals(27, ((IntegerType) compact.getMember(0).getType()).getSize());
+
+        EventClass event = stream.getEvent(7);
+        assertNotNull(event);
+        assertEquals("sched_switch", event.getName());
+        StructType fields = event.getPayload();
+        assertEquals(64, ((IntegerType) fields.getMember(0).getType()).getSize());
+        ArrayType comm = (ArrayType) fields.getMember(2).getType();
+        assertTrue(comm.isByteArray());
+        assertEquals("_comm_length", comm.getLengthLocation().getPathElement(0));
+    }
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.seek;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfFormatException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link SeekIndex}
+ */
+public class SeekIndexTest {
+
+    /** Temporary directory for the seek index files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    /*
+     * Two streams: stream 0 has one long packet, stream 1 has two short ones.
+     * Columns: begin, end, max end, stream, offset, clock, ordinal.
+     */
+    private static final long[] ENTRIES = {
+            100, 500, 500, 0, 0, 0, 0,
+            200, 250, 500, 1, 0, 0, 0,
+            300, 350, 500, 1, 4096, 250, 4,
+            600, 700, 700, 0, 4096, 500, 10,
+    };
+
+    private Path writeIndex() throws IOException {
+        Path file = fTemporaryFolder.getRoot().toPath().resolve("trace").resolve(SeekIndex.FILE_NAME);
+        SeekIndex.write(file, Arrays.asList("channel0_0", "sub/channel\u00e9"), ENTRIES);
+        return file;
+    }
+
+    /**
+     * Test that an index survives a write and a map.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testReadWrite() throws IOException {
+        SeekIndex index = SeekIndex.map(writeIndex());
+        List<String> streams = index.getStreams();
+        assertEquals(Arrays.asList("channel0_0", "sub/channel\u00e9"), streams);
+        assertEquals(4, index.size());
+        LongBuffer entries = index.getEntries();
+        long[] read = new long[entries.remaining()];
+        entries.get(read);
+        assertEquals(Arrays.toString(ENTRIES), Arrays.toString(read));
+        assertEquals(4096, index.get(2, SeekIndex.OFFSET));
+    }
+
+    /**
+     * Test the candidate range of timestamps before, inside, between and
+     * after the packets.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testSearch() throws IOException {
+        SeekIndex index = SeekIndex.map(writeIndex());
+        assertEquals(0, index.firstCandidate(0));
+        assertEquals(0, index.lowerBound(0));
+        assertEquals(0, index.firstCandidate(260));
+        assertEquals(2, index.lowerBound(260));
+        assertEquals(3, index.firstCandidate(501));
+        assertEquals(3, index.lowerBound(501));
+        assertEquals(3, index.firstCandidate(700));
+        assertEquals(4, index.lowerBound(700));
+        assertEquals(4, index.firstCandidate(701));
+    }
+
+    /**
+     * Test that truncated seek index files are rejected.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testTruncated() throws IOException {
+        Path file = writeIndex();
+        byte[] bytes = Files.readAllBytes(file);
+        for (int size : new int[] { 20, 30, bytes.length - Long.BYTES }) {
+            Files.write(file, Arrays.copyOf(bytes, size));
+            try {
+                SeekIndex.map(file);
+                fail();
+            } catch (CtfFormatException e) {
+                // Expected
+            }
+        }
+    }
+}
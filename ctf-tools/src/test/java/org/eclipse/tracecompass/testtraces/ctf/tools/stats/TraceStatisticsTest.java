@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.stats;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link TraceStatistics}
+ */
+public class TraceStatisticsTest {
+
+    /** Temporary directory for the statistics files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    private static TraceStatistics createStatistics() {
+        Map<String, StreamStatistics> streams = new LinkedHashMap<>();
+        streams.put("channel0_1", new StreamStatistics(4096, 2, 10, 3, 1000, 2995));
+        streams.put("channel0_0", new StreamStatistics(8192, 3, 20, 0, -500, 2500));
+        streams.put("empty.stream", new StreamStatistics(0, 0, 0, 0, 0, 0));
+        Map<String, Long> eventCounts = new LinkedHashMap<>();
+        eventCounts.put("sched_switch", 25L);
+        eventCounts.put("odd name: =#!\\\u00e9\n", 5L);
+        return new TraceStatistics(20480, streams, eventCounts);
+    }
+
+    /**
+     * Test the totals of the trace.
+     */
+    @Test
+    public void testTotals() {
+        TraceStatistics statistics = createStatistics();
+        assertEquals(5, statistics.getPackets());
+        assertEquals(30, statistics.getEvents());
+        assertEquals(3, statistics.getDiscardedEvents());
+        assertTrue(statistics.hasTimeRange());
+        assertEquals(-500, statistics.getBegin());
+        assertEquals(2995, statistics.getEnd());
+        assertEquals("channel0_0", statistics.getStreams().keySet().iterator().next());
+        assertFalse(TraceStatistics.combine(Collections.emptyMap()).hasTimeRange());
+    }
+
+    /**
+     * Test that statistics survive a write and a read, and that writing them
+     * is deterministic.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testReadWrite() throws IOException {
+        TraceStatistics statistics = createStatistics();
+        Path file = fTemporaryFolder.getRoot().toPath().resolve("trace").resolve(TraceStatistics.FILE_NAME);
+        statistics.write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        TraceStatistics read = TraceStatistics.read(file);
+        assertEquals(statistics, read);
+        assertEquals(statistics.getEventCounts(), read.getEventCounts());
+        read.write(file);
+        assertEquals(new String(bytes, "ISO-8859-1"), new String(Files.readAllBytes(file), "ISO-8859-1"));
+    }
+
+    /**
+     * Test combining the statistics of the traces of an experiment.
+     */
+    @Test
+    public void testCombine() {
+        TraceStatistics statistics = createStatistics();
+        Map<String, TraceStatistics> traces = new LinkedHashMap<>();
+        traces.put("", statistics);
+        traces.put("host/kernel", statistics);
+        TraceStatistics combined = TraceStatistics.combine(traces);
+        assertEquals(2 * statistics.getSize(), combined.getSize());
+        assertEquals(2 * statistics.getEvents(), combined.getEvents());
+        assertEquals(Long.valueOf(50), combined.getEventCounts().get("sched_switch"));
+        assertEquals(statistics.getStreams().get("channel0_1"), combined.getStreams().get("host/kernel/channel0_1"));
+        assertEquals(6, combined.getStreams().size());
+        assertEquals(statistics.getBegin(), combined.getBegin());
+    }
+}
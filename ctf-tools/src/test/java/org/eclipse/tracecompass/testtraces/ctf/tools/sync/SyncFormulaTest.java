@@ -0,0 +1,53 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf.tools.sync;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+/**
+ * Tests for {@link SyncFormula}
+ */
+public class SyncFormulaTest {
+
+    private static final long ORIGIN = 1361203559332331489L;
+
+    /**
+     * Test that the formula of a clock without drift removes its offset.
+     */
+    @Test
+    public void testOffset() {
+        SyncFormula formula = new SyncFormula("host0001", ORIGIN, -250, 0);
+        assertEquals(BigDecimal.ONE, formula.getAlpha().stripTrailingZeros());
+        assertEquals(ORIGIN, formula.toReference(ORIGIN - 250));
+        assertEquals(ORIGIN + 5000000000L, formula.toReference(ORIGIN + 5000000000L - 250));
+    }
+
+    /**
+     * Test that the formula inverts the clock of a drifting host: a second of
+     * reference time lasts a second and 1000 ns on a clock drifting by 1000
+     * parts per billion.
+     */
+    @Test
+    public void testDrift() {
+        SyncFormula formula = new SyncFormula("host0002", ORIGIN, 700000, 1000);
+        assertEquals(ORIGIN, formula.toReference(ORIGIN + 700000));
+        assertEquals(ORIGIN + 1000000000L, formula.toReference(ORIGIN + 700000 + 1000001000L));
+        assertEquals(ORIGIN - 3000000000L, formula.toReference(ORIGIN + 700000 - 3000003000L));
+        assertEquals(formula, new SyncFormula("host0002", ORIGIN, 700000, 1000));
+        assertFalse(formula.equals(new SyncFormula("host0002", ORIGIN, 700000, 1001)));
+    }
+}
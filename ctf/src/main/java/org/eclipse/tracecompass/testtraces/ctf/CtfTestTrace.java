@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2013, 2021 Ericsson, Efficios Inc and others
+ * Copyright (c) 2013, 2026 Ericsson, Efficios Inc and others
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -11,7 +11,50 @@
 
 package org.eclipse.tracecompass.testtraces.ctf;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.common.FileRegion;
+import org.eclipse.tracecompass.testtraces.common.FramedFile;
+import org.eclipse.tracecompass.testtraces.common.Mutator;
+import org.eclipse.tracecompass.testtraces.common.TraceCache;
+import org.eclipse.tracecompass.testtraces.common.TraceEvents;
+import org.eclipse.tracecompass.testtraces.common.TraceManifest;
+import org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint.CheckpointFile;
+import org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint.CheckpointGenerator;
+import org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint.CheckpointVerifier;
+import org.eclipse.tracecompass.testtraces.ctf.tools.convert.Ctf2Converter;
+import org.eclipse.tracecompass.testtraces.ctf.tools.descriptor.MetadataDescriptor;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.LttngIndex;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.PacketIndexEntry;
+import org.eclipse.tracecompass.testtraces.ctf.tools.layout.LayoutEncoder;
+import org.eclipse.tracecompass.testtraces.ctf.tools.layout.TraceLayout;
+import org.eclipse.tracecompass.testtraces.ctf.tools.live.LiveReplayer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.live.ReplayPacing;
+import org.eclipse.tracecompass.testtraces.ctf.tools.live.ReplayTimeline;
+import org.eclipse.tracecompass.testtraces.ctf.tools.merge.KWayMerger;
+import org.eclipse.tracecompass.testtraces.ctf.tools.merge.MergeOrder;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.mutation.StreamMutator;
+import org.eclipse.tracecompass.testtraces.ctf.tools.scale.TraceScaler;
+import org.eclipse.tracecompass.testtraces.ctf.tools.seek.EventSeeker;
+import org.eclipse.tracecompass.testtraces.ctf.tools.seek.SeekIndex;
+import org.eclipse.tracecompass.testtraces.ctf.tools.slice.TraceSlice;
+import org.eclipse.tracecompass.testtraces.ctf.tools.slice.TraceSlicer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.stats.TraceStatistics;
+import org.eclipse.tracecompass.testtraces.ctf.tools.sync.SyncExperimentGenerator;
 
 /**
  * Here is the list of the available test traces for the CTF parser.
@@ -538,20 +581,98 @@ public enum CtfTestTrace {
      * Trace length: 0
      * </pre>
      */
-    CTF2_VL_INTS("/CTF2-vl-ints", 1, 0);
+    CTF2_VL_INTS("/CTF2-vl-ints", 1, 0),
+
+    /**
+     * {@link #KERNEL} converted to CTF 2 (see {@link Ctf2Converter}): the same
+     * stream files and events, described by CTF 2 JSON metadata. Generated
+     * once in the shared cache on first use.
+     *
+     * <pre>
+     * Trace Size: 13 MB
+     * Tracer: lttng-modules 2.0.0, converted
+     * Event count: 695 319
+     * Trace length: 10s
+     * </pre>
+     */
+    CTF2_KERNEL(KERNEL),
+
+    /**
+     * {@link #MANY_THREADS} converted to CTF 2 (see {@link Ctf2Converter}):
+     * the same stream files and events, described by CTF 2 JSON metadata.
+     * Generated once in the shared cache on first use.
+     *
+     * <pre>
+     * Trace Size: 8.2M
+     * Tracer: lttng-kernel 2.8~pre, converted
+     * Event count: 240 644
+     * Trace length: 0.432 662 358 s
+     * </pre>
+     */
+    CTF2_MANY_THREADS(MANY_THREADS),
+
+    /**
+     * {@link #ROS2} converted to CTF 2 (see {@link Ctf2Converter}): the same
+     * stream files and events, described by CTF 2 JSON metadata. Generated
+     * once in the shared cache on first use.
+     *
+     * <pre>
+     * Trace Size: 4.1 MB
+     * Tracer: lttng-ust 2.11.0, converted
+     * Event count: 99338
+     * Trace length: ~10.2 s
+     * </pre>
+     */
+    CTF2_ROS2(ROS2);
+
+    private static final String PACKET_INDEX_ROOT = "/packet-index";
+    private static final String METADATA_DESCRIPTOR_ROOT = "/metadata-descriptor";
+    private static final String STATISTICS_ROOT = "/trace-statistics";
+    private static final String CHECKPOINTS_ROOT = "/checkpoints";
+    private static final String SEEK_INDEX_ROOT = "/seek-index";
+    private static final String MERGE_ORDER_ROOT = "/merge-order";
 
     private final String fTraceName;
     private final int fNbEvent;
     private int fDuration;
+    private final CtfTestTrace fSource;
+    private volatile boolean fVerified;
+    private volatile Map<String, List<PacketIndexEntry>> fPacketIndex;
+    private volatile Map<String, CtfMetadata> fMetadataDescriptors;
+    private volatile TraceStatistics fStatistics;
+    private volatile SeekIndex fSeekIndex;
+    private volatile MergeOrder fMergeOrder;
 
     CtfTestTrace(String traceName, int nbEvent, int time) {
         fTraceName = traceName;
         fNbEvent = nbEvent;
         fDuration = time;
+        fSource = null;
+    }
+
+    /**
+     * A CTF 2 conversion of a trace. It has the stream files, and so the
+     * packet index, statistics, checkpoints, seek index and merge order of
+     * the source trace.
+     */
+    CtfTestTrace(CtfTestTrace source) {
+        fTraceName = source.fTraceName;
+        fNbEvent = source.fNbEvent;
+        fDuration = source.fDuration;
+        fSource = source;
     }
 
     public URL getTraceURL() {
+        if (fSource != null) {
+            try {
+                return getTracePath().toUri().toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        TraceEvents.Resolution event = TraceEvents.beginResolution(name());
         URL url = this.getClass().getResource(fTraceName);
+        event.commit(url);
         if (url == null) {
             /* Project configuration problem? */
             throw new IllegalStateException("Test trace not found");
@@ -559,6 +680,540 @@ public enum CtfTestTrace {
         return url;
     }
 
+    /**
+     * Get the trace as a directory on the file system. Traces packaged in a jar
+     * are extracted once to a shared cache (see {@link TraceCache}) and reused
+     * by later calls and later runs. The first call checks that the trace
+     * files are intact, see {@link #verify()}. The CTF 2 conversions are
+     * generated in the cache from their source trace.
+     *
+     * @return the path of the trace
+     */
+    public Path getTracePath() {
+        if (fSource != null) {
+            Path source = fSource.getTracePath();
+            try {
+                return TraceCache.getDerivedPath(source, "ctf2-" + Ctf2Converter.VERSION, target -> Ctf2Converter.convert(source, target));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Test trace could not be converted to CTF 2", e);
+            }
+        }
+        Path path;
+        try {
+            path = TraceCache.getPath(getTraceURL());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be extracted", e);
+        }
+        if (!fVerified) {
+            verify(path);
+            fVerified = true;
+        }
+        return path;
+    }
+
+    /**
+     * Get where the bytes of a file of the trace are, without extracting the
+     * trace: in the jar, where the trace files are stored uncompressed at
+     * page-aligned offsets, or on the file system. The file can then be
+     * memory-mapped in place with {@link FileRegion#map()}.
+     *
+     * @param file
+     *            the path of the file relative to the trace directory, for
+     *            example a stream of {@link #getPacketIndex()}
+     * @return the region holding the bytes of the file
+     * @throws IllegalArgumentException
+     *             if the trace has no such file
+     */
+    public FileRegion getFileRegion(String file) {
+        URL url;
+        if (fSource != null) {
+            try {
+                url = getTracePath().resolve(file).toUri().toURL();
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException(e);
+            }
+        } else {
+            url = this.getClass().getResource(fTraceName + '/' + file);
+            if (url == null) {
+                throw new IllegalArgumentException("No file " + file + " in " + fTraceName);
+            }
+        }
+        try {
+            return TraceCache.getRegion(url);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace file could not be located", e);
+        }
+    }
+
+    /**
+     * Check that the files of the trace are intact, against the SHA-256
+     * manifest generated at build time (see {@link TraceManifest}). This is
+     * done by {@link #getTracePath()} the first time it is called. Files are
+     * only hashed again when their size or modification time changed since
+     * they were last verified. The CTF 2 conversions are checked against the
+     * manifest of their source trace, except for their metadata files.
+     *
+     * @throws IllegalStateException
+     *             if a file of the trace is missing or modified, or the trace
+     *             has no manifest
+     */
+    public void verify() {
+        if (fSource != null) {
+            fSource.verify();
+            verify(getTracePath());
+            return;
+        }
+        try {
+            verify(TraceCache.getPath(getTraceURL()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be extracted", e);
+        }
+    }
+
+    private void verify(Path path) {
+        List<String> problems;
+        try {
+            Map<String, String> entries = TraceManifest.getEntries(getClass(), fTraceName);
+            if (entries.isEmpty()) {
+                throw new IllegalStateException("Test trace manifest not found");
+            }
+            if (fSource != null) {
+                /* Only the metadata files of a conversion differ from the source */
+                entries.keySet().removeIf(file -> file.equals(MetadataReader.METADATA_FILE_NAME)
+                        || file.endsWith('/' + MetadataReader.METADATA_FILE_NAME));
+            }
+            problems = TraceManifest.verify(path, entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be verified", e);
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Test trace " + fTraceName + " is corrupted: " + String.join(", ", problems));
+        }
+    }
+
+    /**
+     * Get a scaled-up copy of the trace: the same metadata, with every stream
+     * replayed <code>factor</code> times back to back in time. The copy has
+     * <code>factor</code> times the events of the trace (see
+     * {@link #getNbEvents()}) and is about <code>factor</code> times as large.
+     * It is generated once, deterministically, in the shared cache (see
+     * {@link TraceCache}), streaming to disk with constant memory.
+     *
+     * Traces whose stream files are not shipped scale to traces without
+     * events.
+     *
+     * @param factor
+     *            the scale factor, at least 1
+     * @return the path of the scaled trace, the trace itself if the factor is
+     *         1
+     */
+    public Path scaled(int factor) {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Scale factor must be at least 1: " + factor);
+        }
+        Path source = getTracePath();
+        if (factor == 1) {
+            return source;
+        }
+        try {
+            return TraceCache.getDerivedPath(source, "scaled-" + TraceScaler.VERSION + '-' + factor,
+                    target -> TraceScaler.scale(source, target, factor));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be scaled", e);
+        }
+    }
+
+    /**
+     * Get a copy of the trace re-encoded with another layout: packet size,
+     * byte order and field alignment, with CTF 2 metadata (see
+     * {@link LayoutEncoder}). The copy decodes to the same events, with the
+     * same timestamps and field values, in other packets. It is generated
+     * once, deterministically, in the shared cache (see {@link TraceCache}).
+     *
+     * @param layout
+     *            the layout
+     * @return the path of the re-encoded trace
+     */
+    public Path reencoded(TraceLayout layout) {
+        Path source = getTracePath();
+        try {
+            return TraceCache.getDerivedPath(source, "layout-" + LayoutEncoder.VERSION + '-' + layout,
+                    target -> LayoutEncoder.encode(source, target, layout));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be re-encoded", e);
+        }
+    }
+
+    /**
+     * Get a slice of the trace: a valid trace with the same metadata and only
+     * the events from a start time to an end time (see {@link TraceSlicer}).
+     * The packets in the window are copied as is, those at its edges are
+     * trimmed to its events. Tests looking at a short time range of a large
+     * trace open the slice much faster than the whole trace. The slice is
+     * generated once, deterministically, in the shared cache (see
+     * {@link TraceCache}).
+     *
+     * @param startNs
+     *            the start of the window, in nanoseconds from the origin of
+     *            the clocks (including their offsets), inclusive
+     * @param endNs
+     *            the end of the window, in nanoseconds, inclusive
+     * @return the slice, with its path and its exact number of events
+     */
+    public TraceSlice slice(long startNs, long endNs) {
+        if (startNs > endNs) {
+            throw new IllegalArgumentException("Start " + startNs + " after end " + endNs);
+        }
+        Path source = getTracePath();
+        try {
+            Path path = TraceCache.getDerivedPath(source, "slice-" + TraceSlicer.VERSION + '-' + startNs + '-' + endNs,
+                    target -> TraceSlicer.slice(source, target, startNs, endNs));
+            return TraceSlicer.readSlice(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be sliced", e);
+        }
+    }
+
+    /**
+     * Replay the trace into a directory as a live tracing session would
+     * write it (see {@link LiveReplayer}): the metadata first, then the
+     * packets of every stream appended in the order the tracer flushed them,
+     * paced at a multiple of real time or at a fixed rate. This blocks until
+     * the last packet is written, so a reader following the trace runs in
+     * another thread, and its lag is measured against the returned timeline.
+     *
+     * @param target
+     *            the directory to write the trace to, created if needed,
+     *            without the files of the trace
+     * @param pacing
+     *            when the packets are due, for example
+     *            {@link ReplayPacing#realTime(double)}
+     * @return when every packet became visible
+     */
+    public ReplayTimeline replay(Path target, ReplayPacing pacing) {
+        try {
+            return LiveReplayer.replay(getTracePath(), target, pacing);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be replayed", e);
+        }
+    }
+
+    /**
+     * Get a copy of the trace with every stream file stored as a
+     * {@link FramedFile}, named after the stream file with
+     * {@value FramedFile#EXTENSION} added, and read through
+     * {@link FramedFile#open(Path)}. The metadata files are copied as is. The
+     * copy is generated once in the shared cache (see {@link TraceCache}).
+     *
+     * @param frameSize
+     *            the uncompressed size of the frames, for example
+     *            {@value FramedFile#DEFAULT_FRAME_SIZE}
+     * @return the path of the copy
+     */
+    public Path framed(int frameSize) {
+        Path source = getTracePath();
+        try {
+            return TraceCache.getDerivedPath(source, "framed-" + FramedFile.MAJOR + '-' + frameSize,
+                    target -> FramedFile.compressTree(source, target, frameSize, file -> !MetadataReader.isMetadata(file)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be compressed", e);
+        }
+    }
+
+    /**
+     * Get a synthetic trace synchronization experiment: one kernel trace per
+     * host, the hosts replaying the TCP packets exchanged between
+     * {@link #SYNC_SRC} and {@link #SYNC_DEST}, and between the traces of the
+     * {@link #DJANGO_CLIENT}, {@link #DJANGO_DB} and {@link #DJANGO_HTTPD}
+     * trio, each host with a known clock offset and drift. The expected
+     * synchronization formulas are in the experiment, see
+     * {@link SyncExperimentGenerator#readFormulas(Path)}. The experiment is
+     * generated once, deterministically, in the shared cache (see
+     * {@link TraceCache}).
+     *
+     * @param hosts
+     *            the number of hosts, from 2 to
+     *            {@value SyncExperimentGenerator#MAX_HOSTS}
+     * @param pairsPerLink
+     *            the number of packets exchanged by every two linked hosts
+     * @param seed
+     *            the seed of the topology, clocks and replay times
+     * @return the path of the experiment directory, holding one trace
+     *         directory per host
+     */
+    public static Path getSyncExperiment(int hosts, int pairsPerLink, long seed) {
+        List<Path> sources = new ArrayList<>();
+        for (CtfTestTrace trace : new CtfTestTrace[] { SYNC_SRC, SYNC_DEST, DJANGO_CLIENT, DJANGO_DB, DJANGO_HTTPD }) {
+            sources.add(trace.getTracePath());
+        }
+        String derivation = "sync-" + SyncExperimentGenerator.VERSION + '-' + hosts + '-' + pairsPerLink + '-' + seed;
+        try {
+            return TraceCache.getDerivedPath(sources, "sync-experiment", derivation,
+                    target -> SyncExperimentGenerator.generate(sources, target, hosts, pairsPerLink, seed));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Synchronization experiment could not be generated", e);
+        }
+    }
+
+    /**
+     * Get a generator of corrupted variants of a stream file of the trace:
+     * bad packet sizes, truncated packets, flipped magic numbers and out of
+     * order timestamps. Variants are read through an overlay channel over the
+     * stream file (see {@link org.eclipse.tracecompass.testtraces.common.Mutation#open(Path)}),
+     * which is never copied nor modified.
+     *
+     * @param stream
+     *            the path of the stream file relative to the trace directory,
+     *            as in {@link #getPacketIndex()}
+     * @return the generator
+     * @throws IllegalArgumentException
+     *             if the trace of the stream has no metadata descriptor
+     */
+    public Mutator getMutator(String stream) {
+        int slash = stream.lastIndexOf('/');
+        CtfMetadata metadata = getMetadataDescriptors().get(slash < 0 ? "" : stream.substring(0, slash));
+        if (metadata == null) {
+            throw new IllegalArgumentException("No metadata for stream " + stream + " of " + fTraceName);
+        }
+        try {
+            return new StreamMutator(metadata, getTracePath().resolve(stream));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace stream could not be decoded", e);
+        }
+    }
+
+    /**
+     * Get the packet index of the trace, generated at build time from the
+     * stream files. Entries are in the LTTng index format: sizes in bits and
+     * timestamps in clock cycles.
+     *
+     * @return the packet index entries of each stream, by stream file path
+     *         relative to the trace directory. Empty if the trace has no
+     *         stream that could be indexed.
+     */
+    public Map<String, List<PacketIndexEntry>> getPacketIndex() {
+        Map<String, List<PacketIndexEntry>> index = fPacketIndex;
+        if (index == null) {
+            index = readPacketIndex();
+            fPacketIndex = index;
+        }
+        return index;
+    }
+
+    private Map<String, List<PacketIndexEntry>> readPacketIndex() {
+        URL url = this.getClass().getResource(PACKET_INDEX_ROOT + fTraceName);
+        if (url == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, List<PacketIndexEntry>> index = new TreeMap<>();
+        try {
+            Path root = TraceCache.getPath(url);
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(root)) {
+                files = walk.filter(path -> path.toString().endsWith(LttngIndex.EXTENSION)).collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                String stream = root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+                index.put(stream.substring(0, stream.length() - LttngIndex.EXTENSION.length()),
+                        Collections.unmodifiableList(LttngIndex.read(file)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Packet index could not be read", e);
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Get the metadata of the trace, loaded from the binary descriptor
+     * generated at build time (see {@link MetadataDescriptor}) rather than
+     * parsed from the TSDL or CTF 2 metadata.
+     *
+     * @return the metadata, null if the trace is an experiment of several
+     *         traces (see {@link #getMetadataDescriptors()})
+     */
+    public CtfMetadata getMetadataDescriptor() {
+        return getMetadataDescriptors().get("");
+    }
+
+    /**
+     * Get the metadata of every trace in the trace directory, loaded from the
+     * binary descriptors generated at build time. The metadata of the CTF 2
+     * conversions is parsed from their CTF 2 metadata files.
+     *
+     * @return the metadata of each trace, by trace directory path relative to
+     *         the trace directory, "" for the trace directory itself
+     */
+    public Map<String, CtfMetadata> getMetadataDescriptors() {
+        Map<String, CtfMetadata> descriptors = fMetadataDescriptors;
+        if (descriptors == null) {
+            descriptors = fSource != null ? parseMetadata() : readMetadataDescriptors();
+            fMetadataDescriptors = descriptors;
+        }
+        return descriptors;
+    }
+
+    private Map<String, CtfMetadata> parseMetadata() {
+        Map<String, CtfMetadata> descriptors = new TreeMap<>();
+        Path root = getTracePath();
+        try (Stream<Path> walk = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) walk.filter(MetadataReader::isMetadata)::iterator) {
+                Path directory = root.relativize(file).getParent();
+                String trace = directory == null ? "" : directory.toString().replace(file.getFileSystem().getSeparator(), "/");
+                descriptors.put(trace, MetadataReader.read(file.getParent()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Metadata could not be read", e);
+        }
+        return Collections.unmodifiableMap(descriptors);
+    }
+
+    private Map<String, CtfMetadata> readMetadataDescriptors() {
+        URL url = this.getClass().getResource(METADATA_DESCRIPTOR_ROOT + fTraceName);
+        if (url == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, CtfMetadata> descriptors = new TreeMap<>();
+        try {
+            Path root = TraceCache.getPath(url);
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(root)) {
+                files = walk.filter(path -> path.endsWith(MetadataDescriptor.FILE_NAME)).collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                Path directory = root.relativize(file).getParent();
+                String trace = directory == null ? "" : directory.toString().replace(file.getFileSystem().getSeparator(), "/");
+                descriptors.put(trace, MetadataDescriptor.read(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Metadata descriptor could not be read", e);
+        }
+        return Collections.unmodifiableMap(descriptors);
+    }
+
+    /**
+     * Get the statistics of the trace, collected at build time by decoding
+     * all its events: exact time range, packet and event counts of each
+     * stream file, number of events of each event name, size and discarded
+     * events. For an experiment, the statistics of all its traces are
+     * combined.
+     *
+     * @return the statistics, with no streams if the trace has no metadata
+     *         file or no stream files
+     */
+    public TraceStatistics getStatistics() {
+        TraceStatistics statistics = fStatistics;
+        if (statistics == null) {
+            statistics = readStatistics();
+            fStatistics = statistics;
+        }
+        return statistics;
+    }
+
+    private TraceStatistics readStatistics() {
+        URL url = this.getClass().getResource(STATISTICS_ROOT + fTraceName);
+        if (url == null) {
+            return TraceStatistics.combine(Collections.emptyMap());
+        }
+        Map<String, TraceStatistics> traces = new TreeMap<>();
+        try {
+            Path root = TraceCache.getPath(url);
+            List<Path> files;
+            try (Stream<Path> walk = Files.walk(root)) {
+                files = walk.filter(path -> path.endsWith(TraceStatistics.FILE_NAME)).collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                Path directory = root.relativize(file).getParent();
+                String trace = directory == null ? "" : directory.toString().replace(file.getFileSystem().getSeparator(), "/");
+                traces.put(trace, TraceStatistics.read(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Trace statistics could not be read", e);
+        }
+        return TraceStatistics.combine(traces);
+    }
+
+    /**
+     * Get a verifier of the events decoded from a stream file of the trace.
+     * The events are checked against checkpoints generated at build time
+     * (see {@link CheckpointGenerator}): every
+     * {@value CheckpointGenerator#DEFAULT_INTERVAL} events, the timestamp,
+     * stream id, offset and a rolling digest of the decoded fields of the
+     * events so far. Checking uses constant memory, so a parser can check
+     * itself while it streams the whole trace.
+     *
+     * @param stream
+     *            the path of the stream file relative to the trace directory,
+     *            as in {@link #getPacketIndex()}
+     * @return the verifier, to close after use
+     * @throws IllegalArgumentException
+     *             if the stream has no checkpoints
+     */
+    public CheckpointVerifier getCheckpointVerifier(String stream) {
+        URL url = this.getClass().getResource(CHECKPOINTS_ROOT + fTraceName + '/' + stream + CheckpointFile.EXTENSION);
+        if (url == null) {
+            throw new IllegalArgumentException("No checkpoints for stream " + stream + " of " + fTraceName);
+        }
+        try {
+            return new CheckpointVerifier(TraceCache.getPath(url), fTraceName + '/' + stream);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Checkpoints could not be read", e);
+        }
+    }
+
+    /**
+     * Get the seek index of the trace, generated at build time by decoding all
+     * its events: for every packet of every stream file, sorted by the
+     * timestamp of their first event, the time range of the events, the
+     * packet offset and the number of events before it in its stream. It is
+     * memory-mapped, see {@link SeekIndex}, and gives the first event at or
+     * after any timestamp with an {@link EventSeeker}.
+     *
+     * @return the seek index, null if the trace is an experiment of several
+     *         traces
+     */
+    public SeekIndex getSeekIndex() {
+        SeekIndex index = fSeekIndex;
+        if (index == null) {
+            URL url = this.getClass().getResource(SEEK_INDEX_ROOT + fTraceName + '/' + SeekIndex.FILE_NAME);
+            if (url == null) {
+                return null;
+            }
+            try {
+                index = SeekIndex.map(TraceCache.getPath(url));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Seek index could not be read", e);
+            }
+            fSeekIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * Get the expected merge order of the events of the trace, generated at
+     * build time by a reference merge of all its stream files: the stream of
+     * every event, ordered by timestamp, then by stream, then by position in
+     * the stream. A {@link KWayMerger} must produce the same order.
+     *
+     * @return the merge order, null if the trace is an experiment of several
+     *         traces
+     */
+    public MergeOrder getMergeOrder() {
+        MergeOrder order = fMergeOrder;
+        if (order == null) {
+            URL url = this.getClass().getResource(MERGE_ORDER_ROOT + fTraceName + '/' + MergeOrder.FILE_NAME);
+            if (url == null) {
+                return null;
+            }
+            try {
+                order = MergeOrder.read(TraceCache.getPath(url));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Merge order could not be read", e);
+            }
+            fMergeOrder = order;
+        }
+        return order;
+    }
+
     /**
      * Get the number of events for a trace
      *
@@ -569,7 +1224,8 @@ public enum CtfTestTrace {
     }
 
     /**
-     * Get the duration in seconds of a trace
+     * Get the duration in seconds of a trace. See {@link #getStatistics()} for
+     * the exact time range.
      *
      * @return the duration in seconds of a trace, -1 if irrelevant
      */
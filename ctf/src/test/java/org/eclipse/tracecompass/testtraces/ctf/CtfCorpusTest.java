@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ctf;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.common.CorpusReport;
+import org.eclipse.tracecompass.testtraces.common.CorpusReport.TraceReport;
+import org.eclipse.tracecompass.testtraces.common.CorpusValidator;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.LttngIndex;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.stats.StreamStatistics;
+import org.eclipse.tracecompass.testtraces.ctf.tools.stats.TraceStatistics;
+import org.junit.Test;
+
+/**
+ * Validation of the whole CTF test trace corpus, all traces in parallel.
+ */
+public class CtfCorpusTest {
+
+    /* Indexes in the header scan of a trace */
+    private static final int PACKETS = 0;
+    private static final int BEGIN = 1;
+    private static final int END = 2;
+    private static final int UNTIMED = 3;
+
+    /**
+     * Test that every trace is present and intact, that its metadata and
+     * packet headers are well-formed and agree with the statistics generated
+     * at build time, and that its documented number of events and duration
+     * agree with these statistics. The report, with the time taken by every
+     * trace, is the message of the failure.
+     */
+    @Test
+    public void testCorpus() {
+        CorpusReport report = CorpusValidator.validate(Arrays.asList(CtfTestTrace.values()), trace -> {
+            Path path = trace.getTracePath();
+            trace.verify();
+            return path;
+        }, CtfCorpusTest::check);
+        assertEquals(report.toString(), Collections.emptyList(), report.getProblems());
+    }
+
+    private static void check(CtfTestTrace trace, Path path, TraceReport report) throws IOException {
+        List<Path> metadataFiles;
+        try (Stream<Path> walk = Files.walk(path)) {
+            metadataFiles = walk.filter(MetadataReader::isMetadata).sorted().collect(Collectors.toList());
+        }
+        if (metadataFiles.isEmpty()) {
+            report.addProblem("No metadata");
+            return;
+        }
+        TraceStatistics statistics = trace.getStatistics();
+        Map<String, StreamStatistics> streamStatistics = statistics.getStreams();
+        long[] scan = { 0, Long.MAX_VALUE, Long.MIN_VALUE, 0 };
+        List<String> missing = new ArrayList<>();
+        for (Path metadataFile : metadataFiles) {
+            Path traceDirectory = metadataFile.getParent();
+            CtfMetadata metadata = MetadataReader.read(traceDirectory);
+            List<Path> streams = CtfIndexer.getStreamFiles(traceDirectory);
+            for (Path stream : streams) {
+                String name = path.relativize(stream).toString().replace(stream.getFileSystem().getSeparator(), "/");
+                StreamStatistics expected = streamStatistics.get(name);
+                if (expected == null) {
+                    report.addProblem("No statistics for stream " + name);
+                } else {
+                    scanStream(metadata, stream, name, expected, scan, report);
+                }
+            }
+            missing.addAll(getMissingStreams(traceDirectory, streams));
+        }
+        long packets = scan[PACKETS];
+        if (statistics.getPackets() != packets) {
+            report.addProblem("Scanned " + packets + " packets, statistics say " + statistics.getPackets());
+        }
+        if (!missing.isEmpty()) {
+            /* Streams left out of the checkout: the documented numbers do not apply */
+            report.addNote("streams not shipped: " + String.join(", ", missing));
+            return;
+        }
+        if (trace.getNbEvents() >= 0 && trace.getNbEvents() != statistics.getEvents() + statistics.getDiscardedEvents()) {
+            report.addProblem("Documented " + trace.getNbEvents() + " events, found " + statistics.getEvents() + " and "
+                    + statistics.getDiscardedEvents() + " discarded");
+        }
+        /* Packets bound the time range of their events */
+        long begin = scan[BEGIN];
+        long end = scan[END];
+        if (statistics.hasTimeRange() && scan[UNTIMED] == 0 && (begin > statistics.getBegin() || end < statistics.getEnd())) {
+            report.addProblem("Packets span [" + begin + ", " + end + "], events span [" + statistics.getBegin() + ", " + statistics.getEnd() + ']');
+        }
+        /* The documented duration is rounded */
+        if (trace.getDuration() >= 0 && statistics.hasTimeRange()
+                && Math.abs(trace.getDuration() - (statistics.getEnd() - statistics.getBegin()) / 1e9) > 1) {
+            report.addProblem("Documented " + trace.getDuration() + " s, events span " + (statistics.getEnd() - statistics.getBegin()) / 1e9 + " s");
+        }
+        report.addNote(packets + " packets" + (scan[UNTIMED] > 0 ? ", " + scan[UNTIMED] + " without timestamps" : ""));
+    }
+
+    /**
+     * Walk the packet headers of a stream, which checks their magic number
+     * and sizes, and add the time range of its non-empty packets to the scan.
+     */
+    private static void scanStream(CtfMetadata metadata, Path stream, String name, StreamStatistics expected, long[] scan,
+            TraceReport report) throws IOException {
+        long packets = 0;
+        long discarded = 0;
+        try (PacketReader reader = new PacketReader(metadata, stream)) {
+            while (reader.nextPacket()) {
+                packets++;
+                discarded = reader.getEventsDiscarded();
+                if (reader.getEventsStart() >= reader.getPacketOffset() * Byte.SIZE + reader.getContentSize()) {
+                    continue;
+                }
+                if (!reader.hasTimestampBegin() || !reader.hasTimestampEnd()) {
+                    scan[UNTIMED]++;
+                    continue;
+                }
+                ClockClass clock = reader.getClock();
+                scan[BEGIN] = Math.min(scan[BEGIN], clock == null ? reader.getTimestampBegin() : clock.toNanos(reader.getTimestampBegin()));
+                scan[END] = Math.max(scan[END], clock == null ? reader.getTimestampEnd() : clock.toNanos(reader.getTimestampEnd()));
+            }
+        }
+        scan[PACKETS] += packets;
+        if (expected.getPackets() != packets) {
+            report.addProblem(name + " has " + packets + " packets, statistics say " + expected.getPackets());
+        }
+        /* The discarded events counter is cumulative */
+        if (expected.getDiscardedEvents() != discarded) {
+            report.addProblem(name + " discarded " + discarded + " events, statistics say " + expected.getDiscardedEvents());
+        }
+    }
+
+    /**
+     * Get the streams declared by the LTTng index of a trace, or by its
+     * metadata when it has no stream at all, that are not in the trace.
+     */
+    private static List<String> getMissingStreams(Path traceDirectory, List<Path> streams) throws IOException {
+        Path indexDirectory = traceDirectory.resolve(LttngIndex.DIRECTORY_NAME);
+        List<String> missing = new ArrayList<>();
+        if (Files.isDirectory(indexDirectory)) {
+            try (Stream<Path> list = Files.list(indexDirectory)) {
+                for (Path index : (Iterable<Path>) list.sorted()::iterator) {
+                    String name = String.valueOf(index.getFileName());
+                    if (name.endsWith(LttngIndex.EXTENSION)) {
+                        String stream = name.substring(0, name.length() - LttngIndex.EXTENSION.length());
+                        if (!Files.isRegularFile(traceDirectory.resolve(stream))) {
+                            missing.add(stream);
+                        }
+                    }
+                }
+            }
+        }
+        if (streams.isEmpty() && missing.isEmpty()) {
+            missing.add("all");
+        }
+        return missing;
+    }
+}
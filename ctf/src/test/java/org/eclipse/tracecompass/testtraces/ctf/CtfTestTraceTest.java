@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2015, 2024 Efficios Inc., Alexaandre Montplaisir and otherrs
+ * Copyright (c) 2015, 2026 Efficios Inc., Alexaandre Montplaisir and otherrs
  *
  * All rights reserved. This program and the accompanying materials are made
  * available under the terms of the Eclipse Public License 2.0 which
@@ -11,22 +11,689 @@
 
 package org.eclipse.tracecompass.testtraces.ctf;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.eclipse.tracecompass.testtraces.common.FileRegion;
+import org.eclipse.tracecompass.testtraces.common.FramedChannel;
+import org.eclipse.tracecompass.testtraces.common.FramedFile;
+import org.eclipse.tracecompass.testtraces.common.Mutation;
+import org.eclipse.tracecompass.testtraces.common.MutationKind;
+import org.eclipse.tracecompass.testtraces.common.Mutator;
+import org.eclipse.tracecompass.testtraces.common.TraceCache;
+import org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint.CheckpointVerifier;
+import org.eclipse.tracecompass.testtraces.ctf.tools.checkpoint.RollingDigest;
+import org.eclipse.tracecompass.testtraces.ctf.tools.descriptor.MetadataDescriptor;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.CtfIndexer;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.LttngIndex;
+import org.eclipse.tracecompass.testtraces.ctf.tools.index.PacketIndexEntry;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.PacketReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.io.StreamInput;
+import org.eclipse.tracecompass.testtraces.ctf.tools.layout.TraceLayout;
+import org.eclipse.tracecompass.testtraces.ctf.tools.live.ReplayPacing;
+import org.eclipse.tracecompass.testtraces.ctf.tools.live.ReplayTimeline;
+import org.eclipse.tracecompass.testtraces.ctf.tools.merge.KWayMerger;
+import org.eclipse.tracecompass.testtraces.ctf.tools.merge.MergeOrder;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.ClockClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.CtfMetadata;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.EventClass;
+import org.eclipse.tracecompass.testtraces.ctf.tools.metadata.MetadataReader;
+import org.eclipse.tracecompass.testtraces.ctf.tools.seek.EventSeeker;
+import org.eclipse.tracecompass.testtraces.ctf.tools.seek.SeekIndex;
+import org.eclipse.tracecompass.testtraces.ctf.tools.slice.TraceSlice;
+import org.eclipse.tracecompass.testtraces.ctf.tools.stats.StreamStatistics;
+import org.eclipse.tracecompass.testtraces.ctf.tools.stats.TraceStatistics;
+import org.eclipse.tracecompass.testtraces.ctf.tools.sync.SyncExperimentGenerator;
+import org.eclipse.tracecompass.testtraces.ctf.tools.sync.SyncFormula;
+import org.eclipse.tracecompass.testtraces.ctf.tools.sync.TcpConversation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 /**
  * Basic tests for the CtfTestTraces
  */
 public class CtfTestTraceTest {
 
+    /** Temporary folder holding the cache and the written traces */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    private String fPreviousCacheDir;
+
+    /**
+     * Point the cache to a temporary folder, so that the derived traces are
+     * not written to the shared cache
+     *
+     * @throws IOException
+     *             if the folder cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        fPreviousCacheDir = System.getProperty(TraceCache.CACHE_DIR_PROPERTY);
+        System.setProperty(TraceCache.CACHE_DIR_PROPERTY, fTemporaryFolder.newFolder("cache").toString());
+    }
+
+    /**
+     * Restore the cache location
+     */
+    @After
+    public void tearDown() {
+        if (fPreviousCacheDir == null) {
+            System.clearProperty(TraceCache.CACHE_DIR_PROPERTY);
+        } else {
+            System.setProperty(TraceCache.CACHE_DIR_PROPERTY, fPreviousCacheDir);
+        }
+    }
+
     /**
-     * Test that all configured traces are present.
+     * Test that all configured traces are intact.
      */
     @Test
-    public void testTracesExist() {
+    public void testVerify() {
         for (CtfTestTrace trace : CtfTestTrace.values()) {
-            assertNotNull(trace.getTraceURL());
+            trace.verify();
+        }
+    }
+
+    /**
+     * Test that the generated packet indexes match the LTTng indexes shipped
+     * with some traces.
+     *
+     * @throws IOException
+     *             if a shipped index cannot be read
+     */
+    @Test
+    public void testPacketIndex() throws IOException {
+        CtfTestTrace[] traces = { CtfTestTrace.ROS2, CtfTestTrace.DEBUG_INFO4, CtfTestTrace.CTF_SEQUENCE_EMPTY };
+        for (CtfTestTrace trace : traces) {
+            Map<String, List<PacketIndexEntry>> index = trace.getPacketIndex();
+            assertFalse(trace.name(), index.isEmpty());
+            for (Map.Entry<String, List<PacketIndexEntry>> stream : index.entrySet()) {
+                Path shipped = trace.getTracePath().resolve(LttngIndex.DIRECTORY_NAME).resolve(stream.getKey() + LttngIndex.EXTENSION);
+                assertTrue(shipped.toString(), Files.isRegularFile(shipped));
+                assertEquals(trace.name() + '/' + stream.getKey(), LttngIndex.read(shipped), stream.getValue());
+            }
+        }
+    }
+
+    /**
+     * Test that the region of a trace file holds the bytes of the file.
+     *
+     * @throws IOException
+     *             if the file cannot be mapped
+     */
+    @Test
+    public void testFileRegion() throws IOException {
+        CtfTestTrace[] traces = { CtfTestTrace.ROS2, CtfTestTrace.CTF2_VL_INTS };
+        for (CtfTestTrace trace : traces) {
+            for (String stream : trace.getPacketIndex().keySet()) {
+                FileRegion region = trace.getFileRegion(stream);
+                ByteBuffer mapped = region.map();
+                byte[] bytes = new byte[mapped.remaining()];
+                mapped.get(bytes);
+                assertArrayEquals(region.toString(), Files.readAllBytes(trace.getTracePath().resolve(stream)), bytes);
+            }
+        }
+        try {
+            CtfTestTrace.ROS2.getFileRegion("no-such-stream");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+    }
+
+    /**
+     * Test that the generated metadata descriptors hold the same metadata as
+     * the TSDL and CTF 2 metadata files.
+     *
+     * @throws IOException
+     *             if a metadata file cannot be read
+     */
+    @Test
+    public void testMetadataDescriptor() throws IOException {
+        CtfTestTrace[] traces = { CtfTestTrace.KERNEL, CtfTestTrace.ROS2, CtfTestTrace.CTF2_VL_INTS };
+        for (CtfTestTrace trace : traces) {
+            CtfMetadata descriptor = trace.getMetadataDescriptor();
+            assertNotNull(trace.name(), descriptor);
+            assertArrayEquals(trace.name(), MetadataDescriptor.toBytes(MetadataReader.read(trace.getTracePath())),
+                    MetadataDescriptor.toBytes(descriptor));
+        }
+        Map<String, CtfMetadata> experiment = CtfTestTrace.TRACE_EXPERIMENT.getMetadataDescriptors();
+        assertNull(CtfTestTrace.TRACE_EXPERIMENT.getMetadataDescriptor());
+        assertEquals(236, experiment.size());
+        for (Map.Entry<String, CtfMetadata> entry : experiment.entrySet()) {
+            assertNotNull(entry.getKey(), entry.getValue());
+            assertTrue(entry.getKey(), Files.isRegularFile(CtfTestTrace.TRACE_EXPERIMENT.getTracePath()
+                    .resolve(entry.getKey()).resolve(MetadataReader.METADATA_FILE_NAME)));
+        }
+    }
+
+    /**
+     * Test that the generated statistics agree with the documented number of
+     * events and duration, and with the packet index.
+     */
+    @Test
+    public void testStatistics() {
+        CtfTestTrace[] traces = { CtfTestTrace.ROS2, CtfTestTrace.HELLO_LOST, CtfTestTrace.CTF2_VL_INTS };
+        for (CtfTestTrace trace : traces) {
+            TraceStatistics statistics = trace.getStatistics();
+            assertEquals(trace.name(), trace.getNbEvents(), statistics.getEvents() + statistics.getDiscardedEvents());
+            assertEquals(trace.name(), statistics.getEvents(), statistics.getEventCounts().values().stream().mapToLong(Long::longValue).sum());
+            assertTrue(trace.name(), statistics.getBegin() <= statistics.getEnd());
+            /* The documented duration is rounded */
+            assertEquals(trace.name(), trace.getDuration(), (statistics.getEnd() - statistics.getBegin()) / 1e9, 1);
+            Map<String, List<PacketIndexEntry>> index = trace.getPacketIndex();
+            for (Map.Entry<String, StreamStatistics> stream : statistics.getStreams().entrySet()) {
+                assertEquals(trace.name() + '/' + stream.getKey(), index.get(stream.getKey()).size(), stream.getValue().getPackets());
+            }
+        }
+        assertTrue(CtfTestTrace.HELLO_LOST.getStatistics().getDiscardedEvents() > 0);
+        assertEquals(236, CtfTestTrace.TRACE_EXPERIMENT.getStatistics().getStreams().keySet().stream()
+                .map(stream -> stream.substring(0, stream.lastIndexOf('/'))).distinct().count());
+    }
+
+    /**
+     * Test that a scaled-up trace has the expected number of events, with
+     * increasing timestamps and packet sequence numbers in each stream.
+     *
+     * @throws IOException
+     *             if the scaled trace cannot be read
+     */
+    @Test
+    public void testScaled() throws IOException {
+        CtfTestTrace trace = CtfTestTrace.HELLO_LOST;
+        int factor = 3;
+        Path scaled = trace.scaled(factor);
+        assertEquals(scaled, trace.scaled(factor));
+        CtfMetadata metadata = MetadataReader.read(scaled);
+        long events = 0;
+        for (Path stream : CtfIndexer.getStreamFiles(scaled)) {
+            long lastTimestamp = Long.MIN_VALUE;
+            long lastSequenceNumber = -1;
+            long discarded = 0;
+            try (PacketReader reader = new PacketReader(metadata, stream)) {
+                while (reader.nextPacket()) {
+                    assertTrue(reader.getTimestampBegin() >= lastTimestamp);
+                    assertTrue(reader.getPacketSequenceNumber() > lastSequenceNumber);
+                    lastSequenceNumber = reader.getPacketSequenceNumber();
+                    discarded = reader.getEventsDiscarded();
+                    while (reader.nextEvent()) {
+                        assertTrue(reader.getEventTimestamp() >= lastTimestamp);
+                        lastTimestamp = reader.getEventTimestamp();
+                        events++;
+                    }
+                }
+            }
+            events += discarded;
+        }
+        assertEquals((long) trace.getNbEvents() * factor, events);
+    }
+
+    /**
+     * Test that re-encoded traces decode to the events of their source, in
+     * packets of the layout.
+     *
+     * @throws IOException
+     *             if the re-encoded trace cannot be read
+     */
+    @Test
+    public void testReencoded() throws IOException {
+        CtfTestTrace trace = CtfTestTrace.HELLO_LOST;
+        TraceLayout[] layouts = { new TraceLayout(TraceLayout.MIN_PACKET_SIZE, ByteOrder.BIG_ENDIAN, TraceLayout.Alignment.PACKED),
+                new TraceLayout(1 << 16, ByteOrder.LITTLE_ENDIAN, TraceLayout.Alignment.NATURAL) };
+        for (TraceLayout layout : layouts) {
+            Path reencoded = trace.reencoded(layout);
+            CtfMetadata metadata = MetadataReader.read(reencoded);
+            assertEquals(2, metadata.getMajor());
+            long events = 0;
+            for (String stream : trace.getPacketIndex().keySet()) {
+                long discarded = 0;
+                try (CheckpointVerifier verifier = trace.getCheckpointVerifier(stream);
+                        PacketReader reader = new PacketReader(metadata, reencoded.resolve(stream))) {
+                    while (reader.nextPacket()) {
+                        assertEquals(layout.toString(), 0, reader.getPacketSize() % (layout.getPacketSize() * Byte.SIZE));
+                        discarded = reader.getEventsDiscarded();
+                        ClockClass clock = reader.getClock();
+                        while (reader.nextEvent()) {
+                            long timestamp = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+                            verifier.event(reader.getEventClass().getName(), timestamp, reader.getStreamId(), -1, reader.getEventPayload());
+                        }
+                    }
+                    verifier.finish();
+                    events += verifier.getEvents() + discarded;
+                }
+            }
+            assertEquals(layout.toString(), trace.getNbEvents(), events);
+        }
+    }
+
+    /**
+     * Slice the middle of a trace, and check that the slice holds exactly
+     * the events of the window.
+     *
+     * @throws IOException
+     *             if the trace or the slice cannot be read
+     */
+    @Test
+    public void testSlice() throws IOException {
+        CtfTestTrace trace = CtfTestTrace.HELLO_LOST;
+        Path tracePath = trace.getTracePath();
+        CtfMetadata metadata = MetadataReader.read(tracePath);
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (String stream : trace.getPacketIndex().keySet()) {
+            try (PacketReader reader = new PacketReader(metadata, tracePath.resolve(stream))) {
+                while (reader.nextPacket()) {
+                    while (reader.nextEvent()) {
+                        long timestamp = reader.getClock().toNanos(reader.getEventTimestamp());
+                        first = Math.min(first, timestamp);
+                        last = Math.max(last, timestamp);
+                    }
+                }
+            }
+        }
+        long start = first + (last - first) / 3;
+        long end = first + 2 * (last - first) / 3;
+        TraceSlice slice = trace.slice(start, end);
+        assertArrayEquals(Files.readAllBytes(tracePath.resolve(MetadataReader.METADATA_FILE_NAME)),
+                Files.readAllBytes(slice.getPath().resolve(MetadataReader.METADATA_FILE_NAME)));
+        assertTrue(slice.getCopiedPackets() > 0);
+        assertTrue(slice.getRewrittenPackets() > 0);
+
+        long events = 0;
+        for (String stream : trace.getPacketIndex().keySet()) {
+            List<Object[]> expected = new ArrayList<>();
+            try (PacketReader reader = new PacketReader(metadata, tracePath.resolve(stream))) {
+                while (reader.nextPacket()) {
+                    while (reader.nextEvent()) {
+                        long timestamp = reader.getClock().toNanos(reader.getEventTimestamp());
+                        if (timestamp >= start && timestamp <= end) {
+                            expected.add(new Object[] { reader.getEventClass().getName(), timestamp, reader.getEventPayload() });
+                        }
+                    }
+                }
+            }
+            Path sliced = slice.getPath().resolve(stream);
+            if (!Files.exists(sliced)) {
+                assertTrue(stream, expected.isEmpty());
+                continue;
+            }
+            int count = 0;
+            try (PacketReader reader = new PacketReader(metadata, sliced)) {
+                while (reader.nextPacket()) {
+                    while (reader.nextEvent()) {
+                        Object[] actual = { reader.getEventClass().getName(), reader.getClock().toNanos(reader.getEventTimestamp()), reader.getEventPayload() };
+                        assertArrayEquals(stream + " #" + count, expected.get(count), actual);
+                        count++;
+                    }
+                }
+            }
+            assertEquals(stream, expected.size(), count);
+            assertEquals(stream, Long.valueOf(count), slice.getEventCounts().get(stream));
+            events += count;
+        }
+        assertTrue(events > 0);
+        assertEquals(events, slice.getNbEvents());
+        assertEquals(0, trace.slice(last + 1, last + 2).getNbEvents());
+    }
+
+    /**
+     * Replay a trace with an LTTng index at a fixed rate, and check the
+     * replayed files and the timeline.
+     *
+     * @throws IOException
+     *             if the trace or the replayed files cannot be read
+     */
+    @Test
+    public void testReplay() throws IOException {
+        CtfTestTrace trace = CtfTestTrace.ROS2;
+        Path tracePath = trace.getTracePath();
+        Path target = fTemporaryFolder.getRoot().toPath().resolve("live");
+        ReplayPacing pacing = ReplayPacing.bytesPerSecond(1 << 28);
+        ReplayTimeline timeline = trace.replay(target, pacing);
+
+        Map<String, List<PacketIndexEntry>> index = trace.getPacketIndex();
+        Map<String, Long> ends = new HashMap<>();
+        long previous = timeline.getMetadataVisible();
+        long packets = 0;
+        for (ReplayTimeline.Packet packet : timeline.getPackets()) {
+            assertEquals(packet.getStream(), ends.getOrDefault(packet.getStream(), 0L).longValue(), packet.getOffset());
+            ends.put(packet.getStream(), packet.getOffset() + packet.getSize());
+            assertTrue(packet.getVisible() >= packet.getDue());
+            assertTrue(packet.getVisible() >= previous);
+            previous = packet.getVisible();
+        }
+        for (Map.Entry<String, List<PacketIndexEntry>> entry : index.entrySet()) {
+            String stream = entry.getKey();
+            assertArrayEquals(stream, Files.readAllBytes(tracePath.resolve(stream)), Files.readAllBytes(target.resolve(stream)));
+            Path indexFile = target.resolve(LttngIndex.DIRECTORY_NAME).resolve(stream + LttngIndex.EXTENSION);
+            assertEquals(stream, entry.getValue(), LttngIndex.read(indexFile));
+            packets += entry.getValue().size();
+        }
+        assertEquals(packets, timeline.getPackets().size());
+        assertTrue(timeline.getDuration() >= pacing.getDue(0, timeline.getBytes()));
+    }
+
+    /**
+     * Decode many corrupted variants of a stream: each one must be either
+     * decoded or rejected with an {@link IOException}, and flipped magic
+     * numbers must always be rejected.
+     *
+     * @throws IOException
+     *             if the stream cannot be read
+     */
+    @Test
+    public void testMutations() throws IOException {
+        CtfTestTrace trace = CtfTestTrace.HELLO_LOST;
+        String stream = trace.getPacketIndex().keySet().iterator().next();
+        Mutator mutator = trace.getMutator(stream);
+        assertEquals(EnumSet.allOf(MutationKind.class), mutator.getKinds());
+        CtfMetadata metadata = trace.getMetadataDescriptor();
+        Path file = trace.getTracePath().resolve(stream);
+        int rejected = 0;
+        for (int i = 0; i < 500; i++) {
+            Mutation mutation = mutator.mutate(42, i);
+            try (SeekableByteChannel channel = mutation.open(file);
+                    PacketReader reader = new PacketReader(metadata, new StreamInput(channel, file))) {
+                while (reader.nextPacket()) {
+                    while (reader.nextEvent()) {
+                        // Decode everything
+                    }
+                }
+                assertFalse(mutation.toString(), mutation.getKind() == MutationKind.FLIPPED_MAGIC);
+            } catch (IOException e) {
+                rejected++;
+            } catch (RuntimeException e) {
+                throw new AssertionError("Variant " + i + ", " + mutation, e);
+            }
+        }
+        assertTrue(rejected > 0);
+    }
+
+    /**
+     * Test that decoding every event of a multi-stream trace matches its
+     * checkpoints, and that a single altered event does not.
+     *
+     * @throws IOException
+     *             if the trace cannot be read
+     */
+    @Test
+    public void testCheckpoints() throws IOException {
+        CtfTestTrace trace = CtfTestTrace.SYNC_DEST;
+        long events = 0;
+        for (String stream : trace.getPacketIndex().keySet()) {
+            events += checkStream(trace, stream, -1);
+        }
+        assertEquals(trace.getNbEvents(), events);
+        String stream = CtfTestTrace.DEBUG_INFO4.getPacketIndex().keySet().iterator().next();
+        try {
+            checkStream(CtfTestTrace.DEBUG_INFO4, stream, 10);
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("digest"));
+        }
+    }
+
+    /**
+     * Test that the CTF 2 conversions have CTF 2 metadata, and decode to the
+     * events of their source trace: they match its checkpoints.
+     *
+     * @throws IOException
+     *             if a trace cannot be read
+     */
+    @Test
+    public void testCtf2() throws IOException {
+        CtfTestTrace[] traces = { CtfTestTrace.CTF2_ROS2, CtfTestTrace.CTF2_MANY_THREADS };
+        for (CtfTestTrace trace : traces) {
+            assertEquals(trace.name(), 2, trace.getMetadataDescriptor().getMajor());
+            long events = 0;
+            for (String stream : trace.getPacketIndex().keySet()) {
+                events += checkStream(trace, stream, -1);
+            }
+            assertEquals(trace.name(), trace.getNbEvents(), events + trace.getStatistics().getDiscardedEvents());
+        }
+        assertEquals(1, CtfTestTrace.KERNEL.getMetadataDescriptor().getMajor());
+        assertEquals(2, CtfTestTrace.CTF2_KERNEL.getMetadataDescriptor().getMajor());
+        assertEquals(CtfTestTrace.KERNEL.getMetadataDescriptor().getStreams().get(0L).getEvents().size(),
+                CtfTestTrace.CTF2_KERNEL.getMetadataDescriptor().getStreams().get(0L).getEvents().size());
+    }
+
+    /**
+     * Check the events of a stream, with an extra value in the payload of one
+     * event, -1 for none.
+     */
+    private static long checkStream(CtfTestTrace trace, String stream, long alteredEvent) throws IOException {
+        CtfMetadata metadata = trace.getMetadataDescriptor();
+        try (CheckpointVerifier verifier = trace.getCheckpointVerifier(stream);
+                PacketReader reader = new PacketReader(metadata, trace.getTracePath().resolve(stream))) {
+            while (reader.nextPacket()) {
+                ClockClass clock = reader.getClock();
+                while (reader.nextEvent()) {
+                    long timestamp = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+                    RollingDigest digest = verifier.beginEvent(reader.getEventClass().getName(), timestamp);
+                    Object[] payload = reader.getEventPayload();
+                    digest.putValue(payload == null ? new Object[0] : payload);
+                    if (verifier.getEvents() == alteredEvent) {
+                        digest.putNull();
+                    }
+                    verifier.endEvent(reader.getStreamId(), reader.getEventOffset());
+                }
+            }
+            verifier.finish();
+            return verifier.getEvents();
+        }
+    }
+
+    /**
+     * Test that seeking with the seek index finds the first event at or after
+     * random timestamps, as found by decoding all the events.
+     *
+     * @throws IOException
+     *             if the trace cannot be read
+     */
+    @Test
+    public void testSeekIndex() throws IOException {
+        CtfTestTrace trace = CtfTestTrace.SYNC_DEST;
+        SeekIndex index = trace.getSeekIndex();
+        assertNotNull(index);
+        assertNull(CtfTestTrace.TRACE_EXPERIMENT.getSeekIndex());
+        CtfMetadata metadata = trace.getMetadataDescriptor();
+        List<String> streams = index.getStreams();
+        assertEquals(trace.getPacketIndex().keySet(), new TreeSet<>(streams));
+        long[][] timestamps = new long[streams.size()][];
+        for (int stream = 0; stream < streams.size(); stream++) {
+            timestamps[stream] = readTimestamps(metadata, trace.getTracePath().resolve(streams.get(stream)));
+        }
+        TraceStatistics statistics = trace.getStatistics();
+        Random random = new Random(12);
+        try (EventSeeker seeker = new EventSeeker(index, metadata, trace.getTracePath())) {
+            for (int i = 0; i < 500; i++) {
+                long timestamp = statistics.getBegin() - 1 + (long) (random.nextDouble() * (statistics.getEnd() - statistics.getBegin() + 3));
+                int expectedStream = -1;
+                int expectedOrdinal = -1;
+                for (int stream = 0; stream < timestamps.length; stream++) {
+                    int ordinal = lowerBound(timestamps[stream], timestamp);
+                    if (ordinal < timestamps[stream].length && (expectedStream < 0
+                            || timestamps[stream][ordinal] < timestamps[expectedStream][expectedOrdinal])) {
+                        expectedStream = stream;
+                        expectedOrdinal = ordinal;
+                    }
+                }
+                assertEquals(expectedStream >= 0, seeker.seek(timestamp));
+                if (expectedStream >= 0) {
+                    assertEquals(timestamps[expectedStream][expectedOrdinal], seeker.getTimestamp());
+                    assertEquals(expectedStream, seeker.getStream());
+                    assertEquals(expectedOrdinal, seeker.getOrdinal());
+                }
+            }
+        }
+    }
+
+    /**
+     * Test that every merger merges the streams of a trace in the expected
+     * merge order generated at build time.
+     *
+     * @throws IOException
+     *             if the trace cannot be read
+     */
+    @Test
+    public void testMergeOrder() throws IOException {
+        CtfTestTrace trace = CtfTestTrace.MANY_THREADS;
+        MergeOrder expected = trace.getMergeOrder();
+        assertNotNull(expected);
+        assertNull(CtfTestTrace.TRACE_EXPERIMENT.getMergeOrder());
+        assertEquals(trace.getPacketIndex().keySet(), new TreeSet<>(expected.getStreams()));
+        CtfMetadata metadata = trace.getMetadataDescriptor();
+        List<String> streams = expected.getStreams();
+        long[][] timestamps = new long[streams.size()][];
+        long events = 0;
+        for (int stream = 0; stream < streams.size(); stream++) {
+            timestamps[stream] = readTimestamps(metadata, trace.getTracePath().resolve(streams.get(stream)));
+            events += timestamps[stream].length;
+        }
+        assertEquals(events, expected.getEventCount());
+        assertTrue(expected.getRunCount() > 1);
+        for (String name : new String[] { "heap", "tournament", "batched" }) {
+            MergeOrder.Builder builder = new MergeOrder.Builder(streams);
+            KWayMerger.forName(name).merge(timestamps, builder);
+            MergeOrder actual = builder.build();
+            assertEquals(name, -1, expected.mismatch(actual));
+            assertEquals(name, expected, actual);
+        }
+    }
+
+    /**
+     * Test that the framed copy of a trace holds the content of its stream
+     * files, and its metadata as is.
+     *
+     * @throws IOException
+     *             if the copy cannot be read
+     */
+    @Test
+    public void testFramed() throws IOException {
+        CtfTestTrace trace = CtfTestTrace.SYNC_DEST;
+        Path source = trace.getTracePath();
+        Path framed = trace.framed(4096);
+        assertEquals(framed, trace.framed(4096));
+        assertTrue(framed.startsWith(fTemporaryFolder.getRoot().toPath()));
+        assertArrayEquals(Files.readAllBytes(source.resolve("metadata")), Files.readAllBytes(framed.resolve("metadata")));
+        List<Path> streams = CtfIndexer.getStreamFiles(source);
+        assertFalse(streams.isEmpty());
+        for (Path stream : streams) {
+            byte[] expected = Files.readAllBytes(stream);
+            Path file = framed.resolve(source.relativize(stream).toString() + FramedFile.EXTENSION);
+            assertTrue(Files.size(file) < expected.length);
+            try (FramedChannel channel = FramedFile.open(file)) {
+                ByteBuffer actual = ByteBuffer.allocate(expected.length);
+                while (channel.read(actual) >= 0) {
+                    // Read the whole stream
+                }
+                assertArrayEquals(expected, actual.array());
+            }
+        }
+    }
+
+    /**
+     * Test that the packets of a synchronization experiment match, and that
+     * the expected formulas put every receive after its send, at least the
+     * minimum latency later.
+     *
+     * @throws IOException
+     *             if the experiment cannot be read
+     */
+    @Test
+    public void testSyncExperiment() throws IOException {
+        int hosts = 10;
+        int pairsPerLink = 100;
+        Path experiment = CtfTestTrace.getSyncExperiment(hosts, pairsPerLink, 13);
+        assertEquals(experiment, CtfTestTrace.getSyncExperiment(hosts, pairsPerLink, 13));
+        assertTrue(experiment.startsWith(fTemporaryFolder.getRoot().toPath()));
+        List<SyncFormula> formulas = SyncExperimentGenerator.readFormulas(experiment);
+        assertEquals(hosts, formulas.size());
+        assertEquals(0, formulas.get(0).getOffset());
+        assertEquals(0, formulas.get(0).getDrift());
+
+        /* Host and reference time of the send and receive of each packet */
+        Map<Long, long[]> packets = new HashMap<>();
+        for (int host = 0; host < hosts; host++) {
+            Path trace = experiment.resolve(SyncExperimentGenerator.getHostName(host));
+            CtfMetadata metadata = MetadataReader.read(trace);
+            SyncFormula formula = formulas.get(host);
+            for (Path stream : CtfIndexer.getStreamFiles(trace)) {
+                try (PacketReader reader = new PacketReader(metadata, stream)) {
+                    while (reader.nextPacket()) {
+                        while (reader.nextEvent()) {
+                            EventClass event = reader.getEventClass();
+                            int column = TcpConversation.OUT_EVENT.equals(event.getName()) ? 0 : 2;
+                            long seq = (Long) reader.getEventPayload()[event.getPayload().indexOf("_seq")];
+                            long[] packet = packets.computeIfAbsent(seq, k -> new long[] { -1, 0, -1, 0 });
+                            assertEquals(-1, packet[column]);
+                            packet[column] = host;
+                            packet[column + 1] = formula.toReference(reader.getClock().toNanos(reader.getEventTimestamp()));
+                        }
+                    }
+                }
+            }
+        }
+        assertEquals((hosts - 1) * pairsPerLink, packets.size());
+        for (long[] packet : packets.values()) {
+            assertTrue(packet[0] >= 0 && packet[2] >= 0 && packet[0] != packet[2]);
+            assertTrue(packet[3] - packet[1] >= TcpConversation.MIN_LATENCY - 2);
+        }
+    }
+
+    private static long[] readTimestamps(CtfMetadata metadata, Path stream) throws IOException {
+        long[] timestamps = new long[1024];
+        int count = 0;
+        try (PacketReader reader = new PacketReader(metadata, stream)) {
+            while (reader.nextPacket()) {
+                ClockClass clock = reader.getClock();
+                while (reader.nextEvent()) {
+                    if (count == timestamps.length) {
+                        timestamps = Arrays.copyOf(timestamps, count * 2);
+                    }
+                    timestamps[count++] = clock == null ? reader.getEventTimestamp() : clock.toNanos(reader.getEventTimestamp());
+                    assertTrue(count == 1 || timestamps[count - 1] >= timestamps[count - 2]);
+                }
+            }
+        }
+        return Arrays.copyOf(timestamps, count);
+    }
+
+    private static int lowerBound(long[] timestamps, long timestamp) {
+        int low = 0;
+        int high = timestamps.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (timestamps[middle] < timestamp) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
         }
+        return low;
     }
 }
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.dat;
+
+import java.util.Arrays;
+
+/**
+ * The ring buffer data of one CPU in a trace.dat file: where it is, and where
+ * its pages start. Each page starts with a header holding a timestamp, which
+ * the events of the page are relative to, and the size of its content.
+ */
+public final class CpuSection {
+
+    private final int fCpu;
+    private final long fOffset;
+    private final long fSize;
+    private final int fPageSize;
+    private final long[] fPageTimestamps;
+    private final int[] fPageContentSizes;
+
+    /**
+     * Constructor
+     *
+     * @param cpu
+     *            the CPU number
+     * @param offset
+     *            the offset of the section in the file, in bytes
+     * @param size
+     *            the size of the section, in bytes
+     * @param pageSize
+     *            the size of the ring buffer pages, in bytes
+     * @param pageTimestamps
+     *            the timestamp of the header of each page
+     * @param pageContentSizes
+     *            the size of the events of each page, in bytes
+     */
+    public CpuSection(int cpu, long offset, long size, int pageSize, long[] pageTimestamps, int[] pageContentSizes) {
+        if (pageTimestamps.length != pageContentSizes.length) {
+            throw new IllegalArgumentException("Page timestamps and content sizes do not match");
+        }
+        fCpu = cpu;
+        fOffset = offset;
+        fSize = size;
+        fPageSize = pageSize;
+        fPageTimestamps = pageTimestamps.clone();
+        fPageContentSizes = pageContentSizes.clone();
+    }
+
+    /**
+     * @return the CPU number
+     */
+    public int getCpu() {
+        return fCpu;
+    }
+
+    /**
+     * @return the offset of the section in the file, in bytes
+     */
+    public long getOffset() {
+        return fOffset;
+    }
+
+    /**
+     * @return the size of the section, in bytes
+     */
+    public long getSize() {
+        return fSize;
+    }
+
+    /**
+     * @return the size of the ring buffer pages, in bytes
+     */
+    public int getPageSize() {
+        return fPageSize;
+    }
+
+    /**
+     * @return the number of pages
+     */
+    public int getPageCount() {
+        return fPageTimestamps.length;
+    }
+
+    /**
+     * @param page
+     *            the page index, from 0
+     * @return the offset of the page in the file, in bytes
+     */
+    public long getPageOffset(int page) {
+        if (page < 0 || page >= fPageTimestamps.length) {
+            throw new IndexOutOfBoundsException("Page " + page + " of " + fPageTimestamps.length);
+        }
+        return fOffset + (long) page * fPageSize;
+    }
+
+    /**
+     * @param page
+     *            the page index, from 0
+     * @return the timestamp of the page header
+     */
+    public long getPageTimestamp(int page) {
+        return fPageTimestamps[page];
+    }
+
+    /**
+     * @param page
+     *            the page index, from 0
+     * @return the size of the events of the page, in bytes
+     */
+    public int getPageContentSize(int page) {
+        return fPageContentSizes[page];
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(fOffset) * 31 + fCpu;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CpuSection)) {
+            return false;
+        }
+        CpuSection other = (CpuSection) obj;
+        return fCpu == other.fCpu && fOffset == other.fOffset && fSize == other.fSize && fPageSize == other.fPageSize
+                && Arrays.equals(fPageTimestamps, other.fPageTimestamps) && Arrays.equals(fPageContentSizes, other.fPageContentSizes);
+    }
+
+    @Override
+    public String toString() {
+        return "CpuSection [cpu=" + fCpu + ", offset=" + fOffset + ", size=" + fSize + ", pageSize=" + fPageSize
+                + ", pages=" + fPageTimestamps.length + "]";
+    }
+}
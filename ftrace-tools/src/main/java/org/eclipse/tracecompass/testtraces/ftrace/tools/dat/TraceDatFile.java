@@ -0,0 +1,408 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.dat;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The layout of a trace-cmd trace.dat file, version 6: the file headers, and
+ * the ring buffer data section of each CPU.
+ *
+ * The headers are, in order: magic number and version, byte order, size of
+ * long, page size, header page and header event formats, ftrace and event
+ * formats, kallsyms, printk formats, command lines, number of CPUs, options,
+ * then "flyrecord" followed by the offset and size of each CPU section. Only
+ * the formats of the page headers are parsed; the other sections are skipped.
+ */
+public final class TraceDatFile {
+
+    /** Magic number at the start of the files */
+    private static final byte[] MAGIC = { 0x17, 0x08, 0x44, 't', 'r', 'a', 'c', 'i', 'n', 'g' };
+
+    /** Version of the format this class reads */
+    public static final int VERSION = 6;
+
+    /** Bits of the page commit field that hold the content size */
+    private static final long COMMIT_MASK = (1L << 27) - 1;
+
+    private static final String HEADER_PAGE = "header_page";
+    private static final String HEADER_EVENT = "header_event";
+    private static final String OPTIONS = "options  ";
+    private static final String LATENCY = "latency  ";
+    private static final String FLYRECORD = "flyrecord";
+    private static final int LABEL_SIZE = 10;
+
+    /** A field of the header page format: "field: u64 timestamp; offset:0; size:8; signed:0;" */
+    private static final Pattern FIELD = Pattern.compile("field:[^;]*?(\\w+)(?:\\[\\d*\\])?;\\s*offset:(\\d{1,9});\\s*size:(\\d{1,9});");
+
+    private final ByteOrder fByteOrder;
+    private final int fLongSize;
+    private final int fPageSize;
+    private final int fCpuCount;
+    private final int fTimestampOffset;
+    private final int fCommitOffset;
+    private final int fCommitSize;
+    private final int fDataOffset;
+    private final long fHeaderPageSizeOffset;
+    private final long fHeaderEventSizeOffset;
+    private final long fCpuTableOffset;
+    private final List<CpuSection> fCpuSections;
+
+    private TraceDatFile(ByteOrder byteOrder, int longSize, int pageSize, int cpuCount, int[] pageHeader, long[] fieldOffsets, List<CpuSection> cpuSections) {
+        fByteOrder = byteOrder;
+        fLongSize = longSize;
+        fPageSize = pageSize;
+        fCpuCount = cpuCount;
+        fTimestampOffset = pageHeader[0];
+        fCommitOffset = pageHeader[1];
+        fCommitSize = pageHeader[2];
+        fDataOffset = pageHeader[3];
+        fHeaderPageSizeOffset = fieldOffsets[0];
+        fHeaderEventSizeOffset = fieldOffsets[1];
+        fCpuTableOffset = fieldOffsets[2];
+        fCpuSections = Collections.unmodifiableList(cpuSections);
+    }
+
+    /**
+     * Read the layout of a trace.dat file, and the header of each page of its
+     * CPU sections.
+     *
+     * @param file
+     *            the trace.dat file
+     * @return the layout
+     * @throws IOException
+     *             if the file cannot be read, or is not a valid trace.dat
+     *             file, version 6
+     */
+    public static TraceDatFile read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new Reader(channel, String.valueOf(file)).read();
+        }
+    }
+
+    /**
+     * Read the layout of a trace.dat file from a channel, such as a corrupted
+     * variant of a file.
+     *
+     * @param channel
+     *            the content of the file, left open
+     * @param name
+     *            the name of the file, for error messages
+     * @return the layout
+     * @throws IOException
+     *             if the channel cannot be read, or its content is not a
+     *             valid trace.dat file, version 6
+     */
+    public static TraceDatFile read(SeekableByteChannel channel, String name) throws IOException {
+        return new Reader(channel, name).read();
+    }
+
+    /**
+     * @return the byte order of the file
+     */
+    public ByteOrder getByteOrder() {
+        return fByteOrder;
+    }
+
+    /**
+     * @return the size of a long on the traced machine, in bytes
+     */
+    public int getLongSize() {
+        return fLongSize;
+    }
+
+    /**
+     * @return the size of the ring buffer pages, in bytes
+     */
+    public int getPageSize() {
+        return fPageSize;
+    }
+
+    /**
+     * @return the number of CPUs
+     */
+    public int getCpuCount() {
+        return fCpuCount;
+    }
+
+    /**
+     * @return the offset of the timestamp in a page header, in bytes
+     */
+    public int getPageTimestampOffset() {
+        return fTimestampOffset;
+    }
+
+    /**
+     * @return the offset of the commit field (content size and flags) in a
+     *         page header, in bytes
+     */
+    public int getPageCommitOffset() {
+        return fCommitOffset;
+    }
+
+    /**
+     * @return the size of the commit field in a page header, in bytes
+     */
+    public int getPageCommitSize() {
+        return fCommitSize;
+    }
+
+    /**
+     * @return the offset of the events in a page, in bytes
+     */
+    public int getPageDataOffset() {
+        return fDataOffset;
+    }
+
+    /**
+     * @return the offset in the file of the 8-byte size of the header page
+     *         section
+     */
+    public long getHeaderPageSizeOffset() {
+        return fHeaderPageSizeOffset;
+    }
+
+    /**
+     * @return the offset in the file of the 8-byte size of the header event
+     *         section
+     */
+    public long getHeaderEventSizeOffset() {
+        return fHeaderEventSizeOffset;
+    }
+
+    /**
+     * @return the offset in the file of the flyrecord table, where the 8-byte
+     *         offset and 8-byte size of the section of CPU <code>i</code> are
+     *         at <code>16 * i</code> and <code>16 * i + 8</code>, -1 for a
+     *         latency trace
+     */
+    public long getCpuTableOffset() {
+        return fCpuTableOffset;
+    }
+
+    /**
+     * @return the CPU sections, by CPU number
+     */
+    public List<CpuSection> getCpuSections() {
+        return fCpuSections;
+    }
+
+    private static final class Reader {
+
+        private final SeekableByteChannel fChannel;
+        private final String fFile;
+        private final long fFileSize;
+        private final long[] fFieldOffsets = { -1, -1, -1 };
+        private long fPosition;
+        private ByteOrder fOrder = ByteOrder.LITTLE_ENDIAN;
+
+        public Reader(SeekableByteChannel channel, String file) throws IOException {
+            fChannel = channel;
+            fFile = file;
+            fFileSize = channel.size();
+        }
+
+        public TraceDatFile read() throws IOException {
+            byte[] magic = new byte[MAGIC.length];
+            get(magic.length).get(magic);
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (magic[i] != MAGIC[i]) {
+                    throw new TraceDatFormatException("Not a trace.dat file: " + fFile);
+                }
+            }
+            String version = getString();
+            if (!String.valueOf(VERSION).equals(version)) {
+                throw new TraceDatFormatException("Unsupported trace.dat version " + version + " in " + fFile);
+            }
+            fOrder = get(1).get() == 0 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+            int longSize = get(1).get();
+            if (longSize != 4 && longSize != 8) {
+                throw new TraceDatFormatException("Invalid long size " + longSize + " in " + fFile);
+            }
+            int pageSize = get(4).getInt();
+            if (pageSize <= 0) {
+                throw new TraceDatFormatException("Invalid page size " + pageSize + " in " + fFile);
+            }
+
+            expectLabel(HEADER_PAGE);
+            fFieldOffsets[0] = fPosition;
+            int[] pageHeader = parsePageHeader(new String(getBytes(sectionSize(get(8).getLong(), HEADER_PAGE)), StandardCharsets.US_ASCII), longSize, pageSize);
+            expectLabel(HEADER_EVENT);
+            fFieldOffsets[1] = fPosition;
+            skip(get(8).getLong(), HEADER_EVENT);
+
+            for (int i = get(4).getInt(); i > 0; i--) {
+                skip(get(8).getLong(), "ftrace format");
+            }
+            for (int systems = get(4).getInt(); systems > 0; systems--) {
+                getString();
+                for (int i = get(4).getInt(); i > 0; i--) {
+                    skip(get(8).getLong(), "event format");
+                }
+            }
+            skip(Integer.toUnsignedLong(get(4).getInt()), "kallsyms");
+            skip(Integer.toUnsignedLong(get(4).getInt()), "printk");
+            skip(get(8).getLong(), "cmdlines");
+
+            int cpus = get(4).getInt();
+            if (cpus < 0 || cpus > (fFileSize - fPosition) / 16) {
+                throw new TraceDatFormatException("Invalid CPU count " + cpus + " in " + fFile);
+            }
+            String label = getLabel();
+            if (label.equals(OPTIONS)) {
+                for (int id = get(2).getShort(); id != 0; id = get(2).getShort()) {
+                    skip(Integer.toUnsignedLong(get(4).getInt()), "option " + id);
+                }
+                label = getLabel();
+            }
+            List<CpuSection> sections = new ArrayList<>();
+            if (label.equals(LATENCY)) {
+                /* Latency traces are text, without CPU sections */
+                return new TraceDatFile(fOrder, longSize, pageSize, cpus, pageHeader, fFieldOffsets, sections);
+            }
+            if (!label.equals(FLYRECORD)) {
+                throw new TraceDatFormatException("Unknown data section \"" + label.trim() + "\" in " + fFile);
+            }
+            fFieldOffsets[2] = fPosition;
+            long[] offsets = new long[cpus];
+            long[] sizes = new long[cpus];
+            for (int cpu = 0; cpu < cpus; cpu++) {
+                offsets[cpu] = get(8).getLong();
+                sizes[cpu] = get(8).getLong();
+                if (offsets[cpu] < 0 || sizes[cpu] < 0 || offsets[cpu] > fFileSize - sizes[cpu]) {
+                    throw new TraceDatFormatException("Section of CPU " + cpu + " (" + sizes[cpu] + " bytes at " + offsets[cpu]
+                            + ") is past the end of " + fFile);
+                }
+            }
+            for (int cpu = 0; cpu < cpus; cpu++) {
+                sections.add(readSection(cpu, offsets[cpu], sizes[cpu], pageSize, pageHeader));
+            }
+            return new TraceDatFile(fOrder, longSize, pageSize, cpus, pageHeader, fFieldOffsets, sections);
+        }
+
+        private CpuSection readSection(int cpu, long offset, long size, int pageSize, int[] pageHeader) throws IOException {
+            int pages = (int) ((size + pageSize - 1) / pageSize);
+            long[] timestamps = new long[pages];
+            int[] contentSizes = new int[pages];
+            for (int page = 0; page < pages; page++) {
+                long start = (long) page * pageSize;
+                if (start + pageHeader[3] > size) {
+                    throw new TraceDatFormatException("Truncated page " + page + " of CPU " + cpu + " in " + fFile);
+                }
+                fPosition = offset + start;
+                ByteBuffer header = get(pageHeader[3]);
+                timestamps[page] = header.getLong(pageHeader[0]);
+                long commit = pageHeader[2] == Long.BYTES ? header.getLong(pageHeader[1]) : header.getInt(pageHeader[1]);
+                contentSizes[page] = (int) (commit & COMMIT_MASK);
+            }
+            return new CpuSection(cpu, offset, size, pageSize, timestamps, contentSizes);
+        }
+
+        /**
+         * Get the timestamp offset, commit offset, commit size and data
+         * offset from the header page format, with the usual layout as
+         * default.
+         */
+        private int[] parsePageHeader(String format, int longSize, int pageSize) throws TraceDatFormatException {
+            int[] layout = { 0, Long.BYTES, longSize, Long.BYTES + longSize };
+            Matcher matcher = FIELD.matcher(format);
+            while (matcher.find()) {
+                int offset = Integer.parseInt(matcher.group(2));
+                switch (matcher.group(1)) {
+                case "timestamp":
+                    layout[0] = offset;
+                    break;
+                case "commit":
+                    layout[1] = offset;
+                    layout[2] = Integer.parseInt(matcher.group(3));
+                    break;
+                case "data":
+                    layout[3] = offset;
+                    break;
+                default:
+                    break;
+                }
+            }
+            if (layout[0] + Long.BYTES > layout[3] || (layout[2] != Integer.BYTES && layout[2] != Long.BYTES)
+                    || layout[1] + layout[2] > layout[3] || layout[3] > pageSize) {
+                throw new TraceDatFormatException("Invalid page header format in " + fFile);
+            }
+            return layout;
+        }
+
+        private void expectLabel(String label) throws IOException {
+            String actual = getString();
+            if (!label.equals(actual)) {
+                throw new TraceDatFormatException("Expected " + label + " section, found \"" + actual + "\" in " + fFile);
+            }
+        }
+
+        private String getLabel() throws IOException {
+            byte[] label = getBytes(LABEL_SIZE);
+            return new String(label, 0, LABEL_SIZE - 1, StandardCharsets.US_ASCII);
+        }
+
+        private String getString() throws IOException {
+            StringBuilder sb = new StringBuilder();
+            for (byte b = get(1).get(); b != 0; b = get(1).get()) {
+                sb.append((char) (b & 0xff));
+            }
+            return sb.toString();
+        }
+
+        private int sectionSize(long size, String section) throws IOException {
+            if (size < 0 || size > fFileSize - fPosition || size > Integer.MAX_VALUE) {
+                throw new TraceDatFormatException("Size of the " + section + " section (" + size + " bytes) is past the end of " + fFile);
+            }
+            return (int) size;
+        }
+
+        private void skip(long size, String section) throws IOException {
+            if (size < 0 || size > fFileSize - fPosition) {
+                throw new TraceDatFormatException("Size of the " + section + " section (" + size + " bytes) is past the end of " + fFile);
+            }
+            fPosition += size;
+        }
+
+        private byte[] getBytes(int size) throws IOException {
+            byte[] bytes = new byte[size];
+            get(size).get(bytes);
+            return bytes;
+        }
+
+        private ByteBuffer get(int size) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(size).order(fOrder);
+            fChannel.position(fPosition);
+            while (buffer.hasRemaining()) {
+                if (fChannel.read(buffer) < 0) {
+                    throw new EOFException("Unexpected end of " + fFile + " at " + (fPosition + buffer.position()));
+                }
+            }
+            fPosition += size;
+            buffer.flip();
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.index;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.CpuSection;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFormatException;
+
+/**
+ * Reads and writes CPU section index files (<code>*.cpus</code>), the
+ * precomputed layout of the CPU sections of a trace.dat file.
+ *
+ * The file is big endian. A 16-byte header (magic, major and minor version,
+ * number of CPUs) is followed, for each CPU, by its number, page size, offset,
+ * size and page count, then by the timestamp (8 bytes) and content size (4
+ * bytes) of each page.
+ */
+public final class CpuSectionIndex {
+
+    /** Magic number of the index files */
+    public static final int MAGIC = 0x43505553;
+
+    /** Major version written */
+    public static final int MAJOR = 1;
+
+    /** Minor version written */
+    public static final int MINOR = 0;
+
+    /** Extension of the index files */
+    public static final String EXTENSION = ".cpus";
+
+    private static final int HEADER_SIZE = 16;
+    private static final int SECTION_HEADER_SIZE = 2 * Integer.BYTES + 2 * Long.BYTES + Integer.BYTES;
+    private static final int PAGE_SIZE = Long.BYTES + Integer.BYTES;
+
+    private CpuSectionIndex() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Read an index file.
+     *
+     * @param file
+     *            the index file
+     * @return the CPU sections
+     * @throws IOException
+     *             if the file cannot be read or is not an index
+     */
+    public static List<CpuSection> read(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.BIG_ENDIAN);
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new TraceDatFormatException("Not a CPU section index file: " + file);
+        }
+        int major = buffer.getInt();
+        int minor = buffer.getInt();
+        if (major != MAJOR) {
+            throw new TraceDatFormatException("Unsupported CPU section index version " + major + '.' + minor + " in " + file);
+        }
+        int cpus = buffer.getInt();
+        List<CpuSection> sections = new ArrayList<>();
+        try {
+            for (int i = 0; i < cpus; i++) {
+                int cpu = buffer.getInt();
+                int pageSize = buffer.getInt();
+                long offset = buffer.getLong();
+                long size = buffer.getLong();
+                int pages = buffer.getInt();
+                if (pages < 0 || pages > buffer.remaining() / PAGE_SIZE) {
+                    throw new TraceDatFormatException("Invalid page count " + pages + " in " + file);
+                }
+                long[] timestamps = new long[pages];
+                int[] contentSizes = new int[pages];
+                for (int page = 0; page < pages; page++) {
+                    timestamps[page] = buffer.getLong();
+                    contentSizes[page] = buffer.getInt();
+                }
+                sections.add(new CpuSection(cpu, offset, size, pageSize, timestamps, contentSizes));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new TraceDatFormatException("Truncated CPU section index file: " + file, e);
+        }
+        return sections;
+    }
+
+    /**
+     * Write an index file.
+     *
+     * @param file
+     *            the index file, replaced if it exists
+     * @param sections
+     *            the CPU sections
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void write(Path file, List<CpuSection> sections) throws IOException {
+        int size = HEADER_SIZE;
+        for (CpuSection section : sections) {
+            size += SECTION_HEADER_SIZE + section.getPageCount() * PAGE_SIZE;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putInt(MAJOR).putInt(MINOR).putInt(sections.size());
+        for (CpuSection section : sections) {
+            buffer.putInt(section.getCpu());
+            buffer.putInt(section.getPageSize());
+            buffer.putLong(section.getOffset());
+            buffer.putLong(section.getSize());
+            buffer.putInt(section.getPageCount());
+            for (int page = 0; page < section.getPageCount(); page++) {
+                buffer.putLong(section.getPageTimestamp(page));
+                buffer.putInt(section.getPageContentSize(page));
+            }
+        }
+        buffer.flip();
+        Path parent = file.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+}
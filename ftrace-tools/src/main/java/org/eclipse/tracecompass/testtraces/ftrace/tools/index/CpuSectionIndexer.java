@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.index;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFile;
+
+/**
+ * Builds the CPU section indexes of trace.dat files.
+ *
+ * Used at build time to generate the index of every test trace:
+ *
+ * <pre>
+ * java CpuSectionIndexer &lt;traces root&gt; &lt;output directory&gt;
+ * </pre>
+ *
+ * The index of the file <code>&lt;root&gt;/a/trace.dat</code> is written to
+ * <code>&lt;output&gt;/a/trace.dat.cpus</code>. The invalid test traces, which
+ * cannot be read, are skipped; any other file that cannot be read fails the
+ * indexing.
+ */
+public final class CpuSectionIndexer {
+
+    private static final String DAT_EXTENSION = ".dat";
+
+    /* The paths, relative to the root, of the traces that are known to be invalid */
+    private static final Set<String> INVALID_TRACES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "2.6/trace_invalid.dat",
+            "2.6/trace_injected_header.dat",
+            "2.6/trace_injected_cpu.dat")));
+
+    private CpuSectionIndexer() {
+        // Do nothing, private constructor
+    }
+
+    /**
+     * Index all the trace.dat files of a directory tree.
+     *
+     * @param args
+     *            the root directory of the traces, and the output directory
+     * @throws IOException
+     *             if the tree cannot be walked, a trace that is not known to be
+     *             invalid cannot be read or an index cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CpuSectionIndexer <traces root> <output directory>");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        int files = indexTree(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println("Indexed " + files + " trace.dat files in " + (System.nanoTime() - start) / 1000000 + " ms");
+    }
+
+    /**
+     * Index all the trace.dat files of a directory tree.
+     *
+     * @param root
+     *            the root directory
+     * @param output
+     *            the output directory
+     * @return the number of indexed files
+     * @throws IOException
+     *             if the root does not exist, the tree cannot be walked, a
+     *             trace that is not known to be invalid cannot be read or an
+     *             index cannot be written
+     */
+    public static int indexTree(Path root, Path output) throws IOException {
+        if (!Files.isDirectory(root)) {
+            throw new NoSuchFileException(root.toString(), null, "No traces directory");
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(path -> String.valueOf(path.getFileName()).endsWith(DAT_EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        int count = 0;
+        for (Path file : files) {
+            String relative = root.relativize(file).toString();
+            TraceDatFile traceDat;
+            try {
+                traceDat = TraceDatFile.read(file);
+            } catch (IOException e) {
+                if (!INVALID_TRACES.contains(relative.replace(file.getFileSystem().getSeparator(), "/"))) {
+                    throw e;
+                }
+                System.out.println("Skipping invalid trace " + file + ": " + e.getMessage());
+                continue;
+            }
+            CpuSectionIndex.write(output.resolve(relative + CpuSectionIndex.EXTENSION), traceDat.getCpuSections());
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.mutation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.eclipse.tracecompass.testtraces.common.Mutation;
+import org.eclipse.tracecompass.testtraces.common.MutationKind;
+import org.eclipse.tracecompass.testtraces.common.Mutator;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.CpuSection;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFile;
+
+/**
+ * Generates corrupted variants of a trace.dat file, the way
+ * <code>trace_injected_header.dat</code> and
+ * <code>trace_injected_cpu.dat</code> were made by hand:
+ * <ul>
+ * <li>{@link MutationKind#SECTION_SIZE}: the size of the header page or header
+ * event section, or of a CPU section, set past the end of the file, to zero,
+ * negative or off by one;</li>
+ * <li>{@link MutationKind#TRUNCATED_PAGE}: the file cut in the middle of a
+ * page of a CPU section;</li>
+ * <li>{@link MutationKind#FLIPPED_MAGIC}: one bit of the magic number
+ * flipped;</li>
+ * <li>{@link MutationKind#TIMESTAMP_ORDER}: the timestamp of a page set
+ * before the one of the previous page of the same CPU.</li>
+ * </ul>
+ */
+public final class TraceDatMutator implements Mutator {
+
+    private static final int MAGIC_SIZE = 10;
+
+    private final TraceDatFile fLayout;
+    private final long fFileSize;
+    private final byte[] fMagic;
+    private final long fHeaderPageSize;
+    private final long fHeaderEventSize;
+    private final List<CpuSection> fPagedSections = new ArrayList<>();
+    private final List<CpuSection> fOrderedSections = new ArrayList<>();
+    private final Set<MutationKind> fKinds = EnumSet.of(MutationKind.SECTION_SIZE, MutationKind.FLIPPED_MAGIC);
+
+    /**
+     * Constructor
+     *
+     * @param file
+     *            the trace.dat file
+     * @throws IOException
+     *             if the file cannot be read or is not a valid trace.dat
+     *             file
+     */
+    public TraceDatMutator(Path file) throws IOException {
+        fLayout = TraceDatFile.read(file);
+        fFileSize = Files.size(file);
+        /* The headers up to the size of the header event section */
+        ByteBuffer head = ByteBuffer.allocate((int) fLayout.getHeaderEventSizeOffset() + Long.BYTES).order(fLayout.getByteOrder());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (head.hasRemaining()) {
+                if (channel.read(head) < 0) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+            }
+        }
+        fMagic = Arrays.copyOf(head.array(), MAGIC_SIZE);
+        fHeaderPageSize = head.getLong((int) fLayout.getHeaderPageSizeOffset());
+        fHeaderEventSize = head.getLong((int) fLayout.getHeaderEventSizeOffset());
+        for (CpuSection section : fLayout.getCpuSections()) {
+            if (section.getPageCount() > 0) {
+                fPagedSections.add(section);
+            }
+            if (section.getPageCount() > 1) {
+                fOrderedSections.add(section);
+            }
+        }
+        if (!fPagedSections.isEmpty()) {
+            fKinds.add(MutationKind.TRUNCATED_PAGE);
+        }
+        if (!fOrderedSections.isEmpty()) {
+            fKinds.add(MutationKind.TIMESTAMP_ORDER);
+        }
+    }
+
+    @Override
+    public Set<MutationKind> getKinds() {
+        return Collections.unmodifiableSet(fKinds);
+    }
+
+    @Override
+    public Mutation mutate(MutationKind kind, SplittableRandom random) {
+        if (!fKinds.contains(kind)) {
+            throw new IllegalArgumentException(kind + " does not apply to this file");
+        }
+        switch (kind) {
+        case SECTION_SIZE:
+            return mutateSectionSize(random);
+        case TRUNCATED_PAGE: {
+            CpuSection section = fPagedSections.get(random.nextInt(fPagedSections.size()));
+            int page = random.nextInt(section.getPageCount());
+            long start = section.getPageOffset(page);
+            long end = Math.min(start + section.getPageSize(), fFileSize);
+            long size = start + 1 + random.nextLong(Math.max(1, end - start - 1));
+            return new Mutation(kind, "CPU " + section.getCpu() + " page " + page + " cut at " + size).withSize(size);
+        }
+        case FLIPPED_MAGIC: {
+            int bit = random.nextInt(MAGIC_SIZE * Byte.SIZE);
+            byte[] bytes = { (byte) (fMagic[bit / Byte.SIZE] ^ 1 << bit % Byte.SIZE) };
+            return new Mutation(kind, "magic bit " + bit).withPatch(bit / Byte.SIZE, bytes);
+        }
+        case TIMESTAMP_ORDER: {
+            CpuSection section = fOrderedSections.get(random.nextInt(fOrderedSections.size()));
+            int page = 1 + random.nextInt(section.getPageCount() - 1);
+            long timestamp = section.getPageTimestamp(page - 1) - 1 - random.nextInt(1000);
+            return new Mutation(kind, "CPU " + section.getCpu() + " page " + page + " timestamp " + timestamp)
+                    .withPatch(section.getPageOffset(page) + fLayout.getPageTimestampOffset(), toBytes(timestamp));
+        }
+        default:
+            throw new IllegalArgumentException(kind.toString());
+        }
+    }
+
+    private Mutation mutateSectionSize(SplittableRandom random) {
+        List<CpuSection> sections = fLayout.getCpuSections();
+        int field = random.nextInt(2 + sections.size());
+        String name;
+        long fieldOffset;
+        long size;
+        long end;
+        if (field == 0) {
+            name = "header page";
+            fieldOffset = fLayout.getHeaderPageSizeOffset();
+            size = fHeaderPageSize;
+            end = fieldOffset + Long.BYTES;
+        } else if (field == 1) {
+            name = "header event";
+            fieldOffset = fLayout.getHeaderEventSizeOffset();
+            size = fHeaderEventSize;
+            end = fieldOffset + Long.BYTES;
+        } else {
+            CpuSection section = sections.get(field - 2);
+            name = "CPU " + section.getCpu();
+            fieldOffset = fLayout.getCpuTableOffset() + 16L * section.getCpu() + Long.BYTES;
+            size = section.getSize();
+            end = section.getOffset();
+        }
+        long value;
+        switch (random.nextInt(4)) {
+        case 0:
+            /* Past the end of the file */
+            value = fFileSize - end + 1 + random.nextLong(1L << 32);
+            break;
+        case 1:
+            value = 0;
+            break;
+        case 2:
+            value = -1 - random.nextLong(Long.MAX_VALUE);
+            break;
+        default:
+            value = random.nextBoolean() ? size + 1 : size - 1;
+            break;
+        }
+        return new Mutation(MutationKind.SECTION_SIZE, name + " section size " + value).withPatch(fieldOffset, toBytes(value));
+    }
+
+    private byte[] toBytes(long value) {
+        return ByteBuffer.allocate(Long.BYTES).order(fLayout.getByteOrder()).putLong(value).array();
+    }
+}
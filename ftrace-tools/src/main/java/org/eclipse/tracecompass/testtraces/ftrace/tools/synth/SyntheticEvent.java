@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.synth;
+
+/**
+ * The event formats a {@link TraceDatGenerator} can write, as a 64-bit
+ * Linux 5.2 kernel describes them. They cover fixed-size records that fit in
+ * the compressed ring buffer event header, a dynamic array
+ * (<code>__data_loc</code>) and records too large for it.
+ */
+public enum SyntheticEvent {
+
+    /** sched:sched_switch, 64 bytes */
+    SCHED_SWITCH("sched", "sched_switch", 316, ""
+            + "\tfield:char prev_comm[16];\toffset:8;\tsize:16;\tsigned:1;\n"
+            + "\tfield:pid_t prev_pid;\toffset:24;\tsize:4;\tsigned:1;\n"
+            + "\tfield:int prev_prio;\toffset:28;\tsize:4;\tsigned:1;\n"
+            + "\tfield:long prev_state;\toffset:32;\tsize:8;\tsigned:1;\n"
+            + "\tfield:char next_comm[16];\toffset:40;\tsize:16;\tsigned:1;\n"
+            + "\tfield:pid_t next_pid;\toffset:56;\tsize:4;\tsigned:1;\n"
+            + "\tfield:int next_prio;\toffset:60;\tsize:4;\tsigned:1;\n",
+            "\"prev_comm=%s prev_pid=%d prev_prio=%d prev_state=%ld ==> next_comm=%s next_pid=%d next_prio=%d\", "
+                    + "REC->prev_comm, REC->prev_pid, REC->prev_prio, REC->prev_state, REC->next_comm, REC->next_pid, REC->next_prio"),
+
+    /** sched:sched_wakeup, 40 bytes */
+    SCHED_WAKEUP("sched", "sched_wakeup", 318, ""
+            + "\tfield:char comm[16];\toffset:8;\tsize:16;\tsigned:1;\n"
+            + "\tfield:pid_t pid;\toffset:24;\tsize:4;\tsigned:1;\n"
+            + "\tfield:int prio;\toffset:28;\tsize:4;\tsigned:1;\n"
+            + "\tfield:int success;\toffset:32;\tsize:4;\tsigned:1;\n"
+            + "\tfield:int target_cpu;\toffset:36;\tsize:4;\tsigned:1;\n",
+            "\"comm=%s pid=%d prio=%d target_cpu=%03d\", REC->comm, REC->pid, REC->prio, REC->target_cpu"),
+
+    /** raw_syscalls:sys_enter, 64 bytes */
+    SYS_ENTER("raw_syscalls", "sys_enter", 21, ""
+            + "\tfield:long id;\toffset:8;\tsize:8;\tsigned:1;\n"
+            + "\tfield:unsigned long args[6];\toffset:16;\tsize:48;\tsigned:0;\n",
+            "\"NR %ld (%lx, %lx, %lx, %lx, %lx, %lx)\", REC->id, REC->args[0], REC->args[1], REC->args[2], REC->args[3], "
+                    + "REC->args[4], REC->args[5]"),
+
+    /** irq:irq_handler_entry, 16 bytes and the name of the handler */
+    IRQ_HANDLER_ENTRY("irq", "irq_handler_entry", 133, ""
+            + "\tfield:int irq;\toffset:8;\tsize:4;\tsigned:1;\n"
+            + "\tfield:__data_loc char[] name;\toffset:12;\tsize:4;\tsigned:1;\n",
+            "\"irq=%d name=%s\", REC->irq, __get_str(name)"),
+
+    /**
+     * ftrace:print, 16 bytes and a string of up to 255 characters, often too
+     * large for the compressed event header
+     */
+    PRINT(null, "print", 5, ""
+            + "\tfield:unsigned long ip;\toffset:8;\tsize:8;\tsigned:0;\n"
+            + "\tfield:char buf[];\toffset:16;\tsize:0;\tsigned:1;\n",
+            "\"%ps: %s\", (void *)REC->ip, REC->buf");
+
+    private static final String COMMON_FIELDS = ""
+            + "\tfield:unsigned short common_type;\toffset:0;\tsize:2;\tsigned:0;\n"
+            + "\tfield:unsigned char common_flags;\toffset:2;\tsize:1;\tsigned:0;\n"
+            + "\tfield:unsigned char common_preempt_count;\toffset:3;\tsize:1;\tsigned:0;\n"
+            + "\tfield:int common_pid;\toffset:4;\tsize:4;\tsigned:1;\n";
+
+    private final String fSystem;
+    private final String fName;
+    private final int fId;
+    private final String fFields;
+    private final String fPrintFormat;
+
+    private SyntheticEvent(String system, String name, int id, String fields, String printFormat) {
+        fSystem = system;
+        fName = name;
+        fId = id;
+        fFields = fields;
+        fPrintFormat = printFormat;
+    }
+
+    /**
+     * @return the event system, null for the ftrace events
+     */
+    public String getSystem() {
+        return fSystem;
+    }
+
+    /**
+     * @return the event name
+     */
+    public String getName() {
+        return fName;
+    }
+
+    /**
+     * @return the event id, the <code>common_type</code> of its records
+     */
+    public int getId() {
+        return fId;
+    }
+
+    /**
+     * @return the format file of the event, as in
+     *         <code>/sys/kernel/tracing/events/&lt;system&gt;/&lt;name&gt;/format</code>
+     */
+    public String getFormat() {
+        return "name: " + fName + "\nID: " + fId + "\nformat:\n" + COMMON_FIELDS + '\n' + fFields + "\nprint fmt: " + fPrintFormat + '\n';
+    }
+}
@@ -0,0 +1,589 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.synth;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFile;
+
+/**
+ * Writes synthetic trace-cmd trace.dat files, version 6, of any number of
+ * CPUs and events, for example to load test per-CPU parallel parsing on
+ * files as large as the captures of hosts with hundreds of CPUs.
+ *
+ * Every CPU gets the same number of events, which cycle through the event
+ * formats in proportion to their weights in the mix, so the number of
+ * events of each format is known before the file is written. The event
+ * <code>k</code> of CPU <code>c</code> is at
+ * <code>{@value #START_TIMESTAMP} + k * interval + c</code> nanoseconds. The
+ * field values are random, from the seed.
+ *
+ * The file is written CPU section by CPU section, one page at a time, so the
+ * memory used does not depend on the size of the file. Records are encoded
+ * as the kernel ring buffer does: with the size in the event header when it
+ * fits, or in the first word of the record otherwise, and with a time extend
+ * record before an event more than 2^27 ns after the previous one.
+ */
+public final class TraceDatGenerator {
+
+    /** Version of the generated files, part of their cache key */
+    public static final int VERSION = 1;
+
+    /** The timestamp of the first event of CPU 0, in nanoseconds */
+    public static final long START_TIMESTAMP = 1_000_000_000_000L;
+
+    /** The largest number of CPUs */
+    public static final int MAX_CPUS = 4096;
+
+    /** The smallest page size, which holds the largest record */
+    public static final int MIN_PAGE_SIZE = 512;
+
+    /** The largest page size */
+    public static final int MAX_PAGE_SIZE = 1 << 20;
+
+    /** The largest total weight of the event mix */
+    public static final int MAX_MIX_WEIGHT = 1 << 16;
+
+    private static final byte[] MAGIC = { 0x17, 0x08, 0x44, 't', 'r', 'a', 'c', 'i', 'n', 'g' };
+    private static final int LONG_SIZE = 8;
+    private static final int PAGE_DATA_OFFSET = 16;
+    private static final int PIDS_PER_CPU = 32;
+    private static final int IRQS = 64;
+    private static final int MAX_PRINT_LENGTH = 255;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    /* Ring buffer event header: 5 bits of type or length, 27 bits of time delta */
+    private static final int TYPE_LEN_BITS = 5;
+    private static final int TIME_DELTA_BITS = 27;
+    private static final long TIME_DELTA_MASK = (1L << TIME_DELTA_BITS) - 1;
+    private static final int TYPE_TIME_EXTEND = 30;
+    private static final int MAX_SMALL_DATA = 28 * Integer.BYTES;
+
+    private final int fCpuCount;
+    private final int fPageSize;
+    private final long fEventsPerCpu;
+    private final Map<SyntheticEvent, Integer> fMix;
+    private final long fInterval;
+    private final long fSeed;
+    private final SyntheticEvent[] fCycle;
+
+    /**
+     * Constructor
+     *
+     * @param cpuCount
+     *            the number of CPUs, from 1 to {@value #MAX_CPUS}
+     * @param pageSize
+     *            the size of the ring buffer pages in bytes, a power of 2
+     *            from {@value #MIN_PAGE_SIZE} to {@value #MAX_PAGE_SIZE}
+     * @param eventsPerCpu
+     *            the number of events of each CPU
+     * @param mix
+     *            the weight of each event format, at least one positive, the
+     *            total at most {@value #MAX_MIX_WEIGHT}
+     * @param interval
+     *            the time between two events of a CPU, in nanoseconds
+     * @param seed
+     *            the seed of the field values
+     */
+    public TraceDatGenerator(int cpuCount, int pageSize, long eventsPerCpu, Map<SyntheticEvent, Integer> mix, long interval, long seed) {
+        if (cpuCount < 1 || cpuCount > MAX_CPUS) {
+            throw new IllegalArgumentException("Invalid CPU count " + cpuCount);
+        }
+        if (pageSize < MIN_PAGE_SIZE || pageSize > MAX_PAGE_SIZE || Integer.bitCount(pageSize) != 1) {
+            throw new IllegalArgumentException("Invalid page size " + pageSize);
+        }
+        if (eventsPerCpu < 0 || interval < 1 || eventsPerCpu > 1 && (Long.MAX_VALUE - START_TIMESTAMP - cpuCount) / interval < eventsPerCpu) {
+            throw new IllegalArgumentException("Invalid number of events " + eventsPerCpu + " or interval " + interval);
+        }
+        Map<SyntheticEvent, Integer> weights = new EnumMap<>(SyntheticEvent.class);
+        long total = 0;
+        for (Map.Entry<SyntheticEvent, Integer> entry : mix.entrySet()) {
+            int weight = entry.getValue();
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight of " + entry.getKey());
+            }
+            if (weight > 0) {
+                weights.put(entry.getKey(), weight);
+                total += weight;
+            }
+        }
+        if (total == 0 || total > MAX_MIX_WEIGHT) {
+            throw new IllegalArgumentException("Invalid total weight " + total + " of the event mix");
+        }
+        fCpuCount = cpuCount;
+        fPageSize = pageSize;
+        fEventsPerCpu = eventsPerCpu;
+        fMix = Collections.unmodifiableMap(weights);
+        fInterval = interval;
+        fSeed = seed;
+        fCycle = buildCycle(weights, (int) total);
+    }
+
+    /**
+     * Interleave the formats in proportion to their weights (smooth weighted
+     * round robin), so that any run of events has about the right mix.
+     */
+    private static SyntheticEvent[] buildCycle(Map<SyntheticEvent, Integer> weights, int total) {
+        SyntheticEvent[] events = weights.keySet().toArray(new SyntheticEvent[weights.size()]);
+        int[] current = new int[events.length];
+        SyntheticEvent[] cycle = new SyntheticEvent[total];
+        for (int i = 0; i < total; i++) {
+            int best = 0;
+            for (int j = 0; j < events.length; j++) {
+                current[j] += weights.get(events[j]);
+                if (current[j] > current[best]) {
+                    best = j;
+                }
+            }
+            current[best] -= total;
+            cycle[i] = events[best];
+        }
+        return cycle;
+    }
+
+    /**
+     * Get a mix of all the event formats, with the same weight.
+     *
+     * @return the mix
+     */
+    public static Map<SyntheticEvent, Integer> getUniformMix() {
+        Map<SyntheticEvent, Integer> mix = new EnumMap<>(SyntheticEvent.class);
+        for (SyntheticEvent event : SyntheticEvent.values()) {
+            mix.put(event, 1);
+        }
+        return mix;
+    }
+
+    // ------------------------------------------------------------------------
+    // Expected content
+    // ------------------------------------------------------------------------
+
+    /**
+     * @return the number of CPUs
+     */
+    public int getCpuCount() {
+        return fCpuCount;
+    }
+
+    /**
+     * @return the size of the ring buffer pages, in bytes
+     */
+    public int getPageSize() {
+        return fPageSize;
+    }
+
+    /**
+     * @return the number of events of each CPU
+     */
+    public long getEventsPerCpu() {
+        return fEventsPerCpu;
+    }
+
+    /**
+     * @return the weight of each event format in the mix, only the formats
+     *         with a positive weight
+     */
+    public Map<SyntheticEvent, Integer> getMix() {
+        return fMix;
+    }
+
+    /**
+     * @return the time between two events of a CPU, in nanoseconds
+     */
+    public long getInterval() {
+        return fInterval;
+    }
+
+    /**
+     * @return the seed of the field values
+     */
+    public long getSeed() {
+        return fSeed;
+    }
+
+    /**
+     * @return the number of events of the file, all CPUs
+     */
+    public long getNbEvents() {
+        return fEventsPerCpu * fCpuCount;
+    }
+
+    /**
+     * @param event
+     *            an event format
+     * @return the number of events of that format in the file, all CPUs
+     */
+    public long getNbEvents(SyntheticEvent event) {
+        long cycles = fEventsPerCpu / fCycle.length;
+        int rest = (int) (fEventsPerCpu % fCycle.length);
+        long count = 0;
+        for (int i = 0; i < fCycle.length; i++) {
+            if (fCycle[i] == event) {
+                count += cycles + (i < rest ? 1 : 0);
+            }
+        }
+        return count * fCpuCount;
+    }
+
+    /**
+     * @return the timestamp of the first event, in nanoseconds, or -1 if the
+     *         file has no events
+     */
+    public long getBegin() {
+        return fEventsPerCpu == 0 ? -1 : START_TIMESTAMP;
+    }
+
+    /**
+     * @return the timestamp of the last event, in nanoseconds, or -1 if the
+     *         file has no events
+     */
+    public long getEnd() {
+        return fEventsPerCpu == 0 ? -1 : START_TIMESTAMP + (fEventsPerCpu - 1) * fInterval + fCpuCount - 1;
+    }
+
+    /**
+     * @param cpu
+     *            a CPU
+     * @param index
+     *            the index of an event of that CPU
+     * @return the timestamp of the event, in nanoseconds
+     */
+    public long getTimestamp(int cpu, long index) {
+        return START_TIMESTAMP + index * fInterval + cpu;
+    }
+
+    /**
+     * @param index
+     *            the index of an event of a CPU
+     * @return the format of the event
+     */
+    public SyntheticEvent getEvent(long index) {
+        return fCycle[(int) (index % fCycle.length)];
+    }
+
+    @Override
+    public String toString() {
+        return "TraceDatGenerator [version=" + VERSION + ", cpus=" + fCpuCount + ", pageSize=" + fPageSize + ", eventsPerCpu=" + fEventsPerCpu
+                + ", mix=" + fMix + ", interval=" + fInterval + ", seed=" + fSeed + "]";
+    }
+
+    // ------------------------------------------------------------------------
+    // Writing
+    // ------------------------------------------------------------------------
+
+    /**
+     * Write the file.
+     *
+     * @param target
+     *            the trace.dat file to write, replaced if it exists
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public void generate(Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            byte[] header = writeHeaders();
+            /* The CPU table comes last in the headers, filled in once the sections are written */
+            long tableOffset = header.length - 16L * fCpuCount;
+            long offset = (header.length + fPageSize - 1L) / fPageSize * fPageSize;
+            ByteBuffer head = ByteBuffer.wrap(Arrays.copyOf(header, (int) offset));
+            while (head.hasRemaining()) {
+                channel.write(head);
+            }
+            ByteBuffer table = ByteBuffer.allocate(16 * fCpuCount).order(ByteOrder.LITTLE_ENDIAN);
+            SectionWriter writer = new SectionWriter(channel);
+            for (int cpu = 0; cpu < fCpuCount; cpu++) {
+                long size = writer.writeSection(cpu);
+                table.putLong(offset).putLong(size);
+                offset += size;
+            }
+            table.flip();
+            while (table.hasRemaining()) {
+                channel.write(table, tableOffset + table.position());
+            }
+        }
+    }
+
+    /**
+     * Write the headers, up to and including the CPU table, zeroed.
+     */
+    private byte[] writeHeaders() {
+        HeaderWriter out = new HeaderWriter();
+        out.bytes(MAGIC);
+        out.string(String.valueOf(TraceDatFile.VERSION));
+        out.byteValue(0);
+        out.byteValue(LONG_SIZE);
+        out.intValue(fPageSize);
+
+        out.string("header_page");
+        out.section8("\tfield: u64 timestamp;\toffset:0;\tsize:8;\tsigned:0;\n"
+                + "\tfield: local_t commit;\toffset:8;\tsize:8;\tsigned:1;\n"
+                + "\tfield: int overwrite;\toffset:8;\tsize:1;\tsigned:1;\n"
+                + "\tfield: char data;\toffset:" + PAGE_DATA_OFFSET + ";\tsize:" + (fPageSize - PAGE_DATA_OFFSET) + ";\tsigned:1;\n");
+        out.string("header_event");
+        out.section8("# compressed entry header\n"
+                + "\ttype_len    :    5 bits\n"
+                + "\ttime_delta  :   27 bits\n"
+                + "\tarray       :   32 bits\n"
+                + "\n"
+                + "\tpadding     : type == 29\n"
+                + "\ttime_extend : type == 30\n"
+                + "\ttime_stamp : type == 31\n"
+                + "\tdata max type_len  == 28\n");
+
+        Map<String, List<SyntheticEvent>> systems = new LinkedHashMap<>();
+        List<SyntheticEvent> ftrace = new ArrayList<>();
+        for (SyntheticEvent event : SyntheticEvent.values()) {
+            if (event.getSystem() == null) {
+                ftrace.add(event);
+            } else {
+                systems.computeIfAbsent(event.getSystem(), system -> new ArrayList<>()).add(event);
+            }
+        }
+        out.intValue(ftrace.size());
+        for (SyntheticEvent event : ftrace) {
+            out.section8(event.getFormat());
+        }
+        out.intValue(systems.size());
+        for (Map.Entry<String, List<SyntheticEvent>> system : systems.entrySet()) {
+            out.string(system.getKey());
+            out.intValue(system.getValue().size());
+            for (SyntheticEvent event : system.getValue()) {
+                out.section8(event.getFormat());
+            }
+        }
+        /* No kallsyms nor printk formats */
+        out.intValue(0);
+        out.intValue(0);
+        StringBuilder cmdlines = new StringBuilder();
+        for (int pid = getPid(0, 0); pid < getPid(fCpuCount, 0); pid++) {
+            cmdlines.append(pid).append(' ').append(getComm(pid)).append('\n');
+        }
+        out.section8(cmdlines.toString());
+
+        out.intValue(fCpuCount);
+        out.bytes("options  \0".getBytes(StandardCharsets.US_ASCII));
+        out.shortValue(0);
+        out.bytes("flyrecord\0".getBytes(StandardCharsets.US_ASCII));
+        out.bytes(new byte[16 * fCpuCount]);
+        return out.toByteArray();
+    }
+
+    private static int getPid(int cpu, int index) {
+        return 1000 + cpu * PIDS_PER_CPU + index;
+    }
+
+    private static String getComm(int pid) {
+        return "task-" + pid;
+    }
+
+    /** The headers, little endian */
+    private static final class HeaderWriter extends ByteArrayOutputStream {
+
+        private final ByteBuffer fNumber = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        public void bytes(byte[] bytes) {
+            write(bytes, 0, bytes.length);
+        }
+
+        public void string(String string) {
+            bytes(string.getBytes(StandardCharsets.US_ASCII));
+            write(0);
+        }
+
+        public void section8(String text) {
+            byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+            longValue(bytes.length);
+            bytes(bytes);
+        }
+
+        public void byteValue(int value) {
+            write(value);
+        }
+
+        public void shortValue(int value) {
+            fNumber.clear();
+            fNumber.putShort((short) value);
+            write(fNumber.array(), 0, Short.BYTES);
+        }
+
+        public void intValue(int value) {
+            fNumber.clear();
+            fNumber.putInt(value);
+            write(fNumber.array(), 0, Integer.BYTES);
+        }
+
+        public void longValue(long value) {
+            fNumber.clear();
+            fNumber.putLong(value);
+            write(fNumber.array(), 0, Long.BYTES);
+        }
+    }
+
+    /**
+     * Writes the pages of the CPU sections, through a buffer of whole pages.
+     */
+    private final class SectionWriter {
+
+        private final FileChannel fChannel;
+        private final ByteBuffer fBuffer;
+        private final byte[] fPage = new byte[fPageSize];
+        private final ByteBuffer fPageBuffer = ByteBuffer.wrap(fPage).order(ByteOrder.LITTLE_ENDIAN);
+        private final ByteBuffer fRecord = ByteBuffer.allocate(MIN_PAGE_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private final byte[][] fComms;
+        private final byte[][] fIrqNames = new byte[IRQS][];
+        private final byte[] fPrint = new byte[MAX_PRINT_LENGTH];
+
+        public SectionWriter(FileChannel channel) {
+            fChannel = channel;
+            fBuffer = ByteBuffer.allocateDirect(Math.max(WRITE_BUFFER_SIZE / fPageSize, 1) * fPageSize);
+            fComms = new byte[fCpuCount * PIDS_PER_CPU][];
+            for (int i = 0; i < fComms.length; i++) {
+                fComms[i] = Arrays.copyOf(getComm(getPid(0, i)).getBytes(StandardCharsets.US_ASCII), 16);
+            }
+            for (int irq = 0; irq < IRQS; irq++) {
+                fIrqNames[irq] = ("irq-handler-" + irq + '\0').getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+
+        /**
+         * Write the section of a CPU.
+         *
+         * @return the size of the section, in bytes
+         */
+        public long writeSection(int cpu) throws IOException {
+            SplittableRandom random = new SplittableRandom(fSeed + cpu * 0x9E3779B97F4A7C15L);
+            ByteBuffer page = fPageBuffer;
+            ByteBuffer record = fRecord;
+            int capacity = fPageSize - PAGE_DATA_OFFSET;
+            long pages = 0;
+            int used = 0;
+            long last = 0;
+            for (long index = 0; index < fEventsPerCpu; index++) {
+                long timestamp = getTimestamp(cpu, index);
+                record.clear();
+                writePayload(record, getEvent(index), cpu, random);
+                int padded = (record.position() + 3) & ~3;
+                int size = Integer.BYTES + (padded > MAX_SMALL_DATA ? Integer.BYTES : 0) + padded;
+                long delta = timestamp - last;
+                int extend = used > 0 && delta > TIME_DELTA_MASK ? 2 * Integer.BYTES : 0;
+                if (used > 0 && used + extend + size > capacity) {
+                    flushPage(used);
+                    pages++;
+                    used = 0;
+                }
+                if (used == 0) {
+                    page.putLong(0, timestamp);
+                    delta = 0;
+                    extend = 0;
+                }
+                page.position(PAGE_DATA_OFFSET + used);
+                if (extend > 0) {
+                    page.putInt((int) ((delta & TIME_DELTA_MASK) << TYPE_LEN_BITS) | TYPE_TIME_EXTEND);
+                    page.putInt((int) (delta >>> TIME_DELTA_BITS));
+                    delta = 0;
+                }
+                if (padded > MAX_SMALL_DATA) {
+                    page.putInt((int) (delta << TYPE_LEN_BITS));
+                    page.putInt(padded + Integer.BYTES);
+                } else {
+                    page.putInt((int) (delta << TYPE_LEN_BITS) | padded / Integer.BYTES);
+                }
+                page.put(record.array(), 0, record.position());
+                for (int i = record.position(); i < padded; i++) {
+                    page.put((byte) 0);
+                }
+                used += extend + size;
+                last = timestamp;
+            }
+            if (used > 0) {
+                flushPage(used);
+                pages++;
+            }
+            flush();
+            return pages * fPageSize;
+        }
+
+        private void writePayload(ByteBuffer record, SyntheticEvent event, int cpu, SplittableRandom random) {
+            int pidIndex = random.nextInt(PIDS_PER_CPU);
+            int pid = getPid(cpu, pidIndex);
+            record.putShort((short) event.getId());
+            record.put((byte) 0);
+            record.put((byte) 0);
+            record.putInt(pid);
+            switch (event) {
+            case SCHED_SWITCH:
+                int next = getPid(cpu, random.nextInt(PIDS_PER_CPU));
+                record.put(fComms[pid - getPid(0, 0)]).putInt(pid).putInt(120).putLong(random.nextInt(2));
+                record.put(fComms[next - getPid(0, 0)]).putInt(next).putInt(120);
+                break;
+            case SCHED_WAKEUP:
+                int woken = getPid(cpu, random.nextInt(PIDS_PER_CPU));
+                record.put(fComms[woken - getPid(0, 0)]).putInt(woken).putInt(120).putInt(1).putInt(cpu);
+                break;
+            case SYS_ENTER:
+                record.putLong(random.nextInt(335));
+                for (int i = 0; i < 6; i++) {
+                    record.putLong(random.nextLong());
+                }
+                break;
+            case IRQ_HANDLER_ENTRY:
+                int irq = random.nextInt(IRQS);
+                byte[] name = fIrqNames[irq];
+                /* __data_loc: length in the high 16 bits, offset in the low 16 bits */
+                record.putInt(irq).putInt((name.length << 16) | 16).put(name);
+                break;
+            case PRINT:
+                int length = 1 + random.nextInt(MAX_PRINT_LENGTH);
+                for (int i = 0; i < length; i++) {
+                    fPrint[i] = (byte) ('a' + random.nextInt(26));
+                }
+                record.putLong(0xffffffff81000000L + random.nextInt(1 << 20)).put(fPrint, 0, length).put((byte) 0);
+                break;
+            default:
+                throw new IllegalStateException("Unknown event " + event);
+            }
+        }
+
+        private void flushPage(int used) throws IOException {
+            fPageBuffer.putLong(Long.BYTES, used);
+            Arrays.fill(fPage, PAGE_DATA_OFFSET + used, fPageSize, (byte) 0);
+            if (!fBuffer.hasRemaining()) {
+                flush();
+            }
+            fBuffer.put(fPage);
+        }
+
+        private void flush() throws IOException {
+            fBuffer.flip();
+            while (fBuffer.hasRemaining()) {
+                fChannel.write(fBuffer);
+            }
+            fBuffer.clear();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.dat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link TraceDatFile}
+ */
+public class TraceDatFileTest {
+
+    private static final int PAGE_SIZE = 4096;
+    private static final String HEADER_PAGE_FORMAT = "\tfield: u64 timestamp;\toffset:0;\tsize:8;\tsigned:0;\n"
+            + "\tfield: local_t commit;\toffset:8;\tsize:8;\tsigned:1;\n"
+            + "\tfield: int overwrite;\toffset:8;\tsize:1;\tsigned:1;\n"
+            + "\tfield: char data;\toffset:16;\tsize:4080;\tsigned:1;\n";
+
+    /** Temporary directory for the trace files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    /**
+     * Create a trace.dat file, version 6, with empty formats, 8-byte longs and
+     * the given number of pages per CPU. The timestamp of page p of CPU c is
+     * 1000 * c + p, its content size is 100 + p.
+     *
+     * @param order
+     *            the byte order of the file
+     * @param pages
+     *            the number of pages of each CPU
+     * @param cpuSizeDelta
+     *            what to add to the size of the section of CPU 0
+     * @return the content of the file
+     * @throws IOException
+     *             if the content cannot be written
+     */
+    public static byte[] createTraceDat(ByteOrder order, int[] pages, long cpuSizeDelta) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(new byte[] { 0x17, 0x08, 0x44 });
+        out.write("tracing6\0".getBytes(StandardCharsets.US_ASCII));
+        out.write(order == ByteOrder.LITTLE_ENDIAN ? 0 : 1);
+        out.write(8);
+        out.write(allocate(order, 4).putInt(PAGE_SIZE).array());
+        out.write("header_page\0".getBytes(StandardCharsets.US_ASCII));
+        out.write(allocate(order, 8).putLong(HEADER_PAGE_FORMAT.length()).array());
+        out.write(HEADER_PAGE_FORMAT.getBytes(StandardCharsets.US_ASCII));
+        out.write("header_event\0".getBytes(StandardCharsets.US_ASCII));
+        out.write(allocate(order, 8).putLong(3).array());
+        out.write("abc".getBytes(StandardCharsets.US_ASCII));
+        /* One ftrace format, one system with one event, kallsyms, printk, cmdlines */
+        out.write(allocate(order, 4 + 8 + 2 + 4).putInt(1).putLong(2).put((byte) 'f').put((byte) 'f').putInt(1).array());
+        out.write("sched\0".getBytes(StandardCharsets.US_ASCII));
+        out.write(allocate(order, 4 + 8 + 1).putInt(1).putLong(1).put((byte) 'e').array());
+        out.write(allocate(order, 4 + 4 + 8).putInt(0).putInt(0).putLong(0).array());
+        out.write(allocate(order, 4).putInt(pages.length).array());
+        out.write("options  \0".getBytes(StandardCharsets.US_ASCII));
+        out.write(allocate(order, 2 + 4 + 4 + 2).putShort((short) 3).putInt(4).putInt(42).putShort((short) 0).array());
+        out.write("flyrecord\0".getBytes(StandardCharsets.US_ASCII));
+        long offset = out.size() + 16L * pages.length;
+        offset = (offset + PAGE_SIZE - 1) / PAGE_SIZE * PAGE_SIZE;
+        int padding = (int) (offset - out.size() - 16L * pages.length);
+        for (int cpu = 0; cpu < pages.length; cpu++) {
+            long size = (long) pages[cpu] * PAGE_SIZE;
+            out.write(allocate(order, 16).putLong(offset).putLong(size + (cpu == 0 ? cpuSizeDelta : 0)).array());
+            offset += size;
+        }
+        out.write(new byte[padding]);
+        for (int cpu = 0; cpu < pages.length; cpu++) {
+            for (int page = 0; page < pages[cpu]; page++) {
+                out.write(allocate(order, PAGE_SIZE).putLong(1000L * cpu + page).putLong(100 + page | 1L << 30).array());
+            }
+        }
+        return out.toByteArray();
+    }
+
+    private Path writeTraceDat(ByteOrder order, int[] pages, long cpuSizeDelta) throws IOException {
+        Path file = fTemporaryFolder.newFile().toPath();
+        Files.write(file, createTraceDat(order, pages, cpuSizeDelta));
+        return file;
+    }
+
+    private static ByteBuffer allocate(ByteOrder order, int size) {
+        return ByteBuffer.allocate(size).order(order);
+    }
+
+    /**
+     * Test reading the CPU sections of a little endian file.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testCpuSections() throws IOException {
+        testCpuSections(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Test reading the CPU sections of a big endian file.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testCpuSectionsBigEndian() throws IOException {
+        testCpuSections(ByteOrder.BIG_ENDIAN);
+    }
+
+    private void testCpuSections(ByteOrder order) throws IOException {
+        Path file = writeTraceDat(order, new int[] { 3, 0, 2 }, 0);
+        TraceDatFile traceDat = TraceDatFile.read(file);
+        assertEquals(order, traceDat.getByteOrder());
+        assertEquals(8, traceDat.getLongSize());
+        assertEquals(PAGE_SIZE, traceDat.getPageSize());
+        assertEquals(3, traceDat.getCpuCount());
+        assertEquals(16, traceDat.getPageDataOffset());
+        List<CpuSection> sections = traceDat.getCpuSections();
+        assertEquals(3, sections.size());
+        assertEquals(PAGE_SIZE, sections.get(0).getOffset());
+        assertEquals(0, sections.get(1).getPageCount());
+        CpuSection last = sections.get(2);
+        assertEquals(2, last.getCpu());
+        assertEquals(PAGE_SIZE * 4, last.getOffset());
+        assertEquals(PAGE_SIZE * 5, last.getPageOffset(1));
+        assertEquals(2001, last.getPageTimestamp(1));
+        assertEquals(101, last.getPageContentSize(1));
+        assertEquals(Files.size(file), last.getOffset() + last.getSize());
+        for (CpuSection section : sections) {
+            assertEquals(0, section.getOffset() % PAGE_SIZE);
+        }
+    }
+
+    /**
+     * Test that a CPU section past the end of the file is rejected.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testBadCpuSectionSize() throws IOException {
+        Path file = writeTraceDat(ByteOrder.LITTLE_ENDIAN, new int[] { 1, 1 }, 1L << 40);
+        try {
+            TraceDatFile.read(file);
+            fail();
+        } catch (TraceDatFormatException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("CPU 0"));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.index;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.CpuSection;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFormatException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link CpuSectionIndex}
+ */
+public class CpuSectionIndexTest {
+
+    /** Temporary directory for the index files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test that CPU sections survive a write and a read.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testReadWrite() throws IOException {
+        List<CpuSection> sections = Arrays.asList(
+                new CpuSection(0, 4096, 8192, 4096, new long[] { 10, -20 }, new int[] { 4000, 0 }),
+                new CpuSection(1, 12288, 0, 4096, new long[0], new int[0]),
+                new CpuSection(3, 12288, 4096, 4096, new long[] { Long.MAX_VALUE }, new int[] { 4080 }));
+        Path file = fTemporaryFolder.getRoot().toPath().resolve("2.6").resolve("trace.dat" + CpuSectionIndex.EXTENSION);
+        CpuSectionIndex.write(file, sections);
+        assertEquals(sections, CpuSectionIndex.read(file));
+    }
+
+    /**
+     * Test that a truncated index file is rejected.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testTruncated() throws IOException {
+        Path file = fTemporaryFolder.newFile().toPath();
+        CpuSectionIndex.write(file, Arrays.asList(new CpuSection(0, 4096, 8192, 4096, new long[] { 10, 20 }, new int[] { 1, 2 })));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        try {
+            CpuSectionIndex.read(file);
+            fail();
+        } catch (TraceDatFormatException e) {
+            // Expected
+        }
+    }
+}
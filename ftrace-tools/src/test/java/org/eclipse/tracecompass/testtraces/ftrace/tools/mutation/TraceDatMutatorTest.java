@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.mutation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.eclipse.tracecompass.testtraces.common.Mutation;
+import org.eclipse.tracecompass.testtraces.common.MutationKind;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.CpuSection;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFile;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFileTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link TraceDatMutator}
+ */
+public class TraceDatMutatorTest {
+
+    private static final long SEED = 0x5EED;
+    private static final int COUNT = 2000;
+
+    /** Temporary directory for the trace files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    /**
+     * Read many variants of a file: each one must be either read or rejected
+     * with an {@link IOException}, never crash the reader, and corrupted
+     * magic numbers and truncated pages must always be rejected.
+     *
+     * @throws IOException
+     *             if the test fails
+     */
+    @Test
+    public void testSweep() throws IOException {
+        Path file = fTemporaryFolder.newFile().toPath();
+        Files.write(file, TraceDatFileTest.createTraceDat(ByteOrder.LITTLE_ENDIAN, new int[] { 3, 1, 4 }, 0));
+        TraceDatMutator mutator = new TraceDatMutator(file);
+        assertEquals(4, mutator.getKinds().size());
+        Map<MutationKind, Integer> rejected = new EnumMap<>(MutationKind.class);
+        Map<MutationKind, Integer> total = new EnumMap<>(MutationKind.class);
+        for (int i = 0; i < COUNT; i++) {
+            Mutation mutation = mutator.mutate(SEED, i);
+            total.merge(mutation.getKind(), 1, Integer::sum);
+            try (SeekableByteChannel channel = mutation.open(file)) {
+                TraceDatFile traceDat = TraceDatFile.read(channel, mutation.toString());
+                if (mutation.getKind() == MutationKind.TIMESTAMP_ORDER) {
+                    assertTrue(mutation.toString(), hasUnorderedPages(traceDat));
+                }
+            } catch (IOException e) {
+                rejected.merge(mutation.getKind(), 1, Integer::sum);
+            } catch (RuntimeException e) {
+                fail("Variant " + i + ", " + mutation + ": " + e);
+            }
+        }
+        assertEquals(total.get(MutationKind.FLIPPED_MAGIC), rejected.get(MutationKind.FLIPPED_MAGIC));
+        assertEquals(total.get(MutationKind.TRUNCATED_PAGE), rejected.get(MutationKind.TRUNCATED_PAGE));
+        assertEquals(null, rejected.get(MutationKind.TIMESTAMP_ORDER));
+        assertTrue(rejected.get(MutationKind.SECTION_SIZE) > total.get(MutationKind.SECTION_SIZE) / 2);
+    }
+
+    private static boolean hasUnorderedPages(TraceDatFile traceDat) {
+        for (CpuSection section : traceDat.getCpuSections()) {
+            for (int page = 1; page < section.getPageCount(); page++) {
+                if (section.getPageTimestamp(page) < section.getPageTimestamp(page - 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
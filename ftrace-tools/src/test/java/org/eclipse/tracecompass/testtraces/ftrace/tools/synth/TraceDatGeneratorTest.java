@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace.tools.synth;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.CpuSection;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests for {@link TraceDatGenerator}
+ */
+public class TraceDatGeneratorTest {
+
+    /** Temporary directory for the trace files */
+    @Rule
+    public TemporaryFolder fTemporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test that the file is a valid trace.dat file whose records decode to
+     * the expected events, timestamps and counts, with every record size
+     * encoding.
+     *
+     * @throws IOException
+     *             if the file cannot be written or read
+     */
+    @Test
+    public void testGenerate() throws IOException {
+        Map<SyntheticEvent, Integer> mix = new EnumMap<>(SyntheticEvent.class);
+        mix.put(SyntheticEvent.SCHED_SWITCH, 5);
+        mix.put(SyntheticEvent.SYS_ENTER, 3);
+        mix.put(SyntheticEvent.IRQ_HANDLER_ENTRY, 1);
+        mix.put(SyntheticEvent.PRINT, 1);
+        mix.put(SyntheticEvent.SCHED_WAKEUP, 0);
+        TraceDatGenerator generator = new TraceDatGenerator(7, 1024, 10003, mix, 1000, 18);
+        assertEquals(70021, generator.getNbEvents());
+        assertEquals(7 * (1000 * 5 + 2), generator.getNbEvents(SyntheticEvent.SCHED_SWITCH));
+        assertEquals(0, generator.getNbEvents(SyntheticEvent.SCHED_WAKEUP));
+        long sum = 0;
+        for (SyntheticEvent event : SyntheticEvent.values()) {
+            sum += generator.getNbEvents(event);
+        }
+        assertEquals(generator.getNbEvents(), sum);
+        checkFile(generator);
+    }
+
+    /**
+     * Test events further apart than the time delta of the event header can
+     * hold, and CPUs without events.
+     *
+     * @throws IOException
+     *             if the file cannot be written or read
+     */
+    @Test
+    public void testTimeExtend() throws IOException {
+        checkFile(new TraceDatGenerator(3, 4096, 500, TraceDatGenerator.getUniformMix(), 200_000_000L, 1));
+        TraceDatGenerator empty = new TraceDatGenerator(2, 512, 0, TraceDatGenerator.getUniformMix(), 1, 1);
+        assertEquals(-1, empty.getBegin());
+        checkFile(empty);
+    }
+
+    /**
+     * Test that invalid parameters are rejected.
+     */
+    @Test
+    public void testInvalid() {
+        Map<SyntheticEvent, Integer> none = new EnumMap<>(SyntheticEvent.class);
+        none.put(SyntheticEvent.PRINT, 0);
+        Object[][] invalid = {
+                { 0, 4096, 1L, TraceDatGenerator.getUniformMix(), 1L },
+                { 1, 4000, 1L, TraceDatGenerator.getUniformMix(), 1L },
+                { 1, 256, 1L, TraceDatGenerator.getUniformMix(), 1L },
+                { 1, 4096, -1L, TraceDatGenerator.getUniformMix(), 1L },
+                { 1, 4096, 1L, none, 1L },
+                { 1, 4096, 2L, TraceDatGenerator.getUniformMix(), Long.MAX_VALUE },
+        };
+        for (Object[] parameters : invalid) {
+            try {
+                @SuppressWarnings("unchecked")
+                Map<SyntheticEvent, Integer> mix = (Map<SyntheticEvent, Integer>) parameters[3];
+                new TraceDatGenerator((Integer) parameters[0], (Integer) parameters[1], (Long) parameters[2], mix, (Long) parameters[4], 0);
+                fail("Accepted " + Arrays.toString(parameters));
+            } catch (IllegalArgumentException e) {
+                // Expected
+            }
+        }
+    }
+
+    /**
+     * Write the file, read its layout and decode every record of every page,
+     * the way the kernel ring buffer reader does.
+     */
+    private void checkFile(TraceDatGenerator generator) throws IOException {
+        Path file = fTemporaryFolder.newFile().toPath();
+        generator.generate(file);
+        TraceDatFile layout = TraceDatFile.read(file);
+        assertEquals(generator.getCpuCount(), layout.getCpuCount());
+        assertEquals(generator.getPageSize(), layout.getPageSize());
+        assertEquals(16, layout.getPageDataOffset());
+        List<CpuSection> sections = layout.getCpuSections();
+        long[] counts = new long[SyntheticEvent.values().length];
+        long begin = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        long lastOffset = 0;
+        try (FileChannel channel = FileChannel.open(file)) {
+            for (CpuSection section : sections) {
+                int cpu = section.getCpu();
+                assertEquals(0, section.getOffset() % generator.getPageSize());
+                assertTrue(section.getOffset() >= lastOffset);
+                lastOffset = section.getOffset() + section.getSize();
+                long index = 0;
+                ByteBuffer page = ByteBuffer.allocate(generator.getPageSize()).order(ByteOrder.LITTLE_ENDIAN);
+                for (int p = 0; p < section.getPageCount(); p++) {
+                    page.clear();
+                    channel.read(page, section.getPageOffset(p));
+                    long timestamp = section.getPageTimestamp(p);
+                    int contentEnd = 16 + section.getPageContentSize(p);
+                    page.position(16);
+                    while (page.position() < contentEnd) {
+                        int header = page.getInt();
+                        int typeLen = header & 0x1f;
+                        timestamp += header >>> 5;
+                        int length;
+                        if (typeLen == 30) {
+                            timestamp += (page.getInt() & 0xffffffffL) << 27;
+                            continue;
+                        } else if (typeLen == 0) {
+                            length = page.getInt() - 4;
+                        } else {
+                            assertTrue(typeLen <= 28);
+                            length = typeLen * 4;
+                        }
+                        int start = page.position();
+                        SyntheticEvent expected = generator.getEvent(index);
+                        assertEquals(expected.getId(), page.getShort(start) & 0xffff);
+                        assertEquals(generator.getTimestamp(cpu, index), timestamp);
+                        if (expected == SyntheticEvent.PRINT) {
+                            assertTrue(findNull(page, start + 16) < start + length);
+                        }
+                        counts[expected.ordinal()]++;
+                        begin = Math.min(begin, timestamp);
+                        end = Math.max(end, timestamp);
+                        index++;
+                        page.position(start + length);
+                    }
+                    assertEquals(contentEnd, page.position());
+                }
+                assertEquals(generator.getEventsPerCpu(), index);
+            }
+        }
+        assertEquals(Files.size(file), lastOffset);
+        for (SyntheticEvent event : SyntheticEvent.values()) {
+            assertEquals(event.name(), generator.getNbEvents(event), counts[event.ordinal()]);
+        }
+        if (generator.getNbEvents() > 0) {
+            assertArrayEquals(new long[] { generator.getBegin(), generator.getEnd() }, new long[] { begin, end });
+        }
+    }
+
+    private static int findNull(ByteBuffer buffer, int from) {
+        int i = from;
+        while (buffer.get(i) != 0) {
+            i++;
+        }
+        return i;
+    }
+}
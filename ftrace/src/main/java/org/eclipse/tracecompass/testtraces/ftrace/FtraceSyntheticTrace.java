@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tracecompass.testtraces.common.TraceCache;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.CpuSection;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFile;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.synth.SyntheticEvent;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.synth.TraceDatGenerator;
+
+/**
+ * A synthetic Ftrace trace: a trace-cmd trace.dat file, version 6, of any
+ * number of CPUs, page size and number of events, for example to load test
+ * per-CPU parallel parsing with the CPU counts and file sizes of large hosts.
+ * It offers the same information as the {@link FtraceTestTrace} traces, and
+ * the exact number of events of each format.
+ *
+ * The file is generated once, deterministically, in the shared cache (see
+ * {@link TraceCache}), streaming to disk. See {@link TraceDatGenerator} for
+ * the content of the file.
+ */
+public final class FtraceSyntheticTrace {
+
+    private static final String FILE_NAME = "synthetic.dat";
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final TraceDatGenerator fGenerator;
+
+    /**
+     * Constructor
+     *
+     * @param cpuCount
+     *            the number of CPUs, from 1 to
+     *            {@value TraceDatGenerator#MAX_CPUS}
+     * @param pageSize
+     *            the size of the ring buffer pages in bytes, a power of 2
+     *            from {@value TraceDatGenerator#MIN_PAGE_SIZE} to
+     *            {@value TraceDatGenerator#MAX_PAGE_SIZE}
+     * @param eventsPerCpu
+     *            the number of events of each CPU
+     * @param mix
+     *            the weight of each event format, for example
+     *            {@link TraceDatGenerator#getUniformMix()}
+     * @param interval
+     *            the time between two events of a CPU, in nanoseconds
+     * @param seed
+     *            the seed of the field values
+     */
+    public FtraceSyntheticTrace(int cpuCount, int pageSize, long eventsPerCpu, Map<SyntheticEvent, Integer> mix, long interval, long seed) {
+        fGenerator = new TraceDatGenerator(cpuCount, pageSize, eventsPerCpu, mix, interval, seed);
+    }
+
+    /**
+     * Get the trace as a file on the file system, generating it if needed.
+     *
+     * @return the path of the trace.dat file
+     */
+    public Path getTracePath() {
+        try {
+            return TraceCache.getDerivedPath(Collections.emptyList(), FILE_NAME, fGenerator.toString(), fGenerator::generate);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Synthetic trace could not be generated", e);
+        }
+    }
+
+    /**
+     * Get the layout of the per-CPU ring buffer data of the trace, read from
+     * its headers.
+     *
+     * @return the CPU sections, by CPU number
+     */
+    public List<CpuSection> getCpuSections() {
+        try {
+            return TraceDatFile.read(getTracePath()).getCpuSections();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Synthetic trace could not be read", e);
+        }
+    }
+
+    /**
+     * @return the generator of the trace, which tells the format and
+     *         timestamp of every event
+     */
+    public TraceDatGenerator getGenerator() {
+        return fGenerator;
+    }
+
+    /**
+     * @return the number of CPUs
+     */
+    public int getCpuCount() {
+        return fGenerator.getCpuCount();
+    }
+
+    /**
+     * Get the number of events for the trace
+     *
+     * @return the number of events, all CPUs
+     */
+    public long getNbEvents() {
+        return fGenerator.getNbEvents();
+    }
+
+    /**
+     * Get the number of events of a format for the trace
+     *
+     * @param event
+     *            the event format
+     * @return the number of events of that format, all CPUs
+     */
+    public long getNbEvents(SyntheticEvent event) {
+        return fGenerator.getNbEvents(event);
+    }
+
+    /**
+     * Get the duration in seconds of the trace
+     *
+     * @return the duration in seconds, rounded, 0 if the trace has no events
+     */
+    public int getDuration() {
+        return fGenerator.getNbEvents() == 0 ? 0 : (int) Math.round((fGenerator.getEnd() - fGenerator.getBegin()) / NANOS_PER_SECOND);
+    }
+
+    @Override
+    public String toString() {
+        return "FtraceSyntheticTrace [cpus=" + getCpuCount() + ", events=" + getNbEvents() + ", pageSize=" + fGenerator.getPageSize() + "]";
+    }
+}
@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright (c) 2021 Ericsson
+ * Copyright (c) 2021, 2026 Ericsson
  *
  * All rights reserved. This program and the accompanying materials are
  * made available under the terms of the Eclipse Public License 2.0 which
@@ -11,7 +11,22 @@
 
 package org.eclipse.tracecompass.testtraces.ftrace;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URL;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.tracecompass.testtraces.common.FileRegion;
+import org.eclipse.tracecompass.testtraces.common.Mutator;
+import org.eclipse.tracecompass.testtraces.common.TraceCache;
+import org.eclipse.tracecompass.testtraces.common.TraceEvents;
+import org.eclipse.tracecompass.testtraces.common.TraceManifest;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.CpuSection;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.index.CpuSectionIndex;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.mutation.TraceDatMutator;
 
 /**
  * Here is the list of the available test traces for the Ftrace parser.
@@ -111,9 +126,13 @@ public enum FtraceTestTrace {
      */
     TEST_2_6_BAD_CPU_SECTION_SIZE("/2.6/trace_injected_cpu.dat", 2880, 1);
 
+    private static final String CPU_SECTIONS_ROOT = "/cpu-sections";
+
     private final String fTraceName;
     private final int fNbEvent;
     private int fDuration;
+    private volatile boolean fVerified;
+    private volatile List<CpuSection> fCpuSections;
 
     private FtraceTestTrace(String traceName, int nbEvent, int time) {
         fTraceName = traceName;
@@ -122,7 +141,9 @@ public enum FtraceTestTrace {
     }
 
     public URL getTraceURL() {
+        TraceEvents.Resolution event = TraceEvents.beginResolution(name());
         URL url = this.getClass().getResource(fTraceName);
+        event.commit(url);
         if (url == null) {
             /* Project configuration problem? */
             throw new IllegalStateException("Test trace not found");
@@ -130,6 +151,129 @@ public enum FtraceTestTrace {
         return url;
     }
 
+    /**
+     * Get the trace as a file on the file system. Traces packaged in a jar
+     * are extracted once to a shared cache (see {@link TraceCache}) and reused
+     * by later calls and later runs. The first call checks that the trace
+     * files are intact, see {@link #verify()}.
+     *
+     * @return the path of the trace
+     */
+    public Path getTracePath() {
+        Path path;
+        try {
+            path = TraceCache.getPath(getTraceURL());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be extracted", e);
+        }
+        if (!fVerified) {
+            verify(path);
+            fVerified = true;
+        }
+        return path;
+    }
+
+    /**
+     * Get where the bytes of the trace are, without extracting it: in the
+     * jar, where the trace files are stored uncompressed at page-aligned
+     * offsets, or on the file system. The trace can then be memory-mapped in
+     * place with {@link FileRegion#map()}.
+     *
+     * @return the region holding the bytes of the trace
+     */
+    public FileRegion getFileRegion() {
+        try {
+            return TraceCache.getRegion(getTraceURL());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be located", e);
+        }
+    }
+
+    /**
+     * Check that the files of the trace are intact, against the SHA-256
+     * manifest generated at build time (see {@link TraceManifest}). This is
+     * done by {@link #getTracePath()} the first time it is called. Files are
+     * only hashed again when their size or modification time changed since
+     * they were last verified.
+     *
+     * @throws IllegalStateException
+     *             if a file of the trace is missing or modified, or the trace
+     *             has no manifest
+     */
+    public void verify() {
+        try {
+            verify(TraceCache.getPath(getTraceURL()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be extracted", e);
+        }
+    }
+
+    private void verify(Path path) {
+        List<String> problems;
+        try {
+            Map<String, String> entries = TraceManifest.getEntries(getClass(), fTraceName);
+            if (entries.isEmpty()) {
+                throw new IllegalStateException("Test trace manifest not found");
+            }
+            problems = TraceManifest.verify(path, entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be verified", e);
+        }
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Test trace " + fTraceName + " is corrupted: " + String.join(", ", problems));
+        }
+    }
+
+    /**
+     * Get the layout of the per-CPU ring buffer data of the trace, computed at
+     * build time: the offset and size of the section of each CPU in the file,
+     * and the offset, first timestamp and content size of each of its pages.
+     * This allows seeking directly to a CPU or a page, without parsing the
+     * headers of the file.
+     *
+     * @return the CPU sections, by CPU number, empty if the trace could not be
+     *         read
+     */
+    public List<CpuSection> getCpuSections() {
+        List<CpuSection> sections = fCpuSections;
+        if (sections == null) {
+            sections = readCpuSections();
+            fCpuSections = sections;
+        }
+        return sections;
+    }
+
+    private List<CpuSection> readCpuSections() {
+        URL url = this.getClass().getResource(CPU_SECTIONS_ROOT + fTraceName + CpuSectionIndex.EXTENSION);
+        if (url == null) {
+            return Collections.emptyList();
+        }
+        try {
+            return Collections.unmodifiableList(CpuSectionIndex.read(TraceCache.getPath(url)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("CPU sections could not be read", e);
+        }
+    }
+
+    /**
+     * Get a generator of corrupted variants of the trace, like
+     * {@link #TEST_2_6_BAD_HEADER_PAGE_SECTION_SIZE} and
+     * {@link #TEST_2_6_BAD_CPU_SECTION_SIZE} but in any number: bad section
+     * sizes, truncated pages, flipped magic numbers and out of order page
+     * timestamps. Variants are read through an overlay channel over the trace
+     * file (see {@link org.eclipse.tracecompass.testtraces.common.Mutation#open(Path)}),
+     * which is never copied nor modified.
+     *
+     * @return the generator
+     */
+    public Mutator getMutator() {
+        try {
+            return new TraceDatMutator(getTracePath());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Test trace could not be read", e);
+        }
+    }
+
     /**
      * Get the number of events for a trace
      *
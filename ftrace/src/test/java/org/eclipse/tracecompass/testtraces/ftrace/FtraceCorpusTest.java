@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.tracecompass.testtraces.common.CorpusReport;
+import org.eclipse.tracecompass.testtraces.common.CorpusReport.TraceReport;
+import org.eclipse.tracecompass.testtraces.common.CorpusValidator;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.CpuSection;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFile;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.TraceDatFormatException;
+import org.junit.Test;
+
+/**
+ * Validation of the whole Ftrace test trace corpus, all traces in parallel.
+ */
+public class FtraceCorpusTest {
+
+    /** The traces whose headers are invalid on purpose */
+    private static final Set<FtraceTestTrace> INVALID = EnumSet.of(FtraceTestTrace.TEST_2_6_INVALID,
+            FtraceTestTrace.TEST_2_6_BAD_HEADER_PAGE_SECTION_SIZE, FtraceTestTrace.TEST_2_6_BAD_CPU_SECTION_SIZE);
+
+    /**
+     * Test that every trace is present and intact, that the headers of the
+     * valid traces are well-formed and agree with the CPU sections generated
+     * at build time, that the invalid traces are rejected, that the pages
+     * hold events if and only if the trace is documented with events, and
+     * that the documented duration agrees with the page headers. The report,
+     * with the time taken by every trace, is the message of the failure.
+     */
+    @Test
+    public void testCorpus() {
+        CorpusReport report = CorpusValidator.validate(Arrays.asList(FtraceTestTrace.values()), trace -> {
+            Path path = trace.getTracePath();
+            trace.verify();
+            return path;
+        }, FtraceCorpusTest::check);
+        assertEquals(report.toString(), Collections.emptyList(), report.getProblems());
+    }
+
+    private static void check(FtraceTestTrace trace, Path path, TraceReport report) throws IOException {
+        TraceDatFile file;
+        try {
+            /* Checks the magic number, the version and the section sizes */
+            file = TraceDatFile.read(path);
+        } catch (TraceDatFormatException e) {
+            if (INVALID.contains(trace)) {
+                report.addNote("rejected: " + e.getMessage());
+                if (!trace.getCpuSections().isEmpty()) {
+                    report.addProblem("Invalid trace has CPU sections");
+                }
+                return;
+            }
+            throw e;
+        }
+        if (INVALID.contains(trace)) {
+            report.addProblem("Invalid trace was read");
+            return;
+        }
+        List<CpuSection> sections = file.getCpuSections();
+        if (!sections.equals(trace.getCpuSections())) {
+            report.addProblem("CPU sections differ from the ones generated at build time");
+        }
+        long content = 0;
+        long begin = Long.MAX_VALUE;
+        long end = Long.MIN_VALUE;
+        for (CpuSection section : sections) {
+            for (int page = 0; page < section.getPageCount(); page++) {
+                if (section.getPageContentSize(page) > 0) {
+                    content += section.getPageContentSize(page);
+                    begin = Math.min(begin, section.getPageTimestamp(page));
+                    end = Math.max(end, section.getPageTimestamp(page));
+                }
+            }
+        }
+        if (trace.getNbEvents() >= 0 && (trace.getNbEvents() == 0) != (content == 0)) {
+            report.addProblem("Documented " + trace.getNbEvents() + " events, pages hold " + content + " bytes of events");
+        }
+        /* The documented duration is rounded, pages are stamped with their first event */
+        if (trace.getDuration() >= 0 && content > 0 && Math.abs(trace.getDuration() - (end - begin) / 1e9) > 1) {
+            report.addProblem("Documented " + trace.getDuration() + " s, pages span " + (end - begin) / 1e9 + " s");
+        }
+        report.addNote(sections.size() + " CPUs, " + content + " bytes of events");
+    }
+}
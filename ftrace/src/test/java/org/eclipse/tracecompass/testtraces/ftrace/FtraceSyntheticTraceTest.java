@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2026 Ericsson
+ *
+ * All rights reserved. This program and the accompanying materials are
+ * made available under the terms of the Eclipse Public License 2.0 which
+ * accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *******************************************************************************/
+
+package org.eclipse.tracecompass.testtraces.ftrace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.CpuSection;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.synth.SyntheticEvent;
+import org.eclipse.tracecompass.testtraces.ftrace.tools.synth.TraceDatGenerator;
+import org.junit.Test;
+
+/**
+ * Tests for {@link FtraceSyntheticTrace}
+ */
+public class FtraceSyntheticTraceTest {
+
+    /**
+     * Test that a trace of many CPUs is generated once, and that its headers
+     * describe every CPU.
+     *
+     * @throws IOException
+     *             if the trace file cannot be read
+     */
+    @Test
+    public void testManyCpus() throws IOException {
+        FtraceSyntheticTrace trace = new FtraceSyntheticTrace(256, 4096, 1000, TraceDatGenerator.getUniformMix(), 2_000_000, 0);
+        assertEquals(256000, trace.getNbEvents());
+        assertEquals(51200, trace.getNbEvents(SyntheticEvent.PRINT));
+        assertEquals(2, trace.getDuration());
+        Path path = trace.getTracePath();
+        long modified = Files.getLastModifiedTime(path).toMillis();
+        assertEquals(path, trace.getTracePath());
+        assertEquals(modified, Files.getLastModifiedTime(path).toMillis());
+        List<CpuSection> sections = trace.getCpuSections();
+        assertEquals(256, sections.size());
+        for (CpuSection section : sections) {
+            assertEquals(0, section.getOffset() % 4096);
+            assertTrue(section.getPageCount() > 0);
+            assertEquals(TraceDatGenerator.START_TIMESTAMP + section.getCpu(), section.getPageTimestamp(0));
+        }
+    }
+}
@@ -11,8 +11,14 @@
 
 package org.eclipse.tracecompass.testtraces.ftrace;
 
-import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.eclipse.tracecompass.testtraces.ftrace.tools.dat.CpuSection;
 import org.junit.Test;
 
 /**
@@ -21,12 +27,25 @@ import org.junit.Test;
 public class FtraceTestTraceTest {
 
     /**
-     * Test that all configured traces are present.
+     * Test the CPU sections of the 4-CPU trace: they are within the file,
+     * page aligned, and their page timestamps are sorted.
+     *
+     * @throws IOException
+     *             if the trace file cannot be read
      */
     @Test
-    public void testTracesExist() {
-        for (FtraceTestTrace trace : FtraceTestTrace.values()) {
-            assertNotNull(trace.getTraceURL());
+    public void testCpuSections() throws IOException {
+        FtraceTestTrace trace = FtraceTestTrace.TEST_2_6_MULTIPLE_CPUS;
+        List<CpuSection> sections = trace.getCpuSections();
+        assertEquals(4, sections.size());
+        long fileSize = Files.size(trace.getTracePath());
+        for (CpuSection section : sections) {
+            assertEquals(0, section.getOffset() % section.getPageSize());
+            assertTrue(section.getOffset() + section.getSize() <= fileSize);
+            for (int page = 1; page < section.getPageCount(); page++) {
+                assertTrue(section.getPageTimestamp(page - 1) <= section.getPageTimestamp(page));
+            }
         }
+        assertTrue(FtraceTestTrace.TEST_2_6_BAD_CPU_SECTION_SIZE.getCpuSections().isEmpty());
     }
 }